@@ -58,6 +58,9 @@ public final class DOEConstants {
     /** Constant. */
     public static final String KEY_SEED_NUMBER = "seedNumber";
 
+    /** Configuration key of the maximum number of samples sent into the loop without having received their results. */
+    public static final String KEY_SAMPLES_IN_FLIGHT = "samplesInFlight";
+
     /** Constant. */
     public static final String META_KEY_LOWER = "lower";
 
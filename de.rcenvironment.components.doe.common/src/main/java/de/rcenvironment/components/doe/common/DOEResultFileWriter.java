@@ -0,0 +1,108 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.components.doe.common;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+/**
+ * Writes the results of the DOE samples into a .csv file. The file contains one column per output, holding the values of the sample, and
+ * one column per input, holding its results. The results are appended row by row as they arrive, so that the file does not need to be
+ * rewritten for every sample. There is one row per sample; the rows of samples without a result are left empty.
+ * 
+ * @author agent
+ */
+public class DOEResultFileWriter implements Closeable {
+
+    private final File file;
+
+    private final Object[][] tableValues;
+
+    private final List<String> outputs;
+
+    private CSVPrinter printer;
+
+    private List<String> orderedInputs;
+
+    private int nextSample = 0;
+
+    /**
+     * @param file the file to write
+     * @param tableValues the values of all samples
+     * @param outputs name of all outputs for the header
+     */
+    public DOEResultFileWriter(File file, Object[][] tableValues, List<String> outputs) {
+        this.file = file;
+        this.tableValues = tableValues;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Appends the results of a sample. The samples must be given in ascending order; the header is written with the first results, which
+     * determine the input columns.
+     * 
+     * @param sample the index of the sample
+     * @param results the values received at the inputs for the sample
+     * @throws IOException if writing failed
+     */
+    public void appendResult(int sample, Map<String, Double> results) throws IOException {
+        if (sample < nextSample) {
+            throw new IllegalArgumentException("Results of sample " + sample + " are given after those of sample " + (nextSample - 1));
+        }
+        if (printer == null) {
+            orderedInputs = new LinkedList<>(results.keySet());
+            Collections.sort(orderedInputs);
+            printer = CSVFormat.newFormat(';').withIgnoreSurroundingSpaces().withAllowMissingColumnNames().withRecordSeparator("\n")
+                .print(new BufferedWriter(new FileWriter(file)));
+            for (String outputName : outputs) {
+                printer.print(outputName);
+            }
+            for (String input : orderedInputs) {
+                printer.print(input);
+            }
+            printer.println();
+        }
+        while (nextSample < sample) {
+            printer.println();
+            nextSample++;
+        }
+        for (int j = 0; j < tableValues[sample].length; j++) {
+            printer.print(tableValues[sample][j]);
+        }
+        for (String input : orderedInputs) {
+            printer.print(results.get(input));
+        }
+        printer.println();
+        nextSample++;
+    }
+
+    /**
+     * @return true, if any results were written
+     */
+    public boolean hasResults() {
+        return printer != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (printer != null) {
+            printer.close();
+        }
+    }
+}
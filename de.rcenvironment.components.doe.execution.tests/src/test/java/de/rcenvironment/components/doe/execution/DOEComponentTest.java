@@ -14,10 +14,17 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.easymock.EasyMock;
+import org.easymock.IAnswer;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -277,6 +284,152 @@ public class DOEComponentTest {
 
     }
 
+    /**
+     * Test if the DOE sends up to the configured number of samples into the loop before receiving results.
+     * 
+     * @throws ComponentException :
+     */
+    @Test
+    public void testWithSamplesInFlight() throws ComponentException {
+        setDOEConfiguration(DOEConstants.DOE_ALGORITHM_FULLFACT, ZERO, TWO, ZERO, ZERO,
+            LoopComponentConstants.LoopBehaviorInCaseOfFailure.Fail, null);
+        context.setConfigurationValue(DOEConstants.KEY_SAMPLES_IN_FLIGHT, TWO);
+
+        addStaticOutputs();
+        addNewOutput(X, MINUS_1, ONE);
+        addNewOutput(Y, MINUS_TEN, TEN);
+
+        context.addSimulatedInput(I, DOEConstants.INPUT_ID_NAME, DataType.Float, true, null);
+
+        component.start();
+        checkOutput(new double[] { -1, 1 }, X);
+        checkOutput(new double[] { -10, -10 }, Y);
+
+        final double[] expectedValuesX = { -1, 1 };
+        final double[] expectedValuesY = { 10, 10 };
+        for (int i = 0; i < 2; i++) {
+            context.setInputValue(I, context.getService(TypedDatumService.class).getFactory().createFloat(i));
+            component.processInputs();
+            checkOutput(new double[] { expectedValuesX[i] }, X);
+            checkOutput(new double[] { expectedValuesY[i] }, Y);
+        }
+
+        // all samples are sent; the results of the last two are still missing
+        context.setInputValue(I, context.getService(TypedDatumService.class).getFactory().createFloat(2));
+        component.processInputs();
+        assertEquals(0, context.getCapturedOutput(X).size());
+        assertEquals(0, context.getCapturedOutput(LoopComponentConstants.ENDPOINT_NAME_LOOP_DONE).size());
+        checkNoOutputsClosed();
+
+        context.setInputValue(I, context.getService(TypedDatumService.class).getFactory().createFloat(3));
+        component.processInputs();
+        assertEquals(0, context.getCapturedOutput(X).size());
+        checkLoopDoneSent(true);
+        checkClosedOutputs(2);
+
+        component.tearDown(Component.FinalComponentState.FINISHED);
+        component.dispose();
+    }
+
+    /**
+     * Test if the results are written to the result file in the order of the samples, and if the result file is stored only once.
+     * 
+     * @throws ComponentException :
+     * @throws IOException :
+     */
+    @Test
+    public void testResultFileWithSamplesInFlight() throws ComponentException, IOException {
+        setDOEConfiguration(DOEConstants.DOE_ALGORITHM_FULLFACT, ZERO, TWO, ZERO, ZERO,
+            LoopComponentConstants.LoopBehaviorInCaseOfFailure.Fail, null);
+        context.setConfigurationValue(DOEConstants.KEY_SAMPLES_IN_FLIGHT, "3");
+        context.setConfigurationValue(ComponentConstants.CONFIG_KEY_STORE_DATA_ITEM, String.valueOf(true));
+
+        final List<String> storedResultFileLines = new ArrayList<>();
+        final FileReferenceTD dummyFileReference =
+            context.getService(TypedDatumService.class).getFactory().createFileReference("", "");
+        ComponentDataManagementService componentDataManagementServiceMock = EasyMock.createMock(ComponentDataManagementService.class);
+        EasyMock.expect(componentDataManagementServiceMock.createFileReferenceTDFromLocalFile(anyObject(ComponentContext.class),
+            anyObject(File.class), anyObject(String.class))).andAnswer(new IAnswer<FileReferenceTD>() {
+
+                @Override
+                public FileReferenceTD answer() throws IOException {
+                    if ("Result.csv".equals(EasyMock.getCurrentArguments()[2])) {
+                        storedResultFileLines.addAll(
+                            Files.readAllLines(((File) EasyMock.getCurrentArguments()[1]).toPath(), StandardCharsets.UTF_8));
+                    }
+                    return dummyFileReference;
+                }
+            }).times(2);
+        EasyMock.replay(componentDataManagementServiceMock);
+        context.addService(ComponentDataManagementService.class, componentDataManagementServiceMock);
+
+        addStaticOutputs();
+        addNewOutput(X, MINUS_1, ONE);
+        addNewOutput(Y, MINUS_TEN, TEN);
+
+        context.addSimulatedInput(I, DOEConstants.INPUT_ID_NAME, DataType.Float, true, null);
+
+        component.start();
+        for (int i = 0; i < 4; i++) {
+            context.setInputValue(I, context.getService(TypedDatumService.class).getFactory().createFloat(i));
+            component.processInputs();
+            if (i < 3) {
+                assertTrue(storedResultFileLines.isEmpty());
+            }
+        }
+        checkLoopDoneSent(true);
+        EasyMock.verify(componentDataManagementServiceMock);
+        assertEquals(Arrays.asList("x;y;i", "-1.0;-10.0;0.0", "1.0;-10.0;1.0", "-1.0;10.0;2.0", "1.0;10.0;3.0"),
+            storedResultFileLines);
+
+        component.tearDown(Component.FinalComponentState.FINISHED);
+        component.dispose();
+    }
+
+    /**
+     * Test if the DOE refuses to re-run loop runs if more than one sample is sent into the loop at once.
+     * 
+     * @throws ComponentException :
+     */
+    @Test
+    public void testSamplesInFlightWithRerun() throws ComponentException {
+        setDOEConfiguration(DOEConstants.DOE_ALGORITHM_FULLFACT, ZERO, TWO, ZERO, ZERO,
+            LoopComponentConstants.LoopBehaviorInCaseOfFailure.RerunAndFail, null);
+        context.setConfigurationValue(DOEConstants.KEY_SAMPLES_IN_FLIGHT, TWO);
+
+        addStaticOutputs();
+        addNewOutput(X, MINUS_1, ONE);
+        addNewOutput(Y, MINUS_TEN, TEN);
+
+        context.addSimulatedInput(I, DOEConstants.INPUT_ID_NAME, DataType.Float, true, null);
+
+        exception.expect(ComponentException.class);
+        component.start();
+    }
+
+    /**
+     * Test if the DOE refuses to forward values if more than one sample is sent into the loop at once.
+     * 
+     * @throws ComponentException :
+     */
+    @Test
+    public void testSamplesInFlightWithForwarding() throws ComponentException {
+        setDOEConfiguration(DOEConstants.DOE_ALGORITHM_FULLFACT, ZERO, TWO, ZERO, ZERO,
+            LoopComponentConstants.LoopBehaviorInCaseOfFailure.Fail, null);
+        context.setConfigurationValue(DOEConstants.KEY_SAMPLES_IN_FLIGHT, TWO);
+
+        addStaticOutputs();
+        addNewOutput(X, MINUS_1, ONE);
+        addNewOutput(Y, MINUS_TEN, TEN);
+
+        context.addSimulatedInput(I, LoopComponentConstants.ENDPOINT_ID_TO_FORWARD, DataType.Float, true, null);
+        context.addSimulatedOutput(I, LoopComponentConstants.ENDPOINT_ID_TO_FORWARD, DataType.Float, true, null);
+
+        exception.expect(ComponentException.class);
+        exception.expectMessage("Forwarding values is not supported");
+        component.start();
+    }
+
     /**
      * Test the full factorial algorithm for DOE with no inputs.
      * 
@@ -25,6 +25,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import de.rcenvironment.components.doe.common.DOEAlgorithms;
 import de.rcenvironment.components.doe.common.DOEComponentHistoryDataItem;
 import de.rcenvironment.components.doe.common.DOEConstants;
+import de.rcenvironment.components.doe.common.DOEResultFileWriter;
 import de.rcenvironment.components.doe.common.DOEUtils;
 import de.rcenvironment.core.component.api.ComponentConstants;
 import de.rcenvironment.core.component.api.ComponentException;
@@ -44,6 +45,10 @@ import de.rcenvironment.core.utils.common.TempFileServiceAccess;
 /**
  * Component for doing a design of experiments.
  * 
+ * If the samples are evaluated in a loop, up to the configured number of samples are sent into the loop without waiting for their
+ * results. The results are assigned to the samples in the order the samples were sent, as the loop passes them on in that order. The
+ * results are appended to the result file as they arrive; the file is stored in the data management once the loop is done.
+ * 
  * @author Sascha Zur
  * @author Doreen Seider (logging)
  * @author Jascha Riedel (#14117)
@@ -58,12 +63,17 @@ public class DOEComponent extends AbstractNestedLoopComponent {
 
     private static final Log LOGGER = LogFactory.getLog(DOEComponent.class);
 
-    private Double[][] valuesTable;
+    private static final String SAMPLES_IN_FLIGHT_SETTING = "number of samples in flight";
 
-    private final Map<Integer, Map<String, Double>> resultData = new HashMap<>();
+    private Double[][] valuesTable;
 
     private int runNumber = 0;
 
+    private int maxSamplesInFlight = 1;
+
+    /** The number of samples sent into the loop whose results were not received yet. */
+    private int samplesInFlight = 0;
+
     private int endSample = MINUS_ONE;
 
     private DOEComponentHistoryDataItem historyDataItem;
@@ -78,6 +88,10 @@ public class DOEComponent extends AbstractNestedLoopComponent {
 
     private File tableFile;
 
+    private File resultFile;
+
+    private DOEResultFileWriter resultFileWriter;
+
     private volatile boolean canceled = false;
 
     private String method = "";
@@ -88,6 +102,9 @@ public class DOEComponent extends AbstractNestedLoopComponent {
         removeOutputsNotConsidered();
         Collections.sort(outputs);
         method = componentContext.getConfigurationValue(DOEConstants.KEY_METHOD);
+        maxSamplesInFlight =
+            parseLoopRunsInFlight(componentContext.getConfigurationValue(DOEConstants.KEY_SAMPLES_IN_FLIGHT), SAMPLES_IN_FLIGHT_SETTING);
+        checkLoopRunsInFlightSupported(maxSamplesInFlight, SAMPLES_IN_FLIGHT_SETTING);
         int runNumberCount = Integer.parseInt(componentContext.getConfigurationValue(DOEConstants.KEY_RUN_NUMBER));
         int seedNumber = 0;
         if (componentContext.getConfigurationValue(DOEConstants.KEY_SEED_NUMBER) != null) {
@@ -257,7 +274,13 @@ public class DOEComponent extends AbstractNestedLoopComponent {
             componentContext.writeOutput(DOEConstants.OUTPUT_NAME_NUMBER_OF_SAMPLES, typedDatumFactory.createInteger(valuesTable.length));
         }
         writeNewOutput();
-        writeResultFile();
+        if (isDone) {
+            writeResultFile();
+            if (isNestedLoop()) {
+                // the result file is complete only now, but no final values are sent when an inner loop is done
+                writeFinalHistoryDataItem();
+            }
+        }
 
     }
 
@@ -324,38 +347,67 @@ public class DOEComponent extends AbstractNestedLoopComponent {
                 LOGGER.error("Could not dispose temp file: ", e);
             }
         }
+        disposeResultFile();
     }
 
-    private void writeResultFile() {
-        if (!componentContext.getDynamicInputsWithIdentifier(DOEConstants.INPUT_ID_NAME).isEmpty() && historyDataItem != null) {
-            File resultFile = null;
+    private void appendToResultFile(int sample, Map<String, Double> runInput) {
+        if (historyDataItem != null) {
             try {
-                resultFile = TempFileServiceAccess.getInstance().createTempFileFromPattern("DOEResult*.csv");
-                if (method.equals(DOEConstants.DOE_ALGORITHM_CUSTOM_TABLE)
-                    || method.equals(DOEConstants.DOE_ALGORITHM_CUSTOM_TABLE_INPUT)) {
-                    DOEUtils.writeResultToCSVFile(valuesTable, resultData, resultFile.getAbsolutePath(), runNumber, outputs);
-                } else {
-                    DOEUtils.writeResultToCSVFile(codedValues, resultData, resultFile.getAbsolutePath(), runNumber, outputs);
+                if (resultFileWriter == null) {
+                    resultFile = TempFileServiceAccess.getInstance().createTempFileFromPattern("DOEResult*.csv");
+                    if (method.equals(DOEConstants.DOE_ALGORITHM_CUSTOM_TABLE)
+                        || method.equals(DOEConstants.DOE_ALGORITHM_CUSTOM_TABLE_INPUT)) {
+                        resultFileWriter = new DOEResultFileWriter(resultFile, valuesTable, outputs);
+                    } else {
+                        resultFileWriter = new DOEResultFileWriter(resultFile, codedValues, outputs);
+                    }
                 }
-                FileReferenceTD resultFileReference =
-                    componentContext.getService(ComponentDataManagementService.class).createFileReferenceTDFromLocalFile(componentContext,
-                        resultFile, "Result.csv");
-                historyDataItem.setResultFileReference(resultFileReference.getFileReference());
+                resultFileWriter.appendResult(sample, runInput);
             } catch (IOException e) {
                 String errorMessage = "Failed to store history data";
                 componentLog.componentError(StringUtils.format(PLACEHOLDER_STRING, errorMessage, e.getMessage()));
                 LOGGER.error(errorMessage, e);
-            } finally {
-                if (resultFile != null && resultFile.exists()) {
-                    try {
-                        TempFileServiceAccess.getInstance().disposeManagedTempDirOrFile(resultFile);
-                    } catch (IOException e) {
-                        LOGGER.error("Failed to dispose temporary file: " + resultFile.getAbsolutePath(), e);
-                    }
+                disposeResultFile();
+            }
+        }
+    }
+
+    private void writeResultFile() {
+        if (resultFileWriter != null && historyDataItem != null) {
+            try {
+                resultFileWriter.close();
+                if (resultFileWriter.hasResults()) {
+                    FileReferenceTD resultFileReference =
+                        componentContext.getService(ComponentDataManagementService.class).createFileReferenceTDFromLocalFile(
+                            componentContext, resultFile, "Result.csv");
+                    historyDataItem.setResultFileReference(resultFileReference.getFileReference());
                 }
+            } catch (IOException e) {
+                String errorMessage = "Failed to store history data";
+                componentLog.componentError(StringUtils.format(PLACEHOLDER_STRING, errorMessage, e.getMessage()));
+                LOGGER.error(errorMessage, e);
             }
+        }
+        disposeResultFile();
+    }
 
+    private void disposeResultFile() {
+        if (resultFileWriter != null) {
+            try {
+                resultFileWriter.close();
+            } catch (IOException e) {
+                LOGGER.error("Failed to close result file: " + resultFile.getAbsolutePath(), e);
+            }
+            resultFileWriter = null;
+        }
+        if (resultFile != null && resultFile.exists()) {
+            try {
+                TempFileServiceAccess.getInstance().disposeManagedTempDirOrFile(resultFile);
+            } catch (IOException e) {
+                LOGGER.error("Failed to dispose temporary file: " + resultFile.getAbsolutePath(), e);
+            }
         }
+        resultFile = null;
     }
 
     private void writeNewOutput() {
@@ -364,14 +416,21 @@ public class DOEComponent extends AbstractNestedLoopComponent {
                 && componentContext.getDynamicInputsWithIdentifier(LoopComponentConstants.ENDPOINT_ID_TO_FORWARD).isEmpty()
                 && !hasForwardingStartInputs()) {
                 writeAllOutputs();
-            } else if (runNumber < valuesTable.length) {
-                writeNextOutput();
             } else {
-                setLoopDone();
+                while (samplesInFlight < maxSamplesInFlight && hasNextSample()) {
+                    writeNextOutput();
+                    samplesInFlight++;
+                }
+                setLoopDone(samplesInFlight == 0);
             }
         }
     }
 
+    private boolean hasNextSample() {
+        return runNumber < valuesTable.length
+            && !(method.equals(DOEConstants.DOE_ALGORITHM_CUSTOM_TABLE) && runNumber > endSample);
+    }
+
     private void setLoopDone() {
         setLoopDone(true);
     }
@@ -381,11 +440,6 @@ public class DOEComponent extends AbstractNestedLoopComponent {
     }
 
     private void writeNextOutput() {
-        if (method.equals(DOEConstants.DOE_ALGORITHM_CUSTOM_TABLE)
-            && runNumber > endSample) {
-            setLoopDone();
-            return;
-        }
         int i = 0;
         for (String output : outputs) {
             Double low = Double.valueOf(componentContext.getOutputMetaDataValue(output, DOEConstants.META_KEY_LOWER));
@@ -402,7 +456,6 @@ public class DOEComponent extends AbstractNestedLoopComponent {
 
         }
         runNumber++;
-        setLoopDone(false);
     }
 
     private void writeAllOutputs() {
@@ -432,7 +485,11 @@ public class DOEComponent extends AbstractNestedLoopComponent {
     }
 
     private void processInput() {
-        if (!componentContext.getInputsWithDatum().isEmpty()) {
+        // the inputs only contain results if samples were sent before; otherwise, they are start values or a custom table
+        if (samplesInFlight > 0) {
+            // see checkLoopRunsInFlightSupported() for the order of the results
+            final int sample = runNumber - samplesInFlight;
+            samplesInFlight--;
             Map<String, Double> runInput = new HashMap<>();
             for (String inputName : componentContext.getInputsWithDatum()) {
                 if (componentContext.getDynamicInputIdentifier(inputName).equals(DOEConstants.INPUT_ID_NAME)) {
@@ -443,7 +500,9 @@ public class DOEComponent extends AbstractNestedLoopComponent {
                     }
                 }
             }
-            resultData.put(runNumber - 1, runInput);
+            if (!runInput.isEmpty()) {
+                appendToResultFile(sample, runInput);
+            }
         }
     }
 
@@ -468,7 +527,9 @@ public class DOEComponent extends AbstractNestedLoopComponent {
     @Override
     protected void resetNestedComponentSpecific() {
         runNumber = 0;
+        samplesInFlight = 0;
         isDone = false;
+        disposeResultFile();
     }
 
     @Override
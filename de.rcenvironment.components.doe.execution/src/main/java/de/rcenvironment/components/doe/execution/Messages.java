@@ -52,6 +52,9 @@ public class Messages extends NLS {
     /** Field for NLS. */
     public static String undefinedValues;
 
+    /** Field for NLS. */
+    public static String invalidSamplesInFlight;
+
     private static final String BUNDLE_NAME = Messages.class.getPackage().getName() + ".messages";
 
     static {
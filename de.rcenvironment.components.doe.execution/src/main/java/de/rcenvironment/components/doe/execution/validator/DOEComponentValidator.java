@@ -83,9 +83,27 @@ public class DOEComponentValidator extends AbstractLoopComponentValidator {
             checkTableDimensions(componentDescription, messages);
         }
 
+        checkSamplesInFlight(componentDescription, messages);
+
         return messages;
     }
 
+    private void checkSamplesInFlight(ComponentDescription componentDescription, Collection<ComponentValidationMessage> messages) {
+        String samplesInFlight = getProperty(componentDescription, DOEConstants.KEY_SAMPLES_IN_FLIGHT);
+        if (samplesInFlight != null && !samplesInFlight.isEmpty()) {
+            boolean valid;
+            try {
+                valid = Integer.parseInt(samplesInFlight) > 0;
+            } catch (NumberFormatException e) {
+                valid = false;
+            }
+            if (!valid) {
+                messages.add(new ComponentValidationMessage(ComponentValidationMessage.Type.ERROR, DOEConstants.KEY_SAMPLES_IN_FLIGHT,
+                    Messages.invalidSamplesInFlight, Messages.invalidSamplesInFlight));
+            }
+        }
+    }
+
     private Optional<ComponentValidationMessage> checkForNumberOfLevels(String methodName, int runNumber) {
         if (methodName.equals(DOEConstants.DOE_ALGORITHM_FULLFACT) && runNumber < 2) {
             final ComponentValidationMessage noInputMessage = new ComponentValidationMessage(
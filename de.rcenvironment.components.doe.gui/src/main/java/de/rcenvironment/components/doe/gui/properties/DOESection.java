@@ -230,6 +230,12 @@ public class DOESection extends ValidatingWorkflowNodePropertySection {
         endSample.addVerifyListener(new NumericalTextConstraintListener(endSample, NumericalTextConstraintListener.ONLY_INTEGER
             | NumericalTextConstraintListener.GREATER_OR_EQUAL_ZERO));
         endSample.setData(CONTROL_PROPERTY_KEY, DOEConstants.KEY_END_SAMPLE);
+        Label samplesInFlightLabel = new Label(sampleComposite, SWT.NONE);
+        samplesInFlightLabel.setText(Messages.samplesInFlightLabel);
+        Spinner samplesInFlightSpinner = new Spinner(sampleComposite, SWT.BORDER);
+        samplesInFlightSpinner.setMinimum(1);
+        samplesInFlightSpinner.setMaximum(Integer.MAX_VALUE);
+        samplesInFlightSpinner.setData(CONTROL_PROPERTY_KEY, DOEConstants.KEY_SAMPLES_IN_FLIGHT);
 
         GridLayout tableCompositeLayout = new GridLayout(3, false);
         tableCompositeLayout.marginWidth = 0;
@@ -1049,7 +1055,7 @@ public class DOESection extends ValidatingWorkflowNodePropertySection {
             if ((control instanceof Combo && oldValue != null) || control instanceof Table) {
                 refreshDOESection();
             }
-            if (control instanceof Spinner && oldValue != null) {
+            if (control instanceof Spinner && oldValue != null && !propertyName.equals(DOEConstants.KEY_SAMPLES_IN_FLIGHT)) {
                 fillTable();
                 if (algorithmSelection.getText().equals(DOEConstants.DOE_ALGORITHM_CUSTOM_TABLE)) {
                     ObjectMapper mapper = JsonUtils.getDefaultObjectMapper();
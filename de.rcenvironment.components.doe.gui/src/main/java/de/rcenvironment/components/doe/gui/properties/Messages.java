@@ -28,6 +28,9 @@ public class Messages extends NLS {
     /** Field for NLS. */
     public static String seedLabel;
 
+    /** Field for NLS. */
+    public static String samplesInFlightLabel;
+
     /** Field for NLS. */
     public static String failedRunBehaviorLabel;
 
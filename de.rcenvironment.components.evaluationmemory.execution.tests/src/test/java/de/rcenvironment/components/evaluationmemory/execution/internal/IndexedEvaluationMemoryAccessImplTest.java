@@ -0,0 +1,268 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.components.evaluationmemory.execution.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.rcenvironment.core.component.execution.api.ComponentLog;
+import de.rcenvironment.core.datamodel.api.DataType;
+import de.rcenvironment.core.datamodel.api.TypedDatum;
+import de.rcenvironment.core.datamodel.api.TypedDatumFactory;
+import de.rcenvironment.core.datamodel.testutils.TypedDatumFactoryDefaultStub;
+import de.rcenvironment.core.datamodel.testutils.TypedDatumSerializerDefaultStub;
+import de.rcenvironment.core.utils.common.TempFileServiceAccess;
+
+/**
+ * Test cases for {@link IndexedEvaluationMemoryAccessImpl}.
+ * 
+ * @author agent
+ */
+public class IndexedEvaluationMemoryAccessImplTest {
+
+    private static final String X = "x";
+
+    private static final String N = "n";
+
+    private static final String Y = "y";
+
+    private static final double TOLERANCE = 0.1;
+
+    private static final int RANDOM_RECORDS = 500;
+
+    private static final int RANDOM_QUERIES = 300;
+
+    private final TypedDatumFactory typedDatumFactory = new TypedDatumFactoryDefaultStub();
+
+    private final List<File> tempFiles = new ArrayList<>();
+
+    /**
+     * Common setup.
+     * 
+     * @throws IOException on unexpected failure
+     */
+    @BeforeClass
+    public static void setUp() throws IOException {
+        TempFileServiceAccess.setupUnitTestEnvironment();
+    }
+
+    /**
+     * Common cleanup.
+     * 
+     * @throws IOException on unexpected failure
+     */
+    @After
+    public void tearDown() throws IOException {
+        for (File file : tempFiles) {
+            TempFileServiceAccess.getInstance().disposeManagedTempDirOrFile(file);
+        }
+    }
+
+    /**
+     * Tests that new records are appended to the memory file without rewriting it, and that the file stays a valid evaluation memory.
+     * 
+     * @throws IOException on unexpected failure
+     */
+    @Test
+    public void testAppendOnlyStorage() throws IOException {
+        File testFile = createTempFile("append");
+        IndexedEvaluationMemoryAccessImpl memoryAccess = createMemoryAccess(testFile);
+
+        memoryAccess.addEvaluationValues(createInputValues(1.0, 1), createOutputValues(2.0));
+        String contentBefore = FileUtils.readFileToString(testFile);
+        memoryAccess.addEvaluationValues(createInputValues(2.0, 2), createOutputValues(4.0));
+        String contentAfter = FileUtils.readFileToString(testFile);
+        assertTrue(contentAfter.length() > contentBefore.length());
+        assertTrue(contentAfter.startsWith(contentBefore));
+
+        // adding an identical record must not change the file
+        memoryAccess.addEvaluationValues(createInputValues(2.0, 2), createOutputValues(4.0));
+        assertEquals(contentAfter, FileUtils.readFileToString(testFile));
+
+        // a superseding record is appended as well, and takes precedence on reloading
+        memoryAccess.addEvaluationValues(createInputValues(2.0, 2), createOutputValues(5.0));
+        assertTrue(FileUtils.readFileToString(testFile).startsWith(contentAfter));
+
+        IndexedEvaluationMemoryAccessImpl reloadedMemoryAccess = createMemoryAccess(testFile);
+        reloadedMemoryAccess.validateEvaluationMemory(createInputsDefinition(), createOutputsDefinition());
+        ToleranceHandling toleranceHandling = ToleranceHandling.constructStrictHandling(createComponentLogMock());
+        assertEquals(createOutputValues(5.0), reloadedMemoryAccess.getEvaluationResult(createInputValues(2.0, 2),
+            createOutputsDefinition(), createTolerances(null), toleranceHandling));
+        assertEquals(createOutputValues(2.0), reloadedMemoryAccess.getEvaluationResult(createInputValues(1.0, 1),
+            createOutputsDefinition(), createTolerances(null), toleranceHandling));
+    }
+
+    /**
+     * Tests that records are appended properly to memory files that do not end with a line break, e.g., as they were edited manually.
+     * 
+     * @throws IOException on unexpected failure
+     */
+    @Test
+    public void testAppendingToFileWithoutTrailingLineBreak() throws IOException {
+        File testFile = createTempFile("noLineBreak");
+        IndexedEvaluationMemoryAccessImpl memoryAccess = createMemoryAccess(testFile);
+        FileUtils.write(testFile, FileUtils.readFileToString(testFile).trim());
+
+        memoryAccess.addEvaluationValues(createInputValues(1.0, 1), createOutputValues(2.0));
+
+        IndexedEvaluationMemoryAccessImpl reloadedMemoryAccess = createMemoryAccess(testFile);
+        reloadedMemoryAccess.validateEvaluationMemory(createInputsDefinition(), createOutputsDefinition());
+        assertEquals(createOutputValues(2.0), reloadedMemoryAccess.getEvaluationResult(createInputValues(1.0, 1),
+            createOutputsDefinition(), createTolerances(null), ToleranceHandling.constructStrictHandling(createComponentLogMock())));
+    }
+
+    /**
+     * Tests lookups within tolerance intervals, including records added after the tolerance index has been built.
+     * 
+     * @throws IOException on unexpected failure
+     */
+    @Test
+    public void testToleranceLookup() throws IOException {
+        File testFile = createTempFile("tolerance");
+        IndexedEvaluationMemoryAccessImpl memoryAccess = createMemoryAccess(testFile);
+        ToleranceHandling toleranceHandling = ToleranceHandling.constructStrictHandling(createComponentLogMock());
+        final int gridSize = 20;
+        for (int i = 1; i <= gridSize; i++) {
+            memoryAccess.addEvaluationValues(createInputValues(i, i), createOutputValues(i * 2));
+        }
+
+        assertEquals(createOutputValues(2.0 * 2), memoryAccess.getEvaluationResult(createInputValues(2.05, 2),
+            createOutputsDefinition(), createTolerances(TOLERANCE), toleranceHandling));
+        assertNull(memoryAccess.getEvaluationResult(createInputValues(2.5, 2),
+            createOutputsDefinition(), createTolerances(TOLERANCE), toleranceHandling));
+        assertNull(memoryAccess.getEvaluationResult(createInputValues(2.05, 3),
+            createOutputsDefinition(), createTolerances(TOLERANCE), toleranceHandling));
+
+        // records added after the index has been built must be found as well
+        memoryAccess.addEvaluationValues(createInputValues(2.5, 2), createOutputValues(-1.0));
+        assertEquals(createOutputValues(-1.0), memoryAccess.getEvaluationResult(createInputValues(2.45, 2),
+            createOutputsDefinition(), createTolerances(TOLERANCE), toleranceHandling));
+    }
+
+    /**
+     * Tests that tolerance lookups yield the same results as the ones of {@link EvaluationMemoryFileAccessImpl}, which checks all stored
+     * records.
+     * 
+     * @throws IOException on unexpected failure
+     */
+    @Test
+    public void testEquivalenceToFullScan() throws IOException {
+        IndexedEvaluationMemoryAccessImpl indexedAccess = createMemoryAccess(createTempFile("indexed"));
+        File referenceFile = createTempFile("reference");
+        EvaluationMemoryFileAccessImpl referenceAccess = new EvaluationMemoryFileAccessImpl(referenceFile.getAbsolutePath());
+        referenceAccess.setTypedDatumSerializer(new TypedDatumSerializerDefaultStub());
+        referenceAccess.setInputsOutputsDefinition(createInputsDefinition(), createOutputsDefinition());
+
+        final Random random = new Random(1);
+        final int valueRange = 20;
+        for (int i = 0; i < RANDOM_RECORDS; i++) {
+            final SortedMap<String, TypedDatum> inputValues = createInputValues(random.nextDouble() * valueRange - 2,
+                random.nextInt(valueRange) - 2);
+            final SortedMap<String, TypedDatum> outputValues = createOutputValues(i);
+            indexedAccess.addEvaluationValues(inputValues, outputValues);
+            referenceAccess.addEvaluationValues(inputValues, outputValues);
+        }
+
+        ToleranceHandling toleranceHandling = ToleranceHandling.constructStrictHandling(createComponentLogMock());
+        int matches = 0;
+        for (int i = 0; i < RANDOM_QUERIES; i++) {
+            final SortedMap<String, TypedDatum> inputValues = createInputValues(random.nextDouble() * valueRange - 2,
+                random.nextInt(valueRange) - 2);
+            final SortedMap<String, Double> tolerances = createTolerances(random.nextDouble() * TOLERANCE);
+            if (random.nextBoolean()) {
+                tolerances.put(N, random.nextDouble());
+            }
+            final SortedMap<String, TypedDatum> expected =
+                referenceAccess.getEvaluationResult(inputValues, createOutputsDefinition(), tolerances, toleranceHandling);
+            assertEquals(expected,
+                indexedAccess.getEvaluationResult(inputValues, createOutputsDefinition(), tolerances, toleranceHandling));
+            if (expected != null) {
+                matches++;
+            }
+        }
+        // ensure that the random data actually covers tolerance matches
+        assertTrue(matches > 0);
+
+        // the lenient handling must return one of the tolerated records
+        SortedMap<String, TypedDatum> result = indexedAccess.getEvaluationResult(createInputValues(valueRange / 2, valueRange / 2),
+            createOutputsDefinition(), createTolerances(1.0), ToleranceHandling.constructLenientHandling(createComponentLogMock()));
+        assertNotNull(result);
+    }
+
+    private File createTempFile(String name) throws IOException {
+        File testFile = TempFileServiceAccess.getInstance().createTempFileWithFixedFilename(name);
+        tempFiles.add(testFile);
+        return testFile;
+    }
+
+    private IndexedEvaluationMemoryAccessImpl createMemoryAccess(File testFile) throws IOException {
+        IndexedEvaluationMemoryAccessImpl memoryAccess = new IndexedEvaluationMemoryAccessImpl(testFile.getAbsolutePath());
+        memoryAccess.setTypedDatumSerializer(new TypedDatumSerializerDefaultStub());
+        if (testFile.length() == 0) {
+            memoryAccess.setInputsOutputsDefinition(createInputsDefinition(), createOutputsDefinition());
+        }
+        return memoryAccess;
+    }
+
+    private SortedMap<String, DataType> createInputsDefinition() {
+        SortedMap<String, DataType> inputs = new TreeMap<>();
+        inputs.put(X, DataType.Float);
+        inputs.put(N, DataType.Integer);
+        return inputs;
+    }
+
+    private SortedMap<String, DataType> createOutputsDefinition() {
+        SortedMap<String, DataType> outputs = new TreeMap<>();
+        outputs.put(Y, DataType.Float);
+        return outputs;
+    }
+
+    private SortedMap<String, TypedDatum> createInputValues(double x, long n) {
+        SortedMap<String, TypedDatum> inputValues = new TreeMap<>();
+        inputValues.put(X, typedDatumFactory.createFloat(x));
+        inputValues.put(N, typedDatumFactory.createInteger(n));
+        return inputValues;
+    }
+
+    private SortedMap<String, TypedDatum> createOutputValues(double y) {
+        SortedMap<String, TypedDatum> outputValues = new TreeMap<>();
+        outputValues.put(Y, typedDatumFactory.createFloat(y));
+        return outputValues;
+    }
+
+    private SortedMap<String, Double> createTolerances(Double toleranceOfX) {
+        SortedMap<String, Double> tolerances = new TreeMap<>();
+        tolerances.put(X, toleranceOfX);
+        tolerances.put(N, null);
+        return tolerances;
+    }
+
+    private ComponentLog createComponentLogMock() {
+        ComponentLog componentLog = EasyMock.createNiceMock(ComponentLog.class);
+        EasyMock.replay(componentLog);
+        return componentLog;
+    }
+
+}
@@ -37,7 +37,7 @@ public class EvaluationMemoryFileAccessServiceImpl implements EvaluationMemoryFi
                 + " because it seems to be already in use by another 'Evaluation Memory' component", memoryFilePath));
         }
         memoryFilesInUse.add(memoryFilePath);
-        EvaluationMemoryFileAccessImpl memoryAccess = new EvaluationMemoryFileAccessImpl(memoryFilePath);
+        IndexedEvaluationMemoryAccessImpl memoryAccess = new IndexedEvaluationMemoryAccessImpl(memoryFilePath);
         memoryAccess.setTypedDatumSerializer(typedDatumSerializer);
         return memoryAccess;
     }
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.components.evaluationmemory.execution.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import de.rcenvironment.core.datamodel.api.DataType;
+import de.rcenvironment.core.datamodel.api.TypedDatum;
+import de.rcenvironment.core.datamodel.types.api.FloatTD;
+import de.rcenvironment.core.datamodel.types.api.IntegerTD;
+
+/**
+ * A k-d tree over the stored input vectors of an evaluation memory, spanning the inputs of type {@link DataType#Float} and
+ * {@link DataType#Integer}. It is used to narrow down the stored input vectors that may lie within the tolerance intervals around some
+ * actual input values, so that not every stored vector needs to be checked via {@link ToleranceHandling#isInToleranceInterval}.
+ * 
+ * The candidates returned by {@link #findCandidates(Map, Map)} are a superset of the tolerated stored inputs, i.e., they still have to be
+ * checked via the {@link ToleranceHandling}. Stored input vectors that cannot be placed in the tree (e.g., as they contain NaN values) are
+ * kept in a separate list that is always returned in full.
+ * 
+ * The tree is built balanced; input vectors added afterwards are inserted incrementally, and the tree is rebuilt once its size has doubled
+ * since the last build. This class is not thread-safe.
+ * 
+ * @author agent
+ */
+final class EvaluationMemoryToleranceIndex {
+
+    private static final int MIN_SIZE_FOR_REBUILD = 32;
+
+    private final String[] dimensions;
+
+    private final List<SortedMap<String, TypedDatum>> unindexedInputs = new ArrayList<>();
+
+    private Node root;
+
+    private int indexedCount;
+
+    private int indexedCountAtLastBuild;
+
+    /**
+     * A node of the tree, holding a single stored input vector.
+     * 
+     * @author agent
+     */
+    private static final class Node {
+
+        private final double[] point;
+
+        private final SortedMap<String, TypedDatum> storedInputs;
+
+        private int axis;
+
+        private Node left;
+
+        private Node right;
+
+        Node(double[] point, SortedMap<String, TypedDatum> storedInputs) {
+            this.point = point;
+            this.storedInputs = storedInputs;
+        }
+    }
+
+    /**
+     * @param inputDefinition the inputs of the evaluation memory and their data types
+     * @param storedInputs the input vectors already stored in the evaluation memory
+     */
+    EvaluationMemoryToleranceIndex(Map<String, DataType> inputDefinition, Collection<SortedMap<String, TypedDatum>> storedInputs) {
+        final List<String> numericInputs = new ArrayList<>();
+        for (Map.Entry<String, DataType> input : inputDefinition.entrySet()) {
+            if (input.getValue() == DataType.Float || input.getValue() == DataType.Integer) {
+                numericInputs.add(input.getKey());
+            }
+        }
+        numericInputs.sort(null);
+        dimensions = numericInputs.toArray(new String[numericInputs.size()]);
+
+        final List<Node> nodes = new ArrayList<>();
+        for (SortedMap<String, TypedDatum> inputs : storedInputs) {
+            final double[] point = toPoint(inputs);
+            if (point == null) {
+                unindexedInputs.add(inputs);
+            } else {
+                nodes.add(new Node(point, inputs));
+            }
+        }
+        rebuild(nodes);
+    }
+
+    /**
+     * Adds an input vector that has been newly stored in the evaluation memory.
+     * 
+     * @param storedInputs the stored input vector
+     */
+    void add(SortedMap<String, TypedDatum> storedInputs) {
+        final double[] point = toPoint(storedInputs);
+        if (point == null) {
+            unindexedInputs.add(storedInputs);
+            return;
+        }
+        final Node newNode = new Node(point, storedInputs);
+        indexedCount++;
+        if (root == null) {
+            root = newNode;
+            indexedCountAtLastBuild = indexedCount;
+            return;
+        }
+        Node current = root;
+        while (true) {
+            if (point[current.axis] >= current.point[current.axis]) {
+                if (current.right == null) {
+                    newNode.axis = (current.axis + 1) % dimensions.length;
+                    current.right = newNode;
+                    break;
+                }
+                current = current.right;
+            } else {
+                if (current.left == null) {
+                    newNode.axis = (current.axis + 1) % dimensions.length;
+                    current.left = newNode;
+                    break;
+                }
+                current = current.left;
+            }
+        }
+        if (indexedCount >= MIN_SIZE_FOR_REBUILD && indexedCount > 2 * indexedCountAtLastBuild) {
+            rebuild(collectNodes());
+        }
+    }
+
+    /**
+     * @return the number of input vectors in this index
+     */
+    int size() {
+        return indexedCount + unindexedInputs.size();
+    }
+
+    /**
+     * @param inputValues the actual input values
+     * @param tolerances the tolerances for the input values; a missing or null tolerance denotes that no tolerance is given
+     * @return all stored input vectors that may lie within the tolerance intervals around the given input values
+     */
+    Collection<SortedMap<String, TypedDatum>> findCandidates(Map<String, TypedDatum> inputValues, Map<String, Double> tolerances) {
+        final List<SortedMap<String, TypedDatum>> candidates = new ArrayList<>(unindexedInputs);
+        if (root == null) {
+            return candidates;
+        }
+        final double[] lowerBounds = new double[dimensions.length];
+        final double[] upperBounds = new double[dimensions.length];
+        for (int i = 0; i < dimensions.length; i++) {
+            computeSearchInterval(inputValues.get(dimensions[i]), tolerances.get(dimensions[i]), lowerBounds, upperBounds, i);
+        }
+
+        final Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            final Node node = pending.pop();
+            if (isWithinBounds(node.point, lowerBounds, upperBounds)) {
+                candidates.add(node.storedInputs);
+            }
+            final double splitValue = node.point[node.axis];
+            // the left subtree only holds values <= the split value, the right subtree only values >= the split value
+            if (node.left != null && lowerBounds[node.axis] <= splitValue) {
+                pending.push(node.left);
+            }
+            if (node.right != null && upperBounds[node.axis] >= splitValue) {
+                pending.push(node.right);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Computes an interval that contains all values tolerated by {@link ToleranceHandling#isInToleranceInterval} for the given input
+     * value, using the same arithmetic. If no such interval can be determined, the dimension is left unconstrained.
+     */
+    private void computeSearchInterval(TypedDatum inputValue, Double tolerance, double[] lowerBounds, double[] upperBounds, int i) {
+        lowerBounds[i] = Double.NEGATIVE_INFINITY;
+        upperBounds[i] = Double.POSITIVE_INFINITY;
+        final Double value = toCoordinate(inputValue);
+        if (value == null) {
+            return;
+        }
+        if (tolerance == null || tolerance.floatValue() == 0.0) {
+            lowerBounds[i] = value;
+            upperBounds[i] = value;
+            return;
+        }
+        final float toleranceValue = tolerance.floatValue();
+        final double bound1;
+        final double bound2;
+        if (inputValue.getDataType() == DataType.Float) {
+            bound1 = ((FloatTD) inputValue).getFloatValue() * (1.0 + toleranceValue);
+            bound2 = ((FloatTD) inputValue).getFloatValue() * (1.0 - toleranceValue);
+        } else {
+            bound1 = (int) (((IntegerTD) inputValue).getIntValue() * (1.0 + toleranceValue));
+            bound2 = (int) (((IntegerTD) inputValue).getIntValue() * (1.0 - toleranceValue)) + 1;
+        }
+        if (!Double.isNaN(bound1) && !Double.isNaN(bound2)) {
+            lowerBounds[i] = Math.min(bound1, bound2);
+            upperBounds[i] = Math.max(bound1, bound2);
+        }
+    }
+
+    private boolean isWithinBounds(double[] point, double[] lowerBounds, double[] upperBounds) {
+        for (int i = 0; i < point.length; i++) {
+            if (point[i] < lowerBounds[i] || point[i] > upperBounds[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double[] toPoint(Map<String, TypedDatum> inputs) {
+        if (dimensions.length == 0) {
+            return null;
+        }
+        final double[] point = new double[dimensions.length];
+        for (int i = 0; i < dimensions.length; i++) {
+            final Double coordinate = toCoordinate(inputs.get(dimensions[i]));
+            if (coordinate == null) {
+                return null;
+            }
+            point[i] = coordinate;
+        }
+        return point;
+    }
+
+    private Double toCoordinate(TypedDatum value) {
+        if (value == null) {
+            return null;
+        }
+        final double coordinate;
+        if (value.getDataType() == DataType.Float) {
+            coordinate = ((FloatTD) value).getFloatValue();
+        } else if (value.getDataType() == DataType.Integer) {
+            coordinate = ((IntegerTD) value).getIntValue();
+        } else {
+            return null;
+        }
+        if (Double.isNaN(coordinate)) {
+            return null;
+        }
+        return coordinate;
+    }
+
+    private List<Node> collectNodes() {
+        final List<Node> nodes = new ArrayList<>(indexedCount);
+        final Deque<Node> pending = new ArrayDeque<>();
+        if (root != null) {
+            pending.push(root);
+        }
+        while (!pending.isEmpty()) {
+            final Node node = pending.pop();
+            nodes.add(node);
+            if (node.left != null) {
+                pending.push(node.left);
+            }
+            if (node.right != null) {
+                pending.push(node.right);
+            }
+        }
+        return nodes;
+    }
+
+    private void rebuild(List<Node> nodes) {
+        for (Node node : nodes) {
+            node.left = null;
+            node.right = null;
+        }
+        root = build(nodes, 0, nodes.size(), 0);
+        indexedCount = nodes.size();
+        indexedCountAtLastBuild = indexedCount;
+    }
+
+    private Node build(List<Node> nodes, int from, int to, int axis) {
+        if (from >= to) {
+            return null;
+        }
+        final List<Node> range = nodes.subList(from, to);
+        range.sort(Comparator.comparingDouble(node -> node.point[axis]));
+        final int median = from + (to - from) / 2;
+        final Node node = nodes.get(median);
+        final int nextAxis = (axis + 1) % dimensions.length;
+        node.axis = axis;
+        node.left = build(nodes, from, median, nextAxis);
+        node.right = build(nodes, median + 1, to, nextAxis);
+        return node;
+    }
+}
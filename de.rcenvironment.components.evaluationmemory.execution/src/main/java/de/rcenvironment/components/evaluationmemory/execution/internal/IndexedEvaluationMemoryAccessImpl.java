@@ -0,0 +1,226 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.components.evaluationmemory.execution.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import de.rcenvironment.components.evaluationmemory.common.EvaluationMemoryComponentConstants;
+import de.rcenvironment.core.datamodel.api.DataType;
+import de.rcenvironment.core.datamodel.api.TypedDatum;
+import de.rcenvironment.core.utils.common.StringUtils;
+
+/**
+ * {@link EvaluationMemoryAccess} implementation that keeps the evaluation memory in memory after loading it once, and only appends new
+ * records to the memory file instead of rewriting it on each evaluation.
+ * 
+ * The memory file remains a plain properties file, so it can still be imported and exported as before: Appended records are written in
+ * properties syntax at the end of the file, and as later entries override earlier ones with the same key on loading, a record that is
+ * stored again with different results simply supersedes the previous one. Once the number of superseded entries exceeds the number of
+ * records (and a minimum), the file is compacted by rewriting it completely.
+ * 
+ * Exact matches are looked up directly by their key. For lookups within tolerance intervals, the stored input vectors are kept in an
+ * {@link EvaluationMemoryToleranceIndex}, which is built on the first such lookup; only the candidates returned by the index are checked
+ * via {@link ToleranceHandling#isInToleranceInterval}.
+ * 
+ * If the memory file is modified by someone else while being accessed, it is reloaded on the next access.
+ * 
+ * @author agent
+ */
+public class IndexedEvaluationMemoryAccessImpl extends AbstractEvaluationMemoryAccess {
+
+    private static final int MIN_SUPERSEDED_ENTRIES_BEFORE_COMPACTION = 100;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Log log = LogFactory.getLog(getClass());
+
+    private EvaluationMemoryProperties evalMemory;
+
+    private EvaluationMemoryToleranceIndex toleranceIndex;
+
+    private int supersededEntries;
+
+    private long knownFileLength = -1;
+
+    private long knownFileModificationTime = -1;
+
+    public IndexedEvaluationMemoryAccessImpl(String memoryFilePath) {
+        super(memoryFilePath);
+    }
+
+    @Override
+    public synchronized void setInputsOutputsDefinition(SortedMap<String, DataType> inputs, SortedMap<String, DataType> outputs)
+        throws IOException {
+        EvaluationMemoryProperties memory = getEvaluationMemory();
+        addInputsDefinition(inputs, memory);
+        addOutputsDefinition(outputs, memory);
+        rewriteEvaluationMemory();
+    }
+
+    @Override
+    public synchronized void addEvaluationValues(SortedMap<String, TypedDatum> inputValues,
+        SortedMap<String, TypedDatum> outputValues) throws IOException {
+
+        EvaluationMemoryProperties memory = getEvaluationMemory();
+
+        validateInputs(memory, getEndpoints(inputValues));
+        validateOutputs(memory, getEndpoints(outputValues));
+
+        String evalMemoryKey = createEvaluationMemoryKeyForInputValues(inputValues);
+        List<String> evalMemoryValues = new ArrayList<>();
+        for (TypedDatum value : outputValues.values()) {
+            evalMemoryValues.add(typedDatumSerializer.serialize(value));
+        }
+        String evalMemoryValue = StringUtils.escapeAndConcat(evalMemoryValues);
+
+        Object previousValue = memory.put(evalMemoryKey, evalMemoryValue);
+        if (evalMemoryValue.equals(previousValue)) {
+            return;
+        }
+        if (previousValue != null) {
+            supersededEntries++;
+        } else if (toleranceIndex != null) {
+            toleranceIndex.add(new TreeMap<>(inputValues));
+        }
+
+        final boolean headerIsCurrent = VERSION_NUMBER.equals(memory.getVersion())
+            && EvaluationMemoryComponentConstants.COMPONENT_ID.equals(memory.getType());
+        if (!headerIsCurrent || supersededEntries > Math.max(MIN_SUPERSEDED_ENTRIES_BEFORE_COMPACTION, memory.size())) {
+            rewriteEvaluationMemory();
+        } else {
+            appendEntry(evalMemoryKey, evalMemoryValue);
+        }
+    }
+
+    @Override
+    public synchronized SortedMap<String, TypedDatum> getEvaluationResult(SortedMap<String, TypedDatum> inputValues,
+        SortedMap<String, DataType> outputs, SortedMap<String, Double> tolerances, ToleranceHandling toleranceHandling)
+        throws IOException {
+
+        EvaluationMemoryProperties memory = getEvaluationMemory();
+
+        validateInputs(memory, getEndpoints(inputValues));
+        validateOutputs(memory, outputs);
+
+        // an exact match of stored results always takes precedence over inputs in the tolerance interval
+        final String exactResult = memory.getProperty(createEvaluationMemoryKeyForInputValues(inputValues));
+        if (exactResult != null) {
+            return splitDeserializeAndZip(outputs.keySet(), exactResult);
+        }
+
+        final Collection<SortedMap<String, TypedDatum>> toleratedStoredInputs = new HashSet<>();
+        for (SortedMap<String, TypedDatum> candidate : getToleranceIndex(memory).findCandidates(inputValues, tolerances)) {
+            if (toleranceHandling.isInToleranceInterval(inputValues, tolerances, candidate)) {
+                toleratedStoredInputs.add(candidate);
+            }
+        }
+
+        final SortedMap<String, TypedDatum> mostToleratedStoredInput =
+            toleranceHandling.pickMostToleratedInputs(toleratedStoredInputs, inputValues);
+        if (mostToleratedStoredInput == null) {
+            return null;
+        }
+        log.debug(StringUtils.format("Found evaluation results for values '%s' that are within tolerance intervals of actual values '%s'",
+            mostToleratedStoredInput, inputValues));
+        final String lookupKey = createEvaluationMemoryKeyForInputValues(mostToleratedStoredInput);
+        return splitDeserializeAndZip(outputs.keySet(), memory.getProperty(lookupKey));
+    }
+
+    @Override
+    public synchronized void validateEvaluationMemory(SortedMap<String, DataType> inputs, SortedMap<String, DataType> outputs)
+        throws IOException {
+        EvaluationMemoryProperties memory = getEvaluationMemory();
+        validateVersionAndType(memory);
+        validateInputs(memory, inputs);
+        validateOutputs(memory, outputs);
+        validateEvaluationMemoryEntries(inputs, outputs, memory);
+    }
+
+    private EvaluationMemoryProperties getEvaluationMemory() throws IOException {
+        if (evalMemory == null || evalMemoryFile.length() != knownFileLength
+            || evalMemoryFile.lastModified() != knownFileModificationTime) {
+            evalMemory = loadEvaluationMemory();
+            toleranceIndex = null;
+            supersededEntries = 0;
+            rememberFileState();
+        }
+        return evalMemory;
+    }
+
+    private EvaluationMemoryToleranceIndex getToleranceIndex(EvaluationMemoryProperties memory) throws IOException {
+        if (toleranceIndex == null) {
+            final Map<String, DataType> inputDefinition = getEndpoints(memory, memory.getInputSpecificationKey());
+            final Set<String> inputLabels = new TreeMap<>(inputDefinition).keySet();
+            final List<SortedMap<String, TypedDatum>> storedInputs = new ArrayList<>();
+            for (String recordKey : memory.getRecordKeys()) {
+                storedInputs.add(splitDeserializeAndZip(inputLabels, recordKey));
+            }
+            toleranceIndex = new EvaluationMemoryToleranceIndex(inputDefinition, storedInputs);
+        }
+        return toleranceIndex;
+    }
+
+    private void rewriteEvaluationMemory() throws IOException {
+        storeEvaluationMemory(evalMemory);
+        supersededEntries = 0;
+        rememberFileState();
+    }
+
+    private void appendEntry(String key, String value) throws IOException {
+        // use the properties syntax (including its escaping) of a single-entry properties file, omitting the leading timestamp comment
+        final Properties entry = new Properties();
+        entry.setProperty(key, value);
+        final ByteArrayOutputStream entryBuffer = new ByteArrayOutputStream();
+        entry.store(entryBuffer, null);
+        final String storedEntry = entryBuffer.toString("ISO-8859-1");
+        final String entryLines = storedEntry.substring(storedEntry.indexOf('\n') + 1);
+
+        final boolean lineBreakRequired = !endsWithLineBreak();
+        try (OutputStream memoryFileOutputStream = new FileOutputStream(evalMemoryFile, true)) {
+            if (lineBreakRequired) {
+                memoryFileOutputStream.write(LINE_SEPARATOR.getBytes("ISO-8859-1"));
+            }
+            memoryFileOutputStream.write(entryLines.getBytes("ISO-8859-1"));
+        }
+        rememberFileState();
+    }
+
+    private boolean endsWithLineBreak() throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(evalMemoryFile, "r")) {
+            if (file.length() == 0) {
+                return true;
+            }
+            file.seek(file.length() - 1);
+            final int lastByte = file.read();
+            return lastByte == '\n' || lastByte == '\r';
+        }
+    }
+
+    private void rememberFileState() {
+        knownFileLength = evalMemoryFile.length();
+        knownFileModificationTime = evalMemoryFile.lastModified();
+    }
+
+}
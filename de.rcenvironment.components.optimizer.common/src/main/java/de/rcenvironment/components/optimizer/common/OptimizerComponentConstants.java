@@ -204,6 +204,9 @@ public final class OptimizerComponentConstants {
     /** Constant. */
     public static final String RESTART_FILE_PATH = "preCalcFilePath";
 
+    /** Configuration key of the number of evaluations the algorithm may request at once. */
+    public static final String EVALUATION_CONCURRENCY = "evaluationConcurrency";
+
     /** Constant. */
     public static final String GENERIC_EVALUATION_FILE = "RCEOptimization.py";
 
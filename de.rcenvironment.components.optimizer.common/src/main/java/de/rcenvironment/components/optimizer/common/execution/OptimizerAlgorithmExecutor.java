@@ -18,11 +18,18 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.exec.OS;
 import org.apache.commons.io.FileUtils;
@@ -40,7 +47,9 @@ import de.rcenvironment.core.datamodel.api.TypedDatum;
 import de.rcenvironment.core.datamodel.api.TypedDatumFactory;
 import de.rcenvironment.core.datamodel.api.TypedDatumService;
 import de.rcenvironment.core.toolkitbridge.transitional.ConcurrencyUtils;
+import de.rcenvironment.core.utils.common.StringUtils;
 import de.rcenvironment.core.utils.common.TempFileServiceAccess;
+import de.rcenvironment.core.utils.common.textstream.TextOutputReceiver;
 import de.rcenvironment.core.utils.common.textstream.TextStreamWatcher;
 import de.rcenvironment.core.utils.executor.LocalApacheCommandLineExecutor;
 import de.rcenvironment.toolkit.modules.concurrency.api.TaskDescription;
@@ -48,6 +57,12 @@ import de.rcenvironment.toolkit.modules.concurrency.api.TaskDescription;
 /**
  * Class to provide running an external program that has to be blocked for a RCE wf calculation.
  * 
+ * If the algorithm supports concurrent evaluations and more than one is configured, the external program may request several
+ * evaluations at once, each one connecting to the server socket on its own. These requests are collected into batches (see
+ * {@link #initializationBatch()} and {@link #runBatchStep(Collection)}) of the size announced by the algorithm (see
+ * {@link #announceEvaluations(int)}). The evaluations of a batch are keyed and ordered by the evaluation id assigned by the external
+ * program, so that the order in which the design points are sent into the loop does not depend on the order in which the requests arrived.
+ * 
  * @author Sascha Zur
  */
 public abstract class OptimizerAlgorithmExecutor implements Runnable {
@@ -58,6 +73,9 @@ public abstract class OptimizerAlgorithmExecutor implements Runnable {
 
     private static final int SOCKET_TIMEOUT = 0;
 
+    /** The time to wait for the remaining requests and announcements of a batch once its first evaluation was requested. */
+    private static final long BATCH_COMPLETION_TIMEOUT_MSEC = 30000;
+
     protected TypedDatumFactory typedDatumFactory;
 
     protected File workingDir;
@@ -96,6 +114,16 @@ public abstract class OptimizerAlgorithmExecutor implements Runnable {
 
     private final Object lockObject = new Object();
 
+    private int evaluationConcurrency = 1;
+
+    private final BlockingQueue<Socket> acceptedClients = new LinkedBlockingQueue<>();
+
+    /** The evaluations of the current batch whose requests were read, but not answered yet, keyed by their evaluation id. */
+    private final Map<Integer, Evaluation> pendingEvaluations = new TreeMap<>();
+
+    /** The number of evaluations announced by the algorithm whose requests were not collected into a batch yet. */
+    private final AtomicInteger announcedEvaluations = new AtomicInteger(0);
+
     public OptimizerAlgorithmExecutor() {
 
     }
@@ -149,6 +177,72 @@ public abstract class OptimizerAlgorithmExecutor implements Runnable {
     @TaskDescription("Optimizer Algorithm Executor")
     public abstract void run();
 
+    /**
+     * @return true, if the external program can request several evaluations at once; the default is false
+     */
+    protected boolean supportsConcurrentEvaluations() {
+        return false;
+    }
+
+    /**
+     * Returns the algorithm specific state of the evaluation whose request was read last, e.g. which values are requested. It is
+     * restored by {@link #restoreEvaluationState(Object)} before the results of the evaluation are written, as the requests of all
+     * evaluations of a batch are read before any result is written.
+     * 
+     * @return the state; the default is null
+     */
+    protected Object getEvaluationState() {
+        return null;
+    }
+
+    /**
+     * Restores the state returned by {@link #getEvaluationState()}.
+     * 
+     * @param state the state of the evaluation whose results are written next
+     */
+    protected void restoreEvaluationState(Object state) {}
+
+    /**
+     * Announces evaluations the external program is going to request. A batch of evaluations is complete when as many evaluations as
+     * announced, but not more than the configured number of concurrent evaluations, were requested. Algorithms supporting concurrent
+     * evaluations must announce each evaluation they request, e.g. when processing their output (see
+     * {@link #processProgramOutput(String)}), and must announce all evaluations of a batch before requesting the first one of them.
+     * 
+     * @param count the number of announced evaluations; negative to withdraw announced evaluations that are not requested after all, e.g.
+     *        because their results are taken from a cache
+     */
+    protected void announceEvaluations(int count) {
+        announcedEvaluations.addAndGet(count);
+    }
+
+    /**
+     * Called for each line the external program writes to its standard output; the default does nothing.
+     * 
+     * @param line the output line
+     */
+    protected void processProgramOutput(String line) {}
+
+    /**
+     * @return the number of evaluations the external program may request at once; 1 if the algorithm does not support concurrent
+     *         evaluations
+     */
+    public int getEvaluationConcurrency() {
+        if (supportsConcurrentEvaluations()) {
+            return evaluationConcurrency;
+        }
+        return 1;
+    }
+
+    /**
+     * Sets the number of evaluations the external program may request at once, if the algorithm supports concurrent evaluations. Must be
+     * called before the executor is run.
+     * 
+     * @param evaluationConcurrency the configured number of concurrent evaluations
+     */
+    public void setEvaluationConcurrency(int evaluationConcurrency) {
+        this.evaluationConcurrency = evaluationConcurrency;
+    }
+
     private void writePortFile() throws ComponentException {
         try {
             File portFile = new File(workingDir.getAbsolutePath() + File.separator + inputFileName + ".port");
@@ -253,7 +347,7 @@ public abstract class OptimizerAlgorithmExecutor implements Runnable {
             File consoleStdOutput = new File(workingDir, "consoleStdOutput.txt");
             File consoleErrOutput = new File(workingDir, "consoleErrOutput.txt");
             TextStreamWatcher stdOutWatcher = ConsoleRowUtils.logToWorkflowConsole(compContext.getLog(), executor.getStdout(),
-                ConsoleRow.Type.TOOL_OUT, consoleStdOutput, false);
+                ConsoleRow.Type.TOOL_OUT, consoleStdOutput, false, new ProgramOutputReceiver());
             // note: as logging of TOOL_ERROR was expanded in 8.2.0, the Dakota StdErr output is logged as TOOL_OUT 
             // for the time being to prevent warnings.log entries during normal operation
             TextStreamWatcher stdErrWatcher = ConsoleRowUtils.logToWorkflowConsole(compContext.getLog(), executor.getStderr(),
@@ -319,36 +413,212 @@ public abstract class OptimizerAlgorithmExecutor implements Runnable {
         }
     }
 
+    /**
+     * Batch counterpart of {@link #initializationLoop()}, used if more than one concurrent evaluation is configured: Waits for the
+     * external program to request its first evaluations.
+     * 
+     * @return the first batch of evaluations, ordered by their evaluation id; empty, if the external program did not request any
+     *         evaluation
+     * @throws ComponentException if init fails
+     */
+    public List<Evaluation> initializationBatch() throws ComponentException {
+        initializationLoop = true;
+        List<Evaluation> evaluations = new ArrayList<>();
+        try {
+            if (!isStopped()) {
+                if (serverSocket == null) {
+                    startServer();
+                }
+                serverThread = runAcceptLoop();
+                evaluations = collectEvaluations();
+            }
+        } catch (IOException e) {
+            throw new ComponentException("Failed to setup optimizer", e);
+        }
+        initializationLoop = false;
+        if (isStopped() || isInitFailed() || getStartFailed().get()) {
+            evaluations.clear();
+        }
+        return evaluations;
+    }
+
+    /**
+     * Batch counterpart of {@link #runStep(Map, Map, Map, Map, Map)}: Hands the results of all evaluations of the last batch back to the
+     * external program and waits for the next batch.
+     * 
+     * @param completedEvaluations all evaluations of the last batch with their results set
+     * @return the next batch of evaluations, ordered by their evaluation id; empty, if the external program finished
+     * @throws ComponentException if not all evaluations of the last batch are completed or on unexpected errors
+     */
+    public List<Evaluation> runBatchStep(Collection<Evaluation> completedEvaluations) throws ComponentException {
+        try {
+            if (isStopped()) {
+                return new ArrayList<>();
+            }
+            Map<Integer, Evaluation> evaluationsToComplete = new TreeMap<>(pendingEvaluations);
+            for (Evaluation evaluation : completedEvaluations) {
+                if (evaluationsToComplete.remove(evaluation.evaluationId) != evaluation || evaluation.objectiveValues == null) {
+                    throw new ComponentException(StringUtils.format("Evaluation %d is not pending or has no results",
+                        evaluation.evaluationId));
+                }
+            }
+            if (!evaluationsToComplete.isEmpty()) {
+                throw new ComponentException("Missing the results of evaluations " + evaluationsToComplete.keySet());
+            }
+            // write all results before releasing the first evaluation, so that the external program sees the batch as a whole
+            for (Evaluation evaluation : pendingEvaluations.values()) {
+                messageFromClient = evaluation.message;
+                restoreEvaluationState(evaluation.algorithmState);
+                writeInputFileforExternalProgram(evaluation.objectiveValues, evaluation.objectiveGradients,
+                    evaluation.constraintValues, outputFilename);
+            }
+            for (Evaluation evaluation : pendingEvaluations.values()) {
+                sendMessageAndClose(evaluation.client, "Close");
+            }
+            pendingEvaluations.clear();
+            return collectEvaluations();
+        } catch (IOException e) {
+            throw new ComponentException("Failed to run optimization step", e);
+        }
+    }
+
+    private List<Evaluation> collectEvaluations() throws ComponentException, IOException {
+        Map<Integer, Evaluation> evaluations = new TreeMap<>();
+        try {
+            int batchSize = 1;
+            long deadline = Long.MAX_VALUE;
+            while (evaluations.size() < batchSize) {
+                Socket nextClient = awaitNextClient(deadline);
+                if (nextClient == null && !evaluations.isEmpty() && System.currentTimeMillis() >= deadline) {
+                    LOGGER.warn(StringUtils.format("Only %d of %d evaluations were requested by the optimizer within %d ms;"
+                        + " continuing with the requested ones", evaluations.size(), batchSize, BATCH_COMPLETION_TIMEOUT_MSEC));
+                    break;
+                }
+                ClientMessage message = null;
+                if (nextClient != null) {
+                    message = readClientMessage(nextClient);
+                }
+                if (message == null) {
+                    // the external program finished or was stopped
+                    for (Evaluation evaluation : evaluations.values()) {
+                        evaluation.client.close();
+                    }
+                    return new ArrayList<>();
+                }
+                Evaluation evaluation = new Evaluation(message, nextClient);
+                if (evaluations.put(evaluation.evaluationId, evaluation) != null) {
+                    throw new IOException("Evaluation " + evaluation.evaluationId + " was requested twice");
+                }
+                if (evaluations.size() == 1) {
+                    deadline = System.currentTimeMillis() + BATCH_COMPLETION_TIMEOUT_MSEC;
+                }
+                batchSize = awaitAnnouncedBatchSize(evaluations.size(), deadline);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ComponentException("Interrupted while waiting for the optimizer to request evaluations", e);
+        }
+        // requests whose announcements did not arrive in time must not count against the announcements of the next batch
+        final int collectedEvaluations = evaluations.size();
+        announcedEvaluations.updateAndGet(announced -> Math.max(0, announced - collectedEvaluations));
+        pendingEvaluations.putAll(evaluations);
+        for (Evaluation evaluation : evaluations.values()) {
+            messageFromClient = evaluation.message;
+            readOutputFileFromExternalProgram(evaluation.designValues);
+            evaluation.derivativesNeeded = getDerivativedNeeded();
+            evaluation.algorithmState = getEvaluationState();
+        }
+        return new ArrayList<>(evaluations.values());
+    }
+
+    /**
+     * @param deadline the time (in ms since the epoch) after which to stop waiting
+     * @return the next accepted client; null, if the external program was stopped or failed to start, or if the deadline passed
+     */
+    private Socket awaitNextClient(long deadline) throws ComponentException, InterruptedException {
+        Socket nextClient = null;
+        while (nextClient == null) {
+            if (isStopped() || System.currentTimeMillis() >= deadline) {
+                return null;
+            }
+            if (initializationLoop && initFailed.get()) {
+                throw (ComponentException) startFailedException;
+            }
+            if (initializationLoop && startFailed.get()) {
+                return null;
+            }
+            nextClient = acceptedClients.poll(SLEEPTIME, TimeUnit.MILLISECONDS);
+        }
+        return nextClient;
+    }
+
+    /**
+     * Determines the number of evaluations of the current batch. As the algorithm announces all evaluations of a batch before requesting
+     * the first one of them, the batch consists of the announced evaluations, but not more than the configured number of concurrent
+     * evaluations. Its size is only determined once all requests read so far were announced, as a request may be read before the output
+     * announcing it; if the announcements do not arrive before the deadline, the batch is restricted to the requests read so far.
+     * 
+     * @param requestedEvaluations the number of evaluations of the current batch requested so far
+     * @param deadline the time (in ms since the epoch) after which to stop waiting for announcements
+     * @return the number of evaluations of the current batch
+     */
+    private int awaitAnnouncedBatchSize(int requestedEvaluations, long deadline) throws InterruptedException {
+        int announced = announcedEvaluations.get();
+        while (announced < requestedEvaluations && !isStopped()) {
+            if (System.currentTimeMillis() >= deadline) {
+                LOGGER.warn(StringUtils.format("Only %d of %d evaluations requested by the optimizer were announced within %d ms;"
+                    + " continuing with the requested ones", announced, requestedEvaluations, BATCH_COMPLETION_TIMEOUT_MSEC));
+                return requestedEvaluations;
+            }
+            Thread.sleep(SLEEPTIME);
+            announced = announcedEvaluations.get();
+        }
+        return Math.max(requestedEvaluations, Math.min(announced, evaluationConcurrency));
+    }
+
     private void sendMessageToClient(String message) throws IOException {
         if (client != null && !client.isClosed()) {
+            sendMessageAndClose(client, message);
+            client = null;
+        }
+    }
+
+    private void sendMessageAndClose(Socket socket, String message) throws IOException {
+        if (!socket.isClosed()) {
             PrintWriter printWriter =
                 new PrintWriter(
                     new OutputStreamWriter(
-                        client.getOutputStream()));
+                        socket.getOutputStream()));
             printWriter.print(message);
             printWriter.flush();
-            client.close();
-            client = null;
+            socket.close();
         }
     }
 
     private boolean readMessageFromClient() throws IOException {
         if (!client.isClosed()) {
-            BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(client.getInputStream()));
-            final int buffersize = 1024;
-            char[] buffer = new char[buffersize];
-            int blockLength = bufferedReader.read(buffer, 0, buffersize);
-            String nachricht = new String(buffer, 0, blockLength);
-            if (!nachricht.equals("exit")) {
-                String[] splitMessage = nachricht.split("&&");
-                this.messageFromClient = new ClientMessage(splitMessage[0], splitMessage[1]);
+            ClientMessage message = readClientMessage(client);
+            if (message != null) {
+                this.messageFromClient = message;
                 return true;
             }
-
         }
         return false;
     }
 
+    private ClientMessage readClientMessage(Socket socket) throws IOException {
+        BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+        final int buffersize = 1024;
+        char[] buffer = new char[buffersize];
+        int blockLength = bufferedReader.read(buffer, 0, buffersize);
+        String nachricht = new String(buffer, 0, blockLength);
+        if (!nachricht.equals("exit")) {
+            String[] splitMessage = nachricht.split("&&");
+            return new ClientMessage(splitMessage[0], splitMessage[1]);
+        }
+        return null;
+    }
+
     private void startServer() throws ComponentException {
         if (!stop) {
             try {
@@ -394,6 +664,28 @@ public abstract class OptimizerAlgorithmExecutor implements Runnable {
         return newServerThread;
     }
 
+    private Runnable runAcceptLoop() {
+        Runnable acceptLoop = new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    while (serverSocket != null && !serverSocket.isClosed() && !isStopped()) {
+                        acceptedClients.add(serverSocket.accept());
+                    }
+                } catch (IOException e) {
+                    if (isStopped()) {
+                        LOGGER.debug("Socket closed because program finished");
+                    } else {
+                        LOGGER.error("Failed to run the server needed to run the optimizer", e);
+                    }
+                }
+            }
+        };
+        ConcurrencyUtils.getAsyncTaskService().execute("Optimizer Server Socket (concurrent evaluations)", acceptLoop);
+        return acceptLoop;
+    }
+
     /**
      * Stops everything.
      */
@@ -430,6 +722,10 @@ public abstract class OptimizerAlgorithmExecutor implements Runnable {
     public void closeConnection() {
         try {
             sendMessageToClient("Close");
+            for (Evaluation evaluation : pendingEvaluations.values()) {
+                sendMessageAndClose(evaluation.client, "Close");
+            }
+            pendingEvaluations.clear();
             if (executor != null) {
                 executor.waitForTermination();
             }
@@ -510,6 +806,99 @@ public abstract class OptimizerAlgorithmExecutor implements Runnable {
 
     }
 
+    /**
+     * Passes the standard output of the external program to {@link OptimizerAlgorithmExecutor#processProgramOutput(String)}.
+     * 
+     * @author agent
+     */
+    private final class ProgramOutputReceiver implements TextOutputReceiver {
+
+        @Override
+        public void onStart() {}
+
+        @Override
+        public void addOutput(String line) {
+            processProgramOutput(line);
+        }
+
+        @Override
+        public void onFinished() {}
+
+        @Override
+        public void onFatalError(Exception e) {}
+    }
+
+    /**
+     * A function evaluation requested by the external program as part of a batch.
+     * 
+     * @author agent
+     */
+    public static final class Evaluation {
+
+        private final ClientMessage message;
+
+        private final Socket client;
+
+        private final int evaluationId;
+
+        private final Map<String, TypedDatum> designValues = new HashMap<>();
+
+        private boolean derivativesNeeded;
+
+        private Object algorithmState;
+
+        private Map<String, Double> objectiveValues;
+
+        private Map<String, Double> objectiveGradients;
+
+        private Map<String, Double> constraintValues;
+
+        private Evaluation(ClientMessage message, Socket client) throws IOException {
+            this.message = message;
+            this.client = client;
+            this.evaluationId = parseEvaluationId(message.getCurrentWorkingDir());
+        }
+
+        /**
+         * The external program works on each evaluation in a separate directory, whose name ends with the evaluation id (e.g.
+         * "dakotaInput.inworkdir.12").
+         */
+        private static int parseEvaluationId(String workingDir) throws IOException {
+            String name = new File(workingDir.trim()).getName();
+            try {
+                return Integer.parseInt(name.substring(name.lastIndexOf('.') + 1));
+            } catch (NumberFormatException e) {
+                throw new IOException("Failed to determine the evaluation id from the work directory of the evaluation: " + workingDir, e);
+            }
+        }
+
+        public int getEvaluationId() {
+            return evaluationId;
+        }
+
+        public Map<String, TypedDatum> getDesignValues() {
+            return designValues;
+        }
+
+        public boolean isDerivativesNeeded() {
+            return derivativesNeeded;
+        }
+
+        /**
+         * Sets the results of the evaluation received from the loop.
+         * 
+         * @param newObjectiveValues all target functions
+         * @param newObjectiveGradients all gradients for the target functions
+         * @param newConstraintValues all constraints
+         */
+        public void setResults(Map<String, Double> newObjectiveValues, Map<String, Double> newObjectiveGradients,
+            Map<String, Double> newConstraintValues) {
+            this.objectiveValues = newObjectiveValues;
+            this.objectiveGradients = newObjectiveGradients;
+            this.constraintValues = newConstraintValues;
+        }
+    }
+
     protected int countInput(Collection<String> input) {
         int result = 0;
         for (String e : input) {
@@ -43,6 +43,7 @@ import static de.rcenvironment.components.optimizer.dakota.execution.internal.Da
 import static de.rcenvironment.components.optimizer.dakota.execution.internal.DakotaConstants.OUTPUT;
 import static de.rcenvironment.components.optimizer.dakota.execution.internal.DakotaConstants.PARAMETER_GRADIENTS;
 import static de.rcenvironment.components.optimizer.dakota.execution.internal.DakotaConstants.PARAMETER_HESSIANS;
+import static de.rcenvironment.components.optimizer.dakota.execution.internal.DakotaConstants.PLACEHOLDER_ASYNCHRONOUS;
 import static de.rcenvironment.components.optimizer.dakota.execution.internal.DakotaConstants.PLACEHOLDER_CDV_INITIAL_POINT;
 import static de.rcenvironment.components.optimizer.dakota.execution.internal.DakotaConstants.PLACEHOLDER_CDV_LOWER_BOUNDS;
 import static de.rcenvironment.components.optimizer.dakota.execution.internal.DakotaConstants.PLACEHOLDER_CDV_NAMES;
@@ -90,6 +91,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.regex.Pattern;
 
 import org.apache.commons.exec.OS;
 import org.apache.commons.io.FileUtils;
@@ -132,6 +134,12 @@ public class DakotaAlgorithm extends OptimizerAlgorithmExecutor {
 
     private static final double RESULT_EPS = 1e-9;
 
+    /** Printed by Dakota for each evaluation of the interface defined in the sample files, before the evaluation is started. */
+    private static final Pattern EVALUATION_BEGIN_PATTERN = Pattern.compile("^Begin (interface1 )?(Function )?Evaluation\\s+\\d+");
+
+    /** Printed by Dakota after the begin of an evaluation if its results are taken from the evaluation cache or the restart file. */
+    private static final String EVALUATION_NOT_STARTED_MESSAGE = "analysis_drivers not invoked";
+
     private File dakotaExecutablePath = null;
 
     private Map<String, TypedDatum> outputValues;
@@ -504,6 +512,11 @@ public class DakotaAlgorithm extends OptimizerAlgorithmExecutor {
             }
 
             valuesForSampleFile.put(PLACEHOLDER_WORKDIR, inputFileName + "workdir'");
+            if (getEvaluationConcurrency() > 1) {
+                valuesForSampleFile.put(PLACEHOLDER_ASYNCHRONOUS, "asynchronous evaluation_concurrency = " + getEvaluationConcurrency());
+            } else {
+                valuesForSampleFile.put(PLACEHOLDER_ASYNCHRONOUS, "");
+            }
 
             valuesForSampleFile.put(PLACEHOLDER_OBJECTIVE_FUNCTIONS_COUNT, "" + countInput(input));
             valuesForSampleFile.put(PLACEHOLDER_OBJECTIVES_WEIGHT, getWeightString());
@@ -898,6 +911,31 @@ public class DakotaAlgorithm extends OptimizerAlgorithmExecutor {
         return (currentActiveSetVectorNumber & 2) != 0;
     }
 
+    @Override
+    protected boolean supportsConcurrentEvaluations() {
+        return true;
+    }
+
+    @Override
+    protected Object getEvaluationState() {
+        return currentActiveSetVectorNumber;
+    }
+
+    @Override
+    protected void restoreEvaluationState(Object state) {
+        currentActiveSetVectorNumber = (Integer) state;
+    }
+
+    @Override
+    protected void processProgramOutput(String line) {
+        String trimmedLine = line.trim();
+        if (EVALUATION_BEGIN_PATTERN.matcher(trimmedLine).find()) {
+            announceEvaluations(1);
+        } else if (trimmedLine.contains(EVALUATION_NOT_STARTED_MESSAGE)) {
+            announceEvaluations(-1);
+        }
+    }
+
     @Override
     public void writeHistoryDataItem(OptimizerComponentHistoryDataItem historyItem) {
         if (historyItem != null) {
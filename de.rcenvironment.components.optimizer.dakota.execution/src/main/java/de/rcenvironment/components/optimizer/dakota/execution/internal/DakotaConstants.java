@@ -40,6 +40,8 @@ public final class DakotaConstants {
 
     protected static final String PLACEHOLDER_DRIVER_FOR_OS = "%%DRIVER_FOR_OS%%";
 
+    protected static final String PLACEHOLDER_ASYNCHRONOUS = "%%ASYNCHRONOUS%%";
+
     protected static final String PLACEHOLDER_CDV_NAMES = "%%CDV_NAMES%%";
 
     protected static final String PLACEHOLDER_CDV_UPPER_BOUNDS = "%%CDV_UPPER_BOUNDS%%";
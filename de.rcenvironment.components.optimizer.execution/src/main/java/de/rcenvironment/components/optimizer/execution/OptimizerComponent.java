@@ -10,6 +10,7 @@ package de.rcenvironment.components.optimizer.execution;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -36,6 +37,7 @@ import de.rcenvironment.components.optimizer.common.OptimizerResultService;
 import de.rcenvironment.components.optimizer.common.OptimizerResultSet;
 import de.rcenvironment.components.optimizer.common.ResultStructure;
 import de.rcenvironment.components.optimizer.common.execution.OptimizerAlgorithmExecutor;
+import de.rcenvironment.components.optimizer.common.execution.OptimizerAlgorithmExecutor.Evaluation;
 import de.rcenvironment.components.optimizer.execution.algorithms.registry.OptimizerAlgorithmExecutorFactoryRegistry;
 import de.rcenvironment.core.component.api.ComponentConstants;
 import de.rcenvironment.core.component.api.ComponentException;
@@ -60,6 +62,12 @@ import de.rcenvironment.core.utils.common.TempFileServiceAccess;
 /**
  * Optimizer implementation of {@link Component}.
  * 
+ * If the algorithm supports it and more than one concurrent evaluation is configured, the design points of all evaluations the algorithm
+ * requests at once are sent into the loop one after another, without waiting for the results in between. The evaluations are keyed by
+ * their evaluation id. As no iteration number is sent back with the results, the results are assigned to the evaluations in the order
+ * their design points were sent, as the loop passes them on in that order. The results are handed back to the algorithm when the results
+ * of all evaluations of the batch arrived.
+ * 
  * @author Sascha Zur
  * @author Kathrin Schaffert (#17543)
  */
@@ -70,6 +78,8 @@ public class OptimizerComponent extends AbstractNestedLoopComponent {
 
     private static final String ITERATION = "Iteration";
 
+    private static final String EVALUATION_CONCURRENCY_SETTING = "number of concurrent evaluations";
+
     private static final double CONST_1E99 = 1E99;
 
     private static final String COMMA = ",";
@@ -125,6 +135,17 @@ public class OptimizerComponent extends AbstractNestedLoopComponent {
 
     private Map<String, Double> stepValues;
 
+    /** The evaluations of the current batch, keyed by their evaluation id; only used in batch mode (see {@link #isBatchMode()}). */
+    private final Map<Integer, Evaluation> evaluationBatch = new TreeMap<>();
+
+    /**
+     * The ids of the evaluations of the current batch whose results were not received yet, keyed by the iteration number their design
+     * points were sent with.
+     */
+    private final Map<Integer, Integer> evaluationIdsByIteration = new HashMap<>();
+
+    private boolean evaluationBatchSent = false;
+
     private void prepareExternalProgram() throws ComponentException {
         Map<String, Map<String, Double>> boundMaps = new HashMap<>();
         boundMaps.put("lower", lowerBoundsStartValues);
@@ -133,6 +154,19 @@ public class OptimizerComponent extends AbstractNestedLoopComponent {
             methodConfigurations.get(algorithm.split(COMMA)[0]).getOptimizerPackage(),
             methodConfigurations, outputValues, input, componentContext, boundMaps, stepValues);
         programThreadInterrupted = false;
+        try {
+            optimizer.setEvaluationConcurrency(parseLoopRunsInFlight(
+                componentContext.getConfigurationValue(OptimizerComponentConstants.EVALUATION_CONCURRENCY),
+                EVALUATION_CONCURRENCY_SETTING));
+            checkLoopRunsInFlightSupported(optimizer.getEvaluationConcurrency(), EVALUATION_CONCURRENCY_SETTING);
+        } catch (ComponentException e) {
+            terminateExecutor();
+            throw e;
+        }
+        if (isBatchMode()) {
+            componentLog.componentInfo(StringUtils.format("Up to %d evaluations are sent into the loop at once",
+                optimizer.getEvaluationConcurrency()));
+        }
 
         ConcurrencyUtils.getAsyncTaskService().execute("Optimizer Algorithm Executor", optimizer);
         if (optimizer.isInitFailed()) {
@@ -268,8 +302,8 @@ public class OptimizerComponent extends AbstractNestedLoopComponent {
                     printer.print(inputName);
                 }
                 printer.println();
-                // Iteration start at 1.
-                for (Integer i = 1; i < iterationData.keySet().size() + 1; i++) {
+                // Iteration start at 1; in batch mode, the design variables of further iterations may have been sent already
+                for (Integer i = 1; i < iterationData.keySet().size() + 1 && i <= iterationCount; i++) {
                     Map<String, Double> iteration = iterationData.get(i);
                     printer.print(i);
                     for (String out : orderedOutputs) {
@@ -522,15 +556,22 @@ public class OptimizerComponent extends AbstractNestedLoopComponent {
                 Map<String, Double> constraintVariables = new HashMap<>();
                 Map<String, Double> inputVariablesGradients = new HashMap<>();
                 Map<String, Double> constraintVariablesGradients = new HashMap<>();
+                if (isBatchMode()) {
+                    // the design variables of all evaluations of the batch were sent at once
+                    addDesignVariablesToRuntimeView(iterationData.get(iterationCount));
+                }
                 // isolate variables and save result
                 manageNewInput(inputVariables, inputVariablesGradients,
                     constraintVariables, constraintVariablesGradients);
 
                 // start new algorithm run
                 if (optimizer != null && !optimizer.isStopped()) {
-                    optimizer.runStep(inputVariables, inputVariablesGradients,
-                        constraintVariables, constraintVariablesGradients, outputValues);
-
+                    if (isBatchMode()) {
+                        completeEvaluation(inputVariables, inputVariablesGradients, constraintVariables);
+                    } else {
+                        optimizer.runStep(inputVariables, inputVariablesGradients,
+                            constraintVariables, constraintVariablesGradients, outputValues);
+                    }
                 }
             } else {
                 if (optimizer != null) {
@@ -549,6 +590,44 @@ public class OptimizerComponent extends AbstractNestedLoopComponent {
 
     }
 
+    private boolean isBatchMode() {
+        return optimizer != null && optimizer.getEvaluationConcurrency() > 1;
+    }
+
+    private void completeEvaluation(Map<String, Double> inputVariables, Map<String, Double> inputVariablesGradients,
+        Map<String, Double> constraintVariables) throws ComponentException {
+        // no iteration number is sent back with the results; the local iteration count identifies the evaluation, as the loop passes the
+        // results on in the order the design points were sent
+        Integer evaluationId = evaluationIdsByIteration.remove(iterationCount);
+        if (evaluationId == null) {
+            throw new ComponentException(StringUtils.format("Received results of iteration %d, which does not belong to an evaluation"
+                + " requested by the optimizer", iterationCount));
+        }
+        evaluationBatch.get(evaluationId).setResults(inputVariables, inputVariablesGradients, constraintVariables);
+        if (evaluationIdsByIteration.isEmpty()) {
+            startEvaluationBatch(optimizer.runBatchStep(evaluationBatch.values()));
+        }
+    }
+
+    private void startEvaluationBatch(List<Evaluation> evaluations) {
+        evaluationBatch.clear();
+        for (Evaluation evaluation : evaluations) {
+            evaluationBatch.put(evaluation.getEvaluationId(), evaluation);
+        }
+        evaluationIdsByIteration.clear();
+        evaluationBatchSent = false;
+    }
+
+    private void addDesignVariablesToRuntimeView(Map<String, Double> iteration) {
+        if (iteration != null) {
+            for (Map.Entry<String, Double> entry : iteration.entrySet()) {
+                if (!entry.getKey().startsWith(INPUT_PREFIX_CONSTANT)) {
+                    runtimeViewValues.put(entry.getKey(), typedDatumFactory.createFloat(entry.getValue()));
+                }
+            }
+        }
+    }
+
     private void storeDataForwarded() {
         Integer iteration = iterationCount;
         for (String inputName : componentContext.getInputsWithDatum()) {
@@ -654,17 +733,16 @@ public class OptimizerComponent extends AbstractNestedLoopComponent {
         prepareExternalProgram();
         if (optimizer != null && !optimizer.isInitFailed() && !(optimizer.getStartFailed().get())) {
             try {
-                if (optimizer.initializationLoop()) {
+                if (isBatchMode()) {
+                    startEvaluationBatch(optimizer.initializationBatch());
+                    if (evaluationBatch.isEmpty()) {
+                        finishWithoutEvaluations();
+                    }
+                } else if (optimizer.initializationLoop()) {
                     optimizer.readOutputFileFromExternalProgram(outputValues);
                     sendValuesNestedComponentSpecific();
                 } else {
-                    if (!optimizer.getStartFailed().get()) {
-                        sendFinalValues();
-                        componentContext.closeAllOutputs();
-                    } else {
-                        throw new ComponentException("Could not start optimizer. Maybe binaries are missing or not compatible with system.",
-                            optimizer.getStartFailedException());
-                    }
+                    finishWithoutEvaluations();
                 }
                 optimizerStarted = true;
             } catch (IOException e) {
@@ -677,6 +755,16 @@ public class OptimizerComponent extends AbstractNestedLoopComponent {
         }
     }
 
+    private void finishWithoutEvaluations() throws ComponentException {
+        if (!optimizer.getStartFailed().get()) {
+            sendFinalValues();
+            componentContext.closeAllOutputs();
+        } else {
+            throw new ComponentException("Could not start optimizer. Maybe binaries are missing or not compatible with system.",
+                optimizer.getStartFailedException());
+        }
+    }
+
     private void getStartAndStepValues(String e, String hasStartValue, String hasStep, String hasUseUnifiedStep, String startValue) {
         if ((hasStartValue != null && Boolean.parseBoolean(hasStartValue) && !startValue.isEmpty())
             || (hasStartValue == null && !startValue.isEmpty())) {
@@ -732,34 +820,48 @@ public class OptimizerComponent extends AbstractNestedLoopComponent {
     @Override
     protected void sendValuesNestedComponentSpecific() {
         if (optimizerStarted && optimizer != null && !optimizer.isStopped()) {
-            Map<String, Double> iteration = new HashMap<>();
-            for (String e : output) {
-                if (outputValues.get(e) != null) {
-                    writeOutput(e, outputValues.get(e));
-                    if (componentContext.getOutputDataType(e) == DataType.Vector) {
-                        for (int i = 0; i < Integer.parseInt(componentContext.getOutputMetaDataValue(e,
-                            OptimizerComponentConstants.METADATA_VECTOR_SIZE)); i++) {
-                            runtimeViewValues.put(e + OptimizerComponentConstants.OPTIMIZER_VECTOR_INDEX_SYMBOL + i,
-                                ((VectorTD) outputValues.get(e)).getFloatTDOfElement(i));
-                            iteration.put(e + OptimizerComponentConstants.OPTIMIZER_VECTOR_INDEX_SYMBOL + i,
-                                ((VectorTD) outputValues.get(e)).getFloatTDOfElement(i).getFloatValue());
-                        }
-                    } else {
-                        runtimeViewValues.put(e, outputValues.get(e));
-                        iteration.put(e, ((FloatTD) outputValues.get(e)).getFloatValue());
+            if (isBatchMode()) {
+                if (!evaluationBatchSent) {
+                    int iterationNumber = iterationCount;
+                    for (Evaluation evaluation : evaluationBatch.values()) {
+                        evaluationIdsByIteration.put(iterationNumber, evaluation.getEvaluationId());
+                        sendDesignVariables(evaluation.getDesignValues(), iterationNumber, evaluation.isDerivativesNeeded());
+                        iterationNumber++;
                     }
-                } else {
-                    LOGGER.info(StringUtils.format("Could not send out output %s because the value was null", e));
+                    evaluationBatchSent = true;
                 }
+            } else {
+                sendDesignVariables(outputValues, iterationCount, optimizer.getDerivativedNeeded());
             }
-            writeOutput(OptimizerComponentConstants.ITERATION_COUNT_ENDPOINT_NAME,
-                typedDatumFactory.createInteger(iterationCount));
-            if (optimizer != null) {
-                writeOutput(OptimizerComponentConstants.DERIVATIVES_NEEDED,
-                    typedDatumFactory.createBoolean(optimizer.getDerivativedNeeded()));
+        }
+    }
+
+    private void sendDesignVariables(Map<String, TypedDatum> designValues, int iterationNumber, boolean derivativesNeeded) {
+        Map<String, Double> iteration = new HashMap<>();
+        for (String e : output) {
+            if (designValues.get(e) != null) {
+                writeOutput(e, designValues.get(e));
+                if (componentContext.getOutputDataType(e) == DataType.Vector) {
+                    for (int i = 0; i < Integer.parseInt(componentContext.getOutputMetaDataValue(e,
+                        OptimizerComponentConstants.METADATA_VECTOR_SIZE)); i++) {
+                        runtimeViewValues.put(e + OptimizerComponentConstants.OPTIMIZER_VECTOR_INDEX_SYMBOL + i,
+                            ((VectorTD) designValues.get(e)).getFloatTDOfElement(i));
+                        iteration.put(e + OptimizerComponentConstants.OPTIMIZER_VECTOR_INDEX_SYMBOL + i,
+                            ((VectorTD) designValues.get(e)).getFloatTDOfElement(i).getFloatValue());
+                    }
+                } else {
+                    runtimeViewValues.put(e, designValues.get(e));
+                    iteration.put(e, ((FloatTD) designValues.get(e)).getFloatValue());
+                }
+            } else {
+                LOGGER.info(StringUtils.format("Could not send out output %s because the value was null", e));
             }
-            iterationData.put(iterationCount, iteration);
         }
+        writeOutput(OptimizerComponentConstants.ITERATION_COUNT_ENDPOINT_NAME,
+            typedDatumFactory.createInteger(iterationNumber));
+        writeOutput(OptimizerComponentConstants.DERIVATIVES_NEEDED,
+            typedDatumFactory.createBoolean(derivativesNeeded));
+        iterationData.put(iterationNumber, iteration);
     }
 
     @Override
@@ -773,6 +875,7 @@ public class OptimizerComponent extends AbstractNestedLoopComponent {
         stepValues = new HashMap<>();
         iterationCount = 0;
         optimizerStarted = false;
+        startEvaluationBatch(new ArrayList<Evaluation>());
     }
 
     @Override
@@ -81,9 +81,23 @@ public class OptimizerComponentValidator extends AbstractLoopComponentValidator
                 "There is no algorithm chosen.");
             messages.add(noAlgorithmMessage);
         }
+        String evaluationConcurrency = getProperty(componentDescription, OptimizerComponentConstants.EVALUATION_CONCURRENCY);
+        if (evaluationConcurrency != null && !evaluationConcurrency.isEmpty() && !isPositiveInteger(evaluationConcurrency)) {
+            messages.add(new ComponentValidationMessage(
+                ComponentValidationMessage.Type.ERROR, OptimizerComponentConstants.EVALUATION_CONCURRENCY, "Invalid concurrency",
+                "The number of concurrent evaluations must be a positive integer."));
+        }
         return messages;
     }
 
+    private boolean isPositiveInteger(String value) {
+        try {
+            return Integer.parseInt(value.trim()) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     @Override
     protected List<ComponentValidationMessage> validateOnWorkflowStartComponentSpecific(
         ComponentDescription componentDescription) {
@@ -29,6 +29,7 @@ import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.MessageBox;
+import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.forms.widgets.Section;
 import org.eclipse.ui.views.properties.tabbed.TabbedPropertySheetPage;
 
@@ -81,6 +82,8 @@ public abstract class AlgorithmSection extends ValidatingWorkflowNodePropertySec
 
     private Button dakotaPathButton;
 
+    private Composite evaluationConcurrencyComposite;
+
     public AlgorithmSection() {
         try {
             methodDescriptions = OptimizerFileLoader.getAllMethodDescriptions(getAlgorithmFolder());
@@ -164,6 +167,18 @@ public abstract class AlgorithmSection extends ValidatingWorkflowNodePropertySec
         pathData.horizontalSpan = 2;
         dakotaPathButton.setLayoutData(pathData);
 
+        evaluationConcurrencyComposite = new Composite(firstAlgo, SWT.NONE);
+        evaluationConcurrencyComposite.setLayout(new GridLayout(2, false));
+        GridData concurrencyData = new GridData();
+        concurrencyData.horizontalSpan = 2;
+        evaluationConcurrencyComposite.setLayoutData(concurrencyData);
+        new Label(evaluationConcurrencyComposite, SWT.NONE).setText(Messages.evaluationConcurrency);
+        Text evaluationConcurrencyText = new Text(evaluationConcurrencyComposite, SWT.BORDER);
+        evaluationConcurrencyText.setData(CONTROL_PROPERTY_KEY, OptimizerComponentConstants.EVALUATION_CONCURRENCY);
+        GridData concurrencyTextData = new GridData();
+        concurrencyTextData.widthHint = 40;
+        evaluationConcurrencyText.setLayoutData(concurrencyTextData);
+
         // useRestartFileButton = new Button(firstAlgo, SWT.CHECK);
         // useRestartFileButton.setText("Use precalculated values for optimization (select file at workflow start)");
         // useRestartFileButton.setData(CONTROL_PROPERTY_KEY, OptimizerComponentConstants.USE_RESTART_FILE);
@@ -291,9 +306,11 @@ public abstract class AlgorithmSection extends ValidatingWorkflowNodePropertySec
                 if (mainAlgorithm.getOptimizerPackage().equalsIgnoreCase("dakota")) {
                     pythonLabel.setText(Messages.dakotaOSHint);
                     dakotaPathButton.setVisible(true);
+                    evaluationConcurrencyComposite.setVisible(true);
 
                 } else {
                     dakotaPathButton.setVisible(false);
+                    evaluationConcurrencyComposite.setVisible(false);
                     pythonLabel.setText(Messages.pythonForMethodInstalled);
                 }
                 pythonLabel.getParent().pack();
@@ -72,6 +72,9 @@ public final class ParametricStudyComponentConstants {
     /** Constant. */
     public static final String OUTPUT_METATDATA_FIT_STEP_SIZE_TO_BOUNDS = "fitStepSizeToBounds";
 
+    /** Configuration key for the maximum number of design variables sent into the loop before their results are received. */
+    public static final String CONFIG_KEY_SAMPLES_IN_FLIGHT = "samplesInFlight";
+
     private ParametricStudyComponentConstants() {}
 
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.components.parametricstudy.common;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Several {@link StudyDataset}s announced with a single notification. The datasets are stored in a compact, table-like form: the keys
+ * are stored once, and each dataset as a row of values in the order of the keys. Keys missing in a dataset are stored as null values and
+ * omitted when the datasets are restored.
+ * 
+ * @author agent
+ */
+public class StudyDatasetBatch implements Serializable {
+
+    private static final long serialVersionUID = 2787391623434826615L;
+
+    private final String[] keys;
+
+    private final Serializable[][] rows;
+
+    public StudyDatasetBatch(final List<StudyDataset> datasets) {
+        final Map<String, Integer> keyIndices = new LinkedHashMap<String, Integer>();
+        for (final StudyDataset dataset : datasets) {
+            for (final String key : dataset.getValues().keySet()) {
+                if (!keyIndices.containsKey(key)) {
+                    keyIndices.put(key, keyIndices.size());
+                }
+            }
+        }
+        keys = keyIndices.keySet().toArray(new String[keyIndices.size()]);
+        rows = new Serializable[datasets.size()][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Serializable[keys.length];
+            for (final Map.Entry<String, Serializable> entry : datasets.get(i).getValues().entrySet()) {
+                rows[i][keyIndices.get(entry.getKey())] = entry.getValue();
+            }
+        }
+    }
+
+    /**
+     * @return the number of {@link StudyDataset}s.
+     */
+    public int size() {
+        return rows.length;
+    }
+
+    /**
+     * @return the {@link StudyDataset}s in the order they were added.
+     */
+    public List<StudyDataset> getDatasets() {
+        final List<StudyDataset> datasets = new ArrayList<StudyDataset>(rows.length);
+        for (final Serializable[] row : rows) {
+            final Map<String, Serializable> values = new HashMap<String, Serializable>();
+            for (int i = 0; i < keys.length; i++) {
+                if (row[i] != null) {
+                    values.put(keys[i], row[i]);
+                }
+            }
+            datasets.add(new StudyDataset(values));
+        }
+        return datasets;
+    }
+
+}
@@ -38,10 +38,18 @@ public interface StudyPublisher extends Serializable {
     void setBufferSize(int bufferSize);
 
     /**
-     * @param dataset adds a new {@link StudyDataset}, i.e. announce and store.
+     * Adds a new {@link StudyDataset}, i.e. announce and store. To reduce the number of notifications, {@link StudyDataset}s added in
+     * quick succession are announced together as a {@link StudyDatasetBatch}; call {@link #flush()} to announce pending ones at once.
+     * 
+     * @param dataset the {@link StudyDataset} to add
      */
     void add(StudyDataset dataset);
 
+    /**
+     * Announces all {@link StudyDataset}s added but not announced yet.
+     */
+    void flush();
+
     /**
      * Clears the {@link ResultSet}. Must be called if the {@link ResultSet} is not needed anymore
      * to free resources.
@@ -18,6 +18,9 @@ import de.rcenvironment.core.notification.NotificationSubscriber;
  */
 public interface StudyReceiver extends Serializable {
 
+    /** Notification number to pass to {@link #initialize(long)} if no notification was received yet. */
+    long NO_NOTIFICATION_RECEIVED = -1;
+
     /**
      * @return the adequate study.
      */
@@ -29,8 +32,16 @@ public interface StudyReceiver extends Serializable {
     void setNotificationSubscriber(NotificationSubscriber notificationSubscriber);
 
     /**
-     * Initializes the {@link StudyReceiver}.
+     * Initializes the {@link StudyReceiver}, i.e. subscribes for study values and passes all values sent before to the subscriber.
      */
     void initialize();
 
+    /**
+     * Initializes the {@link StudyReceiver} to resume receiving study values: only notifications sent after the given one are fetched
+     * from the publisher and passed to the subscriber.
+     * 
+     * @param lastReceivedNumber number of the last notification received before, or {@link #NO_NOTIFICATION_RECEIVED}
+     */
+    void initialize(long lastReceivedNumber);
+
 }
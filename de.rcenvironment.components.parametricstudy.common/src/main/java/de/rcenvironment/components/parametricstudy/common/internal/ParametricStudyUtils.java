@@ -21,6 +21,8 @@ public final class ParametricStudyUtils {
     public static final String STRUCTURE_PATTERN = "study.structure.%s";
 
     private static final String DATA_PATTERN = "study.data.%s";
+
+    private static final String BATCH_DATA_PATTERN = "study.batches.%s";
     
     private ParametricStudyUtils() {}
     
@@ -31,4 +33,14 @@ public final class ParametricStudyUtils {
     protected static String createDataIdentifier(final Study study) {
         return StringUtils.format(DATA_PATTERN, study.getIdentifier());
     }
+
+    /**
+     * @param study the study
+     * @return the identifier of the notifications announcing the values of the study in batches, which nodes of older versions do not
+     *         know; the notifications of {@link #createDataIdentifier(Study)}, which announce each value on its own, are only sent by
+     *         nodes of older versions
+     */
+    protected static String createBatchDataIdentifier(final Study study) {
+        return StringUtils.format(BATCH_DATA_PATTERN, study.getIdentifier());
+    }
 }
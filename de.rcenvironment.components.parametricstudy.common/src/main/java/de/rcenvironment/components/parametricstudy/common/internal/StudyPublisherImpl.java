@@ -8,14 +8,26 @@
  
 package de.rcenvironment.components.parametricstudy.common.internal;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
 import de.rcenvironment.components.parametricstudy.common.Study;
 import de.rcenvironment.components.parametricstudy.common.StudyDataset;
+import de.rcenvironment.components.parametricstudy.common.StudyDatasetBatch;
 import de.rcenvironment.components.parametricstudy.common.StudyPublisher;
 import de.rcenvironment.core.notification.NotificationService;
+import de.rcenvironment.core.toolkitbridge.transitional.ConcurrencyUtils;
 
 
 /**
- * Implementation of {@link StudyPublisher}.
+ * Implementation of {@link StudyPublisher}. Added {@link StudyDataset}s are announced as soon as {@link #MAX_BATCH_SIZE} of them are
+ * pending, or {@link #MAX_BATCH_DELAY_MSEC} after the first of them was added; a single pending {@link StudyDataset} is announced as is,
+ * several ones as a {@link StudyDatasetBatch}.
+ * 
+ * As nodes of older versions do not know {@link StudyDatasetBatch}, the values are announced with a notification id of their own (see
+ * {@link ParametricStudyUtils#createBatchDataIdentifier(Study)}). The original notification id is only used by publishers of older
+ * versions, which receivers fall back to if the publishing node does not support batches (see {@link StudyReceiverImpl}).
  * 
  * @author Christian Weiss
  */
@@ -23,16 +35,28 @@ public final class StudyPublisherImpl implements StudyPublisher {
 
     private static final long serialVersionUID = 6027553291193203997L;
 
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private static final long MAX_BATCH_DELAY_MSEC = 1000;
+
     private final Study study;
 
+    /** The original notification id, which is not published to, but may still be subscribed to by receivers of older versions. */
     private final String notificationId;
+
+    private final String batchNotificationId;
     
     private NotificationService notificationService;
 
+    private final List<StudyDataset> pendingDatasets = new ArrayList<StudyDataset>();
+
+    private transient ScheduledFuture<?> scheduledFlush;
+
     public StudyPublisherImpl(final Study study, NotificationService notificationService) {
         this.study = study;
         this.notificationService = notificationService;
         notificationId = ParametricStudyUtils.createDataIdentifier(study);
+        batchNotificationId = ParametricStudyUtils.createBatchDataIdentifier(study);
         setBufferSize(BUFFER_SIZE);
     }
     
@@ -43,17 +67,46 @@ public final class StudyPublisherImpl implements StudyPublisher {
     
     @Override
     public void setBufferSize(final int bufferSize) {
-        notificationService.setBufferSize(notificationId, bufferSize);
+        notificationService.setBufferSize(batchNotificationId, bufferSize);
+    }
+
+    @Override
+    public synchronized void add(final StudyDataset dataset) {
+        pendingDatasets.add(dataset);
+        if (pendingDatasets.size() >= MAX_BATCH_SIZE) {
+            flush();
+        } else if (scheduledFlush == null) {
+            scheduledFlush = ConcurrencyUtils.getAsyncTaskService().scheduleAfterDelay("Parametric Study: announce pending results",
+                this::flush, MAX_BATCH_DELAY_MSEC);
+        }
     }
 
     @Override
-    public void add(final StudyDataset dataset) {
-        notificationService.send(notificationId, dataset);
+    public synchronized void flush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (pendingDatasets.isEmpty()) {
+            return;
+        }
+        if (pendingDatasets.size() == 1) {
+            notificationService.send(batchNotificationId, pendingDatasets.get(0));
+        } else {
+            notificationService.send(batchNotificationId, new StudyDatasetBatch(pendingDatasets));
+        }
+        pendingDatasets.clear();
     }
 
     @Override
-    public void clearStudy() {
+    public synchronized void clearStudy() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        pendingDatasets.clear();
         notificationService.removePublisher(notificationId);
+        notificationService.removePublisher(batchNotificationId);
     }
 
 }
@@ -8,14 +8,15 @@
 
 package de.rcenvironment.components.parametricstudy.common.internal;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.logging.LogFactory;
 
 import de.rcenvironment.components.parametricstudy.common.Study;
-import de.rcenvironment.components.parametricstudy.common.StudyPublisher;
 import de.rcenvironment.components.parametricstudy.common.StudyReceiver;
 import de.rcenvironment.core.communication.common.ResolvableNodeId;
+import de.rcenvironment.core.communication.rpc.ServiceCallResultFactory;
 import de.rcenvironment.core.notification.DistributedNotificationService;
 import de.rcenvironment.core.notification.Notification;
 import de.rcenvironment.core.notification.NotificationSubscriber;
@@ -24,14 +25,15 @@ import de.rcenvironment.core.utils.common.rpc.RemoteOperationException;
 /**
  * Implementation of {@link StudyReceiver}.
  * 
+ * If the publishing node supports fetching notifications starting with a given number, it also announces the study values in batches
+ * (see {@link StudyPublisherImpl}), which are received then. Otherwise, it is of an older version, and each value is received on its own.
+ * 
  * @author Christian Weiss.
  */
 public final class StudyReceiverImpl implements StudyReceiver {
 
     private static final long serialVersionUID = -6079120096252508794L;
 
-    private static final int MINUS_ONE = -1;
-
     private final Study study;
 
     private final ResolvableNodeId platform;
@@ -59,7 +61,24 @@ public final class StudyReceiverImpl implements StudyReceiver {
 
     @Override
     public void initialize() {
-        final String notificationId = ParametricStudyUtils.createDataIdentifier(study);
+        initialize(NO_NOTIFICATION_RECEIVED);
+    }
+
+    @Override
+    public void initialize(long lastReceivedNumber) {
+        final boolean batchesSupported;
+        try {
+            batchesSupported = isFetchingFromStartNumberSupported();
+        } catch (RemoteOperationException e) {
+            LogFactory.getLog(getClass()).error("Failed to subscribe for Parametric Study data source: " + e.getMessage());
+            return; // preserve the "old" RTE behavior for now
+        }
+        final String notificationId;
+        if (batchesSupported) {
+            notificationId = ParametricStudyUtils.createBatchDataIdentifier(study);
+        } else {
+            notificationId = ParametricStudyUtils.createDataIdentifier(study);
+        }
         Long missedNumber;
         try {
             missedNumber = notificationService.subscribe(
@@ -68,20 +87,47 @@ public final class StudyReceiverImpl implements StudyReceiver {
             LogFactory.getLog(getClass()).error("Failed to subscribe for Parametric Study data source: " + e.getMessage());
             return; // preserve the "old" RTE behavior for now
         }
-        // process missed notifications
-        if (missedNumber > MINUS_ONE) {
-            if (missedNumber > StudyPublisher.BUFFER_SIZE - 1) {
-                missedNumber = new Long(StudyPublisher.BUFFER_SIZE - 1);
-            }
+        // process missed notifications; only the ones not received before are passed on
+        if (missedNumber != null && missedNumber > lastReceivedNumber) {
             try {
-                final List<Notification> missedNotifications = notificationService
-                    .getNotifications(notificationId, platform)
-                    .get(notificationId)
-                    .subList(0, missedNumber.intValue() + 1);
+                final List<Notification> storedNotifications;
+                if (batchesSupported) {
+                    storedNotifications = notificationService
+                        .getNotifications(notificationId, lastReceivedNumber + 1, platform)
+                        .get(notificationId);
+                } else {
+                    storedNotifications = notificationService.getNotifications(notificationId, platform).get(notificationId);
+                }
+                if (storedNotifications == null) {
+                    return;
+                }
+                // notifications sent after subscribing are received by the subscriber anyway
+                final List<Notification> missedNotifications = new ArrayList<>();
+                for (Notification notification : storedNotifications) {
+                    if (notification.getHeader().getNumber() > lastReceivedNumber && notification.getHeader().getNumber() <= missedNumber) {
+                        missedNotifications.add(notification);
+                    }
+                }
                 notificationSubscriber.receiveBatchedNotifications(missedNotifications);
             } catch (RemoteOperationException e) {
-                LogFactory.getLog(getClass()).warn("Failed to send notifications: " + e.toString());
+                LogFactory.getLog(getClass()).error("Failed to fetch the Parametric Study values sent before: " + e.toString());
+            }
+        }
+    }
+
+    /**
+     * Nodes of older versions refuse fetching notifications starting with a given number as an unknown remote method.
+     */
+    private boolean isFetchingFromStartNumberSupported() throws RemoteOperationException {
+        try {
+            // no notification has this number, so nothing is transferred
+            notificationService.getNotifications(ParametricStudyUtils.createBatchDataIdentifier(study), Long.MAX_VALUE, platform);
+            return true;
+        } catch (RemoteOperationException e) {
+            if (ServiceCallResultFactory.isRefusedAsInvalidRequest(e)) {
+                return false;
             }
+            throw e;
         }
     }
 
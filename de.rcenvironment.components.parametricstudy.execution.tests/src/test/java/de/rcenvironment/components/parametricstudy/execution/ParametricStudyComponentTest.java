@@ -17,6 +17,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.easymock.Capture;
+import org.easymock.CaptureType;
 import org.easymock.EasyMock;
 import org.junit.Before;
 import org.junit.Rule;
@@ -128,6 +130,8 @@ public class ParametricStudyComponentTest {
         EasyMock.expect(studyPublisherMock.getStudy()).andReturn(null);
         studyPublisherMock.add(anyObject(StudyDataset.class));
         EasyMock.expectLastCall().anyTimes();
+        studyPublisherMock.flush();
+        EasyMock.expectLastCall().anyTimes();
         studyPublisherMock.clearStudy();
         EasyMock.replay(studyPublisherMock);
 
@@ -926,6 +930,101 @@ public class ParametricStudyComponentTest {
         component.tearDownAndDispose(Component.FinalComponentState.FINISHED);
     }
 
+    /**
+     * Tests if several design variables are sent into the loop at once, if the results are assigned to the design variables in the
+     * order they were sent, and if the study datasets are announced together when all results are received.
+     * 
+     * @throws ComponentException on unexpected errors
+     */
+    @Test
+    public void testSamplesInFlight() throws ComponentException {
+        Capture<StudyDataset> datasets = EasyMock.newCapture(CaptureType.ALL);
+        StudyPublisher studyPublisherMock = EasyMock.createMock(StudyPublisher.class);
+        studyPublisherMock.add(EasyMock.capture(datasets));
+        EasyMock.expectLastCall().anyTimes();
+        // once when all results are received and once on tear down
+        studyPublisherMock.flush();
+        EasyMock.expectLastCall().times(2);
+        studyPublisherMock.clearStudy();
+        EasyMock.replay(studyPublisherMock);
+        ParametricStudyService serviceMock = EasyMock.createNiceMock(ParametricStudyService.class);
+        EasyMock.expect(serviceMock.createPublisher(anyObject(String.class), anyObject(String.class),
+            anyObject(StudyStructure.class))).andReturn(studyPublisherMock).anyTimes();
+        EasyMock.replay(serviceMock);
+        context.addService(ParametricStudyService.class, serviceMock);
+
+        context.setConfigurationValue(ParametricStudyComponentConstants.CONFIG_KEY_SAMPLES_IN_FLIGHT, TWO);
+        Map<String, String> metadata = generateParametricStudyMetadata(ONE, false, FIVE, false, ONE, false, false);
+        addSimulatedOutputs(metadata);
+        context.addSimulatedInput(RETURN_VALUE, ParametricStudyComponentConstants.DYNAMIC_INPUT_IDENTIFIER, DataType.Float, true, null);
+
+        component.start();
+        checkDoneOutputs(false);
+        assertTrue(assertListsEqual(context.getCapturedOutput(DESIGN_VARIABLE), 1.0, 2.0));
+
+        for (double i = 3; i <= 5; i++) {
+            context.setInputValue(RETURN_VALUE, typedDatumFactory.createFloat(i * 10));
+            component.processInputs();
+            checkDoneOutputs(false);
+            assertTrue(assertListsEqual(context.getCapturedOutput(DESIGN_VARIABLE), i));
+        }
+
+        context.setInputValue(RETURN_VALUE, typedDatumFactory.createFloat(SOME_DOUBLE));
+        component.processInputs();
+        checkDoneOutputs(false);
+        assertEquals(0, context.getCapturedOutput(DESIGN_VARIABLE).size());
+
+        context.setInputValue(RETURN_VALUE, typedDatumFactory.createFloat(SOME_DOUBLE));
+        component.processInputs();
+        checkDoneOutputs(true);
+        assertEquals(0, context.getCapturedOutput(DESIGN_VARIABLE).size());
+
+        component.tearDownAndDispose(Component.FinalComponentState.FINISHED);
+
+        assertEquals(5, datasets.getValues().size());
+        for (int i = 0; i < datasets.getValues().size(); i++) {
+            assertEquals(i + 1.0, datasets.getValues().get(i).getValue(DESIGN_VARIABLE));
+        }
+        assertEquals(3 * 10.0, datasets.getValues().get(0).getValue(RETURN_VALUE));
+        EasyMock.verify(studyPublisherMock);
+    }
+
+    /**
+     * Tests if the component refuses to re-run loop runs if more than one design variable is sent into the loop at once.
+     * 
+     * @throws ComponentException on expected errors
+     */
+    @Test
+    public void testSamplesInFlightWithRerun() throws ComponentException {
+        context.setConfigurationValue(ParametricStudyComponentConstants.CONFIG_KEY_SAMPLES_IN_FLIGHT, TWO);
+        context.setConfigurationValue(LoopComponentConstants.CONFIG_KEY_LOOP_FAULT_TOLERANCE_NAV,
+            LoopComponentConstants.LoopBehaviorInCaseOfFailure.RerunAndFail.name());
+        context.setConfigurationValue(LoopComponentConstants.CONFIG_KEY_MAX_RERUN_BEFORE_FAIL_NAV, ONE);
+        Map<String, String> metadata = generateParametricStudyMetadata(ONE, false, FIVE, false, ONE, false, false);
+        addSimulatedOutputs(metadata);
+        context.addSimulatedInput(RETURN_VALUE, ParametricStudyComponentConstants.DYNAMIC_INPUT_IDENTIFIER, DataType.Float, true, null);
+
+        exception.expect(ComponentException.class);
+        component.start();
+    }
+
+    /**
+     * Tests if the component refuses to forward values if more than one design variable is sent into the loop at once.
+     * 
+     * @throws ComponentException on expected errors
+     */
+    @Test
+    public void testSamplesInFlightWithForwarding() throws ComponentException {
+        context.setConfigurationValue(ParametricStudyComponentConstants.CONFIG_KEY_SAMPLES_IN_FLIGHT, TWO);
+        Map<String, String> metadata = generateParametricStudyMetadata(ONE, false, FIVE, false, ONE, false, false);
+        addSimulatedOutputs(metadata);
+        context.addSimulatedInput(N, LoopComponentConstants.ENDPOINT_ID_TO_FORWARD, DataType.Integer, true, null);
+        context.addSimulatedOutput(N, LoopComponentConstants.ENDPOINT_ID_TO_FORWARD, DataType.Integer, true, null);
+
+        exception.expect(ComponentException.class);
+        component.start();
+    }
+
     private void testOneLoopRun() throws ComponentException {
         assertEquals(0, context.getCapturedOutput(N).size());
         assertEquals(0, context.getCapturedOutput(DESIGN_VARIABLE).size());
@@ -15,6 +15,7 @@ import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 
+import de.rcenvironment.components.parametricstudy.common.ParametricStudyComponentConstants;
 import de.rcenvironment.core.component.api.LoopComponentConstants;
 import de.rcenvironment.core.component.model.testutils.ComponentDescriptionMockCreator;
 import de.rcenvironment.core.component.validation.api.ComponentValidationMessage;
@@ -48,4 +49,15 @@ public class ParametricStudyComponentValidatorTest {
         assertEquals(ComponentValidationMessage.Type.ERROR, messages.get(0).getType());
     }
 
+    /** Test invalid number of samples in flight. */
+    @Test
+    public void testInvalidSamplesInFlight() {
+        componentDescriptionMockCreater.addConfigurationValue(ParametricStudyComponentConstants.CONFIG_KEY_SAMPLES_IN_FLIGHT, "0");
+        List<ComponentValidationMessage> messages;
+        messages = validator.validateLoopComponentSpecific(componentDescriptionMockCreater.createComponentDescriptionMock());
+        assertEquals(1, messages.size());
+        assertEquals(ComponentValidationMessage.Type.ERROR, messages.get(0).getType());
+        assertEquals(ParametricStudyComponentConstants.CONFIG_KEY_SAMPLES_IN_FLIGHT, messages.get(0).getProperty());
+    }
+
 }
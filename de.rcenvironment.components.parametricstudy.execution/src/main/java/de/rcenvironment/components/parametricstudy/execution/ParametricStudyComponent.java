@@ -8,7 +8,9 @@
 package de.rcenvironment.components.parametricstudy.execution;
 
 import java.io.Serializable;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
@@ -20,6 +22,7 @@ import de.rcenvironment.components.parametricstudy.common.StudyDataset;
 import de.rcenvironment.components.parametricstudy.common.StudyPublisher;
 import de.rcenvironment.components.parametricstudy.common.StudyStructure;
 import de.rcenvironment.core.component.api.ComponentException;
+import de.rcenvironment.core.component.execution.api.Component.FinalComponentState;
 import de.rcenvironment.core.component.execution.api.ComponentContext;
 import de.rcenvironment.core.component.execution.api.ThreadHandler;
 import de.rcenvironment.core.component.model.api.LazyDisposal;
@@ -46,6 +49,8 @@ public class ParametricStudyComponent extends AbstractNestedLoopComponent {
 
     private static final int MINUS_ONE = -1;
 
+    private static final String SAMPLES_IN_FLIGHT_SETTING = "number of samples in flight";
+
     private static ParametricStudyService parametricStudyService;
 
     private StudyPublisher study;
@@ -56,14 +61,17 @@ public class ParametricStudyComponent extends AbstractNestedLoopComponent {
 
     private double stepSize;
 
-    private double designVariable;
-
     private long steps;
 
     private boolean fitStepSizeToBounds = true;
 
     private int stepCount = 1;
 
+    private int maxSamplesInFlight = 1;
+
+    /** Design variables sent into the loop whose evaluation results were not received yet, in the order they were sent. */
+    private final Deque<Double> designVariablesInFlight = new LinkedList<>();
+
     private boolean isDone;
 
     private volatile boolean canceled = false;
@@ -95,12 +103,18 @@ public class ParametricStudyComponent extends AbstractNestedLoopComponent {
 
         parametricStudyService = componentContext.getService(ParametricStudyService.class);
 
+        maxSamplesInFlight = parseLoopRunsInFlight(
+            componentContext.getConfigurationValue(ParametricStudyComponentConstants.CONFIG_KEY_SAMPLES_IN_FLIGHT),
+            SAMPLES_IN_FLIGHT_SETTING);
+        checkLoopRunsInFlightSupported(maxSamplesInFlight, SAMPLES_IN_FLIGHT_SETTING);
+
         if (treatStartAsComponentRun()) {
             setStudyParameters();
             checkStepSize();
             initilizeStudy();
-            sendDesignVariableToOutput(calculateInitialDesignVariable());
-            if (!hasEvaluationResultFromLoopInput()) {
+            if (hasEvaluationResultFromLoopInput()) {
+                sendDesignVariablesIntoLoop();
+            } else {
                 runFullStudyAtOnce();
             }
         } else {
@@ -130,14 +144,23 @@ public class ParametricStudyComponent extends AbstractNestedLoopComponent {
                 + "Expect exactly one value per input per design variable sent. "
                 + "%s design variables(s) sent and %s value(s) received", steps, steps + 1));
         }
-        // send input parameters to study service for monitoring purposes
-        final Map<String, Serializable> values = new HashMap<>();
-        // input parameters are response to previous iteration
-        if (fitStepSizeToBounds) {
-            values.put(ParametricStudyComponentConstants.OUTPUT_NAME_DV, getLastDesignVariableFittingStepSizeToBounds());
-        } else {
-            values.put(ParametricStudyComponentConstants.OUTPUT_NAME_DV, getLastDesignVariableNotFittingStepSizeToBounds());
+        // input parameters are response to the oldest design variable in flight (see checkLoopRunsInFlightSupported()); there is none
+        // if the inputs only provided the study parameters
+        final Double evaluatedDesignVariable = designVariablesInFlight.poll();
+        if (evaluatedDesignVariable != null) {
+            // send input parameters to study service for monitoring purposes
+            study.add(new StudyDataset(readEvaluationResults(evaluatedDesignVariable)));
+            if (designVariablesInFlight.isEmpty()) {
+                study.flush();
+            }
         }
+
+        setComponentDone(allDesignVariablesSent() && designVariablesInFlight.isEmpty());
+    }
+
+    private Map<String, Serializable> readEvaluationResults(double evaluatedDesignVariable) {
+        final Map<String, Serializable> values = new HashMap<>();
+        values.put(ParametricStudyComponentConstants.OUTPUT_NAME_DV, evaluatedDesignVariable);
         for (String inputName : componentContext.getInputsWithDatum()) {
             if (componentContext.isDynamicInput(inputName)) {
                 TypedDatum input = componentContext.readInput(inputName);
@@ -156,17 +179,24 @@ public class ParametricStudyComponent extends AbstractNestedLoopComponent {
                 }
             }
         }
-        study.add(new StudyDataset(values));
-
-        setComponentDone(allDesignVariablesSent());
+        return values;
     }
 
     @Override
     protected void sendValuesNestedComponentSpecific() {
-        if (fitStepSizeToBounds) {
-            sendDesignVariableToOutput(calculateDesignVariableFittingStepSizeToBounds(stepCount));
-        } else {
-            sendDesignVariableToOutput(calculateDesignVariableNotFittingStepSizeToBounds());
+        sendDesignVariablesIntoLoop();
+    }
+
+    private void sendDesignVariablesIntoLoop() {
+        while (designVariablesInFlight.size() < maxSamplesInFlight && !allDesignVariablesSent()) {
+            final double value;
+            if (fitStepSizeToBounds) {
+                value = calculateDesignVariableFittingStepSizeToBounds(stepCount);
+            } else {
+                value = calculateDesignVariableNotFittingStepSizeToBounds();
+            }
+            designVariablesInFlight.add(value);
+            sendDesignVariableToOutput(value);
         }
     }
 
@@ -197,6 +227,15 @@ public class ParametricStudyComponent extends AbstractNestedLoopComponent {
         setComponentDone(true);
     }
 
+    @Override
+    public void tearDown(FinalComponentState state) {
+        super.tearDown(state);
+        // announce the results received before the component was canceled or failed
+        if (study != null) {
+            study.flush();
+        }
+    }
+
     @Override
     public void dispose() {
         if (study != null) {
@@ -212,6 +251,7 @@ public class ParametricStudyComponent extends AbstractNestedLoopComponent {
     @Override
     protected void resetNestedComponentSpecific() {
         stepCount = 1;
+        designVariablesInFlight.clear();
         setComponentDone(false);
     }
 
@@ -229,45 +269,19 @@ public class ParametricStudyComponent extends AbstractNestedLoopComponent {
         stepCount++;
     }
 
-    private double calculateInitialDesignVariable() {
-        if (fitStepSizeToBounds) {
-            return calculateInitialDesignVariableFittingStepSizeToBounds();
-        } else {
-            return calculateInitialDesignVariableNotFittingStepSizeToBounds();
-        }
-    }
-
-    private double calculateInitialDesignVariableFittingStepSizeToBounds() {
-        designVariable = from;
-        return designVariable;
-    }
-
     private double calculateDesignVariableFittingStepSizeToBounds(int step) {
         // cover if there is only one step to be done (division by zero)
         if (step == 1) {
             return from;
         } else {
-            designVariable = from + (to - from) * (step - 1.0) / (steps - 1.0);
-            return designVariable;
+            return from + (to - from) * (step - 1.0) / (steps - 1.0);
         }
     }
 
-    private double getLastDesignVariableFittingStepSizeToBounds() {
-        return designVariable;
-    }
-
-    private double calculateInitialDesignVariableNotFittingStepSizeToBounds() {
-        return from;
-    }
-
     private double calculateDesignVariableNotFittingStepSizeToBounds() {
         return from + (stepCount - 1) * stepSize;
     }
 
-    private double getLastDesignVariableNotFittingStepSizeToBounds() {
-        return from + (stepCount - 1) * stepSize;
-    }
-
     private boolean allDesignVariablesSent() {
         if (fitStepSizeToBounds) {
             if (stepCount <= steps) {
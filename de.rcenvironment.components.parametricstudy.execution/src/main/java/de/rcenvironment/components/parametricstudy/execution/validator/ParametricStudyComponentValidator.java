@@ -38,6 +38,7 @@ public class ParametricStudyComponentValidator extends AbstractLoopComponentVali
         List<ComponentValidationMessage> messages = new ArrayList<>();
 
         getNestedLoopErrors(componentDescription, messages);
+        getSamplesInFlightErrors(componentDescription, messages);
 
         return messages;
     }
@@ -71,4 +72,22 @@ public class ParametricStudyComponentValidator extends AbstractLoopComponentVali
         }
     }
 
+    private void getSamplesInFlightErrors(ComponentDescription componentDescription,
+            List<ComponentValidationMessage> messages) {
+
+        String samplesInFlight = getProperty(componentDescription, ParametricStudyComponentConstants.CONFIG_KEY_SAMPLES_IN_FLIGHT);
+        if (samplesInFlight != null && !samplesInFlight.isEmpty()) {
+            boolean valid;
+            try {
+                valid = Integer.parseInt(samplesInFlight) > 0;
+            } catch (NumberFormatException e) {
+                valid = false;
+            }
+            if (!valid) {
+                messages.add(new ComponentValidationMessage(Type.ERROR, ParametricStudyComponentConstants.CONFIG_KEY_SAMPLES_IN_FLIGHT,
+                        "The number of samples in flight must be a positive integer.", null));
+            }
+        }
+    }
+
 }
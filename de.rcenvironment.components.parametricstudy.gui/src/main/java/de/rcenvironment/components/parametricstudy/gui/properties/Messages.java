@@ -47,6 +47,15 @@ public class Messages extends NLS {
     
     /** Constant. */
     public static String outputs;
+
+    /** Constant. */
+    public static String executionSection;
+
+    /** Constant. */
+    public static String samplesInFlightLabel;
+
+    /** Constant. */
+    public static String samplesInFlightNote;
     
     private static final String BUNDLE_NAME = Messages.class.getPackage().getName() + ".messages";
 
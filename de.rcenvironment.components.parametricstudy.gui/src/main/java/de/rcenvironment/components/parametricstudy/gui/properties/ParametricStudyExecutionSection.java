@@ -0,0 +1,53 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.components.parametricstudy.gui.properties;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.ui.forms.widgets.Section;
+import org.eclipse.ui.views.properties.tabbed.TabbedPropertySheetPage;
+import org.eclipse.ui.views.properties.tabbed.TabbedPropertySheetWidgetFactory;
+
+import de.rcenvironment.components.parametricstudy.common.ParametricStudyComponentConstants;
+import de.rcenvironment.core.gui.utils.incubator.WidgetGroupFactory;
+import de.rcenvironment.core.gui.workflow.editor.properties.ValidatingWorkflowNodePropertySection;
+
+/**
+ * "Properties" view tab for configuring how many design variables are sent into the loop at once.
+ * 
+ * @author agent
+ */
+public class ParametricStudyExecutionSection extends ValidatingWorkflowNodePropertySection {
+
+    private static final int TEXT_WIDTH = 50;
+
+    @Override
+    protected void createCompositeContent(final Composite parent, final TabbedPropertySheetPage aTabbedPropertySheetPage) {
+        TabbedPropertySheetWidgetFactory factory = aTabbedPropertySheetPage.getWidgetFactory();
+
+        final Section section = factory.createSection(parent, Section.TITLE_BAR | Section.EXPANDED);
+        section.setText(Messages.executionSection);
+
+        Composite client = factory.createFlatFormComposite(section);
+        client.setLayout(new GridLayout(2, false));
+
+        WidgetGroupFactory.addLabelAndTextfieldForPropertyToComposite(client, Messages.samplesInFlightLabel,
+            ParametricStudyComponentConstants.CONFIG_KEY_SAMPLES_IN_FLIGHT, TEXT_WIDTH, WidgetGroupFactory.ONLY_INTEGER);
+
+        Label noteLabel = factory.createLabel(client, Messages.samplesInFlightNote, SWT.WRAP);
+        GridData gridData = new GridData(GridData.FILL_HORIZONTAL);
+        gridData.horizontalSpan = 2;
+        noteLabel.setLayoutData(gridData);
+
+        section.setClient(client);
+    }
+}
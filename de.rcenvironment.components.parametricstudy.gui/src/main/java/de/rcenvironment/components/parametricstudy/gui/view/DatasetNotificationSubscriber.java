@@ -11,6 +11,8 @@ package de.rcenvironment.components.parametricstudy.gui.view;
 import java.io.Serializable;
 
 import de.rcenvironment.components.parametricstudy.common.StudyDataset;
+import de.rcenvironment.components.parametricstudy.common.StudyDatasetBatch;
+import de.rcenvironment.components.parametricstudy.common.StudyReceiver;
 import de.rcenvironment.core.notification.DefaultNotificationSubscriber;
 import de.rcenvironment.core.notification.Notification;
 import de.rcenvironment.core.notification.NotificationSubscriber;
@@ -25,6 +27,8 @@ public class DatasetNotificationSubscriber extends DefaultNotificationSubscriber
 
     private final transient StudyDatastore datastore;
 
+    private transient long lastReceivedNumber = StudyReceiver.NO_NOTIFICATION_RECEIVED;
+
     public DatasetNotificationSubscriber(final StudyDatastore datastore) {
         this.datastore = datastore;
     }
@@ -34,10 +38,28 @@ public class DatasetNotificationSubscriber extends DefaultNotificationSubscriber
         return NotificationSubscriber.class;
     }
 
+    /**
+     * @return the number of the last notification received, to resume receiving with (see {@link StudyReceiver#initialize(long)})
+     */
+    public synchronized long getLastReceivedNumber() {
+        return lastReceivedNumber;
+    }
+
     @Override
-    public void processNotification(Notification notification) {
-        final StudyDataset dataset = (StudyDataset) notification.getBody();
-        datastore.addDataset(dataset);
+    public synchronized void processNotification(Notification notification) {
+        // notifications may be received twice when resuming, both as missed ones and from the subscription
+        if (notification.getHeader().getNumber() <= lastReceivedNumber) {
+            return;
+        }
+        lastReceivedNumber = notification.getHeader().getNumber();
+        if (notification.getBody() instanceof StudyDatasetBatch) {
+            for (final StudyDataset dataset : ((StudyDatasetBatch) notification.getBody()).getDatasets()) {
+                datastore.addDataset(dataset);
+            }
+        } else {
+            final StudyDataset dataset = (StudyDataset) notification.getBody();
+            datastore.addDataset(dataset);
+        }
     }
     
 }
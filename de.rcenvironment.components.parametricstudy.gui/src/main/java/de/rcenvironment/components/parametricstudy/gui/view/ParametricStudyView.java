@@ -119,6 +119,11 @@ public class ParametricStudyView extends ViewPart implements ComponentRuntimeVie
     @Override
     public void initializeData(final ComponentExecutionInformation componentInstanceDescriptor) {
         this.componentInstanceInformation = componentInstanceDescriptor;
+        if (study != null && study.getIdentifier().equals(componentInstanceDescriptor.getExecutionIdentifier())) {
+            // the view is shown again for the same component; keep the values received so far
+            study.resume();
+            return;
+        }
         ServiceRegistryAccess serviceRegistryAccess = ServiceRegistry.createAccessFor(this);
         ParametricStudyService parametricStudyService = serviceRegistryAccess.getService(ParametricStudyService.class);
         study = StudyDatastore.connect(
@@ -44,6 +44,10 @@ public final class StudyDatastore extends Study {
     private final Map<String, Double> minValues = new HashMap<String, Double>();
 
     private final Map<String, Double> maxValues = new HashMap<String, Double>();
+
+    private transient StudyReceiver receiver;
+
+    private transient DatasetNotificationSubscriber subscriber;
     
     public StudyDatastore(final String identifier, final String title, final StudyStructure structure) {
         super(identifier, title, structure);
@@ -121,9 +125,22 @@ public final class StudyDatastore extends Study {
         notificationSubscriber = new DatasetNotificationSubscriber(datastore);
         receiver.setNotificationSubscriber(notificationSubscriber);
         receiver.initialize();
+        datastore.receiver = receiver;
+        datastore.subscriber = notificationSubscriber;
         return datastore;
     }
 
+    /**
+     * Connects the {@link StudyReceiver} of this {@link StudyDatastore} to the {@link StudyPublisher} again, e.g. if the view showing it is
+     * requested to be initialized again. Only the {@link StudyDataset}s not received yet are fetched.
+     */
+    public void resume() {
+        if (receiver != null) {
+            notificationSubscriber = subscriber;
+            receiver.initialize(subscriber.getLastReceivedNumber());
+        }
+    }
+
     /**
      * @param listener for {@link StudyDataset}to add.
      */
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.components.script.common.pythonAgentInstanceManager.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.rcenvironment.core.component.execution.api.ComponentContext;
+
+/**
+ * Tests for {@link PythonAgentPool}. The agents are mocks, so that no python installation is required.
+ * 
+ * @author agent
+ */
+public class PythonAgentPoolTest {
+
+    private static final String INSTALLATION = "/path/to/python";
+
+    private static final long IDLE_TIMEOUT_MSEC = 1000;
+
+    private static final int WAIT_MSEC = 200;
+
+    private final List<PythonAgent> startedAgents = new ArrayList<>();
+
+    private final List<PythonAgent> stoppedAgents = new ArrayList<>();
+
+    private final ComponentContext compCtx = EasyMock.createNiceMock(ComponentContext.class);
+
+    private ExecutorService threadPool;
+
+    private boolean failOnStart;
+
+    /**
+     * A {@link PythonAgentPool} that starts mocked agents.
+     * 
+     * @author agent
+     */
+    private class PythonAgentPoolUnderTest extends PythonAgentPool {
+
+        PythonAgentPoolUnderTest(int maxAgents) {
+            super(null, INSTALLATION, maxAgents, new AtomicInteger());
+        }
+
+        @Override
+        protected PythonAgent startAgent(ComponentContext ignored) throws IOException {
+            if (failOnStart) {
+                throw new IOException("Unable to create a PythonAgent for the script execution.");
+            }
+            final PythonAgent agent = EasyMock.createNiceMock(PythonAgent.class);
+            EasyMock.replay(agent);
+            synchronized (startedAgents) {
+                startedAgents.add(agent);
+            }
+            return agent;
+        }
+
+        @Override
+        protected void stopAgent(PythonAgent agent) {
+            stoppedAgents.add(agent);
+        }
+    }
+
+    /**
+     * Common setup.
+     */
+    @Before
+    public void setUp() {
+        threadPool = Executors.newSingleThreadExecutor();
+    }
+
+    /**
+     * Common cleanup.
+     */
+    @After
+    public void tearDown() {
+        threadPool.shutdownNow();
+    }
+
+    /**
+     * Tests that registering the first user starts an agent, and that further agents are started on demand up to the maximum size of the
+     * pool, after which acquisitions wait for a released agent.
+     * 
+     * @throws Exception on unexpected errors
+     */
+    @Test
+    public void testAgentsAreStartedOnDemandUpToMaximum() throws Exception {
+        final PythonAgentPool pool = new PythonAgentPoolUnderTest(2);
+        pool.registerUser(compCtx);
+        assertEquals(1, startedAgents.size());
+
+        final PythonAgent first = pool.acquire(compCtx);
+        assertSame(startedAgents.get(0), first);
+        final PythonAgent second = pool.acquire(compCtx);
+        assertNotSame(first, second);
+        assertEquals(2, startedAgents.size());
+        assertEquals(2, pool.getAcquiredAgentCount());
+
+        final Future<PythonAgent> third = threadPool.submit(() -> pool.acquire(compCtx));
+        try {
+            third.get(WAIT_MSEC, TimeUnit.MILLISECONDS);
+            fail("Acquired more agents than the maximum size of the pool");
+        } catch (TimeoutException e) {
+            assertFalse(third.isDone());
+        }
+
+        pool.release(first);
+        assertSame(first, third.get(WAIT_MSEC * 10, TimeUnit.MILLISECONDS));
+        assertEquals(2, startedAgents.size());
+    }
+
+    /**
+     * Tests that idle agents are evicted after the timeout, except for the last agent of the pool.
+     * 
+     * @throws Exception on unexpected errors
+     */
+    @Test
+    public void testIdleAgentsAreEvictedExceptLastOne() throws Exception {
+        final PythonAgentPool pool = new PythonAgentPoolUnderTest(3);
+        pool.registerUser(compCtx);
+        final List<PythonAgent> acquired = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            acquired.add(pool.acquire(compCtx));
+        }
+        for (PythonAgent agent : acquired) {
+            pool.release(agent);
+        }
+
+        pool.evictIdleAgents(System.currentTimeMillis(), IDLE_TIMEOUT_MSEC);
+        assertTrue(stoppedAgents.isEmpty());
+
+        pool.evictIdleAgents(System.currentTimeMillis() + 2 * IDLE_TIMEOUT_MSEC, IDLE_TIMEOUT_MSEC);
+        assertEquals(2, stoppedAgents.size());
+        assertEquals(1, pool.getAgentCount());
+        // the most recently released agent is kept
+        assertSame(acquired.get(2), pool.acquire(compCtx));
+    }
+
+    /**
+     * Tests that the agents are stopped when the last user is unregistered.
+     * 
+     * @throws Exception on unexpected errors
+     */
+    @Test
+    public void testLastUserStopsAllAgents() throws Exception {
+        final PythonAgentPool pool = new PythonAgentPoolUnderTest(2);
+        pool.registerUser(compCtx);
+        pool.registerUser(compCtx);
+        pool.release(pool.acquire(compCtx));
+        assertEquals(1, startedAgents.size());
+
+        assertFalse(pool.unregisterUser());
+        assertTrue(stoppedAgents.isEmpty());
+        assertTrue(pool.unregisterUser());
+        assertEquals(startedAgents, stoppedAgents);
+        assertEquals(0, pool.getAgentCount());
+    }
+
+    /**
+     * Tests that agents still in use when the last user is unregistered are stopped on release instead of being kept idle.
+     * 
+     * @throws Exception on unexpected errors
+     */
+    @Test
+    public void testAgentsInUseAreStoppedOnReleaseAfterShutdown() throws Exception {
+        final PythonAgentPool pool = new PythonAgentPoolUnderTest(2);
+        pool.registerUser(compCtx);
+        final PythonAgent first = pool.acquire(compCtx);
+        final PythonAgent second = pool.acquire(compCtx);
+
+        assertTrue(pool.unregisterUser());
+        assertTrue(stoppedAgents.isEmpty());
+        assertEquals(2, pool.getAgentCount());
+
+        pool.release(first);
+        pool.release(second);
+        assertEquals(startedAgents, stoppedAgents);
+        assertEquals(0, pool.getAgentCount());
+        assertEquals(0, pool.getAcquiredAgentCount());
+    }
+
+    /**
+     * Tests that a discarded agent is stopped instead of being kept idle, and that its slot is used by a newly started agent.
+     * 
+     * @throws Exception on unexpected errors
+     */
+    @Test
+    public void testDiscardedAgentIsStoppedAndReplaced() throws Exception {
+        final PythonAgentPool pool = new PythonAgentPoolUnderTest(1);
+        pool.registerUser(compCtx);
+        final PythonAgent broken = pool.acquire(compCtx);
+
+        pool.discard(broken);
+        assertEquals(1, stoppedAgents.size());
+        assertSame(broken, stoppedAgents.get(0));
+        assertEquals(0, pool.getAgentCount());
+        assertEquals(0, pool.getAcquiredAgentCount());
+
+        final PythonAgent replacement = pool.acquire(compCtx);
+        assertNotSame(broken, replacement);
+        assertEquals(2, startedAgents.size());
+        assertEquals(1, pool.getAgentCount());
+    }
+
+    /**
+     * Tests that a failed start of an agent does not occupy a slot of the pool.
+     * 
+     * @throws Exception on unexpected errors
+     */
+    @Test
+    public void testFailedStartDoesNotOccupySlot() throws Exception {
+        final PythonAgentPool pool = new PythonAgentPoolUnderTest(2);
+        pool.registerUser(compCtx);
+        final PythonAgent first = pool.acquire(compCtx);
+
+        failOnStart = true;
+        try {
+            pool.acquire(compCtx);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals(1, pool.getAgentCount());
+            assertEquals(1, pool.getAcquiredAgentCount());
+        }
+
+        failOnStart = false;
+        assertNotSame(first, pool.acquire(compCtx));
+        assertEquals(2, pool.getAgentCount());
+    }
+}
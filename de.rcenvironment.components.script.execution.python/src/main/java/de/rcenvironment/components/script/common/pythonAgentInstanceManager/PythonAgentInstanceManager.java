@@ -16,31 +16,61 @@ import de.rcenvironment.core.utils.executor.LocalApacheCommandLineExecutor;
 
 /**
  * 
- * Service to manage python instances which will be used to execute python scripts during the workflow.
+ * Service to manage python instances which will be used to execute python scripts during the workflow. The instances are kept in a pool
+ * per python installation. Each script execution acquires an idle agent of the pool exclusively and releases it afterwards, so that
+ * scripts of different components using the same installation are executed in parallel, up to the maximum size of the pool.
  * 
  * @author Adrian Stock
  *
  */
 public interface PythonAgentInstanceManager {
-    
+
     /**
-     * Starts a python instance with the given installation path.
+     * Registers a user of the pool of the given installation. If the pool does not contain a running agent yet, one agent is started, so
+     * that a misconfigured installation is detected early and the first script execution does not have to wait for the python instance.
      * 
-     * @param pythonInstallationPath which will be used to start the instance.
-     * @param compCtx to show the output of the python agent on the console (will be removed later).
-     * @return a {@link PythonAgent} which communicates with the python instance.
+     * @param pythonInstallationPath which will be used to start the instances.
+     * @param maxAgents the maximum number of agents of the pool; only considered if the pool does not exist yet.
+     * @param compCtx to show the output of the python agent on the console while starting it.
      * @throws IOException if the agent couldn't be initialized.
      */
-    PythonAgent getAgent(String pythonInstallationPath, ComponentContext compCtx) throws IOException;
-    
+    void registerUser(String pythonInstallationPath, int maxAgents, ComponentContext compCtx) throws IOException;
+
+    /**
+     * Unregisters a user of the pool of the given installation. If the caller was the last user of the pool, all agents of the pool are
+     * shut down. The caller can determine which of these cases applies via the return argument.
+     * 
+     * @param pythonInstallationPath of the pool.
+     * @return true if the pool was indeed shut down, false if the pool is still in use by some other client of this manager
+     */
+    boolean unregisterUser(String pythonInstallationPath);
+
+    /**
+     * Acquires an idle agent of the pool of the given installation exclusively. If there is no idle agent, a new one is started, unless
+     * the pool has reached its maximum size; in that case, this method blocks until an agent is released.
+     * 
+     * @param pythonInstallationPath of the pool.
+     * @param compCtx the component the agent executes scripts for; the output of the python agent is shown on its console.
+     * @return a {@link PythonAgent} which communicates with the python instance.
+     * @throws IOException if no agent could be initialized.
+     * @throws InterruptedException if interrupted while waiting for an agent.
+     */
+    PythonAgent acquireAgent(String pythonInstallationPath, ComponentContext compCtx) throws IOException, InterruptedException;
+
+    /**
+     * Releases an agent acquired via {@link #acquireAgent(String, ComponentContext)}, so that it can be used by other script executions.
+     * 
+     * @param agent to release.
+     */
+    void releaseAgent(PythonAgent agent);
+
     /**
-     * If the object calling this method was the last user of the given agent, the agent is shut down. Otherwise, its usage counter is
-     * decremented. The caller can determine which of these cases applies via the return argument.
+     * Releases an agent acquired via {@link #acquireAgent(String, ComponentContext)} that may be broken, e.g. because the communication
+     * with its python instance failed. The agent is stopped and discarded instead of being handed out to other script executions.
      * 
-     * @param agent which communicates with the instance which shall be shut down.
-     * @return true if the agent was indeed stopped, false if the agent is still in use by some other client of this manager
+     * @param agent to discard.
      */
-    boolean stopAgent(PythonAgent agent);
+    void discardAgent(PythonAgent agent);
     
     /**
      * Creates a new executor to start threads.
@@ -17,9 +17,9 @@ import java.io.PrintWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.Semaphore;
 
 import javax.script.ScriptException;
 
@@ -34,16 +34,19 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import de.rcenvironment.components.script.common.pythonAgentInstanceManager.PythonAgentInstanceManager;
 import de.rcenvironment.core.component.api.ComponentException;
 import de.rcenvironment.core.component.execution.api.ComponentContext;
+import de.rcenvironment.core.component.execution.api.ComponentLog;
 import de.rcenvironment.core.component.execution.api.ConsoleRow;
 import de.rcenvironment.core.component.execution.api.ConsoleRowUtils;
 import de.rcenvironment.core.scripting.python.PythonScriptEngine;
 import de.rcenvironment.core.toolkitbridge.transitional.ConcurrencyUtils;
+import de.rcenvironment.core.utils.common.JsonUtils;
 import de.rcenvironment.core.utils.common.TempFileServiceAccess;
 import de.rcenvironment.core.utils.common.legacy.FileSupport;
 import de.rcenvironment.core.utils.executor.LocalApacheCommandLineExecutor;
 
 /**
- * Class to communicate with a python instance. It contains a socket object and the belonging streams.
+ * Class to communicate with a python instance. It contains a socket object and the belonging streams. An agent is used by one script
+ * execution at a time; the {@link PythonAgentInstanceManager} assigns it to the component it currently executes scripts for.
  * 
  * @author Adrian Stock
  * @author Niklas Foerst
@@ -72,9 +75,11 @@ public class PythonAgent implements Runnable {
 
     private static final String STANDARD_ERROR_MESSAGE = "Error occured when receiving a message.";
 
+    private static final String[] RUN_FILE_EXTENSIONS = { ".rced", ".rces", ".rcen", ".rceo" };
+
     protected Scanner inputScanner;
 
-    protected ComponentContext compCtx;
+    protected volatile ComponentContext compCtx;
 
     private LocalApacheCommandLineExecutor executor;
 
@@ -100,7 +105,43 @@ public class PythonAgent implements Runnable {
 
     private boolean initializationWasSuccessful;
 
-    private final Semaphore lock = new Semaphore(1);
+    /**
+     * Forwards the console output of the python instance to the component the agent currently executes scripts for.
+     * 
+     * @author agent
+     */
+    private final class CurrentComponentLog implements ComponentLog {
+
+        @Override
+        public void toolStdout(String message) {
+            compCtx.getLog().toolStdout(message);
+        }
+
+        @Override
+        public void toolStderr(String message) {
+            compCtx.getLog().toolStderr(message);
+        }
+
+        @Override
+        public void componentError(String message) {
+            compCtx.getLog().componentError(message);
+        }
+
+        @Override
+        public void componentError(String message, Throwable t, String errorId) {
+            compCtx.getLog().componentError(message, t, errorId);
+        }
+
+        @Override
+        public void componentWarn(String message) {
+            compCtx.getLog().componentWarn(message);
+        }
+
+        @Override
+        public void componentInfo(String message) {
+            compCtx.getLog().componentInfo(message);
+        }
+    }
 
     // @taskDescription Python Agent
     public PythonAgent(PythonAgentInstanceManager instanceManager, String pythonInstallationPath,
@@ -235,9 +276,10 @@ public class PythonAgent implements Runnable {
                     pythonStartSignal.countDown();
                 }
 
-                ConsoleRowUtils.logToWorkflowConsole(compCtx.getLog(), executor.getStdout(),
+                final ComponentLog currentComponentLog = new CurrentComponentLog();
+                ConsoleRowUtils.logToWorkflowConsole(currentComponentLog, executor.getStdout(),
                     ConsoleRow.Type.TOOL_OUT, null, false);
-                ConsoleRowUtils.logToWorkflowConsole(compCtx.getLog(), executor.getStderr(),
+                ConsoleRowUtils.logToWorkflowConsole(currentComponentLog, executor.getStderr(),
                     ConsoleRow.Type.TOOL_ERROR, null, false);
             }
         });
@@ -301,6 +343,34 @@ public class PythonAgent implements Runnable {
         writeNewLineToLog();
     }
 
+    /**
+     * Sends the script along with the inputs, state variables and output names of the run to the Python instance as a single message.
+     * After executing the script, Python answers with a single message containing the outputs, closed outputs and state variables, so that
+     * no files need to be exchanged for the run.
+     * 
+     * @param script which will be executed.
+     * @param run the run message, as created by {@link PythonScriptEngine#agentPrepareInMemoryScriptExecution(File)}.
+     * @return the result message, to be passed to {@link PythonScriptEngine#agentReadOutputFromMessage(Map)}.
+     * @throws IOException if the communication between Java and the Python instance fails.
+     * @throws ComponentException if the script couldn't be executed successfully.
+     */
+    public Map<String, Object> executeScriptInMemory(String script, Map<String, Object> run) throws IOException, ComponentException {
+        compCtx.getLog().componentInfo("Execute Python Script:");
+        ScriptJSONObject jsonObject = scriptToJSON("executeInMemory", script);
+        jsonObject.setRun(run);
+        sendScript(jsonObject);
+        final String reply = recvMessage();
+        if (reply == null || !reply.startsWith("{")) {
+            throw new IOException("Received an unexpected reply from the Python instance: " + reply);
+        }
+        @SuppressWarnings("unchecked") final Map<String, Object> result = JsonUtils.getDefaultObjectMapper().readValue(reply, Map.class);
+        if (!Boolean.TRUE.equals(result.get("successful"))) {
+            throwGenericException();
+        }
+        writeNewLineToLog();
+        return result;
+    }
+
     private void throwGenericException() throws ComponentException {
         throw new ComponentException("Failed to execute script.");
     }
@@ -310,7 +380,7 @@ public class PythonAgent implements Runnable {
     }
 
     private void sendScript(ScriptJSONObject scriptObject) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectMapper objectMapper = JsonUtils.getDefaultObjectMapper();
         sendMessage(objectMapper.writeValueAsString(scriptObject));
         out.flush();
 
@@ -436,11 +506,35 @@ public class PythonAgent implements Runnable {
         return this.pythonInstallationPath;
     }
 
-    public void acquireLock() throws InterruptedException {
-        this.lock.acquire();
+    public int getNumber() {
+        return number;
     }
 
-    public void releaseLock() {
-        this.lock.release();
+    /**
+     * Assigns the agent to the component it executes the next scripts for. The console output of the python instance and the log messages
+     * of the agent are forwarded to this component.
+     * 
+     * @param newCompCtx the component using the agent.
+     */
+    void setComponentContext(ComponentContext newCompCtx) {
+        this.compCtx = newCompCtx;
+    }
+
+    /**
+     * Deletes the files exchanged with the python instance during the last script execution, so that they are not visible to the next
+     * script execution, which may belong to a different component.
+     */
+    void deleteRunFiles() {
+        final File[] files = tempDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            for (String extension : RUN_FILE_EXTENSIONS) {
+                if (file.isFile() && file.getName().endsWith(extension) && !file.delete()) {
+                    LOGGER.warn("Failed to delete file of the last script execution: " + file.getAbsolutePath());
+                }
+            }
+        }
     }
 }
@@ -9,17 +9,18 @@
 package de.rcenvironment.components.script.common.pythonAgentInstanceManager.internal;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
-import javax.script.ScriptException;
-
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 
 import de.rcenvironment.components.script.common.pythonAgentInstanceManager.PythonAgentInstanceManager;
 import de.rcenvironment.core.component.execution.api.ComponentContext;
@@ -28,7 +29,9 @@ import de.rcenvironment.core.toolkitbridge.transitional.ConcurrencyUtils;
 import de.rcenvironment.core.utils.executor.LocalApacheCommandLineExecutor;
 
 /**
- * Implementation of {@link PythonAgentInstanceManager}.
+ * Implementation of {@link PythonAgentInstanceManager}. Keeps a {@link PythonAgentPool} per python installation, and periodically stops
+ * agents that have been idle for longer than {@link #IDLE_AGENT_TIMEOUT_MSEC}. Registering and unregistering users is synchronized per
+ * python installation, so that starting the first agent of one installation does not block the users of other installations.
  * 
  * @author Adrian Stock
  * @author Alexander Weinert (reuse of existing python agents)
@@ -39,74 +42,119 @@ public class PythonAgentInstanceManagerImpl implements PythonAgentInstanceManage
 
     private static final Log LOGGER = LogFactory.getLog(PythonScriptEngine.class);
 
-    private Map<String, Integer> usageCounterByInstallationPath = new HashMap<>();
+    private static final long IDLE_AGENT_TIMEOUT_MSEC = 60 * 1000;
 
-    private Map<String, PythonAgent> agentsByInstallationPath = new HashMap<>();
+    private static final long IDLE_AGENT_EVICTION_INTERVAL_MSEC = 10 * 1000;
 
-    private Map<String, ServerSocket> socketsByInstallationPath = new HashMap<>();
+    private final Map<String, PythonAgentPool> poolsByInstallationPath = new ConcurrentHashMap<>();
 
-    private final AtomicInteger runningCount = new AtomicInteger(0);
+    // never removed, as there are only few python installations
+    private final Map<String, Object> locksByInstallationPath = new ConcurrentHashMap<>();
 
-    private CountDownLatch initializationSignal;
+    // the pool an agent is released to, even if that pool has been shut down in the meantime
+    private final Map<PythonAgent, PythonAgentPool> poolsByAcquiredAgent = new ConcurrentHashMap<>();
 
-    @Override
-    public synchronized PythonAgent getAgent(String pythonInstallationPath, ComponentContext compCtx)
-        throws IOException {
-        if (this.agentsByInstallationPath.containsKey(pythonInstallationPath)) {
-            this.usageCounterByInstallationPath.compute(pythonInstallationPath, (ignored, x) -> x + 1);
-            return this.agentsByInstallationPath.get(pythonInstallationPath);
-        }
+    private final AtomicInteger runningCount = new AtomicInteger(0);
 
-        try {
-            final ServerSocket serverSocket = new ServerSocket(0);
-            this.socketsByInstallationPath.put(pythonInstallationPath, serverSocket);
-        } catch (IOException e) {
-            throw new IOException(
-                "No socket could be opened. Therefore, the communication to python couldn't be established.", e);
-        }
+    private ScheduledFuture<?> idleAgentEvictionFuture;
 
-        try {
-            initializationSignal = new CountDownLatch(1);
+    @Activate
+    protected void activate() {
+        idleAgentEvictionFuture = ConcurrencyUtils.getAsyncTaskService().scheduleAtFixedInterval(
+            "Stop idle Python agents", this::evictIdleAgents, IDLE_AGENT_EVICTION_INTERVAL_MSEC);
+    }
 
-            LOGGER.debug("Starting new Python agent");
+    @Deactivate
+    protected void deactivate() {
+        if (idleAgentEvictionFuture != null) {
+            idleAgentEvictionFuture.cancel(true);
+        }
+    }
 
-            final ServerSocket socket = this.socketsByInstallationPath.get(pythonInstallationPath);
-            final PythonAgent agent = new PythonAgent(this, pythonInstallationPath, runningCount.getAndIncrement(),
-                socket, initializationSignal, compCtx);
-            ConcurrencyUtils.getAsyncTaskService().execute("Run Python Agent", agent);
+    @Override
+    public void registerUser(String pythonInstallationPath, int maxAgents, ComponentContext compCtx) throws IOException {
+        synchronized (getInstallationLock(pythonInstallationPath)) {
+            PythonAgentPool pool = poolsByInstallationPath.get(pythonInstallationPath);
+            if (pool == null) {
+                pool = createPool(pythonInstallationPath, maxAgents);
+                poolsByInstallationPath.put(pythonInstallationPath, pool);
+            }
+            try {
+                pool.registerUser(compCtx);
+            } catch (IOException e) {
+                if (pool.getAgentCount() == 0) {
+                    poolsByInstallationPath.remove(pythonInstallationPath);
+                }
+                throw e;
+            }
+        }
+    }
 
-            initializationSignal.await();
-            if (!agent.wasInitializationSuccessful()) {
-                throw new IOException("Unable to create a PythonAgent for the script execution.");
+    @Override
+    public boolean unregisterUser(String pythonInstallationPath) {
+        synchronized (getInstallationLock(pythonInstallationPath)) {
+            final PythonAgentPool pool = poolsByInstallationPath.get(pythonInstallationPath);
+            if (pool == null) {
+                return false;
+            }
+            if (pool.unregisterUser()) {
+                poolsByInstallationPath.remove(pythonInstallationPath);
+                return true;
             }
+            return false;
+        }
+    }
 
-            agentsByInstallationPath.put(pythonInstallationPath, agent);
-            usageCounterByInstallationPath.put(pythonInstallationPath, 1);
-            return agent;
-        } catch (ScriptException | InterruptedException e) {
-            throw new IOException("Unable to create a PythonAgent for the script execution.");
+    @Override
+    public PythonAgent acquireAgent(String pythonInstallationPath, ComponentContext compCtx) throws IOException, InterruptedException {
+        final PythonAgentPool pool = poolsByInstallationPath.get(pythonInstallationPath);
+        if (pool == null) {
+            throw new IllegalStateException("No user registered for python installation " + pythonInstallationPath);
         }
+        final PythonAgent agent = pool.acquire(compCtx);
+        poolsByAcquiredAgent.put(agent, pool);
+        return agent;
     }
 
     @Override
-    public synchronized boolean stopAgent(PythonAgent agent) {
-        final int newUsageCount = usageCounterByInstallationPath.compute(agent.getInstallationPath(),
-            (ignored, x) -> x - 1);
+    public void releaseAgent(PythonAgent agent) {
+        final PythonAgentPool pool = poolsByAcquiredAgent.remove(agent);
+        if (pool == null) {
+            LOGGER.warn("Released a Python agent of python installation " + agent.getInstallationPath()
+                + ", which was not acquired via this manager; stopping it");
+            agent.stopInstance();
+            return;
+        }
+        // if the pool has been shut down in the meantime, it stops the agent
+        pool.release(agent);
+    }
 
-        if (newUsageCount == 0) {
+    @Override
+    public void discardAgent(PythonAgent agent) {
+        final PythonAgentPool pool = poolsByAcquiredAgent.remove(agent);
+        if (pool == null) {
+            LOGGER.warn("Discarded a Python agent of python installation " + agent.getInstallationPath()
+                + ", which was not acquired via this manager; stopping it");
             agent.stopInstance();
-            try {
-                socketsByInstallationPath.get(agent.getInstallationPath()).close();
-            } catch (IOException e) {
-                LOGGER.warn("Could not close server socket used for communication with python installation "
-                    + agent.getInstallationPath()
-                    + ". Since that agent is not used anymore, this should not implact further operation.");
-            }
-            usageCounterByInstallationPath.remove(agent.getInstallationPath());
-            agentsByInstallationPath.remove(agent.getInstallationPath());
-            return true;
+            return;
+        }
+        pool.discard(agent);
+    }
+
+    PythonAgentPool createPool(String pythonInstallationPath, int maxAgents) {
+        return new PythonAgentPool(this, pythonInstallationPath, maxAgents, runningCount);
+    }
+
+    private Object getInstallationLock(String pythonInstallationPath) {
+        return locksByInstallationPath.computeIfAbsent(pythonInstallationPath, path -> new Object());
+    }
+
+    private void evictIdleAgents() {
+        final List<PythonAgentPool> pools = new ArrayList<>(poolsByInstallationPath.values());
+        final long currentTime = System.currentTimeMillis();
+        for (PythonAgentPool pool : pools) {
+            pool.evictIdleAgents(currentTime, IDLE_AGENT_TIMEOUT_MSEC);
         }
-        return false;
     }
 
     @Override
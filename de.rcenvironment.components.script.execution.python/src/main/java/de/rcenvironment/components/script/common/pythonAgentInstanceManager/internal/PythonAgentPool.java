@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2006-2016 DLR, Germany
+ * 
+ * All rights reserved
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.components.script.common.pythonAgentInstanceManager.internal;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.script.ScriptException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import de.rcenvironment.components.script.common.pythonAgentInstanceManager.PythonAgentInstanceManager;
+import de.rcenvironment.core.component.execution.api.ComponentContext;
+import de.rcenvironment.core.scripting.python.PythonScriptEngine;
+import de.rcenvironment.core.toolkitbridge.transitional.ConcurrencyUtils;
+import de.rcenvironment.core.toolkitbridge.transitional.StatsCounter;
+import de.rcenvironment.core.utils.common.StringUtils;
+import de.rcenvironment.core.utils.common.TempFileServiceAccess;
+
+/**
+ * A bounded pool of {@link PythonAgent}s using the same python installation. Agents are started on demand, up to the maximum size of the
+ * pool, and are stopped again after they have been idle for a while. As long as the pool has users, at least one agent is kept running.
+ * Once the last user is unregistered, the pool is shut down: its idle agents are stopped, and the agents still in use are stopped as
+ * soon as they are released.
+ * 
+ * Idle agents are handed out most recently released first, so that the agents at the end of the idle queue are the ones that can be
+ * evicted.
+ * 
+ * @author agent
+ */
+class PythonAgentPool {
+
+    private static final String STATS_COUNTER_CATEGORY = "Python agent pools";
+
+    private static final Log LOGGER = LogFactory.getLog(PythonScriptEngine.class);
+
+    private final PythonAgentInstanceManager instanceManager;
+
+    private final String pythonInstallationPath;
+
+    private final int maxAgents;
+
+    private final AtomicInteger agentNumbers;
+
+    private final Deque<PythonAgent> idleAgents = new ArrayDeque<>();
+
+    private final Map<PythonAgent, Long> idleSinceByAgent = new HashMap<>();
+
+    private final Map<PythonAgent, ServerSocket> socketsByAgent = new HashMap<>();
+
+    // includes the agents that are currently being started
+    private int agentCount;
+
+    private int acquiredAgentCount;
+
+    private int userCount;
+
+    private boolean shutDown;
+
+    PythonAgentPool(PythonAgentInstanceManager instanceManager, String pythonInstallationPath, int maxAgents,
+        AtomicInteger agentNumbers) {
+        this.instanceManager = instanceManager;
+        this.pythonInstallationPath = pythonInstallationPath;
+        this.maxAgents = maxAgents;
+        this.agentNumbers = agentNumbers;
+    }
+
+    /**
+     * Registers a user of the pool and starts the first agent of the pool, if there is none yet.
+     * 
+     * @param compCtx to show the output of the python agent on the console while starting it.
+     * @throws IOException if the agent couldn't be initialized; in this case, the user is not registered.
+     */
+    void registerUser(ComponentContext compCtx) throws IOException {
+        synchronized (this) {
+            userCount++;
+            if (agentCount > 0) {
+                return;
+            }
+            agentCount++;
+        }
+        final PythonAgent agent;
+        try {
+            agent = startAgent(compCtx);
+        } catch (IOException e) {
+            synchronized (this) {
+                agentCount--;
+                userCount--;
+                notifyAll();
+            }
+            throw e;
+        }
+        synchronized (this) {
+            addIdleAgent(agent);
+        }
+    }
+
+    /**
+     * Unregisters a user of the pool. If it was the last user, the pool is shut down: its idle agents are stopped, and the agents that are
+     * still in use are stopped on release.
+     * 
+     * @return true if the pool was shut down.
+     */
+    boolean unregisterUser() {
+        final List<PythonAgent> agentsToStop;
+        synchronized (this) {
+            userCount--;
+            if (userCount > 0) {
+                return false;
+            }
+            if (acquiredAgentCount > 0) {
+                LOGGER.debug(StringUtils.format("Shutting down the agents of python installation %s; %d of them are stopped on release",
+                    pythonInstallationPath, acquiredAgentCount));
+            }
+            shutDown = true;
+            agentsToStop = new ArrayList<>(idleAgents);
+            idleAgents.clear();
+            idleSinceByAgent.clear();
+            agentCount -= agentsToStop.size();
+        }
+        for (PythonAgent agent : agentsToStop) {
+            stopAgent(agent);
+        }
+        return true;
+    }
+
+    /**
+     * Acquires an idle agent exclusively, starting a new one if there is no idle agent and the pool has not reached its maximum size.
+     * Otherwise, blocks until an agent is released.
+     * 
+     * @param compCtx the component the agent executes scripts for.
+     * @return the acquired agent
+     * @throws IOException if a new agent couldn't be initialized.
+     * @throws InterruptedException if interrupted while waiting for an agent.
+     */
+    PythonAgent acquire(ComponentContext compCtx) throws IOException, InterruptedException {
+        final long waitStartTime = System.currentTimeMillis();
+        PythonAgent agent;
+        synchronized (this) {
+            while (idleAgents.isEmpty() && agentCount >= maxAgents) {
+                wait();
+            }
+            agent = idleAgents.pollFirst();
+            if (agent != null) {
+                idleSinceByAgent.remove(agent);
+            } else {
+                agentCount++;
+            }
+            acquiredAgentCount++;
+            registerUtilization(System.currentTimeMillis() - waitStartTime);
+        }
+        if (agent == null) {
+            try {
+                agent = startAgent(compCtx);
+            } catch (IOException e) {
+                synchronized (this) {
+                    agentCount--;
+                    acquiredAgentCount--;
+                    notifyAll();
+                }
+                throw e;
+            }
+        }
+        agent.setComponentContext(compCtx);
+        return agent;
+    }
+
+    /**
+     * Releases an agent acquired via {@link #acquire(ComponentContext)}. If the pool has been shut down in the meantime, the agent is
+     * stopped.
+     * 
+     * @param agent to release.
+     */
+    void release(PythonAgent agent) {
+        agent.deleteRunFiles();
+        final boolean stop;
+        synchronized (this) {
+            acquiredAgentCount--;
+            stop = shutDown;
+            if (stop) {
+                agentCount--;
+            } else {
+                addIdleAgent(agent);
+            }
+            notifyAll();
+        }
+        if (stop) {
+            stopAgent(agent);
+        }
+    }
+
+    /**
+     * Discards an agent acquired via {@link #acquire(ComponentContext)} that may not be usable anymore, e.g. because the communication
+     * with its python instance failed. The agent is stopped instead of being kept idle, so that its slot can be used by a new agent.
+     * 
+     * @param agent to discard.
+     */
+    void discard(PythonAgent agent) {
+        synchronized (this) {
+            acquiredAgentCount--;
+            agentCount--;
+            notifyAll();
+        }
+        stopAgent(agent);
+    }
+
+    /**
+     * Stops the agents that have been idle for longer than the given timeout, except for the last running agent of the pool.
+     * 
+     * @param currentTime the current time in msec
+     * @param idleTimeoutMsec the time in msec an agent may be idle before it is stopped
+     */
+    void evictIdleAgents(long currentTime, long idleTimeoutMsec) {
+        final List<PythonAgent> agentsToStop = new ArrayList<>();
+        synchronized (this) {
+            while (agentCount > 1 && !idleAgents.isEmpty()
+                && currentTime - idleSinceByAgent.get(idleAgents.peekLast()) > idleTimeoutMsec) {
+                final PythonAgent agent = idleAgents.pollLast();
+                idleSinceByAgent.remove(agent);
+                agentsToStop.add(agent);
+                agentCount--;
+            }
+        }
+        for (PythonAgent agent : agentsToStop) {
+            LOGGER.debug(StringUtils.format("Stopping idle Python agent %d of python installation %s", agent.getNumber(),
+                pythonInstallationPath));
+            stopAgent(agent);
+        }
+    }
+
+    synchronized int getAgentCount() {
+        return agentCount;
+    }
+
+    synchronized int getAcquiredAgentCount() {
+        return acquiredAgentCount;
+    }
+
+    private void addIdleAgent(PythonAgent agent) {
+        idleAgents.addFirst(agent);
+        idleSinceByAgent.put(agent, System.currentTimeMillis());
+    }
+
+    private void registerUtilization(long waitTime) {
+        if (waitTime > 0) {
+            LOGGER.debug(StringUtils.format("Waited %d msec for an agent of python installation %s (%d agents in use, at most %d allowed)",
+                waitTime, pythonInstallationPath, acquiredAgentCount, maxAgents));
+        }
+        if (StatsCounter.isEnabled()) {
+            StatsCounter.registerValue(STATS_COUNTER_CATEGORY, "Wait time for an agent (msec): " + pythonInstallationPath, waitTime);
+            StatsCounter.registerValue(STATS_COUNTER_CATEGORY, "Agents in use on acquisition: " + pythonInstallationPath,
+                acquiredAgentCount);
+        }
+    }
+
+    /**
+     * Starts a new agent. Subclasses used for testing may override this method to avoid starting actual python instances.
+     * 
+     * @param compCtx to show the output of the python agent on the console while starting it.
+     * @return the started agent
+     * @throws IOException if the agent couldn't be initialized.
+     */
+    protected PythonAgent startAgent(ComponentContext compCtx) throws IOException {
+        final ServerSocket serverSocket;
+        try {
+            serverSocket = new ServerSocket(0);
+        } catch (IOException e) {
+            throw new IOException(
+                "No socket could be opened. Therefore, the communication to python couldn't be established.", e);
+        }
+
+        try {
+            final CountDownLatch initializationSignal = new CountDownLatch(1);
+
+            LOGGER.debug("Starting new Python agent");
+
+            final PythonAgent agent = new PythonAgent(instanceManager, pythonInstallationPath, agentNumbers.getAndIncrement(),
+                serverSocket, initializationSignal, compCtx);
+            ConcurrencyUtils.getAsyncTaskService().execute("Run Python Agent", agent);
+
+            initializationSignal.await();
+            if (!agent.wasInitializationSuccessful()) {
+                closeSocket(serverSocket);
+                throw new IOException("Unable to create a PythonAgent for the script execution.");
+            }
+            synchronized (socketsByAgent) {
+                socketsByAgent.put(agent, serverSocket);
+            }
+            return agent;
+        } catch (ScriptException | InterruptedException e) {
+            closeSocket(serverSocket);
+            throw new IOException("Unable to create a PythonAgent for the script execution.");
+        }
+    }
+
+    /**
+     * Stops the given agent and disposes its resources. Subclasses used for testing may override this method.
+     * 
+     * @param agent to stop.
+     */
+    protected void stopAgent(PythonAgent agent) {
+        agent.stopInstance();
+        final ServerSocket serverSocket;
+        synchronized (socketsByAgent) {
+            serverSocket = socketsByAgent.remove(agent);
+        }
+        if (serverSocket != null) {
+            closeSocket(serverSocket);
+        }
+        try {
+            TempFileServiceAccess.getInstance().disposeManagedTempDirOrFile(agent.getDirectory());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete the temporary directory of a stopped Python agent: " + e.getMessage());
+        }
+    }
+
+    private void closeSocket(ServerSocket serverSocket) {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not close server socket used for communication with python installation "
+                + pythonInstallationPath
+                + ". Since that agent is not used anymore, this should not implact further operation.");
+        }
+    }
+}
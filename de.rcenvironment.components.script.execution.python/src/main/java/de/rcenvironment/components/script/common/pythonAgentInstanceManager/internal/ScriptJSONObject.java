@@ -7,6 +7,8 @@
  */
 package de.rcenvironment.components.script.common.pythonAgentInstanceManager.internal;
 
+import java.util.Map;
+
 /*
  * 
  * Class to store Information about script for communication with Python instance via JSON notation.
@@ -19,6 +21,7 @@ package de.rcenvironment.components.script.common.pythonAgentInstanceManager.int
 public class ScriptJSONObject {
     private String pythonCommand = null;
     private String script = null;
+    private Map<String, Object> run = null;
     
     public String getPythonCommand() {
         return this.pythonCommand; 
@@ -36,6 +39,17 @@ public class ScriptJSONObject {
         this.script = script; 
     }
 
+    /**
+     * @return the inputs, state variables and output names of an in-memory script execution; null for the other commands
+     */
+    public Map<String, Object> getRun() {
+        return this.run;
+    }
+
+    public void setRun(Map<String, Object> run) {
+        this.run = run;
+    }
+
 }
 
 
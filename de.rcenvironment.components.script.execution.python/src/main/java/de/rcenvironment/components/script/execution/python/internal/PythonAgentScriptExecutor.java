@@ -10,6 +10,7 @@ package de.rcenvironment.components.script.execution.python.internal;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.script.ScriptException;
 
@@ -22,8 +23,6 @@ import de.rcenvironment.components.script.common.registry.ScriptExecutor;
 import de.rcenvironment.components.script.execution.DefaultScriptExecutor;
 import de.rcenvironment.core.component.api.ComponentException;
 import de.rcenvironment.core.component.execution.api.ComponentContext;
-import de.rcenvironment.core.component.execution.api.ConsoleRow;
-import de.rcenvironment.core.component.execution.api.ConsoleRowUtils;
 import de.rcenvironment.core.configuration.ConfigurationSegment;
 import de.rcenvironment.core.configuration.ConfigurationService;
 import de.rcenvironment.core.datamodel.api.DataType;
@@ -41,7 +40,12 @@ import de.rcenvironment.core.utils.scripting.ScriptLanguage;
 /**
  * 
  * Implementation of {@link ScriptExecutor} to execute python scripts. In contrast to the PythonScript, this implementation sends the
- * scripts to running python-instances, which serve to execute the scripts and send back the results.
+ * scripts to running python-instances, which serve to execute the scripts and send back the results. Each run acquires an agent of the
+ * pool of the configured installation and releases it after its outputs have been written. The state variables of the component are kept
+ * by this executor and passed to the agent on each run, so that runs of different components do not share any state.
+ * 
+ * If "inMemoryExchange" is enabled in the python configuration, the inputs, state variables and outputs of a run are exchanged with the
+ * agent as part of the messages sent over its socket instead of via files in the agent's directory.
  * 
  * @author Adrian Stock
  *
@@ -52,10 +56,18 @@ public class PythonAgentScriptExecutor extends DefaultScriptExecutor {
 
     private static final String OS = "os";
 
+    private static final String CONFIG_KEY_MAX_AGENTS = "maxAgents";
+
+    private static final String CONFIG_KEY_IN_MEMORY_EXCHANGE = "inMemoryExchange";
+
     private final PythonAgentInstanceManager pythonInstanceManagerService;
 
+    private String pythonInstallation;
+
     private PythonAgent agent;
 
+    private boolean inMemoryExchange;
+
     private PythonScriptContext scriptContext;
 
     private ComponentContext compCtx;
@@ -70,16 +82,19 @@ public class PythonAgentScriptExecutor extends DefaultScriptExecutor {
         super.prepareExecutor(compCtx);
         setComponentContext(compCtx);
       
-        final String pythonInstallation = getPythonPathFromConfigurationOrThrowException();
+        final String installation = getPythonPathFromConfigurationOrThrowException();
+        final int maxAgents = getMaxAgentsFromConfigurationOrThrowException();
 
         try {
-            agent = pythonInstanceManagerService.getAgent(pythonInstallation, compCtx);
+            pythonInstanceManagerService.registerUser(installation, maxAgents, compCtx);
         } catch (IOException e) {
             throw new ComponentException("Unable to create python agent", e);
         }
+        pythonInstallation = installation;
+        inMemoryExchange = getPythonConfigurationSegment().getBoolean(CONFIG_KEY_IN_MEMORY_EXCHANGE, false);
 
         scriptContext = new PythonScriptContext();
-        scriptContext.setAttribute(PythonComponentConstants.PYTHON_INSTALLATION, pythonInstallation, 0);
+        scriptContext.setAttribute(PythonComponentConstants.PYTHON_INSTALLATION, installation, 0);
         scriptContext.setAttribute(OS, OSFamily.getLocal(), 0);
         scriptContext.setAttribute(PythonComponentConstants.COMPONENT_CONTEXT, componentContext, 0);
         stateMap = new HashMap<>();
@@ -98,6 +113,15 @@ public class PythonAgentScriptExecutor extends DefaultScriptExecutor {
         return pythonInstallation;
     }
 
+    private int getMaxAgentsFromConfigurationOrThrowException() throws ComponentException {
+        final int maxAgents = getPythonConfigurationSegment().getInteger(CONFIG_KEY_MAX_AGENTS,
+            Runtime.getRuntime().availableProcessors());
+        if (maxAgents < 1) {
+            throw new ComponentException("The maximum number of Python agents must be at least 1, but is configured as " + maxAgents);
+        }
+        return maxAgents;
+    }
+
     private ConfigurationSegment getPythonConfigurationSegment() {
         final ConfigurationService configurationService = compCtx.getService(ConfigurationService.class);
         final ConfigurationSegment pythonConfiguration = configurationService.getConfigurationSegment("thirdPartyIntegration/python");
@@ -128,29 +152,70 @@ public class PythonAgentScriptExecutor extends DefaultScriptExecutor {
     public void runScript() throws ComponentException {
 
         try {
-            agent.acquireLock();
+            agent = pythonInstanceManagerService.acquireAgent(pythonInstallation, componentContext);
+        } catch (IOException | InterruptedException e) {
+            throw new ComponentException("Failed to execute script", e);
+        }
+
+        // the agent is released by postRun() after the outputs, which may refer to files in the agent's directory, have been written
+        boolean successful = false;
+        try {
 //          Executing script here
             componentContext.announceExternalProgramStart();
-            ((PythonScriptEngine) scriptEngine).agentPrepareScriptExecution(wrappingScript, agent.getDirectory());
-
-            agent.executeScript(wrappingScript);
+            if (inMemoryExchange) {
+                final Map<String, Object> run =
+                    ((PythonScriptEngine) scriptEngine).agentPrepareInMemoryScriptExecution(agent.getDirectory());
+                final Map<String, Object> result = agent.executeScriptInMemory(wrappingScript, run);
+                ((PythonScriptEngine) scriptEngine).agentReadOutputFromMessage(result);
+            } else {
+                ((PythonScriptEngine) scriptEngine).agentPrepareScriptExecution(wrappingScript, agent.getDirectory());
 
-            ((PythonScriptEngine) scriptEngine).agentReadOutputFromPython(agent.getDirectory());
+                agent.executeScript(wrappingScript);
 
+                ((PythonScriptEngine) scriptEngine).agentReadOutputFromPython(agent.getDirectory());
+            }
+            successful = true;
         } catch (IOException e) {
             agent.stopInstanceRun();
+            // the python instance may have been stopped, so the agent must not be handed out again
+            discardAgent();
             throw new ComponentException("Failed to execute script", e);
-        } catch (ScriptException | InterruptedException e) {
+        } catch (ScriptException e) {
             throw new ComponentException("Failed to execute script", e);
         } finally {
             componentContext.announceExternalProgramTermination();
-            agent.releaseLock();
+            if (!successful) {
+                releaseAgent();
+            }
+        }
+    }
+
+    private void releaseAgent() {
+        if (agent != null) {
+            pythonInstanceManagerService.releaseAgent(agent);
+            agent = null;
+        }
+    }
+
+    private void discardAgent() {
+        if (agent != null) {
+            pythonInstanceManagerService.discardAgent(agent);
+            agent = null;
         }
     }
 
     @Override
     public boolean postRun() throws ComponentException {
+        try {
+            writeOutputs();
+        } finally {
+            releaseAgent();
+        }
+        this.deleteTempFiles();
+        return true;
+    }
 
+    private void writeOutputs() throws ComponentException {
         TypedDatumFactory factory = componentContext.getService(TypedDatumService.class).getFactory();
         for (String outputName : componentContext.getOutputs()) {
             DataType type = componentContext.getOutputDataType(outputName);
@@ -175,8 +240,6 @@ public class PythonAgentScriptExecutor extends DefaultScriptExecutor {
         for (String outputName : ((PythonScriptEngine) scriptEngine).getCloseOutputChannelsList()) {
             componentContext.closeOutput(outputName);
         }
-        this.deleteTempFiles();
-        return true;
     }
 
     @Override
@@ -189,27 +252,16 @@ public class PythonAgentScriptExecutor extends DefaultScriptExecutor {
 
     @Override
     public void tearDown() {
-
-        final boolean agentStopped;
-        if (agent != null) {
-            agentStopped = pythonInstanceManagerService.stopAgent(agent);
-        } else {
-            agentStopped = false;
-        }
-        
-        if (agentStopped && scriptEngine != null) {
-            LogFactory.getLog(this.getClass()).debug("Disposing script engine");
-            ((PythonScriptEngine) scriptEngine).dispose();
+        // the directories of the agents are disposed by the pool when the agents are stopped
+        releaseAgent();
+        if (pythonInstallation != null && pythonInstanceManagerService.unregisterUser(pythonInstallation)) {
+            LogFactory.getLog(this.getClass()).debug("Stopped the Python agents of installation " + pythonInstallation);
         }
+        pythonInstallation = null;
     }
 
     @Override
     public void prepareOutputForRun() {
-        ConsoleRowUtils.logToWorkflowConsole(((ComponentContext) scriptContext.getAttribute(
-            PythonComponentConstants.COMPONENT_CONTEXT)).getLog(), agent.getStdout(),
-            ConsoleRow.Type.TOOL_OUT, null, false);
-        ConsoleRowUtils.logToWorkflowConsole(((ComponentContext) scriptContext.getAttribute(
-            PythonComponentConstants.COMPONENT_CONTEXT)).getLog(), agent.getStderr(),
-            ConsoleRow.Type.TOOL_ERROR, null, false);
+        // the console output of the python instance is forwarded to the component that currently uses the agent
     }
 }
@@ -8,16 +8,23 @@
 
 package de.rcenvironment.core.communication.file.service.legacy.internal;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.easymock.EasyMock;
 import org.junit.Before;
@@ -256,6 +263,55 @@ public class RemotableFileStreamAccessServiceImplTest {
         }
     }
 
+    /**
+     * Tests that blocks requested out of order are read in the order of their positions, and that reading beyond the end of the file
+     * yields short and empty blocks.
+     * 
+     * @throws Exception if the test fails.
+     */
+    @Test
+    public void testReadBlockOrdering() throws Exception {
+        final byte[] content = new byte[10];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        inputStream = new ByteArrayInputStream(content);
+        final String uuid = fileService.open(FileType.RCE_DM, dmUri);
+        // consume the first byte sequentially; block positions are relative to the position at the first block request
+        assertEquals(0, fileService.read(uuid));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<byte[]> laterBlock = executor.submit(new Callable<byte[]>() {
+
+                @Override
+                public byte[] call() throws Exception {
+                    return fileService.readBlock(uuid, 4L, noOfBytes);
+                }
+            });
+            assertArrayEquals(Arrays.copyOfRange(content, 1, 5), fileService.readBlock(uuid, 0L, noOfBytes));
+            assertArrayEquals(Arrays.copyOfRange(content, 5, 9), laterBlock.get());
+        } finally {
+            executor.shutdown();
+        }
+        assertArrayEquals(Arrays.copyOfRange(content, 9, 10), fileService.readBlock(uuid, 8L, noOfBytes));
+        assertEquals(0, fileService.readBlock(uuid, 12L, noOfBytes).length);
+        try {
+            fileService.readBlock(uuid, 0L, noOfBytes);
+            fail();
+        } catch (IOException e) {
+            assertTrue(true);
+        }
+        fileService.close(uuid);
+
+        try {
+            fileService.readBlock(uuid, 12L, noOfBytes);
+            fail();
+        } catch (IOException e) {
+            assertTrue(true);
+        }
+    }
+
     /**
      * Test {@link FileDataService} implementation.
      * 
@@ -8,12 +8,18 @@
 
 package de.rcenvironment.core.communication.file.service.legacy.internal;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
+import java.util.Arrays;
+import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.After;
 import org.junit.Before;
@@ -28,6 +34,8 @@ import de.rcenvironment.core.communication.file.service.legacy.api.RemotableFile
 import de.rcenvironment.core.communication.fileaccess.api.RemoteFileConnection;
 import de.rcenvironment.core.communication.fileaccess.api.RemoteFileConnection.FileType;
 import de.rcenvironment.core.communication.testutils.CommunicationServiceDefaultStub;
+import de.rcenvironment.core.utils.common.rpc.RemoteOperationException;
+import de.rcenvironment.core.utils.common.rpc.RemoteRequestRefusedException;
 
 /**
  * Test cases for {@link ServiceRemoteFileConnection}.
@@ -40,6 +48,13 @@ public class ServiceRemoteFileConnectionTest {
 
     private static final String TEST_INSTANCE_ID_STRING = NodeIdentifierTestUtils.createTestInstanceNodeIdString();
 
+    // spans several blocks, and does not end at a block boundary
+    private static final int TEST_FILE_SIZE = 5 * RemoteBlockPrefetcher.INITIAL_BLOCK_SIZE + 17;
+
+    private static final int READ_BUFFER_SIZE = 10000;
+
+    private static final int SKIPPED_BYTES = 1000;
+
     private final UUID dmUuid = UUID.randomUUID();
 
     // TODO review/encapsulate
@@ -79,6 +94,101 @@ public class ServiceRemoteFileConnectionTest {
         connection.close();
     }
 
+    /**
+     * Tests that the file content is delivered completely and in order if the block requests are prefetched and complete in arbitrary
+     * order.
+     * 
+     * @throws Exception if the test fails.
+     */
+    @Test
+    public void testPrefetchedReading() throws Exception {
+        final byte[] content = createTestContent();
+        final ContentFileStreamAccessService service = new ContentFileStreamAccessService(content, true);
+        RemoteFileConnection connection = new ServiceRemoteFileConnection(new URI(uri), new DummyCommunicationService(service), 4);
+        assertArrayEquals(content, readFully(connection, 0));
+        connection.close();
+        assertTrue(service.blockRequests.get() > 1);
+        assertTrue(service.closed);
+    }
+
+    /**
+     * Tests that skipping works as expected on prefetched content.
+     * 
+     * @throws Exception if the test fails.
+     */
+    @Test
+    public void testPrefetchedSkipping() throws Exception {
+        final byte[] content = createTestContent();
+        RemoteFileConnection connection = new ServiceRemoteFileConnection(new URI(uri),
+            new DummyCommunicationService(new ContentFileStreamAccessService(content, true)), 4);
+        assertArrayEquals(Arrays.copyOfRange(content, SKIPPED_BYTES, content.length), readFully(connection, SKIPPED_BYTES));
+        connection.close();
+    }
+
+    /**
+     * Tests that reading falls back to sequential requests if the remote instance does not support block-wise reading.
+     * 
+     * @throws Exception if the test fails.
+     */
+    @Test
+    public void testFallbackToSequentialReading() throws Exception {
+        final byte[] content = createTestContent();
+        final ContentFileStreamAccessService service = new ContentFileStreamAccessService(content, false);
+        RemoteFileConnection connection = new ServiceRemoteFileConnection(new URI(uri), new DummyCommunicationService(service), 4);
+        assertArrayEquals(content, readFully(connection, 0));
+        connection.close();
+        assertEquals(0, service.blockRequests.get());
+    }
+
+    /**
+     * Tests that reading does not fall back to sequential requests if a block request failed for other reasons than missing support on
+     * the remote instance, as the remote stream may have been read already.
+     * 
+     * @throws Exception if the test fails.
+     */
+    @Test
+    public void testNoFallbackOnOtherErrors() throws Exception {
+        final byte[] content = createTestContent();
+        final ContentFileStreamAccessService service = new ContentFileStreamAccessService(content, true) {
+
+            @Override
+            public byte[] readBlock(String uuid, Long blockPosition, Integer len) throws IOException, RemoteOperationException {
+                throw new RemoteOperationException("Timeout");
+            }
+        };
+        RemoteFileConnection connection = new ServiceRemoteFileConnection(new URI(uri), new DummyCommunicationService(service), 4);
+        try {
+            connection.read(new byte[READ_BUFFER_SIZE], 0, READ_BUFFER_SIZE);
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("Timeout"));
+        }
+        connection.close();
+    }
+
+    private byte[] createTestContent() {
+        final byte[] content = new byte[TEST_FILE_SIZE];
+        new Random(1).nextBytes(content);
+        return content;
+    }
+
+    private byte[] readFully(RemoteFileConnection connection, int bytesToSkip) throws IOException {
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        int read = connection.read(buffer, 0, 1);
+        if (read > 0) {
+            result.write(buffer, 0, read);
+        }
+        if (bytesToSkip > 0) {
+            assertEquals(bytesToSkip - 1, connection.skip(bytesToSkip - 1));
+            result.reset();
+        }
+        while ((read = connection.read(buffer, 0, buffer.length)) != -1) {
+            result.write(buffer, 0, read);
+        }
+        return result.toByteArray();
+    }
+
     /**
      * Dummy {@link CommunicationService} implementation.
      * 
@@ -86,6 +196,16 @@ public class ServiceRemoteFileConnectionTest {
      */
     private static class DummyCommunicationService extends CommunicationServiceDefaultStub {
 
+        private final RemotableFileStreamAccessService fileService;
+
+        DummyCommunicationService() {
+            this(new MockRemotableFileStreamAccessService());
+        }
+
+        DummyCommunicationService(RemotableFileStreamAccessService fileService) {
+            this.fileService = fileService;
+        }
+
         @SuppressWarnings("unchecked")
         @Override
         public <T> T getRemotableService(Class<T> iface, NetworkDestination dest) throws IllegalStateException {
@@ -94,7 +214,7 @@ public class ServiceRemoteFileConnectionTest {
             if (nodeId.isSameInstanceNodeAs(NodeIdentifierUtils
                 .parseArbitraryIdStringToLogicalNodeIdWithExceptionWrapping(TEST_INSTANCE_ID_STRING))
                 && iface == RemotableFileStreamAccessService.class) {
-                return (T) new MockRemotableFileStreamAccessService();
+                return (T) fileService;
             }
             return null;
         }
@@ -143,5 +263,95 @@ public class ServiceRemoteFileConnectionTest {
             return 0;
         }
 
+        @Override
+        public byte[] readBlock(String uuid, Long position, Integer len) throws IOException {
+            if (uuid.equals(testUUID)) {
+                return new byte[len];
+            }
+            return new byte[0];
+        }
+
+    }
+
+    /**
+     * {@link RemotableFileStreamAccessService} implementation serving given content, either block-wise with random delays or, simulating
+     * an older remote instance, only sequentially.
+     * 
+     * @author agent
+     */
+    private static class ContentFileStreamAccessService implements RemotableFileStreamAccessService {
+
+        private static final int MAX_DELAY_MSEC = 20;
+
+        private final byte[] content;
+
+        private final boolean blockReadingSupported;
+
+        private final Random random = new Random();
+
+        private final AtomicInteger blockRequests = new AtomicInteger();
+
+        private volatile boolean closed;
+
+        private int position;
+
+        ContentFileStreamAccessService(byte[] content, boolean blockReadingSupported) {
+            this.content = content;
+            this.blockReadingSupported = blockReadingSupported;
+        }
+
+        @Override
+        public String open(FileType type, String file) throws IOException {
+            return "content";
+        }
+
+        @Override
+        public synchronized int read(String uuid) throws IOException {
+            if (position == content.length) {
+                return -1;
+            }
+            return content[position++] & 0xFF;
+        }
+
+        @Override
+        public synchronized byte[] read(String uuid, Integer len) throws IOException {
+            final int end = Math.min(position + len, content.length);
+            final byte[] result = Arrays.copyOfRange(content, position, end);
+            position = end;
+            return result;
+        }
+
+        @Override
+        public synchronized long skip(String uuid, Long n) throws IOException {
+            final int end = (int) Math.min(position + n, content.length);
+            final long skipped = end - position;
+            position = end;
+            return skipped;
+        }
+
+        @Override
+        public byte[] readBlock(String uuid, Long blockPosition, Integer len) throws IOException, RemoteOperationException {
+            if (!blockReadingSupported) {
+                // as thrown for older remote instances, which do not know the method
+                throw new RemoteRequestRefusedException("Request refused by destination instance (remote error id: test)");
+            }
+            blockRequests.incrementAndGet();
+            try {
+                // let the block requests complete in arbitrary order
+                Thread.sleep(random.nextInt(MAX_DELAY_MSEC));
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            // the tests do not read sequentially before the first block request, so block positions are absolute
+            final int start = (int) Math.min(blockPosition, content.length);
+            final int end = (int) Math.min((long) start + len, content.length);
+            return Arrays.copyOfRange(content, start, end);
+        }
+
+        @Override
+        public void close(String uuid) throws IOException {
+            closed = true;
+        }
+
     }
 }
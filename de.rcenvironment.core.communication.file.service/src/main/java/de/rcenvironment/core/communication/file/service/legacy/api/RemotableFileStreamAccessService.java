@@ -63,6 +63,21 @@ public interface RemotableFileStreamAccessService {
      */
     byte[] read(String uuid, Integer len) throws IOException, RemoteOperationException;
 
+    /**
+     * Reads a block of data from a file. As opposed to {@link #read(String, Integer)}, requests for subsequent blocks of the same file may
+     * be issued concurrently, which allows clients to keep several block requests in flight at the same time; the blocks are read in the
+     * order of their positions. Each call returns exactly the requested number of bytes, unless the end of the file is reached.
+     * 
+     * @param uuid The id of the file.
+     * @param position the position of the block, relative to the position of the file when the first block was requested
+     * @param len the number of bytes to read.
+     * @return the block of data; shorter than requested if the end of the file was reached, and empty if it was reached before.
+     * @throws IOException - if the block was already read, if waiting for the preceding blocks timed out, if the file has been closed, or
+     *         if some other I/O error occurs.
+     * @throws RemoteOperationException standard remote operation exception
+     */
+    byte[] readBlock(String uuid, Long position, Integer len) throws IOException, RemoteOperationException;
+
     /**
      * Skips over and discards bytes from a file.
      * 
@@ -10,6 +10,7 @@ package de.rcenvironment.core.communication.file.service.legacy.internal;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -45,15 +46,99 @@ public class RemotableFileStreamAccessServiceImpl implements RemotableFileStream
 
     private static final Log LOGGER = LogFactory.getLog(RemotableFileStreamAccessServiceImpl.class);
 
+    // upper limit for the block size requested by clients, to prevent excessive memory allocation
+    private static final int MAX_BLOCK_SIZE = 16 * 1024 * 1024;
+
+    private static final long BLOCK_ORDERING_TIMEOUT_MSEC = 60000;
+
     /**
      * The {@link Map} to store the open {@link InputStream} objects.
      */
     private static Map<String, InputStream> inputStreamMap = Collections.synchronizedMap(new HashMap<String, InputStream>());
 
+    /**
+     * The {@link Map} to store the read state of {@link InputStream}s accessed via {@link #readBlock(String, Long, Integer)}.
+     */
+    private static Map<String, BlockReader> blockReaderMap = Collections.synchronizedMap(new HashMap<String, BlockReader>());
+
     private FileDataService dataService;
 
     private MetaDataBackendService metaDataBackendService;
 
+    /**
+     * Reads the blocks requested via {@link RemotableFileStreamAccessService#readBlock(String, Long, Integer)} from an {@link InputStream}
+     * in the order of their positions; requests for blocks further ahead wait until the preceding blocks have been read.
+     * 
+     * @author agent
+     */
+    private static final class BlockReader {
+
+        private final InputStream inputStream;
+
+        private long position;
+
+        private boolean endOfStream;
+
+        private boolean closed;
+
+        BlockReader(InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        synchronized byte[] readBlock(long blockPosition, int len) throws IOException {
+            final long deadline = System.currentTimeMillis() + BLOCK_ORDERING_TIMEOUT_MSEC;
+            while (blockPosition > position && !endOfStream && !closed) {
+                final long remainingWaitTime = deadline - System.currentTimeMillis();
+                if (remainingWaitTime <= 0) {
+                    throw new IOException(StringUtils.format("Timeout while waiting for the blocks preceding position %d to be read; "
+                        + "current position: %d", blockPosition, position));
+                }
+                try {
+                    wait(remainingWaitTime);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the preceding blocks to be read");
+                }
+            }
+            if (closed) {
+                throw new IOException("The input stream has been closed");
+            }
+            if (blockPosition < position) {
+                throw new IOException(StringUtils.format("The block at position %d has already been read; current position: %d",
+                    blockPosition, position));
+            }
+            if (endOfStream) {
+                return new byte[0];
+            }
+
+            byte[] buffer = new byte[len];
+            int totalRead = 0;
+            try {
+                while (totalRead < len) {
+                    int nRead = inputStream.read(buffer, totalRead, len - totalRead);
+                    if (nRead < 0) {
+                        endOfStream = true;
+                        break;
+                    }
+                    totalRead += nRead;
+                }
+            } finally {
+                position += totalRead;
+                notifyAll();
+            }
+            if (endOfStream) {
+                inputStream.close();
+                return Arrays.copyOf(buffer, totalRead);
+            }
+            return buffer;
+        }
+
+        synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+    }
+
     protected void bindMetadataBackendService(MetaDataBackendService newService) {
         metaDataBackendService = newService;
     }
@@ -66,6 +151,10 @@ public class RemotableFileStreamAccessServiceImpl implements RemotableFileStream
     @AllowRemoteAccess
     public void close(String uuid) throws IOException {
         Assertions.isDefined(uuid, StringUtils.format(ERROR_PARAMETERS_NULL, PARAMETER_UUID));
+        BlockReader blockReader = blockReaderMap.remove(uuid);
+        if (blockReader != null) {
+            blockReader.close();
+        }
         if (inputStreamMap.containsKey(uuid)) {
             inputStreamMap.get(uuid).close();
             inputStreamMap.remove(uuid);
@@ -144,6 +233,35 @@ public class RemotableFileStreamAccessServiceImpl implements RemotableFileStream
         }
     }
 
+    @Override
+    @AllowRemoteAccess
+    public byte[] readBlock(String uuid, Long position, Integer len) throws IOException {
+
+        Assertions.isDefined(uuid, StringUtils.format(ERROR_PARAMETERS_NULL, PARAMETER_UUID));
+        Assertions.isDefined(position, StringUtils.format(ERROR_PARAMETERS_NULL, "position"));
+        Assertions.isDefined(len, StringUtils.format(ERROR_PARAMETERS_NULL, "len"));
+
+        if (len < 0 || len > MAX_BLOCK_SIZE) {
+            throw new IOException(StringUtils.format("Invalid block size %d; maximum: %d", len, MAX_BLOCK_SIZE));
+        }
+
+        BlockReader blockReader;
+        synchronized (blockReaderMap) {
+            blockReader = blockReaderMap.get(uuid);
+            if (blockReader == null) {
+                InputStream inputStream = inputStreamMap.get(uuid);
+                if (inputStream == null) {
+                    throw new IOException(ERROR_INPUT_STREAM_NOT_FOUND + uuid);
+                }
+                blockReader = new BlockReader(inputStream);
+                blockReaderMap.put(uuid, blockReader);
+            }
+        }
+        // note: unlike read(), the input stream is kept registered on reaching its end, as requests for subsequent blocks may still
+        // arrive; it is closed by the block reader, and unregistered when the client closes the file
+        return blockReader.readBlock(position, len);
+    }
+
     @Override
     public long skip(String uuid, Long n) throws IOException {
 
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.communication.file.service.legacy.internal;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import de.rcenvironment.core.communication.file.service.legacy.api.RemotableFileStreamAccessService;
+import de.rcenvironment.core.toolkitbridge.transitional.ConcurrencyUtils;
+import de.rcenvironment.core.utils.common.rpc.RemoteOperationException;
+import de.rcenvironment.toolkit.modules.concurrency.api.TaskDescription;
+
+/**
+ * Reads a remote file via {@link RemotableFileStreamAccessService#readBlock(String, Long, Integer)}, keeping a configurable number of
+ * block requests in flight at the same time. This way, the download speed is bounded by the bandwidth instead of the round-trip time to
+ * the remote node, as it would be with one synchronous request per block.
+ * 
+ * The block size starts small, so small files do not cause large allocations, and is doubled while block requests complete quickly; it is
+ * halved again if they take too long, e.g. on slow connections, to keep the data in flight (and the delay when closing the file) bounded.
+ * 
+ * Like the streams using it, this class is not meant to be thread safe.
+ * 
+ * @author agent
+ */
+class RemoteBlockPrefetcher {
+
+    static final int MIN_BLOCK_SIZE = 64 * 1024;
+
+    static final int INITIAL_BLOCK_SIZE = 256 * 1024;
+
+    static final int MAX_BLOCK_SIZE = 4 * 1024 * 1024;
+
+    // block requests completing faster than this let the block size grow; requests taking twice as long let it shrink
+    private static final long TARGET_BLOCK_REQUEST_DURATION_MSEC = 1000;
+
+    private static final byte[] EMPTY_BLOCK = new byte[0];
+
+    private final RemotableFileStreamAccessService fileService;
+
+    private final String remoteInputStreamUUID;
+
+    private final int windowSize;
+
+    private final Deque<Future<Block>> pendingBlocks = new ArrayDeque<>();
+
+    private long nextBlockPosition;
+
+    private int blockSize = INITIAL_BLOCK_SIZE;
+
+    private boolean endOfFileRequested;
+
+    private boolean dataReceived;
+
+    private byte[] currentBlock = EMPTY_BLOCK;
+
+    private int currentBlockOffset;
+
+    /**
+     * A block received from the remote node, along with the duration of its request.
+     * 
+     * @author agent
+     */
+    private static final class Block {
+
+        private final byte[] data;
+
+        private final int requestedLength;
+
+        private final long requestDuration;
+
+        Block(byte[] data, int requestedLength, long requestDuration) {
+            this.data = data;
+            this.requestedLength = requestedLength;
+            this.requestDuration = requestDuration;
+        }
+    }
+
+    RemoteBlockPrefetcher(RemotableFileStreamAccessService fileService, String remoteInputStreamUUID, int windowSize) {
+        this.fileService = fileService;
+        this.remoteInputStreamUUID = remoteInputStreamUUID;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Reads from the remote file; see {@link java.io.InputStream#read(byte[], int, int)}.
+     * 
+     * @param b the buffer into which the data is read
+     * @param off the start offset in array b at which the data is written
+     * @param len the maximum number of bytes to read
+     * @return the number of bytes read, or -1 if the end of the file has been reached
+     * @throws IOException on I/O errors
+     * @throws RemoteOperationException if a block request failed
+     */
+    int read(byte[] b, int off, int len) throws IOException, RemoteOperationException {
+        if (len == 0) {
+            return 0;
+        }
+        if (currentBlockOffset == currentBlock.length && !fetchNextBlock()) {
+            return -1;
+        }
+        final int count = Math.min(len, currentBlock.length - currentBlockOffset);
+        System.arraycopy(currentBlock, currentBlockOffset, b, off, count);
+        currentBlockOffset += count;
+        return count;
+    }
+
+    /**
+     * Skips over data of the remote file; see {@link java.io.InputStream#skip(long)}.
+     * 
+     * @param n the number of bytes to skip
+     * @return the number of bytes skipped
+     * @throws IOException on I/O errors
+     * @throws RemoteOperationException if a block request failed
+     */
+    long skip(long n) throws IOException, RemoteOperationException {
+        long skipped = 0;
+        while (skipped < n) {
+            if (currentBlockOffset == currentBlock.length && !fetchNextBlock()) {
+                break;
+            }
+            final int count = (int) Math.min(n - skipped, currentBlock.length - currentBlockOffset);
+            currentBlockOffset += count;
+            skipped += count;
+        }
+        return skipped;
+    }
+
+    /**
+     * @return the number of bytes that can be read without waiting for a block request
+     */
+    int available() {
+        return currentBlock.length - currentBlockOffset;
+    }
+
+    /**
+     * @return true if any data has been received from the remote node yet
+     */
+    boolean hasReceivedData() {
+        return dataReceived;
+    }
+
+    /**
+     * Cancels all block requests that have not been started yet; the results of running requests are discarded.
+     */
+    void cancel() {
+        for (Future<Block> pendingBlock : pendingBlocks) {
+            pendingBlock.cancel(false);
+        }
+        pendingBlocks.clear();
+        endOfFileRequested = true;
+    }
+
+    private boolean fetchNextBlock() throws IOException, RemoteOperationException {
+        while (!endOfFileRequested && pendingBlocks.size() < windowSize) {
+            requestBlock(nextBlockPosition, blockSize);
+            nextBlockPosition += blockSize;
+        }
+        final Future<Block> nextBlock = pendingBlocks.poll();
+        if (nextBlock == null) {
+            return false;
+        }
+        final Block block = awaitBlock(nextBlock);
+        dataReceived = true;
+        if (block.data.length < block.requestedLength) {
+            // the end of the file has been reached, so the remaining requests are obsolete
+            cancel();
+        } else {
+            adaptBlockSize(block.requestDuration);
+        }
+        currentBlock = block.data;
+        currentBlockOffset = 0;
+        return currentBlock.length > 0;
+    }
+
+    private void requestBlock(final long position, final int length) {
+        pendingBlocks.add(ConcurrencyUtils.getAsyncTaskService().submit(new Callable<Block>() {
+
+            @Override
+            @TaskDescription("Remote file download: block request")
+            public Block call() throws IOException, RemoteOperationException {
+                final long startTime = System.currentTimeMillis();
+                final byte[] data = fileService.readBlock(remoteInputStreamUUID, position, length);
+                return new Block(data, length, System.currentTimeMillis() - startTime);
+            }
+        }));
+    }
+
+    private Block awaitBlock(Future<Block> pendingBlock) throws IOException, RemoteOperationException {
+        try {
+            return pendingBlock.get();
+        } catch (InterruptedException e) {
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a block of the remote file");
+        } catch (ExecutionException e) {
+            cancel();
+            final Throwable cause = e.getCause();
+            if (cause instanceof RemoteOperationException) {
+                throw (RemoteOperationException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else {
+                throw new IOException("Failed to read a block of the remote file", cause);
+            }
+        }
+    }
+
+    private void adaptBlockSize(long requestDuration) {
+        if (requestDuration < TARGET_BLOCK_REQUEST_DURATION_MSEC) {
+            blockSize = Math.min(blockSize * 2, MAX_BLOCK_SIZE);
+        } else if (requestDuration > 2 * TARGET_BLOCK_REQUEST_DURATION_MSEC) {
+            blockSize = Math.max(blockSize / 2, MIN_BLOCK_SIZE);
+        }
+    }
+}
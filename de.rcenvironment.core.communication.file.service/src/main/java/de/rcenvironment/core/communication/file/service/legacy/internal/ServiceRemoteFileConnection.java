@@ -11,10 +11,13 @@ package de.rcenvironment.core.communication.file.service.legacy.internal;
 import java.io.IOException;
 import java.net.URI;
 
+import org.apache.commons.logging.LogFactory;
+
 import de.rcenvironment.core.communication.api.CommunicationService;
 import de.rcenvironment.core.communication.common.CommunicationException;
 import de.rcenvironment.core.communication.file.service.legacy.api.RemotableFileStreamAccessService;
 import de.rcenvironment.core.communication.fileaccess.api.RemoteFileConnection;
+import de.rcenvironment.core.communication.rpc.ServiceCallResultFactory;
 import de.rcenvironment.core.utils.common.StringUtils;
 import de.rcenvironment.core.utils.common.rpc.RemoteOperationException;
 import de.rcenvironment.core.utils.incubator.Assertions;
@@ -31,10 +34,17 @@ public class ServiceRemoteFileConnection implements RemoteFileConnection {
 
     private static final int MINUS_ONE = -1;
 
+    private static final int BYTE_MASK = 0xFF;
+
     private static final long serialVersionUID = -3315352695999821776L;
 
     private static final String ERROR_PARAMETERS_NULL = "The parameter \"%s\" must not be null.";
 
+    /**
+     * The number of block requests to keep in flight if not configured otherwise.
+     */
+    public static final int DEFAULT_PREFETCH_WINDOW_SIZE = 4;
+
     /**
      * The {@link RemotableFileStreamAccessService} of the remote instance where the file is located.
      */
@@ -45,6 +55,21 @@ public class ServiceRemoteFileConnection implements RemoteFileConnection {
      */
     private final String remoteInputStreamUUID;
 
+    /**
+     * The maximum number of block requests in flight; 0 disables prefetching.
+     */
+    private final int prefetchWindowSize;
+
+    /**
+     * Fetches the file content block-wise ahead of the read calls; created on the first read call.
+     */
+    private transient RemoteBlockPrefetcher prefetcher;
+
+    /**
+     * Set if the remote instance does not support block-wise reading, i.e., it runs an older version.
+     */
+    private transient boolean prefetchingUnsupported;
+
     /**
      * Creates a new {@link ServiceRemoteFileConnection} of a remote file and initialize it.
      * @param uri URI pointing to remote file. (rce://node-id/dataReferenceUUID/revision)
@@ -54,7 +79,22 @@ public class ServiceRemoteFileConnection implements RemoteFileConnection {
      */
     public ServiceRemoteFileConnection(URI uri, CommunicationService communicationService)
         throws IOException {
+        this(uri, communicationService, DEFAULT_PREFETCH_WINDOW_SIZE);
+    }
 
+    /**
+     * Creates a new {@link ServiceRemoteFileConnection} of a remote file and initialize it.
+     * 
+     * @param uri URI pointing to remote file. (rce://node-id/dataReferenceUUID/revision)
+     * @param communicationService the {@link CommunicationService} to get the remote service from
+     * @param prefetchWindowSize the maximum number of block requests in flight; 0 for sequential reading without prefetching
+     * 
+     * @throws IOException if the file could not be accessed remotely.
+     */
+    public ServiceRemoteFileConnection(URI uri, CommunicationService communicationService, int prefetchWindowSize)
+        throws IOException {
+
+        this.prefetchWindowSize = prefetchWindowSize;
         try {
             fileService = communicationService.getRemotableService(RemotableFileStreamAccessService.class,
                 RCEFileURIUtils.getNodeIdentifier(uri));
@@ -74,10 +114,25 @@ public class ServiceRemoteFileConnection implements RemoteFileConnection {
 
         Assertions.isDefined(b, StringUtils.format(ERROR_PARAMETERS_NULL, "b"));
 
-        Byte[] objectB = new Byte[b.length];
-        for (int i = 0; i < b.length; i++) {
-            objectB[i] = new Byte(b[i]);
+        if (prefetchWindowSize > 0 && !prefetchingUnsupported) {
+            if (prefetcher == null) {
+                prefetcher = new RemoteBlockPrefetcher(fileService, remoteInputStreamUUID, prefetchWindowSize);
+            }
+            try {
+                return prefetcher.read(b, off, len);
+            } catch (RemoteOperationException e) {
+                if (prefetcher.hasReceivedData() || !ServiceCallResultFactory.isRefusedAsInvalidRequest(e)) {
+                    // any other error may have occurred after the remote stream was read, so falling back could silently skip data
+                    throw new IOException(e.toString());
+                }
+                // the remote instance does not provide block-wise reading yet; as the request was refused without reading, the
+                // stream position is still unchanged, so fall back to sequential reading
+                LogFactory.getLog(getClass()).debug("Block-wise reading of remote file failed, falling back to sequential reading: " + e);
+                prefetcher = null;
+                prefetchingUnsupported = true;
+            }
         }
+
         int read = 0;
         try {
             byte[] buffer = (byte[]) fileService.read(remoteInputStreamUUID, new Integer(len));
@@ -97,6 +152,13 @@ public class ServiceRemoteFileConnection implements RemoteFileConnection {
 
     @Override
     public int read() throws IOException {
+        if (prefetcher != null) {
+            final byte[] singleByte = new byte[1];
+            if (read(singleByte, 0, 1) == MINUS_ONE) {
+                return MINUS_ONE;
+            }
+            return singleByte[0] & BYTE_MASK;
+        }
         try {
             return fileService.read(remoteInputStreamUUID);
         } catch (RemoteOperationException e) {
@@ -107,14 +169,28 @@ public class ServiceRemoteFileConnection implements RemoteFileConnection {
     @Override
     public long skip(long n) throws IOException {
         try {
+            if (prefetcher != null) {
+                return prefetcher.skip(n);
+            }
             return fileService.skip(remoteInputStreamUUID, n);
         } catch (RemoteOperationException e) {
             throw new IOException(e.toString());
         }
     }
 
+    @Override
+    public int available() throws IOException {
+        if (prefetcher != null) {
+            return prefetcher.available();
+        }
+        return 0;
+    }
+
     @Override
     public void close() throws IOException {
+        if (prefetcher != null) {
+            prefetcher.cancel();
+        }
         try {
             fileService.close(remoteInputStreamUUID);
         } catch (RemoteOperationException e) {
@@ -11,6 +11,8 @@ package de.rcenvironment.core.communication.file.service.legacy.internal;
 import java.io.IOException;
 import java.net.URI;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.osgi.framework.BundleContext;
 
 import de.rcenvironment.core.communication.api.CommunicationService;
@@ -25,9 +27,31 @@ import de.rcenvironment.core.communication.fileaccess.spi.RemoteFileConnectionFa
 @Deprecated
 public class ServiceRemoteFileConnectionFactory implements RemoteFileConnectionFactory {
 
+    private static final String DOWNLOAD_PREFETCH_WINDOW_PROPERTY = "communication.downloadPrefetchWindow";
+
+    private final Log log = LogFactory.getLog(getClass());
+
     private CommunicationService communicationService;
 
-    protected void activate(BundleContext bundleContext) {}
+    private int prefetchWindowSize = ServiceRemoteFileConnection.DEFAULT_PREFETCH_WINDOW_SIZE;
+
+    protected void activate(BundleContext bundleContext) {
+        String prefetchWindowArg = System.getProperty(DOWNLOAD_PREFETCH_WINDOW_PROPERTY);
+        if (prefetchWindowArg != null) {
+            try {
+                int parsedValue = Integer.parseInt(prefetchWindowArg);
+                if (parsedValue >= 0) {
+                    // apply; 0 disables prefetching
+                    prefetchWindowSize = parsedValue;
+                } else {
+                    log.error("Invalid download prefetch window specified: minimum value is 0");
+                }
+            } catch (NumberFormatException e) {
+                log.error("Failed to parse " + DOWNLOAD_PREFETCH_WINDOW_PROPERTY + " setting; using default", e);
+            }
+        }
+        log.debug("Using remote download prefetch window " + prefetchWindowSize);
+    }
 
     protected void bindCommunicationService(CommunicationService newCommunicationService) {
         communicationService = newCommunicationService;
@@ -35,7 +59,7 @@ public class ServiceRemoteFileConnectionFactory implements RemoteFileConnectionF
 
     @Override
     public RemoteFileConnection createRemoteFileConnection(URI uri) throws IOException {
-        return new ServiceRemoteFileConnection(uri, communicationService);
+        return new ServiceRemoteFileConnection(uri, communicationService, prefetchWindowSize);
     }
 
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.communication.nodeproperties.internal;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import de.rcenvironment.core.communication.channel.MessageChannelTrafficListener;
+import de.rcenvironment.core.communication.common.InstanceNodeSessionId;
+import de.rcenvironment.core.communication.configuration.NodeConfigurationService;
+import de.rcenvironment.core.communication.model.NetworkRequest;
+import de.rcenvironment.core.communication.model.NetworkResponse;
+import de.rcenvironment.core.communication.model.impl.InitialNodeInformationImpl;
+import de.rcenvironment.core.communication.protocol.ProtocolConstants;
+import de.rcenvironment.core.communication.testutils.AbstractVirtualInstanceTest;
+import de.rcenvironment.core.communication.testutils.TestConfiguration;
+import de.rcenvironment.core.communication.testutils.VirtualInstance;
+import de.rcenvironment.core.communication.testutils.VirtualInstanceGroup;
+import de.rcenvironment.core.communication.transport.virtual.VirtualTransportTestConfiguration;
+import de.rcenvironment.core.utils.common.StringUtils;
+import de.rcenvironment.core.utils.testing.CommonTestOptions;
+
+/**
+ * Measures the node property traffic and the time until all nodes know all properties in a ring of {@link VirtualInstance}s, with one
+ * node publishing many component descriptions like a relay node with integrated tools. The measurement is done for both the compact and
+ * the legacy update format.
+ * 
+ * @author agent
+ */
+public class NodePropertiesLargeScaleTest extends AbstractVirtualInstanceTest {
+
+    private static final int NODE_COUNT = CommonTestOptions.selectStandardOrExtendedValue(10, 50);
+
+    private static final int COMPONENTS_OF_FIRST_NODE = CommonTestOptions.selectStandardOrExtendedValue(40, 400);
+
+    private static final int COMPONENTS_PER_NODE = CommonTestOptions.selectStandardOrExtendedValue(2, 5);
+
+    private static final int CONVERGENCE_TIMEOUT_MSEC = 30000;
+
+    private static final int POLL_INTERVAL_MSEC = 20;
+
+    private static final String COMPONENT_KEY_PREFIX = "componentInstallation/de.rcenvironment.integration.common.Tool";
+
+    /**
+     * Counts the node property message bytes sent into channels.
+     * 
+     * @author agent
+     */
+    private static final class NodePropertiesTrafficCounter implements MessageChannelTrafficListener {
+
+        private final AtomicLong bytes = new AtomicLong();
+
+        @Override
+        public void onRequestSentIntoChannel(NetworkRequest request) {
+            if (ProtocolConstants.VALUE_MESSAGE_TYPE_NODE_PROPERTIES_UPDATE.equals(request.getMessageType())) {
+                bytes.addAndGet(request.getContentBytes().length);
+            }
+        }
+
+        @Override
+        public void onRequestReceivedFromChannel(NetworkRequest request, InstanceNodeSessionId sourceId) {}
+
+        @Override
+        public void onResponseSentIntoChannel(NetworkResponse response, NetworkRequest request, InstanceNodeSessionId sourceId) {
+            if (ProtocolConstants.VALUE_MESSAGE_TYPE_NODE_PROPERTIES_UPDATE.equals(request.getMessageType())) {
+                bytes.addAndGet(response.getContentBytes().length);
+            }
+        }
+    }
+
+    /**
+     * Connects the nodes to a ring, once announcing and once not announcing support for the compact update format, and compares the
+     * traffic volume.
+     * 
+     * @throws Exception on unexpected errors
+     */
+    @Test
+    public void testPropagationVolumeAndConvergenceTime() throws Exception {
+        final long legacyBytes = measurePropagation(false);
+        final long compactBytes = measurePropagation(true);
+        log.info(StringUtils.format("Node property traffic: %d bytes with the compact format, %d bytes with the legacy format (%.1f%%)",
+            compactBytes, legacyBytes, compactBytes * 100.0 / legacyBytes));
+        assertTrue(compactBytes < legacyBytes);
+    }
+
+    @Override
+    protected TestConfiguration defineTestConfiguration() {
+        return new VirtualTransportTestConfiguration(true);
+    }
+
+    private long measurePropagation(boolean compactFormat) throws Exception {
+        setupInstances(NODE_COUNT, true, false);
+        if (!compactFormat) {
+            for (VirtualInstance instance : allInstances) {
+                ((InitialNodeInformationImpl) instance.getService(NodeConfigurationService.class).getInitialNodeInformation())
+                    .setSupportedPayloadCodecs(null);
+            }
+        }
+        final VirtualInstanceGroup group = testTopology.getAsGroup();
+        final NodePropertiesTrafficCounter trafficCounter = new NodePropertiesTrafficCounter();
+        group.addNetworkTrafficListener(trafficCounter);
+        group.start();
+
+        int expectedPropertyCount = 0;
+        for (int i = 0; i < allInstances.length; i++) {
+            final int componentCount;
+            if (i == 0) {
+                componentCount = COMPONENTS_OF_FIRST_NODE;
+            } else {
+                componentCount = COMPONENTS_PER_NODE;
+            }
+            final String nodeId = allInstances[i].getInstanceNodeSessionIdString();
+            Map<String, String> properties = new HashMap<>();
+            for (int j = 0; j < componentCount; j++) {
+                properties.put(COMPONENT_KEY_PREFIX + j, NodePropertiesPayloadCodecTest.createComponentDescription(nodeId, j));
+            }
+            allInstances[i].getNodePropertiesService().addOrUpdateLocalNodeProperties(properties);
+            expectedPropertyCount += componentCount;
+        }
+
+        final long startTime = System.currentTimeMillis();
+        testTopology.connectToRing(false);
+        waitForConvergence(expectedPropertyCount);
+        final long convergenceTime = System.currentTimeMillis() - startTime;
+        log.info(StringUtils.format("%d nodes (compact format: %s) converged after %d msec; %d bytes of node property messages sent",
+            NODE_COUNT, compactFormat, convergenceTime, trafficCounter.bytes.get()));
+
+        group.shutDown();
+        return trafficCounter.bytes.get();
+    }
+
+    private void waitForConvergence(int expectedPropertyCount) throws InterruptedException, TimeoutException {
+        final long deadline = System.currentTimeMillis() + CONVERGENCE_TIMEOUT_MSEC;
+        for (VirtualInstance instance : allInstances) {
+            while (countComponentProperties(instance) < expectedPropertyCount) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new TimeoutException("Node properties did not converge at " + instance);
+                }
+                Thread.sleep(POLL_INTERVAL_MSEC);
+            }
+        }
+    }
+
+    private int countComponentProperties(VirtualInstance instance) {
+        int count = 0;
+        for (Map<String, String> nodeProperties : instance.getNodePropertiesService().getAllNodeProperties().values()) {
+            for (String key : nodeProperties.keySet()) {
+                if (key.startsWith(COMPONENT_KEY_PREFIX)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.communication.nodeproperties.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.rcenvironment.core.communication.common.SerializationException;
+import de.rcenvironment.core.communication.utils.MessageUtils;
+import de.rcenvironment.core.utils.common.StringUtils;
+
+/**
+ * {@link NodePropertiesPayloadCodec} tests.
+ * 
+ * @author agent
+ */
+public class NodePropertiesPayloadCodecTest {
+
+    private static final String NODE_ID_1 = "3115a32f64d1f72156fa81afc44ff9cd::59dda10000";
+
+    private static final String NODE_ID_2 = "66dc36b999217894b2b2141cbbe0a8bf::59dda10000";
+
+    private static final String UPDATE_TYPE = "delta";
+
+    private static final long SEQUENCE_NO = 1500000000000L;
+
+    private static final int COMPONENT_COUNT = 50;
+
+    private final NodePropertiesPayloadCodec codec = new NodePropertiesPayloadCodec();
+
+    /**
+     * Registers the codec, as done by the node properties service on activation.
+     */
+    @BeforeClass
+    public static void registerCodec() {
+        MessageUtils.registerPayloadCodec(new NodePropertiesPayloadCodec());
+    }
+
+    /**
+     * Tests that updates survive a round trip, including null values, requested entries and updates large enough to be deflated.
+     * 
+     * @throws SerializationException on unexpected errors
+     */
+    @Test
+    public void roundTrip() throws SerializationException {
+        List<NodePropertiesUpdatePayload.Entry> entries = new ArrayList<>();
+        entries.add(new NodePropertiesUpdatePayload.Entry(NODE_ID_1, "displayName", SEQUENCE_NO, "Instance 1"));
+        entries.add(new NodePropertiesUpdatePayload.Entry(NODE_ID_2, "deleted", SEQUENCE_NO + 1, null));
+        List<NodePropertiesUpdatePayload.Entry> requestedEntries =
+            Arrays.asList(new NodePropertiesUpdatePayload.Entry(NODE_ID_1, "requested", SEQUENCE_NO + 2, null));
+
+        NodePropertiesUpdatePayload restored =
+            roundTrip(new NodePropertiesUpdatePayload(UPDATE_TYPE, false, entries, requestedEntries));
+        assertEquals(UPDATE_TYPE, restored.getUpdateType());
+        assertFalse(restored.isDigest());
+        assertEntriesEqual(entries, restored.getEntries());
+        assertEntriesEqual(requestedEntries, restored.getRequestedEntries());
+
+        List<NodePropertiesUpdatePayload.Entry> largeEntries = createComponentEntries(NODE_ID_1);
+        restored = roundTrip(new NodePropertiesUpdatePayload(UPDATE_TYPE, false, largeEntries,
+            Collections.<NodePropertiesUpdatePayload.Entry> emptyList()));
+        assertEntriesEqual(largeEntries, restored.getEntries());
+    }
+
+    /**
+     * Tests that digests transfer the keys and sequence numbers of the entries, but not their values.
+     * 
+     * @throws SerializationException on unexpected errors
+     */
+    @Test
+    public void digestOmitsValues() throws SerializationException {
+        List<NodePropertiesUpdatePayload.Entry> entries = createComponentEntries(NODE_ID_1);
+        NodePropertiesUpdatePayload digest = new NodePropertiesUpdatePayload("digest", true, entries,
+            Collections.<NodePropertiesUpdatePayload.Entry> emptyList());
+        NodePropertiesUpdatePayload full = new NodePropertiesUpdatePayload("digest", false, entries,
+            Collections.<NodePropertiesUpdatePayload.Entry> emptyList());
+
+        NodePropertiesUpdatePayload restored = roundTrip(digest);
+        assertTrue(restored.isDigest());
+        assertEquals(entries.size(), restored.getEntries().size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(entries.get(i).getDataKey(), restored.getEntries().get(i).getDataKey());
+            assertEquals(entries.get(i).getSequenceNo(), restored.getEntries().get(i).getSequenceNo());
+            assertNull(restored.getEntries().get(i).getValue());
+        }
+        assertTrue(codec.encode(digest).length < codec.encode(full).length);
+    }
+
+    /**
+     * Verifies that the encoded form of typical component publication properties is much smaller than the legacy string form.
+     * 
+     * @throws SerializationException on unexpected errors
+     */
+    @Test
+    public void compactFormIsSmallerThanLegacyForm() throws SerializationException {
+        List<NodePropertiesUpdatePayload.Entry> entries = createComponentEntries(NODE_ID_1);
+        List<String> legacyParts = new ArrayList<>();
+        legacyParts.add(UPDATE_TYPE);
+        for (NodePropertiesUpdatePayload.Entry entry : entries) {
+            legacyParts.add(StringUtils.escapeAndConcat(entry.getInstanceNodeSessionIdString(), entry.getDataKey(),
+                Long.toString(entry.getSequenceNo()), entry.getValue()));
+        }
+        final int legacySize =
+            MessageUtils.serializeSafeObject(StringUtils.escapeAndConcat(legacyParts.toArray(new String[legacyParts.size()]))).length;
+        final int compactSize = codec.encode(new NodePropertiesUpdatePayload(UPDATE_TYPE, false, entries,
+            Collections.<NodePropertiesUpdatePayload.Entry> emptyList())).length;
+        // the actual ratio is far better, as the generated descriptions are very similar
+        assertTrue(compactSize + " vs. " + legacySize, compactSize * 4 < legacySize);
+    }
+
+    /**
+     * Verifies that malformed data causes a {@link SerializationException}.
+     * 
+     * @throws SerializationException on unexpected errors
+     */
+    @Test
+    public void exceptionOnMalformedData() throws SerializationException {
+        byte[] encoded = codec.encode(new NodePropertiesUpdatePayload(UPDATE_TYPE, false, createComponentEntries(NODE_ID_2),
+            Collections.<NodePropertiesUpdatePayload.Entry> emptyList()));
+        assertDecodingFails(Arrays.copyOf(encoded, encoded.length - 1));
+        assertDecodingFails(Arrays.copyOf(encoded, 5));
+        byte[] wrongVersion = encoded.clone();
+        wrongVersion[1]++;
+        assertDecodingFails(wrongVersion);
+    }
+
+    private NodePropertiesUpdatePayload roundTrip(NodePropertiesUpdatePayload payload) throws SerializationException {
+        byte[] encoded = MessageUtils.serializeObject(payload, MessageUtils.getSupportedPayloadCodecs());
+        assertTrue(codec.isEncodedBy(encoded));
+        return (NodePropertiesUpdatePayload) MessageUtils.deserializeObject(encoded);
+    }
+
+    private void assertDecodingFails(byte[] data) {
+        try {
+            codec.decode(data);
+            fail("Exception expected");
+        } catch (SerializationException e) {
+            assertTrue(e.getMessage() != null);
+        }
+    }
+
+    private void assertEntriesEqual(List<NodePropertiesUpdatePayload.Entry> expected, List<NodePropertiesUpdatePayload.Entry> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getInstanceNodeSessionIdString(), actual.get(i).getInstanceNodeSessionIdString());
+            assertEquals(expected.get(i).getDataKey(), actual.get(i).getDataKey());
+            assertEquals(expected.get(i).getSequenceNo(), actual.get(i).getSequenceNo());
+            assertEquals(expected.get(i).getValue(), actual.get(i).getValue());
+        }
+    }
+
+    private List<NodePropertiesUpdatePayload.Entry> createComponentEntries(String nodeId) {
+        List<NodePropertiesUpdatePayload.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < COMPONENT_COUNT; i++) {
+            entries.add(new NodePropertiesUpdatePayload.Entry(nodeId, "componentInstallation/de.rcenvironment.integration.common.Tool" + i,
+                SEQUENCE_NO + i, createComponentDescription(nodeId, i)));
+        }
+        return entries;
+    }
+
+    /**
+     * @param nodeId the id of the publishing node
+     * @param index a number to make the description unique
+     * @return a string resembling the publication data of an integrated tool
+     */
+    static String createComponentDescription(String nodeId, int index) {
+        return StringUtils.format("{\"authData\":null,\"data\":\"{\\\"nodeId\\\":\\\"%s\\\",\\\"installationId\\\":"
+            + "\\\"de.rcenvironment.integration.common.Tool%d/1.0\\\",\\\"componentRevision\\\":{\\\"componentInterface\\\":"
+            + "{\\\"displayName\\\":\\\"Tool %d\\\",\\\"groupName\\\":\\\"Group %d\\\",\\\"identifier\\\":"
+            + "\\\"de.rcenvironment.integration.common.Tool%d\\\",\\\"version\\\":\\\"1.0\\\",\\\"inputDefinitionsProvider\\\":"
+            + "{\\\"endpointDefinitions\\\":[{\\\"rawEndpointDefinition\\\":{\\\"name\\\":\\\"x%d\\\",\\\"defaultDataType\\\":"
+            + "\\\"Float\\\",\\\"dataTypes\\\":[\\\"Float\\\",\\\"Integer\\\"]}}]},\\\"localExecutionOnly\\\":false,"
+            + "\\\"isDeprecated\\\":false,\\\"documentationHash\\\":\\\"\\\",\\\"iconHash\\\":\\\"%08x\\\"}}}\"}",
+            nodeId, index, index, index % 5, index, index, index * 7919);
+    }
+}
@@ -11,6 +11,7 @@ package de.rcenvironment.core.communication.nodeproperties.internal;
 import static org.junit.Assert.assertEquals;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.junit.Test;
@@ -95,13 +96,51 @@ public class NodePropertiesRegistryTest {
         assertEquals(3, registry.getDetachedCopyOfEntries().size());
     }
 
+    /**
+     * Tests the determination of the entries to request in response to a digest, and the lookup of the requested entries.
+     * 
+     * @throws Exception on test setup error
+     */
+    @Test
+    public void testDigestComparison() throws Exception {
+        mergeUpdateData(
+            "3115a32f64d1f72156fa81afc44ff9cd\\:\\:59dda10005:displayName:1500000000002:Instance 1",
+            "66dc36b999217894b2b2141cbbe0a8bf\\:\\:59dda10000:displayName:1500000000002:Instance 2");
+
+        // the digest entries are parsed from the same form for simplicity; their values are irrelevant
+        Collection<NodePropertyImpl> requestedEntries = registry.getEntriesNewerThanKnowledge(parseUpdateData(
+            // same version -> known
+            "3115a32f64d1f72156fa81afc44ff9cd\\:\\:59dda10005:displayName:1500000000002:-",
+            // older session -> ignored
+            "3115a32f64d1f72156fa81afc44ff9cd\\:\\:59dda10000:dummyProperty:1500000000005:-",
+            // newer version -> requested
+            "66dc36b999217894b2b2141cbbe0a8bf\\:\\:59dda10000:displayName:1500000000003:-",
+            // unknown key -> requested
+            "66dc36b999217894b2b2141cbbe0a8bf\\:\\:59dda10000:dummyProperty:1500000000001:-"));
+        assertEquals(2, requestedEntries.size());
+
+        List<CompositeNodePropertyKey> keys = new ArrayList<>();
+        for (NodePropertyImpl entry : requestedEntries) {
+            keys.add(entry.getCompositeKey());
+        }
+        Collection<NodePropertyImpl> currentEntries = registry.getEntries(keys);
+        // only the display name is present in the registry
+        assertEquals(1, currentEntries.size());
+        assertEquals("Instance 2", currentEntries.iterator().next().getValue());
+    }
+
     private List<NodePropertyImpl> mergeUpdateData(String... entries) throws IdentifierException {
+        List<NodePropertyImpl> input = parseUpdateData(entries);
+        List<NodePropertyImpl> mergeResult = new ArrayList<>(registry.mergeAndGetEffectiveSubset(input));
+        return mergeResult;
+    }
+
+    private List<NodePropertyImpl> parseUpdateData(String... entries) throws IdentifierException {
         List<NodePropertyImpl> input = new ArrayList<>();
         for (String entry : entries) {
             input.add(new NodePropertyImpl(entry, nodeIdentifierService));
         }
-        List<NodePropertyImpl> mergeResult = new ArrayList<>(registry.mergeAndGetEffectiveSubset(input));
-        return mergeResult;
+        return input;
     }
 
 }
@@ -24,6 +24,7 @@ import de.rcenvironment.core.communication.common.IdentifierException;
 import de.rcenvironment.core.communication.common.InstanceNodeSessionId;
 import de.rcenvironment.core.communication.common.NodeIdentifierTestUtils;
 import de.rcenvironment.core.communication.configuration.NodeConfigurationService;
+import de.rcenvironment.core.communication.model.impl.InitialNodeInformationImpl;
 import de.rcenvironment.core.communication.nodeproperties.NodePropertiesService;
 import de.rcenvironment.core.communication.nodeproperties.NodeProperty;
 import de.rcenvironment.core.communication.nodeproperties.spi.NodePropertiesChangeListener;
@@ -43,6 +44,8 @@ public class NodePropertiesServiceImplTest extends AbstractVirtualInstanceTest {
 
     private static final String TEST_PROPERTY_KEY_A = "a";
 
+    private static final String TEST_PROPERTY_KEY_B = "b";
+
     /**
      * A wait time im msec that must be larger than the time over which node property updates are aggegated in the tested service.
      */
@@ -162,6 +165,42 @@ public class NodePropertiesServiceImplTest extends AbstractVirtualInstanceTest {
         assertEquals("4", allPropertiesAtB.get(nodeIdOfA).get(TEST_PROPERTY_KEY_A));
     }
 
+    /**
+     * Verifies that node properties are exchanged between a node that announces support for the compact update format and a node that
+     * does not, as it is the case for older versions. Properties published before connecting are exchanged by the initial exchange, which
+     * uses a digest in one direction and the legacy format in the other.
+     * 
+     * @throws Exception on unexpected errors
+     */
+    @Test
+    public void testPropagationWithLegacyFormat() throws Exception {
+        setupInstances(2, true, false);
+
+        final VirtualInstance instanceA = testTopology.getInstance(0);
+        final VirtualInstance instanceB = testTopology.getInstance(1);
+        ((InitialNodeInformationImpl) instanceA.getService(NodeConfigurationService.class).getInitialNodeInformation())
+            .setSupportedPayloadCodecs(null);
+        testTopology.getAsGroup().start();
+
+        final NodePropertiesService serviceA = instanceA.getNodePropertiesService();
+        final NodePropertiesService serviceB = instanceB.getNodePropertiesService();
+        final InstanceNodeSessionId nodeIdOfA = instanceA.getInstanceNodeSessionId();
+        final InstanceNodeSessionId nodeIdOfB = instanceB.getInstanceNodeSessionId();
+
+        serviceA.addOrUpdateLocalNodeProperty(TEST_PROPERTY_KEY_A, "1");
+        serviceB.addOrUpdateLocalNodeProperty(TEST_PROPERTY_KEY_B, "2");
+        testTopology.connectAndWait(0, 1, DEFAULT_NODE_REACHABILITY_TIMEOUT);
+        Thread.sleep(WAIT_TIME_FOR_UPDATE_AGGREGATION);
+        assertEquals("1", serviceB.getAllNodeProperties().get(nodeIdOfA).get(TEST_PROPERTY_KEY_A));
+        assertEquals("2", serviceA.getAllNodeProperties().get(nodeIdOfB).get(TEST_PROPERTY_KEY_B));
+
+        serviceA.addOrUpdateLocalNodeProperty(TEST_PROPERTY_KEY_A, "3");
+        serviceB.addOrUpdateLocalNodeProperty(TEST_PROPERTY_KEY_B, "4");
+        Thread.sleep(WAIT_TIME_FOR_UPDATE_AGGREGATION);
+        assertEquals("3", serviceB.getAllNodeProperties().get(nodeIdOfA).get(TEST_PROPERTY_KEY_A));
+        assertEquals("4", serviceA.getAllNodeProperties().get(nodeIdOfB).get(TEST_PROPERTY_KEY_B));
+    }
+
     @Override
     protected TestConfiguration defineTestConfiguration() {
         return new VirtualTransportTestConfiguration(true);
@@ -7,7 +7,9 @@
  */
 package de.rcenvironment.core.communication.routing.internal;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -662,6 +664,42 @@ public class TopologyMapTest extends TestCase {
 
     }
 
+    /**
+     * Tests that routes from the local node are reused until the topology changes.
+     */
+    public final void testRoutingSnapshotInvalidation() {
+        networkGraph = new TopologyMap(NODE_1);
+
+        networkGraph.addLink(NODE_1, NODE_2, CONNECTION_ID_1);
+        networkGraph.addLink(NODE_2, NODE_3, CONNECTION_ID_2);
+
+        NetworkRoute route = networkGraph.getShortestPath(NODE_1, NODE_3);
+        assertEquals(2, route.getLength());
+        assertSame(route, networkGraph.getShortestPath(NODE_1, NODE_3));
+
+        // an LSA that only confirms the known links of a node must not discard the cached routes
+        LinkStateAdvertisement lsa =
+            LinkStateAdvertisement.createUpdateLsa(NODE_2, NODE_2_NAME, false, networkGraph.getSequenceNumberOfNode(NODE_2) + 1, 0, true,
+                new ArrayList<TopologyLink>(networkGraph.getAllOutgoingLinks(NODE_2)));
+        assertTrue(LSA_CAUSED_NO_UPDATE, networkGraph.update(lsa));
+        assertSame(route, networkGraph.getShortestPath(NODE_1, NODE_3));
+
+        // a new direct link must be used immediately
+        networkGraph.addLink(NODE_1, NODE_3, CONNECTION_ID_3);
+        route = networkGraph.getShortestPath(NODE_1, NODE_3);
+        assertEquals(1, route.getLength());
+        assertEquals(new HashSet<InstanceNodeSessionId>(Arrays.asList(NODE_1, NODE_2, NODE_3)),
+            networkGraph.getIdsOfReachableNodes(false));
+
+        // a changed LSA must discard the cached routes
+        lsa = LinkStateAdvertisement.createUpdateLsa(NODE_2, NODE_2_NAME, false, networkGraph.getSequenceNumberOfNode(NODE_2) + 1, 0, true,
+            new ArrayList<TopologyLink>());
+        assertTrue(LSA_CAUSED_NO_UPDATE, networkGraph.update(lsa));
+        networkGraph.removeLink(NODE_1, NODE_3, CONNECTION_ID_3);
+        assertFalse(networkGraph.getShortestPath(NODE_1, NODE_3).validate());
+        assertEquals(new HashSet<InstanceNodeSessionId>(Arrays.asList(NODE_1, NODE_2)), networkGraph.getIdsOfReachableNodes(false));
+    }
+
     /**
      * 
      */
@@ -19,12 +19,15 @@ import java.util.ArrayList;
 import org.easymock.EasyMock;
 import org.junit.Test;
 
+import de.rcenvironment.core.communication.common.CommunicationException;
 import de.rcenvironment.core.communication.common.InstanceNodeSessionId;
 import de.rcenvironment.core.communication.common.LogicalNodeSessionId;
 import de.rcenvironment.core.communication.common.NodeIdentifierTestUtils;
 import de.rcenvironment.core.communication.model.NetworkRequest;
 import de.rcenvironment.core.communication.model.NetworkResponse;
 import de.rcenvironment.core.communication.protocol.NetworkResponseFactory;
+import de.rcenvironment.core.utils.common.rpc.RemoteOperationException;
+import de.rcenvironment.core.utils.common.rpc.RemoteRequestRefusedException;
 
 /**
  * {@link ServiceCallResultFactory} test.
@@ -87,6 +90,28 @@ public class ServiceCallResultFactoryTest {
         assertFalse(scResult.isSuccess());
     }
 
+    /**
+     * Test for {@link ServiceCallResultFactory#representInvalidRequestAtHandler(ServiceCallRequest, String)} and the recognition of
+     * refused requests, including the ones refused by older versions, which only send an error message.
+     */
+    @Test
+    public void testRepresentationOfInvalidRequestAtHandler() {
+        final ServiceCallResult scResult = ServiceCallResultFactory.representInvalidRequestAtHandler(createDummyRequest(), "test");
+        assertTrue(scResult.isRefusedAsInvalidRequest());
+        assertTrue(scResult.isRemoteOperationException());
+        assertFalse(scResult.isSuccess());
+
+        assertTrue(new ServiceCallResult(null, null, null, "Request refused by destination instance (remote error id: E#1)")
+            .isRefusedAsInvalidRequest());
+        assertFalse(ServiceCallResultFactory.representInternalErrorAtHandler(createDummyRequest(), "test").isRefusedAsInvalidRequest());
+
+        final RemoteOperationException refused = new RemoteRequestRefusedException("any message");
+        assertTrue(ServiceCallResultFactory.isRefusedAsInvalidRequest(refused));
+        assertTrue(ServiceCallResultFactory.isRefusedAsInvalidRequest(new CommunicationException("wrapped", refused)));
+        assertFalse(ServiceCallResultFactory
+            .isRefusedAsInvalidRequest(new RemoteOperationException("Request refused by destination instance")));
+    }
+
     private ServiceCallRequest createDummyRequest() {
         targetNodeId = NodeIdentifierTestUtils.createTestLogicalNodeSessionId(true);
         callerNodeId = NodeIdentifierTestUtils.createTestLogicalNodeSessionId(true);
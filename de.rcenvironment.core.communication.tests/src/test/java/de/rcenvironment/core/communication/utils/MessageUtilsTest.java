@@ -8,17 +8,27 @@
 package de.rcenvironment.core.communication.utils;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
+import de.rcenvironment.core.communication.common.LogicalNodeSessionId;
+import de.rcenvironment.core.communication.common.NodeIdentifierTestUtils;
 import de.rcenvironment.core.communication.common.SerializationException;
 import de.rcenvironment.core.communication.model.InitialNodeInformation;
 import de.rcenvironment.core.communication.model.impl.InitialNodeInformationImpl;
+import de.rcenvironment.core.communication.rpc.ServiceCallRequest;
+import de.rcenvironment.core.communication.rpc.ServiceCallResult;
 
 /**
  * {@link MessageUtils} test case.
@@ -27,6 +37,30 @@ import de.rcenvironment.core.communication.model.impl.InitialNodeInformationImpl
  */
 public class MessageUtilsTest {
 
+    private static final String SERVICE_NAME = "de.rcenvironment.SomeService";
+
+    private static final String METHOD_NAME = "someMethod";
+
+    private static final String STREAM_ID = "stream-1";
+
+    private static final long SEQUENCE_NUMBER = 5L;
+
+    /**
+     * Sets up the node identifier service required for restoring node ids.
+     */
+    @Before
+    public void setUp() {
+        NodeIdentifierTestUtils.attachTestNodeIdentifierServiceToCurrentThread();
+    }
+
+    /**
+     * Removes the node identifier service.
+     */
+    @After
+    public void tearDown() {
+        NodeIdentifierTestUtils.removeTestNodeIdentifierServiceFromCurrentThread();
+    }
+
     /**
      * Tests basic serialization/deserialization.
      * 
@@ -75,4 +109,95 @@ public class MessageUtilsTest {
         MessageUtils.deserializeObject(null);
     }
 
+    /**
+     * Tests that RPC requests and results survive a round trip through the compact codec, including all supported value types and a
+     * value that is embedded in Java-serialized form.
+     * 
+     * @throws SerializationException on unexpected errors
+     */
+    @Test
+    public void compactCodecRoundTrip() throws SerializationException {
+        final LogicalNodeSessionId target = NodeIdentifierTestUtils.createTestLogicalNodeSessionId(true);
+        final LogicalNodeSessionId caller = NodeIdentifierTestUtils.createTestLogicalNodeSessionId(true);
+        final Date date = new Date();
+        ServiceCallRequest request = new ServiceCallRequest(target, caller, SERVICE_NAME, METHOD_NAME,
+            new ArrayList<>(Arrays.asList("\u00e4 text", null, true, 1, 2L, 3.0, new byte[] { 1, 2 }, target, date)), STREAM_ID,
+            SEQUENCE_NUMBER, MessageUtils.getSupportedPayloadCodecs());
+
+        byte[] serialized = MessageUtils.serializeObject(request, CompactRPCPayloadCodec.ID);
+        assertTrue(new CompactRPCPayloadCodec().isEncodedBy(serialized));
+        assertTrue(serialized.length < MessageUtils.serializeObject(request).length);
+        ServiceCallRequest restored = MessageUtils.deserializeObject(serialized, ServiceCallRequest.class);
+        assertEquals(target, restored.getTargetNodeId());
+        assertEquals(caller, restored.getCallerNodeId());
+        assertEquals(SERVICE_NAME, restored.getServiceName());
+        assertEquals(METHOD_NAME, restored.getMethodName());
+        assertEquals(STREAM_ID, restored.getReliableRPCStreamId());
+        assertEquals(SEQUENCE_NUMBER, restored.getSequenceNumber());
+        assertEquals(MessageUtils.getSupportedPayloadCodecs(), restored.getCallerPayloadCodecs());
+        assertEquals(request.getParameterList().size(), restored.getParameterList().size());
+        for (int i = 0; i < request.getParameterList().size(); i++) {
+            Serializable expected = request.getParameterList().get(i);
+            if (expected instanceof byte[]) {
+                assertTrue(Arrays.equals((byte[]) expected, (byte[]) restored.getParameterList().get(i)));
+            } else {
+                assertEquals(expected, restored.getParameterList().get(i));
+            }
+        }
+
+        ServiceCallResult result = new ServiceCallResult(null, "some.ExceptionType", "message", null);
+        ServiceCallResult restoredResult = (ServiceCallResult) MessageUtils
+            .deserializeObject(MessageUtils.serializeObject(result, CompactRPCPayloadCodec.ID));
+        assertNull(restoredResult.getReturnValue());
+        assertEquals("some.ExceptionType", restoredResult.getMethodExceptionType());
+        assertEquals("message", restoredResult.getMethodExceptionMessage());
+        assertNull(restoredResult.getRemoteOperationExceptionMessage());
+        assertFalse(restoredResult.isRefusedAsInvalidRequest());
+
+        ServiceCallResult refusedResult = (ServiceCallResult) MessageUtils
+            .deserializeObject(MessageUtils.serializeObject(new ServiceCallResult("refused", true), CompactRPCPayloadCodec.ID));
+        assertEquals("refused", refusedResult.getRemoteOperationExceptionMessage());
+        assertTrue(refusedResult.isRefusedAsInvalidRequest());
+    }
+
+    /**
+     * Tests that Java serialization is used if the receiver made no or an unknown codec announcement, or if no codec can handle the
+     * payload.
+     * 
+     * @throws SerializationException on unexpected errors
+     */
+    @Test
+    public void fallbackToJavaSerialization() throws SerializationException {
+        final JavaSerializationPayloadCodec javaCodec = new JavaSerializationPayloadCodec();
+        ServiceCallResult result = new ServiceCallResult("value", null, null, null);
+        assertTrue(javaCodec.isEncodedBy(MessageUtils.serializeObject(result, null)));
+        assertTrue(javaCodec.isEncodedBy(MessageUtils.serializeObject(result, "unknown1,unknown2")));
+        assertTrue(javaCodec.isEncodedBy(MessageUtils.serializeObject("plain string", MessageUtils.getSupportedPayloadCodecs())));
+        assertTrue(new CompactRPCPayloadCodec().isEncodedBy(MessageUtils.serializeObject(result,
+            "unknown1," + CompactRPCPayloadCodec.ID)));
+    }
+
+    /**
+     * Tests that the codecs announced by a node are forgotten once it is unregistered.
+     */
+    @Test
+    public void unregisterRemotePayloadCodecs() {
+        final String nodeSessionId = "node-session-id";
+        MessageUtils.registerRemotePayloadCodecs(nodeSessionId, CompactRPCPayloadCodec.ID);
+        assertEquals(CompactRPCPayloadCodec.ID, MessageUtils.getRemotePayloadCodecs(nodeSessionId));
+        MessageUtils.unregisterRemotePayloadCodecs(nodeSessionId);
+        assertNull(MessageUtils.getRemotePayloadCodecs(nodeSessionId));
+    }
+
+    /**
+     * Verifies that malformed compact codec data causes a {@link SerializationException}.
+     * 
+     * @throws SerializationException as expected
+     */
+    @Test(expected = SerializationException.class)
+    public void exceptionOnTruncatedCompactData() throws SerializationException {
+        byte[] serialized = MessageUtils.serializeObject(new ServiceCallResult("value", null, null, null), CompactRPCPayloadCodec.ID);
+        MessageUtils.deserializeObject(Arrays.copyOf(serialized, serialized.length - 1));
+    }
+
 }
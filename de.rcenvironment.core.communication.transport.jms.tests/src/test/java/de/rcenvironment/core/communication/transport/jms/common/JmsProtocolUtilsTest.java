@@ -0,0 +1,140 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+package de.rcenvironment.core.communication.transport.jms.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.ObjectMessage;
+import javax.jms.Session;
+
+import org.apache.activemq.command.ActiveMQBytesMessage;
+import org.apache.activemq.command.ActiveMQObjectMessage;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.rcenvironment.core.communication.common.CommunicationException;
+import de.rcenvironment.core.communication.model.NetworkRequest;
+import de.rcenvironment.core.communication.model.impl.NetworkRequestImpl;
+
+/**
+ * Tests for the payload handling of {@link JmsProtocolUtils}.
+ * 
+ * @author agent
+ */
+public class JmsProtocolUtilsTest {
+
+    private static final int SMALL_PAYLOAD_SIZE = 100;
+
+    private static final int LARGE_PAYLOAD_SIZE = JmsProtocolConstants.PAYLOAD_COMPRESSION_THRESHOLD * 4;
+
+    private Session session;
+
+    /**
+     * Creates a session mock that creates ActiveMQ message objects.
+     */
+    @Before
+    public void setUp() throws JMSException {
+        session = EasyMock.createMock(Session.class);
+        EasyMock.expect(session.createBytesMessage()).andAnswer(ActiveMQBytesMessage::new).anyTimes();
+        EasyMock.expect(session.createObjectMessage()).andAnswer(ActiveMQObjectMessage::new).anyTimes();
+        EasyMock.replay(session);
+    }
+
+    /**
+     * Tests that payloads are sent as {@link ObjectMessage}s unless {@link BytesMessage}s were negotiated.
+     * 
+     * @throws Exception on unexpected failure
+     */
+    @Test
+    public void legacyObjectMessagePayload() throws Exception {
+        byte[] content = createCompressiblePayload(LARGE_PAYLOAD_SIZE);
+        Message message = JmsProtocolUtils.createMessageFromNetworkRequest(createRequest(content), session, false);
+        assertTrue(message instanceof ObjectMessage);
+        assertArrayEquals(content, JmsProtocolUtils.createNetworkRequestFromMessage(message).getContentBytes());
+    }
+
+    /**
+     * Tests that small payloads are sent as uncompressed {@link BytesMessage}s.
+     * 
+     * @throws Exception on unexpected failure
+     */
+    @Test
+    public void uncompressedBytesMessagePayload() throws Exception {
+        byte[] content = createCompressiblePayload(SMALL_PAYLOAD_SIZE);
+        Message message = JmsProtocolUtils.createMessageFromNetworkRequest(createRequest(content), session, true);
+        assertTrue(message instanceof BytesMessage);
+        assertFalse(message.propertyExists(JmsProtocolConstants.MESSAGE_FIELD_UNCOMPRESSED_PAYLOAD_SIZE));
+        assertArrayEquals(content, roundTrip(message));
+    }
+
+    /**
+     * Tests that large payloads are compressed if this reduces their size, and sent as they are otherwise.
+     * 
+     * @throws Exception on unexpected failure
+     */
+    @Test
+    public void compressedBytesMessagePayload() throws Exception {
+        byte[] content = createCompressiblePayload(LARGE_PAYLOAD_SIZE);
+        BytesMessage message = (BytesMessage) JmsProtocolUtils.createMessageFromNetworkRequest(createRequest(content), session, true);
+        assertTrue(message.propertyExists(JmsProtocolConstants.MESSAGE_FIELD_UNCOMPRESSED_PAYLOAD_SIZE));
+        assertArrayEquals(content, roundTrip(message));
+        assertTrue(message.getBodyLength() < content.length);
+
+        byte[] randomContent = new byte[LARGE_PAYLOAD_SIZE];
+        new Random(0).nextBytes(randomContent);
+        message = (BytesMessage) JmsProtocolUtils.createMessageFromNetworkRequest(createRequest(randomContent), session, true);
+        assertFalse(message.propertyExists(JmsProtocolConstants.MESSAGE_FIELD_UNCOMPRESSED_PAYLOAD_SIZE));
+        assertArrayEquals(randomContent, roundTrip(message));
+    }
+
+    /**
+     * Tests that a compressed payload with an inconsistent size field is rejected.
+     * 
+     * @throws Exception on unexpected failure
+     */
+    @Test
+    public void invalidUncompressedSizeIsRejected() throws Exception {
+        byte[] content = createCompressiblePayload(LARGE_PAYLOAD_SIZE);
+        Message message = JmsProtocolUtils.createMessageFromNetworkRequest(createRequest(content), session, true);
+        message.setIntProperty(JmsProtocolConstants.MESSAGE_FIELD_UNCOMPRESSED_PAYLOAD_SIZE, LARGE_PAYLOAD_SIZE - 1);
+        try {
+            roundTrip(message);
+            fail("Exception expected");
+        } catch (JMSException e) {
+            assertTrue(e.getMessage().contains("declared size"));
+        }
+    }
+
+    private byte[] roundTrip(Message message) throws JMSException, CommunicationException {
+        // switch the message to read-only mode, as on the receiving side
+        ((ActiveMQBytesMessage) message).reset();
+        return JmsProtocolUtils.createNetworkRequestFromMessage(message).getContentBytes();
+    }
+
+    private NetworkRequest createRequest(byte[] content) {
+        return new NetworkRequestImpl(content, new HashMap<String, String>());
+    }
+
+    private byte[] createCompressiblePayload(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (i % 7);
+        }
+        return content;
+    }
+}
@@ -58,6 +58,8 @@ public abstract class AbstractJmsMessageChannel extends AbstractMessageChannel i
 
     private String sharedResponseQueueName;
 
+    private volatile boolean bytesMessagePayloadsSupported;
+
     private RequestSender requestSender;
 
     private NonBlockingResponseInboxConsumer responseInboxConsumer;
@@ -273,6 +275,11 @@ public abstract class AbstractJmsMessageChannel extends AbstractMessageChannel i
         return shutdownSecurityToken;
     }
 
+    @Override
+    public void setBytesMessagePayloadsSupported(boolean supported) {
+        this.bytesMessagePayloadsSupported = supported;
+    }
+
     private void spawnBlockingRequestResponseTask(final NetworkRequest request, final MessageChannelResponseHandler responseHandler,
         final int timeoutMsec) {
         // note: old approach
@@ -297,7 +304,7 @@ public abstract class AbstractJmsMessageChannel extends AbstractMessageChannel i
             try {
                 final Queue destinationQueue = session.createQueue(outgoingRequestQueueName);
                 // construct message
-                Message jmsRequest = JmsProtocolUtils.createMessageFromNetworkRequest(request, session);
+                Message jmsRequest = JmsProtocolUtils.createMessageFromNetworkRequest(request, session, bytesMessagePayloadsSupported);
                 Message jmsResponse = performBlockingJmsRequestResponse(session, jmsRequest, destinationQueue, timeoutMsec);
                 NetworkResponse response = JmsProtocolUtils.createNetworkResponseFromMessage(jmsResponse, request);
                 responseHandler.onResponseAvailable(response);
@@ -383,7 +390,7 @@ public abstract class AbstractJmsMessageChannel extends AbstractMessageChannel i
                     request.getRequestId(), request.accessMetaData().getFinalRecipient(), request.getMessageType(), requestPayloadSize));
             }
             // construct message
-            Message jmsRequest = JmsProtocolUtils.createMessageFromNetworkRequest(request, session);
+            Message jmsRequest = JmsProtocolUtils.createMessageFromNetworkRequest(request, session, bytesMessagePayloadsSupported);
             final Queue replyToQueue = session.createQueue(sharedResponseQueueName);
             jmsRequest.setJMSReplyTo(replyToQueue);
             // send
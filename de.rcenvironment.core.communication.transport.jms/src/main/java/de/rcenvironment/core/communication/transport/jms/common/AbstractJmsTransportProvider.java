@@ -75,6 +75,7 @@ public abstract class AbstractJmsTransportProvider implements NetworkTransportPr
                     associatedSCP);
             remoteInitiatedConnection.setRemoteNodeInformation(remoteNodeInformation);
             remoteInitiatedConnection.setAssociatedMirrorChannelId(remoteHandshakeInformation.getChannelId());
+            remoteInitiatedConnection.setBytesMessagePayloadsSupported(remoteHandshakeInformation.isBytesMessagePayloadsSupported());
             // FIXME add proper token
             remoteInitiatedConnection.setShutdownSecurityToken("passive." + remoteNodeInformation.getInstanceNodeSessionIdString());
             remoteInitiatedConnection.setChannelId(connectionId);
@@ -19,6 +19,8 @@ public class JMSHandshakeInformation extends HandshakeInformation {
 
     private String temporaryQueueInformation;
 
+    private boolean bytesMessagePayloadsSupported;
+
     public String getTemporaryQueueInformation() {
         return temporaryQueueInformation;
     }
@@ -26,4 +28,15 @@ public class JMSHandshakeInformation extends HandshakeInformation {
     public void setTemporaryQueueInformation(String newValue) {
         this.temporaryQueueInformation = newValue;
     }
+
+    /**
+     * @return true if the sender of this handshake information accepts payloads sent as JMS BytesMessages
+     */
+    public boolean isBytesMessagePayloadsSupported() {
+        return bytesMessagePayloadsSupported;
+    }
+
+    public void setBytesMessagePayloadsSupported(boolean newValue) {
+        this.bytesMessagePayloadsSupported = newValue;
+    }
 }
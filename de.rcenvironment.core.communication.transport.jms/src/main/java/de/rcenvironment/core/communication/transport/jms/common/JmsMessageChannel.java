@@ -29,6 +29,12 @@ public interface JmsMessageChannel extends MessageChannel {
      */
     void setShutdownSecurityToken(String token);
 
+    /**
+     * @param supported true if the remote node announced during the handshake that it accepts payloads sent as JMS BytesMessages; if
+     *        false, requests are sent in the legacy ObjectMessage form
+     */
+    void setBytesMessagePayloadsSupported(boolean supported);
+
     /**
      * Configures and starts the worker tasks used for non-blocking request handling.
      * 
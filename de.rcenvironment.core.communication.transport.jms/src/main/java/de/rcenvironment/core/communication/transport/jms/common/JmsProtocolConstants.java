@@ -54,6 +54,19 @@ public abstract class JmsProtocolConstants {
      */
     public static final String MESSAGE_FIELD_CHANNEL_ID = "channel.id";
 
+    /**
+     * JMS property key for announcing, as part of the handshake, that the sender accepts request and response payloads sent as
+     * {@link javax.jms.BytesMessage}s, including compressed ones. If a node does not send this flag, all payloads sent to it must be
+     * wrapped in {@link javax.jms.ObjectMessage}s, which is the format understood by older versions.
+     */
+    public static final String MESSAGE_FIELD_BYTES_MESSAGE_PAYLOADS_SUPPORTED = "payload.bytesMessages";
+
+    /**
+     * JMS property key for the uncompressed length of a compressed payload. Only set on compressed payloads, so its presence also marks a
+     * payload as compressed.
+     */
+    public static final String MESSAGE_FIELD_UNCOMPRESSED_PAYLOAD_SIZE = "payload.uncompressedSize";
+
     /**
      * Message type value for the initial handshake request.
      */
@@ -84,6 +97,11 @@ public abstract class JmsProtocolConstants {
      */
     public static final String QUEUE_NAME_C2B_REQUEST_INBOX = "requests/c2b/common";
 
+    /**
+     * The minimum payload size (in bytes) for which compression is attempted; smaller payloads are always sent as they are.
+     */
+    public static final int PAYLOAD_COMPRESSION_THRESHOLD = 16 * 1024;
+
     /**
      * The time to wait after sending a channel shutdown notice before actually closing the JMS connection. This prevents unnecessary JMS
      * exceptions on the remote side.
@@ -9,7 +9,11 @@ package de.rcenvironment.core.communication.transport.jms.common;
 
 import java.net.ProtocolException;
 import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
+import javax.jms.BytesMessage;
 import javax.jms.DeliveryMode;
 import javax.jms.Destination;
 import javax.jms.JMSException;
@@ -34,10 +38,21 @@ import de.rcenvironment.core.communication.utils.MessageUtils;
 /**
  * Utility class providing the mapping between RCE entities and JMS messages, plus related message-related settings.
  * 
+ * Request and response payloads are sent as {@link BytesMessage}s if the receiving node announced support for them during the
+ * handshake, and as {@link ObjectMessage}s wrapping a byte array otherwise. {@link BytesMessage} payloads above
+ * {@link JmsProtocolConstants#PAYLOAD_COMPRESSION_THRESHOLD} are compressed if this reduces their size. On the receiving side, both forms
+ * are always accepted.
+ * 
  * @author Robert Mischke
  */
 public final class JmsProtocolUtils {
 
+    // favor speed, as payloads are compressed on the sending thread
+    private static final int PAYLOAD_COMPRESSION_LEVEL = Deflater.BEST_SPEED;
+
+    // the maximum compression ratio of the deflate format; used to reject invalid uncompressed size fields
+    private static final int MAX_DEFLATE_COMPRESSION_RATIO = 1032;
+
     private JmsProtocolUtils() {
         // prevent instantiation
     }
@@ -59,6 +74,8 @@ public final class JmsProtocolUtils {
         initialMessage.setStringProperty(JmsProtocolConstants.MESSAGE_FIELD_CHANNEL_ID, handshakeInformation.getChannelId());
         initialMessage.setStringProperty(JmsProtocolConstants.MESSAGE_FIELD_REMOTE_INITIATED_REQUEST_INBOX,
             handshakeInformation.getTemporaryQueueInformation());
+        // announce that this node accepts BytesMessage payloads; older nodes ignore this property
+        initialMessage.setBooleanProperty(JmsProtocolConstants.MESSAGE_FIELD_BYTES_MESSAGE_PAYLOADS_SUPPORTED, true);
 
         InitialNodeInformation initialNodeInformation = handshakeInformation.getInitialNodeInformation();
         if (initialNodeInformation != null) {
@@ -94,6 +111,8 @@ public final class JmsProtocolUtils {
         }
 
         result.setChannelId(message.getStringProperty(JmsProtocolConstants.MESSAGE_FIELD_CHANNEL_ID));
+        result.setBytesMessagePayloadsSupported(message.propertyExists(JmsProtocolConstants.MESSAGE_FIELD_BYTES_MESSAGE_PAYLOADS_SUPPORTED)
+            && message.getBooleanProperty(JmsProtocolConstants.MESSAGE_FIELD_BYTES_MESSAGE_PAYLOADS_SUPPORTED));
 
         byte[] handshakeRequestBytes = (byte[]) ((ObjectMessage) message).getObject();
         if (handshakeRequestBytes == null || handshakeRequestBytes.length == 0) {
@@ -112,13 +131,15 @@ public final class JmsProtocolUtils {
      * 
      * @param request the request to transform
      * @param session the JMS session to use
+     * @param useBytesMessage true to send the payload as a (possibly compressed) {@link BytesMessage}; must only be set if the receiver
+     *        announced support for it
      * @return the equivalent JMS message
      * @throws JMSException on JMS errors
      */
-    public static Message createMessageFromNetworkRequest(final NetworkRequest request, Session session) throws JMSException {
+    public static Message createMessageFromNetworkRequest(final NetworkRequest request, Session session, boolean useBytesMessage)
+        throws JMSException {
         Map<String, String> metadata = request.accessRawMetaData();
-        ObjectMessage jmsRequest = session.createObjectMessage();
-        jmsRequest.setObject(request.getContentBytes());
+        Message jmsRequest = createPayloadMessage(request.getContentBytes(), session, useBytesMessage);
         jmsRequest.setObjectProperty(JmsProtocolConstants.MESSAGE_FIELD_METADATA, metadata);
         jmsRequest.setStringProperty(JmsProtocolConstants.MESSAGE_FIELD_MESSAGE_TYPE, JmsProtocolConstants.MESSAGE_TYPE_REQUEST);
         return jmsRequest;
@@ -133,7 +154,7 @@ public final class JmsProtocolUtils {
      * @throws CommunicationException on message format errors
      */
     public static NetworkRequest createNetworkRequestFromMessage(Message jmsRequest) throws JMSException, CommunicationException {
-        byte[] content = (byte[]) ((ObjectMessage) jmsRequest).getObject();
+        byte[] content = extractPayload(jmsRequest);
         if (content.length == 0) {
             throw new CommunicationException("Received message with zero-length payload");
         }
@@ -148,12 +169,14 @@ public final class JmsProtocolUtils {
      * 
      * @param response the response to transform
      * @param session the JMS session to use
+     * @param useBytesMessage true to send the payload as a (possibly compressed) {@link BytesMessage}; must only be set if the receiver
+     *        supports it, which is always the case if the request was received as a {@link BytesMessage}
      * @return the equivalent JMS message
      * @throws JMSException on JMS errors
      */
-    public static Message createMessageFromNetworkResponse(NetworkResponse response, Session session) throws JMSException {
-        ObjectMessage jmsResponse = session.createObjectMessage();
-        jmsResponse.setObject(response.getContentBytes());
+    public static Message createMessageFromNetworkResponse(NetworkResponse response, Session session, boolean useBytesMessage)
+        throws JMSException {
+        Message jmsResponse = createPayloadMessage(response.getContentBytes(), session, useBytesMessage);
         jmsResponse.setIntProperty(JmsProtocolConstants.MESSAGE_FIELD_RESULT_CODE, response.getResultCode().getCode());
         // TODO add metadata?
         return jmsResponse;
@@ -168,7 +191,7 @@ public final class JmsProtocolUtils {
      * @throws JMSException on JMS errors
      */
     public static NetworkResponse createNetworkResponseFromMessage(Message jmsResponse, final NetworkRequest request) throws JMSException {
-        byte[] content = (byte[]) ((ObjectMessage) jmsResponse).getObject();
+        byte[] content = extractPayload(jmsResponse);
         if (jmsResponse.propertyExists(JmsProtocolConstants.MESSAGE_FIELD_RESULT_CODE)) {
             int resultCode = jmsResponse.getIntProperty(JmsProtocolConstants.MESSAGE_FIELD_RESULT_CODE);
             return NetworkResponseFactory.generateResponseWithResultCode(request, content, resultCode);
@@ -178,6 +201,31 @@ public final class JmsProtocolUtils {
         }
     }
 
+    /**
+     * Extracts the request or response payload from a JMS message created by
+     * {@link #createMessageFromNetworkRequest(NetworkRequest, Session, boolean)} or
+     * {@link #createMessageFromNetworkResponse(NetworkResponse, Session, boolean)}, decompressing it if necessary.
+     * 
+     * @param message the received message; either a {@link BytesMessage} or an {@link ObjectMessage}
+     * @return the payload
+     * @throws JMSException on JMS errors, or if the message is malformed
+     */
+    public static byte[] extractPayload(Message message) throws JMSException {
+        if (message instanceof ObjectMessage) {
+            return (byte[]) ((ObjectMessage) message).getObject();
+        }
+        if (!(message instanceof BytesMessage)) {
+            throw new JMSException("Unexpected payload message type: " + message.getClass().getName());
+        }
+        BytesMessage bytesMessage = (BytesMessage) message;
+        byte[] content = new byte[(int) bytesMessage.getBodyLength()];
+        bytesMessage.readBytes(content);
+        if (!message.propertyExists(JmsProtocolConstants.MESSAGE_FIELD_UNCOMPRESSED_PAYLOAD_SIZE)) {
+            return content;
+        }
+        return decompressPayload(content, message.getIntProperty(JmsProtocolConstants.MESSAGE_FIELD_UNCOMPRESSED_PAYLOAD_SIZE));
+    }
+
     /**
      * Creates a JMS message to send to a JMS queue to terminate one {@link AbstractJmsQueueConsumer} listening on this queue ("poison pill"
      * pattern).
@@ -244,4 +292,76 @@ public final class JmsProtocolUtils {
             producer.close();
         }
     }
+
+    private static Message createPayloadMessage(byte[] content, Session session, boolean useBytesMessage) throws JMSException {
+        if (!useBytesMessage) {
+            ObjectMessage message = session.createObjectMessage();
+            message.setObject(content);
+            return message;
+        }
+        BytesMessage message = session.createBytesMessage();
+        byte[] compressedContent = null;
+        if (content.length >= JmsProtocolConstants.PAYLOAD_COMPRESSION_THRESHOLD) {
+            compressedContent = compressPayload(content);
+        }
+        if (compressedContent != null) {
+            message.setIntProperty(JmsProtocolConstants.MESSAGE_FIELD_UNCOMPRESSED_PAYLOAD_SIZE, content.length);
+            message.writeBytes(compressedContent);
+        } else {
+            message.writeBytes(content);
+        }
+        return message;
+    }
+
+    /**
+     * @return the compressed payload, or null if compression would not reduce its size
+     */
+    private static byte[] compressPayload(byte[] content) {
+        Deflater deflater = new Deflater(PAYLOAD_COMPRESSION_LEVEL);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            // only accept output that is smaller than the input
+            byte[] buffer = new byte[content.length - 1];
+            int length = 0;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            if (!deflater.finished()) {
+                return null;
+            }
+            byte[] result = new byte[length];
+            System.arraycopy(buffer, 0, result, 0, length);
+            return result;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompressPayload(byte[] compressedContent, int uncompressedSize) throws JMSException {
+        if (uncompressedSize < 0 || uncompressedSize > (long) compressedContent.length * MAX_DEFLATE_COMPRESSION_RATIO) {
+            throw new JMSException("Invalid uncompressed payload size: " + uncompressedSize);
+        }
+        byte[] result = new byte[uncompressedSize];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressedContent);
+            int length = 0;
+            while (!inflater.finished()) {
+                int bytesInflated = inflater.inflate(result, length, result.length - length);
+                if (bytesInflated == 0 && (inflater.needsInput() || inflater.needsDictionary() || length == result.length)) {
+                    break;
+                }
+                length += bytesInflated;
+            }
+            if (!inflater.finished() || length != uncompressedSize || inflater.getRemaining() != 0) {
+                throw new JMSException("Compressed payload does not match its declared size of " + uncompressedSize + " bytes");
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new JMSException("Failed to decompress payload: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
 }
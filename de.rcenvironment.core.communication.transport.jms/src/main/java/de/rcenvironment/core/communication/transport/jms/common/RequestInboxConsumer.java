@@ -7,6 +7,7 @@
  */
 package de.rcenvironment.core.communication.transport.jms.common;
 
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.JMSException;
 import javax.jms.Message;
@@ -104,7 +105,9 @@ public final class RequestInboxConsumer extends AbstractJmsQueueConsumer impleme
                         request.getMessageType()));
                 }
                 try {
-                    Message jmsResponse = JmsProtocolUtils.createMessageFromNetworkResponse(response, session);
+                    // a request sent as a BytesMessage implies that the sender also accepts its response in this form
+                    Message jmsResponse =
+                        JmsProtocolUtils.createMessageFromNetworkResponse(response, session, message instanceof BytesMessage);
                     final String messageId = message.getJMSMessageID();
                     // sanity check
                     if (messageId == null) {
@@ -14,7 +14,6 @@ import javax.jms.ConnectionFactory;
 import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
 import javax.jms.Message;
-import javax.jms.ObjectMessage;
 import javax.jms.Queue;
 import javax.jms.Session;
 
@@ -117,9 +116,9 @@ public class SelfInitiatedJmsMessageChannel extends AbstractJmsMessageChannel {
             // create request message
             Message handshakeRequestMessage = JmsProtocolUtils.createHandshakeMessage(ownHandshakeInformation, initialSession);
 
-            // perform handshake
-            ObjectMessage handshakeResponseMessage =
-                (ObjectMessage) performBlockingJmsRequestResponse(initialSession, handshakeRequestMessage, initialInbox,
+            // perform handshake; the handshake itself is always sent as an ObjectMessage for compatibility
+            Message handshakeResponseMessage =
+                performBlockingJmsRequestResponse(initialSession, handshakeRequestMessage, initialInbox,
                     INITIAL_HANDSHAKE_TIMEOUT_MSEC);
 
             // extract the response, expecting the protocol set in the local HandshakeInformation
@@ -133,6 +132,7 @@ public class SelfInitiatedJmsMessageChannel extends AbstractJmsMessageChannel {
 
             // associate outgoing channel with the id of "mirror" channel
             setAssociatedMirrorChannelId(remoteHandshakeInformation.getChannelId());
+            setBytesMessagePayloadsSupported(remoteHandshakeInformation.isBytesMessagePayloadsSupported());
 
             // spawn incoming request listener
             // note: this listener is not part of the message channel, so it must be closed explicitly
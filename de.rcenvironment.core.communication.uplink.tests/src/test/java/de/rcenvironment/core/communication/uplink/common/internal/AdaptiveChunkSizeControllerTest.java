@@ -0,0 +1,66 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.communication.uplink.common.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AdaptiveChunkSizeController}.
+ * 
+ * @author agent
+ */
+public class AdaptiveChunkSizeControllerTest {
+
+    private static final int MIN_SIZE = 8;
+
+    private static final int INITIAL_SIZE = 32;
+
+    private static final int MAX_SIZE = 256;
+
+    private static final long TARGET_LATENCY = 100;
+
+    /**
+     * Verifies that the chunk size grows up to the maximum on low latency, and shrinks down to the minimum on high latency.
+     */
+    @Test
+    public void adaptationWithinBounds() {
+        AdaptiveChunkSizeController controller = new AdaptiveChunkSizeController(INITIAL_SIZE, MIN_SIZE, MAX_SIZE, TARGET_LATENCY);
+        assertEquals(INITIAL_SIZE, controller.getChunkSize());
+
+        controller.registerLatencySample(1);
+        assertEquals(INITIAL_SIZE * 2, controller.getChunkSize());
+        for (int i = 0; i < 10; i++) {
+            controller.registerLatencySample(1);
+        }
+        assertEquals(MAX_SIZE, controller.getChunkSize());
+
+        // the smoothed latency must exceed the target before shrinking starts, so the size does not change on a single outlier
+        controller.registerLatencySample(TARGET_LATENCY * 2);
+        assertEquals(MAX_SIZE, controller.getChunkSize());
+        for (int i = 0; i < 50; i++) {
+            controller.registerLatencySample(TARGET_LATENCY * 2);
+        }
+        assertEquals(MIN_SIZE, controller.getChunkSize());
+    }
+
+    /**
+     * Verifies that the chunk size is kept while the latency is close to the target.
+     */
+    @Test
+    public void stableNearTarget() {
+        AdaptiveChunkSizeController controller = new AdaptiveChunkSizeController(INITIAL_SIZE, MIN_SIZE, MAX_SIZE, TARGET_LATENCY);
+        for (int i = 0; i < 10; i++) {
+            controller.registerLatencySample(TARGET_LATENCY * 3 / 4);
+        }
+        assertEquals(INITIAL_SIZE, controller.getChunkSize());
+        assertEquals(TARGET_LATENCY * 3 / 4, controller.getSmoothedLatency());
+    }
+}
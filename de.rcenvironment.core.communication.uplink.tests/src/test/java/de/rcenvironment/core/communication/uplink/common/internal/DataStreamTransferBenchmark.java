@@ -0,0 +1,294 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.communication.uplink.common.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.rcenvironment.core.communication.uplink.network.api.AsyncMessageBlockSender;
+import de.rcenvironment.core.communication.uplink.network.api.MessageBlockPriority;
+import de.rcenvironment.core.communication.uplink.network.internal.MessageBlock;
+import de.rcenvironment.core.communication.uplink.network.internal.MessageBlockWithMetadata;
+import de.rcenvironment.core.communication.uplink.network.internal.UplinkProtocolConfiguration;
+import de.rcenvironment.core.communication.uplink.session.internal.BoundedMessageBlockPrioritizer;
+import de.rcenvironment.core.utils.common.SizeValidatedDataSource;
+import de.rcenvironment.core.utils.common.exception.ProtocolException;
+
+/**
+ * JMH benchmark of a single large data transfer from a {@link DataStreamUploadWrapper} to a {@link DataStreamDownloadWrapper} over a
+ * loopback TCP connection, comparing fixed and adaptive chunk sizes and different transfer window sizes. The sending side mirrors an Uplink
+ * session's outgoing path (a {@link BoundedMessageBlockPrioritizer} drained by a single sender thread, and the wire format of the
+ * low-level protocol wrapper); the receiving side reconstructs the stream and consumes it as a tool input file would be.
+ * <p>
+ * Not part of the unit test suite; run it via {@link #main(String[])} or the JMH command line runner. Use e.g. "-p sizeMb=4096" to
+ * benchmark multi-GB transfers.
+ * 
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class DataStreamTransferBenchmark {
+
+    private static final long CHANNEL_ID = 1L;
+
+    private static final int MEGABYTE = 1024 * 1024;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The transferred data volume in MB.
+     */
+    @Param({ "1024" })
+    public int sizeMb;
+
+    /**
+     * Whether adaptive chunk sizing is enabled.
+     */
+    @Param({ "false", "true" })
+    public boolean adaptive;
+
+    /**
+     * The number of chunks that may be in flight at the same time.
+     */
+    @Param({ "1", "8" })
+    public int window;
+
+    private ServerSocket serverSocket;
+
+    private Socket senderSocket;
+
+    private Socket receiverSocket;
+
+    private ExecutorService executor;
+
+    private LoopbackMessageBlockSender sender;
+
+    /**
+     * Mirrors the outgoing path of an Uplink session.
+     */
+    private final class LoopbackMessageBlockSender implements AsyncMessageBlockSender {
+
+        private final BoundedMessageBlockPrioritizer outbox = new BoundedMessageBlockPrioritizer();
+
+        private final ExecutorService senderThread = Executors.newSingleThreadExecutor();
+
+        private final DataOutputStream outputStream;
+
+        LoopbackMessageBlockSender(Socket socket) throws IOException {
+            outputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 8 * 1024));
+        }
+
+        @Override
+        public void enqueueMessageBlockForSending(long channelId, MessageBlock messageBlock, MessageBlockPriority priority,
+            boolean allowBlocking) throws ProtocolException {
+            enqueueMessageBlockForSending(channelId, messageBlock, priority, allowBlocking, null);
+        }
+
+        @Override
+        public void enqueueMessageBlockForSending(long channelId, MessageBlock messageBlock, MessageBlockPriority priority,
+            boolean allowBlocking, Consumer<Boolean> sendCompletionCallback) throws ProtocolException {
+            final MessageBlockWithMetadata wrappedMessage = new MessageBlockWithMetadata(messageBlock, channelId, priority);
+            wrappedMessage.setSendCompletionCallback(sendCompletionCallback);
+            try {
+                outbox.submitOrBlock(wrappedMessage, "");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            senderThread.execute(this::sendNext);
+        }
+
+        private void sendNext() {
+            final Optional<MessageBlockWithMetadata> next = outbox.takeNext();
+            if (!next.isPresent()) {
+                return;
+            }
+            final MessageBlockWithMetadata messageBlock = next.get();
+            boolean sent = false;
+            try {
+                outputStream.writeLong(messageBlock.getChannelId());
+                outputStream.writeInt(messageBlock.getDataLength());
+                outputStream.writeByte(messageBlock.getType().getCode());
+                outputStream.write(messageBlock.getData());
+                outputStream.flush();
+                sent = true;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                if (messageBlock.getSendCompletionCallback() != null) {
+                    messageBlock.getSendCompletionCallback().accept(sent);
+                }
+            }
+        }
+
+        void shutdown() {
+            senderThread.shutdownNow();
+        }
+    }
+
+    /**
+     * Provides the given number of (zero) bytes without allocating them.
+     */
+    private static final class SyntheticInputStream extends InputStream {
+
+        private long remaining;
+
+        SyntheticInputStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            return 0;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = (int) Math.min(len, remaining);
+            remaining -= count;
+            return count;
+        }
+    }
+
+    /**
+     * Sets up the loopback connection and the configuration.
+     * 
+     * @throws IOException on setup failure
+     */
+    @Setup
+    public void setUp() throws IOException {
+        UplinkProtocolConfiguration.override(UplinkProtocolConfiguration.newBuilder()
+            .setAdaptiveFileTransferChunkSize(adaptive)
+            .setFileTransferWindowSize(window));
+        serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        senderSocket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+        receiverSocket = serverSocket.accept();
+        sender = new LoopbackMessageBlockSender(senderSocket);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Closes the loopback connection and restores the default configuration.
+     * 
+     * @throws IOException on shutdown failure
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        sender.shutdown();
+        executor.shutdownNow();
+        senderSocket.close();
+        receiverSocket.close();
+        serverSocket.close();
+        UplinkProtocolConfiguration.resetToDefaults();
+    }
+
+    /**
+     * Transfers {@link #sizeMb} MB and waits until they have been consumed at the receiving end.
+     * 
+     * @return the number of received bytes
+     * @throws Exception on transfer failure
+     */
+    @Benchmark
+    public long transfer() throws Exception {
+        final long size = (long) sizeMb * MEGABYTE;
+        final DataStreamDownloadWrapper<SizeValidatedDataSource> downloadWrapper =
+            new DataStreamDownloadWrapper<SizeValidatedDataSource>() {
+
+            @Override
+            public SizeValidatedDataSource createReturnObject(long sizeParam, PipedInputStream inputStream) {
+                return new SizeValidatedDataSource(sizeParam, inputStream);
+            }
+        };
+        final SizeValidatedDataSource receivedData = downloadWrapper.initialize(size, MessageType.FILE_CONTENT);
+
+        // read message blocks from the connection, as the incoming path of an Uplink session does
+        final DataInputStream connectionInput = new DataInputStream(receiverSocket.getInputStream());
+        executor.submit(() -> {
+            boolean complete = false;
+            while (!complete) {
+                connectionInput.readLong(); // channel id
+                final int length = connectionInput.readInt();
+                final byte type = connectionInput.readByte();
+                final byte[] data = new byte[length];
+                connectionInput.readFully(data);
+                complete = downloadWrapper.processMessageBlock(new MessageBlock(type, data));
+            }
+            return null;
+        });
+
+        // consume the reconstructed stream
+        final Future<Long> consumer = executor.submit(() -> {
+            final byte[] buffer = new byte[READ_BUFFER_SIZE];
+            long total = 0;
+            int count;
+            while ((count = receivedData.getStream().read(buffer)) > 0) {
+                total += count;
+            }
+            return total;
+        });
+
+        new DataStreamUploadWrapper(sender, "").uploadFromDataSource(CHANNEL_ID, MessageType.FILE_CONTENT,
+            new SizeValidatedDataSource(size, new SyntheticInputStream(size)));
+        final long received = consumer.get();
+        if (received != size) {
+            throw new IllegalStateException("Received " + received + " bytes instead of " + size);
+        }
+        return received;
+    }
+
+    /**
+     * Runs this benchmark.
+     * 
+     * @param args unused
+     * @throws RunnerException on benchmark failure
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DataStreamTransferBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.communication.uplink.common.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.rcenvironment.core.communication.uplink.network.api.AsyncMessageBlockSender;
+import de.rcenvironment.core.communication.uplink.network.api.MessageBlockPriority;
+import de.rcenvironment.core.communication.uplink.network.internal.MessageBlock;
+import de.rcenvironment.core.communication.uplink.network.internal.UplinkProtocolConfiguration;
+import de.rcenvironment.core.communication.uplink.network.internal.UplinkProtocolConstants;
+import de.rcenvironment.core.utils.common.SizeValidatedDataSource;
+
+/**
+ * Unit tests for {@link DataStreamUploadWrapper}.
+ * 
+ * @author agent
+ */
+public class DataStreamUploadWrapperTest {
+
+    private static final long CHANNEL_ID = 1;
+
+    private static final int TIMEOUT_MSEC = 10000;
+
+    private static final int WAIT_MSEC = 200;
+
+    /**
+     * A sender that keeps the send completion callbacks of all enqueued message blocks, so the test can decide when and how they
+     * complete.
+     * 
+     * @author agent
+     */
+    private static final class CallbackHoldingSender implements AsyncMessageBlockSender {
+
+        private final List<Consumer<Boolean>> pendingCallbacks = new ArrayList<>();
+
+        @Override
+        public void enqueueMessageBlockForSending(long channelId, MessageBlock messageBlock, MessageBlockPriority priority,
+            boolean allowBlocking) {
+            enqueueMessageBlockForSending(channelId, messageBlock, priority, allowBlocking, null);
+        }
+
+        @Override
+        public synchronized void enqueueMessageBlockForSending(long channelId, MessageBlock messageBlock, MessageBlockPriority priority,
+            boolean allowBlocking, Consumer<Boolean> sendCompletionCallback) {
+            pendingCallbacks.add(sendCompletionCallback);
+            notifyAll();
+        }
+
+        synchronized void awaitPendingCallbacks(int count) throws InterruptedException {
+            while (pendingCallbacks.size() < count) {
+                wait();
+            }
+        }
+
+        synchronized int getPendingCallbackCount() {
+            return pendingCallbacks.size();
+        }
+
+        synchronized void completeAll(boolean sent) {
+            for (Consumer<Boolean> callback : pendingCallbacks) {
+                callback.accept(sent);
+            }
+            pendingCallbacks.clear();
+        }
+    }
+
+    private ExecutorService executor;
+
+    /**
+     * Common setup.
+     */
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    /**
+     * Common cleanup.
+     */
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Verifies that an upload waiting for its window of queued chunks fails instead of blocking forever when the queued chunks are
+     * discarded, as it happens when the session shuts down.
+     * 
+     * @throws Exception on unexpected errors
+     */
+    @Test(timeout = TIMEOUT_MSEC)
+    public void discardedChunksAbortUpload() throws Exception {
+        final int windowSize = UplinkProtocolConfiguration.getCurrent().getFileTransferWindowSize();
+        final CallbackHoldingSender sender = new CallbackHoldingSender();
+        // enough data for more chunks than fit into the window
+        final byte[] data = new byte[(int) UplinkProtocolConstants.MAX_FILE_TRANSFER_CHUNK_SIZE * (windowSize + 2)];
+        final Future<?> upload = executor.submit(() -> {
+            new DataStreamUploadWrapper(sender, "").uploadFromDataSource(CHANNEL_ID, MessageType.FILE_CONTENT,
+                new SizeValidatedDataSource(data));
+            return null;
+        });
+
+        sender.awaitPendingCallbacks(windowSize);
+        Thread.sleep(WAIT_MSEC);
+        // the upload must wait for a free slot of its window
+        assertEquals(windowSize, sender.getPendingCallbackCount());
+        assertFalse(upload.isDone());
+
+        sender.completeAll(false);
+        try {
+            upload.get(TIMEOUT_MSEC, TimeUnit.MILLISECONDS);
+            fail("Expected the upload to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        // no further chunks after the failure
+        assertEquals(0, sender.getPendingCallbackCount());
+    }
+}
@@ -8,10 +8,12 @@
 
 package de.rcenvironment.core.communication.uplink.session.internal;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import org.junit.Before;
@@ -24,6 +26,7 @@ import de.rcenvironment.core.communication.uplink.network.internal.MessageBlockW
 import de.rcenvironment.core.communication.uplink.network.internal.UplinkProtocolConfiguration;
 import de.rcenvironment.core.communication.uplink.network.internal.UplinkProtocolConfiguration.Builder;
 import de.rcenvironment.core.communication.uplink.network.internal.UplinkProtocolConstants;
+import de.rcenvironment.core.communication.uplink.session.api.ChannelQueueStatistics;
 import de.rcenvironment.core.utils.common.exception.OperationFailureException;
 import de.rcenvironment.core.utils.common.exception.ProtocolException;
 
@@ -36,6 +39,12 @@ public class BoundedMessageBlockPrioritizerTest {
 
     private static final String DEFAULT_LOG_PREFIX = "[Test] ";
 
+    private static final int TEST_BYTE_CREDITS = 1000;
+
+    private static final long CHANNEL_A = 1L;
+
+    private static final long CHANNEL_B = 2L;
+
     @Before
     public void before() {
         // configure the test queue sizes as global default before creating test instances
@@ -45,6 +54,8 @@ public class BoundedMessageBlockPrioritizerTest {
         builder.setMaxBufferedMessagesForPriority(MessageBlockPriority.DEFAULT, 2);
         // note: the priority level is just descriptive, there is no difference for this queue regarding blocking
         builder.setMaxBufferedMessagesForPriority(MessageBlockPriority.LOW_NON_BLOCKABLE, 1);
+        builder.setMaxBufferedMessagesForPriority(MessageBlockPriority.BLOCKABLE_CHANNEL_OPERATION, 10);
+        builder.setOutgoingByteCreditsPerChannelAndRound(TEST_BYTE_CREDITS);
 
         UplinkProtocolConfiguration.override(builder); // affects all Uplink objects created afterwards
     }
@@ -105,6 +116,54 @@ public class BoundedMessageBlockPrioritizerTest {
         assertFalse("(3) takeNext() did not fail as expected", prioritizer.takeNext().isPresent());
     }
 
+    /**
+     * Verifies that the small messages of one channel are interleaved with the large messages of another channel, that the original order
+     * is kept within each channel, and that higher priority messages are always taken first.
+     */
+    @Test
+    public void channelFairness() throws ProtocolException, OperationFailureException, InterruptedException {
+
+        BoundedMessageBlockPrioritizer prioritizer = new BoundedMessageBlockPrioritizer();
+        final MessageBlockPriority priority = MessageBlockPriority.BLOCKABLE_CHANNEL_OPERATION;
+
+        // channel A: large blocks, each using up the byte credits of two rounds; channel B: small blocks
+        for (int i = 0; i < 3; i++) {
+            submitOrFail(prioritizer, CHANNEL_A, new byte[TEST_BYTE_CREDITS * 3 / 2], priority);
+        }
+        for (int i = 0; i < 4; i++) {
+            submitOrFail(prioritizer, CHANNEL_B, new byte[i + 1], priority);
+        }
+
+        Map<Long, ChannelQueueStatistics> statistics = prioritizer.getChannelQueueStatistics();
+        assertEquals(2, statistics.size());
+        assertEquals(3, statistics.get(CHANNEL_A).getQueuedMessages());
+        assertEquals(TEST_BYTE_CREDITS * 9 / 2, statistics.get(CHANNEL_A).getQueuedBytes());
+        assertEquals(4, statistics.get(CHANNEL_B).getQueuedMessages());
+        assertEquals(1 + 2 + 3 + 4, statistics.get(CHANNEL_B).getQueuedBytes());
+
+        // a heartbeat submitted last must still be taken first
+        submitOrFail(prioritizer, UplinkProtocolConstants.DEFAULT_CHANNEL_ID, new byte[0], MessageBlockPriority.HIGH);
+        assertEquals(MessageBlockPriority.HIGH, prioritizer.takeNext().get().getPriority());
+
+        // round 1: A has insufficient credits, B sends all of its small messages in order
+        for (int i = 0; i < 4; i++) {
+            MessageBlockWithMetadata message = prioritizer.takeNext().get();
+            assertEquals(CHANNEL_B, message.getChannelId());
+            assertEquals(i + 1, message.getDataLength());
+        }
+        // the remaining messages of channel A
+        for (int i = 0; i < 3; i++) {
+            assertEquals(CHANNEL_A, prioritizer.takeNext().get().getChannelId());
+        }
+        assertFalse(prioritizer.takeNext().isPresent());
+        assertTrue(prioritizer.getChannelQueueStatistics().isEmpty());
+    }
+
+    private void submitOrFail(BoundedMessageBlockPrioritizer prioritizer, long channelId, byte[] data, MessageBlockPriority priority)
+        throws OperationFailureException, InterruptedException, ProtocolException {
+        prioritizer.submitOrFail(new MessageBlockWithMetadata(MessageType.TEST.getCode(), data, channelId, priority), DEFAULT_LOG_PREFIX);
+    }
+
     private void submitOrFail(BoundedMessageBlockPrioritizer prioritizer, MessageBlock messageBlock, MessageBlockPriority priority)
         throws OperationFailureException, InterruptedException, ProtocolException {
         prioritizer.submitOrFail(new MessageBlockWithMetadata(messageBlock, UplinkProtocolConstants.UNDEFINED_CHANNEL_ID, priority),
@@ -11,6 +11,7 @@ package de.rcenvironment.core.communication.uplink.client.session.internal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
@@ -21,7 +22,9 @@ import de.rcenvironment.core.command.spi.CommandDescription;
 import de.rcenvironment.core.command.spi.CommandPlugin;
 import de.rcenvironment.core.communication.sshconnection.SshConnectionContext;
 import de.rcenvironment.core.communication.uplink.client.session.api.SshUplinkConnectionService;
+import de.rcenvironment.core.communication.uplink.client.session.api.ClientSideUplinkSession;
 import de.rcenvironment.core.communication.uplink.client.session.api.SshUplinkConnectionSetup;
+import de.rcenvironment.core.communication.uplink.session.api.ChannelQueueStatistics;
 import de.rcenvironment.core.toolkitbridge.transitional.ConcurrencyUtils;
 import de.rcenvironment.core.utils.common.StringUtils;
 
@@ -121,6 +124,20 @@ public class SshUplinkConnectionSetupCommandPlugin implements CommandPlugin {
                 setup.getUsername(), setup.getKeyfileLocation(),
                 setup.getQualifier(), setup.isGateway(), setup.getId(),
                 setup.isConnected()));
+            final ClientSideUplinkSession session = setup.getSession();
+            if (setup.isConnected() && session != null) {
+                printOutgoingChannelQueues(context, session);
+            }
+        }
+    }
+
+    private void printOutgoingChannelQueues(CommandContext context, ClientSideUplinkSession session) {
+        for (Map.Entry<Long, ChannelQueueStatistics> entry : session.getOutgoingChannelQueueStatistics().entrySet()) {
+            final ChannelQueueStatistics statistics = entry.getValue();
+            context.println(StringUtils.format(
+                "  Channel %d: %d outgoing messages queued (%d bytes), oldest one waiting for %d msec",
+                entry.getKey(), statistics.getQueuedMessages(), statistics.getQueuedBytes(),
+                statistics.getLongestQueueTimeMsec()));
         }
     }
 
@@ -191,7 +208,7 @@ public class SshUplinkConnectionSetupCommandPlugin implements CommandPlugin {
             false, "add a new uplink connection"));
         contributions.add(new CommandDescription(CMD_SSH_UPLINK + " list", "",
             false,
-            "lists all uplink connections, including ids and connection states"));
+            "lists all uplink connections, including ids, connection states and the outgoing message queues of their channels"));
         contributions.add(new CommandDescription(CMD_SSH_UPLINK + " start",
             "<id>", false, "starts/connects an uplink connection (use \" "
                 + CMD_SSH_UPLINK + " list\" to get the id)"));
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.communication.uplink.common.internal;
+
+/**
+ * Determines the chunk size of a data transfer from the measured latency of previously sent chunks, i.e., the time between submitting a
+ * chunk for sending and it being written to the connection. As there is no acknowledgement of individual chunks in the Uplink protocol,
+ * this local latency is used as the round-trip time estimate; it includes queueing behind other messages and TCP backpressure, so it rises
+ * on slow or congested connections.
+ * <p>
+ * The latency samples are smoothed in the style of TCP's round-trip time estimation. The chunk size is doubled while the smoothed latency
+ * is below half of the target latency, and halved while it is above the target latency, always staying within the given bounds. This
+ * results in large chunks (and therefore less per-message overhead) on fast connections, and in small chunks on slow ones, so the amount
+ * of data in flight, and with it the queueing delay for other channels and cancellation requests, stays bounded.
+ * <p>
+ * This class is thread-safe, as samples are typically reported from the thread that sends messages.
+ * 
+ * @author agent
+ */
+public final class AdaptiveChunkSizeController {
+
+    // the weight of each new sample in the smoothed latency, as in TCP's round-trip time estimation (RFC 6298)
+    private static final int SMOOTHING_DIVISOR = 8;
+
+    private final int minChunkSize;
+
+    private final int maxChunkSize;
+
+    private final long targetLatency;
+
+    private int chunkSize;
+
+    private long smoothedLatency = -1; // -1 = no sample yet
+
+    /**
+     * @param initialChunkSize the chunk size to start with
+     * @param minChunkSize the lower bound of the chunk size
+     * @param maxChunkSize the upper bound of the chunk size
+     * @param targetLatency the target latency (in msec)
+     */
+    public AdaptiveChunkSizeController(int initialChunkSize, int minChunkSize, int maxChunkSize, long targetLatency) {
+        if (minChunkSize <= 0 || minChunkSize > initialChunkSize || initialChunkSize > maxChunkSize || targetLatency <= 0) {
+            throw new IllegalArgumentException("Invalid chunk size or latency parameters");
+        }
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.targetLatency = targetLatency;
+        this.chunkSize = initialChunkSize;
+    }
+
+    /**
+     * @return the size to use for the next chunk
+     */
+    public synchronized int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Reports the measured latency of a sent chunk, and adapts the chunk size accordingly.
+     * 
+     * @param latency the time (in msec) between submitting the chunk and it being written to the connection
+     */
+    public synchronized void registerLatencySample(long latency) {
+        if (smoothedLatency < 0) {
+            smoothedLatency = latency;
+        } else {
+            smoothedLatency += (latency - smoothedLatency) / SMOOTHING_DIVISOR;
+        }
+        if (smoothedLatency * 2 < targetLatency) {
+            chunkSize = Math.min(chunkSize * 2, maxChunkSize);
+        } else if (smoothedLatency > targetLatency) {
+            chunkSize = Math.max(chunkSize / 2, minChunkSize);
+        }
+    }
+
+    /**
+     * @return the current smoothed latency (in msec), or -1 if no sample was registered yet
+     */
+    public synchronized long getSmoothedLatency() {
+        return smoothedLatency;
+    }
+}
@@ -14,6 +14,7 @@ import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 
 import de.rcenvironment.core.communication.uplink.network.internal.MessageBlock;
+import de.rcenvironment.core.communication.uplink.network.internal.UplinkProtocolConstants;
 import de.rcenvironment.core.utils.common.SizeValidatedDataSource;
 import de.rcenvironment.core.utils.common.exception.ProtocolException;
 
@@ -27,6 +28,8 @@ import de.rcenvironment.core.utils.common.exception.ProtocolException;
  */
 public abstract class DataStreamDownloadWrapper<T extends SizeValidatedDataSource> {
 
+    private static final int MIN_PIPE_SIZE = 1024; // the default size of PipedInputStream
+
     private long totalSize;
 
     private long received;
@@ -56,7 +59,9 @@ public abstract class DataStreamDownloadWrapper<T extends SizeValidatedDataSourc
         this.totalSize = size;
         this.localOutputStream = new PipedOutputStream();
         this.expectedMessageBlockType = messageBlockType;
-        final PipedInputStream inputStream = new PipedInputStream(localOutputStream);
+        // size the pipe buffer so that a received data block can usually be written without waiting for the reader
+        final int pipeSize = (int) Math.max(MIN_PIPE_SIZE, Math.min(size, UplinkProtocolConstants.MAX_MESSAGE_BLOCK_DATA_LENGTH));
+        final PipedInputStream inputStream = new PipedInputStream(localOutputStream, pipeSize);
         if (size == 0) {
             // finish immediately, as no data block will be received
             localOutputStream.close();
@@ -9,51 +9,129 @@
 package de.rcenvironment.core.communication.uplink.common.internal;
 
 import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
 import de.rcenvironment.core.communication.uplink.network.api.AsyncMessageBlockSender;
 import de.rcenvironment.core.communication.uplink.network.api.MessageBlockPriority;
 import de.rcenvironment.core.communication.uplink.network.internal.MessageBlock;
+import de.rcenvironment.core.communication.uplink.network.internal.UplinkProtocolConfiguration;
 import de.rcenvironment.core.communication.uplink.network.internal.UplinkProtocolConstants;
+import de.rcenvironment.core.toolkitbridge.transitional.StatsCounter;
 import de.rcenvironment.core.utils.common.SizeValidatedDataSource;
+import de.rcenvironment.core.utils.common.StringUtils;
 import de.rcenvironment.core.utils.common.exception.ProtocolException;
 
 /**
  * A wrapper encapsulating the splitting of local known-length byte stream sources into {@link MessageBlock}s, and forwarding them to a
  * {@link AsyncMessageBlockSender}. Currently, each wrapper instance <em>is</em> reusable; however, for future-proofing, it is recommended
  * to use a new instance for each upload.
- *
+ * <p>
+ * The number of chunks of each upload that may be queued for sending at the same time is limited by
+ * {@link UplinkProtocolConfiguration#getFileTransferWindowSize()}. Unless disabled via
+ * {@link UplinkProtocolConfiguration#isAdaptiveFileTransferChunkSize()}, the chunk size is adapted to the measured send latency using an
+ * {@link AdaptiveChunkSizeController}. Once the last chunk of an upload has been sent, its throughput is logged and registered in the
+ * {@link StatsCounter} statistics.
+ * 
  * @author Robert Mischke
  */
 public class DataStreamUploadWrapper {
 
+    private static final String STATS_CATEGORY = "Uplink: Data transfers";
+
     private final AsyncMessageBlockSender messageBlockSender;
 
-    public DataStreamUploadWrapper(AsyncMessageBlockSender messageBlockSender) {
+    private final String logPrefix;
+
+    private final Log log = LogFactory.getLog(getClass());
+
+    public DataStreamUploadWrapper(AsyncMessageBlockSender messageBlockSender, String logPrefix) {
         this.messageBlockSender = messageBlockSender;
+        this.logPrefix = logPrefix;
     }
 
     /**
      * Reads all data from the provided {@link SizeValidatedDataSource}, converts them to a sequence of {@link MessageBlock}s of the given
-     * type, and passes them to the {@link AsyncMessageBlockSender} passed to the constructor.
+     * type, and passes them to the {@link AsyncMessageBlockSender} passed to the constructor. Blocks while the upload's window of queued
+     * chunks is full. Stops as soon as a chunk is reported as discarded, e.g. because the session is shutting down.
      * 
      * @param channelId the channel id to write into the generated {@link MessageBlock}s
      * @param messageType the {@link MessageType} to use for the generated {@link MessageBlock}s
      * @param dataSource the source to read the data from
-     * @throws IOException on I/O or encoding protocol errors
+     * @throws IOException on I/O or encoding protocol errors, or if a chunk could not be sent
      */
     public void uploadFromDataSource(long channelId, MessageType messageType, SizeValidatedDataSource dataSource) throws IOException {
+        final UplinkProtocolConfiguration configuration = UplinkProtocolConfiguration.getCurrent();
+        final int initialChunkSize = (int) UplinkProtocolConstants.MAX_FILE_TRANSFER_CHUNK_SIZE;
+        final AdaptiveChunkSizeController chunkSizeController;
+        if (configuration.isAdaptiveFileTransferChunkSize()) {
+            chunkSizeController = new AdaptiveChunkSizeController(initialChunkSize, UplinkProtocolConstants.MIN_FILE_TRANSFER_CHUNK_SIZE,
+                UplinkProtocolConstants.MAX_MESSAGE_BLOCK_DATA_LENGTH, configuration.getFileTransferTargetChunkLatency());
+        } else {
+            chunkSizeController = null;
+        }
+        final Semaphore window = new Semaphore(configuration.getFileTransferWindowSize());
+        final long totalSize = dataSource.getRemaining();
+        final long startTime = System.currentTimeMillis();
+        final AtomicLong bytesSent = new AtomicLong();
+        final AtomicBoolean chunkDiscarded = new AtomicBoolean();
+
         while (!dataSource.receivedCompletely()) {
-            final MessageBlock nextChunk = encodeNextDataBlock(messageType, dataSource);
+            checkNoChunkDiscarded(chunkDiscarded);
+            final int chunkSize;
+            if (chunkSizeController != null) {
+                chunkSize = chunkSizeController.getChunkSize();
+            } else {
+                chunkSize = initialChunkSize;
+            }
+            final MessageBlock nextChunk = encodeNextDataBlock(messageType, dataSource, chunkSize);
+            try {
+                window.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(logPrefix + "Interrupted while waiting to send the next data block");
+            }
+            // the permit may have been released by a discarded chunk
+            checkNoChunkDiscarded(chunkDiscarded);
+            final long submissionTime = System.currentTimeMillis();
+            final Consumer<Boolean> sendCompletionCallback = sent -> {
+                if (!sent) {
+                    // set before releasing the permit, so the waiting upload thread sees it
+                    chunkDiscarded.set(true);
+                    window.release();
+                    return;
+                }
+                window.release();
+                final long now = System.currentTimeMillis();
+                if (chunkSizeController != null) {
+                    chunkSizeController.registerLatencySample(now - submissionTime);
+                }
+                if (bytesSent.addAndGet(nextChunk.getDataLength()) == totalSize) {
+                    reportThroughput(totalSize, now - startTime, chunkSize);
+                }
+            };
             // parameter "true": allow blocking on queue congestion/backpressure to adapt upload speed
-            messageBlockSender.enqueueMessageBlockForSending(channelId, nextChunk, MessageBlockPriority.BLOCKABLE_CHANNEL_OPERATION, true);
+            messageBlockSender.enqueueMessageBlockForSending(channelId, nextChunk, MessageBlockPriority.BLOCKABLE_CHANNEL_OPERATION, true,
+                sendCompletionCallback);
         }
     }
 
-    private MessageBlock encodeNextDataBlock(MessageType messageType, SizeValidatedDataSource dataSource)
+    private void checkNoChunkDiscarded(AtomicBoolean chunkDiscarded) throws IOException {
+        if (chunkDiscarded.get()) {
+            throw new IOException(
+                logPrefix + "Aborting the upload as a data block could not be sent, e.g. because the session is shutting down");
+        }
+    }
+
+    private MessageBlock encodeNextDataBlock(MessageType messageType, SizeValidatedDataSource dataSource, int chunkSize)
         throws IOException {
-        int bufferSize = (int) Math.min(dataSource.getRemaining(), UplinkProtocolConstants.MAX_FILE_TRANSFER_CHUNK_SIZE);
+        int bufferSize = (int) Math.min(dataSource.getRemaining(), chunkSize);
         if (bufferSize < 1) {
             throw new ProtocolException("Attempted to create a message block from an already-finished data stream");
         }
@@ -62,4 +140,13 @@ public class DataStreamUploadWrapper {
         IOUtils.readFully(dataSource.getStream(), buffer);
         return new MessageBlock(messageType.getCode(), buffer);
     }
+
+    private void reportThroughput(long totalSize, long duration, int finalChunkSize) {
+        // note: the duration is at least 1 msec to avoid division by zero
+        final long throughput = totalSize * 1000 / 1024 / Math.max(duration, 1); // kb/s
+        log.debug(StringUtils.format("%sSent %d bytes of data in %d msec (%d kb/s); final chunk size: %d bytes", logPrefix, totalSize,
+            duration, throughput, finalChunkSize));
+        StatsCounter.registerValue(STATS_CATEGORY, "Upload throughput (kb/s)", throughput);
+        StatsCounter.registerValue(STATS_CATEGORY, "Final chunk size of uploads (bytes)", finalChunkSize);
+    }
 }
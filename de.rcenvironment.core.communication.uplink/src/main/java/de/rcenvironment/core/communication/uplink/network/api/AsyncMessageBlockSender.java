@@ -8,6 +8,8 @@
 
 package de.rcenvironment.core.communication.uplink.network.api;
 
+import java.util.function.Consumer;
+
 import de.rcenvironment.core.communication.uplink.network.internal.MessageBlock;
 import de.rcenvironment.core.utils.common.exception.ProtocolException;
 
@@ -32,4 +34,21 @@ public interface AsyncMessageBlockSender {
      */
     void enqueueMessageBlockForSending(long channelId, MessageBlock messageBlock, MessageBlockPriority priority, boolean allowBlocking)
         throws ProtocolException;
+
+    /**
+     * Same as {@link #enqueueMessageBlockForSending(long, MessageBlock, MessageBlockPriority, boolean)}, but additionally invokes the given
+     * callback once the {@link MessageBlock} has left the internal queue, i.e. after it was written to the connection, or was discarded
+     * because of a session shutdown or an error. This allows data transfers to track their progress, e.g. for flow control, and to stop
+     * once their data can no longer be sent.
+     * 
+     * @param channelId the id of the virtual channel to send this {@link MessageBlock} to
+     * @param messageBlock the {@link MessageBlock} to send
+     * @param priority the {@link MessageBlockPriority} for selecting which messages to transmit first; the value itself is not transmitted
+     * @param allowBlocking see {@link #enqueueMessageBlockForSending(long, MessageBlock, MessageBlockPriority, boolean)}
+     * @param sendCompletionCallback the callback to invoke with true if the message block was written to the connection, and false if it
+     *        was discarded; must return quickly, as it may be invoked by the thread sending messages
+     * @throws ProtocolException on an invalid message or channel id
+     */
+    void enqueueMessageBlockForSending(long channelId, MessageBlock messageBlock, MessageBlockPriority priority, boolean allowBlocking,
+        Consumer<Boolean> sendCompletionCallback) throws ProtocolException;
 }
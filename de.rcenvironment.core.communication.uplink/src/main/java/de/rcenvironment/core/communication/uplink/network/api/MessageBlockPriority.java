@@ -19,11 +19,11 @@ import de.rcenvironment.core.communication.uplink.network.internal.MessageBlock;
  * messages in the future, too. (It is not clear whether the latter is actually useful, though, as it would have to be derived from the
  * message's type or content, at which point custom processing can be initiated anyway.)
  * <p>
- * IMPORTANT: When implementing protocol flows, keep in mind that messages within the same priority are guaranteed to be sequential in
- * relation to each other, but NOT in relation to other priorities. Therefore, when a certain sequence of messages must be maintained
- * (typically for a sub-protocol within a channel), make sure that they are sent using the same {@link #SendPriority()}. Switching to a
- * different priority can be done, but should only occur in response to a synchronizing event, e.g. receiving a certain response message
- * from the remote side. -- misc_ro
+ * IMPORTANT: When implementing protocol flows, keep in mind that messages of the same channel and priority are guaranteed to be
+ * sequential in relation to each other, but NOT in relation to other priorities or to the messages of other channels. Therefore, when a
+ * certain sequence of messages must be maintained (typically for a sub-protocol within a channel), make sure that they are sent using the
+ * same {@link #SendPriority()}. Switching to a different priority can be done, but should only occur in response to a synchronizing event,
+ * e.g. receiving a certain response message from the remote side. -- misc_ro
  *
  * @author Robert Mischke
  */
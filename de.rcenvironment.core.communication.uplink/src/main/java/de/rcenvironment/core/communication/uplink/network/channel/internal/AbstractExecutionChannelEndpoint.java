@@ -78,8 +78,8 @@ public abstract class AbstractExecutionChannelEndpoint extends AbstractChannelEn
                     // see above
                     enqueueMessageBlockForSending(messageConverter.encodeFileHeader(fileHeader),
                         MessageBlockPriority.BLOCKABLE_CHANNEL_OPERATION, true);
-                    new DataStreamUploadWrapper(asyncMessageBlockSender).uploadFromDataSource(channelId, MessageType.FILE_CONTENT,
-                        dataSource);
+                    new DataStreamUploadWrapper(asyncMessageBlockSender, channelLogPrefix).uploadFromDataSource(channelId,
+                        MessageType.FILE_CONTENT, dataSource);
                     if (VERBOSE_FILE_TRANSFER_LOGGING_ENABLED) {
                         log.debug(StringUtils.format("%sFinished upload of '%s'", channelLogPrefix, fileHeader.getPath()));
                     }
@@ -83,7 +83,7 @@ public class DocumentationChannelProviderEndpoint extends AbstractChannelEndpoin
     private void sendDocumentationData(final long channelId, SizeValidatedDataSource data) throws IOException {
         try {
             final DataStreamUploadWrapper uploadWrapper =
-                new DataStreamUploadWrapper(asyncMessageBlockSender);
+                new DataStreamUploadWrapper(asyncMessageBlockSender, channelLogPrefix);
             uploadWrapper.uploadFromDataSource(channelId, MessageType.TOOL_DOCUMENTATION_CONTENT, data);
         } catch (IOException e) {
             log.error("Error while converting documentation data into a network message", e);
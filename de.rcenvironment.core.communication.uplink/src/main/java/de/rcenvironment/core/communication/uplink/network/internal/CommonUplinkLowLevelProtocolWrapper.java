@@ -8,6 +8,7 @@
 
 package de.rcenvironment.core.communication.uplink.network.internal;
 
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -56,6 +57,9 @@ public abstract class CommonUplinkLowLevelProtocolWrapper {
 
     private static final int HANDSHAKE_MESSAGE_WAIT_CHECK_INTERVAL = 100;
 
+    // large enough for the header and the data of typical non-bulk message blocks
+    private static final int OUTPUT_STREAM_BUFFER_SIZE = 8 * 1024;
+
     protected final StreamConnectionEndpoint connectionEndpoint;
 
     protected final DataInputStream dataInputStream;
@@ -78,7 +82,10 @@ public abstract class CommonUplinkLowLevelProtocolWrapper {
         UplinkConnectionLowLevelEventHandler eventHandler, String logIdentity) {
         this.connectionEndpoint = connectionEndpoint;
         this.dataInputStream = new DataInputStream(connectionEndpoint.getInputStream());
-        this.dataOutputStream = new DataOutputStream(connectionEndpoint.getOutputStream());
+        // buffered to write each message block's header and data with a single underlying write call where possible; all write
+        // operations must flush the stream afterwards
+        this.dataOutputStream =
+            new DataOutputStream(new BufferedOutputStream(connectionEndpoint.getOutputStream(), OUTPUT_STREAM_BUFFER_SIZE));
         this.eventHandler = eventHandler;
         this.jsonMapper = JsonUtils.getDefaultObjectMapper();
         this.messageConverter = new UplinkProtocolMessageConverter(logIdentity);
@@ -130,7 +137,7 @@ public abstract class CommonUplinkLowLevelProtocolWrapper {
             dataOutputStream.writeInt(data.length); // 4 bytes of size data
             dataOutputStream.writeByte(messageBlock.getType().getCode()); // 1 byte of message type
             dataOutputStream.write(data);
-            dataOutputStream.flush(); // TODO potential optimization: avoid flushing after every block?
+            dataOutputStream.flush(); // required, as blocks smaller than the output buffer would remain buffered otherwise
             if (verboseLoggingEnabled) {
                 log.debug(
                     StringUtils.format("%s[//%d] Finished sending a message of type %s, payload size %d bytes",
@@ -179,6 +186,7 @@ public abstract class CommonUplinkLowLevelProtocolWrapper {
             throw new ProtocolException("Handshake array length does not match the expected byte count");
         }
         dataOutputStream.write(initBytes);
+        dataOutputStream.flush();
         if (verboseLoggingEnabled) {
             log.debug(logPrefix + "Sent handshake init (" + initBytes.length + " bytes)");
         }
@@ -8,6 +8,8 @@
 
 package de.rcenvironment.core.communication.uplink.network.internal;
 
+import java.util.function.Consumer;
+
 import de.rcenvironment.core.communication.uplink.network.api.MessageBlockPriority;
 import de.rcenvironment.core.utils.common.exception.ProtocolException;
 
@@ -21,6 +23,9 @@ public final class MessageBlockWithMetadata extends MessageBlock {
     // local only; not transmitted
     private long queueStartTime; // for tracking local "time until sent", "time until processed", or similar
 
+    // local only; not transmitted
+    private Consumer<Boolean> sendCompletionCallback; // for tracking the progress of data transfers; may be null
+
     // design note: if message cancellation (e.g. for incomplete bulk transfers) is needed, consider adding the flag here, too
 
     public MessageBlockWithMetadata(int type, byte[] data, long channelId, MessageBlockPriority priority) throws ProtocolException {
@@ -50,4 +55,12 @@ public final class MessageBlockWithMetadata extends MessageBlock {
     public void setLocalQueueStartTime(long localProcessingStartTime) {
         this.queueStartTime = localProcessingStartTime;
     }
+
+    public Consumer<Boolean> getSendCompletionCallback() {
+        return sendCompletionCallback;
+    }
+
+    public void setSendCompletionCallback(Consumer<Boolean> sendCompletionCallback) {
+        this.sendCompletionCallback = sendCompletionCallback;
+    }
 }
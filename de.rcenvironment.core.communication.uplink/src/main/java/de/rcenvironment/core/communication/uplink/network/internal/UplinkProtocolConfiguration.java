@@ -49,8 +49,8 @@ public final class UplinkProtocolConfiguration {
      * was selected on submitting messages to this queue (which is not the case as of 10.2.4), this would cause intentional session aborts
      * on reaching this buffer size to protect the server, but at the cost of disconnecting data-receiving clients.
      * 
-     * For file transfers, the total buffered data volume is (this value * number of file-transferring sessions * 32kb), the latter being
-     * the maximum file transfer block size.
+     * For file transfers, the total buffered data volume is (this value * number of file-transferring sessions * chunk size), the latter
+     * being 32kb by default, and up to the maximum message block size (256kb) with adaptive chunk sizing on fast connections.
      */
     private static final int DEFAULT_MAX_BUFFERED_MESSAGES_FOR_PRIORITY_LOW_BLACK_BOX_FORWARDING = 20; // adjust as necessary
 
@@ -66,6 +66,22 @@ public final class UplinkProtocolConfiguration {
 
     // individual parameters' default values below; these are applied to the fields on initialization
 
+    /**
+     * See {@link #getOutgoingByteCreditsPerChannelAndRound()} JavaDoc. Matches the file transfer chunk size (plus header), so a
+     * transferring channel sends one chunk per round, while other channels may send a comparable amount of smaller messages in between.
+     */
+    private static final int DEFAULT_OUTGOING_BYTE_CREDITS_PER_CHANNEL_AND_ROUND =
+        (int) UplinkProtocolConstants.MAX_FILE_TRANSFER_CHUNK_SIZE + 1024;
+
+    /**
+     * See {@link #getFileTransferWindowSize()} JavaDoc. Note that the effective limit may be lower, as the queue limit of
+     * {@link MessageBlockPriority#BLOCKABLE_CHANNEL_OPERATION} is shared by all channels of a session.
+     */
+    private static final int DEFAULT_FILE_TRANSFER_WINDOW_SIZE = 8;
+
+    // see field getter JavaDoc for description
+    private static final int DEFAULT_FILE_TRANSFER_TARGET_CHUNK_LATENCY_MSEC = 200;
+
     /**
      * See {@link #getMaxBufferedIncomingMessagesPerSession()} JavaDoc.
      */
@@ -93,6 +109,14 @@ public final class UplinkProtocolConfiguration {
 
     private int maxBufferedIncomingMessagesPerSession = DEFAULT_MAX_BUFFERED_INCOMING_MESSAGES_PER_SESSION;
 
+    private int outgoingByteCreditsPerChannelAndRound = DEFAULT_OUTGOING_BYTE_CREDITS_PER_CHANNEL_AND_ROUND;
+
+    private boolean adaptiveFileTransferChunkSize = true;
+
+    private int fileTransferWindowSize = DEFAULT_FILE_TRANSFER_WINDOW_SIZE;
+
+    private int fileTransferTargetChunkLatency = DEFAULT_FILE_TRANSFER_TARGET_CHUNK_LATENCY_MSEC;
+
     private int handshakeResponseTimeout = DEFAULT_HANDSHAKE_RESPONSE_TIMEOUT_MSEC;
 
     private int heartbeatServerToClientSendIntervalAverage = DEFAULT_HEARTBEAT_SERVER_TO_CLIENT_SEND_INTERVAL_AVERAGE_MSEC;
@@ -171,6 +195,26 @@ public final class UplinkProtocolConfiguration {
             return this;
         }
 
+        public Builder setOutgoingByteCreditsPerChannelAndRound(int outgoingByteCreditsPerChannelAndRound) {
+            instance.outgoingByteCreditsPerChannelAndRound = outgoingByteCreditsPerChannelAndRound;
+            return this;
+        }
+
+        public Builder setAdaptiveFileTransferChunkSize(boolean adaptiveFileTransferChunkSize) {
+            instance.adaptiveFileTransferChunkSize = adaptiveFileTransferChunkSize;
+            return this;
+        }
+
+        public Builder setFileTransferWindowSize(int fileTransferWindowSize) {
+            instance.fileTransferWindowSize = fileTransferWindowSize;
+            return this;
+        }
+
+        public Builder setFileTransferTargetChunkLatency(int fileTransferTargetChunkLatency) {
+            instance.fileTransferTargetChunkLatency = fileTransferTargetChunkLatency;
+            return this;
+        }
+
     }
 
     public static UplinkProtocolConfiguration getCurrent() {
@@ -253,4 +297,40 @@ public final class UplinkProtocolConfiguration {
     public int getMaxBufferedIncomingMessagesPerSession() {
         return maxBufferedIncomingMessagesPerSession;
     }
+
+    /**
+     * The number of bytes that each channel may send per scheduling round of {@link BoundedMessageBlockPrioritizer}, within each priority
+     * level. Credits that are not used in a round are carried over while the channel has queued messages, so messages larger than this
+     * value are still sent, but only every few rounds.
+     * 
+     * @return the byte credits per channel and round
+     */
+    public int getOutgoingByteCreditsPerChannelAndRound() {
+        return outgoingByteCreditsPerChannelAndRound;
+    }
+
+    /**
+     * @return If true, the chunk size of outgoing data transfers is adapted to the measured send latency of previous chunks, ranging from
+     *         {@link UplinkProtocolConstants#MIN_FILE_TRANSFER_CHUNK_SIZE} to
+     *         {@link UplinkProtocolConstants#MAX_MESSAGE_BLOCK_DATA_LENGTH}; if false,
+     *         {@link UplinkProtocolConstants#MAX_FILE_TRANSFER_CHUNK_SIZE} is always used.
+     */
+    public boolean isAdaptiveFileTransferChunkSize() {
+        return adaptiveFileTransferChunkSize;
+    }
+
+    /**
+     * @return The maximum number of chunks of a single data transfer that may be queued or in the process of being sent at the same time.
+     */
+    public int getFileTransferWindowSize() {
+        return fileTransferWindowSize;
+    }
+
+    /**
+     * @return The time (in msec) between submitting a data transfer chunk and it being written to the connection that adaptive chunk
+     *         sizing aims for; the chunk size is increased while the measured time is well below this value, and decreased above it.
+     */
+    public int getFileTransferTargetChunkLatency() {
+        return fileTransferTargetChunkLatency;
+    }
 }
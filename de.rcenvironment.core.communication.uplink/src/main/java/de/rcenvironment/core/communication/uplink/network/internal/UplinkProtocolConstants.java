@@ -195,11 +195,18 @@ public final class UplinkProtocolConstants {
     public static final int MAX_MESSAGE_BLOCK_DATA_LENGTH = 256 * 1024; // 256 kb
 
     /**
-     * The maximum data length of FILE_CONTENT message blocks. If there is sufficient data remaining in the source file, this size is always
-     * used, so the only messages smaller than that will be the final ones of each file.
+     * The data length of FILE_CONTENT message blocks without adaptive chunk sizing, and the initial length with it. If there is sufficient
+     * data remaining in the source file, this size is always used in the former case, so the only messages smaller than that will be the
+     * final ones of each file. With adaptive chunk sizing, the length varies between {@link #MIN_FILE_TRANSFER_CHUNK_SIZE} and
+     * {@link #MAX_MESSAGE_BLOCK_DATA_LENGTH}; as receivers accept any length up to the latter, this is a purely local decision.
      */
     // note: this was lowered in 10.2.3; was using MAX_MESSAGE_BLOCK_DATA_LENGTH before
-    public static final long MAX_FILE_TRANSFER_CHUNK_SIZE = 32 * 1024; // maybe go even lower? should be benchmarked to optimize
+    public static final long MAX_FILE_TRANSFER_CHUNK_SIZE = 32 * 1024;
+
+    /**
+     * The lower bound of FILE_CONTENT message block lengths with adaptive chunk sizing.
+     */
+    public static final int MIN_FILE_TRANSFER_CHUNK_SIZE = 8 * 1024;
 
     /**
      * The type id for Uplink channels handling the communication regarding a tool execution.
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.communication.uplink.session.api;
+
+/**
+ * A snapshot of the outgoing messages of a single channel that are queued for sending by an {@link UplinkSession}, summed up over all
+ * priority levels.
+ * 
+ * @author agent
+ */
+public final class ChannelQueueStatistics {
+
+    private final int queuedMessages;
+
+    private final long queuedBytes;
+
+    private final long longestQueueTimeMsec;
+
+    public ChannelQueueStatistics(int queuedMessages, long queuedBytes, long longestQueueTimeMsec) {
+        this.queuedMessages = queuedMessages;
+        this.queuedBytes = queuedBytes;
+        this.longestQueueTimeMsec = longestQueueTimeMsec;
+    }
+
+    public int getQueuedMessages() {
+        return queuedMessages;
+    }
+
+    public long getQueuedBytes() {
+        return queuedBytes;
+    }
+
+    /**
+     * @return the time (in msec) that the oldest queued message of this channel has been waiting so far
+     */
+    public long getLongestQueueTimeMsec() {
+        return longestQueueTimeMsec;
+    }
+}
@@ -8,6 +8,7 @@
 
 package de.rcenvironment.core.communication.uplink.session.api;
 
+import java.util.Map;
 import java.util.Optional;
 
 import de.rcenvironment.core.communication.uplink.network.api.AsyncMessageBlockSender;
@@ -68,6 +69,11 @@ public interface UplinkSession extends AsyncMessageBlockSender {
      */
     boolean isActive();
 
+    /**
+     * @return the current state of the outgoing message queues of all channels that have messages waiting to be sent, by channel id
+     */
+    Map<Long, ChannelQueueStatistics> getOutgoingChannelQueueStatistics();
+
     /**
      * Requests to close the local end of this session, unless it is already shut down or in the process of shutting down.
      */
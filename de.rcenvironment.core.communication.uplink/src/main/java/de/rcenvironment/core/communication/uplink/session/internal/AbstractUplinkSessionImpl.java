@@ -9,9 +9,11 @@
 package de.rcenvironment.core.communication.uplink.session.internal;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -25,6 +27,7 @@ import de.rcenvironment.core.communication.uplink.network.internal.UplinkConnect
 import de.rcenvironment.core.communication.uplink.network.internal.UplinkProtocolConfiguration;
 import de.rcenvironment.core.communication.uplink.network.internal.UplinkProtocolConstants;
 import de.rcenvironment.core.communication.uplink.network.internal.UplinkProtocolErrorType;
+import de.rcenvironment.core.communication.uplink.session.api.ChannelQueueStatistics;
 import de.rcenvironment.core.communication.uplink.session.api.UplinkSession;
 import de.rcenvironment.core.communication.uplink.session.api.UplinkSessionState;
 import de.rcenvironment.core.toolkitbridge.transitional.ConcurrencyUtils;
@@ -529,9 +532,20 @@ public abstract class AbstractUplinkSessionImpl implements UplinkSession {
         return sessionState.isShuttingDownOrShutDown();
     }
 
+    @Override
+    public Map<Long, ChannelQueueStatistics> getOutgoingChannelQueueStatistics() {
+        return boundedMessageOutbox.getChannelQueueStatistics();
+    }
+
     @Override
     public final void enqueueMessageBlockForSending(long channelId, MessageBlock messageBlock, MessageBlockPriority priority,
         boolean allowBlocking) throws ProtocolException {
+        enqueueMessageBlockForSending(channelId, messageBlock, priority, allowBlocking, null);
+    }
+
+    @Override
+    public final void enqueueMessageBlockForSending(long channelId, MessageBlock messageBlock, MessageBlockPriority priority,
+        boolean allowBlocking, Consumer<Boolean> sendCompletionCallback) throws ProtocolException {
 
         if (DEBUG_OUTPUT_ENABLED) {
             log.debug(StringUtils.format("%sEnqueuing message of type %s for sending to channel %d with priority %s, payload size %d bytes",
@@ -539,6 +553,7 @@ public abstract class AbstractUplinkSessionImpl implements UplinkSession {
         }
 
         final MessageBlockWithMetadata wrappedMessage = new MessageBlockWithMetadata(messageBlock, channelId, priority);
+        wrappedMessage.setSendCompletionCallback(sendCompletionCallback);
         try {
             if (allowBlocking) {
                 boundedMessageOutbox.submitOrBlock(wrappedMessage, logPrefix);
@@ -552,11 +567,13 @@ public abstract class AbstractUplinkSessionImpl implements UplinkSession {
                     // TODO 10.3.0+ this does not register a "fatal error", so a "Session ended ... without a previous fatal error message"
                     // will be logged later
                     initiateUncleanShutdownIfStillRunning();
+                    runSendCompletionCallback(wrappedMessage, false); // the message was discarded
                 }
             }
         } catch (InterruptedException e1) {
             Thread.currentThread().interrupt();
             log.warn(logPrefix + "Interrupted while waiting to enqueue a message of type " + messageBlock.getType());
+            runSendCompletionCallback(wrappedMessage, false); // the message was discarded
             return;
         }
 
@@ -762,6 +779,8 @@ public abstract class AbstractUplinkSessionImpl implements UplinkSession {
             if (optionalNext.isPresent()) {
                 log.debug(logPrefix + "Draining enqueued message of type " + optionalNext.get().getType()
                     + " to speed up sending of GOODBYE message on session shutdown");
+                // release waiting senders, e.g. data transfers limiting their number of queued message blocks
+                runSendCompletionCallback(optionalNext.get(), false);
             } else {
                 break;
             }
@@ -782,22 +801,46 @@ public abstract class AbstractUplinkSessionImpl implements UplinkSession {
         }
 
         MessageBlockWithMetadata messageBlock = optionalMessageBlock.get(); // unwrap
+        boolean sent = false;
+        try {
+            sent = sendMessageBlockFromQueue(messageBlock);
+        } finally {
+            runSendCompletionCallback(messageBlock, sent);
+        }
+    }
 
+    /**
+     * @return true if the message block was written to the connection
+     */
+    private boolean sendMessageBlockFromQueue(MessageBlockWithMetadata messageBlock) {
         // do not send anything except goodbye messages when shutting down
         // note 1: GOODBYE messages are not actually sent via this queue at this time
         // note 2: isShuttingDownOrShutDown() requires the session's state lock, so this method must not be called with any locks held
         if (isShuttingDownOrShutDown() && messageBlock.getType() != MessageType.GOODBYE) {
             log.debug(logPrefix + "Discarding enqueued message of type " + messageBlock.getType() + " as the session is shutting down");
-            return;
+            return false;
         }
         try {
             getProtocolWrapper().sendMessageBlock(messageBlock.getChannelId(), messageBlock);
             if (DEBUG_OUTPUT_ENABLED) {
                 log.debug(logPrefix + "Successfully sent message of type " + messageBlock.getType());
             }
+            return true;
         } catch (IOException e) {
             log.error("Error during asynchronous sending of message with type " + messageBlock.getType());
             handleStreamWriteError(e);
+            return false;
+        }
+    }
+
+    private void runSendCompletionCallback(MessageBlockWithMetadata messageBlock, boolean sent) {
+        final Consumer<Boolean> callback = messageBlock.getSendCompletionCallback();
+        if (callback != null) {
+            try {
+                callback.accept(sent);
+            } catch (RuntimeException e) {
+                log.error(logPrefix + "Error in send completion callback of a message of type " + messageBlock.getType(), e);
+            }
         }
     }
 
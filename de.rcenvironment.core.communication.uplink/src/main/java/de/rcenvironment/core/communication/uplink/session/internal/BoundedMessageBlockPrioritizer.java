@@ -8,13 +8,18 @@
 
 package de.rcenvironment.core.communication.uplink.session.internal;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -23,6 +28,9 @@ import de.rcenvironment.core.communication.uplink.network.api.MessageBlockPriori
 import de.rcenvironment.core.communication.uplink.network.internal.MessageBlock;
 import de.rcenvironment.core.communication.uplink.network.internal.MessageBlockWithMetadata;
 import de.rcenvironment.core.communication.uplink.network.internal.UplinkProtocolConfiguration;
+import de.rcenvironment.core.communication.uplink.session.api.ChannelQueueStatistics;
+import de.rcenvironment.core.communication.uplink.session.api.UplinkSession;
+import de.rcenvironment.core.toolkitbridge.transitional.StatsCounter;
 import de.rcenvironment.core.utils.common.StringUtils;
 import de.rcenvironment.core.utils.common.exception.OperationFailureException;
 import de.rcenvironment.core.utils.incubator.DebugSettings;
@@ -31,40 +39,172 @@ import de.rcenvironment.core.utils.incubator.DebugSettings;
  * Utility class that encapsulates {@link MessageBlock} prioritisation as well as buffer limiting. The latter sets an upper limit of
  * messages queued for each {@link MessageBlockPriority} level, and blocks on attempts to add additional messages. Reaching the limit for
  * one priority level does not block adding messages for other priority levels.
+ * <p>
+ * Messages are always taken from the highest priority level that has queued messages, so {@link MessageBlockPriority#HIGH} messages (e.g.
+ * heartbeats) strictly precede all others. Within each priority level, the channels with queued messages are served in a deficit round
+ * robin scheme: in each round, every channel receives a fixed amount of byte credits, and may send messages as long as their size
+ * (including the wire header) is covered by its accumulated credits. This way, a channel transferring large blocks cannot delay the small
+ * messages of other channels by more than one round, and the available bandwidth is shared between channels in proportion to their
+ * credits instead of their message sizes.
+ * <p>
+ * Messages of the same channel and priority are returned FIFO; there is no ordering guarantee between different channels.
+ * <p>
+ * The queue time of sent messages is registered in the {@link StatsCounter} statistics by priority level, and the queue depth of each
+ * channel on submission. As channel ids are not reused, per-channel values are not registered there; instead, the current state of each
+ * channel is available via {@link #getChannelQueueStatistics()}, which is exposed by
+ * {@link UplinkSession#getOutgoingChannelQueueStatistics()} and shown by the "uplink list" command.
  * 
- * Messages without an explicit prioritisation in relation to each other (i.e. currently, having the same {@link MessageBlockPriority}) are
- * returned FIFO.
- *
  * @author Robert Mischke
  */
 public class BoundedMessageBlockPrioritizer {
 
+    /**
+     * The queued messages of a single channel within a priority level, and its current byte credits.
+     * 
+     * @author agent
+     */
+    private static final class ChannelQueue {
+
+        private final long channelId;
+
+        private final Deque<MessageBlockWithMetadata> messages = new ArrayDeque<>();
+
+        private long credits;
+
+        private boolean hasTurn;
+
+        ChannelQueue(long channelId) {
+            this.channelId = channelId;
+        }
+    }
+
+    /**
+     * The queued messages of a single priority level. All access must be guarded by the outer class' lock.
+     * 
+     * @author agent
+     */
+    private final class PriorityLevel {
+
+        private final MessageBlockPriority priority;
+
+        private final int capacity;
+
+        private final Condition notFull = lock.newCondition();
+
+        private final Map<Long, ChannelQueue> channelQueues = new HashMap<>();
+
+        // the channels with queued messages, in round robin order; the first channel is the one whose turn it is
+        private final Deque<ChannelQueue> activeChannels = new ArrayDeque<>();
+
+        private int size;
+
+        PriorityLevel(MessageBlockPriority priority, int capacity) {
+            this.priority = priority;
+            this.capacity = capacity;
+        }
+
+        boolean isFull() {
+            return size >= capacity;
+        }
+
+        /**
+         * @return the queue depth of the message's channel after adding the message
+         */
+        int add(MessageBlockWithMetadata messageBlock) {
+            ChannelQueue channelQueue = channelQueues.get(messageBlock.getChannelId());
+            if (channelQueue == null) {
+                channelQueue = new ChannelQueue(messageBlock.getChannelId());
+                channelQueues.put(channelQueue.channelId, channelQueue);
+                activeChannels.addLast(channelQueue);
+            }
+            channelQueue.messages.addLast(messageBlock);
+            size++;
+            return channelQueue.messages.size();
+        }
+
+        MessageBlockWithMetadata poll() {
+            if (size == 0) {
+                return null;
+            }
+            // terminates as the credits of each active channel increase with each round
+            while (true) {
+                final ChannelQueue channelQueue = activeChannels.peekFirst();
+                if (!channelQueue.hasTurn) {
+                    channelQueue.credits += creditsPerChannelAndRound;
+                    channelQueue.hasTurn = true;
+                }
+                final MessageBlockWithMetadata head = channelQueue.messages.peekFirst();
+                final int cost = getTransmissionSize(head);
+                if (cost <= channelQueue.credits) {
+                    channelQueue.messages.pollFirst();
+                    channelQueue.credits -= cost;
+                    if (channelQueue.messages.isEmpty()) {
+                        // channels without queued messages do not accumulate credits
+                        activeChannels.pollFirst();
+                        channelQueues.remove(channelQueue.channelId);
+                    }
+                    size--;
+                    notFull.signal();
+                    return head;
+                }
+                // end this channel's turn, keeping its remaining credits for the next round
+                channelQueue.hasTurn = false;
+                activeChannels.addLast(activeChannels.pollFirst());
+            }
+        }
+
+        long getLongestQueueTime(long now) {
+            long result = 0;
+            for (ChannelQueue channelQueue : activeChannels) {
+                result = Math.max(result, now - channelQueue.messages.peekFirst().getLocalQueueStartTime());
+            }
+            return result;
+        }
+    }
+
     private static final int NUM_PRIORITY_LEVELS = MessageBlockPriority.values().length;
 
+    // the size of the wire header of each message block (channel id, data length and message type)
+    private static final int MESSAGE_BLOCK_HEADER_SIZE = Long.BYTES + Integer.BYTES + 1;
+
+    private static final String STATS_CATEGORY = "Uplink: Outgoing message scheduling";
+
+    private static final String STATS_KEY_CHANNEL_QUEUE_DEPTH = "Channel queue depth on submission";
+
+    private static final String STATS_KEY_PREFIX_QUEUE_TIME = "Queue time (msec) for priority ";
+
     // note: "flow control" is not quite accurate (yet?), but avoids switching to a different id later
     private static final boolean VERBOSE_LOGGING_ENABLED = DebugSettings.getVerboseLoggingEnabled("uplink.flowcontrol");
 
-    private final List<LinkedBlockingQueue<MessageBlockWithMetadata>> queuesByPriority =
-        new ArrayList<LinkedBlockingQueue<MessageBlockWithMetadata>>(NUM_PRIORITY_LEVELS);
+    // note: a single lock for all priority levels, as taking the next message must check all levels consistently
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final List<PriorityLevel> priorityLevels = new ArrayList<>(NUM_PRIORITY_LEVELS);
+
+    private final int creditsPerChannelAndRound;
 
     private final Log log = LogFactory.getLog(getClass());
 
     public BoundedMessageBlockPrioritizer() {
 
-        Map<MessageBlockPriority, Integer> maxMessagesPerPriority =
-            UplinkProtocolConfiguration.getCurrent().getMaxBufferedOutgoingMessagesPerSessionAndPriority();
+        UplinkProtocolConfiguration configuration = UplinkProtocolConfiguration.getCurrent();
+        Map<MessageBlockPriority, Integer> maxMessagesPerPriority = configuration.getMaxBufferedOutgoingMessagesPerSessionAndPriority();
 
-        // create an array of ordered blocking queues, one for each priority;
+        // create one queue structure for each priority, in descending order;
         // keeping them in an ArrayList provides efficient access while being type-safe despite generics
         for (MessageBlockPriority priority : MessageBlockPriority.values()) {
             // fail on undefined buffer size for any priority level
-            try {
-                Integer maxMessages = Objects.requireNonNull(maxMessagesPerPriority.get(priority));
-                queuesByPriority.add(new LinkedBlockingQueue<MessageBlockWithMetadata>(maxMessages));
-            } catch (NullPointerException | IllegalArgumentException e) {
-                log.error("Invalid limit value for priority " + priority.name() + ": " + maxMessagesPerPriority.get(priority));
-                throw e; // after logging the source, fail anyway
+            Integer maxMessages = maxMessagesPerPriority.get(priority);
+            if (maxMessages == null || maxMessages <= 0) {
+                log.error("Invalid limit value for priority " + priority.name() + ": " + maxMessages);
+                throw new IllegalArgumentException("Invalid limit value for priority " + priority.name() + ": " + maxMessages);
             }
+            priorityLevels.add(new PriorityLevel(priority, maxMessages));
+        }
+
+        creditsPerChannelAndRound = configuration.getOutgoingByteCreditsPerChannelAndRound();
+        if (creditsPerChannelAndRound <= 0) {
+            throw new IllegalArgumentException("Invalid byte credit value: " + creditsPerChannelAndRound);
         }
     }
 
@@ -72,9 +212,9 @@ public class BoundedMessageBlockPrioritizer {
      * Adds a message with a given priority. This method is thread-safe.
      * <p>
      * If the specified message limit for the given priority has not been reached yet, this method returns "semi-immediately", in the sense
-     * that it may still temporarily block if concurrent threads are submitting messages of the same priority. Once the message limit is
-     * reached, however, this method blocks <em>for the given priority</em>; all calling code must be able to handle this. Most notably, the
-     * calling code MUST NOT risk causing a deadlock or other issues if this queue blocks.
+     * that it may still temporarily block if concurrent threads are accessing this queue. Once the message limit is reached, however, this
+     * method blocks <em>for the given priority</em>; all calling code must be able to handle this. Most notably, the calling code MUST NOT
+     * risk causing a deadlock or other issues if this queue blocks.
      * 
      * @param messageBlock the message block to add to the queue
      * @param logPrefix a prefix to prepend to any log messages
@@ -86,32 +226,32 @@ public class BoundedMessageBlockPrioritizer {
         messageBlock.setLocalQueueStartTime(System.currentTimeMillis());
 
         // select queue by priority
-        MessageBlockPriority priority = messageBlock.getPriority();
-        LinkedBlockingQueue<MessageBlockWithMetadata> queue = queuesByPriority.get(priority.getIndex());
-
-        // synchronize to block concurrent additions to the same queue from interfering
-        // IMPORTANT: removal operations MUST NOT synchronize on this as well, as this would result in a deadlock when the queue is full
-        synchronized (queue) {
-            // append the message at the "tail" of the selected queue, probing first to be able to log a message if it is full
-            if (!queue.offer(messageBlock)) {
-                MessageBlockWithMetadata headElement = queue.peek();
-                // virtually always true; guards against the exotic case of the complete queue being drained between these calls
-                if (headElement != null) {
-                    long waitTimeOfHeadElement = System.currentTimeMillis() - headElement.getLocalQueueStartTime();
-                    if (VERBOSE_LOGGING_ENABLED) {
-                        log.debug(StringUtils.format("%sStalling a message of type %s as there are already "
-                            + "%d messages queued for priority %s; longest queue time: %d msec",
-                            logPrefix, messageBlock.getType(), queue.size(), priority.name(), waitTimeOfHeadElement));
-                    }
-                }
-                queue.put(messageBlock); // will usually block, unless space became available by a concurrent thread consuming an element
+        final PriorityLevel level = priorityLevels.get(messageBlock.getPriority().getIndex());
+
+        final int channelQueueDepth;
+        lock.lock();
+        try {
+            // probe first to be able to log a message if the queue is full
+            if (level.isFull() && VERBOSE_LOGGING_ENABLED) {
+                log.debug(StringUtils.format("%sStalling a message of type %s for channel %d as there are already "
+                    + "%d messages queued for priority %s; longest queue time: %d msec",
+                    logPrefix, messageBlock.getType(), messageBlock.getChannelId(), level.size, level.priority.name(),
+                    level.getLongestQueueTime(System.currentTimeMillis())));
+            }
+            // note: releases the lock while waiting, so messages can still be taken from the queue
+            while (level.isFull()) {
+                level.notFull.await();
             }
+            channelQueueDepth = level.add(messageBlock);
+        } finally {
+            lock.unlock();
         }
+        StatsCounter.registerValue(STATS_CATEGORY, STATS_KEY_CHANNEL_QUEUE_DEPTH, channelQueueDepth);
     }
 
     /**
      * Adds a message with a given priority. This method is thread-safe. This method always returns "semi-immediately", in the sense that it
-     * never blocks due to a full queue, but temporarily blocks if concurrent threads are submitting messages of the same priority.
+     * never blocks due to a full queue, but temporarily blocks if concurrent threads are accessing this queue.
      * <p>
      * If the specified message limit for the given priority has been reached yet, this method fails with an exception. This is designed as
      * a mechanism for queues where blocking on a full queue is not acceptable. If this occurs, the caller must decide how to deal with the
@@ -129,42 +269,83 @@ public class BoundedMessageBlockPrioritizer {
         messageBlock.setLocalQueueStartTime(System.currentTimeMillis());
 
         // select queue by priority
-        MessageBlockPriority priority = messageBlock.getPriority();
-        LinkedBlockingQueue<MessageBlockWithMetadata> queue = queuesByPriority.get(priority.getIndex());
-
-        // synchronize to block concurrent additions to the same queue from interfering
-        // IMPORTANT: removal operations MUST NOT synchronize on this as well, as this would result in a deadlock when the queue is full
-        synchronized (queue) {
-            // append the message at the "tail" of the selected queue, probing first to be able to log a message if it is full
-            if (!queue.offer(messageBlock)) {
-                MessageBlockWithMetadata headElement = queue.peek();
-                // virtually always true; guards against the exotic case of the complete queue being drained between these calls
-                if (headElement != null) {
-                    long waitTimeOfHeadElement = System.currentTimeMillis() - headElement.getLocalQueueStartTime();
-                    throw new OperationFailureException(StringUtils.format(
-                        "%sFailed to submit a message of type %s for sending as there are already "
-                            + "%d messages queued for priority %s; longest queue time: %d msec",
-                        logPrefix, messageBlock.getType(), queue.size(), priority.name(), waitTimeOfHeadElement));
-                }
+        final PriorityLevel level = priorityLevels.get(messageBlock.getPriority().getIndex());
+
+        final int channelQueueDepth;
+        lock.lockInterruptibly();
+        try {
+            if (level.isFull()) {
+                throw new OperationFailureException(StringUtils.format(
+                    "%sFailed to submit a message of type %s for sending as there are already "
+                        + "%d messages queued for priority %s; longest queue time: %d msec",
+                    logPrefix, messageBlock.getType(), level.size, level.priority.name(),
+                    level.getLongestQueueTime(System.currentTimeMillis())));
             }
+            channelQueueDepth = level.add(messageBlock);
+        } finally {
+            lock.unlock();
         }
+        StatsCounter.registerValue(STATS_CATEGORY, STATS_KEY_CHANNEL_QUEUE_DEPTH, channelQueueDepth);
     }
 
     /**
-     * Removes and returns the highest-priority message. This method is thread-safe and always returns immediately.
+     * Removes and returns the next message to send, as defined by the priority and channel scheduling described in the class JavaDoc. This
+     * method is thread-safe and always returns "semi-immediately".
      * 
-     * @return the highest-priority message, or {@link Optional#empty()} if all queues are empty
+     * @return the next message, or {@link Optional#empty()} if all queues are empty
      */
     public Optional<MessageBlockWithMetadata> takeNext() throws NoSuchElementException {
-        // iterate through queues by descending priority, and return the head of the first non-empty queue
-        // TODO optimize this by keeping a pointer to the highest priority with a non-empty queue
-        for (int i = 0; i < NUM_PRIORITY_LEVELS; i++) {
-            MessageBlockWithMetadata pollResult = queuesByPriority.get(i).poll(); // removes from "head" if queue is not empty
-            if (pollResult != null) {
-                return Optional.of(pollResult);
+        MessageBlockWithMetadata result = null;
+        lock.lock();
+        try {
+            // iterate through the levels by descending priority, and take the next message of the first non-empty one
+            for (int i = 0; i < NUM_PRIORITY_LEVELS && result == null; i++) {
+                result = priorityLevels.get(i).poll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (result == null) {
+            return Optional.empty();
+        }
+        StatsCounter.registerValue(STATS_CATEGORY, STATS_KEY_PREFIX_QUEUE_TIME + result.getPriority().name(),
+            System.currentTimeMillis() - result.getLocalQueueStartTime());
+        return Optional.of(result);
+    }
+
+    /**
+     * @return the current queue state of all channels with queued messages, summed up over all priority levels
+     */
+    public Map<Long, ChannelQueueStatistics> getChannelQueueStatistics() {
+        final long now = System.currentTimeMillis();
+        final Map<Long, ChannelQueueStatistics> result = new HashMap<>();
+        lock.lock();
+        try {
+            for (PriorityLevel level : priorityLevels) {
+                for (ChannelQueue channelQueue : level.activeChannels) {
+                    int messages = channelQueue.messages.size();
+                    long bytes = 0;
+                    for (MessageBlockWithMetadata messageBlock : channelQueue.messages) {
+                        bytes += messageBlock.getDataLength();
+                    }
+                    long queueTime = now - channelQueue.messages.peekFirst().getLocalQueueStartTime();
+                    ChannelQueueStatistics previous = result.get(channelQueue.channelId);
+                    if (previous != null) {
+                        messages += previous.getQueuedMessages();
+                        bytes += previous.getQueuedBytes();
+                        queueTime = Math.max(queueTime, previous.getLongestQueueTimeMsec());
+                    }
+                    result.put(channelQueue.channelId, new ChannelQueueStatistics(messages, bytes, queueTime));
+                }
             }
+        } finally {
+            lock.unlock();
         }
-        return Optional.empty();
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static int getTransmissionSize(MessageBlockWithMetadata messageBlock) {
+        return MESSAGE_BLOCK_HEADER_SIZE + messageBlock.getDataLength();
     }
 
 }
@@ -32,6 +32,7 @@ import de.rcenvironment.core.communication.model.NetworkContactPoint;
 import de.rcenvironment.core.communication.model.impl.InitialNodeInformationImpl;
 import de.rcenvironment.core.communication.sshconnection.InitialSshConnectionConfig;
 import de.rcenvironment.core.communication.sshconnection.InitialUplinkConnectionConfig;
+import de.rcenvironment.core.communication.utils.MessageUtils;
 import de.rcenvironment.core.communication.utils.NetworkContactPointUtils;
 import de.rcenvironment.core.configuration.ConfigurationSegment;
 import de.rcenvironment.core.configuration.ConfigurationService;
@@ -238,6 +239,7 @@ public class NodeConfigurationServiceImpl implements NodeConfigurationService {
 
         localNodeInformation = new InitialNodeInformationImpl(localInstanceSessionId);
         localNodeInformation.setDisplayName(instanceName);
+        localNodeInformation.setSupportedPayloadCodecs(MessageUtils.getSupportedPayloadCodecs());
 
     }
 
@@ -729,6 +729,8 @@ public class MessageChannelServiceImpl implements MessageChannelService {
     private void mergeRemoteHandshakeInformationIntoGlobalNodeKnowledge(InitialNodeInformation remoteNodeInformation) {
         nodeIdentifierService.associateDisplayName(remoteNodeInformation.getInstanceNodeSessionId(),
             remoteNodeInformation.getDisplayName());
+        MessageUtils.registerRemotePayloadCodecs(remoteNodeInformation.getInstanceNodeSessionIdString(),
+            remoteNodeInformation.getSupportedPayloadCodecs());
     }
 
     private void performHealthCheckAndActOnResult(final MessageChannel channel) throws InterruptedException {
@@ -67,6 +67,18 @@ public interface RemoteFileConnection extends Serializable {
      */
     long skip(long n) throws IOException;
 
+    /**
+     * Returns an estimate of the number of bytes that can be read without blocking, e.g. as they have already been transferred.
+     * 
+     * @return the number of bytes that can be read without blocking; 0 by default
+     * @throws IOException - if an I/O error occurs.
+     * 
+     * @see java.io.InputStream#available()
+     */
+    default int available() throws IOException {
+        return 0;
+    }
+
     /**
      * Closes a file.
      * 
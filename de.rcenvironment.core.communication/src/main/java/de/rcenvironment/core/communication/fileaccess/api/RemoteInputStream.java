@@ -78,6 +78,11 @@ public class RemoteInputStream extends InputStream implements Serializable {
         return remoteFileConnection.skip(n);
     }
 
+    @Override
+    public int available() throws IOException {
+        return remoteFileConnection.available();
+    }
+
     @Override
     public void close() throws IOException {
         remoteFileConnection.close();
@@ -47,6 +47,7 @@ import de.rcenvironment.core.communication.rpc.spi.LocalServiceResolver;
 import de.rcenvironment.core.communication.rpc.spi.ServiceProxyFactory;
 import de.rcenvironment.core.communication.spi.NetworkTopologyChangeListener;
 import de.rcenvironment.core.communication.spi.NetworkTopologyChangeListenerAdapter;
+import de.rcenvironment.core.communication.utils.MessageUtils;
 import de.rcenvironment.core.configuration.bootstrap.RuntimeDetection;
 import de.rcenvironment.core.toolkitbridge.api.StaticToolkitHolder;
 import de.rcenvironment.core.utils.common.rpc.RemotableService;
@@ -160,6 +161,7 @@ public class CommunicationServiceImpl implements CommunicationService, Additiona
                     log.debug(
                         "Topology change: Node " + node + " is not reachable anymore (local node: " + localInstanceNodeSessionId + ")");
                     idResolutionService.unregisterInstanceNodeSessionId(node);
+                    MessageUtils.unregisterRemotePayloadCodecs(node.getInstanceNodeSessionIdString());
                 }
                 for (InstanceNodeSessionId node : addedNodes) {
                     log.debug("Topology change: Node " + node + " is now reachable (local node: " + localInstanceNodeSessionId + ")");
@@ -23,6 +23,7 @@ import de.rcenvironment.core.communication.rpc.ServiceCallRequest;
 import de.rcenvironment.core.communication.rpc.ServiceCallResult;
 import de.rcenvironment.core.communication.rpc.internal.ReliableRPCStreamService;
 import de.rcenvironment.core.communication.rpc.spi.RemoteServiceCallHandlerService;
+import de.rcenvironment.core.communication.utils.MessageUtils;
 import de.rcenvironment.core.toolkitbridge.api.StaticToolkitHolder;
 import de.rcenvironment.core.utils.common.StringUtils;
 import de.rcenvironment.toolkit.modules.statistics.api.CounterCategory;
@@ -68,6 +69,10 @@ public class RPCNetworkRequestHandler implements NetworkRequestHandler {
     @Override
     public NetworkResponse handleRequest(NetworkRequest request, InstanceNodeSessionId lastHopNodeId) throws InternalMessagingException {
         ServiceCallRequest serviceCallRequest = (ServiceCallRequest) NetworkRequestUtils.deserializeWithExceptionHandling(request);
+        // the request announces the codecs of the caller; remember them for requests sent to it, and use them for the response
+        final String callerPayloadCodecs = serviceCallRequest.getCallerPayloadCodecs();
+        MessageUtils.registerRemotePayloadCodecs(
+            serviceCallRequest.getCallerNodeId().convertToInstanceNodeSessionId().getInstanceNodeSessionIdString(), callerPayloadCodecs);
         ServiceCallResult scResult;
         try {
             if (methodCallCounter.isEnabled()) {
@@ -78,7 +83,8 @@ public class RPCNetworkRequestHandler implements NetworkRequestHandler {
             scResult = handleInternal(serviceCallRequest);
             try {
                 // note: RPCs that throw a declared service exception are still considered successful on the network level
-                return NetworkResponseFactory.generateSuccessResponse(request, scResult);
+                return NetworkResponseFactory.generateSuccessResponse(request,
+                    MessageUtils.serializeObject(scResult, callerPayloadCodecs));
             } catch (SerializationException e) {
                 throw new InternalMessagingException("Failed to serialize the result of a call to "
                     + formatGenericCallInfo(serviceCallRequest), e);
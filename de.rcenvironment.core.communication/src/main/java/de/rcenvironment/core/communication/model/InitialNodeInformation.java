@@ -44,4 +44,11 @@ public interface InitialNodeInformation extends Serializable {
      * @return the description text to use in log output
      */
     String getLogDescription();
+
+    /**
+     * @return the message payload codecs supported by this node, as created by
+     *         {@link de.rcenvironment.core.communication.utils.MessageUtils#getSupportedPayloadCodecs()}; null for nodes that made no
+     *         announcement (e.g. because of an older RCE version)
+     */
+    String getSupportedPayloadCodecs();
 }
@@ -29,6 +29,9 @@ public class InitialNodeInformationImpl implements InitialNodeInformation {
 
     private String displayName;
 
+    // optional; null if the remote node runs an older version that does not send this field
+    private String supportedPayloadCodecs;
+
     /**
      * Default constructor for bean-style construction.
      */
@@ -69,6 +72,15 @@ public class InitialNodeInformationImpl implements InitialNodeInformation {
         this.displayName = displayName;
     }
 
+    @Override
+    public String getSupportedPayloadCodecs() {
+        return supportedPayloadCodecs;
+    }
+
+    public void setSupportedPayloadCodecs(String supportedPayloadCodecs) {
+        this.supportedPayloadCodecs = supportedPayloadCodecs;
+    }
+
     @Override
     public synchronized InstanceNodeSessionId getInstanceNodeSessionId() {
         // create the wrapped object on-the-fly to support bean-style construction
@@ -15,6 +15,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import de.rcenvironment.core.communication.common.NetworkGraphLink;
 import de.rcenvironment.core.communication.common.NetworkGraphNode;
@@ -30,20 +32,23 @@ import edu.uci.ics.jung.graph.DirectedSparseMultigraph;
 /**
  * Internal implementation of {@link NetworkRoutingInformation}.
  * 
+ * Instances are immutable snapshots of the routing state for one network graph; a topology change creates a new instance. The routing
+ * table is filled lazily, but held in a concurrent map, so routing decisions for known destinations are a single lock-free lookup.
+ * 
  * @author Robert Mischke
  */
 public final class NetworkRoutingInformationImpl implements NetworkRoutingInformation {
 
-    private Map<InstanceNodeSessionId, NetworkGraphLink> routingTable;
+    private final Map<InstanceNodeSessionId, NetworkGraphLink> routingTable = new ConcurrentHashMap<>();
 
-    private Map<InstanceNodeSessionId, NetworkGraphLink> incomingEdgesById;
+    private final Map<InstanceNodeSessionId, NetworkGraphLink> incomingEdgesById = new HashMap<>();
 
     private Set<NetworkGraphLink> spanningTreeLinkSet;
 
     private Map<InstanceNodeSessionId, List<NetworkGraphLink>> spanningTreeLinkMap;
 
     // for unit testing
-    private int routingCacheMisses = 0;
+    private final AtomicInteger routingCacheMisses = new AtomicInteger();
 
     private final InstanceNodeSessionId localNodeId;
 
@@ -64,6 +69,13 @@ public final class NetworkRoutingInformationImpl implements NetworkRoutingInform
             throw new IllegalArgumentException(NetworkFormatter.networkGraphToGraphviz(rawNetworkGraph, false), e);
         }
         reachableNodes = Collections.unmodifiableSet(incomingEdgeMap.keySet());
+
+        StatsCounter.count("Network topology/routing", "Routing table calculations");
+        for (NetworkGraphLinkImpl link : incomingEdgeMap.values()) {
+            if (link != null) {
+                incomingEdgesById.put(link.getTargetNodeId(), link);
+            }
+        }
     }
 
     @Override
@@ -72,26 +84,13 @@ public final class NetworkRoutingInformationImpl implements NetworkRoutingInform
     }
 
     @Override
-    public synchronized NetworkGraphLink getNextLinkTowards(InstanceNodeSessionId targetNodeId) throws NoRouteToNodeException {
+    public NetworkGraphLink getNextLinkTowards(InstanceNodeSessionId targetNodeId) throws NoRouteToNodeException {
         StatsCounter.count("Network topology/routing", "Route requests");
 
         if (targetNodeId.equals(localNodeId)) {
             throw new NoRouteToNodeException("Cannot route to Local node", localNodeId);
         }
 
-        if (routingTable == null) {
-            StatsCounter.count("Network topology/routing", "Routing table calculations");
-
-            // initialize basic structures
-            routingTable = new HashMap<InstanceNodeSessionId, NetworkGraphLink>();
-            incomingEdgesById = new HashMap<InstanceNodeSessionId, NetworkGraphLink>();
-            for (NetworkGraphLinkImpl link : incomingEdgeMap.values()) {
-                if (link != null) {
-                    incomingEdgesById.put(link.getTargetNodeId(), link);
-                }
-            }
-        }
-
         // individual routing map entries are calculated lazily, as in large networks,
         // only a few nodes will probably be contacted at once (TODO actually track/measure this) - misc_ro
         return determineRoutingTableEntryFor(targetNodeId);
@@ -142,11 +141,11 @@ public final class NetworkRoutingInformationImpl implements NetworkRoutingInform
     }
 
     protected int getRoutingCacheMisses() {
-        return routingCacheMisses;
+        return routingCacheMisses.get();
     }
 
     protected void resetCacheMisses() {
-        routingCacheMisses = 0;
+        routingCacheMisses.set(0);
     }
 
     private NetworkGraphLink determineRoutingTableEntryFor(InstanceNodeSessionId targetNodeId) throws NoRouteToNodeException {
@@ -155,7 +154,8 @@ public final class NetworkRoutingInformationImpl implements NetworkRoutingInform
         if (result != null) {
             return result;
         }
-        routingCacheMisses++;
+        // note: concurrent misses for the same target may compute the same entry twice, which is harmless
+        routingCacheMisses.incrementAndGet();
 
         NetworkGraphLink incomingEdge = incomingEdgesById.get(targetNodeId);
         // consistency check
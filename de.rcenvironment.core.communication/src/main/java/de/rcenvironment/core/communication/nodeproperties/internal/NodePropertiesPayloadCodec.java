@@ -0,0 +1,330 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.communication.nodeproperties.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import de.rcenvironment.core.communication.common.SerializationException;
+import de.rcenvironment.core.communication.nodeproperties.NodePropertyConstants;
+import de.rcenvironment.core.communication.utils.MessagePayloadCodec;
+
+/**
+ * {@link MessagePayloadCodec} for node property updates ({@link NodePropertiesUpdatePayload}s). The instance session ids of the entries are
+ * written once into a table and referenced by their index, as an update usually contains many properties of few nodes. Larger updates
+ * are deflated with a preset dictionary of the strings that are common in property keys and in the JSON descriptions of published
+ * components, so that even a single component description compresses well.
+ * 
+ * Format: a marker byte that never starts a Java serialization stream, a format version byte, a flags byte, the length of the
+ * uncompressed body if it is deflated, and the (possibly deflated) body.
+ * 
+ * @author agent
+ */
+public final class NodePropertiesPayloadCodec implements MessagePayloadCodec {
+
+    /**
+     * The id used to announce support for this codec; must be changed on incompatible format changes, including changes to the dictionary.
+     */
+    public static final String ID = "np1";
+
+    private static final byte MARKER = (byte) 0xC6;
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final int FLAG_DIGEST = 1;
+
+    private static final int FLAG_DEFLATED = 2;
+
+    // bodies below this size are not worth the deflater setup
+    private static final int MIN_DEFLATED_BODY_SIZE = 256;
+
+    // the maximum compression ratio of the deflate format; used to reject invalid length fields before allocating the body
+    private static final int MAX_DEFLATE_RATIO = 1032;
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private static final int HEADER_SIZE = 3;
+
+    /**
+     * Strings that are frequent in node properties, most frequent last, as deflate encodes close matches more compactly.
+     */
+    private static final byte[] DICTIONARY = String.join("",
+        "\\\"rawEndpointDefinitionExtension\\\":{},\\\"rawEndpointDefinition\\\":{\\\"name\\\":\\\"",
+        "\\\"dataTypes\\\":[\\\"Float\\\",\\\"Integer\\\",\\\"Boolean\\\",\\\"ShortText\\\",\\\"FileReference\\\",",
+        "\\\"DirectoryReference\\\",\\\"Vector\\\",\\\"Matrix\\\",\\\"SmallTable\\\"],\\\"defaultDataType\\\":\\\"",
+        "\\\"inputHandlingOptions\\\":[\\\"Single\\\",\\\"Constant\\\",\\\"Queue\\\"],\\\"defaultInputHandling\\\":\\\"",
+        "\\\"inputExecutionConstraintOptions\\\":[\\\"Required\\\",\\\"RequiredIfConnected\\\",\\\"NotRequired\\\"],",
+        "\\\"defaultInputExecutionConstraint\\\":\\\"",
+        "\\\"metaData\\\":{},\\\"endpointGroupDefinitions\\\":[],\\\"endpointDefinitions\\\":[{",
+        "\\\"configurationDefinition\\\":{\\\"rawConfigurationDef\\\":[],\\\"rawPlaceholderMetaDataDef\\\":[],",
+        "\\\"rawConfigurationMetaDataDef\\\":[],\\\"rawReadOnlyConfiguration\\\":{},\\\"rawActivationFilter\\\":{}},",
+        "\\\"inputDefinitionsProvider\\\":{",
+        "\\\"outputDefinitionsProvider\\\":{",
+        "\\\"localExecutionOnly\\\":false,\\\"performLazyDisposal\\\":false,\\\"isDeprecated\\\":false,",
+        "\\\"canHandleNotAValueDataTypes\\\":false,\\\"loopDriverSupportsDiscard\\\":false,\\\"isLoopDriver\\\":false,",
+        "\\\"icon16\\\":\\\"\\\",\\\"icon24\\\":\\\"\\\",\\\"icon32\\\":\\\"\\\",\\\"size\\\":\\\"MEDIUM\\\",",
+        "\\\"color\\\":\\\"YELLOW\\\",\\\"shape\\\":\\\"SQUARE\\\",\\\"documentationHash\\\":\\\"\\\",\\\"iconHash\\\":\\\"",
+        "\\\"componentRevision\\\":{\\\"componentInterface\\\":{\\\"displayName\\\":\\\"",
+        "\\\",\\\"groupName\\\":\\\"",
+        "\\\",\\\"identifiers\\\":[\\\"de.rcenvironment.integration.common.",
+        "\\\",\\\"version\\\":\\\"",
+        "\\\",\\\"identifier\\\":\\\"de.rcenvironment.",
+        "\\\"className\\\":\\\"de.rcenvironment.core.component.integration.",
+        "\\\"maximumCountOfParallelInstances\\\":null,\\\"mappedComponent\\\":false,",
+        "{\"authData\":null,\"data\":\"{\\\"nodeId\\\":\\\"",
+        "\\\",\\\"installationId\\\":\\\"",
+        NodePropertyConstants.KEY_SESSION_START_TIME,
+        NodePropertyConstants.KEY_DISPLAY_NAME,
+        NodePropertyConstants.KEY_LSA,
+        "componentInstallation/").getBytes(StandardCharsets.UTF_8);
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public boolean canEncode(Serializable object) {
+        return object instanceof NodePropertiesUpdatePayload;
+    }
+
+    @Override
+    public byte[] encode(Serializable object) throws SerializationException {
+        final NodePropertiesUpdatePayload payload = (NodePropertiesUpdatePayload) object;
+        final byte[] body;
+        try {
+            body = encodeBody(payload);
+        } catch (IOException e) {
+            throw new SerializationException(e);
+        }
+
+        int flags = 0;
+        if (payload.isDigest()) {
+            flags |= FLAG_DIGEST;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.min(body.length, INITIAL_BUFFER_SIZE) + HEADER_SIZE);
+        try (DataOutputStream output = new DataOutputStream(buffer)) {
+            output.writeByte(MARKER);
+            output.writeByte(FORMAT_VERSION);
+            if (body.length >= MIN_DEFLATED_BODY_SIZE) {
+                output.writeByte(flags | FLAG_DEFLATED);
+                output.writeInt(body.length);
+                deflate(body, output);
+            } else {
+                output.writeByte(flags);
+                output.write(body);
+            }
+        } catch (IOException e) {
+            throw new SerializationException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public boolean isEncodedBy(byte[] data) {
+        return data.length >= 1 && data[0] == MARKER;
+    }
+
+    @Override
+    public Serializable decode(byte[] data) throws SerializationException {
+        try {
+            if (data.length < HEADER_SIZE) {
+                throw new SerializationException("Incomplete payload header");
+            }
+            // data[0] is the marker, which was already checked by isEncodedBy()
+            final byte version = data[1];
+            if (version != FORMAT_VERSION) {
+                throw new SerializationException("Unsupported payload format version: " + version);
+            }
+            final int flags = data[2];
+            final byte[] body;
+            if ((flags & FLAG_DEFLATED) != 0) {
+                body = inflate(data);
+            } else {
+                body = new byte[data.length - HEADER_SIZE];
+                System.arraycopy(data, HEADER_SIZE, body, 0, body.length);
+            }
+            return decodeBody(body, (flags & FLAG_DIGEST) != 0);
+        } catch (IOException | DataFormatException | RuntimeException e) {
+            // runtime exceptions are caused by malformed input, e.g. an invalid node id index
+            throw new SerializationException(e);
+        }
+    }
+
+    private byte[] encodeBody(NodePropertiesUpdatePayload payload) throws IOException {
+        // collect the distinct instance session ids in order of their first occurrence
+        final Map<String, Integer> nodeIdIndices = new HashMap<>();
+        final List<String> nodeIds = new ArrayList<>();
+        collectNodeIds(payload.getEntries(), nodeIdIndices, nodeIds);
+        collectNodeIds(payload.getRequestedEntries(), nodeIdIndices, nodeIds);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        try (DataOutputStream output = new DataOutputStream(buffer)) {
+            writeString(output, payload.getUpdateType());
+            output.writeInt(nodeIds.size());
+            for (String nodeId : nodeIds) {
+                writeString(output, nodeId);
+            }
+            writeEntries(output, payload.getEntries(), nodeIdIndices, !payload.isDigest());
+            writeEntries(output, payload.getRequestedEntries(), nodeIdIndices, false);
+        }
+        return buffer.toByteArray();
+    }
+
+    private NodePropertiesUpdatePayload decodeBody(byte[] body, boolean digest) throws IOException, SerializationException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(body))) {
+            final String updateType = readString(input);
+            final int nodeIdCount = readCount(input);
+            final String[] nodeIds = new String[nodeIdCount];
+            for (int i = 0; i < nodeIdCount; i++) {
+                nodeIds[i] = readString(input);
+            }
+            final List<NodePropertiesUpdatePayload.Entry> entries = readEntries(input, nodeIds, !digest);
+            final List<NodePropertiesUpdatePayload.Entry> requestedEntries = readEntries(input, nodeIds, false);
+            if (input.available() != 0) {
+                throw new SerializationException("Unexpected data after the end of the payload");
+            }
+            return new NodePropertiesUpdatePayload(updateType, digest, entries, requestedEntries);
+        }
+    }
+
+    private void collectNodeIds(List<NodePropertiesUpdatePayload.Entry> entries, Map<String, Integer> nodeIdIndices, List<String> nodeIds) {
+        for (NodePropertiesUpdatePayload.Entry entry : entries) {
+            final String nodeId = entry.getInstanceNodeSessionIdString();
+            if (!nodeIdIndices.containsKey(nodeId)) {
+                nodeIdIndices.put(nodeId, nodeIds.size());
+                nodeIds.add(nodeId);
+            }
+        }
+    }
+
+    private void writeEntries(DataOutputStream output, List<NodePropertiesUpdatePayload.Entry> entries, Map<String, Integer> nodeIdIndices,
+        boolean includeValues) throws IOException {
+        output.writeInt(entries.size());
+        for (NodePropertiesUpdatePayload.Entry entry : entries) {
+            output.writeInt(nodeIdIndices.get(entry.getInstanceNodeSessionIdString()));
+            writeString(output, entry.getDataKey());
+            output.writeLong(entry.getSequenceNo());
+            if (includeValues) {
+                writeString(output, entry.getValue());
+            }
+        }
+    }
+
+    private List<NodePropertiesUpdatePayload.Entry> readEntries(DataInputStream input, String[] nodeIds, boolean includeValues)
+        throws IOException {
+        final int count = readCount(input);
+        final List<NodePropertiesUpdatePayload.Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final String nodeId = nodeIds[input.readInt()];
+            final String dataKey = readString(input);
+            final long sequenceNo = input.readLong();
+            String value = null;
+            if (includeValues) {
+                value = readString(input);
+            }
+            entries.add(new NodePropertiesUpdatePayload.Entry(nodeId, dataKey, sequenceNo, value));
+        }
+        return entries;
+    }
+
+    private void deflate(byte[] body, DataOutputStream output) throws IOException {
+        final Deflater deflater = new Deflater();
+        try {
+            deflater.setDictionary(DICTIONARY);
+            deflater.setInput(body);
+            deflater.finish();
+            final byte[] chunk = new byte[INITIAL_BUFFER_SIZE];
+            while (!deflater.finished()) {
+                final int length = deflater.deflate(chunk);
+                output.write(chunk, 0, length);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] data) throws IOException, DataFormatException {
+        final int bodyOffset = HEADER_SIZE + Integer.BYTES;
+        if (data.length < bodyOffset) {
+            throw new IOException("Incomplete payload header");
+        }
+        final int bodyLength = new DataInputStream(new ByteArrayInputStream(data, HEADER_SIZE, Integer.BYTES)).readInt();
+        if (bodyLength < 0 || bodyLength > (long) (data.length - bodyOffset) * MAX_DEFLATE_RATIO) {
+            throw new IOException("Invalid length field: " + bodyLength);
+        }
+        final byte[] body = new byte[bodyLength];
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, bodyOffset, data.length - bodyOffset);
+            int position = 0;
+            while (!inflater.finished()) {
+                final int length = inflater.inflate(body, position, body.length - position);
+                if (length == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(DICTIONARY);
+                    } else if (inflater.needsInput() || position == body.length) {
+                        throw new IOException("Truncated or inconsistent compressed payload");
+                    }
+                }
+                position += length;
+            }
+            if (position != body.length || inflater.getRemaining() != 0) {
+                throw new IOException("Inconsistent compressed payload length");
+            }
+        } finally {
+            inflater.end();
+        }
+        return body;
+    }
+
+    private int readCount(DataInputStream input) throws IOException {
+        final int count = input.readInt();
+        // every element takes at least four bytes
+        if (count < 0 || count > input.available() / Integer.BYTES) {
+            throw new IOException("Invalid count field: " + count);
+        }
+        return count;
+    }
+
+    private void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    private String readString(DataInputStream input) throws IOException {
+        final int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > input.available()) {
+            throw new IOException("Invalid length field: " + length);
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
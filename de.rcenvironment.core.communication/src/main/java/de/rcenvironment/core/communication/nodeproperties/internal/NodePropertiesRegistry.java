@@ -209,6 +209,49 @@ public class NodePropertiesRegistry {
         return Collections.unmodifiableCollection(response);
     }
 
+    /**
+     * Returns the part of the given entries that is newer than or not present in the registry state, i.e. the entries that would change
+     * the registry state if they were merged. Entries of node sessions that are known to be outdated are not included.
+     * 
+     * This is the counterpart of {@link #getComplementingKnowledge(Collection)} for synchronizing registries by digests: Registry A sends
+     * the keys and sequence numbers of its entries to B, and B requests the entries returned by this method from A.
+     * 
+     * @param input the entries representing the known state of the sender; only their keys and sequence numbers are used
+     * @return the subset of the given entries that is newer than or not present in the registry state
+     */
+    public Collection<NodePropertyImpl> getEntriesNewerThanKnowledge(Collection<NodePropertyImpl> input) {
+        Collection<NodePropertyImpl> result = new ArrayList<>();
+        for (NodePropertyImpl entry : input) {
+            final InstanceNodeSessionId instanceNodeSessionId = entry.getInstanceNodeSessionId();
+            final String mostRecentSessionId = mostRecentSessionIds.get(instanceNodeSessionId.getInstanceNodeIdString());
+            if (mostRecentSessionId != null && compareSessionIdTimes(instanceNodeSessionId.getSessionIdPart(), mostRecentSessionId) < 0) {
+                continue;
+            }
+            NodePropertyImpl existing = knowledgeMap.get(entry.getCompositeKey());
+            if (existing == null || existing.getSequenceNo() < entry.getSequenceNo()) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the current entries for the given keys; keys without an entry are ignored.
+     * 
+     * @param keys the composite keys of the entries to return
+     * @return the entries
+     */
+    public Collection<NodePropertyImpl> getEntries(Collection<CompositeNodePropertyKey> keys) {
+        Collection<NodePropertyImpl> result = new ArrayList<>();
+        for (CompositeNodePropertyKey key : keys) {
+            NodePropertyImpl entry = knowledgeMap.get(key);
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
     public int getEntryCount() {
         return knowledgeMap.size();
     }
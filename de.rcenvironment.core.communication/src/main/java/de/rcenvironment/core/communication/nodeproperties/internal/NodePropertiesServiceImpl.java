@@ -8,6 +8,7 @@
 
 package de.rcenvironment.core.communication.nodeproperties.internal;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -71,6 +72,9 @@ public class NodePropertiesServiceImpl implements NodePropertiesService {
 
     private static final String MESSAGE_SUBTYPE_INCREMENTAL = "delta";
 
+    // an initial update in the form of a digest; only sent to nodes supporting the NodePropertiesPayloadCodec
+    private static final String MESSAGE_SUBTYPE_INITIAL_DIGEST = "digest";
+
     // this limit only serves to avoid excessive aggregated delta sizes; the usual trigger should be the timer
     private static final int MAX_DELTA_BATCH_SIZE = 25;
 
@@ -119,55 +123,68 @@ public class NodePropertiesServiceImpl implements NodePropertiesService {
     private String localInstanceNodeId;
 
     /**
-     * Represents the parsed form of a received update.
+     * Represents the parsed form of a received update, which was either sent in the legacy string form or as a
+     * {@link NodePropertiesUpdatePayload}.
      * 
      * @author Robert Mischke
      */
     private final class IncomingUpdate {
 
-        private String[] rawParts;
-
         private String subtype;
 
         private boolean isInitialUpdate;
 
+        private boolean isDigest;
+
+        private boolean isCompactFormat;
+
         private List<NodePropertyImpl> entries;
 
+        // the entries that the sender requests in response to a digest; their values are null
+        private List<NodePropertyImpl> requestedEntries;
+
         IncomingUpdate(NetworkMessage request) {
             entries = new ArrayList<NodePropertyImpl>();
+            requestedEntries = new ArrayList<NodePropertyImpl>();
+            final Serializable content;
             try {
-                rawParts = tokenizeMessageBody(request);
+                content = request.getDeserializedContent();
             } catch (SerializationException e) {
                 throw new IllegalArgumentException("Error deserializing node property update", e);
             }
-            subtype = null;
-            for (String part : rawParts) {
-                if (subtype == null) {
-                    subtype = part;
-                    // log.info(" Message type: " + subtype);
-                    continue;
-                }
-                // log.debug("Parsed incoming node property entry: " + part);
-                try {
-                    NodePropertyImpl entry = new NodePropertyImpl(part, nodeIdentifierService);
-                    if (entry.getInstanceNodeSessionIdString().startsWith(localInstanceNodeId)) {
-                        if (verboseLogging) {
-                            log.debug("Ignoring incoming node property update for the local node: " + part);
-                        }
+            if (content == null) {
+                throw new IllegalArgumentException("Received node property update with 'null' as content");
+            }
+
+            if (content instanceof NodePropertiesUpdatePayload) {
+                final NodePropertiesUpdatePayload payload = (NodePropertiesUpdatePayload) content;
+                isCompactFormat = true;
+                subtype = payload.getUpdateType();
+                parseEntries(payload.getEntries(), entries, true, request);
+                // requested entries are typically the receiver's own properties, so they are never filtered
+                parseEntries(payload.getRequestedEntries(), requestedEntries, false, request);
+            } else {
+                // log.debug(localNodeId + ": Received node property update: " + content);
+                for (String part : StringUtils.splitAndUnescape((String) content)) {
+                    if (subtype == null) {
+                        subtype = part;
+                        // log.info(" Message type: " + subtype);
                         continue;
                     }
-                    entries.add(entry);
-                } catch (IdentifierException e) {
-                    log.error(StringUtils.format(
-                        "Ignoring a node property update from %s containing a malformed instance session id; content='%s'", request
-                            .accessMetaData().getSender(),
-                        part));
-                    continue;
+                    // log.debug("Parsed incoming node property entry: " + part);
+                    try {
+                        addUnlessLocal(new NodePropertyImpl(part, nodeIdentifierService), entries);
+                    } catch (IdentifierException e) {
+                        logMalformedEntry(request, part);
+                    }
                 }
             }
 
             if (MESSAGE_SUBTYPE_INITIAL.equals(subtype)) {
                 isInitialUpdate = true;
+            } else if (MESSAGE_SUBTYPE_INITIAL_DIGEST.equals(subtype)) {
+                isInitialUpdate = true;
+                isDigest = true;
             } else if (MESSAGE_SUBTYPE_INCREMENTAL.equals(subtype)) {
                 isInitialUpdate = false;
             } else {
@@ -176,14 +193,38 @@ public class NodePropertiesServiceImpl implements NodePropertiesService {
 
         }
 
-        private String[] tokenizeMessageBody(NetworkMessage request) throws SerializationException {
-            String bodyString = (String) request.getDeserializedContent();
-            if (bodyString == null) {
-                throw new IllegalArgumentException("Received node property update with 'null' as content");
+        private void parseEntries(List<NodePropertiesUpdatePayload.Entry> rawEntries, List<NodePropertyImpl> target,
+            boolean ignoreLocalEntries, NetworkMessage request) {
+            for (NodePropertiesUpdatePayload.Entry rawEntry : rawEntries) {
+                try {
+                    final NodePropertyImpl entry = new NodePropertyImpl(rawEntry.getInstanceNodeSessionIdString(), rawEntry.getDataKey(),
+                        rawEntry.getSequenceNo(), rawEntry.getValue(), nodeIdentifierService);
+                    if (ignoreLocalEntries) {
+                        addUnlessLocal(entry, target);
+                    } else {
+                        target.add(entry);
+                    }
+                } catch (IdentifierException e) {
+                    logMalformedEntry(request, rawEntry.getInstanceNodeSessionIdString() + ":" + rawEntry.getDataKey());
+                }
             }
-            // log.debug(localNodeId + ": Received node property update: " + bodyString);
-            String[] parts = StringUtils.splitAndUnescape(bodyString);
-            return parts;
+        }
+
+        private void addUnlessLocal(NodePropertyImpl entry, List<NodePropertyImpl> target) {
+            if (entry.getInstanceNodeSessionIdString().startsWith(localInstanceNodeId)) {
+                if (verboseLogging) {
+                    log.debug("Ignoring incoming node property update for the local node: " + entry);
+                }
+                return;
+            }
+            target.add(entry);
+        }
+
+        private void logMalformedEntry(NetworkMessage request, String content) {
+            log.error(StringUtils.format(
+                "Ignoring a node property update from %s containing a malformed instance session id; content='%s'", request
+                    .accessMetaData().getSender(),
+                content));
         }
 
     }
@@ -272,7 +313,10 @@ public class NodePropertiesServiceImpl implements NodePropertiesService {
             // do not activate this service if is was spawned as part of a default test environment
             return;
         }
-        
+
+        // must be registered before connections are established, so that it is announced in their handshakes
+        MessageUtils.registerPayloadCodec(new NodePropertiesPayloadCodec());
+
         localNodeSessionId = nodeConfigurationService.getInstanceNodeSessionId();
         localInstanceNodeId = localNodeSessionId.getInstanceNodeIdString();
         localNodeIsRelay = nodeConfigurationService.isRelay();
@@ -427,7 +471,13 @@ public class NodePropertiesServiceImpl implements NodePropertiesService {
             }
         }
 
-        final NetworkRequest request = constructNetworkRequest(MESSAGE_SUBTYPE_INITIAL, knowledgeToPublish);
+        final NetworkRequest request;
+        if (supportsCompactFormat(channel)) {
+            // only send the keys and sequence numbers; the receiver requests the values it is missing
+            request = constructNetworkRequest(NodePropertiesUpdatePayload.createDigest(MESSAGE_SUBTYPE_INITIAL_DIGEST, knowledgeToPublish));
+        } else {
+            request = constructNetworkRequest(MESSAGE_SUBTYPE_INITIAL, knowledgeToPublish, false);
+        }
         directMessagingSender.sendDirectMessageAsync(request, channel, new NetworkResponseHandler() {
 
             @Override
@@ -455,6 +505,9 @@ public class NodePropertiesServiceImpl implements NodePropertiesService {
                     } else {
                         log.debug("Received initial node property response from " + sender);
                     }
+                    if (!parsedUpdate.requestedEntries.isEmpty()) {
+                        sendRequestedEntries(channel, parsedUpdate.requestedEntries);
+                    }
                 } catch (RuntimeException e) {
                     log.warn("Failed to deserialize response for initial node property exchange", e);
                 }
@@ -463,11 +516,52 @@ public class NodePropertiesServiceImpl implements NodePropertiesService {
         });
     }
 
+    private void sendRequestedEntries(final MessageChannel channel, Collection<NodePropertyImpl> requestedEntries) {
+        final List<CompositeNodePropertyKey> keys = new ArrayList<>();
+        for (NodePropertyImpl entry : requestedEntries) {
+            keys.add(entry.getCompositeKey());
+        }
+        final Collection<NodePropertyImpl> entriesToSend;
+        synchronized (knowledgeLock) {
+            // use the same registry as for the digest; entries may have changed or vanished since, so send their current state
+            if (localNodeIsRelay) {
+                entriesToSend = completeKnowledgeRegistry.getEntries(keys);
+            } else {
+                entriesToSend = locallyPublishedKnowledgeRegistry.getEntries(keys);
+            }
+        }
+        if (entriesToSend.isEmpty()) {
+            return;
+        }
+        if (verboseLogging) {
+            log.debug(StringUtils.format("Sending %d node properties requested by %s in response to the initial digest",
+                entriesToSend.size(), channel.getRemoteNodeInformation().getInstanceNodeSessionId()));
+        }
+        final NetworkRequest request =
+            constructNetworkRequest(NodePropertiesUpdatePayload.createUpdate(MESSAGE_SUBTYPE_INCREMENTAL, entriesToSend,
+                Collections.<NodePropertyImpl> emptyList()));
+        directMessagingSender.sendDirectMessageAsync(request, channel, new NetworkResponseHandler() {
+
+            @Override
+            public void onResponseAvailable(NetworkResponse response) {
+                if (!response.isSuccess()) {
+                    log.warn(StringUtils.format("Failed to send requested node properties to %s via channel %s: %s",
+                        channel.getRemoteNodeInformation().getInstanceNodeSessionId(), channel.getChannelId(),
+                        response.getResultCode().toString()));
+                }
+            }
+        });
+    }
+
     private NetworkResponse handleIncomingPropertiesUpdate(NetworkRequest request) throws InternalMessagingException {
         try {
             IncomingUpdate parsedUpdate = new IncomingUpdate(request);
             InstanceNodeSessionId sender = request.accessMetaData().getSender();
 
+            if (parsedUpdate.isDigest) {
+                return handleIncomingDigest(request, parsedUpdate);
+            }
+
             // TODO warn/fail on remote modification of local data?
             Collection<NodePropertyImpl> effectiveSubset = mergeExternalUpdateIntoFullKnowledgeAndGetEffectiveSubset(parsedUpdate);
             if (localNodeIsRelay) {
@@ -478,26 +572,11 @@ public class NodePropertiesServiceImpl implements NodePropertiesService {
                 // respond with complementing knowledge
                 Collection<NodePropertyImpl> complementingKnowledge;
                 synchronized (knowledgeLock) {
-                    if (localNodeIsRelay) {
-                        // relay: calculate complementing knowledge using the full knowledge set
-                        complementingKnowledge = completeKnowledgeRegistry.getComplementingKnowledge(parsedUpdate.entries);
-                        if (verboseLogging) {
-                            log.debug(StringUtils.format("Responding to initial node property exchange with %d complementing entries "
-                                + "(out of %d in the complete set)", complementingKnowledge.size(),
-                                completeKnowledgeRegistry.getEntryCount()));
-                        }
-                    } else {
-                        // non-relay: calculate complementing knowledge using only the local entries set
-                        complementingKnowledge = locallyPublishedKnowledgeRegistry.getComplementingKnowledge(parsedUpdate.entries);
-                        if (verboseLogging) {
-                            log.debug(StringUtils.format("Responding to initial node property exchange with %d complementing entries "
-                                + "(out of %d in the local set)", complementingKnowledge.size(),
-                                locallyPublishedKnowledgeRegistry.getEntryCount()));
-                        }
-                    }
+                    complementingKnowledge = getComplementingKnowledge(parsedUpdate);
                 }
 
-                byte[] responseBody = constructMessageBody(MESSAGE_SUBTYPE_INCREMENTAL, complementingKnowledge);
+                byte[] responseBody =
+                    constructMessageBody(MESSAGE_SUBTYPE_INCREMENTAL, complementingKnowledge, parsedUpdate.isCompactFormat);
                 return NetworkResponseFactory.generateSuccessResponse(request, responseBody);
             } else {
                 byte[] responseBody = new byte[0]; // dummy
@@ -509,6 +588,50 @@ public class NodePropertiesServiceImpl implements NodePropertiesService {
         }
     }
 
+    /**
+     * Handles an initial update in digest form. Unlike the full form, the digest is not merged, as it contains no values; instead, the
+     * response requests the entries that are missing or outdated locally, in addition to the complementing knowledge.
+     */
+    private NetworkResponse handleIncomingDigest(NetworkRequest request, IncomingUpdate parsedUpdate) {
+        final Collection<NodePropertyImpl> complementingKnowledge;
+        final Collection<NodePropertyImpl> missingEntries;
+        synchronized (knowledgeLock) {
+            complementingKnowledge = getComplementingKnowledge(parsedUpdate);
+            // no relay/non-relay distinction here, as received entries are always merged into the full knowledge
+            missingEntries = completeKnowledgeRegistry.getEntriesNewerThanKnowledge(parsedUpdate.entries);
+        }
+        if (verboseLogging) {
+            log.debug(StringUtils.format("Requesting %d of %d entries of the initial node property digest from %s", missingEntries.size(),
+                parsedUpdate.entries.size(), request.accessMetaData().getSender()));
+        }
+        byte[] responseBody = constructMessageBody(
+            NodePropertiesUpdatePayload.createUpdate(MESSAGE_SUBTYPE_INCREMENTAL, complementingKnowledge, missingEntries));
+        return NetworkResponseFactory.generateSuccessResponse(request, responseBody);
+    }
+
+    // note: must be called while holding the knowledgeLock monitor
+    private Collection<NodePropertyImpl> getComplementingKnowledge(IncomingUpdate parsedUpdate) {
+        Collection<NodePropertyImpl> complementingKnowledge;
+        if (localNodeIsRelay) {
+            // relay: calculate complementing knowledge using the full knowledge set
+            complementingKnowledge = completeKnowledgeRegistry.getComplementingKnowledge(parsedUpdate.entries);
+            if (verboseLogging) {
+                log.debug(StringUtils.format("Responding to initial node property exchange with %d complementing entries "
+                    + "(out of %d in the complete set)", complementingKnowledge.size(),
+                    completeKnowledgeRegistry.getEntryCount()));
+            }
+        } else {
+            // non-relay: calculate complementing knowledge using only the local entries set
+            complementingKnowledge = locallyPublishedKnowledgeRegistry.getComplementingKnowledge(parsedUpdate.entries);
+            if (verboseLogging) {
+                log.debug(StringUtils.format("Responding to initial node property exchange with %d complementing entries "
+                    + "(out of %d in the local set)", complementingKnowledge.size(),
+                    locallyPublishedKnowledgeRegistry.getEntryCount()));
+            }
+        }
+        return complementingKnowledge;
+    }
+
     private Collection<NodePropertyImpl> mergeExternalUpdateIntoFullKnowledgeAndGetEffectiveSubset(IncomingUpdate parsedUpdate) {
         Collection<NodePropertyImpl> effectiveSubset;
         synchronized (knowledgeLock) {
@@ -609,18 +732,19 @@ public class NodePropertiesServiceImpl implements NodePropertiesService {
         final int batchId) {
         log.debug("Broadcasting non-batched node properties update " + batchId);
         final Set<MessageChannel> channels = connectionService.getAllOutgoingChannels();
-        NetworkRequest request = null;
-        boolean firstRecipient = true;
+        // one request per message format, as older nodes only understand the legacy format
+        NetworkRequest compactRequest = null;
+        NetworkRequest legacyRequest = null;
         for (final MessageChannel channel : channels) {
             final InstanceNodeSessionId remoteNodeId = channel.getRemoteNodeInformation().getInstanceNodeSessionId();
             if (exclusion == null || !remoteNodeId.equals(exclusion)) {
-                if (firstRecipient) {
-                    // lazily construct request here in case there is no recipient at all
-                    request = constructNetworkRequest(updateType, entries);
-                    firstRecipient = false;
+                final NetworkRequest request;
+                if (supportsCompactFormat(channel)) {
+                    compactRequest = constructOrCloneNetworkRequest(compactRequest, updateType, entries, true);
+                    request = compactRequest;
                 } else {
-                    // make request ids unique if there is more than one recipient, but don't regenerate the content payload
-                    request = NetworkRequestFactory.cloneWithNewRequestId(request);
+                    legacyRequest = constructOrCloneNetworkRequest(legacyRequest, updateType, entries, false);
+                    request = legacyRequest;
                 }
                 directMessagingSender.sendDirectMessageAsync(request, channel, new NetworkResponseHandler() {
 
@@ -687,7 +811,7 @@ public class NodePropertiesServiceImpl implements NodePropertiesService {
                     log.warn("Unexpected state: empty map of merged node property deltas, not sending an update via " + channel);
                     continue;
                 }
-                request = constructNetworkRequest(updateType, mergeMapForSingleRecipient.values());
+                request = constructNetworkRequest(updateType, mergeMapForSingleRecipient.values(), supportsCompactFormat(channel));
                 if (verboseLogging) {
                     log.debug(StringUtils.format("Sending aggregated node properties update %d to %s via channel %s",
                         batchId, channel.getRemoteNodeInformation().getInstanceNodeSessionId(), channel.getChannelId()));
@@ -707,14 +831,41 @@ public class NodePropertiesServiceImpl implements NodePropertiesService {
         }
     }
 
-    private NetworkRequest constructNetworkRequest(String updateType, Collection<NodePropertyImpl> entries) {
-        byte[] contentBytes = constructMessageBody(updateType, entries);
+    private boolean supportsCompactFormat(MessageChannel channel) {
+        return MessageUtils.isPayloadCodecSupported(channel.getRemoteNodeInformation().getSupportedPayloadCodecs(),
+            NodePropertiesPayloadCodec.ID);
+    }
+
+    private NetworkRequest constructOrCloneNetworkRequest(NetworkRequest previousRequest, String updateType,
+        Collection<NodePropertyImpl> entries, boolean compactFormat) {
+        if (previousRequest == null) {
+            // lazily construct request here in case there is no recipient at all
+            return constructNetworkRequest(updateType, entries, compactFormat);
+        } else {
+            // make request ids unique if there is more than one recipient, but don't regenerate the content payload
+            return NetworkRequestFactory.cloneWithNewRequestId(previousRequest);
+        }
+    }
+
+    private NetworkRequest constructNetworkRequest(String updateType, Collection<NodePropertyImpl> entries, boolean compactFormat) {
+        return createNetworkRequest(constructMessageBody(updateType, entries, compactFormat));
+    }
+
+    private NetworkRequest constructNetworkRequest(NodePropertiesUpdatePayload payload) {
+        return createNetworkRequest(constructMessageBody(payload));
+    }
+
+    private NetworkRequest createNetworkRequest(byte[] contentBytes) {
         NetworkRequest request = NetworkRequestFactory.createNetworkRequest(contentBytes,
             ProtocolConstants.VALUE_MESSAGE_TYPE_NODE_PROPERTIES_UPDATE, localNodeSessionId, null);
         return request;
     }
 
-    private byte[] constructMessageBody(String updateType, Collection<NodePropertyImpl> entries) {
+    private byte[] constructMessageBody(String updateType, Collection<NodePropertyImpl> entries, boolean compactFormat) {
+        if (compactFormat) {
+            return constructMessageBody(
+                NodePropertiesUpdatePayload.createUpdate(updateType, entries, Collections.<NodePropertyImpl> emptyList()));
+        }
         List<String> stringParts = new ArrayList<String>();
         stringParts.add(updateType);
         for (NodePropertyImpl entry : entries) {
@@ -723,7 +874,21 @@ public class NodePropertiesServiceImpl implements NodePropertiesService {
         }
         String body = StringUtils.escapeAndConcat(stringParts.toArray(new String[stringParts.size()]));
         // log.debug(localNodeId + ": Constructed node property update: " + body);
-        return MessageUtils.serializeSafeObject(body);
+        final byte[] bytes = MessageUtils.serializeSafeObject(body);
+        StatsCounter.registerValue("Node property updates", "Message body size (legacy format)", bytes.length);
+        return bytes;
+    }
+
+    private byte[] constructMessageBody(NodePropertiesUpdatePayload payload) {
+        final byte[] bytes;
+        try {
+            bytes = MessageUtils.serializeObject(payload, NodePropertiesPayloadCodec.ID);
+        } catch (SerializationException e) {
+            // the payload was generated locally, so this is a programming error
+            throw new RuntimeException(e);
+        }
+        StatsCounter.registerValue("Node property updates", "Message body size (compact format)", bytes.length);
+        return bytes;
     }
 
 }
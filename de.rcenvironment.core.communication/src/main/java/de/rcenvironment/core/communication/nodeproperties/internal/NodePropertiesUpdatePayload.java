@@ -0,0 +1,140 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.communication.nodeproperties.internal;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The message body of a node properties update in the form that is encoded by the {@link NodePropertiesPayloadCodec}. Besides the
+ * property entries, an update may contain the entries that its sender requests from the receiver.
+ * 
+ * If the update is a digest, its entries only consist of their composite key and sequence number, which together identify the version of
+ * a property; their values are omitted. The receiver of a digest answers with the entries it knows a newer version of, and requests the
+ * entries it is missing, so that property values are only transferred if they are actually needed.
+ * 
+ * @author agent
+ */
+final class NodePropertiesUpdatePayload implements Serializable {
+
+    private static final long serialVersionUID = 4409273460927613052L;
+
+    private final String updateType;
+
+    private final boolean digest;
+
+    private final List<Entry> entries;
+
+    private final List<Entry> requestedEntries;
+
+    /**
+     * A single property entry. The value is null for deleted properties, and for all entries of a digest or a request.
+     * 
+     * @author agent
+     */
+    static final class Entry implements Serializable {
+
+        private static final long serialVersionUID = -5104322624541807297L;
+
+        private final String instanceNodeSessionIdString;
+
+        private final String dataKey;
+
+        private final long sequenceNo;
+
+        private final String value;
+
+        Entry(String instanceNodeSessionIdString, String dataKey, long sequenceNo, String value) {
+            this.instanceNodeSessionIdString = instanceNodeSessionIdString;
+            this.dataKey = dataKey;
+            this.sequenceNo = sequenceNo;
+            this.value = value;
+        }
+
+        String getInstanceNodeSessionIdString() {
+            return instanceNodeSessionIdString;
+        }
+
+        String getDataKey() {
+            return dataKey;
+        }
+
+        long getSequenceNo() {
+            return sequenceNo;
+        }
+
+        String getValue() {
+            return value;
+        }
+    }
+
+    NodePropertiesUpdatePayload(String updateType, boolean digest, List<Entry> entries, List<Entry> requestedEntries) {
+        this.updateType = updateType;
+        this.digest = digest;
+        this.entries = Collections.unmodifiableList(entries);
+        this.requestedEntries = Collections.unmodifiableList(requestedEntries);
+    }
+
+    /**
+     * Creates an update containing the given properties, including their values.
+     * 
+     * @param updateType the update (sub-)type
+     * @param properties the properties to send
+     * @param requestedProperties the properties to request from the receiver; their values are ignored
+     * @return the new update
+     */
+    static NodePropertiesUpdatePayload createUpdate(String updateType, Collection<NodePropertyImpl> properties,
+        Collection<NodePropertyImpl> requestedProperties) {
+        return new NodePropertiesUpdatePayload(updateType, false, toEntries(properties, true), toEntries(requestedProperties, false));
+    }
+
+    /**
+     * Creates a digest of the given properties, i.e. an update containing only their composite keys and sequence numbers.
+     * 
+     * @param updateType the update (sub-)type
+     * @param properties the properties to create the digest of
+     * @return the new update
+     */
+    static NodePropertiesUpdatePayload createDigest(String updateType, Collection<NodePropertyImpl> properties) {
+        return new NodePropertiesUpdatePayload(updateType, true, toEntries(properties, false), new ArrayList<Entry>());
+    }
+
+    String getUpdateType() {
+        return updateType;
+    }
+
+    boolean isDigest() {
+        return digest;
+    }
+
+    List<Entry> getEntries() {
+        return entries;
+    }
+
+    List<Entry> getRequestedEntries() {
+        return requestedEntries;
+    }
+
+    private static List<Entry> toEntries(Collection<NodePropertyImpl> properties, boolean includeValues) {
+        final List<Entry> result = new ArrayList<>(properties.size());
+        for (NodePropertyImpl property : properties) {
+            final String value;
+            if (includeValues) {
+                value = property.getValue();
+            } else {
+                value = null;
+            }
+            result.add(new Entry(property.getInstanceNodeSessionIdString(), property.getKey(), property.getSequenceNo(), value));
+        }
+        return result;
+    }
+}
@@ -40,6 +40,14 @@ public class NodePropertyImpl implements NodeProperty {
         this.instanceSessionId = nodeIdentifierService.parseInstanceNodeSessionIdString(key.getInstanceNodeSessionIdString());
     }
 
+    public NodePropertyImpl(String instanceSessionIdString, String dataKey, long sequenceNo, String value,
+        NodeIdentifierService nodeIdentifierService) throws IdentifierException {
+        this.key = new CompositeNodePropertyKey(instanceSessionIdString, dataKey);
+        this.sequenceNo = sequenceNo;
+        this.value = value;
+        this.instanceSessionId = nodeIdentifierService.parseInstanceNodeSessionIdString(instanceSessionIdString);
+    }
+
     public NodePropertyImpl(InstanceNodeSessionId instanceSessionId, String dataKey, long sequenceNo, String value) {
         this.key = new CompositeNodePropertyKey(instanceSessionId.getInstanceNodeSessionIdString(), dataKey);
         this.sequenceNo = sequenceNo;
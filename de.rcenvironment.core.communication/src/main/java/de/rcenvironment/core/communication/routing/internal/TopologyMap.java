@@ -11,6 +11,7 @@ package de.rcenvironment.core.communication.routing.internal;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -34,7 +35,8 @@ import edu.uci.ics.jung.graph.DirectedSparseMultigraph;
  * corresponds to a RCE instance and an edge represents a connection/link ({@link TopologyLink}) between two RCE instances. The graph is a
  * directed sparse multigraph {@link DirectedSparseMultigraph}.
  * 
- * TODO review: reduce synchronization
+ * Routing queries for the local node are answered from an immutable routing snapshot, which is discarded whenever the topology changes
+ * and recomputed on the next query. All other operations synchronize on the map instance.
  * 
  * @see <a href="http://jung.sourceforge.net/doc/api/index.html">JUNG2</a>
  * 
@@ -58,6 +60,36 @@ public final class TopologyMap {
 
     private final InstanceNodeSessionId localNodeId;
 
+    /**
+     * The routes from the local node to all other nodes, as of the last topology change; null if the topology has changed since it was
+     * last computed. Replaced as a whole on recomputation, so it can be read without holding the map's monitor.
+     */
+    private volatile RoutingSnapshot routingSnapshot;
+
+    /**
+     * An immutable snapshot of the routes from the local node to all other known nodes.
+     * 
+     * @author agent
+     */
+    private static final class RoutingSnapshot {
+
+        private final Map<InstanceNodeSessionId, NetworkRoute> routes;
+
+        private final Set<InstanceNodeSessionId> knownNodes;
+
+        private final Set<InstanceNodeSessionId> reachableNodes;
+
+        private final Set<InstanceNodeSessionId> reachableWorkflowHostsAndSelf;
+
+        RoutingSnapshot(Map<InstanceNodeSessionId, NetworkRoute> routes, Set<InstanceNodeSessionId> knownNodes,
+            Set<InstanceNodeSessionId> reachableNodes, Set<InstanceNodeSessionId> reachableWorkflowHostsAndSelf) {
+            this.routes = Collections.unmodifiableMap(routes);
+            this.knownNodes = Collections.unmodifiableSet(knownNodes);
+            this.reachableNodes = Collections.unmodifiableSet(reachableNodes);
+            this.reachableWorkflowHostsAndSelf = Collections.unmodifiableSet(reachableWorkflowHostsAndSelf);
+        }
+    }
+
     /**
      * The constructor.
      * 
@@ -123,6 +155,16 @@ public final class TopologyMap {
             return false;
         }
 
+        // most LSAs only confirm the known links of a node; in this case, the routing snapshot remains valid
+        final RoutingSnapshot previousRoutingSnapshot = routingSnapshot;
+        final int previousNodeCount = networkModel.getVertexCount();
+        final Set<TopologyLink> previousLinks = new HashSet<TopologyLink>();
+        boolean previousWorkflowHostFlag = false;
+        if (lsaRootPresent) {
+            previousLinks.addAll(networkModel.getOutEdges(lsaRoot));
+            previousWorkflowHostFlag = lsaRoot.getIsWorkflowHost();
+        }
+
         // TODO Maybe removing and re-inserting is not the best way to update the graph.
         // remove node and edges
         if (lsaRootPresent) {
@@ -164,6 +206,12 @@ public final class TopologyMap {
             removeNode(lsaRoot);
         }
 
+        if (lsaRootPresent && containsNode(lsaRoot) && networkModel.getVertexCount() == previousNodeCount
+            && lsaRoot.getIsWorkflowHost() == previousWorkflowHostFlag
+            && previousLinks.equals(new HashSet<TopologyLink>(networkModel.getOutEdges(lsaRoot)))) {
+            routingSnapshot = previousRoutingSnapshot;
+        }
+
         return true;
     }
 
@@ -171,38 +219,27 @@ public final class TopologyMap {
      * Computes the shortest path from the source node to the destination node. The Dijkstra shortest path algorithm is used to determine
      * the shortest path.
      * 
+     * Routes starting at the local node are taken from a routing table that covers all destinations, and is only recomputed after the
+     * topology has changed; these lookups do not block on concurrent topology updates.
+     * 
      * @see <a href="http://jung.sourceforge.net/doc/api/edu/uci/ics/jung/algorithms/shortestpath/DijkstraShortestPath.html">
      *      DijkstraShortestPath</a>
      * @param source The source platform
      * @param destination The destination platform
      * @return The shortest path between source and destination.
      */
-    public synchronized NetworkRoute getShortestPath(InstanceNodeSessionId source, InstanceNodeSessionId destination) {
-        // TODO optimization: provide method that only returns the next step (if rest is irrelevant)
-        // TODO optimization: add caching!
-        long elapsed = 0;
-
-        List<TopologyLink> path = new ArrayList<TopologyLink>();
-        List<InstanceNodeSessionId> nodes = new ArrayList<InstanceNodeSessionId>();
-
-        TopologyNode sourceNode = getNode(source);
-        if (sourceNode == null) {
-            throw new IllegalStateException("Consistency error: The local node is not part of the known topology");
+    public NetworkRoute getShortestPath(InstanceNodeSessionId source, InstanceNodeSessionId destination) {
+        if (!localNodeId.equals(source)) {
+            return computeShortestPath(source, destination);
         }
-        TopologyNode destinationNode = getNode(destination);
-        if (destinationNode != null) {
-            DijkstraShortestPath<TopologyNode, TopologyLink> alg =
-                new DijkstraShortestPath<TopologyNode, TopologyLink>(networkModel);
-
-            long start = System.nanoTime();
-            path = alg.getPath(sourceNode, destinationNode);
-            elapsed = System.nanoTime() - start;
-
-            for (TopologyLink link : path) {
-                nodes.add(networkModel.getEndpoints(link).getSecond().getNodeIdentifier());
-            }
-            return new NetworkRoute(source, destination, path, nodes, elapsed);
-            // LOGGER.debug(StringUtils.format("Route computation: %s ms", elapsed * 10e-9));
+        RoutingSnapshot snapshot = getRoutingSnapshot();
+        NetworkRoute route = snapshot.routes.get(destination);
+        if (route != null) {
+            return route;
+        }
+        if (snapshot.knownNodes.contains(destination)) {
+            // known, but unreachable node, or the local node itself
+            return new NetworkRoute(source, destination, new ArrayList<TopologyLink>(), new ArrayList<InstanceNodeSessionId>(), 0);
         } else {
             LOGGER.warn("Could not determine route to node " + destination + " as it is not part of the known topology");
             return null;
@@ -215,24 +252,96 @@ public final class TopologyMap {
      * @param restrictToWorkflowHostsAndSelf No description available.
      * @return Set of platform identifiers.
      */
-    public synchronized Set<InstanceNodeSessionId> getIdsOfReachableNodes(boolean restrictToWorkflowHostsAndSelf) {
-        Set<InstanceNodeSessionId> result = new HashSet<InstanceNodeSessionId>();
-        // get the map of reachable nodes by (ab)using the Dijkstra algorithm;
-        // TODO is there a more efficient approach available in JUNG?
+    public Set<InstanceNodeSessionId> getIdsOfReachableNodes(boolean restrictToWorkflowHostsAndSelf) {
+        RoutingSnapshot snapshot = getRoutingSnapshot();
+        if (restrictToWorkflowHostsAndSelf) {
+            return new HashSet<InstanceNodeSessionId>(snapshot.reachableWorkflowHostsAndSelf);
+        } else {
+            return new HashSet<InstanceNodeSessionId>(snapshot.reachableNodes);
+        }
+    }
+
+    private RoutingSnapshot getRoutingSnapshot() {
+        RoutingSnapshot snapshot = routingSnapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        return computeRoutingSnapshot();
+    }
+
+    private synchronized RoutingSnapshot computeRoutingSnapshot() {
+        // check again, as another thread may have computed the snapshot in the meantime
+        if (routingSnapshot != null) {
+            return routingSnapshot;
+        }
+        TopologyNode sourceNode = getNode(localNodeId);
+        if (sourceNode == null) {
+            throw new IllegalStateException("Consistency error: The local node is not part of the known topology");
+        }
+
+        long start = System.nanoTime();
         DijkstraShortestPath<TopologyNode, TopologyLink> alg =
             new DijkstraShortestPath<TopologyNode, TopologyLink>(networkModel);
-        Map<TopologyNode, Number> distanceMap = alg.getDistanceMap(getNode(localNodeId));
-        for (TopologyNode node : distanceMap.keySet()) {
-            if (restrictToWorkflowHostsAndSelf) {
-                boolean isLocalNode = localNodeId.equals(node.getNodeIdentifier());
-                if (!(isLocalNode || node.getIsWorkflowHost())) {
-                    continue;
-                }
+        // the distance map contains all nodes reachable from the source node, including itself
+        Set<TopologyNode> reachableNodes = alg.getDistanceMap(sourceNode).keySet();
+        Map<InstanceNodeSessionId, List<TopologyLink>> paths = new HashMap<InstanceNodeSessionId, List<TopologyLink>>();
+        for (TopologyNode node : reachableNodes) {
+            if (node != sourceNode) {
+                // served from the algorithm's cache, as the source node is always the same
+                paths.put(node.getNodeIdentifier(), alg.getPath(sourceNode, node));
             }
-            // TODO remove typecast once NetworkIdentifier vs. NodeIdentifier is done
-            result.add((InstanceNodeSessionId) node.getNodeIdentifier());
         }
-        return result;
+        long elapsed = System.nanoTime() - start;
+
+        Map<InstanceNodeSessionId, NetworkRoute> routes = new HashMap<InstanceNodeSessionId, NetworkRoute>();
+        for (Map.Entry<InstanceNodeSessionId, List<TopologyLink>> entry : paths.entrySet()) {
+            List<InstanceNodeSessionId> nodes = new ArrayList<InstanceNodeSessionId>();
+            for (TopologyLink link : entry.getValue()) {
+                nodes.add(networkModel.getEndpoints(link).getSecond().getNodeIdentifier());
+            }
+            routes.put(entry.getKey(), new NetworkRoute(localNodeId, entry.getKey(), Collections.unmodifiableList(entry.getValue()),
+                Collections.unmodifiableList(nodes), elapsed));
+        }
+
+        Set<InstanceNodeSessionId> knownNodeIds = new HashSet<InstanceNodeSessionId>();
+        for (TopologyNode node : networkModel.getVertices()) {
+            knownNodeIds.add(node.getNodeIdentifier());
+        }
+        Set<InstanceNodeSessionId> reachableNodeIds = new HashSet<InstanceNodeSessionId>();
+        Set<InstanceNodeSessionId> reachableWorkflowHostIds = new HashSet<InstanceNodeSessionId>();
+        for (TopologyNode node : reachableNodes) {
+            reachableNodeIds.add(node.getNodeIdentifier());
+            if (node == sourceNode || node.getIsWorkflowHost()) {
+                reachableWorkflowHostIds.add(node.getNodeIdentifier());
+            }
+        }
+
+        routingSnapshot = new RoutingSnapshot(routes, knownNodeIds, reachableNodeIds, reachableWorkflowHostIds);
+        return routingSnapshot;
+    }
+
+    private synchronized NetworkRoute computeShortestPath(InstanceNodeSessionId source, InstanceNodeSessionId destination) {
+        TopologyNode sourceNode = getNode(source);
+        if (sourceNode == null) {
+            throw new IllegalStateException("Consistency error: The source node is not part of the known topology");
+        }
+        TopologyNode destinationNode = getNode(destination);
+        if (destinationNode == null) {
+            LOGGER.warn("Could not determine route to node " + destination + " as it is not part of the known topology");
+            return null;
+        }
+        DijkstraShortestPath<TopologyNode, TopologyLink> alg =
+            new DijkstraShortestPath<TopologyNode, TopologyLink>(networkModel);
+
+        long start = System.nanoTime();
+        List<TopologyLink> path = alg.getPath(sourceNode, destinationNode);
+        long elapsed = System.nanoTime() - start;
+
+        List<InstanceNodeSessionId> nodes = new ArrayList<InstanceNodeSessionId>();
+        for (TopologyLink link : path) {
+            nodes.add(networkModel.getEndpoints(link).getSecond().getNodeIdentifier());
+        }
+        return new NetworkRoute(source, destination, path, nodes, elapsed);
     }
 
     /**
@@ -496,6 +605,7 @@ public final class TopologyMap {
             LOGGER.warn(StringUtils.format("Link edge %s was not added to graph -- duplicate?", networkLink));
             return false;
         }
+        routingSnapshot = null;
         return true;
         // old:
         // if (sourceNode != null && destinationNode != null && !sourceNode.equals(destinationNode))
@@ -525,6 +635,7 @@ public final class TopologyMap {
      */
     public synchronized boolean removeLink(TopologyLink link) {
         if (containsLink(link)) {
+            routingSnapshot = null;
             return networkModel.removeEdge(link);
         } else {
             LOGGER.warn("Edge removal requested for non-existant link: " + link);
@@ -538,6 +649,7 @@ public final class TopologyMap {
      * @param node The node
      */
     public synchronized void removeNode(TopologyNode node) {
+        routingSnapshot = null;
         networkModel.removeVertex(node);
     }
 
@@ -560,6 +672,7 @@ public final class TopologyMap {
         if (existingNetworkNode == null) {
             TopologyNode node = new TopologyNode(nodeId);
             networkModel.addVertex(node);
+            routingSnapshot = null;
             return node;
         }
         return existingNetworkNode;
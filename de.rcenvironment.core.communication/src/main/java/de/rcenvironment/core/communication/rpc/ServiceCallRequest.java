@@ -14,6 +14,7 @@ import java.util.List;
 import de.rcenvironment.core.communication.api.ReliableRPCStreamHandle;
 import de.rcenvironment.core.communication.common.InstanceNodeSessionId;
 import de.rcenvironment.core.communication.common.LogicalNodeSessionId;
+import de.rcenvironment.core.communication.utils.MessageUtils;
 import de.rcenvironment.core.utils.common.StringUtils;
 import de.rcenvironment.core.utils.incubator.Assertions;
 
@@ -65,6 +66,10 @@ public class ServiceCallRequest implements Serializable {
     // non-zero if a reliable RPC stream is being used; the only field that is set after the constructor
     private long sequenceNumber;
 
+    // the payload codecs supported by the caller, as returned by MessageUtils.getSupportedPayloadCodecs(); used to select the codec for
+    // the response. null if the request was sent by an older version.
+    private final String callerPayloadCodecs;
+
     /**
      * @param targetNodeId the target node's {@link InstanceNodeSessionId}
      * @param callerNodeId the calling node's {@link InstanceNodeSessionId}
@@ -75,6 +80,33 @@ public class ServiceCallRequest implements Serializable {
      */
     public ServiceCallRequest(LogicalNodeSessionId targetNodeId, LogicalNodeSessionId callerNodeId,
         String serviceName, String methodName, List<? extends Serializable> parameters, ReliableRPCStreamHandle reliableRPCStreamHandle) {
+        this(targetNodeId, callerNodeId, serviceName, methodName, parameters, reliableRPCStreamHandle,
+            getStreamIdOrNull(reliableRPCStreamHandle), MessageUtils.getSupportedPayloadCodecs());
+    }
+
+    /**
+     * Reconstructs a received request. Intended for {@link de.rcenvironment.core.communication.utils.MessagePayloadCodec}s; for creating
+     * new requests, use {@link #ServiceCallRequest(LogicalNodeSessionId, LogicalNodeSessionId, String, String, List,
+     * ReliableRPCStreamHandle)} instead.
+     * 
+     * @param targetNodeId the target node's {@link LogicalNodeSessionId}
+     * @param callerNodeId the calling node's {@link LogicalNodeSessionId}
+     * @param serviceName the FQN of the remote service interface to call
+     * @param methodName the name of the remote method to call
+     * @param parameters the method parameters
+     * @param reliableRPCStreamId the id of the reliable RPC stream the request was sent with; may be null
+     * @param sequenceNumber the sequence number within the reliable RPC stream
+     * @param callerPayloadCodecs the payload codecs announced by the caller; may be null
+     */
+    public ServiceCallRequest(LogicalNodeSessionId targetNodeId, LogicalNodeSessionId callerNodeId, String serviceName, String methodName,
+        List<? extends Serializable> parameters, String reliableRPCStreamId, long sequenceNumber, String callerPayloadCodecs) {
+        this(targetNodeId, callerNodeId, serviceName, methodName, parameters, null, reliableRPCStreamId, callerPayloadCodecs);
+        this.sequenceNumber = sequenceNumber;
+    }
+
+    private ServiceCallRequest(LogicalNodeSessionId targetNodeId, LogicalNodeSessionId callerNodeId, String serviceName,
+        String methodName, List<? extends Serializable> parameters, ReliableRPCStreamHandle reliableRPCStreamHandle,
+        String reliableRPCStreamId, String callerPayloadCodecs) {
 
         Assertions.isDefined(targetNodeId, StringUtils.format(ERROR_PARAMETERS_NULL, "destination"));
         Assertions.isDefined(callerNodeId, StringUtils.format(ERROR_PARAMETERS_NULL, "sender"));
@@ -87,10 +119,15 @@ public class ServiceCallRequest implements Serializable {
         this.methodName = methodName;
         this.parameters = parameters;
         this.senderSideReliableRPCStreamHandle = reliableRPCStreamHandle;
+        this.reliableRPCStreamId = reliableRPCStreamId;
+        this.callerPayloadCodecs = callerPayloadCodecs;
+    }
+
+    private static String getStreamIdOrNull(ReliableRPCStreamHandle reliableRPCStreamHandle) {
         if (reliableRPCStreamHandle != null) {
-            this.reliableRPCStreamId = reliableRPCStreamHandle.getStreamId();
+            return reliableRPCStreamHandle.getStreamId();
         } else {
-            this.reliableRPCStreamId = null;
+            return null;
         }
     }
 
@@ -135,4 +172,8 @@ public class ServiceCallRequest implements Serializable {
     public ReliableRPCStreamHandle getSenderSideReliableRPCStreamHandle() {
         return senderSideReliableRPCStreamHandle;
     }
+
+    public String getCallerPayloadCodecs() {
+        return callerPayloadCodecs;
+    }
 }
@@ -22,6 +22,12 @@ public class ServiceCallResult implements Serializable {
 
     private static final long serialVersionUID = -7511179849159143497L;
 
+    /**
+     * The start of the error message sent by versions that do not set {@link #refusedAsInvalidRequest} yet; as the message of these
+     * versions is fixed, it is safe to recognize their refused requests by it.
+     */
+    private static final String LEGACY_REFUSED_REQUEST_MESSAGE_PREFIX = "Request refused by destination instance";
+
     /**
      * The return value after a successful invocation; may be null if an error occurred or for methods that return "void".
      */
@@ -43,6 +49,12 @@ public class ServiceCallResult implements Serializable {
      */
     private String errorMessage;
 
+    /**
+     * Whether the destination refused the request without invoking any method; in this case, {@link #errorMessage} is set as well. Not
+     * set by older versions, which are deserialized with the default value false.
+     */
+    private boolean refusedAsInvalidRequest;
+
     /**
      * Constructor that takes a return value.
      * 
@@ -56,6 +68,17 @@ public class ServiceCallResult implements Serializable {
         this.errorMessage = errorMessage;
     }
 
+    /**
+     * Constructor for a request that was refused by the destination without invoking any method.
+     * 
+     * @param errorMessage the error message
+     * @param refusedAsInvalidRequest true if the request was refused without invoking any method
+     */
+    public ServiceCallResult(String errorMessage, boolean refusedAsInvalidRequest) {
+        this(null, null, null, errorMessage);
+        this.refusedAsInvalidRequest = refusedAsInvalidRequest;
+    }
+
     public Serializable getReturnValue() {
         return methodReturnValue;
     }
@@ -84,4 +107,12 @@ public class ServiceCallResult implements Serializable {
         return errorMessage;
     }
 
+    /**
+     * @return true if the destination refused the request without invoking any method, e.g. as the method does not exist in its version
+     */
+    public boolean isRefusedAsInvalidRequest() {
+        return refusedAsInvalidRequest
+            || errorMessage != null && errorMessage.startsWith(LEGACY_REFUSED_REQUEST_MESSAGE_PREFIX);
+    }
+
 }
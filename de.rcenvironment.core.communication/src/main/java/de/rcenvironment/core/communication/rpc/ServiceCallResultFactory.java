@@ -21,6 +21,7 @@ import de.rcenvironment.core.communication.model.internal.PayloadTestFuzzer;
 import de.rcenvironment.core.utils.common.LogUtils;
 import de.rcenvironment.core.utils.common.StringUtils;
 import de.rcenvironment.core.utils.common.rpc.RemoteOperationException;
+import de.rcenvironment.core.utils.common.rpc.RemoteRequestRefusedException;
 
 /**
  * Represents all possible outcomes of a remote service call (on either side) into {@link ServiceCallResult} instances.
@@ -33,6 +34,23 @@ public final class ServiceCallResultFactory {
 
     private ServiceCallResultFactory() {}
 
+    /**
+     * Checks whether the given exception was caused by the receiving instance refusing the request as invalid, as generated by
+     * {@link #representInvalidRequestAtHandler(ServiceCallRequest, String)}. In this case, the requested method was not invoked; the
+     * typical cause is a method that does not exist in the version of the receiving instance.
+     * 
+     * @param e the {@link RemoteOperationException} thrown by a remote service call, or an exception caused by it
+     * @return true if the request was refused without invoking the remote method
+     */
+    public static boolean isRefusedAsInvalidRequest(Exception e) {
+        for (Throwable current = e; current != null; current = current.getCause()) {
+            if (current instanceof RemoteRequestRefusedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Represents a low-level network error (e.g. a timeout) on the service call level. For the caller, this is represented as a
      * {@link RemoteOperationException} with a message describing the error.
@@ -210,7 +228,7 @@ public final class ServiceCallResultFactory {
                 serviceCallRequest.getMethodName(), serviceCallRequest.getCallerNodeId(), internalInfo));
 
         final String userMessage = StringUtils.format("Request refused by destination instance (remote error id: %s)", errorId);
-        return new ServiceCallResult(null, null, null, userMessage);
+        return new ServiceCallResult(userMessage, true);
     }
 
     /**
@@ -28,6 +28,7 @@ import de.rcenvironment.core.communication.rpc.ServiceCallResultFactory;
 import de.rcenvironment.core.communication.rpc.api.RemoteServiceCallSenderService;
 import de.rcenvironment.core.utils.common.StringUtils;
 import de.rcenvironment.core.utils.common.rpc.RemoteOperationException;
+import de.rcenvironment.core.utils.common.rpc.RemoteRequestRefusedException;
 import de.rcenvironment.core.utils.incubator.Assertions;
 import de.rcenvironment.core.utils.incubator.DebugSettings;
 
@@ -96,8 +97,12 @@ public final class RemoteServiceCallSenderServiceImpl implements RemoteServiceCa
             // the exception will usually cause an upstream warning already, so log the details at DEBUG level
             log.debug(StringUtils.format("A remote call to %s#%s() on %s failed: %s", serviceCallRequest.getServiceName(),
                 serviceCallRequest.getMethodName(), serviceCallRequest.getTargetNodeId(), errorMessage));
-            throw new RemoteOperationException(StringUtils.format("%s; the destination instance was %s", errorMessage,
-                serviceCallRequest.getTargetNodeId()));
+            final String message = StringUtils.format("%s; the destination instance was %s", errorMessage,
+                serviceCallRequest.getTargetNodeId());
+            if (serviceCallResult.isRefusedAsInvalidRequest()) {
+                throw new RemoteRequestRefusedException(message);
+            }
+            throw new RemoteOperationException(message);
         } else {
             final Throwable methodException = reconstructMethodException(serviceCallRequest, serviceCallResult);
             log.debug(StringUtils.format("Re-throwing method exception returned from a from call to %s: %s",
@@ -35,14 +35,17 @@ public final class ServiceCallSerializer {
     private final Log log = LogFactory.getLog(getClass());
 
     /**
-     * A simple wrapper around {@link MessageUtils#serializeObject()} with added request logging.
+     * A simple wrapper around {@link MessageUtils#serializeObject(java.io.Serializable, String)} with added request logging. Uses the
+     * most efficient payload codec that the target node has announced, if any.
      * 
      * @param serviceCallRequest the request to serialize
      * @return the serialized form
      * @throws SerializationException on error
      */
     public byte[] getSerializedForm(ServiceCallRequest serviceCallRequest) throws SerializationException {
-        final byte[] serializedRequest = MessageUtils.serializeObject(serviceCallRequest);
+        final String targetPayloadCodecs = MessageUtils.getRemotePayloadCodecs(
+            serviceCallRequest.getTargetNodeId().convertToInstanceNodeSessionId().getInstanceNodeSessionIdString());
+        final byte[] serializedRequest = MessageUtils.serializeObject(serviceCallRequest, targetPayloadCodecs);
         if (verboseRequestLoggingEnabled) {
             log.debug(StringUtils.format("Converted RPC for %s.%s() on %s into a network payload of %d bytes; rRPC stream: %s",
                 serviceCallRequest.getServiceName(), serviceCallRequest.getMethodName(), serviceCallRequest.getTargetNodeId(),
@@ -27,6 +27,7 @@ import de.rcenvironment.core.communication.model.NetworkContactPoint;
 import de.rcenvironment.core.communication.model.impl.InitialNodeInformationImpl;
 import de.rcenvironment.core.communication.sshconnection.InitialSshConnectionConfig;
 import de.rcenvironment.core.communication.sshconnection.InitialUplinkConnectionConfig;
+import de.rcenvironment.core.communication.utils.MessageUtils;
 import de.rcenvironment.toolkit.utils.common.IdGeneratorType;
 
 /**
@@ -69,6 +70,7 @@ public class NodeConfigurationServiceTestStub implements NodeConfigurationServic
 
         localNodeInformation = new InitialNodeInformationImpl(localInstanceSessionId);
         localNodeInformation.setDisplayName(displayName);
+        localNodeInformation.setSupportedPayloadCodecs(MessageUtils.getSupportedPayloadCodecs());
         serverContactPoints = new ArrayList<NetworkContactPoint>();
         initialNetworkPeers = new ArrayList<NetworkContactPoint>();
         this.isRelay = isRelay;
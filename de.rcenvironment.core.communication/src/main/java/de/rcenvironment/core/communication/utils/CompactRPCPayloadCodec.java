@@ -0,0 +1,304 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.communication.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.rcenvironment.core.communication.common.IdType;
+import de.rcenvironment.core.communication.common.IdentifierException;
+import de.rcenvironment.core.communication.common.LogicalNodeSessionId;
+import de.rcenvironment.core.communication.common.NodeIdentifierContextHolder;
+import de.rcenvironment.core.communication.common.SerializationException;
+import de.rcenvironment.core.communication.common.impl.NodeIdentifierImpl;
+import de.rcenvironment.core.communication.rpc.ServiceCallRequest;
+import de.rcenvironment.core.communication.rpc.ServiceCallResult;
+
+/**
+ * {@link MessagePayloadCodec} for the most frequent payloads, {@link ServiceCallRequest}s and {@link ServiceCallResult}s. Unlike Java
+ * serialization, it writes no class descriptors; the fields are written in a fixed order, and method parameters and return values of
+ * common types (strings, boxed primitives, byte arrays and node identifiers) are written with a one-byte type tag. Other values are
+ * embedded in Java-serialized form, so every request and result can be encoded. Note that endpoint data is transferred as strings, and is
+ * therefore covered as well.
+ * 
+ * Format: a marker byte that never starts a Java serialization stream, a format version byte, a payload type byte, and the payload fields.
+ * 
+ * @author agent
+ */
+final class CompactRPCPayloadCodec implements MessagePayloadCodec {
+
+    /**
+     * The id used to announce support for this codec; must be changed on incompatible format changes.
+     */
+    static final String ID = "rpc1";
+
+    private static final byte MARKER = (byte) 0xC5;
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte PAYLOAD_REQUEST = 1;
+
+    private static final byte PAYLOAD_RESULT = 2;
+
+    private static final byte TAG_NULL = 0;
+
+    private static final byte TAG_STRING = 1;
+
+    private static final byte TAG_BOOLEAN = 2;
+
+    private static final byte TAG_INTEGER = 3;
+
+    private static final byte TAG_LONG = 4;
+
+    private static final byte TAG_DOUBLE = 5;
+
+    private static final byte TAG_BYTE_ARRAY = 6;
+
+    private static final byte TAG_NODE_ID = 7;
+
+    private static final byte TAG_JAVA_SERIALIZED = 8;
+
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private final JavaSerializationPayloadCodec embeddedValueCodec = new JavaSerializationPayloadCodec();
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public boolean canEncode(Serializable object) {
+        // exact class checks, as subclasses may carry additional state
+        return object != null && (object.getClass() == ServiceCallRequest.class || object.getClass() == ServiceCallResult.class);
+    }
+
+    @Override
+    public byte[] encode(Serializable object) throws SerializationException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        try (DataOutputStream output = new DataOutputStream(buffer)) {
+            output.writeByte(MARKER);
+            output.writeByte(FORMAT_VERSION);
+            if (object instanceof ServiceCallRequest) {
+                output.writeByte(PAYLOAD_REQUEST);
+                writeRequest(output, (ServiceCallRequest) object);
+            } else {
+                output.writeByte(PAYLOAD_RESULT);
+                writeResult(output, (ServiceCallResult) object);
+            }
+        } catch (IOException e) {
+            throw new SerializationException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public boolean isEncodedBy(byte[] data) {
+        return data.length >= 1 && data[0] == MARKER;
+    }
+
+    @Override
+    public Serializable decode(byte[] data) throws SerializationException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(data))) {
+            input.readByte(); // marker; already checked by isEncodedBy()
+            final byte version = input.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new SerializationException("Unsupported payload format version: " + version);
+            }
+            final byte payloadType = input.readByte();
+            final Serializable result;
+            switch (payloadType) {
+            case PAYLOAD_REQUEST:
+                result = readRequest(input);
+                break;
+            case PAYLOAD_RESULT:
+                result = readResult(input);
+                break;
+            default:
+                throw new SerializationException("Unknown payload type: " + payloadType);
+            }
+            if (input.available() != 0) {
+                throw new SerializationException("Unexpected data after the end of the payload");
+            }
+            return result;
+        } catch (IOException | RuntimeException e) {
+            // runtime exceptions are caused by malformed input, e.g. an invalid id type or a value of an unexpected type
+            throw new SerializationException(e);
+        }
+    }
+
+    private void writeRequest(DataOutputStream output, ServiceCallRequest request) throws IOException, SerializationException {
+        writeValue(output, request.getTargetNodeId());
+        writeValue(output, request.getCallerNodeId());
+        writeString(output, request.getServiceName());
+        writeString(output, request.getMethodName());
+        List<? extends Serializable> parameters = request.getParameterList();
+        if (parameters == null) {
+            output.writeInt(-1);
+        } else {
+            output.writeInt(parameters.size());
+            for (Serializable parameter : parameters) {
+                writeValue(output, parameter);
+            }
+        }
+        writeString(output, request.getReliableRPCStreamId());
+        output.writeLong(request.getSequenceNumber());
+        writeString(output, request.getCallerPayloadCodecs());
+    }
+
+    private ServiceCallRequest readRequest(DataInputStream input) throws IOException, SerializationException {
+        LogicalNodeSessionId target = (LogicalNodeSessionId) readValue(input);
+        LogicalNodeSessionId caller = (LogicalNodeSessionId) readValue(input);
+        String serviceName = readString(input);
+        String methodName = readString(input);
+        final int parameterCount = input.readInt();
+        List<Serializable> parameters = null;
+        if (parameterCount > input.available()) {
+            throw new IOException("Invalid parameter count: " + parameterCount);
+        }
+        if (parameterCount >= 0) {
+            parameters = new ArrayList<>(parameterCount);
+            for (int i = 0; i < parameterCount; i++) {
+                parameters.add(readValue(input));
+            }
+        }
+        String reliableRPCStreamId = readString(input);
+        long sequenceNumber = input.readLong();
+        String callerPayloadCodecs = readString(input);
+        return new ServiceCallRequest(target, caller, serviceName, methodName, parameters, reliableRPCStreamId, sequenceNumber,
+            callerPayloadCodecs);
+    }
+
+    private void writeResult(DataOutputStream output, ServiceCallResult result) throws IOException, SerializationException {
+        writeValue(output, result.getReturnValue());
+        writeString(output, result.getMethodExceptionType());
+        writeString(output, result.getMethodExceptionMessage());
+        writeString(output, result.getRemoteOperationExceptionMessage());
+        output.writeBoolean(result.isRefusedAsInvalidRequest());
+    }
+
+    private ServiceCallResult readResult(DataInputStream input) throws IOException, SerializationException {
+        Serializable returnValue = readValue(input);
+        String methodExceptionType = readString(input);
+        String methodExceptionMessage = readString(input);
+        String errorMessage = readString(input);
+        if (input.readBoolean()) {
+            return new ServiceCallResult(errorMessage, true);
+        }
+        return new ServiceCallResult(returnValue, methodExceptionType, methodExceptionMessage, errorMessage);
+    }
+
+    private void writeValue(DataOutputStream output, Serializable value) throws IOException, SerializationException {
+        if (value == null) {
+            output.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            output.writeByte(TAG_STRING);
+            writeString(output, (String) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte(TAG_BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(TAG_INTEGER);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(TAG_LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            output.writeByte(TAG_DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof byte[]) {
+            output.writeByte(TAG_BYTE_ARRAY);
+            writeByteArray(output, (byte[]) value);
+        } else if (value.getClass() == NodeIdentifierImpl.class) {
+            NodeIdentifierImpl nodeId = (NodeIdentifierImpl) value;
+            output.writeByte(TAG_NODE_ID);
+            output.writeByte(nodeId.getType().ordinal());
+            writeString(output, nodeId.getFullIdString());
+        } else {
+            output.writeByte(TAG_JAVA_SERIALIZED);
+            writeByteArray(output, embeddedValueCodec.encode(value));
+        }
+    }
+
+    private Serializable readValue(DataInputStream input) throws IOException, SerializationException {
+        final byte tag = input.readByte();
+        switch (tag) {
+        case TAG_NULL:
+            return null;
+        case TAG_STRING:
+            return readString(input);
+        case TAG_BOOLEAN:
+            return input.readBoolean();
+        case TAG_INTEGER:
+            return input.readInt();
+        case TAG_LONG:
+            return input.readLong();
+        case TAG_DOUBLE:
+            return input.readDouble();
+        case TAG_BYTE_ARRAY:
+            return readByteArray(input);
+        case TAG_NODE_ID:
+            final IdType idType = IdType.values()[input.readByte()];
+            final String idString = readString(input);
+            try {
+                // same resolution as in the Java deserialization of NodeIdentifierImpl
+                return NodeIdentifierContextHolder.getDeserializationServiceForCurrentThread().parseSelectableTypeIdString(idString,
+                    idType);
+            } catch (IdentifierException e) {
+                throw new SerializationException(e);
+            }
+        case TAG_JAVA_SERIALIZED:
+            return embeddedValueCodec.decode(readByteArray(input));
+        default:
+            throw new SerializationException("Unknown value tag: " + tag);
+        }
+    }
+
+    private void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+        } else {
+            writeByteArray(output, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private String readString(DataInputStream input) throws IOException {
+        byte[] bytes = readByteArray(input);
+        if (bytes == null) {
+            return null;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void writeByteArray(DataOutputStream output, byte[] value) throws IOException {
+        output.writeInt(value.length);
+        output.write(value);
+    }
+
+    private byte[] readByteArray(DataInputStream input) throws IOException {
+        final int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > input.available()) {
+            throw new IOException("Invalid length field: " + length);
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+}
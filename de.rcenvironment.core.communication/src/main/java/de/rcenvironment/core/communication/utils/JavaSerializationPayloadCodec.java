@@ -0,0 +1,85 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.communication.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamConstants;
+import java.io.Serializable;
+
+import org.apache.commons.io.IOUtils;
+
+import de.rcenvironment.core.communication.common.SerializationException;
+
+/**
+ * {@link MessagePayloadCodec} using standard Java serialization. This is the format understood by all RCE versions, so it is used as the
+ * fallback for all payloads that no negotiated codec can handle.
+ * 
+ * @author agent
+ */
+final class JavaSerializationPayloadCodec implements MessagePayloadCodec {
+
+    /**
+     * The id of this codec. As every node supports it, it is never announced to other nodes.
+     */
+    static final String ID = "java";
+
+    private static final int INITIAL_SERIALIZATION_BUFFER_SIZE = 512;
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public boolean canEncode(Serializable object) {
+        return true;
+    }
+
+    @Override
+    public byte[] encode(Serializable object) throws SerializationException {
+        ObjectOutputStream oos = null;
+        ByteArrayOutputStream baos = null;
+        try {
+            baos = new ByteArrayOutputStream(INITIAL_SERIALIZATION_BUFFER_SIZE);
+            oos = new ObjectOutputStream(baos);
+            oos.writeObject(object);
+        } catch (IOException ex) {
+            throw new SerializationException(ex);
+        } finally {
+            IOUtils.closeQuietly(oos);
+        }
+        return baos.toByteArray();
+    }
+
+    @Override
+    public boolean isEncodedBy(byte[] data) {
+        return data.length >= 2 && data[0] == (byte) (ObjectStreamConstants.STREAM_MAGIC >> Byte.SIZE)
+            && data[1] == (byte) ObjectStreamConstants.STREAM_MAGIC;
+    }
+
+    @Override
+    public Serializable decode(byte[] data) throws SerializationException {
+        ObjectInputStream ois = null;
+        try {
+            ois = new ObjectInputStream(new ByteArrayInputStream(data));
+            return (Serializable) ois.readObject();
+        } catch (ClassNotFoundException ex) {
+            throw new SerializationException(ex);
+        } catch (IOException ex) {
+            throw new SerializationException(ex);
+        } finally {
+            IOUtils.closeQuietly(ois);
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.communication.utils;
+
+import java.io.Serializable;
+
+import de.rcenvironment.core.communication.common.SerializationException;
+
+/**
+ * A strategy for converting network message payloads to their byte array form and back. Codecs are registered at
+ * {@link MessageUtils}, which selects the codec to use for each outgoing payload. As a codec's output can only be decoded by nodes that
+ * know the same codec, a codec is only used for sending if the receiving node has announced support for it; otherwise, {@link MessageUtils}
+ * falls back to standard Java serialization.
+ * 
+ * Codecs must produce output that can be told apart from the output of all other codecs, and from Java serialization streams, by its
+ * first bytes; see {@link #isEncodedBy(byte[])}.
+ * 
+ * @author agent
+ */
+public interface MessagePayloadCodec {
+
+    /**
+     * @return the short identifier that is used to announce support for this codec to other nodes; must not contain commas
+     */
+    String getId();
+
+    /**
+     * @param object the object to send; may be null
+     * @return true if this codec is able to encode the given object
+     */
+    boolean canEncode(Serializable object);
+
+    /**
+     * @param object the object to encode; only called if {@link #canEncode(Serializable)} returned true
+     * @return the byte array form of the object
+     * @throws SerializationException on encoding failure
+     */
+    byte[] encode(Serializable object) throws SerializationException;
+
+    /**
+     * @param data a non-empty byte array received from the network
+     * @return true if the data was created by this codec
+     */
+    boolean isEncodedBy(byte[] data);
+
+    /**
+     * @param data the byte array form of the object; only called if {@link #isEncodedBy(byte[])} returned true
+     * @return the reconstructed object
+     * @throws SerializationException on decoding failure
+     */
+    Serializable decode(byte[] data) throws SerializationException;
+}
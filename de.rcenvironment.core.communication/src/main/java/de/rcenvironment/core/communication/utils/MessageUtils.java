@@ -8,14 +8,13 @@
 
 package de.rcenvironment.core.communication.utils;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
-
-import org.apache.commons.io.IOUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import de.rcenvironment.core.communication.common.SerializationException;
 import de.rcenvironment.core.toolkitbridge.transitional.StatsCounter;
@@ -23,23 +22,114 @@ import de.rcenvironment.core.toolkitbridge.transitional.StatsCounter;
 /**
  * Message-related utilities like serialization/deserialization.
  * 
+ * Payloads are converted by {@link MessagePayloadCodec}s. Received payloads are decoded by the codec that recognizes them; payloads that no
+ * registered codec recognizes are treated as Java serialization streams. For sending, a registered codec is only used if the receiver has
+ * announced support for it, as older RCE versions only understand Java serialization. Nodes announce their codecs via
+ * {@link #getSupportedPayloadCodecs()}, which is part of the connection handshake and of each RPC request; the announcements received
+ * from other nodes are tracked via {@link #registerRemotePayloadCodecs(String, String)} until the nodes become unreachable.
+ * 
  * @author Robert Mischke
  */
 public final class MessageUtils {
 
-    private static final int INITIAL_SERIALIZATION_BUFFER_SIZE = 512;
+    private static final String CODEC_LIST_SEPARATOR = ",";
+
+    private static final MessagePayloadCodec FALLBACK_CODEC = new JavaSerializationPayloadCodec();
+
+    // in order of preference; codecs of specific payload types are added by the services using them
+    private static final List<MessagePayloadCodec> REGISTERED_CODECS =
+        new CopyOnWriteArrayList<>(Arrays.asList(new CompactRPCPayloadCodec()));
+
+    // instance node session id string -> announced codec list
+    private static final Map<String, String> REMOTE_PAYLOAD_CODECS = new ConcurrentHashMap<>();
 
     private MessageUtils() {}
 
     /**
-     * Serializes an object for sending it as a byte array.
+     * Registers an additional {@link MessagePayloadCodec}. It is preferred over all previously registered codecs for payloads that it can
+     * encode. A previously registered codec with the same id is replaced, so services may register their codecs on each activation.
+     * 
+     * @param codec the codec to register
+     */
+    public static synchronized void registerPayloadCodec(MessagePayloadCodec codec) {
+        REGISTERED_CODECS.removeIf(registered -> registered.getId().equals(codec.getId()));
+        REGISTERED_CODECS.add(0, codec);
+    }
+
+    /**
+     * @return the ids of all registered codecs, in a form suitable for announcing them to other nodes; Java serialization is always
+     *         supported and therefore not included
+     */
+    public static String getSupportedPayloadCodecs() {
+        List<String> ids = new ArrayList<>();
+        for (MessagePayloadCodec codec : REGISTERED_CODECS) {
+            ids.add(codec.getId());
+        }
+        return String.join(CODEC_LIST_SEPARATOR, ids);
+    }
+
+    /**
+     * Records the codecs announced by another node, so they can be used for payloads sent to that node.
+     * 
+     * @param instanceNodeSessionIdString the id string of the remote node's instance session
+     * @param supportedPayloadCodecs the announced codec list as created by {@link #getSupportedPayloadCodecs()}; null if the node made no
+     *        announcement (e.g. because of an older RCE version)
+     */
+    public static void registerRemotePayloadCodecs(String instanceNodeSessionIdString, String supportedPayloadCodecs) {
+        if (supportedPayloadCodecs != null) {
+            REMOTE_PAYLOAD_CODECS.put(instanceNodeSessionIdString, supportedPayloadCodecs);
+        }
+    }
+
+    /**
+     * Discards the codecs announced by another node, e.g. because it is no longer reachable. Until the node announces its codecs again,
+     * payloads sent to it use Java serialization.
+     * 
+     * @param instanceNodeSessionIdString the id string of the remote node's instance session
+     */
+    public static void unregisterRemotePayloadCodecs(String instanceNodeSessionIdString) {
+        REMOTE_PAYLOAD_CODECS.remove(instanceNodeSessionIdString);
+    }
+
+    /**
+     * @param instanceNodeSessionIdString the id string of the remote node's instance session
+     * @return the codecs announced by the given node, or null if no announcement was received yet
+     */
+    public static String getRemotePayloadCodecs(String instanceNodeSessionIdString) {
+        return REMOTE_PAYLOAD_CODECS.get(instanceNodeSessionIdString);
+    }
+
+    /**
+     * @param receiverPayloadCodecs the codecs announced by the receiver; may be null
+     * @param codecId the id of a codec
+     * @return true if the receiver has announced support for the given codec
+     */
+    public static boolean isPayloadCodecSupported(String receiverPayloadCodecs, String codecId) {
+        return receiverPayloadCodecs != null && Arrays.asList(receiverPayloadCodecs.split(CODEC_LIST_SEPARATOR)).contains(codecId);
+    }
+
+    /**
+     * Serializes an object for sending it as a byte array, using Java serialization.
      * 
      * @param object the object to serialize
      * @return the byte array form of the object
      * @throws SerializationException on serialization failure
      */
     public static byte[] serializeObject(Serializable object) throws SerializationException {
-        return serialize(object);
+        return serialize(object, FALLBACK_CODEC);
+    }
+
+    /**
+     * Serializes an object for sending it as a byte array, using the most preferred codec that was announced by the receiver and is able
+     * to encode the given object. Falls back to Java serialization if there is no such codec.
+     * 
+     * @param object the object to serialize
+     * @param receiverPayloadCodecs the codecs announced by the receiver; may be null
+     * @return the byte array form of the object
+     * @throws SerializationException on serialization failure
+     */
+    public static byte[] serializeObject(Serializable object, String receiverPayloadCodecs) throws SerializationException {
+        return serialize(object, selectCodec(object, receiverPayloadCodecs));
     }
 
     /**
@@ -55,7 +145,7 @@ public final class MessageUtils {
      */
     public static byte[] serializeSafeObject(Serializable object) {
         try {
-            return serialize(object);
+            return serialize(object, FALLBACK_CODEC);
         } catch (SerializationException e) {
             throw new RuntimeException(e);
         }
@@ -91,21 +181,22 @@ public final class MessageUtils {
         return (T) deserialize(data);
     }
 
-    private static byte[] serialize(Serializable object) throws SerializationException {
-        StatsCounter.countClass("MessageUtils.serialize()", object);
-        
-        ObjectOutputStream oos = null;
-        ByteArrayOutputStream baos = null;
-        try {
-            baos = new ByteArrayOutputStream(INITIAL_SERIALIZATION_BUFFER_SIZE);
-            oos = new ObjectOutputStream(baos);
-            oos.writeObject(object);
-        } catch (IOException ex) {
-            throw new SerializationException(ex);
-        } finally {
-            IOUtils.closeQuietly(oos);
+    private static MessagePayloadCodec selectCodec(Serializable object, String receiverPayloadCodecs) {
+        if (receiverPayloadCodecs == null) {
+            return FALLBACK_CODEC;
+        }
+        List<String> receiverCodecIds = Arrays.asList(receiverPayloadCodecs.split(CODEC_LIST_SEPARATOR));
+        for (MessagePayloadCodec codec : REGISTERED_CODECS) {
+            if (receiverCodecIds.contains(codec.getId()) && codec.canEncode(object)) {
+                return codec;
+            }
         }
-        return baos.toByteArray();
+        return FALLBACK_CODEC;
+    }
+
+    private static byte[] serialize(Serializable object, MessagePayloadCodec codec) throws SerializationException {
+        StatsCounter.countClass("MessageUtils.serialize()", object);
+        return codec.encode(object);
     }
 
     private static Object deserialize(byte[] data) throws SerializationException {
@@ -115,19 +206,16 @@ public final class MessageUtils {
         if (data.length == 0) {
             throw new SerializationException("Empty array passed for deserialization");
         }
-        ObjectInputStream ois = null;
-        try {
-            ois = new ObjectInputStream(new ByteArrayInputStream(data));
-            Object object = ois.readObject();
-            StatsCounter.countClass("MessageUtils.deserialize()", object);
-            return object;
-        } catch (ClassNotFoundException ex) {
-            throw new SerializationException(ex);
-        } catch (IOException ex) {
-            throw new SerializationException(ex);
-        } finally {
-            IOUtils.closeQuietly(ois);
+        MessagePayloadCodec codec = FALLBACK_CODEC;
+        for (MessagePayloadCodec registeredCodec : REGISTERED_CODECS) {
+            if (registeredCodec.isEncodedBy(data)) {
+                codec = registeredCodec;
+                break;
+            }
         }
+        Object object = codec.decode(data);
+        StatsCounter.countClass("MessageUtils.deserialize()", object);
+        return object;
     }
 
 }
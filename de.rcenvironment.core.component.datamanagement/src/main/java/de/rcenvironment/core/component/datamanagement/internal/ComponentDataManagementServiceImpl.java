@@ -18,9 +18,12 @@ import de.rcenvironment.core.component.datamanagement.api.ComponentDataManagemen
 import de.rcenvironment.core.component.execution.api.ComponentContext;
 import de.rcenvironment.core.datamanagement.DataManagementService;
 import de.rcenvironment.core.datamanagement.commons.MetaDataSet;
+import de.rcenvironment.core.datamodel.api.DataType;
 import de.rcenvironment.core.datamodel.api.TypedDatum;
 import de.rcenvironment.core.datamodel.api.TypedDatumFactory;
 import de.rcenvironment.core.datamodel.api.TypedDatumService;
+import de.rcenvironment.core.datamodel.types.api.BigTableReader;
+import de.rcenvironment.core.datamodel.types.api.BigTableTD;
 import de.rcenvironment.core.datamodel.types.api.DirectoryReferenceTD;
 import de.rcenvironment.core.datamodel.types.api.FileReferenceTD;
 import de.rcenvironment.core.utils.common.StringUtils;
@@ -151,6 +154,38 @@ public class ComponentDataManagementServiceImpl implements ComponentDataManageme
         return typedDatumFactory.createDirectoryReference(reference, dirname);
     }
 
+    @Override
+    public BigTableTD createBigTableTDFromLocalFile(ComponentContext componentContext, File tableFile) throws IOException {
+        if (!tableFile.exists()) {
+            throw new IOException("File doesn't exist: " + tableFile.getAbsolutePath());
+        }
+        long rowCount;
+        DataType[] columnDataTypes;
+        try (BigTableReader reader = typedDatumFactory.createBigTableReader(tableFile)) {
+            rowCount = reader.getRowCount();
+            columnDataTypes = new DataType[reader.getColumnCount()];
+            for (int i = 0; i < columnDataTypes.length; i++) {
+                columnDataTypes[i] = reader.getColumnDataType(i);
+            }
+        }
+        String reference;
+        try {
+            MetaDataSet mds = new MetaDataSet();
+            ComponentDataManagementUtil.setComponentMetaData(mds, componentContext);
+            reference = dataManagementService.createReferenceFromLocalFile(tableFile, mds,
+                getStorageNetworkDestination(componentContext));
+        } catch (InterruptedException | CommunicationException e) {
+            // reduce exception types
+            throw new IOException(e);
+        }
+        return typedDatumFactory.createBigTable(reference, rowCount, columnDataTypes);
+    }
+
+    @Override
+    public void copyBigTableTDToLocalFile(ComponentContext componentContext, BigTableTD bigTable, File targetFile) throws IOException {
+        copyReferenceToLocalFile(bigTable.getTableReference(), targetFile, getStorageNetworkDestination(componentContext));
+    }
+
     @Override
     public void copyFileReferenceTDToLocalFile(ComponentContext componentContext, FileReferenceTD fileReference, File targetFile)
         throws IOException {
@@ -16,9 +16,13 @@ import static org.junit.Assert.fail;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.easymock.Capture;
@@ -35,6 +39,7 @@ import de.rcenvironment.core.communication.common.NodeIdentifierTestUtils;
 import de.rcenvironment.core.component.execution.api.ComponentExecutionContext;
 import de.rcenvironment.core.component.execution.api.ComponentExecutionException;
 import de.rcenvironment.core.datamanagement.MetaDataService;
+import de.rcenvironment.core.datamanagement.commons.MetaDataBatch;
 import de.rcenvironment.core.datamodel.api.FinalComponentRunState;
 import de.rcenvironment.core.datamodel.api.FinalComponentState;
 
@@ -136,6 +141,7 @@ public class ComponentExecutionStorageBridgeTest {
         assertEquals(compExeDmId, storageBridge.getComponentExecutionDataManagementId());
 
         storageBridge.setComponentExecutionFinished(FinalComponentRunState.FINISHED);
+        storageBridge.awaitPendingWrites();
         assertEquals(compExeDmId, compExeDmIdCapture.getValue());
         assertTrue(System.currentTimeMillis() >= endTimeCapture.getValue().longValue());
         assertEquals(STORAGE_NODE_LOGICAL_NODE_ID, storageNodeIdCapture2.getValue());
@@ -359,6 +365,7 @@ public class ComponentExecutionStorageBridgeTest {
         storageBridge.bindMetaDataService(metaDataServiceMock);
         storageBridge.addComponentExecution(compExeCtxMock, 5);
         storageBridge.addInput(INPUT_NAME, typedDatumId1);
+        storageBridge.awaitPendingWrites();
 
         assertEquals(compExeDmId, compExeDmIdCapture.getValue());
         assertEquals(typedDatumId1, typedDatumIdCapture.getValue());
@@ -367,6 +374,7 @@ public class ComponentExecutionStorageBridgeTest {
         assertEquals(STORAGE_NODE_LOGICAL_NODE_ID, storageNodeIdCapture.getValue());
 
         storageBridge.addInput(INPUT_NAME, typedDatumId2);
+        storageBridge.awaitPendingWrites();
 
         assertEquals(compExeDmId, compExeDmIdCapture2.getValue());
         assertEquals(typedDatumId2, typedDatumIdCapture2.getValue());
@@ -474,6 +482,7 @@ public class ComponentExecutionStorageBridgeTest {
         storageBridge.bindMetaDataService(metaDataServiceMock);
         storageBridge.addComponentExecution(compExeCtxMock, 3);
         storageBridge.setOrUpdateHistoryDataItem(historyDataItem);
+        storageBridge.awaitPendingWrites();
 
         assertEquals(compExeDmId, compExeDmIdCapture.getValue());
         assertEquals(historyDataItem, historyDataItemCapture.getValue());
@@ -515,6 +524,218 @@ public class ComponentExecutionStorageBridgeTest {
 
     }
 
+    /**
+     * Tests that writes not returning a result are sent to the storage node asynchronously, coalesced into batches, and in the order they
+     * were issued.
+     * 
+     * @throws ComponentExecutionException on error
+     * @throws InterruptedException on error
+     */
+    @Test(timeout = 10000)
+    public void testWriteBehindBatching() throws ComponentExecutionException, InterruptedException {
+        final int inputCount = 50;
+        final List<String> writes = Collections.synchronizedList(new ArrayList<String>());
+        final AtomicInteger writeCalls = new AtomicInteger(0);
+        final CountDownLatch firstWriteReleased = new CountDownLatch(1);
+
+        MetaDataService metaDataServiceStub = (MetaDataService) Proxy.newProxyInstance(
+            MetaDataService.class.getClassLoader(), new Class<?>[] { MetaDataService.class },
+            new InvocationHandler() {
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] parameters) throws Throwable {
+                    switch (method.getName()) {
+                    case "addComponentRun":
+                        return Long.valueOf(2);
+                    case "addInputDatum":
+                        awaitReleaseOfFirstWrite();
+                        writes.add("input " + parameters[3]);
+                        return null;
+                    case "setComponentRunFinished":
+                        awaitReleaseOfFirstWrite();
+                        writes.add("finished");
+                        return null;
+                    case "executeBatch":
+                        awaitReleaseOfFirstWrite();
+                        for (MetaDataBatch.Operation operation : ((MetaDataBatch) parameters[0]).getOperations()) {
+                            if (operation.getType() == MetaDataBatch.OperationType.ADD_INPUT_DATUM) {
+                                writes.add("input " + operation.getCount());
+                            } else {
+                                writes.add("finished");
+                            }
+                        }
+                        return null;
+                    default:
+                        return null;
+                    }
+                }
+
+                private void awaitReleaseOfFirstWrite() throws InterruptedException {
+                    // block the first write, so that the following ones pile up and are sent as a batch
+                    if (writeCalls.getAndIncrement() == 0) {
+                        firstWriteReleased.await();
+                    }
+                }
+            });
+
+        ComponentExecutionContext compExeCtxMock = createComponentExecutionContextMock();
+        ComponentExecutionStorageBridge storageBridge =
+            new ComponentExecutionStorageBridge(createCompExeRelatedInstancesStub(compExeCtxMock));
+        storageBridge.bindMetaDataService(metaDataServiceStub);
+
+        storageBridge.addComponentExecution(compExeCtxMock, 1);
+        for (int i = 0; i < inputCount; i++) {
+            storageBridge.addInput(INPUT_NAME, Long.valueOf(i));
+        }
+        storageBridge.setComponentExecutionFinished(FinalComponentRunState.FINISHED);
+        firstWriteReleased.countDown();
+        storageBridge.setFinalComponentState(FinalComponentState.FINISHED);
+
+        assertEquals(inputCount + 1, writes.size());
+        for (int i = 0; i < inputCount; i++) {
+            assertEquals("input " + i, writes.get(i));
+        }
+        assertEquals("finished", writes.get(inputCount));
+        // the blocked first write and one batch containing the remaining ones
+        assertTrue(writeCalls.get() <= 2);
+    }
+
+    /**
+     * Tests that failures of asynchronous writes are reported on the next call of the {@link ComponentExecutionStorageBridge}.
+     * 
+     * @throws ComponentExecutionException on error
+     */
+    @Test(timeout = 10000)
+    public void testWriteBehindFailureReporting() throws ComponentExecutionException {
+        MetaDataService metaDataServiceStub = (MetaDataService) Proxy.newProxyInstance(
+            MetaDataService.class.getClassLoader(), new Class<?>[] { MetaDataService.class },
+            new InvocationHandler() {
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] parameters) throws Throwable {
+                    if (method.getName().equals("addComponentRun")) {
+                        return Long.valueOf(2);
+                    }
+                    throw new CommunicationException("");
+                }
+            });
+
+        ComponentExecutionContext compExeCtxMock = createComponentExecutionContextMock();
+        ComponentExecutionStorageBridge storageBridge =
+            new ComponentExecutionStorageBridge(createCompExeRelatedInstancesStub(compExeCtxMock));
+        storageBridge.bindMetaDataService(metaDataServiceStub);
+
+        storageBridge.addComponentExecution(compExeCtxMock, 1);
+        // the write itself is asynchronous, so enqueueing it succeeds
+        storageBridge.addInput(INPUT_NAME, Long.valueOf(1));
+        try {
+            storageBridge.awaitPendingWrites();
+            fail(FAIL_MESSAGE);
+        } catch (ComponentExecutionException e) {
+            assertTrue(e.getMessage().contains(INPUT_NAME));
+        }
+        // the failure is only reported once
+        storageBridge.awaitPendingWrites();
+    }
+
+    /**
+     * Tests that the final component state is stored even if an asynchronous write failed before, and that it is stored as failed then.
+     * 
+     * @throws ComponentExecutionException on error
+     */
+    @Test(timeout = 10000)
+    public void testFinalStateStoredAfterWriteFailure() throws ComponentExecutionException {
+        final List<FinalComponentState> storedFinalStates = Collections.synchronizedList(new ArrayList<FinalComponentState>());
+        MetaDataService metaDataServiceStub = (MetaDataService) Proxy.newProxyInstance(
+            MetaDataService.class.getClassLoader(), new Class<?>[] { MetaDataService.class },
+            new InvocationHandler() {
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] parameters) throws Throwable {
+                    switch (method.getName()) {
+                    case "addComponentRun":
+                        return Long.valueOf(2);
+                    case "setComponentInstanceFinalState":
+                        storedFinalStates.add((FinalComponentState) parameters[1]);
+                        return null;
+                    default:
+                        throw new CommunicationException("");
+                    }
+                }
+            });
+
+        ComponentExecutionContext compExeCtxMock = createComponentExecutionContextMock();
+        ComponentExecutionStorageBridge storageBridge =
+            new ComponentExecutionStorageBridge(createCompExeRelatedInstancesStub(compExeCtxMock));
+        storageBridge.bindMetaDataService(metaDataServiceStub);
+
+        storageBridge.addComponentExecution(compExeCtxMock, 1);
+        storageBridge.addInput(INPUT_NAME, Long.valueOf(1));
+        try {
+            storageBridge.setFinalComponentState(FinalComponentState.FINISHED);
+            fail(FAIL_MESSAGE);
+        } catch (ComponentExecutionException e) {
+            // the failure of the earlier write is reported
+            assertTrue(e.getMessage().contains(INPUT_NAME));
+        }
+        assertEquals(Collections.singletonList(FinalComponentState.FAILED), storedFinalStates);
+    }
+
+    /**
+     * Tests that the writes of a batch that failed for other reasons than missing batch support on the storage node are not retried one
+     * by one, as the batch may have been applied nevertheless.
+     * 
+     * @throws ComponentExecutionException on error
+     */
+    @Test(timeout = 10000)
+    public void testFailedBatchNotRetried() throws ComponentExecutionException {
+        final int inputCount = 10;
+        final AtomicInteger singleWrites = new AtomicInteger(0);
+        final CountDownLatch firstWriteReleased = new CountDownLatch(1);
+
+        MetaDataService metaDataServiceStub = (MetaDataService) Proxy.newProxyInstance(
+            MetaDataService.class.getClassLoader(), new Class<?>[] { MetaDataService.class },
+            new InvocationHandler() {
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] parameters) throws Throwable {
+                    switch (method.getName()) {
+                    case "addComponentRun":
+                        return Long.valueOf(2);
+                    case "addInputDatum":
+                        // block the first write, so that the following ones pile up and are sent as a batch
+                        if (singleWrites.getAndIncrement() == 0) {
+                            firstWriteReleased.await();
+                        }
+                        return null;
+                    case "executeBatch":
+                        throw new CommunicationException("Timeout");
+                    default:
+                        return null;
+                    }
+                }
+            });
+
+        ComponentExecutionContext compExeCtxMock = createComponentExecutionContextMock();
+        ComponentExecutionStorageBridge storageBridge =
+            new ComponentExecutionStorageBridge(createCompExeRelatedInstancesStub(compExeCtxMock));
+        storageBridge.bindMetaDataService(metaDataServiceStub);
+
+        storageBridge.addComponentExecution(compExeCtxMock, 1);
+        for (int i = 0; i < inputCount; i++) {
+            storageBridge.addInput(INPUT_NAME, Long.valueOf(i));
+        }
+        firstWriteReleased.countDown();
+        try {
+            storageBridge.awaitPendingWrites();
+            fail(FAIL_MESSAGE);
+        } catch (ComponentExecutionException e) {
+            assertTrue(e.getMessage().contains(INPUT_NAME));
+        }
+        // at most the first write may have been sent on its own
+        assertTrue(singleWrites.get() <= 1);
+    }
+
     private ComponentExecutionContext createComponentExecutionContextMock() {
         ComponentExecutionContext componentExecutionContextMock = EasyMock.createNiceMock(ComponentExecutionContext.class);
         EasyMock.expect(componentExecutionContextMock.getNodeId()).andReturn(NODE_ID.convertToDefaultLogicalNodeId()).anyTimes();
@@ -16,6 +16,7 @@ import de.rcenvironment.core.communication.common.NetworkDestination;
 import de.rcenvironment.core.communication.common.ResolvableNodeId;
 import de.rcenvironment.core.component.execution.api.ComponentContext;
 import de.rcenvironment.core.datamodel.api.TypedDatum;
+import de.rcenvironment.core.datamodel.types.api.BigTableTD;
 import de.rcenvironment.core.datamodel.types.api.DirectoryReferenceTD;
 import de.rcenvironment.core.datamodel.types.api.FileReferenceTD;
 
@@ -139,6 +140,28 @@ public interface ComponentDataManagementService {
     DirectoryReferenceTD createDirectoryReferenceTDFromLocalCompressedFile(ComponentContext componentContext, File dir,
         String dirname) throws IOException;
 
+    /**
+     * Creates {@link BigTableTD} object from given table file by creating a new data management reference. Only the
+     * reference and the table's shape are held in memory.
+     * 
+     * @param componentContext {@link ComponentContext} of the calling component
+     * @param tableFile given table file, written by a {@link de.rcenvironment.core.datamodel.types.api.BigTableWriter}
+     * @return {@link BigTableTD}
+     * @throws IOException if given file doesn't exist, is no valid table file, or on data management error
+     */
+    BigTableTD createBigTableTDFromLocalFile(ComponentContext componentContext, File tableFile) throws IOException;
+
+    /**
+     * Retrieves the table file from the data management referred by the given {@link BigTableTD}. The file can then be
+     * read in a streaming fashion via a {@link de.rcenvironment.core.datamodel.types.api.BigTableReader}.
+     * 
+     * @param componentContext {@link ComponentContext} of the calling component
+     * @param bigTable {@link BigTableTD}
+     * @param targetFile local target file
+     * @throws IOException on a local I/O or data management error
+     */
+    void copyBigTableTDToLocalFile(ComponentContext componentContext, BigTableTD bigTable, File targetFile) throws IOException;
+
     /**
      * Retrieves a file from the data management referred by the given {@link FileReferenceTD}.
      * 
@@ -57,6 +57,23 @@ public final class ConsoleRowUtils {
      */
     public static TextStreamWatcher logToWorkflowConsole(final ComponentLog componentLog, InputStream inputStream,
         final Type consoleType, final File logFile, boolean append) {
+        return logToWorkflowConsole(componentLog, inputStream, consoleType, logFile, append, new TextOutputReceiver[0]);
+    }
+
+    /**
+     * Send text to workflow console and to additional receivers, e.g. to react on specific output lines of a tool. See
+     * {@link #logToWorkflowConsole(ComponentLog, InputStream, Type, File, boolean)} for the usage.
+     * 
+     * @param componentLog {@link ComponentLog} instance of the calling component
+     * @param inputStream contains text to send
+     * @param consoleType stderr or stdour
+     * @param logFile optional file to log to as well, <code>null</code> for no file logging
+     * @param append optional flag only considered if logFile not null. Append lines to file if true; otherwise overwrite file
+     * @param additionalReceivers receivers that get each line in addition to the workflow console
+     * @return the created {@link TextStreamWatcher} for calling the waitForTermination method
+     */
+    public static TextStreamWatcher logToWorkflowConsole(final ComponentLog componentLog, InputStream inputStream,
+        final Type consoleType, final File logFile, boolean append, TextOutputReceiver... additionalReceivers) {
 
         /**
          * Sends each console line to the workflow console.
@@ -99,7 +116,10 @@ public final class ConsoleRowUtils {
             }
         }
 
-        TextStreamWatcher watcher = TextStreamWatcherFactory.create(inputStream, new WorkflowConsoleOutputReceiver());
+        TextOutputReceiver[] receivers = new TextOutputReceiver[additionalReceivers.length + 1];
+        receivers[0] = new WorkflowConsoleOutputReceiver();
+        System.arraycopy(additionalReceivers, 0, receivers, 1, additionalReceivers.length);
+        TextStreamWatcher watcher = TextStreamWatcherFactory.create(inputStream, receivers);
 
         watcher.start();
         return watcher;
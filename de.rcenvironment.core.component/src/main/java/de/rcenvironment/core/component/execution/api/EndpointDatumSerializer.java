@@ -9,6 +9,7 @@
 package de.rcenvironment.core.component.execution.api;
 
 import de.rcenvironment.core.component.model.endpoint.api.EndpointDatum;
+import de.rcenvironment.core.datamodel.api.TypedDatumSerializationFormat;
 
 /**
  * (De-)Serializes {@link EndpointDatum} objects. Used when sent between components.
@@ -24,6 +25,16 @@ public interface EndpointDatumSerializer {
      * @return serialized {@link EndpointDatum}
      */
     String serializeEndpointDatum(EndpointDatum endpoint);
+
+    /**
+     * Serializes an {@link EndpointDatum}, using the given format for its value. Only use formats other than
+     * {@link TypedDatumSerializationFormat#JSON} if the receiving node has announced support for them.
+     * 
+     * @param endpoint {@link EndpointDatum} to serialize
+     * @param format the {@link TypedDatumSerializationFormat} to use for the value
+     * @return serialized {@link EndpointDatum}
+     */
+    String serializeEndpointDatum(EndpointDatum endpoint, TypedDatumSerializationFormat format);
     
     /**
      * Deserializes an {@link EndpointDatum}.
@@ -9,6 +9,7 @@
 package de.rcenvironment.core.component.execution.internal;
 
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import de.rcenvironment.core.communication.common.CommunicationException;
 import de.rcenvironment.core.communication.common.NetworkDestination;
@@ -16,6 +17,7 @@ import de.rcenvironment.core.component.execution.api.ComponentExecutionContext;
 import de.rcenvironment.core.component.execution.api.ComponentExecutionException;
 import de.rcenvironment.core.datamanagement.DataManagementIdMapping;
 import de.rcenvironment.core.datamanagement.MetaDataService;
+import de.rcenvironment.core.datamanagement.commons.MetaDataBatch;
 import de.rcenvironment.core.datamodel.api.FinalComponentRunState;
 import de.rcenvironment.core.datamodel.api.FinalComponentState;
 import de.rcenvironment.core.utils.common.StringUtils;
@@ -29,6 +31,11 @@ import de.rcenvironment.core.utils.common.StringUtils;
  * data management overlap with this "session start". The synchronization could be improved though I think, but cannot be just removed.
  * --seid_do
  * 
+ * Adding inputs, setting history data items, and finishing component runs is done asynchronously via a shared
+ * {@link ComponentRunMetaDataWriteQueue} per storage node, as these calls do not return a result. A failure of such a write is thrown on
+ * the next call to this bridge. Before the final component state is set, all pending writes are awaited; the final state is stored even if
+ * one of them failed, so that the component does not appear to be still running.
+ * 
  * @author Doreen Seider
  * @author Robert Mischke
  * @author Brigitte Boden
@@ -52,6 +59,12 @@ public class ComponentExecutionStorageBridge {
 
     private NetworkDestination storageNetworkDestination;
 
+    private ComponentRunMetaDataWriteQueue writeQueue;
+
+    private long lastWriteSequenceNumber;
+
+    private final AtomicReference<ComponentExecutionException> writeFailure = new AtomicReference<>();
+
     @Deprecated
     public ComponentExecutionStorageBridge() {
         compExeRelatedInstances = null;
@@ -85,6 +98,7 @@ public class ComponentExecutionStorageBridge {
 
     protected synchronized void addComponentExecution(final ComponentExecutionContext compExeCtx, final Integer executionCount)
         throws ComponentExecutionException {
+        throwWriteFailureIfAny();
         try {
             compExeDmId = metaDataService.addComponentRun(compExeRelatedInstances.compExeCtx.getInstanceDataManagementId(),
                 DataManagementIdMapping.mapLogicalNodeIdToDbString(compExeCtx.getNodeId()),
@@ -98,6 +112,7 @@ public class ComponentExecutionStorageBridge {
 
     protected synchronized Long addOutput(final String outputName, final String datum) throws ComponentExecutionException {
         assertCompExeDmIdNotNull("Adding value for output: " + outputName);
+        throwWriteFailureIfAny();
         try {
             return metaDataService.addOutputDatum(compExeDmId,
                 compExeRelatedInstances.compExeCtx.getOutputDataManagementIds().get(outputName), datum,
@@ -114,47 +129,94 @@ public class ComponentExecutionStorageBridge {
             throw new ComponentExecutionException(StringUtils.format("Failed to store input '%s'", inputName) + errorMessageSuffix + ", "
                 + "because given datamanagement id of related output was null. Likely, because saving output failed earlier.");
         } else {
-            try {
-                metaDataService.addInputDatum(compExeDmId, typedDatumId,
-                    compExeRelatedInstances.compExeCtx.getInputDataManagementIds().get(inputName),
-                    inputCount.getAndIncrement(inputName), storageNetworkDestination);
-                // catch RuntimeException until https://mantis.sc.dlr.de/view.php?id=13865 is solved
-            } catch (CommunicationException | RuntimeException e) {
-                throw new ComponentExecutionException(StringUtils.format("Failed to store input '%s'", inputName) + errorMessageSuffix, e);
-            }
+            MetaDataBatch operation = new MetaDataBatch();
+            operation.addInputDatum(compExeDmId, typedDatumId,
+                compExeRelatedInstances.compExeCtx.getInputDataManagementIds().get(inputName), inputCount.getAndIncrement(inputName));
+            enqueueWrite(operation, StringUtils.format("Failed to store input '%s'", inputName) + errorMessageSuffix);
         }
     }
 
     protected synchronized void setComponentExecutionFinished(final FinalComponentRunState finalState) throws ComponentExecutionException {
         assertCompExeDmIdNotNull("Setting component execution to finish");
-        try {
-            metaDataService.setComponentRunFinished(compExeDmId, System.currentTimeMillis() + timestampOffset,
-                finalState, storageNetworkDestination);
-            // catch RuntimeException until https://mantis.sc.dlr.de/view.php?id=13865 is solved
-        } catch (CommunicationException | RuntimeException e) {
-            throw new ComponentExecutionException("Failed to store component execution" + errorMessageSuffix, e);
-        }
+        MetaDataBatch operation = new MetaDataBatch();
+        operation.setComponentRunFinished(compExeDmId, System.currentTimeMillis() + timestampOffset, finalState);
+        enqueueWrite(operation, "Failed to store component execution" + errorMessageSuffix);
         compExeDmId = null;
     }
 
     protected synchronized void setFinalComponentState(final FinalComponentState finalState) throws ComponentExecutionException {
+        // the final state must not be visible before the data of all component runs has been stored
+        ComponentExecutionException writeFailureBeforeFinalState = null;
         try {
-            metaDataService.setComponentInstanceFinalState(compExeRelatedInstances.compExeCtx.getInstanceDataManagementId(), finalState,
-                storageNetworkDestination);
+            awaitPendingWrites();
+        } catch (ComponentExecutionException e) {
+            writeFailureBeforeFinalState = e;
+        }
+        FinalComponentState finalStateToStore = finalState;
+        if (writeFailureBeforeFinalState != null && finalState != FinalComponentState.CANCELLED) {
+            // the stored data of the component runs is incomplete
+            finalStateToStore = FinalComponentState.FAILED;
+        }
+        try {
+            metaDataService.setComponentInstanceFinalState(compExeRelatedInstances.compExeCtx.getInstanceDataManagementId(),
+                finalStateToStore, storageNetworkDestination);
             // catch RuntimeException until https://mantis.sc.dlr.de/view.php?id=13865 is solved
         } catch (CommunicationException | RuntimeException e) {
-            throw new ComponentExecutionException("Failed to store final state" + errorMessageSuffix, e);
+            final ComponentExecutionException failure =
+                new ComponentExecutionException("Failed to store final state" + errorMessageSuffix, e);
+            if (writeFailureBeforeFinalState != null) {
+                failure.addSuppressed(writeFailureBeforeFinalState);
+            }
+            throw failure;
+        }
+        if (writeFailureBeforeFinalState != null) {
+            throw writeFailureBeforeFinalState;
         }
     }
 
     protected synchronized void setOrUpdateHistoryDataItem(final String historyDataItem) throws ComponentExecutionException {
         assertCompExeDmIdNotNull("Adding or updating history data");
+        MetaDataBatch operation = new MetaDataBatch();
+        operation.setOrUpdateHistoryDataItem(compExeDmId, historyDataItem);
+        enqueueWrite(operation, "Failed to add or update history data" + errorMessageSuffix);
+    }
+
+    /**
+     * Waits until all writes enqueued by this bridge so far have been completed.
+     * 
+     * @throws ComponentExecutionException if one of them failed, or if interrupted while waiting
+     */
+    protected synchronized void awaitPendingWrites() throws ComponentExecutionException {
+        if (writeQueue != null) {
+            try {
+                writeQueue.awaitCompletion(lastWriteSequenceNumber);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ComponentExecutionException("Interrupted while waiting for component run data to be stored"
+                    + errorMessageSuffix, e);
+            }
+        }
+        throwWriteFailureIfAny();
+    }
+
+    private void enqueueWrite(MetaDataBatch operation, String failureMessage) throws ComponentExecutionException {
+        throwWriteFailureIfAny();
+        if (writeQueue == null) {
+            // keep using the same queue, so that the order of the writes is retained
+            writeQueue = ComponentRunMetaDataWriteQueue.getQueue(metaDataService, storageNetworkDestination);
+        }
         try {
-            metaDataService.setOrUpdateHistoryDataItem(compExeDmId, historyDataItem,
-                storageNetworkDestination);
-            // catch RuntimeException until https://mantis.sc.dlr.de/view.php?id=13865 is solved
-        } catch (CommunicationException | RuntimeException e) {
-            throw new ComponentExecutionException("Failed to add or update history data" + errorMessageSuffix, e);
+            lastWriteSequenceNumber = writeQueue.enqueue(operation, failureMessage, writeFailure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ComponentExecutionException(failureMessage + " (interrupted)", e);
+        }
+    }
+
+    private void throwWriteFailureIfAny() throws ComponentExecutionException {
+        ComponentExecutionException failure = writeFailure.getAndSet(null);
+        if (failure != null) {
+            throw failure;
         }
     }
 
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.component.execution.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import de.rcenvironment.core.communication.common.CommunicationException;
+import de.rcenvironment.core.communication.common.NetworkDestination;
+import de.rcenvironment.core.communication.rpc.ServiceCallResultFactory;
+import de.rcenvironment.core.component.execution.api.ComponentExecutionException;
+import de.rcenvironment.core.datamanagement.MetaDataService;
+import de.rcenvironment.core.datamanagement.commons.MetaDataBatch;
+import de.rcenvironment.core.toolkitbridge.transitional.ConcurrencyUtils;
+import de.rcenvironment.core.toolkitbridge.transitional.StatsCounter;
+import de.rcenvironment.toolkit.modules.concurrency.api.AsyncCallbackExceptionPolicy;
+import de.rcenvironment.toolkit.modules.concurrency.api.AsyncOrderedExecutionQueue;
+
+/**
+ * Write-behind queue for the component run related meta data writes of {@link ComponentExecutionStorageBridge}s that do not return a
+ * result, i.e. adding inputs, setting history data items, and finishing component runs. There is one queue per storage node, shared by all
+ * component executions writing to it; pending writes are sent to the storage node asynchronously, coalesced into {@link MetaDataBatch}es.
+ * A queue is kept for as long as its {@link MetaDataService} is, even while it is idle, so that all writes to a storage node pass the same
+ * queue; an idle queue holds no pending writes and no thread.
+ * 
+ * As the writes are sent in the order they were enqueued in, the order of the writes of each component run is retained. Failed writes are
+ * reported to the {@link ComponentExecutionStorageBridge} that enqueued them, which rethrows them on its next call.
+ * 
+ * If the storage node refuses a batch as it runs an older version without batch support, its writes are sent one by one instead, and so
+ * are all later writes. As a refused batch has not been applied at all, this does not duplicate writes. If a batch fails for any other
+ * reason, it may have been applied nevertheless (e.g. if only the response was lost), so the failure is reported for all of its writes
+ * instead of retrying them.
+ * 
+ * @author agent
+ */
+final class ComponentRunMetaDataWriteQueue {
+
+    // upper limit for the number of writes sent as one batch, to limit the size of single messages
+    private static final int MAX_BATCH_SIZE = 500;
+
+    // upper limit for the number of pending writes; further writes block until the queue has been drained below this limit
+    private static final int MAX_QUEUE_DEPTH = 10000;
+
+    private static final String STATS_COUNTER_CATEGORY = "Component run meta data write-behind";
+
+    private static final Map<NetworkDestination, ComponentRunMetaDataWriteQueue> QUEUES = new HashMap<>();
+
+    private static final Log LOG = LogFactory.getLog(ComponentRunMetaDataWriteQueue.class);
+
+    private final MetaDataService metaDataService;
+
+    private final NetworkDestination storageNetworkDestination;
+
+    private final AsyncOrderedExecutionQueue flushQueue =
+        ConcurrencyUtils.getFactory().createAsyncOrderedExecutionQueue(AsyncCallbackExceptionPolicy.LOG_AND_PROCEED);
+
+    private final Deque<PendingWrite> pendingWrites = new ArrayDeque<>();
+
+    private boolean flushScheduled;
+
+    private long enqueuedCount;
+
+    private long completedCount;
+
+    private long lastFlushLatency;
+
+    private volatile boolean batchingUnsupported;
+
+    /**
+     * A single write to send to the storage node, along with the information needed to report its failure.
+     * 
+     * @author agent
+     */
+    private static final class PendingWrite {
+
+        private final MetaDataBatch operation;
+
+        private final String failureMessage;
+
+        private final AtomicReference<ComponentExecutionException> failureHolder;
+
+        PendingWrite(MetaDataBatch operation, String failureMessage, AtomicReference<ComponentExecutionException> failureHolder) {
+            this.operation = operation;
+            this.failureMessage = failureMessage;
+            this.failureHolder = failureHolder;
+        }
+    }
+
+    ComponentRunMetaDataWriteQueue(MetaDataService metaDataService, NetworkDestination storageNetworkDestination) {
+        this.metaDataService = metaDataService;
+        this.storageNetworkDestination = storageNetworkDestination;
+    }
+
+    /**
+     * @param metaDataService the {@link MetaDataService} to write with
+     * @param storageNetworkDestination the storage node to write to
+     * @return the shared queue for the given storage node
+     */
+    static ComponentRunMetaDataWriteQueue getQueue(MetaDataService metaDataService, NetworkDestination storageNetworkDestination) {
+        synchronized (QUEUES) {
+            ComponentRunMetaDataWriteQueue queue = QUEUES.get(storageNetworkDestination);
+            // a queue is only replaced if the MetaDataService instance has changed (e.g. on a restart of its bundle); writes via the
+            // previous instance cannot be sent anymore anyway
+            if (queue == null || queue.metaDataService != metaDataService) {
+                queue = new ComponentRunMetaDataWriteQueue(metaDataService, storageNetworkDestination);
+                QUEUES.put(storageNetworkDestination, queue);
+            }
+            return queue;
+        }
+    }
+
+    /**
+     * Enqueues a write; blocks while the maximum number of pending writes is reached.
+     * 
+     * @param operation a {@link MetaDataBatch} holding the operation(s) to write
+     * @param failureMessage the message of the {@link ComponentExecutionException} to report if the write fails
+     * @param failureHolder the holder to set the {@link ComponentExecutionException} to if the write fails (and no earlier failure was set)
+     * @return the sequence number of the write, to pass to {@link #awaitCompletion(long)}
+     * @throws InterruptedException if interrupted while waiting for the queue to be drained
+     */
+    synchronized long enqueue(MetaDataBatch operation, String failureMessage,
+        AtomicReference<ComponentExecutionException> failureHolder) throws InterruptedException {
+        while (pendingWrites.size() >= MAX_QUEUE_DEPTH) {
+            wait();
+        }
+        pendingWrites.add(new PendingWrite(operation, failureMessage, failureHolder));
+        if (!flushScheduled) {
+            flushScheduled = true;
+            flushQueue.enqueue(this::flushPendingWrites);
+        }
+        return ++enqueuedCount;
+    }
+
+    /**
+     * Waits until the write with the given sequence number and all writes enqueued before have been completed, successfully or not.
+     * 
+     * @param sequenceNumber the sequence number returned by {@link #enqueue(MetaDataBatch, String, AtomicReference)}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    synchronized void awaitCompletion(long sequenceNumber) throws InterruptedException {
+        while (completedCount < sequenceNumber) {
+            wait();
+        }
+    }
+
+    /**
+     * @return the number of writes that have been enqueued, but not been completed yet
+     */
+    synchronized long getQueueDepth() {
+        return enqueuedCount - completedCount;
+    }
+
+    /**
+     * @return the duration of the last batch of writes sent to the storage node in msec, or 0 if none was sent yet
+     */
+    synchronized long getLastFlushLatency() {
+        return lastFlushLatency;
+    }
+
+    private void flushPendingWrites() {
+        final List<PendingWrite> writes = new ArrayList<>();
+        final int queueDepth;
+        synchronized (this) {
+            queueDepth = pendingWrites.size();
+            while (!pendingWrites.isEmpty() && writes.size() < MAX_BATCH_SIZE) {
+                writes.add(pendingWrites.poll());
+            }
+            // wake up writers waiting for the queue to be drained
+            notifyAll();
+        }
+        StatsCounter.registerValue(STATS_COUNTER_CATEGORY, "Queue depth on flush", queueDepth);
+
+        final long startTime = System.currentTimeMillis();
+        try {
+            write(writes);
+        } finally {
+            final long flushLatency = System.currentTimeMillis() - startTime;
+            StatsCounter.registerValue(STATS_COUNTER_CATEGORY, "Flush latency (msec)", flushLatency);
+            StatsCounter.registerValue(STATS_COUNTER_CATEGORY, "Writes per flush", writes.size());
+            synchronized (this) {
+                completedCount += writes.size();
+                lastFlushLatency = flushLatency;
+                if (pendingWrites.isEmpty()) {
+                    flushScheduled = false;
+                } else {
+                    flushQueue.enqueue(this::flushPendingWrites);
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> writes) {
+        if (writes.size() == 1 || batchingUnsupported) {
+            writeOneByOne(writes);
+            return;
+        }
+        final MetaDataBatch batch = new MetaDataBatch();
+        for (PendingWrite write : writes) {
+            batch.addAll(write.operation);
+        }
+        try {
+            metaDataService.executeBatch(batch, storageNetworkDestination);
+        } catch (CommunicationException e) {
+            if (!ServiceCallResultFactory.isRefusedAsInvalidRequest(e)) {
+                reportFailure(writes, e);
+                return;
+            }
+            LOG.debug("Storage node " + storageNetworkDestination + " does not support batches of meta data operations; "
+                + "sending them one by one: " + e.getMessage());
+            batchingUnsupported = true;
+            writeOneByOne(writes);
+            // catch RuntimeException until https://mantis.sc.dlr.de/view.php?id=13865 is solved
+        } catch (RuntimeException e) {
+            reportFailure(writes, e);
+        }
+    }
+
+    private void reportFailure(List<PendingWrite> writes, Exception cause) {
+        for (PendingWrite write : writes) {
+            write.failureHolder.compareAndSet(null, new ComponentExecutionException(write.failureMessage, cause));
+        }
+    }
+
+    private void writeOneByOne(List<PendingWrite> writes) {
+        for (PendingWrite write : writes) {
+            try {
+                if (write.operation.size() == 1) {
+                    executeSingleOperation(write.operation.getOperations().get(0));
+                } else {
+                    metaDataService.executeBatch(write.operation, storageNetworkDestination);
+                }
+                // catch RuntimeException until https://mantis.sc.dlr.de/view.php?id=13865 is solved
+            } catch (CommunicationException | RuntimeException e) {
+                write.failureHolder.compareAndSet(null, new ComponentExecutionException(write.failureMessage, e));
+            }
+        }
+    }
+
+    private void executeSingleOperation(MetaDataBatch.Operation operation) throws CommunicationException {
+        switch (operation.getType()) {
+        case ADD_INPUT_DATUM:
+            metaDataService.addInputDatum(operation.getComponentRunId(), operation.getTypedDatumId(), operation.getEndpointInstanceId(),
+                operation.getCount(), storageNetworkDestination);
+            break;
+        case SET_OR_UPDATE_HISTORY_DATA_ITEM:
+            metaDataService.setOrUpdateHistoryDataItem(operation.getComponentRunId(), operation.getHistoryDataItem(),
+                storageNetworkDestination);
+            break;
+        case SET_COMPONENT_RUN_FINISHED:
+            metaDataService.setComponentRunFinished(operation.getComponentRunId(), operation.getEndtime(), operation.getFinalState(),
+                storageNetworkDestination);
+            break;
+        default:
+            throw new IllegalArgumentException("Unsupported meta data operation: " + operation.getType());
+        }
+    }
+}
@@ -9,9 +9,12 @@
 package de.rcenvironment.core.component.execution.internal;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.collections4.map.LRUMap;
 import org.apache.commons.logging.Log;
@@ -23,7 +26,13 @@ import org.osgi.service.component.annotations.Reference;
 
 import de.rcenvironment.core.communication.api.CommunicationService;
 import de.rcenvironment.core.communication.api.PlatformService;
+import de.rcenvironment.core.communication.api.ReliableRPCStreamHandle;
 import de.rcenvironment.core.communication.common.NetworkDestination;
+import de.rcenvironment.core.communication.common.ResolvableNodeId;
+import de.rcenvironment.core.communication.nodeproperties.NodePropertiesService;
+import de.rcenvironment.core.communication.nodeproperties.NodeProperty;
+import de.rcenvironment.core.communication.nodeproperties.spi.NodePropertiesChangeListener;
+import de.rcenvironment.core.communication.nodeproperties.spi.NodePropertiesChangeListenerAdapter;
 import de.rcenvironment.core.component.execution.api.ComponentControllerRoutingMap;
 import de.rcenvironment.core.component.execution.api.ComponentExecutionController;
 import de.rcenvironment.core.component.execution.api.EndpointDatumDispatchService;
@@ -33,21 +42,34 @@ import de.rcenvironment.core.component.execution.api.LocalExecutionControllerUti
 import de.rcenvironment.core.component.execution.api.RemotableComponentExecutionControllerService;
 import de.rcenvironment.core.component.execution.api.RemotableEndpointDatumDispatcher;
 import de.rcenvironment.core.component.model.endpoint.api.EndpointDatum;
+import de.rcenvironment.core.datamodel.api.TypedDatumSerializationFormat;
 import de.rcenvironment.core.toolkitbridge.transitional.ConcurrencyUtils;
 import de.rcenvironment.core.utils.common.StringUtils;
 import de.rcenvironment.core.utils.common.rpc.RemoteOperationException;
 import de.rcenvironment.core.utils.common.security.AllowRemoteAccess;
+import de.rcenvironment.core.utils.common.service.AdditionalServiceDeclaration;
+import de.rcenvironment.core.utils.common.service.AdditionalServicesProvider;
 import de.rcenvironment.toolkit.modules.concurrency.api.AsyncCallbackExceptionPolicy;
 import de.rcenvironment.toolkit.modules.concurrency.api.AsyncOrderedExecutionQueue;
 
 /**
  * Implementation of {@link RemotableEndpointDatumDispatcher}.
  * 
+ * The {@link TypedDatumSerializationFormat}s this node can read are announced as a node property; when forwarding an endpoint datum,
+ * the most efficient format announced by the next node is used. Nodes without such an announcement (e.g. older RCE versions) receive
+ * JSON.
+ * 
  * @author Doreen Seider
  * @author Robert Mischke
  */
 @Component
-public class EndpointDatumDispatcherImpl implements EndpointDatumDispatchService, RemotableEndpointDatumDispatcher {
+public class EndpointDatumDispatcherImpl implements EndpointDatumDispatchService, RemotableEndpointDatumDispatcher,
+    AdditionalServicesProvider {
+
+    /**
+     * The node property announcing the {@link TypedDatumSerializationFormat}s a node can read.
+     */
+    public static final String TYPED_DATUM_FORMATS_PROPERTY_KEY = "typedDatumFormats";
 
     private static final String FAILED_TO_SEND_ENDPOINT_DATUM = "Failed to send endpoint datum %s";
 
@@ -62,6 +84,9 @@ public class EndpointDatumDispatcherImpl implements EndpointDatumDispatchService
 
     private Map<String, ComponentControllerRoutingMap> componentControllerForwardingMaps = Collections.synchronizedMap(new HashMap<>());
 
+    // key: instance node id string
+    private final Map<String, TypedDatumSerializationFormat> typedDatumFormatsOfRemoteNodes = new ConcurrentHashMap<>();
+
     private BundleContext bundleContext;
 
     private CommunicationService communicationService;
@@ -77,6 +102,21 @@ public class EndpointDatumDispatcherImpl implements EndpointDatumDispatchService
         bundleContext = context;
     }
 
+    @Override
+    public Collection<AdditionalServiceDeclaration> defineAdditionalServices() {
+        Collection<AdditionalServiceDeclaration> result = new ArrayList<>();
+        result.add(new AdditionalServiceDeclaration(NodePropertiesChangeListener.class, new NodePropertiesChangeListenerAdapter() {
+
+            @Override
+            public void onReachableNodePropertiesChanged(Collection<? extends NodeProperty> addedProperties,
+                Collection<? extends NodeProperty> updatedProperties, Collection<? extends NodeProperty> removedProperties) {
+                updateTypedDatumFormatsOfRemoteNodes(addedProperties, updatedProperties, removedProperties);
+            }
+
+        }));
+        return result;
+    }
+
     @Override
     public void dispatchEndpointDatum(final EndpointDatum endpointDatum) {
         final String executionId = endpointDatum.getInputsComponentExecutionIdentifier();
@@ -144,7 +184,12 @@ public class EndpointDatumDispatcherImpl implements EndpointDatumDispatchService
             final RemotableEndpointDatumDispatcher dispatcher =
                 communicationService.getRemotableService(RemotableEndpointDatumDispatcher.class, networkDestination);
 
-            dispatcher.dispatchEndpointDatum(endpointDatumSerializer.serializeEndpointDatum(endpointDatum));
+            final TypedDatumSerializationFormat format = getTypedDatumFormatForNetworkDestination(networkDestination);
+            if (format == TypedDatumSerializationFormat.JSON) {
+                dispatcher.dispatchEndpointDatum(endpointDatumSerializer.serializeEndpointDatum(endpointDatum));
+            } else {
+                dispatcher.dispatchEndpointDatum(endpointDatumSerializer.serializeEndpointDatum(endpointDatum, format));
+            }
             // ComponentExecutionUtils.logCallbackSuccessAfterFailure(LOG, StringUtils.format("Sending endpoint datum %s",
             // endpointDatum), failureCount);
             // break;
@@ -209,6 +254,44 @@ public class EndpointDatumDispatcherImpl implements EndpointDatumDispatchService
         compExeCtrl.onEndpointDatumReceived(endpointDatum);
     }
 
+    private TypedDatumSerializationFormat getTypedDatumFormatForNetworkDestination(NetworkDestination networkDestination) {
+        final ResolvableNodeId nodeId;
+        if (networkDestination instanceof ResolvableNodeId) {
+            nodeId = (ResolvableNodeId) networkDestination;
+        } else if (networkDestination instanceof ReliableRPCStreamHandle) {
+            nodeId = ((ReliableRPCStreamHandle) networkDestination).getDestinationNodeId();
+        } else {
+            return TypedDatumSerializationFormat.JSON;
+        }
+        TypedDatumSerializationFormat format = typedDatumFormatsOfRemoteNodes.get(nodeId.getInstanceNodeIdString());
+        if (format == null) {
+            return TypedDatumSerializationFormat.JSON;
+        }
+        return format;
+    }
+
+    private void updateTypedDatumFormatsOfRemoteNodes(Collection<? extends NodeProperty> addedProperties,
+        Collection<? extends NodeProperty> updatedProperties, Collection<? extends NodeProperty> removedProperties) {
+        for (NodeProperty property : addedProperties) {
+            updateTypedDatumFormatOfRemoteNode(property);
+        }
+        for (NodeProperty property : updatedProperties) {
+            updateTypedDatumFormatOfRemoteNode(property);
+        }
+        for (NodeProperty property : removedProperties) {
+            if (TYPED_DATUM_FORMATS_PROPERTY_KEY.equals(property.getKey())) {
+                typedDatumFormatsOfRemoteNodes.remove(property.getInstanceNodeSessionId().getInstanceNodeIdString());
+            }
+        }
+    }
+
+    private void updateTypedDatumFormatOfRemoteNode(NodeProperty property) {
+        if (TYPED_DATUM_FORMATS_PROPERTY_KEY.equals(property.getKey())) {
+            typedDatumFormatsOfRemoteNodes.put(property.getInstanceNodeSessionId().getInstanceNodeIdString(),
+                TypedDatumSerializationFormat.negotiate(property.getValue()));
+        }
+    }
+
     private ComponentExecutionController getComponentExecutionController(String executionId) throws ExecutionControllerException {
         ComponentExecutionController compExeCtrl = null;
         synchronized (compExeCtrls) {
@@ -243,4 +326,11 @@ public class EndpointDatumDispatcherImpl implements EndpointDatumDispatchService
         endpointDatumSerializer = newService;
     }
 
+    @Reference
+    protected void bindNodePropertiesService(NodePropertiesService newService) {
+        // announce the formats this node can read, so that remote nodes can choose the most efficient one
+        newService.addOrUpdateLocalNodeProperty(TYPED_DATUM_FORMATS_PROPERTY_KEY,
+            TypedDatumSerializationFormat.getSupportedFormatsAsString());
+    }
+
 }
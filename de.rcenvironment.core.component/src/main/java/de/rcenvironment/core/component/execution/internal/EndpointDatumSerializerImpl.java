@@ -16,6 +16,7 @@ import de.rcenvironment.core.component.model.endpoint.api.EndpointDatumRecipient
 import de.rcenvironment.core.component.model.endpoint.impl.EndpointDatumImpl;
 import de.rcenvironment.core.datamodel.api.DataType;
 import de.rcenvironment.core.datamodel.api.TypedDatum;
+import de.rcenvironment.core.datamodel.api.TypedDatumSerializationFormat;
 import de.rcenvironment.core.datamodel.api.TypedDatumSerializer;
 import de.rcenvironment.core.datamodel.api.TypedDatumService;
 import de.rcenvironment.core.utils.common.StringUtils;
@@ -32,13 +33,18 @@ public class EndpointDatumSerializerImpl implements EndpointDatumSerializer {
 
     @Override
     public String serializeEndpointDatum(EndpointDatum endpoint) {
+        return serializeEndpointDatum(endpoint, TypedDatumSerializationFormat.JSON);
+    }
+
+    @Override
+    public String serializeEndpointDatum(EndpointDatum endpoint, TypedDatumSerializationFormat format) {
         String[] parts = new String[10];
         parts[0] = endpoint.getInputName();
         TypedDatum value = endpoint.getValue();
         if (value.getDataType().equals(DataType.Internal)) {
             parts[1] = ((InternalTDImpl) value).serialize();
         } else {
-            parts[1] = typedDatumSerializer.serialize(value);
+            parts[1] = typedDatumSerializer.serialize(value, format);
         }
         parts[2] = endpoint.getInputsComponentExecutionIdentifier();
         parts[3] = endpoint.getInputsComponentInstanceName();
@@ -63,7 +69,11 @@ public class EndpointDatumSerializerImpl implements EndpointDatumSerializer {
         // e.g. provide type information in the serialized endpoint string explicitly or even better use the TypedDatumSerializer also for
         // internal TDs (note: TypedDatumSerializer is also used by components which should not (de-)serialize or even see internal TDs)
         // --seid_do
-        TypedDatum typedDatum = InternalTDImpl.fromString(parts[1]);
+        TypedDatum typedDatum = null;
+        // internal TDs are always sent as JSON
+        if (TypedDatumSerializationFormat.detect(parts[1]) == TypedDatumSerializationFormat.JSON) {
+            typedDatum = InternalTDImpl.fromString(parts[1]);
+        }
         if (typedDatum == null) {
             typedDatum = typedDatumSerializer.deserialize(parts[1]);
         }
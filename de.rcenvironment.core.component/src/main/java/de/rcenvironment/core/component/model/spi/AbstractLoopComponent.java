@@ -381,6 +381,56 @@ public abstract class AbstractLoopComponent extends DefaultComponent {
         return false;
     }
 
+    /**
+     * Parses the configured number of loop runs that may be in flight at once, i.e. of values sent into the loop one after another without
+     * waiting for the results in between.
+     * 
+     * @param value the configuration value; null or empty for a single loop run in flight
+     * @param settingName the name of the setting used in error messages, e.g. "number of samples in flight"
+     * @return the number of loop runs that may be in flight at once
+     * @throws ComponentException if the value is not a positive integer
+     */
+    protected static int parseLoopRunsInFlight(String value, String settingName) throws ComponentException {
+        if (value == null || value.trim().isEmpty()) {
+            return 1;
+        }
+        int loopRunsInFlight;
+        try {
+            loopRunsInFlight = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            loopRunsInFlight = 0;
+        }
+        if (loopRunsInFlight < 1) {
+            throw new ComponentException(StringUtils.format("The %s must be a positive integer: %s", settingName, value));
+        }
+        return loopRunsInFlight;
+    }
+
+    /**
+     * Checks that the configuration allows more than one loop run in flight. The results of the loop runs in flight are assigned in the
+     * order the values were sent, as the loop passes them on in that order. Thus, re-running a loop run is not supported, as its results
+     * would arrive out of order, and neither is forwarding values, as a forwarded value would be sent along with another loop run.
+     * 
+     * @param loopRunsInFlight the number of loop runs that may be in flight at once
+     * @param settingName the name of the setting used in error messages, e.g. "number of samples in flight"
+     * @throws ComponentException if more than one loop run in flight is configured, but not supported by the configuration
+     */
+    protected void checkLoopRunsInFlightSupported(int loopRunsInFlight, String settingName) throws ComponentException {
+        if (loopRunsInFlight <= 1) {
+            return;
+        }
+        if (loopBehaviorInCaseOfNAV == LoopBehaviorInCaseOfFailure.RerunAndFail
+            || loopBehaviorInCaseOfNAV == LoopBehaviorInCaseOfFailure.RerunAndDiscard) {
+            throw new ComponentException(StringUtils.format("Re-running evaluation loop runs is not supported if the %s is greater than"
+                + " one; configure a different behavior in the 'Fault Tolerance' tab or set the %s to one", settingName, settingName));
+        }
+        if (hasForwardingStartInputs()
+            || !componentContext.getDynamicInputsWithIdentifier(LoopComponentConstants.ENDPOINT_ID_TO_FORWARD).isEmpty()) {
+            throw new ComponentException(StringUtils.format("Forwarding values is not supported if the %s is greater than one;"
+                + " remove the 'forward' inputs or set the %s to one", settingName, settingName));
+        }
+    }
+
     private void forwardValues() {
         Set<String> inputs = componentContext.getInputsWithDatum();
         for (String input : inputs) {
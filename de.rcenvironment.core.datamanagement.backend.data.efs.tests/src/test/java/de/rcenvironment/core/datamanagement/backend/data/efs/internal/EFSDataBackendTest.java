@@ -8,17 +8,24 @@
 
 package de.rcenvironment.core.datamanagement.backend.data.efs.internal;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.UUID;
 import java.util.zip.GZIPInputStream;
 
@@ -34,6 +41,8 @@ import org.osgi.framework.BundleContext;
 import de.rcenvironment.core.configuration.ConfigurationService;
 import de.rcenvironment.core.configuration.bootstrap.RuntimeDetection;
 import de.rcenvironment.core.configuration.testutils.MockConfigurationService;
+import de.rcenvironment.core.datamodel.api.CompressionFormat;
+import de.rcenvironment.core.utils.common.ParallelGzipOutputStream;
 
 /**
  * Test cases for {@link EFSDataBackend}.
@@ -191,6 +200,79 @@ public class EFSDataBackendTest {
         assertFalse(efsDataBackend.delete(uri));
     }
 
+    /**
+     * Tests that equal contents stored content-addressed share a single file.
+     * 
+     * @throws IOException on unexpected errors
+     */
+    @Test
+    public void testPutContentAddressed() throws IOException {
+        File storageDir = Files.createTempDirectory("efs-content-addressed").toFile();
+        EFSDataBackend backend = createLocalFileSystemBackend(storageDir);
+
+        byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+        UUID first = backend.putContentAddressed(new ByteArrayInputStream(content), CompressionFormat.GZIP);
+        UUID second = backend.putContentAddressed(new ByteArrayInputStream(content), CompressionFormat.GZIP);
+        UUID other = backend.putContentAddressed(new ByteArrayInputStream("other".getBytes(StandardCharsets.UTF_8)),
+            CompressionFormat.GZIP);
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals(2, storageDir.list().length);
+        assertArrayEquals(content, readFully(backend.get(backend.suggestLocation(first))));
+
+        assertTrue(backend.delete(backend.suggestLocation(first)));
+        assertTrue(backend.delete(backend.suggestLocation(other)));
+        assertEquals(0, storageDir.list().length);
+        storageDir.delete();
+    }
+
+    /**
+     * Tests storing and reading files with each compression format, including files larger than a block of the parallel gzip codec.
+     * 
+     * @throws IOException on unexpected errors
+     */
+    @Test
+    public void testPutAndGetWithCompressionFormats() throws IOException {
+        File storageDir = Files.createTempDirectory("efs-compression").toFile();
+        EFSDataBackend backend = createLocalFileSystemBackend(storageDir);
+
+        final int blocks = 3;
+        byte[] content = new byte[blocks * ParallelGzipOutputStream.BLOCK_SIZE + 1];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i % 251);
+        }
+        for (CompressionFormat format : CompressionFormat.values()) {
+            URI location = backend.suggestLocation(UUID.randomUUID());
+            assertEquals(content.length, backend.put(location, new ByteArrayInputStream(content), format));
+            assertTrue(new File(storageDir, location.getPath() + StorageCodec.forCompressionFormat(format).getFileSuffix()).exists());
+            assertArrayEquals(format.name(), content, readFully(backend.get(location)));
+            assertTrue(backend.delete(location));
+        }
+        assertEquals(0, storageDir.list().length);
+        storageDir.delete();
+    }
+
+    private EFSDataBackend createLocalFileSystemBackend(File storageDir) {
+        config.setEfsStorage(storageDir.getAbsolutePath());
+        EFSDataBackend backend = new EFSDataBackend();
+        backend.bindConfigurationService(new DummyConfigurationService());
+        backend.bindEncapsulatedEFSService(location -> EFS.getLocalFileSystem().getStore(location));
+        backend.activate(EasyMock.createNiceMock(BundleContext.class));
+        return backend;
+    }
+
+    private byte[] readFully(InputStream stream) throws IOException {
+        ByteArrayOutputStream readContent = new ByteArrayOutputStream();
+        try (InputStream in = stream) {
+            final byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                readContent.write(buffer, 0, n);
+            }
+        }
+        return readContent.toByteArray();
+    }
+
     /**
      * Test implementation of {@link ConfigurationService}.
      * 
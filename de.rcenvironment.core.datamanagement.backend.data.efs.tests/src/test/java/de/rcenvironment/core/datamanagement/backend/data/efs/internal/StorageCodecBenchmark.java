@@ -0,0 +1,162 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamanagement.backend.data.efs.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of the {@link StorageCodec}s used to store files in the data management, applied to synthetic tool output in the form of
+ * a CSV table of floating point numbers. The compression ratio of each codec is reported as a secondary result of {@link #store}, as JMH
+ * only measures durations by itself.
+ * <p>
+ * Not part of the unit test suite; run it via {@link #main(String[])} or the JMH command line runner.
+ * 
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StorageCodecBenchmark {
+
+    private static final int COLUMNS = 8;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Param({ "NONE", "GZIP", "GZIP_FAST" })
+    private StorageCodec codec;
+
+    @Param({ "16" })
+    private int sizeInMegabytes;
+
+    private byte[] content;
+
+    private byte[] storedContent;
+
+    /**
+     * Secondary result of {@link StorageCodecBenchmark#store}.
+     * 
+     * @author agent
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CompressionRatio {
+
+        /**
+         * The size of the content divided by the size of the stored content; a public field, as required by JMH.
+         */
+        public double compressionRatio;
+    }
+
+    /**
+     * Generates the content and stores it once for the read benchmark.
+     * 
+     * @throws IOException on unexpected errors
+     */
+    @Setup
+    public void setUp() throws IOException {
+        content = createToolOutput(sizeInMegabytes * 1024 * 1024);
+        storedContent = storeContent();
+    }
+
+    /**
+     * Measures storing the content.
+     * 
+     * @param ratio receives the compression ratio
+     * @return the stored content
+     * @throws IOException on unexpected errors
+     */
+    @Benchmark
+    public byte[] store(CompressionRatio ratio) throws IOException {
+        final byte[] stored = storeContent();
+        ratio.compressionRatio = (double) content.length / stored.length;
+        return stored;
+    }
+
+    /**
+     * Measures reading the stored content.
+     * 
+     * @return the number of bytes read
+     * @throws IOException on unexpected errors
+     */
+    @Benchmark
+    public long read() throws IOException {
+        try (InputStream in = codec.wrapForReading(new ByteArrayInputStream(storedContent))) {
+            return copy(in, new ByteArrayOutputStream(content.length));
+        }
+    }
+
+    /**
+     * @param args not used
+     * @throws RunnerException on benchmark failure
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StorageCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private byte[] storeContent() throws IOException {
+        final ByteArrayOutputStream stored = new ByteArrayOutputStream(content.length);
+        try (OutputStream out = codec.wrapForWriting(stored)) {
+            copy(new ByteArrayInputStream(content), out);
+        }
+        return stored.toByteArray();
+    }
+
+    private static byte[] createToolOutput(int size) {
+        final Random random = new Random(0);
+        final StringBuilder builder = new StringBuilder(size + BUFFER_SIZE);
+        while (builder.length() < size) {
+            for (int column = 0; column < COLUMNS; column++) {
+                if (column > 0) {
+                    builder.append(',');
+                }
+                builder.append(String.format(Locale.ENGLISH, "%.6e", random.nextGaussian() * (column + 1)));
+            }
+            builder.append('\n');
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long copy(InputStream in, OutputStream out) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long count = 0;
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+            count += n;
+        }
+        return count;
+    }
+}
@@ -16,12 +16,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
-import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.eclipse.core.filesystem.EFS;
@@ -33,6 +35,7 @@ import de.rcenvironment.core.configuration.ConfigurationService;
 import de.rcenvironment.core.configuration.ConfigurationService.ConfigurablePathId;
 import de.rcenvironment.core.configuration.bootstrap.RuntimeDetection;
 import de.rcenvironment.core.datamanagement.backend.DataBackend;
+import de.rcenvironment.core.datamodel.api.CompressionFormat;
 
 /**
  * IEFS implementation of {@link DataBackend}.
@@ -51,14 +54,16 @@ public class EFSDataBackend implements DataBackend {
 
     private static final String SLASH = "/";
 
-    private static final String ZIP_FILE_SUFFIX = ".gz";
-
     private static final String STORAGE_SUBDIRECTORY = "data";
 
     private static final String FAILED_TO_WRITE_FILE_FOR_URI = "Failed to write file for URI ";
 
     private static final int STREAM_BUFFER_SIZE = 256 * 1024; // arbitrary
 
+    private static final String CONTENT_DIGEST_ALGORITHM = "SHA-256";
+
+    private static final Object CONTENT_ADDRESSED_STORAGE_LOCK = new Object();
+
     private static Pattern parentPattern;
 
     private static Pattern uriPattern;
@@ -135,10 +140,7 @@ public class EFSDataBackend implements DataBackend {
         }
 
         try {
-            File fileToDelete = new File(getFileStorageRoot().getAbsolutePath() + new File(uri.getRawPath()).getPath());
-            if (!fileToDelete.exists()) {
-                fileToDelete = new File(getFileStorageRoot().getAbsolutePath() + new File(uri.getRawPath()).getPath() + ZIP_FILE_SUFFIX);
-            }
+            File fileToDelete = getStorageFile(uri, findStorageCodec(uri));
             if (!fileToDelete.exists()) {
                 log.debug("Given URI representing a file to delete could not be resolved to an existing path in the file store: "
                     + fileToDelete.getAbsolutePath());
@@ -180,23 +182,16 @@ public class EFSDataBackend implements DataBackend {
         }
 
         try {
-            boolean isZipped = false;
-            File fileToGet = new File(getFileStorageRoot().getAbsolutePath() + new File(uri.getRawPath()).getPath());
-            if (!fileToGet.exists()) {
-                fileToGet = new File(getFileStorageRoot().getAbsolutePath() + new File(uri.getRawPath()).getPath() + ZIP_FILE_SUFFIX);
-                isZipped = true;
-            }
-            fileStore = encapsulatedEFSService.getStore(fileToGet.toURI());
+            final StorageCodec codec = findStorageCodec(uri);
+            fileStore = encapsulatedEFSService.getStore(getStorageFile(uri, codec).toURI());
 
-            InputStream storageInputStream;
-            // get buffered storage file stream
-            if (isZipped && decompress) {
-                storageInputStream =
-                    new BufferedInputStream(new GzipCompressorInputStream(fileStore.openInputStream(EFS.NONE, null)), STREAM_BUFFER_SIZE);
-            } else {
-                storageInputStream = new BufferedInputStream(fileStore.openInputStream(EFS.NONE, null), STREAM_BUFFER_SIZE);
+            InputStream storageInputStream = fileStore.openInputStream(EFS.NONE, null);
+            // if not decompressed, the stored form is returned; for both gzip based codecs, this is a valid gzip stream
+            if (decompress) {
+                storageInputStream = codec.wrapForReading(storageInputStream);
             }
-            return storageInputStream;
+            // get buffered storage file stream
+            return new BufferedInputStream(storageInputStream, STREAM_BUFFER_SIZE);
         } catch (CoreException | IOException e) {
             throw new RuntimeException("File with given URI could not be found: " + uri, e);
         } 
@@ -221,8 +216,18 @@ public class EFSDataBackend implements DataBackend {
     }
 
     @Override
-    // TODO messy exception handling; improve
     public long put(URI uri, Object object, boolean alreadyCompressed) {
+        if (useGZipCompression && !alreadyCompressed) {
+            return put(uri, object, CompressionFormat.GZIP);
+        }
+        return put(uri, object, CompressionFormat.NONE);
+    }
+
+    @Override
+    // TODO messy exception handling; improve
+    public long put(URI uri, Object object, CompressionFormat compressionFormat) {
+
+        final StorageCodec codec = StorageCodec.forCompressionFormat(compressionFormat);
 
         if (!isURIValid(uri)) {
             throw new IllegalArgumentException("Given URI representing the location to put a file to is not valid: " + uri);
@@ -236,14 +241,8 @@ public class EFSDataBackend implements DataBackend {
             OutputStream storageOutputStream = null;
             IFileStore fileStore = null;
             try {
-                File fileToSave;
+                File fileToSave = getStorageFile(uri, codec);
                 IFileStore parent = null;
-                if (useGZipCompression && !alreadyCompressed) {
-                    fileToSave = new File(getFileStorageRoot().getAbsolutePath() + new File(uri.getRawPath()).getPath() + ZIP_FILE_SUFFIX);
-                } else {
-                    fileToSave = new File(getFileStorageRoot().getAbsolutePath() + new File(uri.getRawPath()).getPath());
-
-                }
                 fileStore = encapsulatedEFSService.getStore(fileToSave.toURI());
                 parent = fileStore.getParent();
                 if (parent != null && isParentValid(parent.getName())) {
@@ -252,13 +251,8 @@ public class EFSDataBackend implements DataBackend {
 
 
                 // get buffered storage file stream for writing
-                if (useGZipCompression && !alreadyCompressed) {
-                    storageOutputStream =
-                        new BufferedOutputStream(new GzipCompressorOutputStream(fileStore.openOutputStream(EFS.NONE, null)),
-                            STREAM_BUFFER_SIZE);
-                } else {
-                    storageOutputStream = new BufferedOutputStream(fileStore.openOutputStream(EFS.NONE, null), STREAM_BUFFER_SIZE);
-                }
+                storageOutputStream =
+                    new BufferedOutputStream(codec.wrapForWriting(fileStore.openOutputStream(EFS.NONE, null)), STREAM_BUFFER_SIZE);
             } catch (CoreException e) {
                 // TODO review: RTEs should only be thrown when unavoidable; change method API to
                 // declare explicit exceptions - misc_ro
@@ -311,6 +305,69 @@ public class EFSDataBackend implements DataBackend {
         return writtenBytes;
     }
 
+    @Override
+    public UUID putContentAddressed(Object object, CompressionFormat compressionFormat) {
+
+        if (!(object instanceof InputStream)) {
+            throw new IllegalArgumentException("Given object to put is not an instance of InputStream: " + object);
+        }
+
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(CONTENT_DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Digest algorithm not available: " + CONTENT_DIGEST_ALGORITHM, e);
+        }
+        final StorageCodec codec = StorageCodec.forCompressionFormat(compressionFormat);
+        // the same content is stored differently depending on the compression format; thus, it is part of the hash
+        digest.update(compressionFormat.name().getBytes(StandardCharsets.UTF_8));
+
+        // the content is hashed while being written to a location of its own, so that it is read only once
+        final URI temporaryUri = suggestLocation(UUID.randomUUID());
+        put(temporaryUri, new DigestInputStream((InputStream) object, digest), compressionFormat);
+
+        // derive a UUID from the hash, so that the location matches the layout of all other stored files
+        final UUID contentId = UUID.nameUUIDFromBytes(digest.digest());
+        final URI contentUri = suggestLocation(contentId);
+        final File contentFile = getStorageFile(contentUri, codec);
+        synchronized (CONTENT_ADDRESSED_STORAGE_LOCK) {
+            if (contentFile.exists()) {
+                log.debug("Reusing stored file with equal content: " + contentFile.getAbsolutePath());
+                delete(temporaryUri);
+            } else {
+                try {
+                    encapsulatedEFSService.getStore(getStorageFile(temporaryUri, codec).toURI())
+                        .move(encapsulatedEFSService.getStore(contentFile.toURI()), EFS.NONE, null);
+                } catch (CoreException e) {
+                    delete(temporaryUri);
+                    throw new RuntimeException(FAILED_TO_WRITE_FILE_FOR_URI + contentUri
+                        + " (Message: " + e.getMessage() + ")", e.getCause());
+                }
+            }
+        }
+        return contentId;
+    }
+
+    private File getStorageFile(URI uri, StorageCodec codec) {
+        return new File(getFileStorageRoot().getAbsolutePath() + new File(uri.getRawPath()).getPath() + codec.getFileSuffix());
+    }
+
+    /**
+     * Determines the codec of the file stored at the given location by the suffix of the existing file. If there is none, the gzip codec
+     * is returned, as it was the only one before the compression format could be selected.
+     * 
+     * @param uri the location of the file
+     * @return the codec of the stored file
+     */
+    private StorageCodec findStorageCodec(URI uri) {
+        for (StorageCodec codec : StorageCodec.values()) {
+            if (getStorageFile(uri, codec).exists()) {
+                return codec;
+            }
+        }
+        return StorageCodec.GZIP;
+    }
+
     /**
      * Checks if the given name resembles a valid URI for the parent directory of a persisted file.
      * 
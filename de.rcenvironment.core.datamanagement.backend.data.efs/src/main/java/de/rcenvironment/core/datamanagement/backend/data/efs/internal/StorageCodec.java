@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamanagement.backend.data.efs.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+
+import de.rcenvironment.core.datamodel.api.CompressionFormat;
+import de.rcenvironment.core.toolkitbridge.transitional.ConcurrencyUtils;
+import de.rcenvironment.core.utils.common.ParallelGzipOutputStream;
+
+/**
+ * The codecs files are stored with by the {@link EFSDataBackend}, one per {@link CompressionFormat}. The codec of a stored file is
+ * determined by the suffix of its name, so that files stored before the format could be selected remain readable.
+ * 
+ * @author agent
+ */
+enum StorageCodec {
+
+    /** Files stored as they are. */
+    NONE(CompressionFormat.NONE, "") {
+
+        @Override
+        OutputStream wrapForWriting(OutputStream out) {
+            return out;
+        }
+
+        @Override
+        InputStream wrapForReading(InputStream in) {
+            return in;
+        }
+    },
+
+    /** gzip compressed files. */
+    GZIP(CompressionFormat.GZIP, ".gz") {
+
+        @Override
+        OutputStream wrapForWriting(OutputStream out) throws IOException {
+            return new GzipCompressorOutputStream(out);
+        }
+
+        @Override
+        InputStream wrapForReading(InputStream in) throws IOException {
+            return new GzipCompressorInputStream(in);
+        }
+    },
+
+    /**
+     * Multi-member gzip files written by a {@link ParallelGzipOutputStream}. A suffix of their own ensures that they are not read by older
+     * versions, which would only decompress the first member.
+     */
+    GZIP_FAST(CompressionFormat.GZIP_FAST, ".fgz") {
+
+        @Override
+        OutputStream wrapForWriting(OutputStream out) {
+            return new ParallelGzipOutputStream(out, ConcurrencyUtils.getAsyncTaskService());
+        }
+
+        @Override
+        InputStream wrapForReading(InputStream in) throws IOException {
+            return new GzipCompressorInputStream(in, true);
+        }
+    };
+
+    private final CompressionFormat compressionFormat;
+
+    private final String fileSuffix;
+
+    StorageCodec(CompressionFormat compressionFormat, String fileSuffix) {
+        this.compressionFormat = compressionFormat;
+        this.fileSuffix = fileSuffix;
+    }
+
+    CompressionFormat getCompressionFormat() {
+        return compressionFormat;
+    }
+
+    String getFileSuffix() {
+        return fileSuffix;
+    }
+
+    abstract OutputStream wrapForWriting(OutputStream out) throws IOException;
+
+    abstract InputStream wrapForReading(InputStream in) throws IOException;
+
+    /**
+     * @param compressionFormat the format to get the codec of
+     * @return the codec storing files in the given format
+     */
+    static StorageCodec forCompressionFormat(CompressionFormat compressionFormat) {
+        for (StorageCodec codec : values()) {
+            if (codec.compressionFormat == compressionFormat) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported compression format: " + compressionFormat);
+    }
+}
@@ -15,7 +15,9 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -43,10 +45,12 @@ import de.rcenvironment.core.datamanagement.DataManagementIdMapping;
 import de.rcenvironment.core.datamanagement.FileDataService;
 import de.rcenvironment.core.datamanagement.commons.BinaryReference;
 import de.rcenvironment.core.datamanagement.commons.ComponentInstance;
+import de.rcenvironment.core.datamanagement.commons.ComponentInstanceSummary;
 import de.rcenvironment.core.datamanagement.commons.ComponentRun;
 import de.rcenvironment.core.datamanagement.commons.DataReference;
 import de.rcenvironment.core.datamanagement.commons.EndpointInstance;
 import de.rcenvironment.core.datamanagement.commons.MetaData;
+import de.rcenvironment.core.datamanagement.commons.MetaDataBatch;
 import de.rcenvironment.core.datamanagement.commons.MetaDataKeys;
 import de.rcenvironment.core.datamanagement.commons.MetaDataSet;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRun;
@@ -259,6 +263,45 @@ public class DerbyMetaDataBackendTest {
 
     }
 
+    /**
+     * Tests applying a {@link MetaDataBatch} with more rows than fit into a single JDBC batch.
+     */
+    @Test
+    public void testExecuteBatch() {
+        final int numOutputs = 2500;
+        final String historyDataItem = "history";
+        Long wfRunId =
+            derbyMetaDataBackend.addWorkflowRun(STRING_TEST_RUN, DataManagementIdMapping.createDummyNodeIdStringForTesting(),
+                DataManagementIdMapping.createDummyNodeIdStringForTesting(),
+                System.currentTimeMillis());
+        Long ciid = derbyMetaDataBackend.addComponentInstances(wfRunId, createComponentInstances(1)).values().iterator().next();
+        Map<String, Long> endpointInstanceIdMap = derbyMetaDataBackend.addEndpointInstances(ciid, getEndpointInstances());
+        Long crunId = derbyMetaDataBackend.addComponentRun(ciid, DataManagementIdMapping.createDummyNodeIdStringForTesting(), 1,
+            System.currentTimeMillis());
+
+        MetaDataBatch batch = new MetaDataBatch();
+        for (int i = 1; i <= numOutputs; i++) {
+            batch.addOutputDatum(crunId, endpointInstanceIdMap.get("X_out"),
+                typedDatumSerializer.serialize(typedDatumFactory.createFloat(i)), i);
+        }
+        List<Long> typedDatumIds = derbyMetaDataBackend.executeBatch(batch);
+        assertEquals(numOutputs, typedDatumIds.size());
+        assertEquals(numOutputs, new HashSet<>(typedDatumIds).size());
+        assertFalse(typedDatumIds.contains(null));
+
+        batch = new MetaDataBatch();
+        batch.addInputDatum(crunId, typedDatumIds.get(0), endpointInstanceIdMap.get("X_in"), 1);
+        batch.setOrUpdateHistoryDataItem(crunId, historyDataItem);
+        batch.setComponentRunFinished(crunId, System.currentTimeMillis() + MILLISECONDS_1000, FinalComponentRunState.FINISHED);
+        assertEquals(Arrays.asList(null, null, null), derbyMetaDataBackend.executeBatch(batch));
+
+        ComponentRun run = derbyMetaDataBackend.getComponentRuns(ciid).iterator().next();
+        assertEquals(numOutputs + 1, run.getEndpointData().size());
+        assertEquals(historyDataItem, run.getHistoryDataItem());
+        assertEquals(FinalComponentRunState.FINISHED, run.getFinalState());
+        assertNotNull(run.getEndTime());
+    }
+
     /** Test. */
     @Test(timeout = COMPLEX_SCENARIO_TEST_TIMEOUT)
     public void testAddDeleteData() {
@@ -404,6 +447,117 @@ public class DerbyMetaDataBackendTest {
         assertNotNull(wfrun);
     }
 
+    /**
+     * Tests fetching a workflow run without its component runs and fetching the component runs page by page afterwards.
+     */
+    @Test
+    public void testGetWorkflowRunOverviewAndComponentRunPages() {
+        final int numRunsPerComponent = 5;
+        final int pageSize = 3;
+        Long wfRunId =
+            derbyMetaDataBackend.addWorkflowRun(STRING_TEST_RUN, DataManagementIdMapping.createDummyNodeIdStringForTesting(),
+                DataManagementIdMapping.createDummyNodeIdStringForTesting(),
+                System.currentTimeMillis());
+        Map<String, Long> componentInstanceIdMap = derbyMetaDataBackend.addComponentInstances(wfRunId, createComponentInstances(2));
+        Long ciid = componentInstanceIdMap.values().iterator().next();
+        Long endpointInstanceId = derbyMetaDataBackend.addEndpointInstances(ciid, getEndpointInstances()).get("X_out");
+        long startTime = System.currentTimeMillis();
+        for (Long id : componentInstanceIdMap.values()) {
+            // the init run is counted as component run, but not as regular one
+            for (int crunCounter = 0; crunCounter <= numRunsPerComponent; crunCounter++) {
+                Long crunId = derbyMetaDataBackend.addComponentRun(id, DataManagementIdMapping.createDummyNodeIdStringForTesting(),
+                    crunCounter, startTime + crunCounter);
+                if (id.equals(ciid)) {
+                    derbyMetaDataBackend.addOutputDatum(crunId, endpointInstanceId,
+                        typedDatumSerializer.serialize(typedDatumFactory.createFloat(crunCounter)), 1);
+                }
+            }
+        }
+
+        WorkflowRun overview = derbyMetaDataBackend.getWorkflowRunOverview(wfRunId);
+        assertEquals(STRING_TEST_RUN, overview.getWorkflowTitle());
+        assertTrue(overview.getComponentRuns().isEmpty());
+        assertEquals(componentInstanceIdMap.size(), overview.getComponentInstanceSummaries().size());
+        for (ComponentInstanceSummary summary : overview.getComponentInstanceSummaries()) {
+            assertTrue(componentInstanceIdMap.containsValue(summary.getComponentInstanceID()));
+            assertEquals(numRunsPerComponent + 1, summary.getComponentRunCount());
+            assertEquals(numRunsPerComponent, summary.getRegularRunCount());
+            assertNotNull(summary.getLogicalNodeIdString());
+        }
+
+        List<ComponentRun> firstPage = derbyMetaDataBackend.getComponentRunPage(wfRunId, ciid, 0, pageSize);
+        List<ComponentRun> secondPage = derbyMetaDataBackend.getComponentRunPage(wfRunId, ciid, pageSize, pageSize);
+        assertEquals(pageSize, firstPage.size());
+        assertEquals(numRunsPerComponent + 1 - pageSize, secondPage.size());
+        // latest first
+        assertEquals(Integer.valueOf(numRunsPerComponent), firstPage.get(0).getRunCounter());
+        assertEquals(Integer.valueOf(0), secondPage.get(secondPage.size() - 1).getRunCounter());
+        for (ComponentRun run : firstPage) {
+            assertEquals(ciid, run.getComponentInstanceID());
+            assertEquals(1, run.getEndpointData().size());
+            assertEquals(EndpointType.OUTPUT, run.getEndpointData().iterator().next().getEndpointInstance().getEndpointType());
+        }
+        assertEquals((numRunsPerComponent + 1) * componentInstanceIdMap.size(),
+            derbyMetaDataBackend.getComponentRunPage(wfRunId, null, 0, Integer.MAX_VALUE).size());
+        assertTrue(derbyMetaDataBackend.getComponentRunPage(wfRunId, ciid, numRunsPerComponent + 1, pageSize).isEmpty());
+    }
+
+    /**
+     * Tests that binaries shared by data references of different workflow runs, as with content-addressed storage, are only deleted along
+     * with the last workflow run referencing them.
+     * 
+     * @throws Exception on unexpected errors
+     */
+    @Test(timeout = COMPLEX_SCENARIO_TEST_TIMEOUT)
+    public void testDeleteWorkflowRunsWithSharedBinaries() throws Exception {
+        final Set<String> deletedKeys = Collections.synchronizedSet(new HashSet<String>());
+        FileDataService recordingDataService = EasyMock.createNiceMock(FileDataService.class);
+        recordingDataService.deleteReference(EasyMock.anyObject(String.class));
+        EasyMock.expectLastCall().andAnswer(() -> {
+            deletedKeys.add((String) EasyMock.getCurrentArguments()[0]);
+            return null;
+        }).anyTimes();
+        EasyMock.replay(recordingDataService);
+        derbyMetaDataBackend.bindDataService(recordingDataService);
+
+        final String sharedKey = UUID.randomUUID().toString();
+        final String ownKey = UUID.randomUUID().toString();
+        Long firstWfRunId = addFinishedWorkflowRunWithDataReferences(sharedKey, ownKey);
+        Long secondWfRunId = addFinishedWorkflowRunWithDataReferences(sharedKey);
+
+        assertTrue(derbyMetaDataBackend.deleteWorkflowRun(firstWfRunId));
+        waitForWorkflowRunDeletion(firstWfRunId);
+        assertEquals(new HashSet<>(Arrays.asList(ownKey)), deletedKeys);
+
+        assertTrue(derbyMetaDataBackend.deleteWorkflowRun(secondWfRunId));
+        waitForWorkflowRunDeletion(secondWfRunId);
+        assertEquals(new HashSet<>(Arrays.asList(ownKey, sharedKey)), deletedKeys);
+    }
+
+    private Long addFinishedWorkflowRunWithDataReferences(String... binaryKeys) {
+        Long wfRunId =
+            derbyMetaDataBackend.addWorkflowRun(STRING_TEST_RUN, DataManagementIdMapping.createDummyNodeIdStringForTesting(),
+                DataManagementIdMapping.createDummyNodeIdStringForTesting(), System.currentTimeMillis());
+        Long ciid = derbyMetaDataBackend.addComponentInstances(wfRunId, createComponentInstances(1)).values().iterator().next();
+        Long crunId = derbyMetaDataBackend.addComponentRun(ciid, DataManagementIdMapping.createDummyNodeIdStringForTesting(), 1,
+            System.currentTimeMillis());
+        for (String binaryKey : binaryKeys) {
+            Set<BinaryReference> brefs = new HashSet<BinaryReference>();
+            brefs.add(new BinaryReference(binaryKey, CompressionFormat.GZIP, "1"));
+            derbyMetaDataBackend.addDataReferenceToComponentRun(crunId,
+                new DataReference(UUID.randomUUID().toString(), NodeIdentifierTestUtils.createTestDefaultLogicalNodeId(), brefs));
+        }
+        derbyMetaDataBackend.setWorkflowRunFinished(wfRunId, System.currentTimeMillis(), FinalWorkflowState.FINISHED);
+        return wfRunId;
+    }
+
+    private void waitForWorkflowRunDeletion(Long wfRunId) throws InterruptedException {
+        final int pollIntervalMsec = 50;
+        while (derbyMetaDataBackend.getWorkflowRun(wfRunId) != null) {
+            Thread.sleep(pollIntervalMsec);
+        }
+    }
+
     /**
      * Test implementation of <code>ConfigurationService</code>.
      * 
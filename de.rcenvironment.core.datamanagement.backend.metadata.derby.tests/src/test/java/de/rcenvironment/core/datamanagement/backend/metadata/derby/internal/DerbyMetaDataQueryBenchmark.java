@@ -0,0 +1,297 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamanagement.backend.metadata.derby.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.rcenvironment.core.communication.common.NodeIdentifierTestUtils;
+import de.rcenvironment.core.configuration.ConfigurationService.ConfigurablePathId;
+import de.rcenvironment.core.configuration.bootstrap.RuntimeDetection;
+import de.rcenvironment.core.configuration.testutils.MockConfigurationService;
+import de.rcenvironment.core.datamanagement.DataManagementIdMapping;
+import de.rcenvironment.core.datamanagement.commons.BinaryReference;
+import de.rcenvironment.core.datamanagement.commons.ComponentInstance;
+import de.rcenvironment.core.datamanagement.commons.DataReference;
+import de.rcenvironment.core.datamanagement.commons.EndpointInstance;
+import de.rcenvironment.core.datamanagement.commons.MetaDataBatch;
+import de.rcenvironment.core.datamanagement.commons.MetaDataKeys;
+import de.rcenvironment.core.datamanagement.commons.WorkflowRun;
+import de.rcenvironment.core.datamodel.api.CompressionFormat;
+import de.rcenvironment.core.datamodel.api.DataType;
+import de.rcenvironment.core.datamodel.api.EndpointType;
+import de.rcenvironment.core.datamodel.api.FinalComponentRunState;
+import de.rcenvironment.core.datamodel.api.FinalWorkflowState;
+import de.rcenvironment.core.datamodel.api.TypedDatumFactory;
+import de.rcenvironment.core.datamodel.api.TypedDatumSerializer;
+import de.rcenvironment.core.datamodel.testutils.TypedDatumFactoryDefaultStub;
+import de.rcenvironment.core.datamodel.testutils.TypedDatumSerializerDefaultStub;
+import de.rcenvironment.core.datamodel.testutils.TypedDatumServiceDefaultStub;
+import de.rcenvironment.core.utils.common.TempFileServiceAccess;
+
+/**
+ * JMH benchmark of the meta data queries used to browse and delete workflow runs, executed on a database filled with a configurable
+ * number of synthetic workflow runs. To measure the effect of the secondary indexes, the database can be set up without any of the indexes
+ * created by {@link DerbyDatabaseSetup} (the ones backing primary and foreign keys remain).
+ * <p>
+ * Not part of the unit test suite; run it via {@link #main(String[])} or the JMH command line runner. Filling the database takes a while
+ * for large numbers of workflow runs.
+ * 
+ * @author agent
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class DerbyMetaDataQueryBenchmark {
+
+    private static final int COMPONENTS_PER_WORKFLOW_RUN = 5;
+
+    private static final int RUNS_PER_COMPONENT = 5;
+
+    /**
+     * The number of synthetic workflow runs to fill the database with.
+     */
+    @Param({ "100", "500" })
+    public int workflowRuns;
+
+    /**
+     * Whether the indexes created by {@link DerbyDatabaseSetup} exist.
+     */
+    @Param({ "true", "false" })
+    public boolean secondaryIndexes;
+
+    private final TypedDatumFactory typedDatumFactory = new TypedDatumFactoryDefaultStub();
+
+    private final TypedDatumSerializer typedDatumSerializer = new TypedDatumSerializerDefaultStub();
+
+    private final DerbyMetaDataBackendOperationsImpl operations = new DerbyMetaDataBackendOperationsImpl();
+
+    private final List<Long> workflowRunIds = new ArrayList<>();
+
+    private final Random random = new Random(0);
+
+    private DerbyMetaDataBackendServiceImpl derbyMetaDataBackend;
+
+    private File tempDirectory;
+
+    /**
+     * Holds a freshly added workflow run to delete per invocation.
+     * 
+     * @author agent
+     */
+    @State(Scope.Thread)
+    public static class WorkflowRunToDelete {
+
+        private Long workflowRunId;
+
+        /**
+         * @param benchmark the benchmark state to add the workflow run with
+         */
+        @Setup(Level.Invocation)
+        public void setUp(DerbyMetaDataQueryBenchmark benchmark) {
+            workflowRunId = benchmark.addSyntheticWorkflowRun();
+        }
+    }
+
+    /**
+     * Sets up the database and fills it with synthetic workflow runs.
+     * 
+     * @throws IOException on setup failure
+     * @throws SQLException on database errors
+     */
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        RuntimeDetection.allowSimulatedServiceActivation();
+        TempFileServiceAccess.setupUnitTestEnvironment();
+        tempDirectory = TempFileServiceAccess.getInstance().createManagedTempDir("derby-metadata-benchmark");
+        // there is no need for durable commits to fill and query the database
+        System.setProperty("derby.system.durability", "test");
+
+        derbyMetaDataBackend = new DerbyMetaDataBackendServiceImpl();
+        derbyMetaDataBackend.bindConfigurationService(new MockConfigurationService.ThrowExceptionByDefault() {
+
+            @Override
+            public File getConfigurablePath(ConfigurablePathId pathId) {
+                return tempDirectory;
+            }
+        });
+        derbyMetaDataBackend.bindTypedDatumService(new TypedDatumServiceDefaultStub());
+        derbyMetaDataBackend.activate(null);
+
+        for (int i = 0; i < workflowRuns; i++) {
+            workflowRunIds.add(addSyntheticWorkflowRun());
+        }
+        if (!secondaryIndexes) {
+            dropSecondaryIndexes();
+        }
+    }
+
+    /**
+     * Shuts down the database.
+     * 
+     * @throws IOException on cleanup failure
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        derbyMetaDataBackend.deactivate();
+        TempFileServiceAccess.getInstance().disposeManagedTempDirOrFile(tempDirectory);
+    }
+
+    /**
+     * @return the workflow run; browsing a workflow run in the data management view starts with this call
+     */
+    @Benchmark
+    public WorkflowRun getWorkflowRun() {
+        return derbyMetaDataBackend.getWorkflowRun(pickWorkflowRunId());
+    }
+
+    /**
+     * @return the binary keys of the workflow run's data references; deleting a workflow run starts with this call
+     * @throws SQLException on database errors
+     */
+    @Benchmark
+    public Map<Long, Set<String>> getDataReferenceBinaryKeys() throws SQLException {
+        final Connection connection = derbyMetaDataBackend.getConnection();
+        try {
+            return operations.getDataReferenceBinaryKeys(pickWorkflowRunId(), connection, false);
+        } finally {
+            connection.commit();
+            connection.close();
+        }
+    }
+
+    /**
+     * Deletes a workflow run in the same steps as {@link DerbyMetaDataBackendServiceImpl#deleteWorkflowRun(Long)}, except for deleting the
+     * files, which are not present.
+     * 
+     * @param workflowRunToDelete the workflow run to delete
+     * @return whether the workflow run content was deleted
+     * @throws SQLException on database errors
+     */
+    @Benchmark
+    public Boolean deleteWorkflowRun(WorkflowRunToDelete workflowRunToDelete) throws SQLException {
+        final Connection connection = derbyMetaDataBackend.getConnection();
+        try {
+            final Long workflowRunId = workflowRunToDelete.workflowRunId;
+            operations.deleteDataReferences(operations.getDataReferenceBinaryKeys(workflowRunId, connection, false), connection, false);
+            operations.deleteTypedDatums(workflowRunId, connection, false);
+            return operations.deleteWorkflowRunContent(workflowRunId, connection, false);
+        } finally {
+            connection.commit();
+            connection.close();
+        }
+    }
+
+    private Long pickWorkflowRunId() {
+        return workflowRunIds.get(random.nextInt(workflowRunIds.size()));
+    }
+
+    private Long addSyntheticWorkflowRun() {
+        final String nodeId = DataManagementIdMapping.createDummyNodeIdStringForTesting();
+        final Long workflowRunId = derbyMetaDataBackend.addWorkflowRun("BenchmarkRun", nodeId, nodeId, System.currentTimeMillis());
+        final Collection<ComponentInstance> componentInstances = new HashSet<>();
+        for (int i = 0; i < COMPONENTS_PER_WORKFLOW_RUN; i++) {
+            componentInstances.add(new ComponentInstance(UUID.randomUUID().toString(), "de.rcenvironment.benchmark", "Component " + i,
+                null));
+        }
+        final Map<String, String> metaData = new HashMap<>();
+        metaData.put(MetaDataKeys.DATA_TYPE, DataType.Float.getShortName());
+        final Collection<EndpointInstance> endpointInstances = new HashSet<>();
+        endpointInstances.add(new EndpointInstance("x", EndpointType.INPUT, metaData));
+        endpointInstances.add(new EndpointInstance("y", EndpointType.OUTPUT, metaData));
+
+        for (Long componentInstanceId : derbyMetaDataBackend.addComponentInstances(workflowRunId, componentInstances).values()) {
+            final Map<String, Long> endpointInstanceIds =
+                derbyMetaDataBackend.addEndpointInstances(componentInstanceId, endpointInstances);
+            for (int run = 0; run < RUNS_PER_COMPONENT; run++) {
+                final Long componentRunId = derbyMetaDataBackend.addComponentRun(componentInstanceId, nodeId, run,
+                    System.currentTimeMillis());
+                final MetaDataBatch outputBatch = new MetaDataBatch();
+                outputBatch.addOutputDatum(componentRunId, endpointInstanceIds.get("y"),
+                    typedDatumSerializer.serialize(typedDatumFactory.createFloat(run)), run);
+                final Long typedDatumId = derbyMetaDataBackend.executeBatch(outputBatch).get(0);
+                final MetaDataBatch inputBatch = new MetaDataBatch();
+                inputBatch.addInputDatum(componentRunId, typedDatumId, endpointInstanceIds.get("x"), run);
+                inputBatch.setComponentRunFinished(componentRunId, System.currentTimeMillis(), FinalComponentRunState.FINISHED);
+                derbyMetaDataBackend.executeBatch(inputBatch);
+
+                final String key = UUID.randomUUID().toString();
+                final Set<BinaryReference> binaryReferences = new HashSet<>();
+                binaryReferences.add(new BinaryReference(key, CompressionFormat.GZIP, "1.1"));
+                derbyMetaDataBackend.addDataReferenceToComponentRun(componentRunId,
+                    new DataReference(key, NodeIdentifierTestUtils.createTestDefaultLogicalNodeId(), binaryReferences));
+            }
+        }
+        derbyMetaDataBackend.setWorkflowRunFinished(workflowRunId, System.currentTimeMillis(), FinalWorkflowState.FINISHED);
+        return workflowRunId;
+    }
+
+    private void dropSecondaryIndexes() throws SQLException {
+        final Connection connection = derbyMetaDataBackend.getConnection();
+        try (Statement stmt = connection.createStatement()) {
+            final List<String> indexNames = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery("SELECT conglomeratename FROM SYS.SYSCONGLOMERATES "
+                + "WHERE isindex AND conglomeratename LIKE 'INDEX_%'")) {
+                while (rs.next()) {
+                    indexNames.add(rs.getString(1));
+                }
+            }
+            for (String indexName : indexNames) {
+                stmt.execute("DROP INDEX " + indexName);
+            }
+            connection.commit();
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Runs this benchmark.
+     * 
+     * @param args unused
+     * @throws RunnerException on benchmark failure
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DerbyMetaDataQueryBenchmark.class.getSimpleName()).build()).run();
+    }
+}
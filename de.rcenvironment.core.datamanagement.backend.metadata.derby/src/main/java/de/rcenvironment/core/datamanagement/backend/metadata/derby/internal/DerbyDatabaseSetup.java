@@ -8,8 +8,11 @@
 
 package de.rcenvironment.core.datamanagement.backend.metadata.derby.internal;
 
+import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.BINARY_REFERENCE_ID;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.BINARY_REFERENCE_KEY;
+import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.COMPONENT_INSTANCE_ID;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.COMPONENT_RUN_ID;
+import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.DATA_REFERENCE_ID;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.DATA_REFERENCE_KEY;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.DB_VERSION;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.REL_COMPONENTINSTANCE_DATAREFERENCE;
@@ -30,6 +33,7 @@ import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.TAB
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.TABLE_TYPED_DATUM;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.TABLE_WORKFLOW_RUN;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.TABLE_WORKFLOW_RUN_PROPERTIES;
+import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.TYPE;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.VIEW_COMPONENT_RUNS;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.VIEW_COMPONENT_TIMELINE_INTERVALS;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.VIEW_ENDPOINT_DATA;
@@ -38,6 +42,7 @@ import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.VIE
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.VIEW_WORKFLOWRUN_DATAREFERENCE;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.VIEW_WORKFLOWRUN_TYPEDDATUM;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.WORKFLOW_FILE_REFERENCE;
+import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.WORKFLOW_RUN_ID;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.COMPONENT_RUN_FINAL_STATE;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.NODE_ID;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.CONTROLLER_NODE_ID;
@@ -123,7 +128,6 @@ public abstract class DerbyDatabaseSetup {
                 LOGGER.debug("Setting up database.");
                 createTableDBVersionInfo(connection, CURRENT_DB_VERSION);
                 createTables(connection);
-                createIndexes(connection);
                 createViews(connection);
             }
         } else if (!getDBVersion(connection).equals(CURRENT_DB_VERSION)) {
@@ -172,6 +176,9 @@ public abstract class DerbyDatabaseSetup {
             || !viewExists(statement, MetaDataConstants.VIEW_WORKFLOWRUN_TYPEDDATUM)) {
             throw new RuntimeException("Unknown DB state!");
         }
+        // indexes are not part of the db version, as they do not affect older versions using the db; thus, missing ones are created on
+        // each start-up, which covers fresh databases, updated ones, and the ones set up before the indexes were introduced
+        createIndexes(connection);
 
         statement.close();
         LOGGER.debug(StringUtils.format("Database version is %s", getDBVersion(connection)));
@@ -453,10 +460,16 @@ public abstract class DerbyDatabaseSetup {
 
     private static void createIndexesTrial(Connection connection) throws SQLTransientConnectionException {
         try {
-            createIndex(TABLE_DATA_REFERENCE, DATA_REFERENCE_KEY, connection);
-            createIndex(TABLE_TIMELINE_INTERVAL, COMPONENT_RUN_ID, connection);
-            createIndex(TABLE_BINARY_REFERENCE, BINARY_REFERENCE_KEY, connection);
-            createIndex(TABLE_ENDPOINT_DATA, COMPONENT_RUN_ID, connection);
+            createIndex(TABLE_DATA_REFERENCE, connection, DATA_REFERENCE_KEY);
+            createIndex(TABLE_TIMELINE_INTERVAL, connection, COMPONENT_RUN_ID);
+            createIndex(TABLE_BINARY_REFERENCE, connection, BINARY_REFERENCE_KEY);
+            createIndex(TABLE_ENDPOINT_DATA, connection, COMPONENT_RUN_ID);
+            // Derby backs primary and foreign keys with indexes on their own; the following ones cover the joins of the views used to
+            // browse and delete workflow runs, so that they can be resolved from the indexes without reading the base rows
+            createIndex(TABLE_TIMELINE_INTERVAL, connection, WORKFLOW_RUN_ID, TYPE);
+            createIndex(TABLE_COMPONENT_INSTANCE, connection, WORKFLOW_RUN_ID, COMPONENT_INSTANCE_ID);
+            createIndex(TABLE_COMPONENT_RUN, connection, COMPONENT_INSTANCE_ID, COMPONENT_RUN_ID);
+            createIndex(REL_DATAREFERENCE_BINARYREFERENCE, connection, DATA_REFERENCE_ID, BINARY_REFERENCE_ID);
         } catch (SQLException e) {
             if (e instanceof SQLTransientConnectionException) {
                 throw (SQLTransientConnectionException) e;
@@ -465,14 +478,38 @@ public abstract class DerbyDatabaseSetup {
         }
     }
 
-    private static void createIndex(String tableName, String columnName, Connection connection) throws SQLException {
+    private static void createIndex(String tableName, Connection connection, String... columnNames) throws SQLException {
         Statement stmt = connection.createStatement();
-        String sql = StringUtils.format("CREATE INDEX INDEX_%s_%s ON %s (%s)", tableName, columnName, tableName, columnName);
-        LOGGER.debug(StringUtils.format("Creating index 'INDEX_%s_%s'", tableName, columnName));
-        stmt.executeUpdate(sql);
+        String indexName = StringUtils.format("INDEX_%s_%s", tableName, String.join("_", columnNames));
+        if (!indexExists(stmt, indexName)) {
+            String sql = StringUtils.format("CREATE INDEX %s ON %s (%s)", indexName, tableName, String.join(", ", columnNames));
+            LOGGER.debug(StringUtils.format("Creating index '%s'", indexName));
+            stmt.executeUpdate(sql);
+        }
         stmt.close();
     }
 
+    private static boolean indexExists(Statement statement, String indexName) throws SQLException {
+        boolean isExistentIndex = false;
+        ResultSet rs = null;
+        try {
+            final String sql = SELECT + " conglomeratename FROM SYS.SYSCONGLOMERATES" //
+                + WHERE + "conglomeratename = " + APO + indexName + APO + AND + "isindex";
+            statement.setQueryTimeout(QUERY_EXECUTION_TIMEOUT);
+            rs = statement.executeQuery(sql);
+            isExistentIndex = rs.next();
+        } finally {
+            try {
+                if (rs != null) {
+                    rs.close();
+                }
+            } catch (SQLException e) {
+                e = null;
+            }
+        }
+        return isExistentIndex;
+    }
+
     private static void createTables(final Connection connection) {
         final Runnable task = new SQLRunnable(MAX_RETRIES) {
 
@@ -61,7 +61,6 @@ import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.VIE
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.VIEW_COMPONENT_TIMELINE_INTERVALS;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.VIEW_ENDPOINT_INSTANCE_PROPERTIES;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.VIEW_WORKFLOWRUN_COMPONENTRUN;
-import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.VIEW_WORKFLOWRUN_DATAREFERENCE;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.VIEW_WORKFLOWRUN_TYPEDDATUM;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.WORKFLOW_FILE_REFERENCE;
 import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.WORKFLOW_RUN_ID;
@@ -76,6 +75,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -85,21 +85,25 @@ import de.rcenvironment.core.communication.common.NodeIdentifierUtils;
 import de.rcenvironment.core.datamanagement.DataManagementIdMapping;
 import de.rcenvironment.core.datamanagement.commons.BinaryReference;
 import de.rcenvironment.core.datamanagement.commons.ComponentInstance;
+import de.rcenvironment.core.datamanagement.commons.ComponentInstanceSummary;
 import de.rcenvironment.core.datamanagement.commons.ComponentRun;
 import de.rcenvironment.core.datamanagement.commons.ComponentRunInterval;
 import de.rcenvironment.core.datamanagement.commons.DataReference;
 import de.rcenvironment.core.datamanagement.commons.EndpointData;
 import de.rcenvironment.core.datamanagement.commons.EndpointInstance;
+import de.rcenvironment.core.datamanagement.commons.MetaDataBatch;
 import de.rcenvironment.core.datamanagement.commons.TimelineInterval;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRun;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRunDescription;
 import de.rcenvironment.core.datamodel.api.CompressionFormat;
+import de.rcenvironment.core.datamodel.api.DataModelConstants;
 import de.rcenvironment.core.datamodel.api.EndpointType;
 import de.rcenvironment.core.datamodel.api.FinalComponentRunState;
 import de.rcenvironment.core.datamodel.api.FinalComponentState;
 import de.rcenvironment.core.datamodel.api.FinalWorkflowState;
 import de.rcenvironment.core.datamodel.api.TimelineIntervalType;
 import de.rcenvironment.core.datamodel.api.TypedDatum;
+import de.rcenvironment.core.datamodel.api.TypedDatumSerializer;
 import de.rcenvironment.core.utils.common.StringUtils;
 
 /**
@@ -173,6 +177,101 @@ public class DerbyMetaDataBackendOperationsImpl {
 
     private static final String IN = " IN ";
 
+    private static final String UNION_ALL = " UNION ALL ";
+
+    private static final String GROUP_BY = " GROUP BY ";
+
+    private static final String OFFSET_FETCH_NEXT = " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY ";
+
+    private static final String COMPONENT_RUN_COUNT = "COMPONENT_RUN_COUNT";
+
+    private static final String REGULAR_RUN_COUNT = "REGULAR_RUN_COUNT";
+
+    // upper limit for the number of rows added to JDBC batches before executing them while applying a MetaDataBatch
+    private static final int MAX_PENDING_BATCH_ROWS = 1000;
+
+    // upper limit for the number of binary reference keys passed to a single query via an IN list
+    private static final int MAX_KEYS_PER_QUERY = 500;
+
+    private static final String SQL_INSERT_ENDPOINT_DATUM = INSERT_INTO + DB_PREFIX + TABLE_ENDPOINT_DATA + "("
+        + COMPONENT_RUN_ID + COMMA + TYPED_DATUM_ID + COMMA + ENDPOINT_INSTANCE_ID + COMMA + COUNTER + ")"
+        + VALUES + PLACEHOLDER_FOUR_VALUES;
+
+    private static final String SQL_INSERT_TYPED_DATUM = INSERT_INTO + DB_PREFIX + TABLE_TYPED_DATUM + "("
+        + TYPE + COMMA + STRING_PLACEHOLDER + ")"
+        + VALUES + PLACEHOLDER_TWO_VALUES;
+
+    private static final String SQL_UPDATE_COMPONENT_RUN_ENDTIME = UPDATE + DB_PREFIX + TABLE_TIMELINE_INTERVAL + SET + ENDTIME + EQUAL
+        + QMARK + WHERE + COMPONENT_RUN_ID + EQUAL + QMARK + AND + TYPE + EQUAL + QMARK;
+
+    private static final String SQL_UPDATE_COMPONENT_RUN_FINAL_STATE = UPDATE + DB_PREFIX + TABLE_COMPONENT_RUN + SET
+        + COMPONENT_RUN_FINAL_STATE + EQUAL + QMARK + WHERE + COMPONENT_RUN_ID + EQUAL + QMARK;
+
+    private static final String SQL_UPDATE_HISTORY_DATA_ITEM = UPDATE + DB_PREFIX + TABLE_COMPONENT_RUN + SET + HISTORY_DATA_ITEM + EQUAL
+        + QMARK + WHERE + COMPONENT_RUN_ID + EQUAL + QMARK;
+
+    /**
+     * The prepared statements used for applying a {@link MetaDataBatch}, along with the rows added to their JDBC batches. If the connection
+     * is a {@link PooledConnection}, the statements are taken from its statement cache, otherwise they are closed after the batch.
+     * 
+     * @author agent
+     */
+    private static final class BatchStatements implements AutoCloseable {
+
+        private final Connection connection;
+
+        // insertion ordered, so that the pending JDBC batches are executed in the order the statements were used first
+        private final Map<String, PreparedStatement> statements = new LinkedHashMap<>();
+
+        private int pendingRows;
+
+        BatchStatements(Connection connection) {
+            this.connection = connection;
+        }
+
+        PreparedStatement get(String sql, int autoGeneratedKeys) throws SQLException {
+            PreparedStatement stmt = statements.get(sql);
+            if (stmt == null) {
+                if (connection instanceof PooledConnection) {
+                    stmt = ((PooledConnection) connection).prepareCachedStatement(sql, autoGeneratedKeys);
+                } else {
+                    stmt = connection.prepareStatement(sql, autoGeneratedKeys);
+                }
+                statements.put(sql, stmt);
+            }
+            return stmt;
+        }
+
+        void addBatch(PreparedStatement stmt) throws SQLException {
+            stmt.addBatch();
+            pendingRows++;
+            if (pendingRows >= MAX_PENDING_BATCH_ROWS) {
+                executePendingBatches();
+            }
+        }
+
+        void executePendingBatches() throws SQLException {
+            if (pendingRows > 0) {
+                for (PreparedStatement stmt : statements.values()) {
+                    stmt.executeBatch();
+                }
+                pendingRows = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (PreparedStatement stmt : statements.values()) {
+                if (connection instanceof PooledConnection) {
+                    // discard rows left over by a failed batch, as the cached statement might be used again, e.g., on retrying
+                    stmt.clearBatch();
+                } else {
+                    stmt.close();
+                }
+            }
+        }
+    }
+
     /**
      * Adds a dataset to the workflow run table.
      * 
@@ -263,8 +362,9 @@ public class DerbyMetaDataBackendOperationsImpl {
                 stmt.setLong(1, relatedId);
                 stmt.setString(2, key);
                 stmt.setString(3, properties.get(key));
-                stmt.execute();
+                stmt.addBatch();
             }
+            stmt.executeBatch();
         }
     }
 
@@ -388,11 +488,8 @@ public class DerbyMetaDataBackendOperationsImpl {
     public Long addEndpointDatum(Long componentRunId, Long typedDatumId, Long endpointInstanceId, Integer count,
         Connection connection,
         boolean isRetry) throws SQLException {
-        String endpointSql = INSERT_INTO + DB_PREFIX + TABLE_ENDPOINT_DATA + "("
-            + COMPONENT_RUN_ID + COMMA + TYPED_DATUM_ID + COMMA + ENDPOINT_INSTANCE_ID + COMMA + COUNTER + ")"
-            + VALUES + PLACEHOLDER_FOUR_VALUES;
         Long endpointDataId;
-        try (PreparedStatement stmt = connection.prepareStatement(endpointSql, Statement.RETURN_GENERATED_KEYS)) {
+        try (PreparedStatement stmt = connection.prepareStatement(SQL_INSERT_ENDPOINT_DATUM, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setLong(1, componentRunId);
             stmt.setLong(2, typedDatumId);
             stmt.setLong(3, endpointInstanceId);
@@ -414,17 +511,8 @@ public class DerbyMetaDataBackendOperationsImpl {
      * @throws SQLException thrown on database SQL errors
      */
     public Long addTypedDatum(String dataType, String value, Connection connection, boolean isRetry) throws SQLException {
-        String sql = INSERT_INTO + DB_PREFIX + TABLE_TYPED_DATUM + "("
-            + TYPE + COMMA + STRING_PLACEHOLDER + ")"
-            + VALUES + PLACEHOLDER_TWO_VALUES;
-        String valueColumn;
-        if (value.length() <= MAX_VALUE_LENGTH) {
-            valueColumn = VALUE;
-        } else {
-            valueColumn = BIG_VALUE;
-        }
         Long id;
-        try (PreparedStatement stmt = connection.prepareStatement(StringUtils.format(sql, valueColumn), Statement.RETURN_GENERATED_KEYS)) {
+        try (PreparedStatement stmt = connection.prepareStatement(getSqlInsertTypedDatum(value), Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, dataType);
             stmt.setString(2, value);
             stmt.executeUpdate();
@@ -573,21 +661,42 @@ public class DerbyMetaDataBackendOperationsImpl {
      */
     public Map<Long, Set<String>> getDataReferenceBinaryKeys(Long workflowRunId, Connection connection, boolean isRetry)
         throws SQLException {
+        // the view VIEW_WORKFLOWRUN_DATAREFERENCE is not used here, as Derby materializes the union of all data references of all workflow
+        // runs then; instead, the data references related to the workflow run, its component instances and its component runs are joined
+        // with their binary references separately, so that all joins can be resolved via indexes
+        String joinBinaryRefs =
+            INNER_JOIN + DB_PREFIX + REL_DATAREFERENCE_BINARYREFERENCE + ON + REL_DATAREFERENCE_BINARYREFERENCE + DOT + DATA_REFERENCE_ID
+                + EQUAL + STRING_PLACEHOLDER + DOT + DATA_REFERENCE_ID
+                + INNER_JOIN + DB_PREFIX + TABLE_BINARY_REFERENCE + ON + TABLE_BINARY_REFERENCE + DOT + BINARY_REFERENCE_ID + EQUAL
+                + REL_DATAREFERENCE_BINARYREFERENCE + DOT + BINARY_REFERENCE_ID;
+        String selectBinaryRefs = SELECT + REL_DATAREFERENCE_BINARYREFERENCE + DOT + DATA_REFERENCE_ID + COMMA
+            + TABLE_BINARY_REFERENCE + DOT + BINARY_REFERENCE_KEY + FROM;
         String sqlBinaryRefs =
-            SELECT + VIEW_WORKFLOWRUN_DATAREFERENCE + DOT + DATA_REFERENCE_ID + COMMA + TABLE_BINARY_REFERENCE + DOT
-                + BINARY_REFERENCE_KEY + FROM + VIEW_WORKFLOWRUN_DATAREFERENCE + COMMA + DB_PREFIX + TABLE_BINARY_REFERENCE
-                + COMMA + REL_DATAREFERENCE_BINARYREFERENCE
-                + WHERE + TABLE_BINARY_REFERENCE + DOT + BINARY_REFERENCE_ID
-                + EQUAL + REL_DATAREFERENCE_BINARYREFERENCE + DOT + BINARY_REFERENCE_ID
-                + AND + REL_DATAREFERENCE_BINARYREFERENCE + DOT + DATA_REFERENCE_ID + EQUAL + VIEW_WORKFLOWRUN_DATAREFERENCE + DOT
-                + DATA_REFERENCE_ID + AND + VIEW_WORKFLOWRUN_DATAREFERENCE + DOT + WORKFLOW_RUN_ID + EQUAL + QMARK
-                + ORDER_BY + DATA_REFERENCE_ID;
+            selectBinaryRefs + DB_PREFIX + TABLE_COMPONENT_INSTANCE
+                + INNER_JOIN + DB_PREFIX + TABLE_COMPONENT_RUN + ON + TABLE_COMPONENT_RUN + DOT + COMPONENT_INSTANCE_ID + EQUAL
+                + TABLE_COMPONENT_INSTANCE + DOT + COMPONENT_INSTANCE_ID
+                + INNER_JOIN + DB_PREFIX + REL_COMPONENTRUN_DATAREFERENCE + ON + REL_COMPONENTRUN_DATAREFERENCE + DOT + COMPONENT_RUN_ID
+                + EQUAL + TABLE_COMPONENT_RUN + DOT + COMPONENT_RUN_ID
+                + StringUtils.format(joinBinaryRefs, REL_COMPONENTRUN_DATAREFERENCE)
+                + WHERE + TABLE_COMPONENT_INSTANCE + DOT + WORKFLOW_RUN_ID + EQUAL + QMARK
+                + UNION_ALL
+                + selectBinaryRefs + DB_PREFIX + TABLE_COMPONENT_INSTANCE
+                + INNER_JOIN + DB_PREFIX + REL_COMPONENTINSTANCE_DATAREFERENCE + ON + REL_COMPONENTINSTANCE_DATAREFERENCE + DOT
+                + COMPONENT_INSTANCE_ID + EQUAL + TABLE_COMPONENT_INSTANCE + DOT + COMPONENT_INSTANCE_ID
+                + StringUtils.format(joinBinaryRefs, REL_COMPONENTINSTANCE_DATAREFERENCE)
+                + WHERE + TABLE_COMPONENT_INSTANCE + DOT + WORKFLOW_RUN_ID + EQUAL + QMARK
+                + UNION_ALL
+                + selectBinaryRefs + DB_PREFIX + REL_WORKFLOWRUN_DATAREFERENCE
+                + StringUtils.format(joinBinaryRefs, REL_WORKFLOWRUN_DATAREFERENCE)
+                + WHERE + REL_WORKFLOWRUN_DATAREFERENCE + DOT + WORKFLOW_RUN_ID + EQUAL + QMARK;
 
         Map<Long, Set<String>> keys = new HashMap<>();
         try (PreparedStatement stmtBinaryRefs =
             connection.prepareStatement(sqlBinaryRefs, ResultSet.TYPE_FORWARD_ONLY,
                 ResultSet.CONCUR_READ_ONLY)) {
             stmtBinaryRefs.setLong(1, workflowRunId);
+            stmtBinaryRefs.setLong(2, workflowRunId);
+            stmtBinaryRefs.setLong(3, workflowRunId);
             ResultSet rs = stmtBinaryRefs.executeQuery();
             if (rs != null) {
                 while (rs.next()) {
@@ -602,6 +711,50 @@ public class DerbyMetaDataBackendOperationsImpl {
         return keys;
     }
 
+    /**
+     * Returns the {@link BinaryReference} keys out of the given ones that are also related to {@link DataReference}s other than the given
+     * ones. With content-addressed storage, equal contents of different data references share their binary; such binaries must be kept
+     * when the given data references are deleted.
+     * 
+     * @param dataReferenceKeys a map of data reference ids related to a set of binary keys, as returned by
+     *        {@link #getDataReferenceBinaryKeys(Long, Connection, boolean)}
+     * @param connection the connection to the meta data database
+     * @param isRetry true if retrying
+     * @return the set of binary keys still referenced by other data references
+     * @throws SQLException thrown on database SQL errors
+     */
+    public Set<String> getBinaryKeysReferencedElsewhere(Map<Long, Set<String>> dataReferenceKeys, Connection connection,
+        boolean isRetry) throws SQLException {
+        List<String> binaryKeys = new ArrayList<>();
+        for (Set<String> keySet : dataReferenceKeys.values()) {
+            binaryKeys.addAll(keySet);
+        }
+        Set<String> referencedElsewhere = new HashSet<>();
+        for (int start = 0; start < binaryKeys.size(); start += MAX_KEYS_PER_QUERY) {
+            List<String> chunk = binaryKeys.subList(start, Math.min(start + MAX_KEYS_PER_QUERY, binaryKeys.size()));
+            String sql = SELECT + REL_DATAREFERENCE_BINARYREFERENCE + DOT + DATA_REFERENCE_ID + COMMA
+                + TABLE_BINARY_REFERENCE + DOT + BINARY_REFERENCE_KEY
+                + FROM + DB_PREFIX + TABLE_BINARY_REFERENCE + INNER_JOIN + DB_PREFIX + REL_DATAREFERENCE_BINARYREFERENCE + ON
+                + REL_DATAREFERENCE_BINARYREFERENCE + DOT + BINARY_REFERENCE_ID + EQUAL + TABLE_BINARY_REFERENCE + DOT + BINARY_REFERENCE_ID
+                + WHERE + TABLE_BINARY_REFERENCE + DOT + BINARY_REFERENCE_KEY + IN
+                + StringUtils.format(BRACKET_STRING_PLACEHOLDER, createPlaceholderList(chunk.size()));
+            try (PreparedStatement stmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                int index = 1;
+                for (String key : chunk) {
+                    stmt.setString(index++, key);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        if (!dataReferenceKeys.containsKey(rs.getLong(DATA_REFERENCE_ID))) {
+                            referencedElsewhere.add(rs.getString(BINARY_REFERENCE_KEY).trim());
+                        }
+                    }
+                }
+            }
+        }
+        return referencedElsewhere;
+    }
+
     /**
      * Adds a id based relation between a {@link DataReference} and a {@link WorkflowRun} dataset to the corresponding relation table.
      * 
@@ -686,9 +839,9 @@ public class DerbyMetaDataBackendOperationsImpl {
             for (Long id : binaryReferenceIds) {
                 stmt.setLong(1, dataReferenceId);
                 stmt.setLong(2, id);
-                stmt.executeUpdate();
-                stmt.clearParameters();
+                stmt.addBatch();
             }
+            stmt.executeBatch();
         }
     }
 
@@ -832,7 +985,7 @@ public class DerbyMetaDataBackendOperationsImpl {
     /**
      * Deletes all corresponding datasets and the {@link DataReference} dataset itself of a given set of data reference keys. Corresponding
      * datasets are relations to {@link WorkflowRun}s, {@link ComponentInstance}s, {@link ComponentRun}s and {@link BinaryReference}s as
-     * well as the {@link BinaryReference} dataset.
+     * well as the {@link BinaryReference} datasets not related to any other data reference.
      * 
      * @param dataReferenceKeys the set of data reference keys
      * @param connection the connection to the meta data database
@@ -855,8 +1008,13 @@ public class DerbyMetaDataBackendOperationsImpl {
             DELETE_FROM + DB_PREFIX + REL_COMPONENTINSTANCE_DATAREFERENCE + WHERE + DATA_REFERENCE_ID + EQUAL + QMARK;
         String sqlRelWorkflowRunDataRef =
             DELETE_FROM + DB_PREFIX + REL_WORKFLOWRUN_DATAREFERENCE + WHERE + DATA_REFERENCE_ID + EQUAL + QMARK;
+        // binary reference datasets with the same key may belong to other data references if content-addressed storage is used
         String sqlBinaryRef =
-            DELETE_FROM + DB_PREFIX + TABLE_BINARY_REFERENCE + WHERE + BINARY_REFERENCE_KEY + EQUAL + QMARK;
+            DELETE_FROM + DB_PREFIX + TABLE_BINARY_REFERENCE + WHERE + BINARY_REFERENCE_KEY + EQUAL + QMARK
+                + AND + " NOT EXISTS " + StringUtils.format(BRACKET_STRING_PLACEHOLDER,
+                    SELECT + REL_DATAREFERENCE_BINARYREFERENCE + DOT + BINARY_REFERENCE_ID + FROM + DB_PREFIX
+                        + REL_DATAREFERENCE_BINARYREFERENCE + WHERE + REL_DATAREFERENCE_BINARYREFERENCE + DOT + BINARY_REFERENCE_ID
+                        + EQUAL + TABLE_BINARY_REFERENCE + DOT + BINARY_REFERENCE_ID);
         String sqlDataRef = DELETE_FROM + DB_PREFIX + TABLE_DATA_REFERENCE + WHERE + DATA_REFERENCE_ID + EQUAL + QMARK;
 
         try (PreparedStatement stmtRelBinaryDataRef =
@@ -1354,42 +1512,7 @@ public class DerbyMetaDataBackendOperationsImpl {
      * @throws SQLException thrown on database SQL errors
      */
     public WorkflowRun getWorkflowRun(Long workflowRunId, Connection connection, boolean isRetry) throws SQLException {
-        String sql =
-            SELECT + TABLE_WORKFLOW_RUN + DOT + WORKFLOW_RUN_ID + COMMA + TABLE_WORKFLOW_RUN + DOT + NAME + COMMA
-                + TABLE_WORKFLOW_RUN + DOT + CONTROLLER_NODE_ID + COMMA + TABLE_WORKFLOW_RUN + DOT + DATAMANAGEMENT_NODE_ID + COMMA
-                + TABLE_TIMELINE_INTERVAL + DOT + STARTTIME + COMMA + TABLE_TIMELINE_INTERVAL + DOT + ENDTIME + COMMA + TABLE_WORKFLOW_RUN
-                + DOT + FINAL_STATE + COMMA + TABLE_WORKFLOW_RUN + DOT + WORKFLOW_FILE_REFERENCE + FROM + DB_PREFIX
-                + TABLE_WORKFLOW_RUN + INNER_JOIN + DB_PREFIX + TABLE_TIMELINE_INTERVAL + ON
-                + TABLE_TIMELINE_INTERVAL + DOT + WORKFLOW_RUN_ID + EQUAL + TABLE_WORKFLOW_RUN + DOT + WORKFLOW_RUN_ID
-                + WHERE + TABLE_WORKFLOW_RUN + DOT + WORKFLOW_RUN_ID + EQUAL + QMARK + AND + TABLE_TIMELINE_INTERVAL + DOT + TYPE + EQUAL
-                + QMARK;
-
-        WorkflowRun workflowRun = null;
-        try (PreparedStatement stmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
-            stmt.setLong(1, workflowRunId);
-            stmt.setString(2, TimelineIntervalType.WORKFLOW_RUN.toString());
-            ResultSet rs = stmt.executeQuery();
-            if (rs != null && rs.next()) {
-                // end time might be NULL, avoid NPE
-                Long endtime = null;
-                if (rs.getTimestamp(ENDTIME) != null) {
-                    endtime = rs.getTimestamp(ENDTIME).getTime();
-                }
-                // final state might be NULL, avoid NPE
-                FinalWorkflowState finalState = null;
-                if (rs.getString(FINAL_STATE) != null) {
-                    finalState = FinalWorkflowState.valueOf(rs.getString(FINAL_STATE));
-                }
-                Long wfRunId = rs.getLong(WORKFLOW_RUN_ID);
-                String wfFileReference = rs.getString(WORKFLOW_FILE_REFERENCE);
-                workflowRun =
-                    new WorkflowRun(wfRunId, rs.getString(NAME), rs.getString(CONTROLLER_NODE_ID).trim(),
-                        rs.getString(DATAMANAGEMENT_NODE_ID).trim(), rs.getTimestamp(STARTTIME).getTime(),
-                        endtime, finalState, null, null, getProperties(TABLE_WORKFLOW_RUN_PROPERTIES, workflowRunId, connection, isRetry),
-                        wfFileReference);
-                rs.close();
-            }
-        }
+        WorkflowRun workflowRun = getWorkflowRunWithoutComponentRuns(workflowRunId, connection, isRetry);
         if (workflowRun == null) {
             return null;
         }
@@ -1499,6 +1622,259 @@ public class DerbyMetaDataBackendOperationsImpl {
         return workflowRun;
     }
 
+    /**
+     * Returns the {@link WorkflowRun} with the given id without its {@link ComponentRun}s; instead, the {@link ComponentInstance}s of the
+     * workflow run are summarized by {@link ComponentInstanceSummary}s. The component runs can be fetched page by page via
+     * {@link #getComponentRunPage(Long, Long, int, int, Connection, boolean)}.
+     * 
+     * @param workflowRunId the workflow run id
+     * @param connection the connection to the meta data database
+     * @param isRetry true if retrying
+     * @return the {@link WorkflowRun} without component runs, or null if there is no such workflow run
+     * @throws SQLException thrown on database SQL errors
+     */
+    public WorkflowRun getWorkflowRunOverview(Long workflowRunId, Connection connection, boolean isRetry) throws SQLException {
+        WorkflowRun workflowRun = getWorkflowRunWithoutComponentRuns(workflowRunId, connection, isRetry);
+        if (workflowRun == null) {
+            return null;
+        }
+        // the component runs are joined with their timeline intervals to count the same ones as VIEW_COMPONENT_RUNS contains
+        String sql = SELECT + TABLE_COMPONENT_INSTANCE + DOT + COMPONENT_INSTANCE_ID + COMMA + TABLE_COMPONENT_INSTANCE + DOT
+            + COMPONENT_ID + COMMA + TABLE_COMPONENT_INSTANCE + DOT + COMPONENT_INSTANCE_NAME + COMMA + TABLE_COMPONENT_INSTANCE + DOT
+            + FINAL_STATE + COMMA + "COUNT(*) AS " + COMPONENT_RUN_COUNT + COMMA
+            + "SUM(CASE WHEN " + TABLE_COMPONENT_RUN + DOT + COUNTER + " > ? THEN 1 ELSE 0 END) AS " + REGULAR_RUN_COUNT + COMMA
+            + "MIN(" + TABLE_COMPONENT_RUN + DOT + NODE_ID + ") AS " + NODE_ID
+            + FROM + DB_PREFIX + TABLE_COMPONENT_INSTANCE + INNER_JOIN + DB_PREFIX + TABLE_COMPONENT_RUN + ON
+            + TABLE_COMPONENT_RUN + DOT + COMPONENT_INSTANCE_ID + EQUAL + TABLE_COMPONENT_INSTANCE + DOT + COMPONENT_INSTANCE_ID
+            + INNER_JOIN + DB_PREFIX + TABLE_TIMELINE_INTERVAL + ON
+            + TABLE_TIMELINE_INTERVAL + DOT + COMPONENT_RUN_ID + EQUAL + TABLE_COMPONENT_RUN + DOT + COMPONENT_RUN_ID
+            + AND + TABLE_TIMELINE_INTERVAL + DOT + TYPE + EQUAL + QMARK
+            + WHERE + TABLE_COMPONENT_INSTANCE + DOT + WORKFLOW_RUN_ID + EQUAL + QMARK
+            + GROUP_BY + TABLE_COMPONENT_INSTANCE + DOT + COMPONENT_INSTANCE_ID + COMMA + TABLE_COMPONENT_INSTANCE + DOT + COMPONENT_ID
+            + COMMA + TABLE_COMPONENT_INSTANCE + DOT + COMPONENT_INSTANCE_NAME + COMMA + TABLE_COMPONENT_INSTANCE + DOT + FINAL_STATE
+            + ORDER_BY + TABLE_COMPONENT_INSTANCE + DOT + COMPONENT_INSTANCE_NAME;
+        List<ComponentInstanceSummary> summaries = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setInt(1, DataModelConstants.INIT_RUN);
+            stmt.setString(2, TimelineIntervalType.COMPONENT_RUN.toString());
+            stmt.setLong(3, workflowRunId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ComponentInstance ci = new ComponentInstance(rs.getString(COMPONENT_ID), rs.getString(COMPONENT_INSTANCE_NAME),
+                        rs.getString(FINAL_STATE));
+                    String nodeId = rs.getString(NODE_ID);
+                    if (nodeId != null) {
+                        nodeId = nodeId.trim();
+                    }
+                    summaries.add(new ComponentInstanceSummary(rs.getLong(COMPONENT_INSTANCE_ID), ci, rs.getInt(COMPONENT_RUN_COUNT),
+                        rs.getInt(REGULAR_RUN_COUNT), nodeId));
+                }
+            }
+        }
+        workflowRun.setComponentInstanceSummaries(summaries);
+        return workflowRun;
+    }
+
+    /**
+     * Returns a page of the {@link ComponentRun}s of a workflow run, including their endpoint data. The component runs are ordered by
+     * their start time, latest first.
+     * 
+     * @param workflowRunId the workflow run id
+     * @param componentInstanceId the id of the component instance to restrict the component runs to, or null for the component runs of
+     *        all component instances of the workflow run
+     * @param offset the number of component runs to skip
+     * @param limit the maximum number of component runs to return
+     * @param connection the connection to the meta data database
+     * @param isRetry true if retrying
+     * @return the component runs of the page; an empty list if the offset exceeds the number of component runs
+     * @throws SQLException thrown on database SQL errors
+     */
+    public List<ComponentRun> getComponentRunPage(Long workflowRunId, Long componentInstanceId, int offset, int limit,
+        Connection connection, boolean isRetry) throws SQLException {
+        String sql = SELECT + TABLE_COMPONENT_RUN + DOT + COMPONENT_RUN_ID + COMMA + TABLE_COMPONENT_RUN + DOT
+            + COMPONENT_INSTANCE_ID + COMMA + TABLE_COMPONENT_RUN + DOT + NODE_ID + COMMA + TABLE_COMPONENT_RUN
+            + DOT + COUNTER + COMMA + TABLE_TIMELINE_INTERVAL + DOT + STARTTIME + COMMA + TABLE_TIMELINE_INTERVAL
+            + DOT + ENDTIME + COMMA + TABLE_COMPONENT_RUN + DOT + HISTORY_DATA_ITEM + COMMA
+            + TABLE_COMPONENT_RUN + DOT + COMPONENT_RUN_FINAL_STATE + COMMA
+            + TABLE_COMPONENT_RUN + DOT + REFERENCES_DELETED
+            + FROM + DB_PREFIX + TABLE_TIMELINE_INTERVAL + INNER_JOIN + DB_PREFIX + TABLE_COMPONENT_RUN + ON
+            + TABLE_COMPONENT_RUN + DOT + COMPONENT_RUN_ID + EQUAL + TABLE_TIMELINE_INTERVAL + DOT + COMPONENT_RUN_ID
+            + WHERE + TABLE_TIMELINE_INTERVAL + DOT + WORKFLOW_RUN_ID + EQUAL + QMARK
+            + AND + TABLE_TIMELINE_INTERVAL + DOT + TYPE + EQUAL + QMARK;
+        if (componentInstanceId != null) {
+            sql += AND + TABLE_COMPONENT_RUN + DOT + COMPONENT_INSTANCE_ID + EQUAL + QMARK;
+        }
+        // the run id breaks ties between runs started at the same time, so that consecutive pages neither overlap nor miss runs
+        sql += ORDER_BY + TABLE_TIMELINE_INTERVAL + DOT + STARTTIME + DESCENDING + COMMA + TABLE_COMPONENT_RUN + DOT + COUNTER
+            + DESCENDING + COMMA + TABLE_COMPONENT_RUN + DOT + COMPONENT_RUN_ID + DESCENDING + OFFSET_FETCH_NEXT;
+
+        List<ComponentRun> results = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            int index = 1;
+            stmt.setLong(index++, workflowRunId);
+            stmt.setString(index++, TimelineIntervalType.COMPONENT_RUN.toString());
+            if (componentInstanceId != null) {
+                stmt.setLong(index++, componentInstanceId);
+            }
+            stmt.setInt(index++, offset);
+            stmt.setInt(index, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    // end time might be NULL, avoid NPE
+                    Long endtime = null;
+                    if (rs.getTimestamp(ENDTIME) != null) {
+                        endtime = rs.getTimestamp(ENDTIME).getTime();
+                    }
+                    FinalComponentRunState finalState = null;
+                    if (rs.getString(COMPONENT_RUN_FINAL_STATE) != null) {
+                        finalState = FinalComponentRunState.valueOf(rs.getString(COMPONENT_RUN_FINAL_STATE));
+                    }
+                    results.add(new ComponentRun(rs.getLong(COMPONENT_RUN_ID), rs.getLong(COMPONENT_INSTANCE_ID),
+                        rs.getString(NODE_ID).trim(), rs.getInt(COUNTER), rs.getTimestamp(STARTTIME).getTime(), endtime,
+                        rs.getString(HISTORY_DATA_ITEM), rs.getBoolean(REFERENCES_DELETED), new HashMap<String, String>(), finalState));
+                }
+            }
+        }
+        if (results.isEmpty()) {
+            return results;
+        }
+        Map<Long, ComponentRun> componentRuns = new HashMap<>();
+        for (ComponentRun componentRun : results) {
+            componentRuns.put(componentRun.getComponentRunID(), componentRun);
+        }
+        String componentRunIdPlaceholders = createPlaceholderList(results.size());
+
+        String sqlProperties = SELECT + COMPONENT_RUN_ID + COMMA + KEY + COMMA + VALUE + FROM + DB_PREFIX + TABLE_COMPONENT_RUN_PROPERTIES
+            + WHERE + COMPONENT_RUN_ID + IN + StringUtils.format(BRACKET_STRING_PLACEHOLDER, componentRunIdPlaceholders);
+        try (PreparedStatement stmt =
+            connection.prepareStatement(sqlProperties, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            setComponentRunIds(stmt, results);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    componentRuns.get(rs.getLong(COMPONENT_RUN_ID)).getMetaData().put(rs.getString(KEY), rs.getString(VALUE));
+                }
+            }
+        }
+
+        Map<Long, Map<String, String>> endpointProperties = new HashMap<>();
+        String sqlEndpointProperties =
+            SELECT + ENDPOINT_INSTANCE_ID + COMMA + KEY + COMMA + VALUE + FROM + DB_PREFIX + TABLE_ENDPOINT_INSTANCE_PROPERTIES
+                + WHERE + ENDPOINT_INSTANCE_ID + IN + BRACKET_STRING_PLACEHOLDER;
+        String sqlEndpointInstanceIds = SELECT + ENDPOINT_INSTANCE_ID + FROM + DB_PREFIX + TABLE_ENDPOINT_DATA + WHERE + COMPONENT_RUN_ID
+            + IN + StringUtils.format(BRACKET_STRING_PLACEHOLDER, componentRunIdPlaceholders);
+        try (PreparedStatement stmt = connection.prepareStatement(StringUtils.format(sqlEndpointProperties, sqlEndpointInstanceIds),
+            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            setComponentRunIds(stmt, results);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Long endpointInstanceId = rs.getLong(ENDPOINT_INSTANCE_ID);
+                    if (endpointProperties.get(endpointInstanceId) == null) {
+                        endpointProperties.put(endpointInstanceId, new HashMap<String, String>());
+                    }
+                    endpointProperties.get(endpointInstanceId).put(rs.getString(KEY), rs.getString(VALUE));
+                }
+            }
+        }
+
+        String sqlEndpointData =
+            SELECT + TABLE_ENDPOINT_DATA + DOT + COMPONENT_RUN_ID + COMMA
+                + TABLE_ENDPOINT_DATA + DOT + COUNTER + COMMA
+                + TABLE_ENDPOINT_INSTANCE + DOT + ENDPOINT_INSTANCE_ID + COMMA
+                + TABLE_ENDPOINT_INSTANCE + DOT + NAME + COMMA
+                + TABLE_ENDPOINT_INSTANCE + DOT + TYPE + " AS ENDPOINT_TYPE" + COMMA
+                + TABLE_TYPED_DATUM + DOT + VALUE + COMMA
+                + TABLE_TYPED_DATUM + DOT + BIG_VALUE
+                + FROM + TABLE_ENDPOINT_DATA + COMMA + TABLE_ENDPOINT_INSTANCE + COMMA + TABLE_TYPED_DATUM
+                + WHERE + TABLE_ENDPOINT_INSTANCE + DOT + ENDPOINT_INSTANCE_ID + EQUAL + TABLE_ENDPOINT_DATA + DOT + ENDPOINT_INSTANCE_ID
+                + AND + TABLE_TYPED_DATUM + DOT + TYPED_DATUM_ID + EQUAL + TABLE_ENDPOINT_DATA + DOT + TYPED_DATUM_ID
+                + AND + TABLE_ENDPOINT_DATA + DOT + COMPONENT_RUN_ID + IN
+                + StringUtils.format(BRACKET_STRING_PLACEHOLDER, componentRunIdPlaceholders);
+        Map<Long, Set<EndpointData>> endpointData = new HashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sqlEndpointData, ResultSet.TYPE_FORWARD_ONLY,
+            ResultSet.CONCUR_READ_ONLY)) {
+            setComponentRunIds(stmt, results);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String value = rs.getString(VALUE);
+                    if (value == null) {
+                        value = rs.getString(BIG_VALUE);
+                    }
+                    Long id = rs.getLong(COMPONENT_RUN_ID);
+                    if (endpointData.get(id) == null) {
+                        endpointData.put(id, new HashSet<EndpointData>());
+                    }
+                    Long endpointInstanceId = rs.getLong(ENDPOINT_INSTANCE_ID);
+                    endpointData.get(id).add(
+                        new EndpointData(new EndpointInstance(rs.getString(NAME), EndpointType.valueOf(rs.getString("ENDPOINT_TYPE")),
+                            endpointProperties.get(endpointInstanceId)), rs.getInt(COUNTER), value));
+                }
+            }
+        }
+        for (ComponentRun componentRun : results) {
+            componentRun.setEndpointData(endpointData.get(componentRun.getComponentRunID()));
+        }
+        return results;
+    }
+
+    private static String createPlaceholderList(int count) {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                placeholders.append(",");
+            }
+            placeholders.append("?");
+        }
+        return placeholders.toString();
+    }
+
+    private static void setComponentRunIds(PreparedStatement stmt, List<ComponentRun> componentRuns) throws SQLException {
+        int index = 1;
+        for (ComponentRun componentRun : componentRuns) {
+            stmt.setLong(index++, componentRun.getComponentRunID());
+        }
+    }
+
+    private WorkflowRun getWorkflowRunWithoutComponentRuns(Long workflowRunId, Connection connection, boolean isRetry)
+        throws SQLException {
+        String sql =
+            SELECT + TABLE_WORKFLOW_RUN + DOT + WORKFLOW_RUN_ID + COMMA + TABLE_WORKFLOW_RUN + DOT + NAME + COMMA
+                + TABLE_WORKFLOW_RUN + DOT + CONTROLLER_NODE_ID + COMMA + TABLE_WORKFLOW_RUN + DOT + DATAMANAGEMENT_NODE_ID + COMMA
+                + TABLE_TIMELINE_INTERVAL + DOT + STARTTIME + COMMA + TABLE_TIMELINE_INTERVAL + DOT + ENDTIME + COMMA + TABLE_WORKFLOW_RUN
+                + DOT + FINAL_STATE + COMMA + TABLE_WORKFLOW_RUN + DOT + WORKFLOW_FILE_REFERENCE + FROM + DB_PREFIX
+                + TABLE_WORKFLOW_RUN + INNER_JOIN + DB_PREFIX + TABLE_TIMELINE_INTERVAL + ON
+                + TABLE_TIMELINE_INTERVAL + DOT + WORKFLOW_RUN_ID + EQUAL + TABLE_WORKFLOW_RUN + DOT + WORKFLOW_RUN_ID
+                + WHERE + TABLE_WORKFLOW_RUN + DOT + WORKFLOW_RUN_ID + EQUAL + QMARK + AND + TABLE_TIMELINE_INTERVAL + DOT + TYPE + EQUAL
+                + QMARK;
+
+        WorkflowRun workflowRun = null;
+        try (PreparedStatement stmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setLong(1, workflowRunId);
+            stmt.setString(2, TimelineIntervalType.WORKFLOW_RUN.toString());
+            ResultSet rs = stmt.executeQuery();
+            if (rs != null && rs.next()) {
+                // end time might be NULL, avoid NPE
+                Long endtime = null;
+                if (rs.getTimestamp(ENDTIME) != null) {
+                    endtime = rs.getTimestamp(ENDTIME).getTime();
+                }
+                // final state might be NULL, avoid NPE
+                FinalWorkflowState finalState = null;
+                if (rs.getString(FINAL_STATE) != null) {
+                    finalState = FinalWorkflowState.valueOf(rs.getString(FINAL_STATE));
+                }
+                Long wfRunId = rs.getLong(WORKFLOW_RUN_ID);
+                String wfFileReference = rs.getString(WORKFLOW_FILE_REFERENCE);
+                workflowRun =
+                    new WorkflowRun(wfRunId, rs.getString(NAME), rs.getString(CONTROLLER_NODE_ID).trim(),
+                        rs.getString(DATAMANAGEMENT_NODE_ID).trim(), rs.getTimestamp(STARTTIME).getTime(),
+                        endtime, finalState, null, null, getProperties(TABLE_WORKFLOW_RUN_PROPERTIES, workflowRunId, connection, isRetry),
+                        wfFileReference);
+                rs.close();
+            }
+        }
+        return workflowRun;
+    }
+
     /**
      * Returns a set of {@link WorkflowRunDescription}s of all {@link WorkflowRun} datasets in the database.
      * 
@@ -1600,11 +1976,8 @@ public class DerbyMetaDataBackendOperationsImpl {
     public void setComponentRunFinished(Long componentRunId, Long endtime, FinalComponentRunState finalState, Connection connection,
         boolean isRetry)
         throws SQLException {
-        String sql = UPDATE + DB_PREFIX + TABLE_TIMELINE_INTERVAL + SET + ENDTIME + EQUAL + QMARK
-            + WHERE + COMPONENT_RUN_ID + EQUAL + QMARK + AND + TYPE + EQUAL + QMARK;
-        String sql2 = UPDATE + DB_PREFIX + TABLE_COMPONENT_RUN + SET + COMPONENT_RUN_FINAL_STATE + EQUAL + QMARK
-            + WHERE + COMPONENT_RUN_ID + EQUAL + QMARK;
-        try (PreparedStatement stmt = connection.prepareStatement(sql); PreparedStatement stmt2 = connection.prepareStatement(sql2);) {
+        try (PreparedStatement stmt = connection.prepareStatement(SQL_UPDATE_COMPONENT_RUN_ENDTIME);
+            PreparedStatement stmt2 = connection.prepareStatement(SQL_UPDATE_COMPONENT_RUN_FINAL_STATE);) {
             stmt.setTimestamp(1, new Timestamp(endtime));
             stmt.setLong(2, componentRunId);
             stmt.setString(3, TimelineIntervalType.COMPONENT_RUN.toString());
@@ -1717,15 +2090,92 @@ public class DerbyMetaDataBackendOperationsImpl {
      */
     public void setOrUpdateHistoryDataItem(Long componentRunId, String historyDataItem, Connection connection, boolean isRetry)
         throws SQLException {
-        String sql = UPDATE + DB_PREFIX + TABLE_COMPONENT_RUN + SET + HISTORY_DATA_ITEM + EQUAL + QMARK
-            + WHERE + COMPONENT_RUN_ID + EQUAL + QMARK;
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (PreparedStatement stmt = connection.prepareStatement(SQL_UPDATE_HISTORY_DATA_ITEM)) {
             stmt.setString(1, historyDataItem);
             stmt.setLong(2, componentRunId);
             stmt.executeUpdate();
         }
     }
 
+    /**
+     * Applies the operations of a {@link MetaDataBatch} in their order. Rows that are not read back are written via JDBC batches, i.e.
+     * endpoint data and updates of component runs; typed datums are inserted one by one as their generated identifiers are needed. Each
+     * statement is prepared only once per connection.
+     * 
+     * @param batch the batch to apply
+     * @param typedDatumSerializer the serializer used to determine the data type of output datums
+     * @param connection the connection to the meta data database
+     * @param isRetry true if retrying
+     * @return the identifiers of the typed datums added by output datum operations, and null for all other operations
+     * @throws SQLException thrown on database SQL errors
+     */
+    public List<Long> executeBatch(MetaDataBatch batch, TypedDatumSerializer typedDatumSerializer, Connection connection,
+        boolean isRetry) throws SQLException {
+        List<Long> generatedIds = new ArrayList<>(batch.size());
+        try (BatchStatements statements = new BatchStatements(connection)) {
+            for (MetaDataBatch.Operation operation : batch.getOperations()) {
+                Long generatedId = null;
+                switch (operation.getType()) {
+                case ADD_INPUT_DATUM:
+                    addEndpointDatumToBatch(operation.getComponentRunId(), operation.getTypedDatumId(), operation.getEndpointInstanceId(),
+                        operation.getCount(), statements);
+                    break;
+                case ADD_OUTPUT_DATUM:
+                    String dataType = typedDatumSerializer.deserialize(operation.getDatum()).getDataType().getShortName();
+                    PreparedStatement typedDatumStmt = statements.get(getSqlInsertTypedDatum(operation.getDatum()),
+                        Statement.RETURN_GENERATED_KEYS);
+                    typedDatumStmt.setString(1, dataType);
+                    typedDatumStmt.setString(2, operation.getDatum());
+                    typedDatumStmt.executeUpdate();
+                    generatedId = getGeneratedKey(typedDatumStmt);
+                    addEndpointDatumToBatch(operation.getComponentRunId(), generatedId, operation.getEndpointInstanceId(),
+                        operation.getCount(), statements);
+                    break;
+                case SET_OR_UPDATE_HISTORY_DATA_ITEM:
+                    PreparedStatement historyStmt = statements.get(SQL_UPDATE_HISTORY_DATA_ITEM, Statement.NO_GENERATED_KEYS);
+                    historyStmt.setString(1, operation.getHistoryDataItem());
+                    historyStmt.setLong(2, operation.getComponentRunId());
+                    statements.addBatch(historyStmt);
+                    break;
+                case SET_COMPONENT_RUN_FINISHED:
+                    PreparedStatement endtimeStmt = statements.get(SQL_UPDATE_COMPONENT_RUN_ENDTIME, Statement.NO_GENERATED_KEYS);
+                    endtimeStmt.setTimestamp(1, new Timestamp(operation.getEndtime()));
+                    endtimeStmt.setLong(2, operation.getComponentRunId());
+                    endtimeStmt.setString(3, TimelineIntervalType.COMPONENT_RUN.toString());
+                    statements.addBatch(endtimeStmt);
+                    PreparedStatement finalStateStmt = statements.get(SQL_UPDATE_COMPONENT_RUN_FINAL_STATE, Statement.NO_GENERATED_KEYS);
+                    finalStateStmt.setString(1, operation.getFinalState().toString());
+                    finalStateStmt.setLong(2, operation.getComponentRunId());
+                    statements.addBatch(finalStateStmt);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported meta data operation: " + operation.getType());
+                }
+                generatedIds.add(generatedId);
+            }
+            statements.executePendingBatches();
+        }
+        return generatedIds;
+    }
+
+    private static void addEndpointDatumToBatch(Long componentRunId, Long typedDatumId, Long endpointInstanceId, Integer count,
+        BatchStatements statements) throws SQLException {
+        PreparedStatement stmt = statements.get(SQL_INSERT_ENDPOINT_DATUM, Statement.NO_GENERATED_KEYS);
+        stmt.setLong(1, componentRunId);
+        stmt.setLong(2, typedDatumId);
+        stmt.setLong(3, endpointInstanceId);
+        stmt.setInt(4, count);
+        statements.addBatch(stmt);
+    }
+
+    private static String getSqlInsertTypedDatum(String value) {
+        if (value.length() <= MAX_VALUE_LENGTH) {
+            return StringUtils.format(SQL_INSERT_TYPED_DATUM, VALUE);
+        } else {
+            return StringUtils.format(SQL_INSERT_TYPED_DATUM, BIG_VALUE);
+        }
+    }
+
     /**
      * Updates the {@link FinalWorkflowState} of the {@link WorkflowRun} dataset to the status corrupted if the current dataset has no
      * {@link FinalWorkflowState}.
@@ -30,6 +30,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.commons.dbcp.datasources.SharedPoolDataSource;
 import org.apache.commons.logging.Log;
@@ -41,6 +42,7 @@ import de.rcenvironment.core.configuration.ConfigurationService;
 import de.rcenvironment.core.configuration.ConfigurationService.ConfigurablePathId;
 import de.rcenvironment.core.configuration.bootstrap.RuntimeDetection;
 import de.rcenvironment.core.datamanagement.FileDataService;
+import de.rcenvironment.core.datamanagement.backend.ContentAddressedStorageLock;
 import de.rcenvironment.core.datamanagement.backend.MetaDataBackendService;
 import de.rcenvironment.core.datamanagement.commons.BinaryReference;
 import de.rcenvironment.core.datamanagement.commons.ComponentInstance;
@@ -49,6 +51,7 @@ import de.rcenvironment.core.datamanagement.commons.ComponentRunInterval;
 import de.rcenvironment.core.datamanagement.commons.DataReference;
 import de.rcenvironment.core.datamanagement.commons.EndpointData;
 import de.rcenvironment.core.datamanagement.commons.EndpointInstance;
+import de.rcenvironment.core.datamanagement.commons.MetaDataBatch;
 import de.rcenvironment.core.datamanagement.commons.TimelineInterval;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRun;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRunDescription;
@@ -127,6 +130,11 @@ public class DerbyMetaDataBackendServiceImpl implements MetaDataBackendService {
 
     private boolean startedSuccessfully = false;
 
+    // guards the start-up query check against shutting down the database while it is running
+    private final Object queryCheckLock = new Object();
+
+    private boolean shutDownRequested = false;
+
     private String errorMessage = null;
 
     protected void activate(BundleContext context) throws IOException {
@@ -460,6 +468,20 @@ public class DerbyMetaDataBackendServiceImpl implements MetaDataBackendService {
         execution.call();
     }
 
+    @Override
+    @AllowRemoteAccess
+    public List<Long> executeBatch(final MetaDataBatch batch) {
+        // all operations are applied in a single transaction, so that a failed batch can safely be retried operation by operation
+        final SafeExecution<List<Long>> execution = new SafeExecution<List<Long>>() {
+
+            @Override
+            protected List<Long> protectedCall(final Connection connection, final boolean isRetry) throws SQLException {
+                return metaDataBackendOperations.executeBatch(batch, typedDatumSerializer, connection, isRetry);
+            }
+        };
+        return execution.call();
+    }
+
     @Override
     @AllowRemoteAccess
     public Set<WorkflowRunDescription> getWorkflowRunDescriptions() {
@@ -489,6 +511,36 @@ public class DerbyMetaDataBackendServiceImpl implements MetaDataBackendService {
         return execution.call();
     }
 
+    @Override
+    @AllowRemoteAccess
+    public WorkflowRun getWorkflowRunOverview(final Long workflowRunId) {
+        final SafeExecution<WorkflowRun> execution = new SafeExecution<WorkflowRun>() {
+
+            @Override
+            protected WorkflowRun protectedCall(final Connection connection, final boolean isRetry) throws SQLException {
+                connection.setReadOnly(true);
+                return metaDataBackendOperations.getWorkflowRunOverview(workflowRunId, connection, isRetry);
+            }
+        };
+        return execution.call();
+    }
+
+    @Override
+    @AllowRemoteAccess
+    public List<ComponentRun> getComponentRunPage(final Long workflowRunId, final Long componentInstanceId, final int offset,
+        final int limit) {
+        final SafeExecution<List<ComponentRun>> execution = new SafeExecution<List<ComponentRun>>() {
+
+            @Override
+            protected List<ComponentRun> protectedCall(final Connection connection, final boolean isRetry) throws SQLException {
+                connection.setReadOnly(true);
+                return metaDataBackendOperations.getComponentRunPage(workflowRunId, componentInstanceId, offset, limit, connection,
+                    isRetry);
+            }
+        };
+        return execution.call();
+    }
+
     @Override
     public Collection<ComponentRun> getComponentRuns(final Long componentInstanceId) {
         final SafeExecution<Collection<ComponentRun>> execution = new SafeExecution<Collection<ComponentRun>>() {
@@ -687,7 +739,7 @@ public class DerbyMetaDataBackendServiceImpl implements MetaDataBackendService {
         final Map<Long, Set<String>> dataKeys = execution.call();
         if (dataKeys != null) {
             try {
-                deleteFiles(dataKeys.values());
+                deleteFiles(dataKeys);
             } catch (RemoteOperationException e) {
                 throw new RuntimeException("Failed to delete files. ", e);
             }
@@ -733,7 +785,7 @@ public class DerbyMetaDataBackendServiceImpl implements MetaDataBackendService {
         final Map<Long, Set<String>> dataKeys = execution.call();
         if (dataKeys != null) {
             try {
-                deleteFiles(dataKeys.values());
+                deleteFiles(dataKeys);
             } catch (RemoteOperationException e) {
                 throw new RuntimeException("Failed to delete files. ", e);
             }
@@ -761,11 +813,31 @@ public class DerbyMetaDataBackendServiceImpl implements MetaDataBackendService {
         }
     }
 
-    private void deleteFiles(Collection<Set<String>> binaryKeys) throws RemoteOperationException {
-        for (final Set<String> keySet : binaryKeys) {
-            for (final String key : keySet) {
-                dataService.deleteReference(key);
+    private void deleteFiles(final Map<Long, Set<String>> dataKeys) throws RemoteOperationException {
+        // with content-addressed storage, binaries may be shared with data references of other workflow runs; these are kept
+        final SafeExecution<Set<String>> execution = new SafeExecution<Set<String>>() {
+
+            @Override
+            protected Set<String> protectedCall(final Connection connection, final boolean isRetry) throws SQLException {
+                connection.setReadOnly(true);
+                return metaDataBackendOperations.getBinaryKeysReferencedElsewhere(dataKeys, connection, isRetry);
             }
+        };
+        // prevent binaries from being reused for new data references between the check and their deletion
+        final Lock lock = ContentAddressedStorageLock.forDeletingBinaries();
+        lock.lock();
+        try {
+            final Set<String> referencedElsewhere = execution.call();
+            final Set<String> deletedKeys = new HashSet<>();
+            for (final Set<String> keySet : dataKeys.values()) {
+                for (final String key : keySet) {
+                    if (!referencedElsewhere.contains(key) && deletedKeys.add(key)) {
+                        dataService.deleteReference(key);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -940,6 +1012,9 @@ public class DerbyMetaDataBackendServiceImpl implements MetaDataBackendService {
         }
         initializeDatabase();
         initializationLatch.countDown();
+        if (startedSuccessfully) {
+            checkQueryPerformance();
+        }
     }
 
     private void initializeDatabase() {
@@ -977,6 +1052,34 @@ public class DerbyMetaDataBackendServiceImpl implements MetaDataBackendService {
         }
     }
 
+    private void checkQueryPerformance() {
+        synchronized (queryCheckLock) {
+            if (shutDownRequested) {
+                return;
+            }
+            Connection connection = null;
+            try {
+                connection = connectionPool.getConnection();
+                int slowQueries = DerbyQueryDiagnostics.checkQueryPerformance(connection, metaDataBackendOperations);
+                if (slowQueries == 0) {
+                    LOGGER.debug("Checked meta data query performance; no slow queries detected");
+                }
+            } catch (SQLException | RuntimeException e) {
+                // the check is for diagnostic purposes only, so do not affect the start-up
+                LOGGER.warn("Failed to check meta data query performance: " + e.getMessage());
+            } finally {
+                if (connection != null) {
+                    try {
+                        connection.rollback();
+                        connection.close();
+                    } catch (SQLException e) {
+                        LOGGER.error("Failed to close connection:", e);
+                    }
+                }
+            }
+        }
+    }
+
     private void createConnectionPool() {
         connectionPoolDatasource = new EmbeddedConnectionPoolDataSource();
         connectionPoolDatasource.setDatabaseName(configuration.getDatabaseURL());
@@ -992,6 +1095,9 @@ public class DerbyMetaDataBackendServiceImpl implements MetaDataBackendService {
     }
 
     private void shutDown() {
+        synchronized (queryCheckLock) {
+            shutDownRequested = true;
+        }
         if (connectionPool != null) {
             /*
              * Catching Exception is not allowed due to CheckStyle, thus this quirky Executor-construction is used to shut down the
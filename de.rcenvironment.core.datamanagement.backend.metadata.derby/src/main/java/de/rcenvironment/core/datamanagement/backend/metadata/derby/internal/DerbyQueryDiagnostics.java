@@ -0,0 +1,163 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamanagement.backend.metadata.derby.internal;
+
+import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.TABLE_WORKFLOW_RUN;
+import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.TO_BE_DELETED;
+import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.VIEW_WORKFLOWRUN_TYPEDDATUM;
+import static de.rcenvironment.core.datamanagement.commons.MetaDataConstants.WORKFLOW_RUN_ID;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import de.rcenvironment.core.toolkitbridge.transitional.StatsCounter;
+import de.rcenvironment.core.utils.common.StringUtils;
+
+/**
+ * Start-up diagnostic of the meta data db: Executes the read-only queries used to browse and delete workflow runs for the most recent
+ * workflow run, and reports the ones exceeding a duration threshold. As these queries join several tables, they slow down noticeably with
+ * the number of stored workflow runs if Derby does not resolve them via indexes; thus, the query plan Derby chose is reported as well if
+ * debug logging is enabled.
+ * 
+ * Each query is executed once before being measured, so that the compilation of its statements is not taken into account. The queries
+ * read uncommitted data, so that they do not take any locks that might interfere with the workflow run deletions resumed on start-up.
+ * 
+ * @author agent
+ */
+final class DerbyQueryDiagnostics {
+
+    private static final long SLOW_QUERY_THRESHOLD_MSEC = 2000;
+
+    private static final String STATS_COUNTER_CATEGORY = "Metadata Backend: start-up query check duration (msec)";
+
+    private static final String TABLE_SCAN = "Table Scan";
+
+    private static final int NOT_MARKED_TO_BE_DELETED = 0;
+
+    private static final Log LOGGER = LogFactory.getLog(DerbyQueryDiagnostics.class);
+
+    /**
+     * A query to check, executed for a given workflow run.
+     * 
+     * @author agent
+     */
+    private interface DiagnosticQuery {
+
+        void execute(Connection connection, Long workflowRunId) throws SQLException;
+    }
+
+    private DerbyQueryDiagnostics() {}
+
+    /**
+     * Executes the queries to check and reports slow ones. Nothing is written to the database.
+     * 
+     * @param connection the connection to the meta data database
+     * @param operations the operations to check
+     * @return the number of queries exceeding the duration threshold
+     * @throws SQLException thrown on database SQL errors
+     */
+    static int checkQueryPerformance(Connection connection, DerbyMetaDataBackendOperationsImpl operations) throws SQLException {
+        final int transactionIsolation = connection.getTransactionIsolation();
+        connection.setTransactionIsolation(Connection.TRANSACTION_READ_UNCOMMITTED);
+        setRuntimeStatistics(connection, true);
+        try {
+            final Long workflowRunId = getLatestWorkflowRunId(connection);
+            if (workflowRunId == null) {
+                // nothing to check in an empty database
+                return 0;
+            }
+            int slowQueries = 0;
+            slowQueries += checkQuery("getWorkflowRunDescriptions", connection, workflowRunId,
+                (c, id) -> operations.getWorkflowRunDescriptions(c, false));
+            slowQueries += checkQuery("getWorkflowRun", connection, workflowRunId,
+                (c, id) -> operations.getWorkflowRun(id, c, false));
+            slowQueries += checkQuery("getWorkflowRunOverview", connection, workflowRunId,
+                (c, id) -> operations.getWorkflowRunOverview(id, c, false));
+            slowQueries += checkQuery("getComponentRunIntervals", connection, workflowRunId,
+                (c, id) -> operations.getComponentRunIntervals(id, c, false));
+            slowQueries += checkQuery("getDataReferenceBinaryKeys", connection, workflowRunId,
+                (c, id) -> operations.getDataReferenceBinaryKeys(id, c, false));
+            // the lookup of the typed datums of a workflow run is the most expensive one of its deletion
+            slowQueries += checkQuery("deleteTypedDatums (lookup)", connection, workflowRunId,
+                DerbyQueryDiagnostics::countTypedDatums);
+            return slowQueries;
+        } finally {
+            setRuntimeStatistics(connection, false);
+            connection.setTransactionIsolation(transactionIsolation);
+        }
+    }
+
+    private static int checkQuery(String name, Connection connection, Long workflowRunId, DiagnosticQuery query) throws SQLException {
+        query.execute(connection, workflowRunId);
+        final long startTime = System.currentTimeMillis();
+        query.execute(connection, workflowRunId);
+        final long duration = System.currentTimeMillis() - startTime;
+        StatsCounter.registerValue(STATS_COUNTER_CATEGORY, name, duration);
+        if (duration <= SLOW_QUERY_THRESHOLD_MSEC) {
+            return 0;
+        }
+        // note: Derby only provides the statistics of the statement executed last by the connection
+        final String queryPlan = getRuntimeStatistics(connection);
+        LOGGER.warn(StringUtils.format("Meta data query '%s' took %d msec for workflow run id %d%s; browsing and deleting workflow runs "
+            + "is likely to be slow", name, duration, workflowRunId,
+            queryPlan != null && queryPlan.contains(TABLE_SCAN) ? " (including table scans)" : ""));
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(StringUtils.format("Query plan of meta data query '%s': %s", name, queryPlan));
+        }
+        return 1;
+    }
+
+    private static Long getLatestWorkflowRunId(Connection connection) throws SQLException {
+        final String sql = "SELECT MAX(" + WORKFLOW_RUN_ID + ") FROM " + TABLE_WORKFLOW_RUN + " WHERE " + TO_BE_DELETED + " = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, NOT_MARKED_TO_BE_DELETED);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    final long workflowRunId = rs.getLong(1);
+                    if (!rs.wasNull()) {
+                        return workflowRunId;
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    private static void countTypedDatums(Connection connection, Long workflowRunId) throws SQLException {
+        final String sql = "SELECT COUNT(*) FROM " + VIEW_WORKFLOWRUN_TYPEDDATUM + " WHERE " + WORKFLOW_RUN_ID + " = ?";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setLong(1, workflowRunId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+            }
+        }
+    }
+
+    private static void setRuntimeStatistics(Connection connection, boolean enabled) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(StringUtils.format("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(%d)", enabled ? 1 : 0));
+        }
+    }
+
+    private static String getRuntimeStatistics(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+            ResultSet rs = stmt.executeQuery("VALUES SYSCS_UTIL.SYSCS_GET_RUNTIMESTATISTICS()")) {
+            if (rs.next()) {
+                return rs.getString(1);
+            }
+            return null;
+        }
+    }
+}
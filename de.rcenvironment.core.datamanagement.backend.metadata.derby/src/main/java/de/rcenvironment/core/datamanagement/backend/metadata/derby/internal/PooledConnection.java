@@ -9,6 +9,8 @@
 package de.rcenvironment.core.datamanagement.backend.metadata.derby.internal;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 
 /**
  * A pooled Connection.
@@ -20,4 +22,16 @@ interface PooledConnection extends Connection {
     void increment();
 
     void decrement();
+
+    /**
+     * Returns a {@link PreparedStatement} for the given SQL statement that is cached for the lifetime of this connection, so that
+     * repeatedly executed statements are prepared only once. The returned statement must not be closed by the caller; it is closed along
+     * with this connection.
+     * 
+     * @param sql the SQL statement
+     * @param autoGeneratedKeys whether auto-generated keys should be returned, see {@link Connection#prepareStatement(String, int)}
+     * @return the cached {@link PreparedStatement}
+     * @throws SQLException if preparing the statement failed
+     */
+    PreparedStatement prepareCachedStatement(String sql, int autoGeneratedKeys) throws SQLException;
 }
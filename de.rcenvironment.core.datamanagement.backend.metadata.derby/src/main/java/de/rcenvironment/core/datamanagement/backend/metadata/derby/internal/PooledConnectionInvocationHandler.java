@@ -12,7 +12,10 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 
 import de.rcenvironment.core.utils.common.StringUtils;
 
@@ -25,6 +28,8 @@ final class PooledConnectionInvocationHandler implements InvocationHandler {
 
     private final Connection connection;
 
+    private final Map<String, PreparedStatement> cachedStatements = new HashMap<>();
+
     private int count = 0;
 
     PooledConnectionInvocationHandler(final Connection connection) {
@@ -32,9 +37,11 @@ final class PooledConnectionInvocationHandler implements InvocationHandler {
     }
 
     @Override
-    public Object invoke(final Object proxy, final Method method, final Object[] args) {
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws SQLException {
         boolean execute = true;
-        if (method.getName().equals("increment")) {
+        if (method.getName().equals("prepareCachedStatement")) {
+            return prepareCachedStatement((String) args[0], (Integer) args[1]);
+        } else if (method.getName().equals("increment")) {
             count++;
             execute = false;
         } else if (method.getName().equals("decrement")) {
@@ -47,6 +54,7 @@ final class PooledConnectionInvocationHandler implements InvocationHandler {
             }
         }
         if (count == 0) {
+            closeCachedStatements();
             try {
                 if (!connection.isClosed()) {
                     connection.close();
@@ -64,4 +72,26 @@ final class PooledConnectionInvocationHandler implements InvocationHandler {
         }
         return null;
     }
+
+    private PreparedStatement prepareCachedStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
+        final String cacheKey = autoGeneratedKeys + sql;
+        PreparedStatement statement = cachedStatements.get(cacheKey);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql, autoGeneratedKeys);
+            cachedStatements.put(cacheKey, statement);
+        }
+        return statement;
+    }
+
+    private void closeCachedStatements() {
+        for (PreparedStatement statement : cachedStatements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                // ignore, as closing the connection releases the statement anyway
+                e = null;
+            }
+        }
+        cachedStatements.clear();
+    }
 }
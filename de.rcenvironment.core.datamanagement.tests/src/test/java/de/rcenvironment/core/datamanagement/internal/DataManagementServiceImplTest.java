@@ -9,18 +9,33 @@
 package de.rcenvironment.core.datamanagement.internal;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.easymock.EasyMock;
 import org.junit.After;
 import org.junit.BeforeClass;
-
+import org.junit.Test;
+
+import de.rcenvironment.core.communication.common.LogicalNodeId;
+import de.rcenvironment.core.communication.common.NodeIdentifierTestUtils;
+import de.rcenvironment.core.datamanagement.DataReferenceService;
+import de.rcenvironment.core.datamanagement.FileDataService;
+import de.rcenvironment.core.datamanagement.commons.DataReference;
+import de.rcenvironment.core.datamanagement.commons.MetaDataSet;
 import de.rcenvironment.core.utils.common.TempFileService;
 import de.rcenvironment.core.utils.common.TempFileServiceAccess;
 
@@ -56,6 +71,74 @@ public class DataManagementServiceImplTest {
         }
     }
 
+    /**
+     * Tests that a directory is archived into the upload stream, stored as it is, and expanded from the download stream.
+     * 
+     * @throws Exception on unexpected errors
+     */
+    @Test
+    public void testDirectoryRoundTrip() throws Exception {
+        File rootDir = tempFileService.createManagedTempDir();
+        tempFiles.add(rootDir);
+        File dir = createDirAndBunchOfFiles(rootDir, 5);
+        FileUtils.writeStringToFile(new File(dir, "content"), "some content");
+
+        AtomicReference<byte[]> storedData = new AtomicReference<>();
+        DataManagementServiceImpl service = createServiceStoringDataIn(storedData);
+        LogicalNodeId nodeId = NodeIdentifierTestUtils.createTestDefaultLogicalNodeId();
+        String reference = service.createReferenceFromLocalDirectory(rootDir, new MetaDataSet(), nodeId);
+
+        File targetDir = tempFileService.createManagedTempDir();
+        tempFiles.add(targetDir);
+        service.copyReferenceToLocalDirectory(reference, targetDir, nodeId);
+        compareDirectories(rootDir, new File(targetDir, rootDir.getName()));
+    }
+
+    /**
+     * Tests that no reference is created if the directory cannot be archived.
+     * 
+     * @throws Exception on unexpected errors
+     */
+    @Test
+    public void testArchivingFailure() throws Exception {
+        File missingDir = new File(tempFileService.createManagedTempDir(), "missing");
+        tempFiles.add(missingDir.getParentFile());
+
+        AtomicReference<byte[]> storedData = new AtomicReference<>();
+        DataManagementServiceImpl service = createServiceStoringDataIn(storedData);
+        try {
+            service.createReferenceFromLocalDirectory(missingDir, new MetaDataSet(),
+                NodeIdentifierTestUtils.createTestDefaultLogicalNodeId());
+            fail("Exception expected");
+        } catch (IOException e) {
+            assertNull(storedData.get());
+        }
+    }
+
+    private DataManagementServiceImpl createServiceStoringDataIn(final AtomicReference<byte[]> storedData) throws Exception {
+        final DataReference dataReference =
+            new DataReference("reference", NodeIdentifierTestUtils.createTestDefaultLogicalNodeId(), new HashSet<>());
+        FileDataService fileDataService = EasyMock.createMock(FileDataService.class);
+        EasyMock.expect(fileDataService.newReferenceFromStream(EasyMock.anyObject(InputStream.class),
+            EasyMock.anyObject(MetaDataSet.class), EasyMock.anyObject(LogicalNodeId.class), EasyMock.eq(true))).andAnswer(() -> {
+                // read the complete stream, as the remote data management does
+                byte[] data = IOUtils.toByteArray((InputStream) EasyMock.getCurrentArguments()[0]);
+                storedData.set(data);
+                return dataReference;
+            }).anyTimes();
+        EasyMock.expect(fileDataService.getStreamFromDataReference(dataReference))
+            .andAnswer(() -> new ByteArrayInputStream(storedData.get())).anyTimes();
+        DataReferenceService dataReferenceService = EasyMock.createMock(DataReferenceService.class);
+        EasyMock.expect(dataReferenceService.getReference(EasyMock.eq(dataReference.getDataReferenceKey()),
+            EasyMock.anyObject(LogicalNodeId.class))).andReturn(dataReference).anyTimes();
+        EasyMock.replay(fileDataService, dataReferenceService);
+
+        DataManagementServiceImpl service = new DataManagementServiceImpl();
+        service.bindFileDataService(fileDataService);
+        service.bindDataReferenceService(dataReferenceService);
+        return service;
+    }
+
     private void compareDirectories(File rootDir, File targetRootDir) throws IOException {
         assertEquals(rootDir.getName(), targetRootDir.getName());
 
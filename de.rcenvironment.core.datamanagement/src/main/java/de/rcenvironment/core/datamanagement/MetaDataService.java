@@ -8,15 +8,18 @@
 
 package de.rcenvironment.core.datamanagement;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import de.rcenvironment.core.communication.common.CommunicationException;
 import de.rcenvironment.core.communication.common.NetworkDestination;
 import de.rcenvironment.core.datamanagement.commons.ComponentInstance;
+import de.rcenvironment.core.datamanagement.commons.ComponentInstanceSummary;
 import de.rcenvironment.core.datamanagement.commons.ComponentRun;
 import de.rcenvironment.core.datamanagement.commons.DataReference;
 import de.rcenvironment.core.datamanagement.commons.EndpointInstance;
+import de.rcenvironment.core.datamanagement.commons.MetaDataBatch;
 import de.rcenvironment.core.datamanagement.commons.TimelineInterval;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRun;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRunDescription;
@@ -145,6 +148,17 @@ public interface MetaDataService {
     void setComponentInstanceFinalState(Long componentInstanceId, FinalComponentState finalState,
         NetworkDestination storageNodeId) throws CommunicationException;
 
+    /**
+     * Applies the operations of a {@link MetaDataBatch} in their order with a single call to the storage node.
+     * 
+     * @param batch The {@link MetaDataBatch} to apply.
+     * @param storageNodeId {@link NetworkDestination} of the workflow storage node
+     * @return The identifiers generated by the operations in their order, i.e. the identifier of the stored typed datum for operations
+     *         adding an output datum, and null for all other operations.
+     * @throws CommunicationException in case of communication error
+     */
+    List<Long> executeBatch(MetaDataBatch batch, NetworkDestination storageNodeId) throws CommunicationException;
+
     /**
      * Gets a collection of all {@link WorkflowRunDescription}s in the database.
      * 
@@ -164,6 +178,36 @@ public interface MetaDataService {
      */
     WorkflowRun getWorkflowRun(Long workflowRunId, NetworkDestination storageNodeId) throws CommunicationException;
 
+    /**
+     * Gets the {@link WorkflowRun} with the given identifier without its {@link ComponentRun}s, but with a
+     * {@link ComponentInstanceSummary} per {@link ComponentInstance}; the component runs can be fetched on demand via
+     * {@link #getComponentRunPage(Long, Long, int, int, NetworkDestination)}.
+     * 
+     * @param workflowRunId The identifier of the {@link WorkflowRunDescription}.
+     * @param storageNodeId any node id referring to the workflow storage node; if necessary, it will be attempted to resolve this to a
+     *        more specific id
+     * @return The {@link WorkflowRun} without {@link ComponentRun}s.
+     * @throws CommunicationException in case of communication error, e.g. if the storage node does not support this operation yet
+     */
+    WorkflowRun getWorkflowRunOverview(Long workflowRunId, NetworkDestination storageNodeId) throws CommunicationException;
+
+    /**
+     * Gets a page of the {@link ComponentRun}s of a {@link WorkflowRun} including their endpoint data, ordered by start time, latest
+     * first.
+     * 
+     * @param workflowRunId The identifier of the {@link WorkflowRunDescription}.
+     * @param componentInstanceId The identifier of the {@link ComponentInstance} to get the runs of, or null for all runs of the workflow
+     *        run.
+     * @param offset The number of {@link ComponentRun}s to skip.
+     * @param limit The maximum number of {@link ComponentRun}s to get.
+     * @param storageNodeId any node id referring to the workflow storage node; if necessary, it will be attempted to resolve this to a
+     *        more specific id
+     * @return The {@link ComponentRun}s of the page.
+     * @throws CommunicationException in case of communication error
+     */
+    List<ComponentRun> getComponentRunPage(Long workflowRunId, Long componentInstanceId, int offset, int limit,
+        NetworkDestination storageNodeId) throws CommunicationException;
+
     /**
      * Gets the {@link WorkflowRunTimline} related to the {@link WorkflowRun} with the given identifier.
      * 
@@ -9,14 +9,17 @@
 package de.rcenvironment.core.datamanagement;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import de.rcenvironment.core.datamanagement.commons.ComponentInstance;
+import de.rcenvironment.core.datamanagement.commons.ComponentInstanceSummary;
 import de.rcenvironment.core.datamanagement.commons.ComponentRun;
 import de.rcenvironment.core.datamanagement.commons.DataReference;
 import de.rcenvironment.core.datamanagement.commons.EndpointData;
 import de.rcenvironment.core.datamanagement.commons.EndpointInstance;
+import de.rcenvironment.core.datamanagement.commons.MetaDataBatch;
 import de.rcenvironment.core.datamanagement.commons.TimelineInterval;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRun;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRunDescription;
@@ -192,6 +195,16 @@ public interface RemotableMetaDataService {
      */
     void setComponentInstanceFinalState(Long componentInstanceId, FinalComponentState finalState) throws RemoteOperationException;
 
+    /**
+     * Applies the operations of a {@link MetaDataBatch} in their order.
+     * 
+     * @param batch The {@link MetaDataBatch} to apply.
+     * @return The identifiers generated by the operations in their order, i.e. the identifier of the stored typed datum for operations
+     *         adding an output datum, and null for all other operations.
+     * @throws RemoteOperationException standard remote operation exception
+     */
+    List<Long> executeBatch(MetaDataBatch batch) throws RemoteOperationException;
+
     /**
      * Gets a collection of all {@link WorkflowRun}s in the database ordered by timestamp descending.
      * 
@@ -210,6 +223,29 @@ public interface RemotableMetaDataService {
      */
     WorkflowRun getWorkflowRun(Long workflowRunId) throws RemoteOperationException;
 
+    /**
+     * Gets the {@link WorkflowRun} with the given identifier without its {@link ComponentRun}s, but with a
+     * {@link ComponentInstanceSummary} per {@link ComponentInstance}.
+     * 
+     * @param workflowRunId The identifier of the {@link WorkflowRun}.
+     * @return The {@link WorkflowRun} without {@link ComponentRun}s.
+     * @throws RemoteOperationException standard remote operation exception
+     */
+    WorkflowRun getWorkflowRunOverview(Long workflowRunId) throws RemoteOperationException;
+
+    /**
+     * Gets a page of the {@link ComponentRun}s of a {@link WorkflowRun} including their {@link EndpointData}, latest first.
+     * 
+     * @param workflowRunId The identifier of the {@link WorkflowRun}.
+     * @param componentInstanceId The identifier of the {@link ComponentInstance} to get the runs of, or null for all runs.
+     * @param offset The number of {@link ComponentRun}s to skip.
+     * @param limit The maximum number of {@link ComponentRun}s to get.
+     * @return The {@link ComponentRun}s of the page.
+     * @throws RemoteOperationException standard remote operation exception
+     */
+    List<ComponentRun> getComponentRunPage(Long workflowRunId, Long componentInstanceId, int offset, int limit)
+        throws RemoteOperationException;
+
     /**
      * Gets a collection of all {@link ComponentRun}s related to the {@link ComponentInstance} with the given identifier.
      * 
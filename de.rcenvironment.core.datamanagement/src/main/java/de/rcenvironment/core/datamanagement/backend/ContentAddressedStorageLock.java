@@ -0,0 +1,47 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamanagement.backend;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Guards binaries stored by {@link DataBackend#putContentAddressed(Object, de.rcenvironment.core.datamodel.api.CompressionFormat)}, which
+ * may be shared by several data references, against being deleted while a new data reference to them is added.
+ * 
+ * Storing a binary and adding the {@link de.rcenvironment.core.datamanagement.commons.DataReference} pointing to it must be done while
+ * holding the {@link #forAddingReferences()} lock; checking whether a binary is still referenced and deleting it must be done while
+ * holding the {@link #forDeletingBinaries()} lock. Thus, a binary is either deleted before it is reused, in which case it is stored anew,
+ * or its new reference is found by the check.
+ * 
+ * @author agent
+ */
+public final class ContentAddressedStorageLock {
+
+    // fair, so that deletions are not delayed indefinitely by a steady flow of new data references
+    private static final ReadWriteLock LOCK = new ReentrantReadWriteLock(true);
+
+    private ContentAddressedStorageLock() {}
+
+    /**
+     * @return the lock to hold while storing binaries and adding the data references pointing to them; it may be held by several threads
+     *         at once
+     */
+    public static Lock forAddingReferences() {
+        return LOCK.readLock();
+    }
+
+    /**
+     * @return the lock to hold while checking whether binaries are still referenced and deleting them; it is exclusive
+     */
+    public static Lock forDeletingBinaries() {
+        return LOCK.writeLock();
+    }
+}
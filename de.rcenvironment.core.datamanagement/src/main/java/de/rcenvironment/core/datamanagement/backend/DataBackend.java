@@ -11,6 +11,8 @@ package de.rcenvironment.core.datamanagement.backend;
 import java.net.URI;
 import java.util.UUID;
 
+import de.rcenvironment.core.datamodel.api.CompressionFormat;
+
 /**
  * Interface for the data management data backend.
  * 
@@ -57,6 +59,34 @@ public interface DataBackend {
      */
     long put(URI location, Object object, boolean alreadyCompressed);
 
+    /**
+     * Stores the given {@link Object} at the given location, compressed with the given format.
+     * 
+     * @param location Location where object is stored.
+     * @param object Object to store.
+     * @param compressionFormat the format to compress the object with; {@link CompressionFormat#NONE} to store it as it is
+     * @return size of the stored object.
+     */
+    default long put(URI location, Object object, CompressionFormat compressionFormat) {
+        // backends not supporting the selection of a format apply their own compression
+        return put(location, object, compressionFormat == CompressionFormat.NONE);
+    }
+
+    /**
+     * Stores the given {@link Object} at a location derived from its content, so that equal objects are stored only once. If an object
+     * with the same content is already stored, it is kept and the given one is discarded.
+     * 
+     * @param object Object to store.
+     * @param compressionFormat the format to compress the object with; {@link CompressionFormat#NONE} to store it as it is
+     * @return identifier of the location the object is stored at, to be passed to {@link #suggestLocation(UUID)}.
+     */
+    default UUID putContentAddressed(Object object, CompressionFormat compressionFormat) {
+        // backends not supporting content addressing store each object at a location of its own
+        UUID id = UUID.randomUUID();
+        put(suggestLocation(id), object, compressionFormat);
+        return id;
+    }
+
     /**
      * Deletes the object at the given location.
      * 
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamanagement.commons;
+
+import java.io.Serializable;
+
+import de.rcenvironment.core.communication.common.IdentifierException;
+import de.rcenvironment.core.communication.common.LogicalNodeId;
+import de.rcenvironment.core.communication.common.NodeIdentifierUtils;
+
+/**
+ * Data management transfer object summarizing a {@link ComponentInstance} of a workflow run along with the number of its
+ * {@link ComponentRun}s, without the component runs themselves. The component runs can be fetched page by page via their component
+ * instance's database identifier.
+ * 
+ * @author agent
+ */
+public class ComponentInstanceSummary implements Serializable {
+
+    private static final long serialVersionUID = -2318036658519587324L;
+
+    private final Long componentInstanceID;
+
+    private final ComponentInstance componentInstance;
+
+    private final int componentRunCount;
+
+    private final int regularRunCount;
+
+    private final String logicalNodeId;
+
+    // as this object is created from a string for on the server side anyway, only parse this id on demand on the client side
+    private transient LogicalNodeId logicalNodeIdObject;
+
+    public ComponentInstanceSummary(Long componentInstanceID, ComponentInstance componentInstance, int componentRunCount,
+        int regularRunCount, String logicalNodeId) {
+        this.componentInstanceID = componentInstanceID;
+        this.componentInstance = componentInstance;
+        this.componentRunCount = componentRunCount;
+        this.regularRunCount = regularRunCount;
+        this.logicalNodeId = logicalNodeId;
+    }
+
+    public Long getComponentInstanceID() {
+        return componentInstanceID;
+    }
+
+    public ComponentInstance getComponentInstance() {
+        return componentInstance;
+    }
+
+    /**
+     * @return the number of all {@link ComponentRun}s of the component instance, including the init and tear down runs
+     */
+    public int getComponentRunCount() {
+        return componentRunCount;
+    }
+
+    /**
+     * @return the number of {@link ComponentRun}s of the component instance, not counting the init and tear down runs
+     */
+    public int getRegularRunCount() {
+        return regularRunCount;
+    }
+
+    public String getLogicalNodeIdString() {
+        return logicalNodeId;
+    }
+
+    /**
+     * @return the {@link LogicalNodeId} of the node the component instance was run on, or null if it is not known
+     */
+    public synchronized LogicalNodeId getLogicalNodeId() {
+        if (logicalNodeIdObject == null && logicalNodeId != null) {
+            try {
+                logicalNodeIdObject = NodeIdentifierUtils.parseArbitraryIdStringToLogicalNodeId(logicalNodeId);
+            } catch (IdentifierException e) {
+                throw new RuntimeException(
+                    "Failed to parse component run location string (expected an instance id or logical node id)", e);
+            }
+        }
+        return logicalNodeIdObject;
+    }
+}
@@ -80,6 +80,18 @@ public class DistributableInputStream extends InputStream implements Serializabl
         }
     }
 
+    @Override
+    public int available() throws IOException {
+        if (inputStream != null) {
+            return inputStream.available();
+        } else if (remoteInputStream != null) {
+            return remoteInputStream.available();
+        } else {
+            // do not open the remote stream just to find out that no data has been transferred yet
+            return 0;
+        }
+    }
+
     @Override
     public void close() throws IOException {
         if (inputStream != null) {
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamanagement.commons;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import de.rcenvironment.core.datamodel.api.FinalComponentRunState;
+
+/**
+ * An ordered sequence of meta data write operations that is transferred to and applied by the storage node at once, instead of issuing
+ * one (possibly remote) service call per operation. The operations are applied in the order they were added.
+ * 
+ * @author agent
+ */
+public class MetaDataBatch implements Serializable {
+
+    private static final long serialVersionUID = 2947063925366151808L;
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    /**
+     * The types of operations that can be part of a {@link MetaDataBatch}.
+     * 
+     * @author agent
+     */
+    public enum OperationType {
+        /**
+         * Links a typed datum as input datum to an endpoint instance of a component run.
+         */
+        ADD_INPUT_DATUM,
+        /**
+         * Stores a typed datum and links it as output datum to an endpoint instance of a component run.
+         */
+        ADD_OUTPUT_DATUM,
+        /**
+         * Sets or updates the history data item of a component run.
+         */
+        SET_OR_UPDATE_HISTORY_DATA_ITEM,
+        /**
+         * Sets the final state and the end time of a component run.
+         */
+        SET_COMPONENT_RUN_FINISHED
+    }
+
+    /**
+     * A single operation of a {@link MetaDataBatch}; the fields not related to its type are null.
+     * 
+     * @author agent
+     */
+    public static final class Operation implements Serializable {
+
+        private static final long serialVersionUID = -4017597371880429385L;
+
+        private final OperationType type;
+
+        private final Long componentRunId;
+
+        private Long typedDatumId;
+
+        private Long endpointInstanceId;
+
+        private Integer count;
+
+        private String datum;
+
+        private String historyDataItem;
+
+        private Long endtime;
+
+        private FinalComponentRunState finalState;
+
+        private Operation(OperationType type, Long componentRunId) {
+            this.type = type;
+            this.componentRunId = componentRunId;
+        }
+
+        public OperationType getType() {
+            return type;
+        }
+
+        public Long getComponentRunId() {
+            return componentRunId;
+        }
+
+        public Long getTypedDatumId() {
+            return typedDatumId;
+        }
+
+        public Long getEndpointInstanceId() {
+            return endpointInstanceId;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public String getDatum() {
+            return datum;
+        }
+
+        public String getHistoryDataItem() {
+            return historyDataItem;
+        }
+
+        public Long getEndtime() {
+            return endtime;
+        }
+
+        public FinalComponentRunState getFinalState() {
+            return finalState;
+        }
+    }
+
+    /**
+     * Adds an operation linking a typed datum as input datum to an endpoint instance of a component run.
+     * 
+     * @param componentRunId The identifier of the component run.
+     * @param typedDatumId The identifier of the typed datum.
+     * @param endpointInstanceId The identifier of the endpoint instance.
+     * @param count The counter representing the order of incoming values.
+     */
+    public void addInputDatum(Long componentRunId, Long typedDatumId, Long endpointInstanceId, Integer count) {
+        Operation operation = new Operation(OperationType.ADD_INPUT_DATUM, componentRunId);
+        operation.typedDatumId = typedDatumId;
+        operation.endpointInstanceId = endpointInstanceId;
+        operation.count = count;
+        operations.add(operation);
+    }
+
+    /**
+     * Adds an operation storing a typed datum and linking it as output datum to an endpoint instance of a component run.
+     * 
+     * @param componentRunId The identifier of the component run.
+     * @param endpointInstanceId The identifier of the endpoint instance.
+     * @param datum The serialized typed datum.
+     * @param count The counter representing the order of outgoing values.
+     */
+    public void addOutputDatum(Long componentRunId, Long endpointInstanceId, String datum, Integer count) {
+        Operation operation = new Operation(OperationType.ADD_OUTPUT_DATUM, componentRunId);
+        operation.endpointInstanceId = endpointInstanceId;
+        operation.datum = datum;
+        operation.count = count;
+        operations.add(operation);
+    }
+
+    /**
+     * Adds an operation setting or updating the string representation of the history data item of a component run.
+     * 
+     * @param componentRunId The identifier of the component run.
+     * @param historyDataItem The string representation of the history data item.
+     */
+    public void setOrUpdateHistoryDataItem(Long componentRunId, String historyDataItem) {
+        Operation operation = new Operation(OperationType.SET_OR_UPDATE_HISTORY_DATA_ITEM, componentRunId);
+        operation.historyDataItem = historyDataItem;
+        operations.add(operation);
+    }
+
+    /**
+     * Adds an operation setting the final state and the end time of a component run.
+     * 
+     * @param componentRunId The identifier of the component run.
+     * @param endtime The end time.
+     * @param finalState the final state of the run.
+     */
+    public void setComponentRunFinished(Long componentRunId, Long endtime, FinalComponentRunState finalState) {
+        Operation operation = new Operation(OperationType.SET_COMPONENT_RUN_FINISHED, componentRunId);
+        operation.endtime = endtime;
+        operation.finalState = finalState;
+        operations.add(operation);
+    }
+
+    /**
+     * Adds all operations of another batch to this one, keeping their order.
+     * 
+     * @param batch the batch to add the operations of
+     */
+    public void addAll(MetaDataBatch batch) {
+        operations.addAll(batch.operations);
+    }
+
+    public List<Operation> getOperations() {
+        return Collections.unmodifiableList(operations);
+    }
+
+    /**
+     * @return the number of operations in this batch
+     */
+    public int size() {
+        return operations.size();
+    }
+
+    /**
+     * @return true if this batch contains no operations
+     */
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+}
@@ -84,5 +84,8 @@ public final class MetaDataKeys {
     /** Key for data type conversion information. */
     public static final String DATA_TYPE_CONVERSION = "rce.common.data_type_conversion";
 
+    /** Name of the CompressionFormat to store new data with; optional, the storage node's default is used if not set. */
+    public static final String COMPRESSION_FORMAT = "rce.common.compression_format";
+
     private MetaDataKeys() {}
 }
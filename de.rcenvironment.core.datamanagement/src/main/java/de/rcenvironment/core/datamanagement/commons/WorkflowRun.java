@@ -11,6 +11,7 @@ package de.rcenvironment.core.datamanagement.commons;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,6 +31,8 @@ public class WorkflowRun extends WorkflowRunDescription implements Serializable
     
     private String wfFileReference;
 
+    private List<ComponentInstanceSummary> componentInstanceSummaries;
+
     public WorkflowRun(Long workflowRunID, String workflowTitle, String controllerID, String datamanagementID, Long startTime,
         Long endtime, FinalWorkflowState finalState, Boolean hasDataReferences, Boolean markedForDeletion, Map<String, String> metaData,
         String wfFileReference) {
@@ -63,4 +66,16 @@ public class WorkflowRun extends WorkflowRunDescription implements Serializable
     public String getWfFileReference() {
         return wfFileReference;
     }
+
+    /**
+     * @return the summaries of the {@link ComponentInstance}s of this workflow run; they are provided if the workflow run was fetched
+     *         without its {@link ComponentRun}s, otherwise this is null unless set by the client
+     */
+    public List<ComponentInstanceSummary> getComponentInstanceSummaries() {
+        return componentInstanceSummaries;
+    }
+
+    public void setComponentInstanceSummaries(List<ComponentInstanceSummary> componentInstanceSummaries) {
+        this.componentInstanceSummaries = componentInstanceSummaries;
+    }
 }
@@ -8,12 +8,20 @@
 
 package de.rcenvironment.core.datamanagement.internal;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -28,11 +36,12 @@ import de.rcenvironment.core.datamanagement.DataReferenceService;
 import de.rcenvironment.core.datamanagement.FileDataService;
 import de.rcenvironment.core.datamanagement.commons.DataReference;
 import de.rcenvironment.core.datamanagement.commons.MetaDataSet;
+import de.rcenvironment.core.toolkitbridge.transitional.ConcurrencyUtils;
 import de.rcenvironment.core.utils.common.CrossPlatformFilenameUtils;
 import de.rcenvironment.core.utils.common.FileCompressionFormat;
 import de.rcenvironment.core.utils.common.FileCompressionService;
 import de.rcenvironment.core.utils.common.StringUtils;
-import de.rcenvironment.core.utils.common.TempFileServiceAccess;
+import de.rcenvironment.toolkit.modules.concurrency.api.AsyncTaskService;
 
 /**
  * Default implementation of {@link DataManagementService}.
@@ -51,7 +60,13 @@ public class DataManagementServiceImpl implements DataManagementService {
         "Directory name/path '%s' contains characters that are not valid for all operating systems; "
             + "it might lead to problems when accessing the directory on another operating system";
 
-    private static final String ARCHIVE_TAR_GZ = "archive.tar.gz";
+    private static final String ARCHIVING_ERROR_MESSAGE =
+        "Was not able to create a reference from a local directory due to an issue with the compression.";
+
+    private static final String ARCHIVING_TASK_CATEGORY = "Data Management: Archive local directory";
+
+    // large enough to keep the archiving task busy while a block of the upload is sent
+    private static final int ARCHIVE_PIPE_SIZE = 256 * 1024;
 
     private static final int BUFFER = 1024;
 
@@ -65,6 +80,55 @@ public class DataManagementServiceImpl implements DataManagementService {
 
     private DataReferenceService dataReferenceService;
 
+    /**
+     * Passes an archive through while it is written by an archiving task. At the end of the archive, it waits for the archiving task to
+     * finish and fails if the archiving task failed, so that an incomplete archive is not stored.
+     * 
+     * @author agent
+     */
+    private static final class ArchiveUploadStream extends FilterInputStream {
+
+        private final Future<Boolean> archiving;
+
+        ArchiveUploadStream(InputStream archiveStream, Future<Boolean> archiving) {
+            super(archiveStream);
+            this.archiving = archiving;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b == -1) {
+                checkArchivingResult();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int count = super.read(b, off, len);
+            if (count == -1) {
+                checkArchivingResult();
+            }
+            return count;
+        }
+
+        private void checkArchivingResult() throws IOException {
+            try {
+                if (!archiving.get()) {
+                    LOGGER.error(ARCHIVING_ERROR_MESSAGE);
+                    throw new IOException(ARCHIVING_ERROR_MESSAGE);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the archiving of a local directory");
+            } catch (ExecutionException e) {
+                LOGGER.error(ARCHIVING_ERROR_MESSAGE, e.getCause());
+                throw new IOException(ARCHIVING_ERROR_MESSAGE, e.getCause());
+            }
+        }
+    }
+
     @Override
     public String createReferenceFromLocalFile(File file, MetaDataSet additionalMetaData,
         NetworkDestination nodeId) throws IOException, AuthorizationException, InterruptedException, CommunicationException {
@@ -105,22 +169,24 @@ public class DataManagementServiceImpl implements DataManagementService {
             LOGGER.warn(StringUtils.format(STRING_DIR_NAME_NOT_VALID, dir.getName()));
         }
 
-        final File archive = TempFileServiceAccess.getInstance().createTempFileWithFixedFilename(ARCHIVE_TAR_GZ);
-
-        try {
-            if (!FileCompressionService.compressDirectoryToFile(dir, archive,
-                FileCompressionFormat.TAR_GZ, true)) {
-
-                // Case: Was not able to compress & archive the directory:
-                LOGGER.error("Was not able to create a reference from a local directory due to an issue with the compression.");
-                throw new IOException("Was not able to create a reference from a local directory due to an issue with the compression.");
-            }
-
-            try (FileInputStream fileInputStream = new FileInputStream(archive)) {
-                return createReferenceFromStream(fileInputStream, additionalMetaData, nodeId, false);
+        // archive the directory straight into the upload stream instead of into a temporary file; the gzip blocks of the archive are
+        // compressed in parallel
+        final AsyncTaskService asyncTaskService = ConcurrencyUtils.getAsyncTaskService();
+        final PipedInputStream archiveStream = new PipedInputStream(ARCHIVE_PIPE_SIZE);
+        final PipedOutputStream archiveOutputStream = new PipedOutputStream(archiveStream);
+        final Future<Boolean> archiving = asyncTaskService.submit(ARCHIVING_TASK_CATEGORY, () -> {
+            // always close the pipe, as the upload would wait for more data otherwise
+            try (OutputStream outputStream = archiveOutputStream) {
+                return FileCompressionService.compressDirectoryToOutputStream(dir, outputStream, FileCompressionFormat.TAR_GZ, true,
+                    asyncTaskService);
             }
+        });
+        try {
+            // the archive is compressed already, so it is stored as it is
+            return createReferenceFromStream(new ArchiveUploadStream(archiveStream, archiving), additionalMetaData, nodeId, true);
         } finally {
-            TempFileServiceAccess.getInstance().disposeManagedTempDirOrFile(archive);
+            // on failure, this makes the archiving task fail on its next write instead of waiting for the pipe to be read
+            IOUtils.closeQuietly(archiveStream);
         }
     }
 
@@ -151,17 +217,7 @@ public class DataManagementServiceImpl implements DataManagementService {
     public void copyReferenceToLocalFile(String reference, File targetFile, NetworkDestination nodeId, boolean decompress)
         throws IOException,
         CommunicationException {
-        DataReference dataRef;
-        if (nodeId == null) {
-            // TODO can this still be reached? null nodeIds should not be in use anymore -- misc_ro
-            dataRef = dataReferenceService.getReference(reference);
-        } else {
-            dataRef = dataReferenceService.getReference(reference, nodeId);
-        }
-        if (dataRef == null) {
-            throw new FileNotFoundException(StringUtils.format(REFERENCE_NOT_FOUND_MESSAGE, reference));
-        }
-        InputStream dataMgmtStream = fileDataService.getStreamFromDataReference(dataRef);
+        InputStream dataMgmtStream = getStreamFromReference(reference, nodeId);
         try {
             FileUtils.copyInputStreamToFile(dataMgmtStream, targetFile);
         } finally {
@@ -199,19 +255,15 @@ public class DataManagementServiceImpl implements DataManagementService {
         throws IOException,
         CommunicationException {
 
-        final File archive = TempFileServiceAccess.getInstance().createTempFileWithFixedFilename(ARCHIVE_TAR_GZ);
-
-        try {
-            copyReferenceToLocalFile(reference, archive, node);
-            if (!FileCompressionService.expandCompressedDirectoryFromFile(archive, targetDir,
+        // expand the archive while it is downloaded instead of downloading it into a temporary file first
+        try (InputStream archiveStream = new BufferedInputStream(getStreamFromReference(reference, node))) {
+            if (!FileCompressionService.expandCompressedDirectoryFromInputStream(archiveStream, targetDir,
                 FileCompressionFormat.TAR_GZ)) {
 
                 // Case: Expanding of archive was not possible.
                 LOGGER.error("Was not able to copy reference to local directory due to an uncompression issue.");
                 throw new CommunicationException("Was not able to copy reference to local directory due to an uncompression issue.");
             }
-        } finally {
-            TempFileServiceAccess.getInstance().disposeManagedTempDirOrFile(archive);
         }
     }
 
@@ -238,6 +290,20 @@ public class DataManagementServiceImpl implements DataManagementService {
         }
     }
 
+    private InputStream getStreamFromReference(String reference, NetworkDestination nodeId) throws IOException, CommunicationException {
+        DataReference dataRef;
+        if (nodeId == null) {
+            // TODO can this still be reached? null nodeIds should not be in use anymore -- misc_ro
+            dataRef = dataReferenceService.getReference(reference);
+        } else {
+            dataRef = dataReferenceService.getReference(reference, nodeId);
+        }
+        if (dataRef == null) {
+            throw new FileNotFoundException(StringUtils.format(REFERENCE_NOT_FOUND_MESSAGE, reference));
+        }
+        return fileDataService.getStreamFromDataReference(dataRef);
+    }
+
     /**
      * OSGi-DS setter.
      * 
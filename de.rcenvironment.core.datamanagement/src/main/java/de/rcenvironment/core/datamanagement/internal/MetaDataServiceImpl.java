@@ -28,6 +28,8 @@ import de.rcenvironment.core.communication.management.WorkflowHostService;
 import de.rcenvironment.core.datamanagement.DataManagementService;
 import de.rcenvironment.core.datamanagement.MetaDataService;
 import de.rcenvironment.core.datamanagement.RemotableMetaDataService;
+import de.rcenvironment.core.datamanagement.commons.ComponentRun;
+import de.rcenvironment.core.datamanagement.commons.MetaDataBatch;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRun;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRunDescription;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRunTimline;
@@ -157,6 +159,17 @@ public class MetaDataServiceImpl implements MetaDataService {
         }
     }
 
+    @Override
+    public List<Long> executeBatch(MetaDataBatch batch, NetworkDestination storageNodeId) throws CommunicationException {
+        try {
+            return getRemoteMetaDataService(storageNodeId).executeBatch(batch);
+        } catch (RemoteOperationException e) {
+            // keep the cause, so that callers can recognize a refused request
+            throw new CommunicationException(StringUtils.format("Failed to apply batch of %d meta data operations from remote node @%s: ",
+                batch.size(), storageNodeId) + e.getMessage(), e);
+        }
+    }
+
     @Override
     public Set<WorkflowRunDescription> getWorkflowRunDescriptions() throws CommunicationException {
         Set<WorkflowRunDescription> descriptions = new HashSet<WorkflowRunDescription>();
@@ -239,6 +252,27 @@ public class MetaDataServiceImpl implements MetaDataService {
         }
     }
 
+    @Override
+    public WorkflowRun getWorkflowRunOverview(Long workflowRunId, NetworkDestination storageNodeId) throws CommunicationException {
+        try {
+            return getRemoteMetaDataService(storageNodeId).getWorkflowRunOverview(workflowRunId);
+        } catch (RemoteOperationException e) {
+            throw new CommunicationException(
+                StringUtils.format("Failed to get workflow run overview from remote node @%s: ", storageNodeId) + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<ComponentRun> getComponentRunPage(Long workflowRunId, Long componentInstanceId, int offset, int limit,
+        NetworkDestination storageNodeId) throws CommunicationException {
+        try {
+            return getRemoteMetaDataService(storageNodeId).getComponentRunPage(workflowRunId, componentInstanceId, offset, limit);
+        } catch (RemoteOperationException e) {
+            throw new CommunicationException(
+                StringUtils.format("Failed to get component runs from remote node @%s: ", storageNodeId) + e.getMessage());
+        }
+    }
+
     @Override
     public WorkflowRunTimline getWorkflowTimeline(Long workflowRunId, NetworkDestination storageNodeId) throws CommunicationException {
         try {
@@ -23,6 +23,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
@@ -32,6 +33,7 @@ import org.osgi.framework.BundleContext;
 import de.rcenvironment.core.authorization.AuthorizationException;
 import de.rcenvironment.core.communication.api.PlatformService;
 import de.rcenvironment.core.datamanagement.RemotableFileDataService;
+import de.rcenvironment.core.datamanagement.backend.ContentAddressedStorageLock;
 import de.rcenvironment.core.datamanagement.backend.DataBackend;
 import de.rcenvironment.core.datamanagement.backend.MetaDataBackendService;
 import de.rcenvironment.core.datamanagement.commons.BinaryReference;
@@ -63,6 +65,17 @@ public class RemotableFileDataServiceImpl implements RemotableFileDataService {
 
     private static final int UPLOAD_SESSION_ID_LENGTH = 32;
 
+    // if set to true, equal contents are stored only once and shared by their data references; off by default
+    private static final String CONTENT_ADDRESSED_STORAGE_PROPERTY = "datamanagement.contentAddressedStorage";
+
+    // the name of the CompressionFormat to store new data with if not selected via its meta data; GZIP by default
+    private static final String COMPRESSION_FORMAT_PROPERTY = "datamanagement.compressionFormat";
+
+    private final boolean contentAddressedStorage = Boolean.getBoolean(CONTENT_ADDRESSED_STORAGE_PROPERTY);
+
+    private final CompressionFormat defaultCompressionFormat =
+        parseCompressionFormat(System.getProperty(COMPRESSION_FORMAT_PROPERTY), CompressionFormat.GZIP);
+
     protected PlatformService platformService;
 
     protected BundleContext context;
@@ -162,15 +175,14 @@ public class RemotableFileDataServiceImpl implements RemotableFileDataService {
     @AllowRemoteAccess
     public InputStream getStreamFromDataReference(DataReference dataReference, Boolean calledFromRemote, Boolean decompress) {
         DataBackend dataBackend = BackendSupport.getDataBackend();
-        String gzipReferenceKey = null;
+        // there is only one binary reference per data reference; the data backend determines the format it is stored in on its own
+        String binaryReferenceKey = null;
         for (BinaryReference br : dataReference.getBinaryReferences()) {
-            if (br.getCompression().equals(CompressionFormat.GZIP)) {
-                gzipReferenceKey = br.getBinaryReferenceKey();
-            }
+            binaryReferenceKey = br.getBinaryReferenceKey();
         }
         URI location =
             BackendSupport.getDataBackend().suggestLocation(
-                UUID.fromString(gzipReferenceKey));
+                UUID.fromString(binaryReferenceKey));
         DistributableInputStream stream = new DistributableInputStream(dataReference,
             (InputStream) dataBackend.get(location, decompress));
         // close local input stream before sending to another node. it is a transient field and will be "lost" without be closed before
@@ -198,16 +210,47 @@ public class RemotableFileDataServiceImpl implements RemotableFileDataService {
     // FIXME review: why can this method never throw an IOException? - misc_ro
     public DataReference newReferenceFromStream(InputStream inputStream, MetaDataSet metaDataSet, Boolean alreadyCompressed) {
 
+        final CompressionFormat compressionFormat;
+        if (alreadyCompressed) {
+            compressionFormat = CompressionFormat.NONE;
+        } else {
+            compressionFormat = parseCompressionFormat(
+                metaDataSet.getValue(new MetaData(MetaDataKeys.COMPRESSION_FORMAT, true, true)), defaultCompressionFormat);
+        }
+
+        if (!contentAddressedStorage) {
+            return storeAndAddDataReference(inputStream, metaDataSet, compressionFormat);
+        }
+        // a reused binary must not be deleted before the data reference pointing to it has been added
+        final Lock lock = ContentAddressedStorageLock.forAddingReferences();
+        lock.lock();
+        try {
+            return storeAndAddDataReference(inputStream, metaDataSet, compressionFormat);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private DataReference storeAndAddDataReference(InputStream inputStream, MetaDataSet metaDataSet,
+        CompressionFormat compressionFormat) {
+
         UUID uuid = UUID.randomUUID();
 
         // store input stream
         DataBackend dataBackend = BackendSupport.getDataBackend();
-        URI location = dataBackend.suggestLocation(uuid);
-        dataBackend.put(location, inputStream, alreadyCompressed);
+        final UUID binaryReferenceId;
+        if (contentAddressedStorage) {
+            // the binary may be shared with other data references; the data reference itself is unique anyway
+            binaryReferenceId = dataBackend.putContentAddressed(inputStream, compressionFormat);
+        } else {
+            URI location = dataBackend.suggestLocation(uuid);
+            dataBackend.put(location, inputStream, compressionFormat);
+            binaryReferenceId = uuid;
+        }
 
-        // add a data reference with only one binary reference with the current only standard format and a default revision number.
+        // add a data reference with only one binary reference with the selected format and a default revision number.
         // TODO replace on new blob store implementation
-        BinaryReference binaryReference = new BinaryReference(uuid.toString(), CompressionFormat.GZIP, "1");
+        BinaryReference binaryReference = new BinaryReference(binaryReferenceId.toString(), compressionFormat, "1");
         Set<BinaryReference> binaryReferences = new HashSet<BinaryReference>();
         binaryReferences.add(binaryReference);
         // create a new data reference
@@ -315,6 +358,18 @@ public class RemotableFileDataServiceImpl implements RemotableFileDataService {
         return null;
     }
 
+    private static CompressionFormat parseCompressionFormat(String value, CompressionFormat defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return CompressionFormat.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Ignoring unknown compression format '" + value + "'; using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
     private UploadHolder safeGetUploadById(String id) throws IOException {
         final UploadHolder upload = uploads.get(id);
         if (upload == null) {
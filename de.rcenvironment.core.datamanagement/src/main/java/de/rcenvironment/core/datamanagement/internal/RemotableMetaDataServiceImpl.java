@@ -9,6 +9,7 @@
 package de.rcenvironment.core.datamanagement.internal;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -19,6 +20,7 @@ import de.rcenvironment.core.datamanagement.commons.ComponentRun;
 import de.rcenvironment.core.datamanagement.commons.DataReference;
 import de.rcenvironment.core.datamanagement.commons.EndpointData;
 import de.rcenvironment.core.datamanagement.commons.EndpointInstance;
+import de.rcenvironment.core.datamanagement.commons.MetaDataBatch;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRun;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRunDescription;
 import de.rcenvironment.core.datamanagement.commons.WorkflowRunTimline;
@@ -120,6 +122,12 @@ public class RemotableMetaDataServiceImpl implements RemotableMetaDataService {
         metaDataBackendService.setComponentInstanceFinalState(componentInstanceId, finalState);
     }
 
+    @Override
+    @AllowRemoteAccess
+    public List<Long> executeBatch(MetaDataBatch batch) throws RemoteOperationException {
+        return metaDataBackendService.executeBatch(batch);
+    }
+
     @Override
     @AllowRemoteAccess
     public Set<WorkflowRunDescription> getWorkflowRunDescriptions() throws RemoteOperationException {
@@ -132,6 +140,19 @@ public class RemotableMetaDataServiceImpl implements RemotableMetaDataService {
         return metaDataBackendService.getWorkflowRun(workflowRunId);
     }
 
+    @Override
+    @AllowRemoteAccess
+    public WorkflowRun getWorkflowRunOverview(Long workflowRunId) throws RemoteOperationException {
+        return metaDataBackendService.getWorkflowRunOverview(workflowRunId);
+    }
+
+    @Override
+    @AllowRemoteAccess
+    public List<ComponentRun> getComponentRunPage(Long workflowRunId, Long componentInstanceId, int offset, int limit)
+        throws RemoteOperationException {
+        return metaDataBackendService.getComponentRunPage(workflowRunId, componentInstanceId, offset, limit);
+    }
+
     @Override
     public Collection<ComponentRun> getComponentRuns(Long componentInstanceId) throws RemoteOperationException {
         return metaDataBackendService.getComponentRuns(componentInstanceId);
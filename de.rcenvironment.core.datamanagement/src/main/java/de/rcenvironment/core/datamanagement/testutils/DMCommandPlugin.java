@@ -35,6 +35,7 @@ import de.rcenvironment.core.datamanagement.backend.MetaDataBackendService;
 import de.rcenvironment.core.datamanagement.commons.ComponentInstance;
 import de.rcenvironment.core.datamanagement.commons.EndpointInstance;
 import de.rcenvironment.core.datamanagement.commons.MetaData;
+import de.rcenvironment.core.datamanagement.commons.MetaDataBatch;
 import de.rcenvironment.core.datamanagement.commons.MetaDataKeys;
 import de.rcenvironment.core.datamanagement.commons.MetaDataSet;
 import de.rcenvironment.core.datamanagement.commons.PropertiesKeys;
@@ -468,11 +469,11 @@ public class DMCommandPlugin implements CommandPlugin {
                         metaDataService.addEndpointInstances(componentInstanceId, endpointInstancesIn);
                     Map<String, Long> endpointIdsOut =
                         metaDataService.addEndpointInstances(componentInstanceId, endpointInstancesOut);
-                    long typedDatumId = 0;
                     for (int j = 1; j <= workflowCreationContext.numberOfIterations; j++) {
                         Long componentRunId =
                             metaDataService.addComponentRun(componentInstanceId, workflowCreationContext.localNodeId, j,
                                 System.currentTimeMillis());
+                        MetaDataBatch outputBatch = new MetaDataBatch();
                         for (Long endpointInstanceId : endpointIdsOut.values()) {
                             TypedDatum datum;
                             String dummyFileReference;
@@ -494,13 +495,16 @@ public class DMCommandPlugin implements CommandPlugin {
                             }
 
                             String datumSerialized = typedDatumSerializer.serialize(datum);
-                            typedDatumId = metaDataService.addOutputDatum(componentRunId, endpointInstanceId, datumSerialized, j);
+                            outputBatch.addOutputDatum(componentRunId, endpointInstanceId, datumSerialized, j);
                         }
+                        // the inputs refer to the typed datum of the last output, so they are written in a second batch
+                        List<Long> typedDatumIds = metaDataService.executeBatch(outputBatch);
+                        MetaDataBatch inputBatch = new MetaDataBatch();
                         for (Long endpointInstanceId : endpointIdsIn.values()) {
-                            metaDataService.addInputDatum(componentRunId, typedDatumId, endpointInstanceId, j);
+                            inputBatch.addInputDatum(componentRunId, typedDatumIds.get(typedDatumIds.size() - 1), endpointInstanceId, j);
                         }
-                        metaDataService
-                            .setComponentRunFinished(componentRunId, System.currentTimeMillis(), FinalComponentRunState.FINISHED);
+                        inputBatch.setComponentRunFinished(componentRunId, System.currentTimeMillis(), FinalComponentRunState.FINISHED);
+                        metaDataService.executeBatch(inputBatch);
 
                         Map<String, String> properties = new HashMap<String, String>();
                         String logFileReference;
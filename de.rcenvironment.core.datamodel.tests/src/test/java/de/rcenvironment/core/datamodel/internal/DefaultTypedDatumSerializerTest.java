@@ -9,7 +9,9 @@
 package de.rcenvironment.core.datamodel.internal;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
 import java.util.Date;
 
 import org.junit.BeforeClass;
@@ -21,6 +23,8 @@ import org.junit.runners.JUnit4;
 
 import de.rcenvironment.core.datamodel.api.DataType;
 import de.rcenvironment.core.datamodel.api.TypedDatum;
+import de.rcenvironment.core.datamodel.api.TypedDatumSerializationFormat;
+import de.rcenvironment.core.datamodel.types.api.BigTableTD;
 import de.rcenvironment.core.datamodel.types.api.BooleanTD;
 import de.rcenvironment.core.datamodel.types.api.DateTimeTD;
 import de.rcenvironment.core.datamodel.types.api.DirectoryReferenceTD;
@@ -393,6 +397,10 @@ public class DefaultTypedDatumSerializerTest {
         assertEquals(fileReference.getFileSizeInBytes(), deserializedFileReference.getFileSizeInBytes());
         assertEquals(fileReference.getLastModified(), deserializedFileReference.getLastModified());
 
+        // Deserialization of BigTableTD
+        BigTableTD bigTable = factory.createBigTable("table reference", SIZE_1024, new DataType[] { DataType.Float, DataType.ShortText });
+        assertEquals(bigTable, serializer.deserialize(serializer.serialize(bigTable)));
+
         // Deserialization of DirectoryReferenceTD
         DirectoryReferenceTD dirRef = factory.createDirectoryReference("reference", "dirname");
         dirRef.setDirectorySize(SIZE_1024);
@@ -402,6 +410,131 @@ public class DefaultTypedDatumSerializerTest {
         assertEquals(dirRef.getDirectorySizeInBytes(), otherDirRef.getDirectorySizeInBytes());
     }
 
+    /**
+     * Tests if the streaming JSON parser restores the same data as the tree-based {@link TreeBasedTypedDatumDeserializer}, including
+     * legacy representations and fields in unexpected order.
+     * 
+     * @throws IOException on unexpected parsing errors
+     */
+    @Test
+    public void testStreamingAndTreeDeserializationAreEquivalent() throws IOException {
+        FloatTD[][] matrixEntries = { { factory.createFloat(1.0), factory.createFloat(Double.NaN) },
+            { factory.createFloat(Double.NEGATIVE_INFINITY), factory.createFloat(-0.0) } };
+        TypedDatum[][] tableEntries = { { factory.createBoolean(true), factory.createInteger(Long.MIN_VALUE) },
+            { factory.createShortText(SHORT_TEXT_TEST_VALUE), factory.createFloat(Double.POSITIVE_INFINITY) } };
+        FileReferenceTD fileReference = factory.createFileReference("example reference", "example filename");
+        String[] inputs = { serializer.serialize(factory.createBoolean(false)),
+            StringUtils.format(JSON_STRING_TEXT, DataType.Boolean.getShortName(), Boolean.TRUE.toString()),
+            serializer.serialize(factory.createShortText("\u00e4\u00f6\u00fc \"quoted\"")),
+            serializer.serialize(factory.createInteger(Long.MAX_VALUE)),
+            StringUtils.format(JSON_STRING, DataType.Integer.getShortName(), "1.5"),
+            serializer.serialize(factory.createFloat(Double.NaN)),
+            StringUtils.format(JSON_STRING, DataType.Float.getShortName(), 3),
+            serializer.serialize(factory.createDateTime(System.currentTimeMillis())),
+            serializer.serialize(factory.createVector(new double[] { 1.0, Double.NaN, Double.MAX_VALUE })),
+            serializer.serialize(factory.createVector(new double[SIZE_1024])),
+            serializer.serialize(factory.createMatrix(matrixEntries)), getMatrixString(matrixEntries),
+            "{\"v\":[[1.0,2.0]],\"c\":2,\"r\":1,\"t\":\"" + DataType.Matrix.getShortName() + "\",\"x\":{\"y\":[]}}",
+            serializer.serialize(factory.createSmallTable(tableEntries)), getExpectedSmallTableString(tableEntries),
+            getOldSerializationExpectedSmallTableString(tableEntries), serializer.serialize(factory.createEmpty()),
+            getNotAValueString("some-id", NotAValueTD.Cause.InvalidInputs), serializer.serialize(fileReference),
+            getFileReferenceWithModifiedString(), serializer.serialize(factory.createDirectoryReference("reference", "dirname")),
+            serializer.serialize(factory.createBigTable("table reference", SIZE_1024, new DataType[] { DataType.Float })) };
+        TreeBasedTypedDatumDeserializer treeDeserializer = new TreeBasedTypedDatumDeserializer();
+        for (String input : inputs) {
+            // not all types implement equals(), so compare the canonical serialization of both results
+            assertEquals(input, serializer.serialize(treeDeserializer.deserialize(input)),
+                serializer.serialize(serializer.deserialize(input)));
+        }
+    }
+
+    /**
+     * Tests if all supported data types survive a round trip through the binary format, both in raw and in string form.
+     */
+    @Test
+    public void testBinaryRoundTrip() {
+        SmallTableTD smallTable = factory.createSmallTable(2, 2);
+        smallTable.setTypedDatumForCell(factory.createShortText(SHORT_TEXT_TEST_VALUE), 0, 0);
+        smallTable.setTypedDatumForCell(factory.createFloat(Double.NaN), 0, 1);
+        smallTable.setTypedDatumForCell(factory.createInteger(Long.MIN_VALUE), 1, 0);
+        smallTable.setTypedDatumForCell(factory.createBoolean(false), 1, 1);
+        TypedDatum[] data = { factory.createBoolean(true), factory.createInteger(Long.MAX_VALUE), factory.createFloat(Double.MIN_VALUE),
+            factory.createShortText("\u00e4\u00f6\u00fc \"quoted\""), factory.createDateTime(System.currentTimeMillis()),
+            factory.createVector(new double[] { 1.0, Double.NEGATIVE_INFINITY, -0.0 }),
+            factory.createMatrix(new double[][] { { 1.0, 2.0, 3.0 }, { 4.0, 5.0, 6.0 } }), factory.createMatrix(0, 3), smallTable,
+            factory.createBigTable("table reference", SIZE_1024, new DataType[] { DataType.Float, DataType.ShortText }) };
+        for (TypedDatum datum : data) {
+            assertEquals(datum, serializer.deserializeFromBytes(serializer.serializeToBytes(datum)));
+            String serialized = serializer.serialize(datum, TypedDatumSerializationFormat.BINARY_V1);
+            assertEquals(datum, serializer.deserialize(serialized));
+        }
+
+        NotAValueTD notAValue = factory.createNotAValue("some-id", NotAValueTD.Cause.Failure);
+        NotAValueTD deserializedNotAValue = (NotAValueTD) serializer.deserializeFromBytes(serializer.serializeToBytes(notAValue));
+        assertEquals(notAValue.getIdentifier(), deserializedNotAValue.getIdentifier());
+        assertEquals(notAValue.getCause(), deserializedNotAValue.getCause());
+
+        EmptyTD empty = factory.createEmpty();
+        assertEquals(DataType.Empty, serializer.deserialize(serializer.serialize(empty, TypedDatumSerializationFormat.BINARY_V1))
+            .getDataType());
+
+        FileReferenceTD fileReference = factory.createFileReference("example reference", "example filename");
+        fileReference.setLastModified(new Date(0));
+        fileReference.setFileSize(SIZE_1024);
+        FileReferenceTD deserializedFileReference = (FileReferenceTD) serializer
+            .deserialize(serializer.serialize(fileReference, TypedDatumSerializationFormat.BINARY_V1));
+        assertEquals(fileReference.getFileName(), deserializedFileReference.getFileName());
+        assertEquals(fileReference.getFileReference(), deserializedFileReference.getFileReference());
+        assertEquals(fileReference.getFileSizeInBytes(), deserializedFileReference.getFileSizeInBytes());
+        assertEquals(fileReference.getLastModified(), deserializedFileReference.getLastModified());
+
+        DirectoryReferenceTD dirRef = factory.createDirectoryReference("reference", "dirname");
+        dirRef.setDirectorySize(SIZE_1024);
+        DirectoryReferenceTD otherDirRef = (DirectoryReferenceTD) serializer.deserializeFromBytes(serializer.serializeToBytes(dirRef));
+        assertEquals(dirRef.getDirectoryReference(), otherDirRef.getDirectoryReference());
+        assertEquals(dirRef.getDirectoryName(), otherDirRef.getDirectoryName());
+        assertEquals(dirRef.getDirectorySizeInBytes(), otherDirRef.getDirectorySizeInBytes());
+    }
+
+    /**
+     * Tests if the binary format of numeric arrays is significantly smaller than the JSON format.
+     */
+    @Test
+    public void testBinaryFormatIsCompact() {
+        double[] values = new double[SIZE_1024];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.random();
+        }
+        VectorTD vector = factory.createVector(values);
+        // header, type code and dimension plus packed doubles
+        final int expectedBinaryLength = 2 + 1 + 4 + 8 * SIZE_1024;
+        assertEquals(expectedBinaryLength, serializer.serializeToBytes(vector).length);
+        assertTrue(serializer.serialize(vector, TypedDatumSerializationFormat.BINARY_V1).length() < serializer.serialize(vector)
+            .length());
+    }
+
+    /**
+     * Tests if data with an unknown format version is rejected.
+     */
+    @Test
+    public void testBinaryFormatRejectsUnknownVersion() {
+        byte[] encoded = serializer.serializeToBytes(factory.createInteger(1));
+        encoded[1] = BinaryTypedDatumCodec.CURRENT_VERSION + 1;
+        exception.expect(IllegalArgumentException.class);
+        serializer.deserializeFromBytes(encoded);
+    }
+
+    /**
+     * Tests if the negotiation falls back to JSON if the remote instance made no or an unknown announcement.
+     */
+    @Test
+    public void testFormatNegotiation() {
+        assertEquals(TypedDatumSerializationFormat.JSON, TypedDatumSerializationFormat.negotiate(null));
+        assertEquals(TypedDatumSerializationFormat.JSON, TypedDatumSerializationFormat.negotiate("json,bin9"));
+        assertEquals(TypedDatumSerializationFormat.BINARY_V1,
+            TypedDatumSerializationFormat.negotiate(TypedDatumSerializationFormat.getSupportedFormatsAsString()));
+    }
+
     private String getNotAValueString(String identifier, NotAValueTD.Cause cause) {
         return StringUtils.format(JSON_STRING, DataType.NotAValue.getShortName(), StringUtils.format(
             "{\"id\":\"%s\",\"t\"" + ":\"%s\"}", identifier, cause.name()));
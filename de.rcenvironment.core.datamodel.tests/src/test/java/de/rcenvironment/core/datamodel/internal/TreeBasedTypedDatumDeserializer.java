@@ -0,0 +1,172 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamodel.internal;
+
+import java.io.IOException;
+import java.util.Date;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import de.rcenvironment.core.datamodel.api.DataType;
+import de.rcenvironment.core.datamodel.api.TypedDatum;
+import de.rcenvironment.core.datamodel.types.api.DirectoryReferenceTD;
+import de.rcenvironment.core.datamodel.types.api.FileReferenceTD;
+import de.rcenvironment.core.datamodel.types.api.MatrixTD;
+import de.rcenvironment.core.datamodel.types.api.NotAValueTD;
+import de.rcenvironment.core.datamodel.types.api.SmallTableTD;
+import de.rcenvironment.core.datamodel.types.api.VectorTD;
+import de.rcenvironment.core.utils.common.JsonUtils;
+import de.rcenvironment.core.utils.common.StringUtils;
+
+/**
+ * Reference implementation of the JSON deserialization of {@link DefaultTypedDatumSerializer}, which parses the input into a
+ * {@link JsonNode} tree first. This was the production implementation before the streaming parser was introduced; it is used to verify
+ * that both produce the same results, and as the baseline of {@link TypedDatumSerializerBenchmark}.
+ * 
+ * @author agent
+ */
+public class TreeBasedTypedDatumDeserializer {
+
+    private static final String UNABLE_TO_DESERIALIZE_STRING = "Could not deserialize \"%s\"";
+
+    private static final String FILE_NAME_STRING = "fileName";
+
+    private static final String FILE_REFERENCE_STRING = "fileReference";
+
+    private static final String FILE_SIZE_STRING = "fileSize";
+
+    private static final String DIRECTORY_NAME_STRING = "directoryName";
+
+    private static final String DIRECTORY_REFERENCE_STRING = "directoryReference";
+
+    private static final String DIRECTORY_SIZE_STRING = "directorySize";
+
+    private static final String LAST_MODIFIED_STRING = "lastModified";
+
+    private static final String TYPE_STRING = "t";
+
+    private static final String VALUE_STRING = "v";
+
+    private static final String ROW_STRING = "r";
+
+    private static final String COLUMN_STRING = "c";
+
+    private static final String ID_STRING = "id";
+
+    private static final String TABLE_REFERENCE_STRING = "tableReference";
+
+    private static final String ROW_COUNT_STRING = "rowCount";
+
+    private static final String COLUMN_TYPES_STRING = "columnTypes";
+
+    private static final ObjectMapper MAPPER = JsonUtils.getDefaultObjectMapper();
+
+    private final DefaultTypedDatumFactory factory = new DefaultTypedDatumFactory();
+
+    /**
+     * @param input the serialized data in JSON format
+     * @return the restored {@link TypedDatum}
+     * @throws IOException on parsing errors
+     */
+    public TypedDatum deserialize(String input) throws IOException {
+        JsonNode rootNode = MAPPER.readTree(input);
+        DataType dataType = DataType.byShortName(rootNode.get(TYPE_STRING).textValue());
+        JsonNode valueNode = rootNode.get(VALUE_STRING);
+        return getTypedDatumFromNode(dataType, rootNode, valueNode);
+    }
+
+    private TypedDatum getTypedDatumFromNode(DataType dataType, JsonNode rootNode, JsonNode valueNode) throws IOException {
+        switch (dataType) {
+        case Boolean:
+            return factory.createBoolean(valueNode.asBoolean());
+        case ShortText:
+            return factory.createShortText(valueNode.asText());
+        case Integer:
+            return factory.createInteger(valueNode.asLong());
+        case Float:
+            return factory.createFloat(valueNode.asDouble());
+        case DateTime:
+            return factory.createDateTime(valueNode.asLong());
+        case Vector:
+            VectorTD vector = factory.createVector(valueNode.size());
+            for (int i = 0; i < valueNode.size(); i++) {
+                vector.setFloatValueForElement(valueNode.get(i).asDouble(), i);
+            }
+            return vector;
+        case Matrix:
+            ArrayNode matrixArray = (ArrayNode) valueNode;
+            MatrixTD matrix = factory.createMatrix(rootNode.get(ROW_STRING).asInt(), rootNode.get(COLUMN_STRING).asInt());
+            for (int i = 0; i < matrixArray.size(); i++) {
+                ArrayNode matrixRowArray = (ArrayNode) matrixArray.get(i);
+                for (int j = 0; j < matrixRowArray.size(); j++) {
+                    matrix.setFloatValueForElement(matrixRowArray.get(j).asDouble(), i, j);
+                }
+            }
+            return matrix;
+        case SmallTable:
+            SmallTableTD smallTable =
+                factory.createSmallTable(rootNode.get(ROW_STRING).asInt(), rootNode.get(COLUMN_STRING).asInt());
+            ArrayNode tableArray = (ArrayNode) valueNode;
+            for (int i = 0; i < tableArray.size(); i++) {
+                ArrayNode tableRowArray = (ArrayNode) tableArray.get(i);
+                for (int j = 0; j < tableRowArray.size(); j++) {
+                    // cells of versions below 7.1 are serialized as strings
+                    if (tableRowArray.get(j) instanceof TextNode) {
+                        smallTable.setTypedDatumForCell(deserialize(tableRowArray.get(j).asText()), i, j);
+                    } else {
+                        DataType dataTypeTableEntry = DataType.byShortName(tableRowArray.get(j).get(TYPE_STRING).asText());
+                        JsonNode valueNodeTableEntry = tableRowArray.get(j).get(VALUE_STRING);
+                        smallTable.setTypedDatumForCell(
+                            getTypedDatumFromNode(dataTypeTableEntry, tableRowArray.get(j), valueNodeTableEntry), i, j);
+                    }
+                }
+            }
+            return smallTable;
+        case NotAValue:
+            if (valueNode.isValueNode()) {
+                String id = valueNode.textValue();
+                if (id.endsWith("_flr")) {
+                    return factory.createNotAValue(id, NotAValueTD.Cause.Failure);
+                } else {
+                    return factory.createNotAValue(id, NotAValueTD.Cause.InvalidInputs);
+                }
+            }
+            return factory.createNotAValue(valueNode.get(ID_STRING).textValue(),
+                NotAValueTD.Cause.valueOf(valueNode.get(TYPE_STRING).textValue()));
+        case Empty:
+            return factory.createEmpty();
+        case FileReference:
+            FileReferenceTD fileReference = factory.createFileReference(valueNode.get(FILE_REFERENCE_STRING).textValue(),
+                valueNode.get(FILE_NAME_STRING).textValue());
+            fileReference.setFileSize(valueNode.get(FILE_SIZE_STRING).longValue());
+            if (valueNode.has(LAST_MODIFIED_STRING) && !valueNode.get(LAST_MODIFIED_STRING).isNull()) {
+                fileReference.setLastModified(new Date(valueNode.get(LAST_MODIFIED_STRING).asLong()));
+            }
+            return fileReference;
+        case DirectoryReference:
+            DirectoryReferenceTD directoryReference = factory.createDirectoryReference(
+                valueNode.get(DIRECTORY_REFERENCE_STRING).textValue(), valueNode.get(DIRECTORY_NAME_STRING).textValue());
+            directoryReference.setDirectorySize(valueNode.get(DIRECTORY_SIZE_STRING).asLong());
+            return directoryReference;
+        case BigTable:
+            ArrayNode columnTypesArray = (ArrayNode) valueNode.get(COLUMN_TYPES_STRING);
+            DataType[] columnDataTypes = new DataType[columnTypesArray.size()];
+            for (int i = 0; i < columnTypesArray.size(); i++) {
+                columnDataTypes[i] = DataType.byShortName(columnTypesArray.get(i).textValue());
+            }
+            return factory.createBigTable(valueNode.get(TABLE_REFERENCE_STRING).textValue(),
+                valueNode.get(ROW_COUNT_STRING).asLong(), columnDataTypes);
+        default:
+            throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, rootNode.toString()));
+        }
+    }
+}
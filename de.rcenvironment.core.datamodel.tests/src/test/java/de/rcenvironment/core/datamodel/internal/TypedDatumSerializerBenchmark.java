@@ -0,0 +1,256 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamodel.internal;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import de.rcenvironment.core.datamodel.api.TypedDatum;
+import de.rcenvironment.core.datamodel.api.TypedDatumSerializationFormat;
+import de.rcenvironment.core.datamodel.types.api.SmallTableTD;
+
+/**
+ * JMH benchmark comparing the JSON and the binary format of {@link DefaultTypedDatumSerializer} for typical endpoint data, and
+ * the streaming JSON parser with the former tree-based one ({@link TreeBasedTypedDatumDeserializer}). Not part of the unit test
+ * suite; run it via {@link #main(String[])} (which also reports allocation rates) or the JMH command line runner.
+ * 
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypedDatumSerializerBenchmark {
+
+    /**
+     * The number of rows and columns of the benchmarked matrix and small table, and the dimension of the benchmarked vector.
+     */
+    @Param({ "10", "100" })
+    public int size;
+
+    private DefaultTypedDatumSerializer serializer;
+
+    private TreeBasedTypedDatumDeserializer treeDeserializer;
+
+    private TypedDatum vector;
+
+    private TypedDatum matrix;
+
+    private TypedDatum smallTable;
+
+    private String vectorJson;
+
+    private String vectorBinary;
+
+    private String matrixJson;
+
+    private String matrixBinary;
+
+    private String smallTableJson;
+
+    private String smallTableBinary;
+
+    /**
+     * Creates the test data and their serialized forms.
+     */
+    @Setup
+    public void setUp() {
+        final Random random = new Random(0);
+        DefaultTypedDatumFactory factory = new DefaultTypedDatumFactory();
+        serializer = new DefaultTypedDatumSerializer();
+        treeDeserializer = new TreeBasedTypedDatumDeserializer();
+
+        double[] vectorValues = new double[size];
+        double[][] matrixValues = new double[size][size];
+        SmallTableTD table = factory.createSmallTable(size, size);
+        for (int i = 0; i < size; i++) {
+            vectorValues[i] = random.nextDouble();
+            for (int j = 0; j < size; j++) {
+                matrixValues[i][j] = random.nextDouble();
+                if (j % 2 == 0) {
+                    table.setTypedDatumForCell(factory.createFloat(random.nextDouble()), i, j);
+                } else {
+                    table.setTypedDatumForCell(factory.createShortText(Integer.toString(random.nextInt())), i, j);
+                }
+            }
+        }
+        vector = factory.createVector(vectorValues);
+        matrix = factory.createMatrix(matrixValues);
+        smallTable = table;
+
+        vectorJson = serializer.serialize(vector);
+        vectorBinary = serializer.serialize(vector, TypedDatumSerializationFormat.BINARY_V1);
+        matrixJson = serializer.serialize(matrix);
+        matrixBinary = serializer.serialize(matrix, TypedDatumSerializationFormat.BINARY_V1);
+        smallTableJson = serializer.serialize(smallTable);
+        smallTableBinary = serializer.serialize(smallTable, TypedDatumSerializationFormat.BINARY_V1);
+    }
+
+    /**
+     * @return the serialized vector
+     */
+    @Benchmark
+    public String serializeVectorJson() {
+        return serializer.serialize(vector);
+    }
+
+    /**
+     * @return the serialized vector
+     */
+    @Benchmark
+    public String serializeVectorBinary() {
+        return serializer.serialize(vector, TypedDatumSerializationFormat.BINARY_V1);
+    }
+
+    /**
+     * @return the deserialized vector
+     */
+    @Benchmark
+    public TypedDatum deserializeVectorJson() {
+        return serializer.deserialize(vectorJson);
+    }
+
+    /**
+     * @return the deserialized vector, using the tree-based JSON parser
+     * @throws IOException on parsing errors
+     */
+    @Benchmark
+    public TypedDatum deserializeVectorJsonTree() throws IOException {
+        return treeDeserializer.deserialize(vectorJson);
+    }
+
+    /**
+     * @return the deserialized vector
+     */
+    @Benchmark
+    public TypedDatum deserializeVectorBinary() {
+        return serializer.deserialize(vectorBinary);
+    }
+
+    /**
+     * @return the serialized matrix
+     */
+    @Benchmark
+    public String serializeMatrixJson() {
+        return serializer.serialize(matrix);
+    }
+
+    /**
+     * @return the serialized matrix
+     */
+    @Benchmark
+    public String serializeMatrixBinary() {
+        return serializer.serialize(matrix, TypedDatumSerializationFormat.BINARY_V1);
+    }
+
+    /**
+     * @return the serialized matrix, without the string wrapping
+     */
+    @Benchmark
+    public byte[] serializeMatrixBinaryRaw() {
+        return serializer.serializeToBytes(matrix);
+    }
+
+    /**
+     * @return the deserialized matrix
+     */
+    @Benchmark
+    public TypedDatum deserializeMatrixJson() {
+        return serializer.deserialize(matrixJson);
+    }
+
+    /**
+     * @return the deserialized matrix, using the tree-based JSON parser
+     * @throws IOException on parsing errors
+     */
+    @Benchmark
+    public TypedDatum deserializeMatrixJsonTree() throws IOException {
+        return treeDeserializer.deserialize(matrixJson);
+    }
+
+    /**
+     * @return the deserialized matrix
+     */
+    @Benchmark
+    public TypedDatum deserializeMatrixBinary() {
+        return serializer.deserialize(matrixBinary);
+    }
+
+    /**
+     * @return the serialized small table
+     */
+    @Benchmark
+    public String serializeSmallTableJson() {
+        return serializer.serialize(smallTable);
+    }
+
+    /**
+     * @return the serialized small table
+     */
+    @Benchmark
+    public String serializeSmallTableBinary() {
+        return serializer.serialize(smallTable, TypedDatumSerializationFormat.BINARY_V1);
+    }
+
+    /**
+     * @return the deserialized small table
+     */
+    @Benchmark
+    public TypedDatum deserializeSmallTableJson() {
+        return serializer.deserialize(smallTableJson);
+    }
+
+    /**
+     * @return the deserialized small table, using the tree-based JSON parser
+     * @throws IOException on parsing errors
+     */
+    @Benchmark
+    public TypedDatum deserializeSmallTableJsonTree() throws IOException {
+        return treeDeserializer.deserialize(smallTableJson);
+    }
+
+    /**
+     * @return the deserialized small table
+     */
+    @Benchmark
+    public TypedDatum deserializeSmallTableBinary() {
+        return serializer.deserialize(smallTableBinary);
+    }
+
+    /**
+     * Runs this benchmark.
+     * 
+     * @param args not used
+     * @throws RunnerException on benchmark failure
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TypedDatumSerializerBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+
+}
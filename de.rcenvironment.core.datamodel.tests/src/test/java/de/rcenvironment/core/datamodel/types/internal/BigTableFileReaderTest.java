@@ -0,0 +1,205 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamodel.types.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.rcenvironment.core.datamodel.api.DataType;
+import de.rcenvironment.core.datamodel.types.api.BigTableColumnCursor;
+import de.rcenvironment.core.datamodel.types.api.BigTableRowCursor;
+import de.rcenvironment.core.datamodel.types.api.BigTableWriter;
+import de.rcenvironment.core.utils.common.TempFileServiceAccess;
+
+/**
+ * Test cases for {@link BigTableFileWriter} and {@link BigTableFileReader}.
+ * 
+ * @author agent
+ */
+public class BigTableFileReaderTest {
+
+    private static final int ROW_COUNT = 10000;
+
+    private static final double DELTA = 0.0;
+
+    private File tempDir;
+
+    private File tableFile;
+
+    /**
+     * Creates the temporary directory.
+     * 
+     * @throws IOException on unexpected errors
+     */
+    @Before
+    public void setUp() throws IOException {
+        TempFileServiceAccess.setupUnitTestEnvironment();
+        tempDir = TempFileServiceAccess.getInstance().createManagedTempDir();
+        tableFile = new File(tempDir, "table.rcebt");
+    }
+
+    /**
+     * Deletes the temporary directory.
+     * 
+     * @throws IOException on unexpected errors
+     */
+    @After
+    public void tearDown() throws IOException {
+        TempFileServiceAccess.getInstance().disposeManagedTempDirOrFile(tempDir);
+    }
+
+    /**
+     * Tests if a table with mixed column types can be read back by rows and by columns.
+     * 
+     * @throws IOException on unexpected errors
+     */
+    @Test
+    public void testWriteAndReadMixedColumns() throws IOException {
+        try (BigTableWriter writer = new BigTableFileWriter(tableFile, DataType.Float, DataType.Integer, DataType.ShortText,
+            DataType.Boolean)) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                if (i % 10 == 0) {
+                    writer.appendRow(new FloatTDImpl(i * 0.5), new IntegerTDImpl(i), new EmptyTDImpl(), new BooleanTDImpl(true));
+                } else {
+                    writer.appendRow(new FloatTDImpl(i * 0.5), new IntegerTDImpl(i), new ShortTextTDImpl("row" + i),
+                        new BooleanTDImpl(false));
+                }
+            }
+            assertEquals(ROW_COUNT, writer.getRowCount());
+        }
+        // only the table file itself must remain
+        assertEquals(1, tempDir.list().length);
+
+        try (BigTableFileReader reader = new BigTableFileReader(tableFile)) {
+            assertEquals(ROW_COUNT, reader.getRowCount());
+            assertEquals(4, reader.getColumnCount());
+            assertEquals(DataType.ShortText, reader.getColumnDataType(2));
+
+            try (BigTableRowCursor rows = reader.openRowCursor()) {
+                int i = 0;
+                while (rows.next()) {
+                    assertEquals(i, rows.getRowIndex());
+                    assertEquals(i * 0.5, rows.getFloatValue(0), DELTA);
+                    assertEquals(i, rows.getIntegerValue(1));
+                    assertEquals(i % 10 == 0, rows.isEmpty(2));
+                    if (i % 10 != 0) {
+                        assertEquals("row" + i, rows.getShortTextValue(2));
+                        assertEquals(new ShortTextTDImpl("row" + i), rows.getTypedDatum(2));
+                    } else {
+                        assertEquals(DataType.Empty, rows.getTypedDatum(2).getDataType());
+                    }
+                    assertEquals(i % 10 == 0, rows.getBooleanValue(3));
+                    i++;
+                }
+                assertEquals(ROW_COUNT, i);
+            }
+
+            try (BigTableColumnCursor column = reader.openColumnCursor(1)) {
+                long sum = 0;
+                while (column.next()) {
+                    sum += column.getIntegerValue();
+                }
+                assertEquals((long) ROW_COUNT * (ROW_COUNT - 1) / 2, sum);
+            }
+        }
+    }
+
+    /**
+     * Tests the primitive write path and type checks.
+     * 
+     * @throws IOException on unexpected errors
+     */
+    @Test
+    public void testPrimitiveRowsAndTypeChecks() throws IOException {
+        try (BigTableWriter writer = new BigTableFileWriter(tableFile, DataType.Float, DataType.Float)) {
+            writer.appendRow(1.0, 2.0);
+            writer.appendRow(3.0, 4.0);
+            try {
+                writer.appendRow(new FloatTDImpl(1.0), new IntegerTDImpl(2));
+                fail("IllegalArgumentException expected");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains("does not match"));
+            }
+        }
+
+        try (BigTableFileReader reader = new BigTableFileReader(tableFile);
+            BigTableColumnCursor column = reader.openColumnCursor(1)) {
+            assertEquals(2, reader.getRowCount());
+            assertTrue(column.next());
+            assertEquals(2.0, column.getFloatValue(), DELTA);
+            try {
+                column.getIntegerValue();
+                fail("IllegalStateException expected");
+            } catch (IllegalStateException e) {
+                assertTrue(e.getMessage().contains("not"));
+            }
+            assertTrue(column.next());
+            assertEquals(4.0, column.getFloatValue(), DELTA);
+            assertFalse(column.next());
+        }
+    }
+
+    /**
+     * Tests if a row rejected because of a mismatching cell type leaves no partial row behind, so that subsequent rows are read back
+     * correctly.
+     * 
+     * @throws IOException on unexpected errors
+     */
+    @Test
+    public void testRejectedRowDoesNotCorruptTable() throws IOException {
+        try (BigTableWriter writer = new BigTableFileWriter(tableFile, DataType.Integer, DataType.ShortText, DataType.Float)) {
+            writer.appendRow(new IntegerTDImpl(1), new ShortTextTDImpl("first"), new FloatTDImpl(1.5));
+            try {
+                writer.appendRow(new IntegerTDImpl(2), new ShortTextTDImpl("rejected"), new IntegerTDImpl(3));
+                fail("IllegalArgumentException expected");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains("does not match"));
+            }
+            writer.appendRow(new IntegerTDImpl(4), new EmptyTDImpl(), new FloatTDImpl(4.5));
+            assertEquals(2, writer.getRowCount());
+        }
+
+        try (BigTableFileReader reader = new BigTableFileReader(tableFile);
+            BigTableRowCursor rows = reader.openRowCursor()) {
+            assertEquals(2, reader.getRowCount());
+            assertTrue(rows.next());
+            assertEquals(1, rows.getIntegerValue(0));
+            assertEquals("first", rows.getShortTextValue(1));
+            assertEquals(1.5, rows.getFloatValue(2), DELTA);
+            assertTrue(rows.next());
+            assertEquals(4, rows.getIntegerValue(0));
+            assertTrue(rows.isEmpty(1));
+            assertEquals(4.5, rows.getFloatValue(2), DELTA);
+            assertFalse(rows.next());
+        }
+    }
+
+    /**
+     * Tests if files of other formats are rejected.
+     * 
+     * @throws IOException on unexpected errors
+     */
+    @Test(expected = IOException.class)
+    public void testInvalidFile() throws IOException {
+        Files.write(tableFile.toPath(), "no big table file content".getBytes(StandardCharsets.UTF_8));
+        new BigTableFileReader(tableFile).close();
+    }
+
+}
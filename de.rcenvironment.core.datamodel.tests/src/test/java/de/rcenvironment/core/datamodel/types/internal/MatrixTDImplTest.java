@@ -0,0 +1,126 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamodel.types.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import de.rcenvironment.core.datamodel.types.api.FloatTD;
+import de.rcenvironment.core.datamodel.types.api.MatrixTD;
+import de.rcenvironment.core.datamodel.types.api.VectorTD;
+
+/**
+ * Test cases for {@link MatrixTDImpl} and {@link VectorTDImpl}.
+ * 
+ * @author agent
+ */
+public class MatrixTDImplTest {
+
+    private static final double DELTA = 0.0;
+
+    private static final int ROWS = 3;
+
+    private static final int COLUMNS = 4;
+
+    /**
+     * Tests if copies returned by the sub-matrix and row/column vector methods are independent of the matrix.
+     */
+    @Test
+    public void testCopiesAreIndependent() {
+        MatrixTD matrix = createMatrix();
+
+        MatrixTD subMatrix = matrix.getSubMatrix(1, 1, ROWS, COLUMNS);
+        VectorTD row = matrix.getRowVector(1);
+        VectorTD column = matrix.getColumnVector(2);
+        matrix.setFloatValueForElement(-1.0, 1, 2);
+
+        assertEquals(12.0, subMatrix.getFloatValueOfElement(0, 1), DELTA);
+        assertEquals(12.0, row.getFloatValueOfElement(2), DELTA);
+        assertEquals(12.0, column.getFloatValueOfElement(1), DELTA);
+    }
+
+    /**
+     * Tests if views share the values with the matrix they were derived from.
+     */
+    @Test
+    public void testViewsShareValues() {
+        MatrixTD matrix = createMatrix();
+
+        MatrixTD subMatrix = matrix.getSubMatrixView(1, 1, ROWS, COLUMNS);
+        assertEquals(2, subMatrix.getRowDimension());
+        assertEquals(3, subMatrix.getColumnDimension());
+        assertEquals(23.0, subMatrix.getFloatValueOfElement(1, 2), DELTA);
+
+        VectorTD column = subMatrix.getColumnVectorView(1);
+        assertArrayEquals(new double[] { 12.0, 22.0 }, column.toDoubleArray(), DELTA);
+        VectorTD row = matrix.getRowVectorView(2);
+        assertArrayEquals(new double[] { 20.0, 21.0, 22.0, 23.0 }, row.toDoubleArray(), DELTA);
+        VectorTD subVector = row.getSubVectorView(1, 3);
+        assertArrayEquals(new double[] { 21.0, 22.0 }, subVector.toDoubleArray(), DELTA);
+
+        column.setFloatValueForElement(-1.0, 1);
+        assertEquals(-1.0, matrix.getFloatValueOfElement(2, 2), DELTA);
+        assertEquals(-1.0, subVector.getFloatValueOfElement(1), DELTA);
+        subVector.setFloatTDForElement(new FloatTDImpl(-2.0), 0);
+        assertEquals(-2.0, matrix.getFloatValueOfElement(2, 1), DELTA);
+    }
+
+    /**
+     * Tests if the bulk accessors and the {@link FloatTD}-based accessors return the same values.
+     */
+    @Test
+    public void testBulkAccessors() {
+        MatrixTD matrix = createMatrix();
+
+        double[][] values = matrix.toDoubleArray();
+        FloatTD[][] floatTDs = matrix.toArray();
+        for (int i = 0; i < ROWS; i++) {
+            for (int j = 0; j < COLUMNS; j++) {
+                assertEquals(values[i][j], floatTDs[i][j].getFloatValue(), DELTA);
+                assertEquals(values[i][j], matrix.getFloatTDOfElement(i, j).getFloatValue(), DELTA);
+            }
+        }
+        values[0][0] = -1.0;
+        assertEquals(0.0, matrix.getFloatValueOfElement(0, 0), DELTA);
+    }
+
+    /**
+     * Tests if equality is based on dimensions and values, independent of whether an instance is a view or a copy.
+     */
+    @Test
+    public void testEqualsAndHashCode() {
+        MatrixTD matrix = createMatrix();
+
+        MatrixTD view = matrix.getSubMatrixView(0, 1, 2, 3);
+        MatrixTD copy = matrix.getSubMatrix(0, 1, 2, 3);
+        assertEquals(view, copy);
+        assertEquals(view.hashCode(), copy.hashCode());
+        assertEquals(new MatrixTDImpl(copy.toArray()), view);
+
+        assertEquals(matrix.getRowVectorView(1), new VectorTDImpl(new double[] { 10.0, 11.0, 12.0, 13.0 }));
+        assertEquals(matrix.getRowVectorView(1).hashCode(), new VectorTDImpl(new double[] { 10.0, 11.0, 12.0, 13.0 }).hashCode());
+
+        assertNotEquals(matrix, view);
+        assertNotEquals(matrix.getSubMatrixView(0, 0, 2, 2), matrix.getSubMatrixView(0, 0, 2, 3));
+    }
+
+    private MatrixTD createMatrix() {
+        double[][] values = new double[ROWS][COLUMNS];
+        for (int i = 0; i < ROWS; i++) {
+            for (int j = 0; j < COLUMNS; j++) {
+                values[i][j] = i * 10 + j;
+            }
+        }
+        return new MatrixTDImpl(values);
+    }
+
+}
@@ -15,8 +15,13 @@ package de.rcenvironment.core.datamodel.api;
  */
 public enum CompressionFormat {
 
-    /** no compression. */
+    /** no compression; used to store data that is already compressed. */
     NONE,
     /** gzip compression. */
-    GZIP
+    GZIP,
+    /**
+     * gzip compression at the fastest level, applied to independent blocks concurrently; the result is a multi-member gzip stream. Trades
+     * compression ratio for throughput on large data.
+     */
+    GZIP_FAST
 }
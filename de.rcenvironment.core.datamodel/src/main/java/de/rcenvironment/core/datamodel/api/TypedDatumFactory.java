@@ -8,6 +8,12 @@
 
 package de.rcenvironment.core.datamodel.api;
 
+import java.io.File;
+import java.io.IOException;
+
+import de.rcenvironment.core.datamodel.types.api.BigTableReader;
+import de.rcenvironment.core.datamodel.types.api.BigTableTD;
+import de.rcenvironment.core.datamodel.types.api.BigTableWriter;
 import de.rcenvironment.core.datamodel.types.api.BooleanTD;
 import de.rcenvironment.core.datamodel.types.api.DateTimeTD;
 import de.rcenvironment.core.datamodel.types.api.DirectoryReferenceTD;
@@ -67,6 +73,12 @@ public interface TypedDatumFactory {
      */
     VectorTD createVector(FloatTD[] values);
 
+    /**
+     * @param values Given vector entries; the array is copied
+     * @return a {@link VectorTD} instance
+     */
+    VectorTD createVector(double[] values);
+
     /**
      * @param column of the matrix
      * @param row of the matrix
@@ -79,6 +91,12 @@ public interface TypedDatumFactory {
      * @return a {@link MatrixTD} instance
      */
     MatrixTD createMatrix(FloatTD[][] values);
+
+    /**
+     * @param values predefined values for the matrix ([row][column]); the arrays are copied
+     * @return a {@link MatrixTD} instance
+     */
+    MatrixTD createMatrix(double[][] values);
     
     /**
      * @param rows row dimension
@@ -92,6 +110,33 @@ public interface TypedDatumFactory {
      * @return a {@link SmallTableTD} instance
      */
     SmallTableTD createSmallTable(TypedDatum[][] tableEntries);
+
+    /**
+     * @param tableReference data management reference to a table file written by a {@link BigTableWriter}
+     * @param rowCount number of rows of the table
+     * @param columnDataTypes data types of the table's columns
+     * @return a {@link BigTableTD} instance
+     */
+    BigTableTD createBigTable(String tableReference, long rowCount, DataType[] columnDataTypes);
+
+    /**
+     * Creates a writer for a local table file, which can be uploaded to the data management afterwards to create a
+     * {@link BigTableTD}.
+     * 
+     * @param tableFile the local file to write; it is overwritten if it exists
+     * @param columnDataTypes data types of the table's columns; each must be valid according to
+     *        {@link DataType#isValidCellType()}
+     * @return a {@link BigTableWriter}; must be closed to complete the file
+     * @throws IOException if the temporary column files could not be created
+     */
+    BigTableWriter createBigTableWriter(File tableFile, DataType... columnDataTypes) throws IOException;
+
+    /**
+     * @param tableFile a local table file, e.g. fetched from the data management via {@link BigTableTD#getTableReference()}
+     * @return a {@link BigTableReader}; must be closed after use
+     * @throws IOException if the file could not be opened or is no valid table file
+     */
+    BigTableReader createBigTableReader(File tableFile) throws IOException;
     
     /**
      * @param dateTime the datum has to represent
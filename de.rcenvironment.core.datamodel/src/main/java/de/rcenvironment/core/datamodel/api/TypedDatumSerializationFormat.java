@@ -0,0 +1,102 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamodel.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The formats a {@link TypedDatumSerializer} can produce. {@link TypedDatumSerializer#deserialize(String)} accepts all of them, so
+ * the format only needs to be chosen on the sending side. As older RCE instances only understand {@link #JSON}, a sender must
+ * only use another format if the receiver has announced support for it (see {@link #getSupportedFormatsAsString()} and
+ * {@link #negotiate(String)}).
+ * 
+ * @author agent
+ */
+public enum TypedDatumSerializationFormat {
+
+    /** The JSON format; understood by all RCE versions. */
+    JSON("json", "{"),
+
+    /** Version 1 of the compact binary format; wrapped into a prefixed Base64 string when a string representation is required. */
+    BINARY_V1("bin1", "#");
+
+    private static final String LIST_SEPARATOR = ",";
+
+    private final String identifier;
+
+    private final String stringPrefix;
+
+    TypedDatumSerializationFormat(String identifier, String stringPrefix) {
+        this.identifier = identifier;
+        this.stringPrefix = stringPrefix;
+    }
+
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    /**
+     * @return the prefix all string representations in this format start with
+     */
+    public String getStringPrefix() {
+        return stringPrefix;
+    }
+
+    /**
+     * Detects the format of a serialized {@link TypedDatum}.
+     * 
+     * @param serializedDatum the string representation of a {@link TypedDatum}
+     * @return the detected format; {@link #JSON} if the input does not start with the prefix of any other format
+     */
+    public static TypedDatumSerializationFormat detect(String serializedDatum) {
+        for (TypedDatumSerializationFormat format : values()) {
+            if (format != JSON && serializedDatum.startsWith(format.stringPrefix)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * @return the identifiers of all formats the local instance can read, in a form suitable for announcing them to other instances
+     */
+    public static String getSupportedFormatsAsString() {
+        List<String> identifiers = new ArrayList<>();
+        for (TypedDatumSerializationFormat format : values()) {
+            identifiers.add(format.identifier);
+        }
+        return String.join(LIST_SEPARATOR, identifiers);
+    }
+
+    /**
+     * Selects the most efficient format that the local instance and a remote instance have in common.
+     * 
+     * @param remoteSupportedFormats the formats announced by the remote instance, as created by
+     *        {@link #getSupportedFormatsAsString()} on that instance; null if the instance made no announcement (e.g. because of an
+     *        older RCE version)
+     * @return the format to use when sending to that instance; {@link #JSON} if there is no better common format
+     */
+    public static TypedDatumSerializationFormat negotiate(String remoteSupportedFormats) {
+        if (remoteSupportedFormats == null) {
+            return JSON;
+        }
+        TypedDatumSerializationFormat result = JSON;
+        for (String remoteIdentifier : remoteSupportedFormats.split(LIST_SEPARATOR)) {
+            for (TypedDatumSerializationFormat format : values()) {
+                // later enum constants are preferred over earlier ones
+                if (format.identifier.equals(remoteIdentifier.trim()) && format.ordinal() > result.ordinal()) {
+                    result = format;
+                }
+            }
+        }
+        return result;
+    }
+
+}
@@ -17,7 +17,8 @@ package de.rcenvironment.core.datamodel.api;
 public interface TypedDatumSerializer {
 
     /**
-     * Restores a {@link TypedDatum} from its serialized form.
+     * Restores a {@link TypedDatum} from its serialized form. All {@link TypedDatumSerializationFormat}s are accepted; the format is
+     * detected from the input.
      * 
      * @param input the serialized data
      * @return the restored {@link TypedDatum}
@@ -26,10 +27,37 @@ public interface TypedDatumSerializer {
     TypedDatum deserialize(String input);
 
     /**
-     * Converts a {@link TypedDatum} to its serialized form.
+     * Converts a {@link TypedDatum} to its serialized form, using {@link TypedDatumSerializationFormat#JSON}.
      * 
      * @param input the {@link TypedDatum}
      * @return the serialized data
      */
     String serialize(TypedDatum input);
+
+    /**
+     * Converts a {@link TypedDatum} to its serialized form, using the given format. Only use formats other than
+     * {@link TypedDatumSerializationFormat#JSON} if the receiver is known to support them.
+     * 
+     * @param input the {@link TypedDatum}
+     * @param format the format to use
+     * @return the serialized data
+     */
+    String serialize(TypedDatum input, TypedDatumSerializationFormat format);
+
+    /**
+     * Converts a {@link TypedDatum} to the latest version of the binary format, without wrapping it into a string.
+     * 
+     * @param input the {@link TypedDatum}
+     * @return the serialized data
+     */
+    byte[] serializeToBytes(TypedDatum input);
+
+    /**
+     * Restores a {@link TypedDatum} from the output of {@link #serializeToBytes(TypedDatum)}. Data written by older versions of the
+     * binary format is accepted as well.
+     * 
+     * @param input the serialized data
+     * @return the restored {@link TypedDatum}
+     */
+    TypedDatum deserializeFromBytes(byte[] input);
 }
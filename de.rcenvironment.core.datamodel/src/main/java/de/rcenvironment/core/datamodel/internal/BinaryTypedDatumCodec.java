@@ -0,0 +1,412 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamodel.internal;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import de.rcenvironment.core.datamodel.api.DataType;
+import de.rcenvironment.core.datamodel.api.TypedDatum;
+import de.rcenvironment.core.datamodel.api.TypedDatumFactory;
+import de.rcenvironment.core.datamodel.api.TypedDatumSerializationFormat;
+import de.rcenvironment.core.datamodel.types.api.BigTableTD;
+import de.rcenvironment.core.datamodel.types.api.BooleanTD;
+import de.rcenvironment.core.datamodel.types.api.DateTimeTD;
+import de.rcenvironment.core.datamodel.types.api.DirectoryReferenceTD;
+import de.rcenvironment.core.datamodel.types.api.FileReferenceTD;
+import de.rcenvironment.core.datamodel.types.api.FloatTD;
+import de.rcenvironment.core.datamodel.types.api.IntegerTD;
+import de.rcenvironment.core.datamodel.types.api.MatrixTD;
+import de.rcenvironment.core.datamodel.types.api.NotAValueTD;
+import de.rcenvironment.core.datamodel.types.api.ShortTextTD;
+import de.rcenvironment.core.datamodel.types.api.SmallTableTD;
+import de.rcenvironment.core.datamodel.types.api.VectorTD;
+import de.rcenvironment.core.utils.common.StringUtils;
+
+/**
+ * Encodes and decodes {@link TypedDatum}s in the binary format used by {@link DefaultTypedDatumSerializer}.
+ * 
+ * Layout: a magic byte and a format version byte, followed by the datum. Each datum starts with a type code byte (see the TYPE_*
+ * constants; these are part of the format and must never be reassigned), followed by a type-specific payload. Numbers are written
+ * in big-endian order; vectors and matrices (row-major) are written as packed arrays of doubles preceded by their dimensions; small
+ * table cells are written as nested data. Strings are written as their UTF-8 length (-1 for null) followed by the UTF-8 bytes.
+ * 
+ * @author agent
+ */
+final class BinaryTypedDatumCodec {
+
+    static final byte CURRENT_VERSION = 1;
+
+    private static final byte MAGIC = (byte) 0xD7;
+
+    private static final byte TYPE_EMPTY = 0;
+
+    private static final byte TYPE_BOOLEAN = 1;
+
+    private static final byte TYPE_INTEGER = 2;
+
+    private static final byte TYPE_FLOAT = 3;
+
+    private static final byte TYPE_SHORT_TEXT = 4;
+
+    private static final byte TYPE_DATE_TIME = 5;
+
+    private static final byte TYPE_VECTOR = 6;
+
+    private static final byte TYPE_MATRIX = 7;
+
+    private static final byte TYPE_SMALL_TABLE = 8;
+
+    private static final byte TYPE_FILE_REFERENCE = 9;
+
+    private static final byte TYPE_DIRECTORY_REFERENCE = 10;
+
+    private static final byte TYPE_NOT_A_VALUE = 11;
+
+    private static final byte TYPE_BIG_TABLE = 12;
+
+    private static final int INITIAL_BUFFER_SIZE = 64;
+
+    private static final int DOUBLE_BYTES = 8;
+
+    private static final int LONG_BYTES = 8;
+
+    private static final int INT_BYTES = 4;
+
+    private static final String STRING_PREFIX = TypedDatumSerializationFormat.BINARY_V1.getStringPrefix();
+
+    private static final String UNABLE_TO_SERIALIZE_STRING = "Serialization of %s is not supported.";
+
+    private static final String UNABLE_TO_DESERIALIZE_STRING = "Could not deserialize binary typed datum: %s";
+
+    private final TypedDatumFactory factory = new DefaultTypedDatumFactory();
+
+    private ByteBuffer buffer;
+
+    /**
+     * @param input the serialized form of a {@link TypedDatum}
+     * @return true if the input is the string representation of the binary format
+     */
+    static boolean isStringRepresentation(String input) {
+        return TypedDatumSerializationFormat.detect(input) == TypedDatumSerializationFormat.BINARY_V1;
+    }
+
+    /**
+     * Wraps the binary format into a string.
+     * 
+     * @param encoded the output of {@link #encode(TypedDatum)}
+     * @return the string representation
+     */
+    static String toStringRepresentation(byte[] encoded) {
+        return STRING_PREFIX + Base64.getEncoder().encodeToString(encoded);
+    }
+
+    /**
+     * Unwraps the binary format from its string representation.
+     * 
+     * @param input a string created by {@link #toStringRepresentation(byte[])}
+     * @return the binary format
+     */
+    static byte[] fromStringRepresentation(String input) {
+        try {
+            return Base64.getDecoder().decode(input.substring(STRING_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, "invalid Base64 encoding"), e);
+        }
+    }
+
+    /**
+     * Encodes a {@link TypedDatum} using the current format version. Instances are not thread-safe.
+     * 
+     * @param input the datum to encode
+     * @return the binary format
+     */
+    byte[] encode(TypedDatum input) {
+        buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        buffer.put(MAGIC);
+        buffer.put(CURRENT_VERSION);
+        writeDatum(input);
+        byte[] result = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(result);
+        buffer = null;
+        return result;
+    }
+
+    /**
+     * Decodes a {@link TypedDatum}. Instances are not thread-safe.
+     * 
+     * @param input the binary format
+     * @return the decoded datum
+     */
+    TypedDatum decode(byte[] input) {
+        buffer = ByteBuffer.wrap(input);
+        try {
+            if (buffer.remaining() < 2 || buffer.get() != MAGIC) {
+                throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, "missing format header"));
+            }
+            byte version = buffer.get();
+            if (version < 1 || version > CURRENT_VERSION) {
+                throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, "unsupported format version "
+                    + version));
+            }
+            TypedDatum result = readDatum();
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, buffer.remaining()
+                    + " unexpected trailing bytes"));
+            }
+            return result;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, "unexpected end of data"), e);
+        } finally {
+            buffer = null;
+        }
+    }
+
+    private void writeDatum(TypedDatum input) {
+        if (input == null || input.getDataType() == null) {
+            throw new NullPointerException();
+        }
+        switch (input.getDataType()) {
+        case Empty:
+            putByte(TYPE_EMPTY);
+            break;
+        case Boolean:
+            putByte(TYPE_BOOLEAN);
+            putBoolean(((BooleanTD) input).getBooleanValue());
+            break;
+        case Integer:
+            putByte(TYPE_INTEGER);
+            putLong(((IntegerTD) input).getIntValue());
+            break;
+        case Float:
+            putByte(TYPE_FLOAT);
+            ensureCapacity(DOUBLE_BYTES);
+            buffer.putDouble(((FloatTD) input).getFloatValue());
+            break;
+        case ShortText:
+            putByte(TYPE_SHORT_TEXT);
+            putString(((ShortTextTD) input).getShortTextValue());
+            break;
+        case DateTime:
+            putByte(TYPE_DATE_TIME);
+            putLong(((DateTimeTD) input).getDateTimeInMilliseconds());
+            break;
+        case Vector:
+            VectorTD vector = (VectorTD) input;
+            putByte(TYPE_VECTOR);
+            putInt(vector.getRowDimension());
+            putDoubles(vector.toDoubleArray());
+            break;
+        case Matrix:
+            MatrixTD matrix = (MatrixTD) input;
+            putByte(TYPE_MATRIX);
+            putInt(matrix.getRowDimension());
+            putInt(matrix.getColumnDimension());
+            for (int i = 0; i < matrix.getRowDimension(); i++) {
+                putDoubles(matrix.getRowVectorView(i).toDoubleArray());
+            }
+            break;
+        case SmallTable:
+            SmallTableTD smallTable = (SmallTableTD) input;
+            putByte(TYPE_SMALL_TABLE);
+            putInt(smallTable.getRowCount());
+            putInt(smallTable.getColumnCount());
+            for (int i = 0; i < smallTable.getRowCount(); i++) {
+                for (int j = 0; j < smallTable.getColumnCount(); j++) {
+                    writeDatum(smallTable.getTypedDatumOfCell(i, j));
+                }
+            }
+            break;
+        case FileReference:
+            FileReferenceTD fileReference = (FileReferenceTD) input;
+            putByte(TYPE_FILE_REFERENCE);
+            putString(fileReference.getFileReference());
+            putString(fileReference.getFileName());
+            putLong(fileReference.getFileSizeInBytes());
+            putBoolean(fileReference.getLastModified() != null);
+            if (fileReference.getLastModified() != null) {
+                putLong(fileReference.getLastModified().getTime());
+            }
+            break;
+        case DirectoryReference:
+            DirectoryReferenceTD directoryReference = (DirectoryReferenceTD) input;
+            putByte(TYPE_DIRECTORY_REFERENCE);
+            putString(directoryReference.getDirectoryReference());
+            putString(directoryReference.getDirectoryName());
+            putLong(directoryReference.getDirectorySizeInBytes());
+            break;
+        case NotAValue:
+            NotAValueTD notAValue = (NotAValueTD) input;
+            putByte(TYPE_NOT_A_VALUE);
+            putString(notAValue.getIdentifier());
+            putString(notAValue.getCause().name());
+            break;
+        case BigTable:
+            BigTableTD bigTable = (BigTableTD) input;
+            putByte(TYPE_BIG_TABLE);
+            putString(bigTable.getTableReference());
+            putLong(bigTable.getRowCount());
+            putInt(bigTable.getColumnCount());
+            for (int i = 0; i < bigTable.getColumnCount(); i++) {
+                putString(bigTable.getColumnDataType(i).getShortName());
+            }
+            break;
+        case StructuredData:
+        default:
+            throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_SERIALIZE_STRING, input.getDataType().getDisplayName()));
+        }
+    }
+
+    private TypedDatum readDatum() {
+        byte typeCode = buffer.get();
+        switch (typeCode) {
+        case TYPE_EMPTY:
+            return factory.createEmpty();
+        case TYPE_BOOLEAN:
+            return factory.createBoolean(buffer.get() != 0);
+        case TYPE_INTEGER:
+            return factory.createInteger(buffer.getLong());
+        case TYPE_FLOAT:
+            return factory.createFloat(buffer.getDouble());
+        case TYPE_SHORT_TEXT:
+            return factory.createShortText(readString());
+        case TYPE_DATE_TIME:
+            return factory.createDateTime(buffer.getLong());
+        case TYPE_VECTOR:
+            return factory.createVector(readDoubles(readDimension()));
+        case TYPE_MATRIX:
+            int rowDimension = readDimension();
+            int columnDimension = readDimension();
+            if (rowDimension == 0) {
+                return factory.createMatrix(rowDimension, columnDimension);
+            }
+            double[][] matrixValues = new double[rowDimension][];
+            for (int i = 0; i < rowDimension; i++) {
+                matrixValues[i] = readDoubles(columnDimension);
+            }
+            return factory.createMatrix(matrixValues);
+        case TYPE_SMALL_TABLE:
+            int rowCount = readDimension();
+            int columnCount = readDimension();
+            SmallTableTD smallTable = factory.createSmallTable(rowCount, columnCount);
+            for (int i = 0; i < rowCount; i++) {
+                for (int j = 0; j < columnCount; j++) {
+                    smallTable.setTypedDatumForCell(readDatum(), i, j);
+                }
+            }
+            return smallTable;
+        case TYPE_FILE_REFERENCE:
+            FileReferenceTD fileReference = factory.createFileReference(readString(), readString());
+            fileReference.setFileSize(buffer.getLong());
+            if (buffer.get() != 0) {
+                fileReference.setLastModified(new Date(buffer.getLong()));
+            }
+            return fileReference;
+        case TYPE_DIRECTORY_REFERENCE:
+            DirectoryReferenceTD directoryReference = factory.createDirectoryReference(readString(), readString());
+            directoryReference.setDirectorySize(buffer.getLong());
+            return directoryReference;
+        case TYPE_NOT_A_VALUE:
+            return factory.createNotAValue(readString(), NotAValueTD.Cause.valueOf(readString()));
+        case TYPE_BIG_TABLE:
+            String tableReference = readString();
+            long bigTableRowCount = buffer.getLong();
+            DataType[] columnDataTypes = new DataType[readDimension()];
+            for (int i = 0; i < columnDataTypes.length; i++) {
+                columnDataTypes[i] = DataType.byShortName(readString());
+            }
+            return factory.createBigTable(tableReference, bigTableRowCount, columnDataTypes);
+        default:
+            throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, "unknown type code " + typeCode));
+        }
+    }
+
+    private void ensureCapacity(int additionalBytes) {
+        if (buffer.remaining() < additionalBytes) {
+            ByteBuffer newBuffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + additionalBytes));
+            buffer.flip();
+            newBuffer.put(buffer);
+            buffer = newBuffer;
+        }
+    }
+
+    private void putByte(byte value) {
+        ensureCapacity(1);
+        buffer.put(value);
+    }
+
+    private void putBoolean(boolean value) {
+        putByte((byte) (value ? 1 : 0));
+    }
+
+    private void putInt(int value) {
+        ensureCapacity(INT_BYTES);
+        buffer.putInt(value);
+    }
+
+    private void putLong(long value) {
+        ensureCapacity(LONG_BYTES);
+        buffer.putLong(value);
+    }
+
+    private void putDoubles(double[] values) {
+        ensureCapacity(values.length * DOUBLE_BYTES);
+        buffer.asDoubleBuffer().put(values);
+        buffer.position(buffer.position() + values.length * DOUBLE_BYTES);
+    }
+
+    private void putString(String value) {
+        if (value == null) {
+            putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        ensureCapacity(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private int readDimension() {
+        int dimension = buffer.getInt();
+        if (dimension < 0) {
+            throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, "negative dimension " + dimension));
+        }
+        return dimension;
+    }
+
+    private double[] readDoubles(int count) {
+        if ((long) count * DOUBLE_BYTES > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        double[] values = new double[count];
+        DoubleBuffer doubleBuffer = buffer.asDoubleBuffer();
+        doubleBuffer.get(values);
+        buffer.position(buffer.position() + count * DOUBLE_BYTES);
+        return values;
+    }
+
+    private String readString() {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+}
@@ -19,7 +19,6 @@ import de.rcenvironment.core.datamodel.types.api.IntegerTD;
 import de.rcenvironment.core.datamodel.types.api.MatrixTD;
 import de.rcenvironment.core.datamodel.types.api.SmallTableTD;
 import de.rcenvironment.core.datamodel.types.api.VectorTD;
-import de.rcenvironment.core.datamodel.types.internal.MatrixTDImpl;
 import de.rcenvironment.core.datamodel.types.internal.SmallTableTDImpl;
 import de.rcenvironment.core.utils.common.StringUtils;
 
@@ -85,11 +84,11 @@ public class DefaultTypedDatumConverter implements TypedDatumConverter {
             return castOrConvert(vector, targetType);
         case Vector:
             VectorTD vectorDatum = (VectorTD) input;
-            FloatTD[][] matrixEntries = new FloatTD[vectorDatum.getRowDimension()][1];
+            MatrixTD columnMatrix = factory.createMatrix(vectorDatum.getRowDimension(), 1);
             for (int i = 0; i < vectorDatum.getRowDimension(); i++) {
-                matrixEntries[i][0] = vectorDatum.getFloatTDOfElement(i);
+                columnMatrix.setFloatValueForElement(vectorDatum.getFloatValueOfElement(i), i, 0);
             }
-            return castOrConvert(new MatrixTDImpl(matrixEntries), targetType);
+            return castOrConvert(columnMatrix, targetType);
         case Matrix:
             MatrixTD matrixDatum = (MatrixTD) input;
             return castOrConvert(new SmallTableTDImpl(matrixDatum.toArray()), targetType);
@@ -8,8 +8,15 @@
 
 package de.rcenvironment.core.datamodel.internal;
 
+import java.io.File;
+import java.io.IOException;
+
+import de.rcenvironment.core.datamodel.api.DataType;
 import de.rcenvironment.core.datamodel.api.TypedDatum;
 import de.rcenvironment.core.datamodel.api.TypedDatumFactory;
+import de.rcenvironment.core.datamodel.types.api.BigTableReader;
+import de.rcenvironment.core.datamodel.types.api.BigTableTD;
+import de.rcenvironment.core.datamodel.types.api.BigTableWriter;
 import de.rcenvironment.core.datamodel.types.api.BooleanTD;
 import de.rcenvironment.core.datamodel.types.api.DateTimeTD;
 import de.rcenvironment.core.datamodel.types.api.DirectoryReferenceTD;
@@ -23,6 +30,9 @@ import de.rcenvironment.core.datamodel.types.api.MatrixTD;
 import de.rcenvironment.core.datamodel.types.api.ShortTextTD;
 import de.rcenvironment.core.datamodel.types.api.SmallTableTD;
 import de.rcenvironment.core.datamodel.types.api.VectorTD;
+import de.rcenvironment.core.datamodel.types.internal.BigTableFileReader;
+import de.rcenvironment.core.datamodel.types.internal.BigTableFileWriter;
+import de.rcenvironment.core.datamodel.types.internal.BigTableImpl;
 import de.rcenvironment.core.datamodel.types.internal.BooleanTDImpl;
 import de.rcenvironment.core.datamodel.types.internal.DateTimeTDImpl;
 import de.rcenvironment.core.datamodel.types.internal.DirectoryReferenceTDImpl;
@@ -70,15 +80,19 @@ public class DefaultTypedDatumFactory implements TypedDatumFactory {
         if (dimension < 0) {
             throw new IllegalArgumentException("dimension must greater than 0");
         }
-        FloatTD[] values = new FloatTD[dimension];
-        for (int i = 0; i < dimension; i++) {
-            values[i] = createFloat(0.0);
+        return new VectorTDImpl(new double[dimension]);
+    }
+
+    @Override
+    public VectorTD createVector(FloatTD[] values) {
+        if (values == null) {
+            throw new NullPointerException();
         }
         return new VectorTDImpl(values);
     }
 
     @Override
-    public VectorTD createVector(FloatTD[] values) {
+    public VectorTD createVector(double[] values) {
         if (values == null) {
             throw new NullPointerException();
         }
@@ -90,17 +104,19 @@ public class DefaultTypedDatumFactory implements TypedDatumFactory {
         if (rows < 0 || columns < 0) {
             throw new IllegalArgumentException("rows and columms must greater than 0");
         }
-        FloatTD[][] values = new FloatTD[rows][columns];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                values[i][j] = createFloat(0.0);
-            }
+        return new MatrixTDImpl(rows, columns);
+    }
+
+    @Override
+    public MatrixTD createMatrix(FloatTD[][] values) {
+        if (values == null) {
+            throw new NullPointerException();
         }
         return new MatrixTDImpl(values);
     }
 
     @Override
-    public MatrixTD createMatrix(FloatTD[][] values) {
+    public MatrixTD createMatrix(double[][] values) {
         if (values == null) {
             throw new NullPointerException();
         }
@@ -128,6 +144,24 @@ public class DefaultTypedDatumFactory implements TypedDatumFactory {
         }
         return new SmallTableTDImpl(tableEntries);
     }
+
+    @Override
+    public BigTableTD createBigTable(String tableReference, long rowCount, DataType[] columnDataTypes) {
+        if (tableReference == null || columnDataTypes == null) {
+            throw new NullPointerException();
+        }
+        return new BigTableImpl(tableReference, rowCount, columnDataTypes);
+    }
+
+    @Override
+    public BigTableWriter createBigTableWriter(File tableFile, DataType... columnDataTypes) throws IOException {
+        return new BigTableFileWriter(tableFile, columnDataTypes);
+    }
+
+    @Override
+    public BigTableReader createBigTableReader(File tableFile) throws IOException {
+        return new BigTableFileReader(tableFile);
+    }
     
     @Override
     public DateTimeTD createDateTime(long dataTime) {
@@ -9,13 +9,16 @@
 package de.rcenvironment.core.datamodel.internal;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Date;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -24,7 +27,9 @@ import com.fasterxml.jackson.databind.node.TextNode;
 
 import de.rcenvironment.core.datamodel.api.DataType;
 import de.rcenvironment.core.datamodel.api.TypedDatum;
+import de.rcenvironment.core.datamodel.api.TypedDatumSerializationFormat;
 import de.rcenvironment.core.datamodel.api.TypedDatumSerializer;
+import de.rcenvironment.core.datamodel.types.api.BigTableTD;
 import de.rcenvironment.core.datamodel.types.api.BooleanTD;
 import de.rcenvironment.core.datamodel.types.api.DateTimeTD;
 import de.rcenvironment.core.datamodel.types.api.DirectoryReferenceTD;
@@ -40,7 +45,12 @@ import de.rcenvironment.core.utils.common.JsonUtils;
 import de.rcenvironment.core.utils.common.StringUtils;
 
 /**
- * Default {@link TypedDatumSerializer} implementation.
+ * Default {@link TypedDatumSerializer} implementation. Supports the JSON format and the binary format implemented by
+ * {@link BinaryTypedDatumCodec}.
+ * 
+ * JSON input is read with a streaming parser: vectors, matrices, small tables and scalar values are built directly from the token
+ * stream, without creating an intermediate {@link JsonNode} tree. Only the small reference types and legacy representations (e.g.
+ * quoted booleans of older versions) are parsed into a tree and handled by {@link #getTypedDatumFromNode(DataType, JsonNode, JsonNode)}.
  * 
  * @author Jan Flink
  * @author Doreen Seider
@@ -75,10 +85,20 @@ public class DefaultTypedDatumSerializer implements TypedDatumSerializer {
     
     private static final String ID_STRING = "id";
 
+    private static final String TABLE_REFERENCE_STRING = "tableReference";
+
+    private static final String ROW_COUNT_STRING = "rowCount";
+
+    private static final String COLUMN_TYPES_STRING = "columnTypes";
+
     private static final Log LOGGER = LogFactory.getLog(DefaultTypedDatumSerializer.class);
 
     private static final ObjectMapper MAPPER = JsonUtils.getDefaultObjectMapper();
 
+    private static final DefaultTypedDatumFactory FACTORY = new DefaultTypedDatumFactory();
+
+    private static final int INITIAL_ARRAY_SIZE = 16;
+
     @Override
     public TypedDatum deserialize(String input) {
         TypedDatum returnDatum = null;
@@ -86,12 +106,15 @@ public class DefaultTypedDatumSerializer implements TypedDatumSerializer {
         if (input.length() == 0) {
             throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, input.toString()));
         }
+        if (BinaryTypedDatumCodec.isStringRepresentation(input)) {
+            return deserializeFromBytes(BinaryTypedDatumCodec.fromStringRepresentation(input));
+        }
 
-        try {
-            JsonNode rootNode = MAPPER.readTree(input);
-            DataType dataType = DataType.byShortName(rootNode.get(TYPE_STRING).textValue());
-            JsonNode valueNode = rootNode.get(VALUE_STRING);
-            returnDatum = getTypedDatumFromNode(dataType, rootNode, valueNode);
+        try (JsonParser parser = MAPPER.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, input));
+            }
+            returnDatum = readTypedDatum(parser);
         } catch (JsonParseException e) {
             LOGGER.error(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, input), e);
             throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, input));
@@ -106,6 +129,182 @@ public class DefaultTypedDatumSerializer implements TypedDatumSerializer {
         return returnDatum;
     }
 
+    /**
+     * Reads a {@link TypedDatum} from a JSON object; the parser must be positioned on its {@link JsonToken#START_OBJECT} token.
+     * Afterwards, the parser is positioned on the matching {@link JsonToken#END_OBJECT} token.
+     */
+    private TypedDatum readTypedDatum(JsonParser parser) throws IOException {
+        DataType dataType = null;
+        JsonNode rowNode = null;
+        JsonNode columnNode = null;
+        JsonNode deferredValueNode = null;
+        TypedDatum returnDatum = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            switch (fieldName) {
+            case TYPE_STRING:
+                dataType = DataType.byShortName(parser.getValueAsString());
+                break;
+            case ROW_STRING:
+                rowNode = parser.readValueAsTree();
+                break;
+            case COLUMN_STRING:
+                columnNode = parser.readValueAsTree();
+                break;
+            case VALUE_STRING:
+                // the dimensions are written before the value, but do not rely on that for input of unknown origin
+                if (dataType != null && (rowNode != null && columnNode != null
+                    || dataType != DataType.Matrix && dataType != DataType.SmallTable)) {
+                    returnDatum = readValue(parser, dataType, rowNode, columnNode);
+                } else {
+                    deferredValueNode = parser.readValueAsTree();
+                }
+                break;
+            default:
+                parser.skipChildren();
+                break;
+            }
+        }
+        if (dataType == null) {
+            throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, "<missing type>"));
+        }
+        if (returnDatum == null) {
+            returnDatum = getTypedDatumFromNode(dataType, createDimensionsNode(rowNode, columnNode), deferredValueNode);
+        }
+        return returnDatum;
+    }
+
+    private TypedDatum readValue(JsonParser parser, DataType dataType, JsonNode rowNode, JsonNode columnNode) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        switch (dataType) {
+        case Boolean:
+            if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+                return FACTORY.createBoolean(parser.getBooleanValue());
+            }
+            break;
+        case ShortText:
+            if (token == JsonToken.VALUE_STRING) {
+                return FACTORY.createShortText(parser.getText());
+            }
+            break;
+        case Integer:
+            if (isLongValue(parser)) {
+                return FACTORY.createInteger(parser.getLongValue());
+            }
+            break;
+        case DateTime:
+            if (isLongValue(parser)) {
+                return FACTORY.createDateTime(parser.getLongValue());
+            }
+            break;
+        case Float:
+            if (token.isNumeric()) {
+                return FACTORY.createFloat(parser.getDoubleValue());
+            }
+            break;
+        case Vector:
+            if (token == JsonToken.START_ARRAY) {
+                return FACTORY.createVector(readDoubleArray(parser));
+            }
+            break;
+        case Matrix:
+            if (token == JsonToken.START_ARRAY) {
+                return readMatrix(parser, rowNode.asInt(), columnNode.asInt());
+            }
+            break;
+        case SmallTable:
+            if (token == JsonToken.START_ARRAY) {
+                return readSmallTable(parser, rowNode.asInt(), columnNode.asInt());
+            }
+            break;
+        default:
+            break;
+        }
+        // reference types and legacy representations
+        return getTypedDatumFromNode(dataType, createDimensionsNode(rowNode, columnNode), (JsonNode) parser.readValueAsTree());
+    }
+
+    private MatrixTD readMatrix(JsonParser parser, int rowDimension, int columnDimension) throws IOException {
+        MatrixTD matrix = FACTORY.createMatrix(rowDimension, columnDimension);
+        int i = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            expectStartArray(parser);
+            int j = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                matrix.setFloatValueForElement(readDouble(parser), i, j++);
+            }
+            i++;
+        }
+        return matrix;
+    }
+
+    private SmallTableTD readSmallTable(JsonParser parser, int rowCount, int columnCount) throws IOException {
+        SmallTableTD smallTable = FACTORY.createSmallTable(rowCount, columnCount);
+        int i = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            expectStartArray(parser);
+            int j = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                // cells are embedded as serialized strings; versions below 7.1 wrote them as nested objects
+                if (parser.getCurrentToken() == JsonToken.VALUE_STRING) {
+                    smallTable.setTypedDatumForCell(deserialize(parser.getText()), i, j++);
+                } else if (parser.getCurrentToken() == JsonToken.START_OBJECT) {
+                    smallTable.setTypedDatumForCell(readTypedDatum(parser), i, j++);
+                } else {
+                    throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, parser.getText()));
+                }
+            }
+            i++;
+        }
+        return smallTable;
+    }
+
+    private double[] readDoubleArray(JsonParser parser) throws IOException {
+        double[] values = new double[INITIAL_ARRAY_SIZE];
+        int count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = readDouble(parser);
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    private double readDouble(JsonParser parser) throws IOException {
+        if (parser.getCurrentToken().isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        // e.g. "NaN" or "Infinity", which are written as strings; same conversion as in the tree-based variant
+        return ((JsonNode) parser.readValueAsTree()).asDouble();
+    }
+
+    private boolean isLongValue(JsonParser parser) throws IOException {
+        if (parser.getCurrentToken() != JsonToken.VALUE_NUMBER_INT) {
+            return false;
+        }
+        JsonParser.NumberType numberType = parser.getNumberType();
+        return numberType == JsonParser.NumberType.INT || numberType == JsonParser.NumberType.LONG;
+    }
+
+    private void expectStartArray(JsonParser parser) throws JsonParseException {
+        if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected an array, but found " + parser.getCurrentToken());
+        }
+    }
+
+    private JsonNode createDimensionsNode(JsonNode rowNode, JsonNode columnNode) {
+        ObjectNode dimensionsNode = MAPPER.createObjectNode();
+        if (rowNode != null) {
+            dimensionsNode.set(ROW_STRING, rowNode);
+        }
+        if (columnNode != null) {
+            dimensionsNode.set(COLUMN_STRING, columnNode);
+        }
+        return dimensionsNode;
+    }
+
     private TypedDatum getTypedDatumFromNode(DataType dataType, JsonNode rootNode, JsonNode valueNode)
         throws JsonProcessingException, IOException {
         TypedDatum returnDatum;
@@ -129,7 +328,7 @@ public class DefaultTypedDatumSerializer implements TypedDatumSerializer {
         case Vector:
             VectorTD vector = factory.createVector(valueNode.size());
             for (int i = 0; i < valueNode.size(); i++) {
-                vector.setFloatTDForElement(factory.createFloat(valueNode.get(i).asDouble()), i);
+                vector.setFloatValueForElement(valueNode.get(i).asDouble(), i);
             }
             returnDatum = vector;
             break;
@@ -139,9 +338,7 @@ public class DefaultTypedDatumSerializer implements TypedDatumSerializer {
             for (int i = 0; i < matrixArray.size(); i++) {
                 ArrayNode matrixRowArray = (ArrayNode) matrixArray.get(i);
                 for (int j = 0; j < matrixRowArray.size(); j++) {
-                    FloatTD value = factory.createFloat(matrixRowArray.get(j).asDouble());
-                    matrix.setFloatTDForElement(value,
-                        i, j);
+                    matrix.setFloatValueForElement(matrixRowArray.get(j).asDouble(), i, j);
                 }
             }
             returnDatum = matrix;
@@ -203,17 +400,52 @@ public class DefaultTypedDatumSerializer implements TypedDatumSerializer {
             directoryReference.setDirectorySize(valueNode.get(DIRECTORY_SIZE_STRING).asLong());
             returnDatum = directoryReference;
             break;
-        case StructuredData:
         case BigTable:
+            ArrayNode columnTypesArray = (ArrayNode) valueNode.get(COLUMN_TYPES_STRING);
+            DataType[] columnDataTypes = new DataType[columnTypesArray.size()];
+            for (int i = 0; i < columnTypesArray.size(); i++) {
+                columnDataTypes[i] = DataType.byShortName(columnTypesArray.get(i).textValue());
+            }
+            returnDatum = factory.createBigTable(valueNode.get(TABLE_REFERENCE_STRING).textValue(),
+                valueNode.get(ROW_COUNT_STRING).asLong(), columnDataTypes);
+            break;
+        case StructuredData:
         default:
             throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_DESERIALIZE_STRING, rootNode.toString()));
         }
         return returnDatum;
     }
 
+    @Override
+    public TypedDatum deserializeFromBytes(byte[] input) {
+        return new BinaryTypedDatumCodec().decode(input);
+    }
+
     @Override
     public String serialize(TypedDatum input) {
-        ObjectMapper mapper = new ObjectMapper();
+        return serialize(input, TypedDatumSerializationFormat.JSON);
+    }
+
+    @Override
+    public String serialize(TypedDatum input, TypedDatumSerializationFormat format) {
+        switch (format) {
+        case JSON:
+            return serializeToJson(input);
+        case BINARY_V1:
+            return BinaryTypedDatumCodec.toStringRepresentation(serializeToBytes(input));
+        default:
+            throw new IllegalArgumentException("Unsupported serialization format: " + format);
+        }
+    }
+
+    @Override
+    public byte[] serializeToBytes(TypedDatum input) {
+        return new BinaryTypedDatumCodec().encode(input);
+    }
+
+    private String serializeToJson(TypedDatum input) {
+        // the shared mapper is thread-safe; creating a new one per call is expensive
+        final ObjectMapper mapper = MAPPER;
         ObjectNode rootNode = mapper.createObjectNode();
         if (input == null || input.getDataType() == null) {
             throw new NullPointerException();
@@ -242,7 +474,7 @@ public class DefaultTypedDatumSerializer implements TypedDatumSerializer {
             VectorTD vector = (VectorTD) input;
             ArrayNode vectorArray = mapper.createArrayNode();
             for (int i = 0; i < vector.getRowDimension(); i++) {
-                vectorArray.add(vector.getFloatTDOfElement(i).getFloatValue());
+                vectorArray.add(vector.getFloatValueOfElement(i));
             }
             rootNode.set(VALUE_STRING, vectorArray);
             break;
@@ -254,7 +486,7 @@ public class DefaultTypedDatumSerializer implements TypedDatumSerializer {
             for (int i = 0; i < matrix.getRowDimension(); i++) {
                 ArrayNode matrixRowArray = mapper.createArrayNode();
                 for (int j = 0; j < matrix.getColumnDimension(); j++) {
-                    matrixRowArray.add(matrix.getFloatTDOfElement(i, j).getFloatValue());
+                    matrixRowArray.add(matrix.getFloatValueOfElement(i, j));
                 }
                 matrixArray.add(matrixRowArray);
             }
@@ -300,9 +532,20 @@ public class DefaultTypedDatumSerializer implements TypedDatumSerializer {
             notAValueObjectNode.put(TYPE_STRING, notAValue.getCause().name());
             rootNode.set(VALUE_STRING, notAValueObjectNode);
             break;
+        case BigTable:
+            ObjectNode bigTableObjectNode = mapper.createObjectNode();
+            BigTableTD bigTable = (BigTableTD) input;
+            bigTableObjectNode.put(TABLE_REFERENCE_STRING, bigTable.getTableReference());
+            bigTableObjectNode.put(ROW_COUNT_STRING, bigTable.getRowCount());
+            ArrayNode columnTypesArray = mapper.createArrayNode();
+            for (int i = 0; i < bigTable.getColumnCount(); i++) {
+                columnTypesArray.add(bigTable.getColumnDataType(i).getShortName());
+            }
+            bigTableObjectNode.set(COLUMN_TYPES_STRING, columnTypesArray);
+            rootNode.set(VALUE_STRING, bigTableObjectNode);
+            break;
         case Empty:
             break;
-        case BigTable:
         case StructuredData:
         default:
             throw new IllegalArgumentException(StringUtils.format(UNABLE_TO_SERIALIZE_STRING, input.getDataType().getDisplayName()));
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamodel.types.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import de.rcenvironment.core.datamodel.api.DataType;
+import de.rcenvironment.core.datamodel.api.TypedDatum;
+
+/**
+ * Forward-only cursor over the cells of a single {@link BigTableTD} column. The primitive accessors avoid creating a
+ * {@link TypedDatum} per cell; they throw an {@link IllegalStateException} if the cell is empty or of a different data
+ * type.
+ * 
+ * @author agent
+ */
+public interface BigTableColumnCursor extends Closeable {
+
+    /**
+     * Moves the cursor to the cell of the next row.
+     * 
+     * @return false if there are no more rows
+     * @throws IOException on read errors
+     */
+    boolean next() throws IOException;
+
+    /**
+     * @return zero-based row index of the current cell
+     */
+    long getRowIndex();
+
+    /**
+     * @return {@link DataType} of the non-empty cells of the column
+     */
+    DataType getDataType();
+
+    /**
+     * @return true if the current cell is empty
+     */
+    boolean isEmpty();
+
+    /**
+     * @return the current cell; an {@link EmptyTD} for empty cells
+     */
+    TypedDatum getTypedDatum();
+
+    /**
+     * @return value of the current cell of a {@link FloatTD} column
+     */
+    double getFloatValue();
+
+    /**
+     * @return value of the current cell of an {@link IntegerTD} or {@link DateTimeTD} column
+     */
+    long getIntegerValue();
+
+    /**
+     * @return value of the current cell of a {@link BooleanTD} column
+     */
+    boolean getBooleanValue();
+
+    /**
+     * @return value of the current cell of a {@link ShortTextTD} column
+     */
+    String getShortTextValue();
+
+}
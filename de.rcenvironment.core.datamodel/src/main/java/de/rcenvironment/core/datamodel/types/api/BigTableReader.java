@@ -0,0 +1,58 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamodel.types.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import de.rcenvironment.core.datamodel.api.DataType;
+
+/**
+ * Provides streaming read access to a local columnar table file, as referenced by a {@link BigTableTD}. Any number of
+ * cursors can be opened concurrently; only the data of the current row (or cell) of each cursor is held in memory.
+ * 
+ * @author agent
+ */
+public interface BigTableReader extends Closeable {
+
+    /**
+     * @return number of rows in the table
+     */
+    long getRowCount();
+
+    /**
+     * @return number of columns in the table
+     */
+    int getColumnCount();
+
+    /**
+     * @param columnIndex zero-based column index
+     * @return {@link DataType} of the non-empty cells of the given column
+     */
+    DataType getColumnDataType(int columnIndex);
+
+    /**
+     * Opens a cursor that iterates over all rows of the table. Each row is read from all column blocks of the file in
+     * parallel.
+     * 
+     * @return new {@link BigTableRowCursor}, positioned before the first row
+     * @throws IOException on read errors
+     */
+    BigTableRowCursor openRowCursor() throws IOException;
+
+    /**
+     * Opens a cursor that iterates over all cells of a single column. Only the file block of this column is read.
+     * 
+     * @param columnIndex zero-based column index
+     * @return new {@link BigTableColumnCursor}, positioned before the first cell
+     * @throws IOException on read errors
+     */
+    BigTableColumnCursor openColumnCursor(int columnIndex) throws IOException;
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamodel.types.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import de.rcenvironment.core.datamodel.api.TypedDatum;
+
+/**
+ * Forward-only cursor over the rows of a {@link BigTableTD}. The primitive accessors avoid creating a {@link TypedDatum}
+ * per cell; they throw an {@link IllegalStateException} if the cell is empty or of a different data type.
+ * 
+ * @author agent
+ */
+public interface BigTableRowCursor extends Closeable {
+
+    /**
+     * Moves the cursor to the next row.
+     * 
+     * @return false if there are no more rows
+     * @throws IOException on read errors
+     */
+    boolean next() throws IOException;
+
+    /**
+     * @return zero-based index of the current row
+     */
+    long getRowIndex();
+
+    /**
+     * @return number of cells per row
+     */
+    int getColumnCount();
+
+    /**
+     * @param columnIndex zero-based column index
+     * @return true if the cell of the current row is empty
+     */
+    boolean isEmpty(int columnIndex);
+
+    /**
+     * @param columnIndex zero-based column index
+     * @return the cell of the current row; an {@link EmptyTD} for empty cells
+     */
+    TypedDatum getTypedDatum(int columnIndex);
+
+    /**
+     * @param columnIndex zero-based column index of a {@link FloatTD} column
+     * @return value of the cell of the current row
+     */
+    double getFloatValue(int columnIndex);
+
+    /**
+     * @param columnIndex zero-based column index of an {@link IntegerTD} or {@link DateTimeTD} column
+     * @return value of the cell of the current row
+     */
+    long getIntegerValue(int columnIndex);
+
+    /**
+     * @param columnIndex zero-based column index of a {@link BooleanTD} column
+     * @return value of the cell of the current row
+     */
+    boolean getBooleanValue(int columnIndex);
+
+    /**
+     * @param columnIndex zero-based column index of a {@link ShortTextTD} column
+     * @return value of the cell of the current row
+     */
+    String getShortTextValue(int columnIndex);
+
+}
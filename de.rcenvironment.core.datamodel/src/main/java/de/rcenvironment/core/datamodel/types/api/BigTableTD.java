@@ -8,15 +8,40 @@
 
 package de.rcenvironment.core.datamodel.types.api;
 
+import de.rcenvironment.core.datamodel.api.DataType;
 import de.rcenvironment.core.datamodel.api.TypedDatum;
 
 /**
- * A table of arbitrary size that is partially loaded into RAM on access. Each cell has its
- * individual data type. Valid cell data types are defined by the {@link #isAllowedAsCellType()}
- * method.
+ * A table of arbitrary size that is partially loaded into RAM on access. Technically, the table content is stored in a
+ * columnar file represented by a data management reference; only this reference and the table's shape are held by this
+ * {@link TypedDatum}, so that it can be passed between components without materializing the table. Each column has a
+ * data type, which must be valid according to {@link DataType#isValidCellType()}; individual cells may be empty.
+ * 
+ * The content is accessed by fetching the referenced file and opening it with a {@link BigTableReader}.
  * 
  * @author Robert Mischke
  */
 public interface BigTableTD extends TypedDatum {
 
+    /**
+     * @return data management reference to the columnar table file
+     */
+    String getTableReference();
+
+    /**
+     * @return number of rows in the table
+     */
+    long getRowCount();
+
+    /**
+     * @return number of columns in the table
+     */
+    int getColumnCount();
+
+    /**
+     * @param columnIndex zero-based column index
+     * @return {@link DataType} of the non-empty cells of the given column
+     */
+    DataType getColumnDataType(int columnIndex);
+
 }
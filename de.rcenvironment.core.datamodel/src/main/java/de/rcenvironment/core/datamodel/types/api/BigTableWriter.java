@@ -0,0 +1,46 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamodel.types.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import de.rcenvironment.core.datamodel.api.TypedDatum;
+
+/**
+ * Writes a local columnar table file row by row, which can then be turned into a {@link BigTableTD} by uploading it to
+ * the data management. Rows are spilled to disk while writing; the memory footprint does not depend on the row count.
+ * The file is complete only after {@link #close()} has been called.
+ * 
+ * @author agent
+ */
+public interface BigTableWriter extends Closeable {
+
+    /**
+     * Appends a row.
+     * 
+     * @param cells one cell per column; each must either match the column's data type or be an {@link EmptyTD}
+     * @throws IOException on write errors
+     */
+    void appendRow(TypedDatum... cells) throws IOException;
+
+    /**
+     * Appends a row to a table that only consists of {@link FloatTD} columns.
+     * 
+     * @param values one value per column
+     * @throws IOException on write errors
+     */
+    void appendRow(double... values) throws IOException;
+
+    /**
+     * @return number of rows appended so far
+     */
+    long getRowCount();
+
+}
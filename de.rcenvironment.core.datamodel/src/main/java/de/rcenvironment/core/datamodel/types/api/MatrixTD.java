@@ -35,6 +35,24 @@ public interface MatrixTD extends TypedDatum {
      */
     void setFloatTDForElement(FloatTD number, int rowIndex, int columnIndex);
 
+    /**
+     * Like {@link #getFloatTDOfElement(int, int)}, but without creating a {@link FloatTD} instance.
+     * 
+     * @param rowIndex zero-based row index of the element
+     * @param columnIndex zero-based column index of the element
+     * @return value of the element
+     */
+    double getFloatValueOfElement(int rowIndex, int columnIndex);
+
+    /**
+     * Like {@link #setFloatTDForElement(FloatTD, int, int)}, but without requiring a {@link FloatTD} instance.
+     * 
+     * @param value value to set
+     * @param rowIndex zero-based row index of the element
+     * @param columnIndex zero-based column index of the element
+     */
+    void setFloatValueForElement(double value, int rowIndex, int columnIndex);
+
     /**
      * @return number of rows in the matrix
      */
@@ -65,6 +83,19 @@ public interface MatrixTD extends TypedDatum {
      */
     MatrixTD getSubMatrix(int beginRowIndex, int beginColumnIndex, int endRowIndex, int endColumnIndex);
 
+    /**
+     * Returns a {@link MatrixTD} which is a sub-matrix of this one. In contrast to
+     * {@link #getSubMatrix(int, int, int, int)}, no values are copied: the returned matrix is a view on this one, i.e.
+     * changes to one of them are visible in the other one.
+     * 
+     * @param beginRowIndex beginning zero-based row index, inclusive.
+     * @param beginColumnIndex beginning zero-based row index, inclusive.
+     * @param endRowIndex ending zero-based row index, exclusive.
+     * @param endColumnIndex ending zero-based row index, exclusive.
+     * @return {@link MatrixTD} view
+     */
+    MatrixTD getSubMatrixView(int beginRowIndex, int beginColumnIndex, int endRowIndex, int endColumnIndex);
+
     /**
      * Returns a {@link VectorTD} which is a sub-matrix (with columns dimension of 1) of this one.
      * 
@@ -79,15 +110,37 @@ public interface MatrixTD extends TypedDatum {
      * @param rowIndex zero-based column index
      * @return {@link VectorTD}
      */
-
     VectorTD getRowVector(int rowIndex);
 
+    /**
+     * Like {@link #getColumnVector(int)}, but returns a view on this matrix instead of a copy.
+     * 
+     * @param columnIndex zero-based column index
+     * @return {@link VectorTD} view
+     */
+    VectorTD getColumnVectorView(int columnIndex);
+
+    /**
+     * Like {@link #getRowVector(int)}, but returns a view on this matrix instead of a copy.
+     * 
+     * @param rowIndex zero-based row index
+     * @return {@link VectorTD} view
+     */
+    VectorTD getRowVectorView(int rowIndex);
+
     /**
      * Returns a two-dimensional array of type {@link FloatTD}.
      * 
      * @return two dimensional Array
      */
     FloatTD[][] toArray();
+
+    /**
+     * Returns a new two-dimensional double array ([row][column]) that represents the matrix.
+     * 
+     * @return new two-dimensional double array
+     */
+    double[][] toDoubleArray();
     
     /**
      * @param maxLength maximum length of string representation
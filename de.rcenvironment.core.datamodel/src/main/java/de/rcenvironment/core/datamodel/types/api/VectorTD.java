@@ -32,6 +32,22 @@ public interface VectorTD extends TypedDatum {
      */
     void setFloatTDForElement(FloatTD number, int rowIndex);
 
+    /**
+     * Like {@link #getFloatTDOfElement(int)}, but without creating a {@link FloatTD} instance.
+     * 
+     * @param rowIndex zero-based row index of the element
+     * @return value of the element
+     */
+    double getFloatValueOfElement(int rowIndex);
+
+    /**
+     * Like {@link #setFloatTDForElement(FloatTD, int)}, but without requiring a {@link FloatTD} instance.
+     * 
+     * @param value value to set
+     * @param rowIndex zero-based row index of the element
+     */
+    void setFloatValueForElement(double value, int rowIndex);
+
     /**
      * @return number of rows in the matrix
      */
@@ -54,12 +70,29 @@ public interface VectorTD extends TypedDatum {
      */
     VectorTD getSubVector(int beginRowIndex, int endRowIndex);
 
+    /**
+     * Returns a {@link VectorTD} which is a sub-vector of this one. In contrast to {@link #getSubVector(int, int)}, no values
+     * are copied: the returned vector is a view on this one, i.e. changes to one of them are visible in the other one.
+     * 
+     * @param beginRowIndex beginning zero-based row index, inclusive.
+     * @param endRowIndex ending zero-based row index, exclusive.
+     * @return {@link VectorTD} view
+     */
+    VectorTD getSubVectorView(int beginRowIndex, int endRowIndex);
+
     /**
      * Returns a new {@link FloatTD} array that represents the vector.
      * 
      * @return new {@link FloatTD} array
      */
     FloatTD[] toArray();
+
+    /**
+     * Returns a new double array that represents the vector.
+     * 
+     * @return new double array
+     */
+    double[] toDoubleArray();
     
     /**
      * @param maxLength maximum length of string representation
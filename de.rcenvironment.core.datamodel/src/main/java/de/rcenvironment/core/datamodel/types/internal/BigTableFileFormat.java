@@ -0,0 +1,216 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamodel.types.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import de.rcenvironment.core.datamodel.api.DataType;
+import de.rcenvironment.core.datamodel.api.TypedDatum;
+import de.rcenvironment.core.datamodel.types.api.BooleanTD;
+import de.rcenvironment.core.datamodel.types.api.DateTimeTD;
+import de.rcenvironment.core.datamodel.types.api.FloatTD;
+import de.rcenvironment.core.datamodel.types.api.IntegerTD;
+import de.rcenvironment.core.datamodel.types.api.ShortTextTD;
+import de.rcenvironment.core.utils.common.StringUtils;
+
+/**
+ * Constants and cell encoding of the columnar big table file format. A file consists of
+ * <ul>
+ * <li>a header: {@link #MAGIC} (int), {@link #FORMAT_VERSION} (int)</li>
+ * <li>one contiguous block per column, containing the cells of this column in row order</li>
+ * <li>a footer: row count (long), column count (int), and per column the data type's short name (UTF), the block
+ * offset (long) and the block length (long)</li>
+ * <li>the offset of the footer (long) as the last eight bytes</li>
+ * </ul>
+ * Each cell is encoded as a marker byte ({@link #CELL_EMPTY} or {@link #CELL_VALUE}), followed by the value for non-empty
+ * cells: a double for Float, a long for Integer and DateTime, a byte for Boolean, and modified UTF-8 for ShortText.
+ * 
+ * @author agent
+ */
+final class BigTableFileFormat {
+
+    /** File magic ("RCBT"). */
+    static final int MAGIC = 0x52434254;
+
+    /** Current format version. */
+    static final int FORMAT_VERSION = 1;
+
+    /** Length of the header in bytes. */
+    static final int HEADER_LENGTH = 8;
+
+    /** Length of the trailing footer offset in bytes. */
+    static final int FOOTER_OFFSET_LENGTH = 8;
+
+    static final byte CELL_EMPTY = 0;
+
+    static final byte CELL_VALUE = 1;
+
+    private BigTableFileFormat() {}
+
+    /**
+     * Checks whether a cell may be written to a column of the given type, i.e., whether it is empty or of the column's type.
+     * 
+     * @param cell the cell
+     * @param columnDataType the column's type
+     * @throws IllegalArgumentException if the cell does not match the column's type
+     */
+    static void checkCellType(TypedDatum cell, DataType columnDataType) {
+        if (cell.getDataType() != DataType.Empty && cell.getDataType() != columnDataType) {
+            throw new IllegalArgumentException(StringUtils.format("Cell of type %s does not match column type %s",
+                cell.getDataType().getDisplayName(), columnDataType.getDisplayName()));
+        }
+    }
+
+    /**
+     * Checks whether a cell may be written to a column of the given type and writes it.
+     * 
+     * @param cell the cell
+     * @param columnDataType the column's type
+     * @param out the column block
+     * @throws IOException on write errors
+     */
+    static void writeCell(TypedDatum cell, DataType columnDataType, DataOutput out) throws IOException {
+        checkCellType(cell, columnDataType);
+        if (cell.getDataType() == DataType.Empty) {
+            out.writeByte(CELL_EMPTY);
+            return;
+        }
+        out.writeByte(CELL_VALUE);
+        switch (columnDataType) {
+        case Float:
+            out.writeDouble(((FloatTD) cell).getFloatValue());
+            break;
+        case Integer:
+            out.writeLong(((IntegerTD) cell).getIntValue());
+            break;
+        case DateTime:
+            out.writeLong(((DateTimeTD) cell).getDateTimeInMilliseconds());
+            break;
+        case Boolean:
+            out.writeBoolean(((BooleanTD) cell).getBooleanValue());
+            break;
+        case ShortText:
+            out.writeUTF(((ShortTextTD) cell).getShortTextValue());
+            break;
+        default:
+            throw new IllegalArgumentException("Data type '" + columnDataType + "' is not allowed in big tables.");
+        }
+    }
+
+    /**
+     * Holds the decoded value of a single cell, so that it can be accessed without creating a {@link TypedDatum}.
+     * 
+     * @author agent
+     */
+    static final class CellValue {
+
+        private final DataType dataType;
+
+        private boolean empty;
+
+        private long longValue;
+
+        private double doubleValue;
+
+        private String textValue;
+
+        CellValue(DataType dataType) {
+            this.dataType = dataType;
+        }
+
+        void read(DataInput in) throws IOException {
+            empty = in.readByte() == CELL_EMPTY;
+            if (empty) {
+                return;
+            }
+            switch (dataType) {
+            case Float:
+                doubleValue = in.readDouble();
+                break;
+            case Integer:
+            case DateTime:
+                longValue = in.readLong();
+                break;
+            case Boolean:
+                longValue = in.readByte();
+                break;
+            case ShortText:
+                textValue = in.readUTF();
+                break;
+            default:
+                throw new IOException("Unexpected column data type: " + dataType);
+            }
+        }
+
+        DataType getDataType() {
+            return dataType;
+        }
+
+        boolean isEmpty() {
+            return empty;
+        }
+
+        double getFloatValue() {
+            checkAccess(DataType.Float);
+            return doubleValue;
+        }
+
+        long getIntegerValue() {
+            if (dataType == DataType.DateTime) {
+                checkAccess(DataType.DateTime);
+            } else {
+                checkAccess(DataType.Integer);
+            }
+            return longValue;
+        }
+
+        boolean getBooleanValue() {
+            checkAccess(DataType.Boolean);
+            return longValue != 0;
+        }
+
+        String getShortTextValue() {
+            checkAccess(DataType.ShortText);
+            return textValue;
+        }
+
+        TypedDatum toTypedDatum() {
+            if (empty) {
+                return new EmptyTDImpl();
+            }
+            switch (dataType) {
+            case Float:
+                return new FloatTDImpl(doubleValue);
+            case Integer:
+                return new IntegerTDImpl(longValue);
+            case DateTime:
+                return new DateTimeTDImpl(longValue);
+            case Boolean:
+                return new BooleanTDImpl(longValue != 0);
+            case ShortText:
+                return new ShortTextTDImpl(textValue);
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+        private void checkAccess(DataType requestedType) {
+            if (empty) {
+                throw new IllegalStateException("Cell is empty");
+            }
+            if (dataType != requestedType) {
+                throw new IllegalStateException(StringUtils.format("Cell is of type %s, not %s", dataType.getDisplayName(),
+                    requestedType.getDisplayName()));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamodel.types.internal;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import de.rcenvironment.core.datamodel.api.DataType;
+import de.rcenvironment.core.datamodel.api.TypedDatum;
+import de.rcenvironment.core.datamodel.types.api.BigTableColumnCursor;
+import de.rcenvironment.core.datamodel.types.api.BigTableReader;
+import de.rcenvironment.core.datamodel.types.api.BigTableRowCursor;
+import de.rcenvironment.core.datamodel.types.internal.BigTableFileFormat.CellValue;
+import de.rcenvironment.core.utils.common.StringUtils;
+
+/**
+ * {@link BigTableReader} implementation for the file format described in {@link BigTableFileFormat}. All cursors share
+ * a single {@link FileChannel} and use positional reads, so they do not interfere with each other.
+ * 
+ * @author agent
+ */
+public class BigTableFileReader implements BigTableReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+
+    private final long rowCount;
+
+    private final DataType[] columnDataTypes;
+
+    private final long[] blockOffsets;
+
+    private final long[] blockLengths;
+
+    public BigTableFileReader(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            if (fileSize < BigTableFileFormat.HEADER_LENGTH + BigTableFileFormat.FOOTER_OFFSET_LENGTH) {
+                throw new IOException("Not a big table file: " + file.getAbsolutePath());
+            }
+            try (DataInputStream header = openRegion(0, BigTableFileFormat.HEADER_LENGTH)) {
+                int magic = header.readInt();
+                int version = header.readInt();
+                if (magic != BigTableFileFormat.MAGIC) {
+                    throw new IOException("Not a big table file: " + file.getAbsolutePath());
+                }
+                if (version > BigTableFileFormat.FORMAT_VERSION) {
+                    throw new IOException(StringUtils.format("Unsupported big table format version %d in file %s", version,
+                        file.getAbsolutePath()));
+                }
+            }
+            long footerOffset;
+            try (DataInputStream trailer = openRegion(fileSize - BigTableFileFormat.FOOTER_OFFSET_LENGTH,
+                BigTableFileFormat.FOOTER_OFFSET_LENGTH)) {
+                footerOffset = trailer.readLong();
+            }
+            try (DataInputStream footer = openRegion(footerOffset, fileSize - BigTableFileFormat.FOOTER_OFFSET_LENGTH - footerOffset)) {
+                rowCount = footer.readLong();
+                int columnCount = footer.readInt();
+                columnDataTypes = new DataType[columnCount];
+                blockOffsets = new long[columnCount];
+                blockLengths = new long[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    columnDataTypes[i] = DataType.byShortName(footer.readUTF());
+                    blockOffsets[i] = footer.readLong();
+                    blockLengths[i] = footer.readLong();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnDataTypes.length;
+    }
+
+    @Override
+    public DataType getColumnDataType(int columnIndex) {
+        return columnDataTypes[columnIndex];
+    }
+
+    @Override
+    public BigTableRowCursor openRowCursor() throws IOException {
+        return new RowCursor();
+    }
+
+    @Override
+    public BigTableColumnCursor openColumnCursor(int columnIndex) throws IOException {
+        if (columnIndex < 0 || columnIndex >= columnDataTypes.length) {
+            throw new IllegalArgumentException("index out of range: " + columnIndex);
+        }
+        return new ColumnCursor(columnIndex);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private DataInputStream openRegion(long offset, long length) {
+        return new DataInputStream(new BufferedInputStream(new FileRegionInputStream(offset, length), BUFFER_SIZE));
+    }
+
+    /**
+     * Reads a region of the shared {@link FileChannel} using positional reads.
+     * 
+     * @author agent
+     */
+    private final class FileRegionInputStream extends InputStream {
+
+        private long position;
+
+        private final long end;
+
+        FileRegionInputStream(long offset, long length) {
+            this.position = offset;
+            this.end = offset + length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            if (read(single, 0, 1) <= 0) {
+                return -1;
+            }
+            return single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int toRead = (int) Math.min(len, end - position);
+            int read = channel.read(ByteBuffer.wrap(b, off, toRead), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+    }
+
+    /**
+     * {@link BigTableColumnCursor} implementation.
+     * 
+     * @author agent
+     */
+    private final class ColumnCursor implements BigTableColumnCursor {
+
+        private final DataInputStream in;
+
+        private final CellValue cell;
+
+        private long rowIndex = -1;
+
+        ColumnCursor(int columnIndex) {
+            in = openRegion(blockOffsets[columnIndex], blockLengths[columnIndex]);
+            cell = new CellValue(columnDataTypes[columnIndex]);
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            if (rowIndex + 1 >= rowCount) {
+                rowIndex = rowCount;
+                return false;
+            }
+            cell.read(in);
+            rowIndex++;
+            return true;
+        }
+
+        @Override
+        public long getRowIndex() {
+            return rowIndex;
+        }
+
+        @Override
+        public DataType getDataType() {
+            return cell.getDataType();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return currentCell().isEmpty();
+        }
+
+        @Override
+        public TypedDatum getTypedDatum() {
+            return currentCell().toTypedDatum();
+        }
+
+        @Override
+        public double getFloatValue() {
+            return currentCell().getFloatValue();
+        }
+
+        @Override
+        public long getIntegerValue() {
+            return currentCell().getIntegerValue();
+        }
+
+        @Override
+        public boolean getBooleanValue() {
+            return currentCell().getBooleanValue();
+        }
+
+        @Override
+        public String getShortTextValue() {
+            return currentCell().getShortTextValue();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private CellValue currentCell() {
+            if (rowIndex < 0 || rowIndex >= rowCount) {
+                throw new IllegalStateException("Cursor is not positioned on a row");
+            }
+            return cell;
+        }
+    }
+
+    /**
+     * {@link BigTableRowCursor} implementation; reads all column blocks in parallel.
+     * 
+     * @author agent
+     */
+    private final class RowCursor implements BigTableRowCursor {
+
+        private final ColumnCursor[] columns;
+
+        private long rowIndex = -1;
+
+        RowCursor() {
+            columns = new ColumnCursor[columnDataTypes.length];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = new ColumnCursor(i);
+            }
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            if (rowIndex + 1 >= rowCount) {
+                rowIndex = rowCount;
+                return false;
+            }
+            for (ColumnCursor column : columns) {
+                column.next();
+            }
+            rowIndex++;
+            return true;
+        }
+
+        @Override
+        public long getRowIndex() {
+            return rowIndex;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        @Override
+        public boolean isEmpty(int columnIndex) {
+            return columns[columnIndex].isEmpty();
+        }
+
+        @Override
+        public TypedDatum getTypedDatum(int columnIndex) {
+            return columns[columnIndex].getTypedDatum();
+        }
+
+        @Override
+        public double getFloatValue(int columnIndex) {
+            return columns[columnIndex].getFloatValue();
+        }
+
+        @Override
+        public long getIntegerValue(int columnIndex) {
+            return columns[columnIndex].getIntegerValue();
+        }
+
+        @Override
+        public boolean getBooleanValue(int columnIndex) {
+            return columns[columnIndex].getBooleanValue();
+        }
+
+        @Override
+        public String getShortTextValue(int columnIndex) {
+            return columns[columnIndex].getShortTextValue();
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (ColumnCursor column : columns) {
+                column.close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.datamodel.types.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.logging.LogFactory;
+
+import de.rcenvironment.core.datamodel.api.DataType;
+import de.rcenvironment.core.datamodel.api.TypedDatum;
+import de.rcenvironment.core.datamodel.types.api.BigTableWriter;
+import de.rcenvironment.core.utils.common.StringUtils;
+
+/**
+ * {@link BigTableWriter} implementation that produces the file format described in {@link BigTableFileFormat}. The cells
+ * of each column are spilled to a temporary file next to the target file while writing; on {@link #close()}, the column
+ * blocks are concatenated into the target file and the temporary files are deleted.
+ * 
+ * @author agent
+ */
+public class BigTableFileWriter implements BigTableWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File targetFile;
+
+    private final DataType[] columnDataTypes;
+
+    private final File[] columnFiles;
+
+    private final DataOutputStream[] columnStreams;
+
+    private long rowCount;
+
+    private boolean closed;
+
+    public BigTableFileWriter(File targetFile, DataType... columnDataTypes) throws IOException {
+        for (DataType columnDataType : columnDataTypes) {
+            if (!columnDataType.isValidCellType()) {
+                throw new IllegalArgumentException("Data type '" + columnDataType + "' is not allowed in big tables.");
+            }
+        }
+        this.targetFile = targetFile;
+        this.columnDataTypes = columnDataTypes.clone();
+        this.columnFiles = new File[columnDataTypes.length];
+        this.columnStreams = new DataOutputStream[columnDataTypes.length];
+        File spillDir = targetFile.getAbsoluteFile().getParentFile();
+        try {
+            for (int i = 0; i < columnDataTypes.length; i++) {
+                columnFiles[i] = File.createTempFile(targetFile.getName() + ".col" + i + "-", ".tmp", spillDir);
+                columnStreams[i] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(columnFiles[i]), BUFFER_SIZE));
+            }
+        } catch (IOException e) {
+            discardColumnFiles();
+            throw e;
+        }
+    }
+
+    @Override
+    public void appendRow(TypedDatum... cells) throws IOException {
+        checkRowLength(cells.length);
+        // check the whole row first, so that a rejected row does not leave the column blocks misaligned
+        for (int i = 0; i < cells.length; i++) {
+            BigTableFileFormat.checkCellType(cells[i], columnDataTypes[i]);
+        }
+        for (int i = 0; i < cells.length; i++) {
+            BigTableFileFormat.writeCell(cells[i], columnDataTypes[i], columnStreams[i]);
+        }
+        rowCount++;
+    }
+
+    @Override
+    public void appendRow(double... values) throws IOException {
+        checkRowLength(values.length);
+        for (int i = 0; i < values.length; i++) {
+            if (columnDataTypes[i] != DataType.Float) {
+                throw new IllegalArgumentException(StringUtils.format("Column %d is of type %s, not %s", i,
+                    columnDataTypes[i].getDisplayName(), DataType.Float.getDisplayName()));
+            }
+        }
+        for (int i = 0; i < values.length; i++) {
+            columnStreams[i].writeByte(BigTableFileFormat.CELL_VALUE);
+            columnStreams[i].writeDouble(values[i]);
+        }
+        rowCount++;
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            for (DataOutputStream columnStream : columnStreams) {
+                columnStream.close();
+            }
+            long[] blockOffsets = new long[columnDataTypes.length];
+            long[] blockLengths = new long[columnDataTypes.length];
+            // tracked manually, as DataOutputStream.size() overflows at 2 GB
+            long position = BigTableFileFormat.HEADER_LENGTH;
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(targetFile), BUFFER_SIZE))) {
+                out.writeInt(BigTableFileFormat.MAGIC);
+                out.writeInt(BigTableFileFormat.FORMAT_VERSION);
+                byte[] buffer = new byte[BUFFER_SIZE];
+                for (int i = 0; i < columnDataTypes.length; i++) {
+                    blockOffsets[i] = position;
+                    blockLengths[i] = columnFiles[i].length();
+                    position += blockLengths[i];
+                    try (InputStream in = new FileInputStream(columnFiles[i])) {
+                        int read;
+                        while ((read = in.read(buffer)) > 0) {
+                            out.write(buffer, 0, read);
+                        }
+                    }
+                    columnFiles[i].delete();
+                }
+                out.writeLong(rowCount);
+                out.writeInt(columnDataTypes.length);
+                for (int i = 0; i < columnDataTypes.length; i++) {
+                    out.writeUTF(columnDataTypes[i].getShortName());
+                    out.writeLong(blockOffsets[i]);
+                    out.writeLong(blockLengths[i]);
+                }
+                out.writeLong(position);
+            }
+        } finally {
+            discardColumnFiles();
+        }
+    }
+
+    private void checkRowLength(int length) {
+        if (closed) {
+            throw new IllegalStateException("Writer is already closed");
+        }
+        if (length != columnDataTypes.length) {
+            throw new IllegalArgumentException(StringUtils.format("Expected %d cells, but got %d", columnDataTypes.length, length));
+        }
+    }
+
+    private void discardColumnFiles() {
+        for (int i = 0; i < columnFiles.length; i++) {
+            if (columnStreams[i] != null) {
+                try {
+                    columnStreams[i].close();
+                } catch (IOException e) {
+                    LogFactory.getLog(getClass()).debug("Failed to close temporary column file", e);
+                }
+            }
+            if (columnFiles[i] != null && columnFiles[i].exists() && !columnFiles[i].delete()) {
+                LogFactory.getLog(getClass()).warn("Failed to delete temporary column file " + columnFiles[i].getAbsolutePath());
+            }
+        }
+    }
+
+}
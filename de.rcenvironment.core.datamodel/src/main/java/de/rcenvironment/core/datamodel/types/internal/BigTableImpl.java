@@ -8,8 +8,11 @@
 
 package de.rcenvironment.core.datamodel.types.internal;
 
+import java.util.Arrays;
+
 import de.rcenvironment.core.datamodel.api.DataType;
 import de.rcenvironment.core.datamodel.types.api.BigTableTD;
+import de.rcenvironment.core.utils.common.StringUtils;
 
 /**
  * Implementation of {@link BigTableTD}.
@@ -18,8 +21,75 @@ import de.rcenvironment.core.datamodel.types.api.BigTableTD;
  */
 public class BigTableImpl extends AbstractTypedDatum implements BigTableTD {
 
-    public BigTableImpl() {
+    private final String tableReference;
+
+    private final long rowCount;
+
+    private final DataType[] columnDataTypes;
+
+    public BigTableImpl(String tableReference, long rowCount, DataType[] columnDataTypes) {
         super(DataType.BigTable);
+        for (DataType columnDataType : columnDataTypes) {
+            if (!columnDataType.isValidCellType()) {
+                throw new IllegalArgumentException("Data type '" + columnDataType + "' is not allowed in big tables.");
+            }
+        }
+        this.tableReference = tableReference;
+        this.rowCount = rowCount;
+        this.columnDataTypes = columnDataTypes.clone();
+    }
+
+    @Override
+    public String getTableReference() {
+        return tableReference;
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnDataTypes.length;
+    }
+
+    @Override
+    public DataType getColumnDataType(int columnIndex) {
+        return columnDataTypes[columnIndex];
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + tableReference.hashCode();
+        result = prime * result + Long.hashCode(rowCount);
+        result = prime * result + Arrays.hashCode(columnDataTypes);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj != null && obj instanceof BigTableTD) {
+            BigTableTD other = (BigTableTD) obj;
+            if (!tableReference.equals(other.getTableReference()) || rowCount != other.getRowCount()
+                || columnDataTypes.length != other.getColumnCount()) {
+                return false;
+            }
+            for (int i = 0; i < columnDataTypes.length; i++) {
+                if (columnDataTypes[i] != other.getColumnDataType(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return StringUtils.format("Big Table (%dx%d)", rowCount, columnDataTypes.length);
     }
 
 }
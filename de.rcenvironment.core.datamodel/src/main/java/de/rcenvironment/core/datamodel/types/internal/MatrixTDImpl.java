@@ -8,124 +8,205 @@
 
 package de.rcenvironment.core.datamodel.types.internal;
 
-import org.apache.commons.logging.LogFactory;
-
 import de.rcenvironment.core.datamodel.api.DataType;
-import de.rcenvironment.core.datamodel.api.DataTypeException;
-import de.rcenvironment.core.datamodel.api.TypedDatum;
-import de.rcenvironment.core.datamodel.api.TypedDatumConverter;
-import de.rcenvironment.core.datamodel.internal.TypedDatumServiceImpl;
 import de.rcenvironment.core.datamodel.types.api.FloatTD;
 import de.rcenvironment.core.datamodel.types.api.MatrixTD;
-import de.rcenvironment.core.datamodel.types.api.SmallTableTD;
 import de.rcenvironment.core.datamodel.types.api.VectorTD;
 import de.rcenvironment.core.utils.common.StringUtils;
 
 /**
- * Implementation of {@link MatrixTD}.
+ * Implementation of {@link MatrixTD}. The values are held in a contiguous, row-major double array. Instances created via the
+ * view methods (e.g. {@link #getSubMatrixView(int, int, int, int)}) share this array with the matrix they were derived from;
+ * the {@link FloatTD} objects returned by the element accessors are created on demand.
  * 
  * @author Doreen Seider
  */
 public class MatrixTDImpl extends AbstractTypedDatum implements MatrixTD {
 
-    private SmallTableTD table;
+    private static final String OUT_OF_RANGE_ERROR_MESSAGE = "index out of range: ";
+
+    private final double[] values;
+
+    private final int offset;
+
+    private final int rowDimension;
+
+    private final int columnDimension;
+
+    private final int rowStride;
+
+    private final int columnStride;
 
     public MatrixTDImpl(FloatTD[][] matrixEntries) {
+        this(matrixEntries.length, getColumnDimension(matrixEntries));
+        for (int i = 0; i < rowDimension; i++) {
+            if (matrixEntries[i].length != columnDimension) {
+                throw new IllegalArgumentException("all rows of a matrix must have the same length");
+            }
+            for (int j = 0; j < columnDimension; j++) {
+                values[i * columnDimension + j] = matrixEntries[i][j].getFloatValue();
+            }
+        }
+    }
+
+    public MatrixTDImpl(double[][] matrixEntries) {
+        this(matrixEntries.length, getColumnDimension(matrixEntries));
+        for (int i = 0; i < rowDimension; i++) {
+            if (matrixEntries[i].length != columnDimension) {
+                throw new IllegalArgumentException("all rows of a matrix must have the same length");
+            }
+            System.arraycopy(matrixEntries[i], 0, values, i * columnDimension, columnDimension);
+        }
+    }
+
+    public MatrixTDImpl(int rowDimension, int columnDimension) {
+        this(new double[rowDimension * columnDimension], 0, rowDimension, columnDimension, columnDimension, 1);
+    }
+
+    /**
+     * Creates a matrix backed by the given array. The array is not copied.
+     * 
+     * @param values backing array
+     * @param offset index of element (0, 0) within the backing array
+     * @param rowDimension number of rows
+     * @param columnDimension number of columns
+     * @param rowStride distance between two vertically adjacent elements within the backing array
+     * @param columnStride distance between two horizontally adjacent elements within the backing array
+     */
+    MatrixTDImpl(double[] values, int offset, int rowDimension, int columnDimension, int rowStride, int columnStride) {
         super(DataType.Matrix);
-        this.table = new SmallTableTDImpl(matrixEntries);
+        this.values = values;
+        this.offset = offset;
+        this.rowDimension = rowDimension;
+        this.columnDimension = columnDimension;
+        this.rowStride = rowStride;
+        this.columnStride = columnStride;
     }
 
     @Override
     public FloatTD getFloatTDOfElement(int rowIndex, int columnIndex) {
-        return (FloatTD) table.getTypedDatumOfCell(rowIndex, columnIndex);
+        return new FloatTDImpl(getFloatValueOfElement(rowIndex, columnIndex));
     }
 
     @Override
     public void setFloatTDForElement(FloatTD number, int rowIndex, int columnIndex) {
-        table.setTypedDatumForCell(number, rowIndex, columnIndex);
+        setFloatValueForElement(number.getFloatValue(), rowIndex, columnIndex);
+    }
+
+    @Override
+    public double getFloatValueOfElement(int rowIndex, int columnIndex) {
+        return values[indexOf(rowIndex, columnIndex)];
+    }
+
+    @Override
+    public void setFloatValueForElement(double value, int rowIndex, int columnIndex) {
+        values[indexOf(rowIndex, columnIndex)] = value;
     }
 
     @Override
     public int getRowDimension() {
-        return table.getRowCount();
+        return rowDimension;
     }
 
     @Override
     public int getColumnDimension() {
-        return table.getColumnCount();
+        return columnDimension;
     }
 
     @Override
     public MatrixTD getSubMatrix(int endRowIndex, int endColumnIndex) {
-        TypedDatumConverter converter = new TypedDatumServiceImpl().getConverter();
-        try {
-            return converter.castOrConvert(table.getSubTable(endRowIndex, endColumnIndex), MatrixTD.class);
-        } catch (DataTypeException e) {
-            // should not happen
-            LogFactory.getLog(getClass()).error("conversion failed", e);
-            return null;
-        }
+        return getSubMatrix(0, 0, endRowIndex, endColumnIndex);
     }
 
     @Override
     public MatrixTD getSubMatrix(int beginRowIndex, int beginColumnIndex, int endRowIndex, int endColumnIndex) {
-        TypedDatumConverter converter = new TypedDatumServiceImpl().getConverter();
-        try {
-            return converter.castOrConvert(table.getSubTable(beginRowIndex, beginColumnIndex,
-                endRowIndex, endColumnIndex), MatrixTD.class);
-        } catch (DataTypeException e) {
-            // should not happen
-            LogFactory.getLog(getClass()).error("conversion failed", e);
-            return null;
-        }
+        return copyOf(getSubMatrixView(beginRowIndex, beginColumnIndex, endRowIndex, endColumnIndex));
+    }
+
+    @Override
+    public MatrixTD getSubMatrixView(int beginRowIndex, int beginColumnIndex, int endRowIndex, int endColumnIndex) {
+        checkRange(beginRowIndex, endRowIndex, rowDimension);
+        checkRange(beginColumnIndex, endColumnIndex, columnDimension);
+        return new MatrixTDImpl(values, offset + beginRowIndex * rowStride + beginColumnIndex * columnStride,
+            endRowIndex - beginRowIndex, endColumnIndex - beginColumnIndex, rowStride, columnStride);
     }
 
     @Override
     public VectorTD getColumnVector(int columnIndex) {
+        return new VectorTDImpl(getColumnVectorView(columnIndex).toDoubleArray());
+    }
+
+    @Override
+    public VectorTD getRowVector(int rowIndex) {
+        return new VectorTDImpl(getRowVectorView(rowIndex).toDoubleArray());
+    }
+
+    @Override
+    public VectorTD getColumnVectorView(int columnIndex) {
         if (columnIndex < 0 || columnIndex >= getColumnDimension()) {
-            throw new IllegalArgumentException("index out of range: " + columnIndex);
-        }
-        FloatTD[][] matrixEntries = toArray();
-        FloatTD[] vectorEntries = new FloatTD[getRowDimension()];
-        for (int i = 0; i < getRowDimension(); i++) {
-            vectorEntries[i] = matrixEntries[i][columnIndex];
+            throw new IllegalArgumentException(OUT_OF_RANGE_ERROR_MESSAGE + columnIndex);
         }
-        return new VectorTDImpl(vectorEntries);
+        return new VectorTDImpl(values, offset + columnIndex * columnStride, rowDimension, rowStride);
     }
 
     @Override
-    public VectorTD getRowVector(int rowIndex) {
+    public VectorTD getRowVectorView(int rowIndex) {
         if (rowIndex < 0 || rowIndex >= getRowDimension()) {
-            throw new IllegalArgumentException("index out of range: " + rowIndex);
-        }
-        FloatTD[][] matrixEntries = toArray();
-        FloatTD[] vectorEntries = new FloatTD[getColumnDimension()];
-        for (int i = 0; i < getColumnDimension(); i++) {
-            vectorEntries[i] = matrixEntries[rowIndex][i];
+            throw new IllegalArgumentException(OUT_OF_RANGE_ERROR_MESSAGE + rowIndex);
         }
-        return new VectorTDImpl(vectorEntries);
+        return new VectorTDImpl(values, offset + rowIndex * rowStride, columnDimension, columnStride);
     }
 
     @Override
     public boolean equals(Object obj) {
         if (obj != null && obj instanceof MatrixTD) {
             MatrixTD other = (MatrixTD) obj;
-            return table.equals(new SmallTableTDImpl(other.toArray()));
+            if (other.getRowDimension() != rowDimension || other.getColumnDimension() != columnDimension) {
+                return false;
+            }
+            for (int i = 0; i < rowDimension; i++) {
+                for (int j = 0; j < columnDimension; j++) {
+                    if (Double.doubleToLongBits(getFloatValueOfElement(i, j)) != Double
+                        .doubleToLongBits(other.getFloatValueOfElement(i, j))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return table.hashCode();
+        final int prime = 31;
+        final int shift = 32;
+        int result = 1;
+        for (int i = 0; i < rowDimension; i++) {
+            for (int j = 0; j < columnDimension; j++) {
+                long bits = Double.doubleToLongBits(getFloatValueOfElement(i, j));
+                result = prime * result + (int) (bits ^ (bits >>> shift));
+            }
+        }
+        return result;
     }
 
     @Override
     public FloatTD[][] toArray() {
-        TypedDatum[][] tableAsArray = table.toArray();
-        FloatTD[][] resultArray = new FloatTD[getRowDimension()][getColumnDimension()];
-        for (int i = 0; i < getRowDimension(); i++) {
-            System.arraycopy(tableAsArray[i], 0, resultArray[i], 0, getColumnDimension());
+        FloatTD[][] resultArray = new FloatTD[rowDimension][columnDimension];
+        for (int i = 0; i < rowDimension; i++) {
+            for (int j = 0; j < columnDimension; j++) {
+                resultArray[i][j] = new FloatTDImpl(getFloatValueOfElement(i, j));
+            }
+        }
+        return resultArray;
+    }
+
+    @Override
+    public double[][] toDoubleArray() {
+        double[][] resultArray = new double[rowDimension][];
+        for (int i = 0; i < rowDimension; i++) {
+            resultArray[i] = getRowVectorView(i).toDoubleArray();
         }
         return resultArray;
     }
@@ -134,9 +215,9 @@ public class MatrixTDImpl extends AbstractTypedDatum implements MatrixTD {
     public String toLengthLimitedString(int maxLength) {
         StringBuilder strBuilder = new StringBuilder("[");
 
-        VectorTD firstRow = getRowVector(0);
-        for (FloatTD f : firstRow.toArray()) {
-            strBuilder.append(f.toString());
+        VectorTD firstRow = getRowVectorView(0);
+        for (int j = 0; j < firstRow.getRowDimension(); j++) {
+            strBuilder.append(String.valueOf(firstRow.getFloatValueOfElement(j)));
             strBuilder.append(",");
             if (strBuilder.length() > maxLength) {
                 break;
@@ -161,17 +242,57 @@ public class MatrixTDImpl extends AbstractTypedDatum implements MatrixTD {
         StringBuilder strBuilder = new StringBuilder();
 
         for (int i = 0; i < getRowDimension(); i++) {
-            VectorTD row = getRowVector(i);
-            for (FloatTD f : row.toArray()) {
-                strBuilder.append(f.toString());
+            for (int j = 0; j < getColumnDimension(); j++) {
+                strBuilder.append(String.valueOf(getFloatValueOfElement(i, j)));
                 strBuilder.append(", ");
             }
             // remove last comma and whitespace
             strBuilder.setLength(strBuilder.length() - 2);
             strBuilder.append(System.lineSeparator());
         }
-        
+
         return strBuilder.toString();
     }
 
+    private int indexOf(int rowIndex, int columnIndex) {
+        if (rowIndex < 0 || rowIndex >= rowDimension) {
+            throw new ArrayIndexOutOfBoundsException(OUT_OF_RANGE_ERROR_MESSAGE + rowIndex);
+        }
+        if (columnIndex < 0 || columnIndex >= columnDimension) {
+            throw new ArrayIndexOutOfBoundsException(OUT_OF_RANGE_ERROR_MESSAGE + columnIndex);
+        }
+        return offset + rowIndex * rowStride + columnIndex * columnStride;
+    }
+
+    private static void checkRange(int beginIndex, int endIndex, int dimension) {
+        if (beginIndex < 0 || endIndex > dimension || beginIndex > endIndex) {
+            throw new IllegalArgumentException(StringUtils.format("invalid index range: %d - %d (dimension: %d)",
+                beginIndex, endIndex, dimension));
+        }
+    }
+
+    private static MatrixTDImpl copyOf(MatrixTD matrix) {
+        MatrixTDImpl copy = new MatrixTDImpl(matrix.getRowDimension(), matrix.getColumnDimension());
+        for (int i = 0; i < matrix.getRowDimension(); i++) {
+            for (int j = 0; j < matrix.getColumnDimension(); j++) {
+                copy.values[i * copy.columnDimension + j] = matrix.getFloatValueOfElement(i, j);
+            }
+        }
+        return copy;
+    }
+
+    private static int getColumnDimension(FloatTD[][] matrixEntries) {
+        if (matrixEntries.length == 0) {
+            return 0;
+        }
+        return matrixEntries[0].length;
+    }
+
+    private static int getColumnDimension(double[][] matrixEntries) {
+        if (matrixEntries.length == 0) {
+            return 0;
+        }
+        return matrixEntries[0].length;
+    }
+
 }
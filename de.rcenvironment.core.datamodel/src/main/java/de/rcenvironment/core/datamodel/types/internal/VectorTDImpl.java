@@ -8,19 +8,14 @@
 
 package de.rcenvironment.core.datamodel.types.internal;
 
-import org.apache.commons.logging.LogFactory;
-
 import de.rcenvironment.core.datamodel.api.DataType;
-import de.rcenvironment.core.datamodel.api.DataTypeException;
-import de.rcenvironment.core.datamodel.api.TypedDatumConverter;
-import de.rcenvironment.core.datamodel.internal.TypedDatumServiceImpl;
 import de.rcenvironment.core.datamodel.types.api.FloatTD;
-import de.rcenvironment.core.datamodel.types.api.MatrixTD;
 import de.rcenvironment.core.datamodel.types.api.VectorTD;
 import de.rcenvironment.core.utils.common.StringUtils;
 
 /**
- * Implementation of {@link VectorTD}.
+ * Implementation of {@link VectorTD}. The values are held in a double array, which is shared with the originating instance
+ * for views (e.g. a row of a {@link MatrixTDImpl} or the result of {@link #getSubVectorView(int, int)}).
  * 
  * @author Doreen Seider
  */
@@ -29,27 +24,65 @@ public class VectorTDImpl extends AbstractTypedDatum implements VectorTD {
     private static final String COMMA = ",";
 
     private static final String OUT_OF_RANGE_ERROR_MESSAGE = "index out of range: ";
-    
-    private MatrixTD matrix;
+
+    private final double[] values;
+
+    private final int offset;
+
+    private final int rowDimension;
+
+    private final int stride;
 
     public VectorTDImpl(FloatTD[] vectorEntries) {
+        this(new double[vectorEntries.length], 0, vectorEntries.length, 1);
+        for (int i = 0; i < vectorEntries.length; i++) {
+            values[i] = vectorEntries[i].getFloatValue();
+        }
+    }
+
+    public VectorTDImpl(double[] vectorEntries) {
+        this(vectorEntries.clone(), 0, vectorEntries.length, 1);
+    }
+
+    /**
+     * Creates a vector backed by the given array. The array is not copied.
+     * 
+     * @param values backing array
+     * @param offset index of element 0 within the backing array
+     * @param rowDimension number of elements
+     * @param stride distance between two adjacent elements within the backing array
+     */
+    VectorTDImpl(double[] values, int offset, int rowDimension, int stride) {
         super(DataType.Vector);
-        this.matrix = new MatrixTDImpl(toTwoDimensionalArray(vectorEntries));
+        this.values = values;
+        this.offset = offset;
+        this.rowDimension = rowDimension;
+        this.stride = stride;
     }
-    
+
     @Override
     public FloatTD getFloatTDOfElement(int rowIndex) {
-        return matrix.getFloatTDOfElement(rowIndex, 0);
+        return new FloatTDImpl(getFloatValueOfElement(rowIndex));
     }
 
     @Override
     public void setFloatTDForElement(FloatTD number, int rowIndex) {
-        matrix.setFloatTDForElement(number, rowIndex, 0);
+        setFloatValueForElement(number.getFloatValue(), rowIndex);
+    }
+
+    @Override
+    public double getFloatValueOfElement(int rowIndex) {
+        return values[indexOf(rowIndex)];
+    }
+
+    @Override
+    public void setFloatValueForElement(double value, int rowIndex) {
+        values[indexOf(rowIndex)] = value;
     }
 
     @Override
     public int getRowDimension() {
-        return matrix.getRowDimension();
+        return rowDimension;
     }
 
     @Override
@@ -57,14 +90,7 @@ public class VectorTDImpl extends AbstractTypedDatum implements VectorTD {
         if (endRowIndex < 0 || endRowIndex >= getRowDimension()) {
             throw new IllegalArgumentException(OUT_OF_RANGE_ERROR_MESSAGE + endRowIndex);
         }
-        TypedDatumConverter converter = new TypedDatumServiceImpl().getConverter();
-        try {
-            return converter.castOrConvert(matrix.getSubMatrix(endRowIndex, 1), VectorTD.class);            
-        } catch (DataTypeException e) {
-            // should not happen
-            LogFactory.getLog(getClass()).error("conversion failed", e);
-            return null;
-        }
+        return new VectorTDImpl(getSubVectorView(0, endRowIndex).toDoubleArray());
     }
 
     @Override
@@ -76,55 +102,75 @@ public class VectorTDImpl extends AbstractTypedDatum implements VectorTD {
         } else if (beginRowIndex > endRowIndex) {
             throw new IllegalArgumentException("begin index must lower than end index: " + beginRowIndex + " - " + endRowIndex);
         }
-        TypedDatumConverter converter = new TypedDatumServiceImpl().getConverter();
-        try {
-            return converter.castOrConvert(matrix.getSubMatrix(beginRowIndex, 0, endRowIndex, 1), VectorTD.class);            
-        } catch (DataTypeException e) {
-            // should not happen
-            LogFactory.getLog(getClass()).error("conversion failed", e);
-            return null;
+        return new VectorTDImpl(getSubVectorView(beginRowIndex, endRowIndex).toDoubleArray());
+    }
+
+    @Override
+    public VectorTD getSubVectorView(int beginRowIndex, int endRowIndex) {
+        if (beginRowIndex < 0 || endRowIndex > getRowDimension() || beginRowIndex > endRowIndex) {
+            throw new IllegalArgumentException(StringUtils.format("invalid index range: %d - %d (dimension: %d)",
+                beginRowIndex, endRowIndex, getRowDimension()));
         }
+        return new VectorTDImpl(values, offset + beginRowIndex * stride, endRowIndex - beginRowIndex, stride);
     }
 
     @Override
     public boolean equals(Object obj) {
         if (obj != null && obj instanceof VectorTD) {
             VectorTD other = (VectorTD) obj;
-            return matrix.equals(new MatrixTDImpl(toTwoDimensionalArray(other.toArray())));            
+            if (other.getRowDimension() != rowDimension) {
+                return false;
+            }
+            for (int i = 0; i < rowDimension; i++) {
+                if (Double.doubleToLongBits(getFloatValueOfElement(i)) != Double.doubleToLongBits(other.getFloatValueOfElement(i))) {
+                    return false;
+                }
+            }
+            return true;
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return matrix.hashCode();
+        final int prime = 31;
+        final int shift = 32;
+        int result = 1;
+        for (int i = 0; i < rowDimension; i++) {
+            long bits = Double.doubleToLongBits(getFloatValueOfElement(i));
+            result = prime * result + (int) (bits ^ (bits >>> shift));
+        }
+        return result;
     }
 
     @Override
     public FloatTD[] toArray() {
-        FloatTD[][] matrixEntries = matrix.toArray();
-        FloatTD[] vectorEntries = new FloatTD[getRowDimension()];
-        for (int i = 0; i < getRowDimension(); i++) {
-            vectorEntries[i] = matrixEntries[i][0];
+        FloatTD[] vectorEntries = new FloatTD[rowDimension];
+        for (int i = 0; i < rowDimension; i++) {
+            vectorEntries[i] = new FloatTDImpl(getFloatValueOfElement(i));
         }
         return vectorEntries;
     }
-    
-    private FloatTD[][] toTwoDimensionalArray(FloatTD[] vector) {
-        FloatTD[][] matrixEntries = new FloatTD[vector.length][1];
-        for (int i = 0; i < vector.length; i++) {
-            matrixEntries[i][0] = vector[i];
+
+    @Override
+    public double[] toDoubleArray() {
+        double[] vectorEntries = new double[rowDimension];
+        if (stride == 1) {
+            System.arraycopy(values, offset, vectorEntries, 0, rowDimension);
+        } else {
+            for (int i = 0; i < rowDimension; i++) {
+                vectorEntries[i] = values[offset + i * stride];
+            }
         }
-        return matrixEntries;
+        return vectorEntries;
     }
 
     @Override
     public String toLengthLimitedString(int maxLength) {
         StringBuilder strBuilder = new StringBuilder("[");
 
-        for (FloatTD f : toArray()) {
-            // remove comma for integers
-            strBuilder.append(f.toString());
+        for (int i = 0; i < rowDimension; i++) {
+            strBuilder.append(String.valueOf(getFloatValueOfElement(i)));
             strBuilder.append(COMMA);
             if (strBuilder.length() > maxLength) {
                 break;
@@ -140,17 +186,24 @@ public class VectorTDImpl extends AbstractTypedDatum implements VectorTD {
         strBuilder.append(StringUtils.format(" (%d-dim)", getRowDimension()));
         return strBuilder.toString();
     }
-    
+
     @Override
     public String toString() {
         StringBuilder strBuilder = new StringBuilder();
-        for (FloatTD f : toArray()) {
-            strBuilder.append(f.toString());
+        for (int i = 0; i < rowDimension; i++) {
+            strBuilder.append(String.valueOf(getFloatValueOfElement(i)));
             strBuilder.append(", ");
         }
         // remove last comma and whitespace
         strBuilder.setLength(strBuilder.length() - 2);
         return strBuilder.toString();
     }
-    
+
+    private int indexOf(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= rowDimension) {
+            throw new ArrayIndexOutOfBoundsException(OUT_OF_RANGE_ERROR_MESSAGE + rowIndex);
+        }
+        return offset + rowIndex * stride;
+    }
+
 }
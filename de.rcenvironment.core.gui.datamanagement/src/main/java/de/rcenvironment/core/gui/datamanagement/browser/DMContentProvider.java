@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -49,6 +50,7 @@ import de.rcenvironment.core.component.datamanagement.api.DefaultComponentHistor
 import de.rcenvironment.core.component.datamanagement.history.HistoryMetaDataKeys;
 import de.rcenvironment.core.datamanagement.MetaDataService;
 import de.rcenvironment.core.datamanagement.commons.ComponentInstance;
+import de.rcenvironment.core.datamanagement.commons.ComponentInstanceSummary;
 import de.rcenvironment.core.datamanagement.commons.ComponentRun;
 import de.rcenvironment.core.datamanagement.commons.EndpointData;
 import de.rcenvironment.core.datamanagement.commons.MetaData;
@@ -127,6 +129,17 @@ public class DMContentProvider implements ITreeContentProvider {
 
     private static final String COMPONENT_NAME_AND_NODE_TEXT_FORMAT_TITLE_PLUS_TIMESTAMP_AND_HOST = "%s - %s (%s)  <%s>";
 
+    private static final String NODE_TEXT_FORMAT_COMPONENT_RUN_PAGE = "Runs %d - %d (of %d)";
+
+    // the maximum number of component runs fetched at once; if there are more, they are grouped into page nodes fetched on demand
+    private static final int COMPONENT_RUN_PAGE_SIZE = 500;
+
+    private static final MetaData METADATA_COMPONENT_INSTANCE_ID = new MetaData(
+        "rce.dm.browser.component_instance_id", true, true);
+
+    private static final MetaData METADATA_COMPONENT_RUN_PAGE_OFFSET = new MetaData(
+        "rce.dm.browser.component_run_page_offset", true, true);
+
     private static final MetaData METADATA_COMPONENT_CONTEXT_ID = new MetaData(
         MetaDataKeys.COMPONENT_CONTEXT_UUID, true, true);
 
@@ -287,6 +300,11 @@ public class DMContentProvider implements ITreeContentProvider {
             createChildrenForComponentsNode(node);
             break;
         case Component:
+            createChildrenForComponentNode(node);
+            break;
+        case ComponentRunPage:
+            createChildrenForComponentRunPageNode(node);
+            break;
         case HistoryObject:
             break;
         case DMDirectoryReference:
@@ -312,7 +330,7 @@ public class DMContentProvider implements ITreeContentProvider {
         WorkflowRun result = null;
         try {
             log.debug(StringUtils.format("Fetching run data of workflow #%s from %s", workflowRunID, workflowNodeId));
-            result = metaDataService.getWorkflowRun(workflowRunID, workflowNodeId);
+            result = fetchWorkflowRun(workflowRunID, workflowNodeId);
             log.debug(StringUtils.format("Finished fetching run data of workflow #%s from %s", workflowRunID, workflowNodeId));
         } catch (CommunicationException e) {
             // cache anyway to prevent repeated failing remote requests as this method is called multiple times when building the tree nodes
@@ -341,6 +359,19 @@ public class DMContentProvider implements ITreeContentProvider {
         return result;
     }
 
+    private WorkflowRun fetchWorkflowRun(Long workflowRunID, ResolvableNodeId workflowNodeId) throws CommunicationException {
+        try {
+            // the component runs are fetched page by page when they are expanded, as they are by far the largest part of the run data
+            return metaDataService.getWorkflowRunOverview(workflowRunID, workflowNodeId);
+        } catch (CommunicationException e) {
+            // storage nodes of older versions do not support fetching the component runs page by page
+            log.debug(StringUtils.format(
+                "Failed to fetch the overview of workflow #%s from %s, fetching its complete run data instead: %s",
+                workflowRunID, workflowNodeId, e.getMessage()));
+            return metaDataService.getWorkflowRun(workflowRunID, workflowNodeId);
+        }
+    }
+
     private void createChildrenForHistoryRootNode(DMBrowserNode parent) throws CommunicationException {
 
         final long start = System.currentTimeMillis();
@@ -577,15 +608,16 @@ public class DMContentProvider implements ITreeContentProvider {
         componentHostInformation.setType(DMBrowserNodeType.ComponentHostInformation);
         runInformation.addChild(componentHostInformation);
 
-        if (workflowRun.getComponentRuns().isEmpty()) {
+        final List<ComponentInstanceSummary> componentInstanceSummaries = getComponentInstanceSummaries(workflowRun);
+        if (componentInstanceSummaries.isEmpty()) {
             DMBrowserNode.addNewLeafNode("Not (yet) available", DMBrowserNodeType.InformationText, componentHostInformation);
         } else {
-            for (final ComponentInstance componentInstance : workflowRun.getComponentRuns().keySet()) {
+            for (final ComponentInstanceSummary summary : componentInstanceSummaries) {
+                final ComponentInstance componentInstance = summary.getComponentInstance();
 
-                if (!workflowRun.getComponentRuns().get(componentInstance).isEmpty()) {
+                if (summary.getComponentRunCount() > 0) {
 
-                    final ComponentRun firstComponentRun = workflowRun.getComponentRuns().get(componentInstance).iterator().next();
-                    final LogicalNodeId componentRunLogicalNodeId = firstComponentRun.getLogicalNodeId();
+                    final LogicalNodeId componentRunLogicalNodeId = summary.getLogicalNodeId();
 
                     // TODO review: why/when can this be null? if it can be, this should be documented - misc_ro
                     if (componentRunLogicalNodeId != null) {
@@ -671,53 +703,120 @@ public class DMContentProvider implements ITreeContentProvider {
             timelineNode.setEnabled(false);
             return;
         }
-        for (final ComponentInstance componentInstance : workflowRun.getComponentRuns().keySet()) {
-            for (final ComponentRun componentRun : workflowRun.getComponentRuns().get(componentInstance)) {
-                final String componentRunLocationTag;
-                if (wasComponentRunOnLocalInstance(componentRun)) {
-                    componentRunLocationTag = LOCAL;
-                } else {
-                    componentRunLocationTag = REMOTE;
-                }
+        int componentRunCount = 0;
+        for (ComponentInstanceSummary summary : getComponentInstanceSummaries(workflowRun)) {
+            componentRunCount += summary.getComponentRunCount();
+        }
+        createChildrenForComponentRuns(timelineNode, workflowRun, null, componentRunCount);
+    }
 
-                MetaDataSet metaDataSet = new MetaDataSet();
-                final Long startTime = componentRun.getStartTime();
-                metaDataSet.setValue(METADATA_HISTORY_ORDERING, startTime.toString());
-                final String startDateString = dateFormat.format(new Date(startTime));
-                final String componentSpecificText = getNodeTitleForComponentRun(componentRun);
-                metaDataSet.setValue(METADATA_HISTORY_USER_INFO_TEXT, componentSpecificText);
-                final String componentName = componentInstance.getComponentInstanceName();
-                metaDataSet.setValue(METADATA_COMPONENT_NAME, componentName);
-                metaDataSet.setValue(METADATA_HISTORY_DATA_ITEM_IDENTIFIER, componentInstance.getComponentID());
-                String componentRunNodeText = StringUtils.format(COMPONENT_NAME_AND_NODE_TEXT_FORMAT_TITLE_PLUS_TIMESTAMP_AND_HOST,
-                    componentName, componentSpecificText, startDateString, componentRunLocationTag);
-                if (componentRun.getFinalState() != null && componentRun.getFinalState() != FinalComponentRunState.FINISHED
-                    && componentRun.getFinalState() != FinalComponentRunState.RESULTS_APPROVED) {
-                    componentRunNodeText = componentRunNodeText.concat(BRACKET_LEFT + componentRun.getFinalState() + BRACKET_RIGHT);
-                }
-                DMBrowserNode dmoChild =
-                    new DMBrowserNode(componentRunNodeText, timelineNode);
-                // dmoChild.setDataReferenceId(dataReferenceId);
-                dmoChild.setMetaData(metaDataSet);
-                dmoChild.setType(DMBrowserNodeType.HistoryObject);
-                boolean compRunFailed = false;
-                boolean resultsRejected = false;
-                if (componentRun.getFinalState() != null) {
-                    compRunFailed = componentRun.getFinalState().equals(FinalComponentRunState.FAILED);
-                    resultsRejected = componentRun.getFinalState().equals(FinalComponentRunState.RESULTS_REJECTED);
-                }
-                setComponentIconForDMBrowserNode(dmoChild, compRunFailed, resultsRejected);
-                createChildrenForHistoryObjectNode(dmoChild, componentRun);
-                // dmoChild.setAssociatedFilename(nodeName);
-                timelineNode.addChild(dmoChild);
+    private void createChildrenForComponentNode(final DMBrowserNode componentNode) throws CommunicationException {
+        final WorkflowRun workflowRun = getMetaDataForWorkflow(componentNode.getNodeWithTypeWorkflow());
+        final ComponentInstanceSummary summary = getComponentInstanceSummary(workflowRun, componentNode);
+        if (summary == null) {
+            componentNode.setEnabled(false);
+            return;
+        }
+        createChildrenForComponentRuns(componentNode, workflowRun, summary, summary.getComponentRunCount());
+    }
 
-                addComponentLogFilesNode(dmoChild, componentRun);
+    private void createChildrenForComponentRunPageNode(final DMBrowserNode pageNode) throws CommunicationException {
+        final WorkflowRun workflowRun = getMetaDataForWorkflow(pageNode.getNodeWithTypeWorkflow());
+        if (workflowRun == null) {
+            pageNode.setEnabled(false);
+            return;
+        }
+        // page nodes below the timeline node are not related to a single component instance
+        ComponentInstanceSummary summary = null;
+        if (pageNode.getParent().getType() == DMBrowserNodeType.Component) {
+            summary = getComponentInstanceSummary(workflowRun, pageNode.getParent());
+            if (summary == null) {
+                pageNode.setEnabled(false);
+                return;
             }
         }
+        final int offset = Integer.parseInt(pageNode.getMetaData().getValue(METADATA_COMPONENT_RUN_PAGE_OFFSET));
+        addComponentRunNodes(pageNode, workflowRun, summary, offset, COMPONENT_RUN_PAGE_SIZE);
+    }
+
+    /**
+     * Adds the nodes of the given number of component runs to the given node. If there are more component runs than fit into a page, one
+     * node per page is added instead, whose component runs are only fetched if the page node is expanded (or exported).
+     */
+    private void createChildrenForComponentRuns(final DMBrowserNode parentNode, WorkflowRun workflowRun,
+        ComponentInstanceSummary summary, int componentRunCount) throws CommunicationException {
+        if (componentRunCount <= COMPONENT_RUN_PAGE_SIZE) {
+            addComponentRunNodes(parentNode, workflowRun, summary, 0, componentRunCount);
+            return;
+        }
+        for (int offset = 0; offset < componentRunCount; offset += COMPONENT_RUN_PAGE_SIZE) {
+            DMBrowserNode pageNode = new DMBrowserNode(StringUtils.format(NODE_TEXT_FORMAT_COMPONENT_RUN_PAGE, offset + 1,
+                Math.min(offset + COMPONENT_RUN_PAGE_SIZE, componentRunCount), componentRunCount));
+            pageNode.setType(DMBrowserNodeType.ComponentRunPage);
+            MetaDataSet metaDataSet = new MetaDataSet();
+            metaDataSet.setValue(METADATA_COMPONENT_RUN_PAGE_OFFSET, String.valueOf(offset));
+            pageNode.setMetaData(metaDataSet);
+            parentNode.addChild(pageNode);
+        }
+    }
+
+    private void addComponentRunNodes(final DMBrowserNode parentNode, WorkflowRun workflowRun, ComponentInstanceSummary summary,
+        int offset, int limit) throws CommunicationException {
+        final Map<ComponentRun, ComponentInstance> componentRuns =
+            getComponentRunPage(parentNode.getNodeWithTypeWorkflow(), workflowRun, summary, offset, limit);
+        for (Map.Entry<ComponentRun, ComponentInstance> entry : componentRuns.entrySet()) {
+            parentNode.addChild(createComponentRunNode(entry.getValue(), entry.getKey(), summary == null));
+        }
         // sort nodes by start time
-        timelineNode.sortChildren(DMBrowserNodeUtils.COMPARATOR_BY_HISTORY_TIMESTAMP_DESC);
-        setFileNodesEnabled(timelineNode,
-            !Boolean.valueOf(timelineNode.getNodeWithTypeWorkflow().getMetaData().getValue(METADATA_WORKFLOW_FILES_DELETED)));
+        parentNode.sortChildren(DMBrowserNodeUtils.COMPARATOR_BY_HISTORY_TIMESTAMP_DESC);
+        setFileNodesEnabled(parentNode,
+            !Boolean.valueOf(parentNode.getNodeWithTypeWorkflow().getMetaData().getValue(METADATA_WORKFLOW_FILES_DELETED)));
+    }
+
+    private DMBrowserNode createComponentRunNode(ComponentInstance componentInstance, ComponentRun componentRun,
+        boolean includeComponentName) {
+        final String componentRunLocationTag;
+        if (wasComponentRunOnLocalInstance(componentRun)) {
+            componentRunLocationTag = LOCAL;
+        } else {
+            componentRunLocationTag = REMOTE;
+        }
+
+        MetaDataSet metaDataSet = new MetaDataSet();
+        final Long startTime = componentRun.getStartTime();
+        metaDataSet.setValue(METADATA_HISTORY_ORDERING, startTime.toString());
+        final String startDateString = dateFormat.format(new Date(startTime));
+        final String componentSpecificText = getNodeTitleForComponentRun(componentRun);
+        metaDataSet.setValue(METADATA_HISTORY_USER_INFO_TEXT, componentSpecificText);
+        final String componentName = componentInstance.getComponentInstanceName();
+        metaDataSet.setValue(METADATA_COMPONENT_NAME, componentName);
+        metaDataSet.setValue(METADATA_HISTORY_DATA_ITEM_IDENTIFIER, componentInstance.getComponentID());
+        String componentRunNodeText;
+        if (includeComponentName) {
+            componentRunNodeText = StringUtils.format(COMPONENT_NAME_AND_NODE_TEXT_FORMAT_TITLE_PLUS_TIMESTAMP_AND_HOST,
+                componentName, componentSpecificText, startDateString, componentRunLocationTag);
+        } else {
+            componentRunNodeText = StringUtils.format(NODE_TEXT_FORMAT_TITLE_PLUS_TIMESTAMP_AND_HOST,
+                componentSpecificText, startDateString, componentRunLocationTag);
+        }
+        if (componentRun.getFinalState() != null && componentRun.getFinalState() != FinalComponentRunState.FINISHED
+            && componentRun.getFinalState() != FinalComponentRunState.RESULTS_APPROVED) {
+            componentRunNodeText = componentRunNodeText.concat(BRACKET_LEFT + componentRun.getFinalState() + BRACKET_RIGHT);
+        }
+        DMBrowserNode dmoChild = new DMBrowserNode(componentRunNodeText);
+        dmoChild.setMetaData(metaDataSet);
+        dmoChild.setType(DMBrowserNodeType.HistoryObject);
+        boolean compRunFailed = false;
+        boolean resultsRejected = false;
+        if (componentRun.getFinalState() != null) {
+            compRunFailed = componentRun.getFinalState().equals(FinalComponentRunState.FAILED);
+            resultsRejected = componentRun.getFinalState().equals(FinalComponentRunState.RESULTS_REJECTED);
+        }
+        setComponentIconForDMBrowserNode(dmoChild, compRunFailed, resultsRejected);
+        createChildrenForHistoryObjectNode(dmoChild, componentRun);
+
+        addComponentLogFilesNode(dmoChild, componentRun);
+        return dmoChild;
     }
 
     private String getNodeTitleForComponentRun(final ComponentRun componentRun) {
@@ -738,15 +837,16 @@ public class DMContentProvider implements ITreeContentProvider {
             componentsNode.setEnabled(false);
             return;
         }
-        for (final ComponentInstance componentInstance : workflowRun.getComponentRuns().keySet()) {
+        for (final ComponentInstanceSummary summary : getComponentInstanceSummaries(workflowRun)) {
+            final ComponentInstance componentInstance = summary.getComponentInstance();
             MetaDataSet metaDataSet = new MetaDataSet();
             final String componentName = componentInstance.getComponentInstanceName();
             metaDataSet.setValue(METADATA_COMPONENT_NAME, componentName);
             metaDataSet.setValue(METADATA_HISTORY_DATA_ITEM_IDENTIFIER, componentInstance.getComponentID());
+            metaDataSet.setValue(METADATA_COMPONENT_INSTANCE_ID, summary.getComponentInstanceID().toString());
             final String componentHostName;
-            if (workflowRun.getComponentRuns().get(componentInstance).size() > 0) {
-                final ComponentRun firstRun = workflowRun.getComponentRuns().get(componentInstance).iterator().next();
-                if (wasComponentRunOnLocalInstance(firstRun)) {
+            if (summary.getComponentRunCount() > 0) {
+                if (localInstanceSessionId.convertToDefaultLogicalNodeId().equals(summary.getLogicalNodeId())) {
                     componentHostName = LOCAL;
                 } else {
                     componentHostName = REMOTE;
@@ -765,77 +865,110 @@ public class DMContentProvider implements ITreeContentProvider {
                 verificationFailed = componentInstance.getFinalState().equals(VERIFICATION_FAILED);
             }
             setComponentIconForDMBrowserNode(componentNode, failed, verificationFailed);
-            boolean initIncluded = false;
-            boolean tearDownIncluded = false;
-            for (final ComponentRun componentRun : workflowRun.getComponentRuns().get(componentInstance)) {
-                final String componentRunLocationTag;
-                if (wasComponentRunOnLocalInstance(componentRun)) {
-                    componentRunLocationTag = LOCAL;
-                } else {
-                    componentRunLocationTag = REMOTE;
-                }
-
-                final Long startTime = componentRun.getStartTime();
-                MetaDataSet metaDataSetRun = new MetaDataSet();
-                metaDataSetRun.setValue(METADATA_COMPONENT_NAME, componentName);
-                metaDataSetRun.setValue(METADATA_HISTORY_DATA_ITEM_IDENTIFIER, componentInstance.getComponentID());
-                metaDataSetRun.setValue(METADATA_HISTORY_ORDERING, startTime.toString());
-                final String startDateString = dateFormat.format(new Date(startTime));
-                final String componentSpecificText = getNodeTitleForComponentRun(componentRun);
-                metaDataSetRun.setValue(METADATA_HISTORY_USER_INFO_TEXT, componentSpecificText);
-                String componentRunNodeText = StringUtils.format(NODE_TEXT_FORMAT_TITLE_PLUS_TIMESTAMP_AND_HOST,
-                    componentSpecificText, startDateString, componentRunLocationTag);
-                if (componentRun.getFinalState() != null && componentRun.getFinalState() != FinalComponentRunState.FINISHED
-                    && componentRun.getFinalState() != FinalComponentRunState.RESULTS_APPROVED) {
-                    componentRunNodeText = componentRunNodeText.concat(BRACKET_LEFT + componentRun.getFinalState() + BRACKET_RIGHT);
-                }
-                DMBrowserNode dmoChild = new DMBrowserNode(componentRunNodeText, componentsNode);
-                dmoChild.setMetaData(metaDataSetRun);
-                dmoChild.setType(DMBrowserNodeType.HistoryObject);
-                boolean compRunFailed = false;
-                boolean resultsRejected = false;
-                if (componentRun.getFinalState() != null) {
-                    compRunFailed = componentRun.getFinalState().equals(FinalComponentRunState.FAILED);
-                    resultsRejected = componentRun.getFinalState().equals(FinalComponentRunState.RESULTS_REJECTED);
-                }
-                setComponentIconForDMBrowserNode(dmoChild, compRunFailed, resultsRejected);
-                createChildrenForHistoryObjectNode(dmoChild, componentRun);
-                componentNode.addChild(dmoChild);
-
-                addComponentLogFilesNode(dmoChild, componentRun);
-                if (componentRun.getRunCounter() == DataModelConstants.INIT_RUN) {
-                    initIncluded = true;
-                } else if (componentRun.getRunCounter() == DataModelConstants.TEAR_DOWN_RUN) {
-                    tearDownIncluded = true;
-                }
-            }
+            // the component runs are fetched when the component node is expanded
             final String finalState = componentInstance.getFinalState();
-            String componentNodeText = StringUtils.format("%s (Runs: %d) <%s>", componentName,
-                getComponentRunCount(workflowRun, componentInstance, initIncluded, tearDownIncluded), componentHostName);
+            String componentNodeText = StringUtils.format("%s (Runs: %d) <%s>", componentName, summary.getRegularRunCount(),
+                componentHostName);
             if (finalState != null && !finalState.equals(FINISHED)) {
                 componentNodeText = componentNodeText.concat(BRACKET_LEFT + finalState + BRACKET_RIGHT);
             }
             componentNode.setTitle(componentNodeText);
             componentsNode.addChild(componentNode);
-
-            componentNode.sortChildren(DMBrowserNodeUtils.COMPARATOR_BY_HISTORY_TIMESTAMP_DESC);
         }
         // sort nodes by node title
         componentsNode.sortChildren(DMBrowserNodeUtils.COMPARATOR_BY_NODE_TITLE);
-        setFileNodesEnabled(componentsNode,
-            !Boolean.valueOf(componentsNode.getNodeWithTypeWorkflow().getMetaData().getValue(METADATA_WORKFLOW_FILES_DELETED)));
     }
 
-    private int getComponentRunCount(WorkflowRun workflowRun, ComponentInstance componentInstance, boolean initIncluded,
-        boolean tearDownIncluded) {
-        int runCount = workflowRun.getComponentRuns().get(componentInstance).size();
-        if (initIncluded) {
-            runCount--;
+    /**
+     * @return the summaries of the component instances of the given workflow run; if the workflow run was fetched with all of its
+     *         component runs (from a storage node not supporting to fetch them page by page), they are derived from the component runs
+     */
+    private List<ComponentInstanceSummary> getComponentInstanceSummaries(WorkflowRun workflowRun) {
+        synchronized (workflowRun) {
+            if (workflowRun.getComponentInstanceSummaries() == null) {
+                List<ComponentInstanceSummary> summaries = new ArrayList<>();
+                long index = 0;
+                for (Map.Entry<ComponentInstance, Set<ComponentRun>> entry : workflowRun.getComponentRuns().entrySet()) {
+                    int regularRunCount = 0;
+                    String logicalNodeId = null;
+                    for (ComponentRun componentRun : entry.getValue()) {
+                        if (componentRun.getRunCounter() > DataModelConstants.INIT_RUN) {
+                            regularRunCount++;
+                        }
+                        logicalNodeId = componentRun.getLogicalNodeIdString();
+                    }
+                    // as the database ids of the component instances are not known, their index is used instead
+                    summaries.add(new ComponentInstanceSummary(index++, entry.getKey(), entry.getValue().size(), regularRunCount,
+                        logicalNodeId));
+                }
+                workflowRun.setComponentInstanceSummaries(summaries);
+            }
+            return workflowRun.getComponentInstanceSummaries();
+        }
+    }
+
+    private ComponentInstanceSummary getComponentInstanceSummary(WorkflowRun workflowRun, DMBrowserNode componentNode) {
+        if (workflowRun == null) {
+            return null;
+        }
+        final String componentInstanceId = componentNode.getMetaData().getValue(METADATA_COMPONENT_INSTANCE_ID);
+        for (ComponentInstanceSummary summary : getComponentInstanceSummaries(workflowRun)) {
+            if (summary.getComponentInstanceID().toString().equals(componentInstanceId)) {
+                return summary;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fetches a page of component runs of a workflow run, latest first, along with their component instances. If the workflow run was
+     * fetched with all of its component runs, the page is taken from them instead.
+     * 
+     * @param summary the summary of the component instance to fetch the component runs of, or null for all component runs
+     */
+    private Map<ComponentRun, ComponentInstance> getComponentRunPage(DMBrowserNode workflowNode, WorkflowRun workflowRun,
+        ComponentInstanceSummary summary, int offset, int limit) throws CommunicationException {
+        final Map<ComponentRun, ComponentInstance> result = new LinkedHashMap<>();
+        if (limit <= 0) {
+            return result;
         }
-        if (tearDownIncluded) {
-            runCount--;
+        if (workflowRun.getComponentRuns().isEmpty()) {
+            Map<Long, ComponentInstance> componentInstances = new HashMap<>();
+            for (ComponentInstanceSummary componentInstanceSummary : getComponentInstanceSummaries(workflowRun)) {
+                componentInstances.put(componentInstanceSummary.getComponentInstanceID(), componentInstanceSummary.getComponentInstance());
+            }
+            Long componentInstanceId = null;
+            if (summary != null) {
+                componentInstanceId = summary.getComponentInstanceID();
+            }
+            final long start = System.currentTimeMillis();
+            final List<ComponentRun> componentRuns = metaDataService.getComponentRunPage(Long.valueOf(workflowNode.getWorkflowID()),
+                componentInstanceId, offset, limit, workflowNode.getNodeIdentifier());
+            if (verboseLogging) {
+                log.debug(StringUtils.format("Fetching %d component runs of workflow #%s took %d ms", componentRuns.size(),
+                    workflowNode.getWorkflowID(), System.currentTimeMillis() - start));
+            }
+            for (ComponentRun componentRun : componentRuns) {
+                result.put(componentRun, componentInstances.get(componentRun.getComponentInstanceID()));
+            }
+            return result;
         }
-        return runCount;
+        final List<ComponentRun> componentRuns = new ArrayList<>();
+        final Map<ComponentRun, ComponentInstance> componentInstances = new HashMap<>();
+        for (Map.Entry<ComponentInstance, Set<ComponentRun>> entry : workflowRun.getComponentRuns().entrySet()) {
+            if (summary == null || summary.getComponentInstance() == entry.getKey()) {
+                for (ComponentRun componentRun : entry.getValue()) {
+                    componentRuns.add(componentRun);
+                    componentInstances.put(componentRun, entry.getKey());
+                }
+            }
+        }
+        Collections.sort(componentRuns, Collections.reverseOrder());
+        for (ComponentRun componentRun : componentRuns.subList(Math.min(offset, componentRuns.size()),
+            Math.min(offset + limit, componentRuns.size()))) {
+            result.put(componentRun, componentInstances.get(componentRun));
+        }
+        return result;
     }
 
     /**
@@ -44,6 +44,8 @@ public class DMLabelProvider extends ColumnLabelProvider {
             result = DMBrowserImages.IMG_TIMELINE;
         } else if (node.getType() == DMBrowserNodeType.Components) {
             result = DMBrowserImages.IMG_COMPONENTS;
+        } else if (node.getType() == DMBrowserNodeType.ComponentRunPage) {
+            result = DMBrowserImages.IMG_TIMELINE;
         } else if ((node.getType() == DMBrowserNodeType.Component || node.getType() == DMBrowserNodeType.HistoryObject)
             && node.getIcon() != null) {
             result = node.getIcon();
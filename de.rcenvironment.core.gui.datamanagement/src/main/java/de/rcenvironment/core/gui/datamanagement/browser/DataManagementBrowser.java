@@ -228,6 +228,7 @@ public class DataManagementBrowser extends ViewPart implements DMBrowserNodeCont
         SAVE_AS_FOLDER_NODE_TYPES.add(DMBrowserNodeType.Timeline);
         SAVE_AS_FOLDER_NODE_TYPES.add(DMBrowserNodeType.Components);
         SAVE_AS_FOLDER_NODE_TYPES.add(DMBrowserNodeType.Component);
+        SAVE_AS_FOLDER_NODE_TYPES.add(DMBrowserNodeType.ComponentRunPage);
         SAVE_AS_FOLDER_NODE_TYPES.add(DMBrowserNodeType.HistoryObject);
         SAVE_AS_FOLDER_NODE_TYPES.add(DMBrowserNodeType.Input);
         SAVE_AS_FOLDER_NODE_TYPES.add(DMBrowserNodeType.Output);
@@ -39,6 +39,11 @@ public enum DMBrowserNodeType {
     /** DM-Object is a chameleon-rce component. */
     Component,
 
+    /**
+     * Node type for a page of the component runs of a timeline or component node, which is fetched on demand.
+     */
+    ComponentRunPage,
+
     /** DM-Object is a chameleon-rce folder. */
     DMDirectoryReference,
 
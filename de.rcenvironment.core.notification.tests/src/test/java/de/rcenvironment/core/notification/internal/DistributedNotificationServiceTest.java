@@ -202,6 +202,11 @@ public class DistributedNotificationServiceTest {
             }
         }
 
+        @Override
+        public Map<String, List<Notification>> getNotifications(String notificationIdentifier, long startNumber) {
+            return getNotifications(notificationIdentifier);
+        }
+
         @Override
         public void setBufferSize(String notificationIdentifier, int buffer) {
             if (notificationIdentifier.equals(NotificationTestConstants.NOTIFICATION_ID) && buffer == 0) {
@@ -279,6 +284,11 @@ public class DistributedNotificationServiceTest {
             }
         }
 
+        @Override
+        public Map<String, List<Notification>> getNotifications(String notificationIdentifier, long startNumber) {
+            return getNotifications(notificationIdentifier);
+        }
+
         @Override
         public void setBufferSize(String notificationIdentifier, int buffer) {}
 
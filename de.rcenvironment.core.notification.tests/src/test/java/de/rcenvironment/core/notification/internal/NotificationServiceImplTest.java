@@ -472,4 +472,32 @@ public class NotificationServiceImplTest {
             notifications.get(NotificationTestConstants.ANOTHER_PERSISTENT_NOTIFICATION_ID).size());
     }
 
+    /** Test. */
+    @Test
+    public final void testGetNotificationsStartingWithNumber() {
+        final int unlimitedBufferSize = -1;
+        notificationService.setBufferSize(NotificationTestConstants.PERSISTENT_NOTIFICATION_ID, unlimitedBufferSize);
+
+        final int numberOfNotifications = 7;
+        for (int i = 0; i < numberOfNotifications; i++) {
+            notificationService.send(NotificationTestConstants.PERSISTENT_NOTIFICATION_ID, new Integer(i));
+        }
+        notificationService.awaitAsyncTaskCompletion();
+
+        final int startNumber = 4;
+        List<Notification> notifications = notificationService
+            .getNotifications(NotificationTestConstants.PERSISTENT_NOTIFICATION_ID, startNumber)
+            .get(NotificationTestConstants.PERSISTENT_NOTIFICATION_ID);
+
+        assertEquals(numberOfNotifications - startNumber, notifications.size());
+        for (int i = 0; i < notifications.size(); i++) {
+            assertEquals(startNumber + i, notifications.get(i).getHeader().getNumber());
+            assertEquals(startNumber + i, notifications.get(i).getBody());
+        }
+
+        assertTrue(notificationService.getNotifications(NotificationTestConstants.PERSISTENT_NOTIFICATION_ID, numberOfNotifications)
+            .get(NotificationTestConstants.PERSISTENT_NOTIFICATION_ID).isEmpty());
+        assertTrue(notificationService.getNotifications(NotificationTestConstants.NOTIFICATION_ID, 0).isEmpty());
+    }
+
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.notification.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link NotificationTopicRegistry}.
+ * 
+ * @author agent
+ */
+public class NotificationTopicRegistryTest {
+
+    private static final String STATE_ID = "rce.component.state:4d2a9e1c";
+
+    private static final List<String> PATTERNS = Arrays.asList(STATE_ID, "rce.component.state:.*", "rce.component.state.*", ".*",
+        "rce.component.(state|output):4d2a9e1c", "rce.component.stat?e:4d2a9e1c", "rce.component.output:4d2a9e1c", "rce\\.component.+",
+        "rce.component.state:4d2a9e1c.+", "x|rce.component.state:4d2a9e1c", "rce.component.state:4d2a9e1[a-d]", "^rce.*");
+
+    private static final List<String> NOTIFICATION_IDS = Arrays.asList(STATE_ID, "rce.component.output:4d2a9e1c",
+        "rce.component.state:4d2a9e1c:finished", "rceXcomponentXstate:4d2a9e1c", "rce.component.sate:4d2a9e1c", "rce", "");
+
+    /**
+     * Tests that the indexed lookup finds exactly the topics whose pattern matches a notification id.
+     */
+    @Test
+    public void testMatchingTopics() {
+        NotificationTopicRegistry registry = new NotificationTopicRegistry();
+        for (String pattern : PATTERNS) {
+            registry.register(pattern);
+        }
+        for (String notificationId : NOTIFICATION_IDS) {
+            Set<String> expectedNames = new HashSet<>();
+            for (String pattern : PATTERNS) {
+                if (notificationId.matches(pattern)) {
+                    expectedNames.add(pattern);
+                }
+            }
+            Set<String> actualNames = new HashSet<>();
+            for (NotificationTopic topic : registry.getMatchingTopics(notificationId)) {
+                actualNames.add(topic.getName());
+            }
+            assertEquals(notificationId, expectedNames, actualNames);
+        }
+    }
+
+    /**
+     * Tests registering and removing topics.
+     */
+    @Test
+    public void testRegisterAndRemove() {
+        NotificationTopicRegistry registry = new NotificationTopicRegistry();
+        NotificationTopic topic = registry.register(STATE_ID);
+        assertSame(topic, registry.register(STATE_ID));
+        assertSame(topic, registry.get(STATE_ID));
+        assertEquals(1, registry.getMatchingTopics(STATE_ID).size());
+
+        assertSame(topic, registry.remove(STATE_ID));
+        assertNull(registry.get(STATE_ID));
+        assertNull(registry.remove(STATE_ID));
+        assertEquals(0, registry.getMatchingTopics(STATE_ID).size());
+    }
+
+    /**
+     * Tests the prefixes the patterns are indexed by.
+     */
+    @Test
+    public void testPrefixes() {
+        assertEquals("rce.component.state:", NotificationTopicRegistry.getIndexPrefix("rce.component.state:.*"));
+        assertEquals("rce.component.sta", NotificationTopicRegistry.getIndexPrefix("rce.component.stat?e"));
+        assertEquals("rce", NotificationTopicRegistry.getIndexPrefix("rce\\.component"));
+        assertEquals("", NotificationTopicRegistry.getIndexPrefix("a|b"));
+        assertEquals("", NotificationTopicRegistry.getIndexPrefix(".*"));
+        assertEquals("rce", NotificationTopicRegistry.getLiteralPrefix("rce.component.state:.*"));
+    }
+}
@@ -89,6 +89,18 @@ public interface DistributedNotificationService {
     Map<String, List<Notification>> getNotifications(String notificationId, ResolvableNodeId publishPlatform)
         throws RemoteOperationException;
 
+    /**
+     * Returns the stored {@link Notification}s represented by the given notification identifier, starting with the given edition number.
+     * 
+     * @param notificationId The notification identifier which represents the {@link Notification}s to get.
+     * @param startNumber The edition number of the first {@link Notification} to return.
+     * @param publishPlatform The {@link InstanceNodeSessionId} of the corresponding publisher. <code>null</code> if local.
+     * @return the {@link Notification}s sorted by the matching notification identifier.
+     * @throws RemoteOperationException if the remote call fails
+     */
+    Map<String, List<Notification>> getNotifications(String notificationId, long startNumber, ResolvableNodeId publishPlatform)
+        throws RemoteOperationException;
+
     /**
      * Registers the specified {@link NotificationSubscriber} to receive {@link Notification}s represented by the given identifier.
      * 
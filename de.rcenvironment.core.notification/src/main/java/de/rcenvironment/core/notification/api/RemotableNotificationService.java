@@ -54,4 +54,16 @@ public interface RemotableNotificationService {
      */
     Map<String, List<Notification>> getNotifications(String notificationId) throws RemoteOperationException;
 
+    /**
+     * Returns the stored {@link Notification}s represented by the given notification identifier, starting with the given edition number.
+     * Used by subscribers that already received the earlier {@link Notification}s, so that these are not transferred again.
+     * 
+     * @param notificationId The notification identifier which represents the {@link Notification} to get the {@link NotificationHeader}
+     *        for.
+     * @param startNumber The edition number of the first {@link Notification} to return.
+     * @return the {@link Notification}s with an edition number not less than the given one.
+     * @throws RemoteOperationException standard remote operation exception
+     */
+    Map<String, List<Notification>> getNotifications(String notificationId, long startNumber) throws RemoteOperationException;
+
 }
@@ -163,6 +163,12 @@ public class DistributedNotificationServiceImpl implements DistributedNotificati
         return getRemoteNotificationService(publishPlatform).getNotifications(notificationId);
     }
 
+    @Override
+    public Map<String, List<Notification>> getNotifications(String notificationId, long startNumber, ResolvableNodeId publishPlatform)
+        throws RemoteOperationException {
+        return getRemoteNotificationService(publishPlatform).getNotifications(notificationId, startNumber);
+    }
+
     private RemotableNotificationService getRemoteNotificationService(ResolvableNodeId publishPlatform) throws RemoteOperationException {
         return (RemotableNotificationService) communicationService.getRemotableService(RemotableNotificationService.class, publishPlatform);
     }
@@ -11,7 +11,6 @@ package de.rcenvironment.core.notification.internal;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -22,7 +21,10 @@ import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.regex.Pattern;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -113,6 +115,24 @@ public class NotificationServiceImpl implements NotificationService {
 
     }
 
+    /**
+     * The state of a single notification id: the number of the last notification sent, and the stored notifications if a buffer size was
+     * set. Each state is guarded by its own monitor, so that notifications of different ids can be sent concurrently, while the
+     * notifications of each id are numbered and enqueued for the subscribers in order.
+     * 
+     * @author agent
+     */
+    private static final class NotificationIdState {
+
+        /** The number of the last notification sent; null until a topic of this id has been registered. */
+        private Long currentNumber;
+
+        private int bufferSize;
+
+        /** The stored notifications; null if no buffer size was set. */
+        private SortedMap<NotificationHeader, Notification> notifications;
+    }
+
     /**
      * A {@link BatchProcessor} implementation that sends out batches of {@link Notification}s to a single {@link NotificationSubscriber}.
      * 
@@ -148,17 +168,10 @@ public class NotificationServiceImpl implements NotificationService {
     private final boolean verboseLogging = DebugSettings.getVerboseLoggingEnabled("Notifications");
 
     /** Local topics. */
-    private Map<String, NotificationTopic> topics = Collections.synchronizedMap(new HashMap<String, NotificationTopic>());
-
-    /** Current number of all notifications. */
-    private Map<String, Long> currentNumbers = Collections.synchronizedMap(new HashMap<String, Long>());
+    private final NotificationTopicRegistry topics = new NotificationTopicRegistry();
 
-    /** Buffer sizes of all notifications. */
-    private Map<String, Integer> bufferSizes = Collections.synchronizedMap(new HashMap<String, Integer>());
-
-    /** Stored notifications. */
-    private Map<String, SortedMap<NotificationHeader, Notification>> allNotifications =
-        Collections.synchronizedMap(new HashMap<String, SortedMap<NotificationHeader, Notification>>());
+    /** Current numbers, buffer sizes and stored notifications by notification id; sorted to look up ids by prefix. */
+    private final ConcurrentNavigableMap<String, NotificationIdState> notificationIdStates = new ConcurrentSkipListMap<>();
 
     private WeakHashMap<NotificationSubscriber, LocalSubscriberMetaData> subscriberMap =
         new WeakHashMap<NotificationSubscriber, NotificationServiceImpl.LocalSubscriberMetaData>();
@@ -175,11 +188,11 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     public void setBufferSize(String notificationId, int bufferSize) {
         if (bufferSize != 0) {
-            bufferSizes.put(notificationId, new Integer(bufferSize));
-            // synchronize explicitly to avoid potential "lost update" problem
-            synchronized (allNotifications) {
-                if (!allNotifications.containsKey(notificationId)) {
-                    allNotifications.put(notificationId, new TreeMap<NotificationHeader, Notification>());
+            final NotificationIdState state = getNotificationIdState(notificationId);
+            synchronized (state) {
+                state.bufferSize = bufferSize;
+                if (state.notifications == null) {
+                    state.notifications = new TreeMap<NotificationHeader, Notification>();
                 }
             }
         }
@@ -233,18 +246,12 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     private void deleteTopicInternal(String notificationId) {
-        synchronized (topics) {
-            NotificationTopic topic = getNotificationTopic(notificationId);
-            if (topic != null) {
-                topics.remove(topic.getName());
-                currentNumbers.remove(notificationId);
-                bufferSizes.remove(notificationId);
-                allNotifications.remove(notificationId);
-            }
+        if (topics.remove(notificationId) != null) {
+            notificationIdStates.remove(notificationId);
         }
     }
 
-    private synchronized <T extends Serializable> void sendInternal(String notificationId, T notificationBody) {
+    private <T extends Serializable> void sendInternal(String notificationId, T notificationBody) {
 
         if (TOPIC_STATISTICS_ENABLED) {
             if (StatsCounter.isEnabled()) {
@@ -257,36 +264,43 @@ public class NotificationServiceImpl implements NotificationService {
             registerNotificationTopic(notificationId);
         }
 
-        Long currentEdition = currentNumbers.get(notificationId);
-        Notification notification = new Notification(notificationId, currentEdition.longValue() + 1,
-            platformService.getLocalInstanceNodeSessionId(), notificationBody);
+        final NotificationIdState state = getNotificationIdState(notificationId);
+        // only notifications of the same id are sent sequentially
+        synchronized (state) {
+            long currentEdition = NO_MISSED;
+            if (state.currentNumber != null) {
+                currentEdition = state.currentNumber;
+            }
+            Notification notification = new Notification(notificationId, currentEdition + 1,
+                platformService.getLocalInstanceNodeSessionId(), notificationBody);
 
-        SortedMap<NotificationHeader, Notification> notifications = allNotifications.get(notificationId);
-        if (notifications != null) {
-            Integer bufferSize = bufferSizes.get(notificationId);
+            SortedMap<NotificationHeader, Notification> notifications = state.notifications;
+            if (notifications != null) {
+                int bufferSize = state.bufferSize;
 
-            if (bufferSize > 0 && notifications.size() >= bufferSize) {
-                if (notifications.remove(notifications.firstKey()) != null) {
+                if (bufferSize > 0 && notifications.size() >= bufferSize) {
+                    if (notifications.remove(notifications.firstKey()) != null) {
+                        notifications.put(notification.getHeader(), notification);
+                    }
+                } else {
                     notifications.put(notification.getHeader(), notification);
                 }
-            } else {
-                notifications.put(notification.getHeader(), notification);
             }
-        }
 
-        for (NotificationTopic matchingTopic : getMatchingNotificationTopics(notificationId)) {
-            for (NotificationSubscriber subscriber : matchingTopic.getSubscribers()) {
-                if (TOPIC_STATISTICS_ENABLED) {
-                    if (StatsCounter.isEnabled()) {
-                        StatsCounter.count("Notifications enqueued by type", notificationId);
+            for (NotificationTopic matchingTopic : topics.getMatchingTopics(notificationId)) {
+                for (NotificationSubscriber subscriber : matchingTopic.getSubscribers()) {
+                    if (TOPIC_STATISTICS_ENABLED) {
+                        if (StatsCounter.isEnabled()) {
+                            StatsCounter.count("Notifications enqueued by type", notificationId);
+                        }
                     }
+                    sendNotificationToSubscriber(notification, subscriber);
                 }
-                sendNotificationToSubscriber(notification, subscriber);
             }
-        }
 
-        // TODO review: is this guaranteed to be consistent with asynchronous sending? -- misc_ro
-        currentNumbers.put(notificationId, notification.getHeader().getNumber());
+            // TODO review: is this guaranteed to be consistent with asynchronous sending? -- misc_ro
+            state.currentNumber = notification.getHeader().getNumber();
+        }
     }
 
     private void sendNotificationToSubscriber(Notification notification, NotificationSubscriber subscriber) {
@@ -304,24 +318,23 @@ public class NotificationServiceImpl implements NotificationService {
         Map<String, Long> lastNumbers = new HashMap<String, Long>();
         NotificationTopic topic;
 
-        synchronized (topics) {
-            topic = getNotificationTopic(notificationId);
-            if (topic == null) {
-                topic = registerNotificationTopic(notificationId);
-                if (TOPIC_STATISTICS_ENABLED) {
-                    if (StatsCounter.isEnabled()) {
-                        StatsCounter.count("Register Topic", notificationId);
-                    }
+        topic = getNotificationTopic(notificationId);
+        if (topic == null) {
+            topic = registerNotificationTopic(notificationId);
+            if (TOPIC_STATISTICS_ENABLED) {
+                if (StatsCounter.isEnabled()) {
+                    StatsCounter.count("Register Topic", notificationId);
                 }
             }
         }
         topic.add(subscriber);
         getLocalSubscriberMetaData(subscriber).addSubscribedTopic(topic);
 
-        synchronized (currentNumbers) {
-            for (String tmpId : currentNumbers.keySet()) {
-                if (tmpId.matches(notificationId)) {
-                    lastNumbers.put(tmpId, currentNumbers.get(tmpId));
+        for (Map.Entry<String, NotificationIdState> entry : getMatchingNotificationIdStates(notificationId).entrySet()) {
+            final NotificationIdState state = entry.getValue();
+            synchronized (state) {
+                if (state.currentNumber != null) {
+                    lastNumbers.put(entry.getKey(), state.currentNumber);
                 }
             }
         }
@@ -337,12 +350,10 @@ public class NotificationServiceImpl implements NotificationService {
             LOGGER.debug("incoming unsubscribe(): " + notificationId + VERBOSE_LOG_OUTPUT_SEPARATOR + subscriber);
         }
 
-        synchronized (topics) {
-            NotificationTopic topic = getNotificationTopic(notificationId);
-            if (topic != null) {
-                topic.remove(subscriber);
-                getLocalSubscriberMetaData(subscriber).removeSubscribedTopic(topic);
-            }
+        NotificationTopic topic = getNotificationTopic(notificationId);
+        if (topic != null) {
+            topic.remove(subscriber);
+            getLocalSubscriberMetaData(subscriber).removeSubscribedTopic(topic);
         }
     }
 
@@ -350,9 +361,13 @@ public class NotificationServiceImpl implements NotificationService {
     public Notification getNotification(NotificationHeader header) {
 
         Notification notification = null;
-        Map<NotificationHeader, Notification> notifications = allNotifications.get(header.getNotificationIdentifier());
-        if (notifications != null) {
-            notification = notifications.get(header);
+        NotificationIdState state = notificationIdStates.get(header.getNotificationIdentifier());
+        if (state != null) {
+            synchronized (state) {
+                if (state.notifications != null) {
+                    notification = state.notifications.get(header);
+                }
+            }
         }
         return notification;
     }
@@ -362,14 +377,12 @@ public class NotificationServiceImpl implements NotificationService {
 
         Map<String, SortedSet<NotificationHeader>> allHeaders = new HashMap<String, SortedSet<NotificationHeader>>();
 
-        // note: access to iterators of synchronized maps must be synchronized explicitly
-        synchronized (allNotifications) {
-            // TODO iterating over map entries would probably be more efficient
-            for (String tmpId : allNotifications.keySet()) {
-                if (tmpId.matches(notificationId)) {
-                    Map<NotificationHeader, Notification> notifications = allNotifications.get(tmpId);
-                    SortedSet<NotificationHeader> headers = new TreeSet<NotificationHeader>(notifications.keySet());
-                    allHeaders.put(tmpId, headers);
+        for (Map.Entry<String, NotificationIdState> entry : getMatchingNotificationIdStates(notificationId).entrySet()) {
+            final NotificationIdState state = entry.getValue();
+            synchronized (state) {
+                if (state.notifications != null) {
+                    SortedSet<NotificationHeader> headers = new TreeSet<NotificationHeader>(state.notifications.keySet());
+                    allHeaders.put(entry.getKey(), headers);
                 }
             }
         }
@@ -383,14 +396,35 @@ public class NotificationServiceImpl implements NotificationService {
 
         Map<String, List<Notification>> allNotificationsToGet = new HashMap<String, List<Notification>>();
 
-        // note: access to iterators of synchronized maps must be synchronized explicitly
-        synchronized (allNotifications) {
-            // TODO iterating over map entries would probably be more efficient
-            for (String tmpId : allNotifications.keySet()) {
-                if (tmpId.matches(notificationId)) {
-                    Map<NotificationHeader, Notification> notifications = allNotifications.get(tmpId);
-                    List<Notification> notificationsToGet = new ArrayList<Notification>(notifications.values());
-                    allNotificationsToGet.put(tmpId, notificationsToGet);
+        for (Map.Entry<String, NotificationIdState> entry : getMatchingNotificationIdStates(notificationId).entrySet()) {
+            final NotificationIdState state = entry.getValue();
+            synchronized (state) {
+                if (state.notifications != null) {
+                    List<Notification> notificationsToGet = new ArrayList<Notification>(state.notifications.values());
+                    allNotificationsToGet.put(entry.getKey(), notificationsToGet);
+                }
+            }
+        }
+        return allNotificationsToGet;
+    }
+
+    @Override
+    @AllowRemoteAccess
+    public Map<String, List<Notification>> getNotifications(String notificationId, long startNumber) {
+
+        Map<String, List<Notification>> allNotificationsToGet = new HashMap<String, List<Notification>>();
+
+        for (Map.Entry<String, NotificationIdState> entry : getMatchingNotificationIdStates(notificationId).entrySet()) {
+            final NotificationIdState state = entry.getValue();
+            synchronized (state) {
+                if (state.notifications != null) {
+                    List<Notification> notificationsToGet = new ArrayList<Notification>();
+                    for (Notification notification : state.notifications.values()) {
+                        if (notification.getHeader().getNumber() >= startNumber) {
+                            notificationsToGet.add(notification);
+                        }
+                    }
+                    allNotificationsToGet.put(entry.getKey(), notificationsToGet);
                 }
             }
         }
@@ -432,18 +466,42 @@ public class NotificationServiceImpl implements NotificationService {
 
     private NotificationTopic registerNotificationTopic(String notificationId) {
 
-        NotificationTopic topic = new NotificationTopic(notificationId);
-        synchronized (topics) {
-            topics.put(topic.getName(), topic);
+        NotificationTopic topic = topics.register(notificationId);
+        final NotificationIdState state = getNotificationIdState(notificationId);
+        synchronized (state) {
+            if (state.currentNumber == null) {
+                state.currentNumber = new Long(NO_MISSED);
+            }
         }
-        currentNumbers.put(notificationId, new Long(NO_MISSED));
         return topic;
     }
 
     private NotificationTopic getNotificationTopic(String notificationId) {
-        synchronized (topics) {
-            return topics.get(notificationId);
+        return topics.get(notificationId);
+    }
+
+    private NotificationIdState getNotificationIdState(String notificationId) {
+        return notificationIdStates.computeIfAbsent(notificationId, id -> new NotificationIdState());
+    }
+
+    /**
+     * @param notificationIdPattern a notification id pattern (regular expression)
+     * @return the states of all notification ids matching the pattern
+     */
+    private Map<String, NotificationIdState> getMatchingNotificationIdStates(String notificationIdPattern) {
+        final Map<String, NotificationIdState> matchingStates = new HashMap<String, NotificationIdState>();
+        final Pattern filter = Pattern.compile(notificationIdPattern);
+        // only the ids starting with the literal prefix of the pattern can match
+        final String prefix = NotificationTopicRegistry.getLiteralPrefix(notificationIdPattern);
+        for (Map.Entry<String, NotificationIdState> entry : notificationIdStates.tailMap(prefix).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            if (filter.matcher(entry.getKey()).matches()) {
+                matchingStates.put(entry.getKey(), entry.getValue());
+            }
         }
+        return matchingStates;
     }
 
     private LocalSubscriberMetaData getLocalSubscriberMetaData(NotificationSubscriber subscriber) {
@@ -461,20 +519,6 @@ public class NotificationServiceImpl implements NotificationService {
         }
     }
 
-    private Set<NotificationTopic> getMatchingNotificationTopics(String currentNotificationId) {
-
-        // TODO (p2) >8.0.0: this is performed on every send() call, and is quite CPU and GC intensive; rework approach
-        Set<NotificationTopic> matchingTopics = new HashSet<NotificationTopic>();
-        synchronized (topics) {
-            for (NotificationTopic topic : topics.values()) {
-                if (topic.getNotificationIdFilter().matcher(currentNotificationId).matches()) {
-                    matchingTopics.add(topic);
-                }
-            }
-            return matchingTopics;
-        }
-    }
-
     protected void awaitAsyncTaskCompletion() {
         if (FEATURE_FLAG_USE_ASYNCHRONOUS_SENDING) {
             final CountDownLatch latch = new CountDownLatch(1);
@@ -29,13 +29,14 @@ public class NotificationTopic {
     /** The identifier of this notification topic (can be an regEx). */
     private String notificationId;
     
-    /** The cached, pre-compiled notification filter derived from the notificationId field. */  
-    private Pattern compiledRegExp;
+    /** The pre-compiled notification filter derived from the notificationId field. */
+    private final Pattern compiledRegExp;
 
     private Set<NotificationSubscriber> subscribers = Collections.synchronizedSet(new HashSet<NotificationSubscriber>());
 
     protected NotificationTopic(String notificationIdentifier) {
         notificationId = notificationIdentifier;
+        compiledRegExp = Pattern.compile("^" + notificationId + "$");
     }
 
     /**
@@ -72,12 +73,6 @@ public class NotificationTopic {
      * @return the compiled regular expression to filter other notification ids against
      */
     public Pattern getNotificationIdFilter() {
-        // Note: not synchronized to avoid overhead; race conditions arising from this should be
-        // harmless, as regexp compilation is deterministic, the assignment is atomic,
-        // and the performance cost of duplicate compilation is negligible. -- misc_ro
-        if (compiledRegExp == null) {
-            compiledRegExp = Pattern.compile("^" + notificationId + "$");
-        }
         return compiledRegExp;
     }
 
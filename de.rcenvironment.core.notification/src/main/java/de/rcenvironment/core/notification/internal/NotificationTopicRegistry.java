@@ -0,0 +1,172 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.notification.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the local {@link NotificationTopic}s, indexed to find the topics matching a notification id without matching the id against
+ * the pattern of each topic.
+ * 
+ * The patterns of the topics are indexed by their prefix up to the first regular expression construct other than '.' (see
+ * {@link #getIndexPrefix(String)}); as topics are usually registered for an exact notification id or for a common prefix followed by
+ * ".*", this is most of the pattern. Since '.' matches any character, the prefixes are grouped by their "shape", i.e. their length and the
+ * positions of their '.' characters. Within a group, the candidates for a notification id are found by a single hash lookup of the id's
+ * prefix with '.' at these positions. Only the candidates are matched against their full, precompiled pattern.
+ * 
+ * Lookups are not blocking, so that notifications can be sent concurrently; registering and removing topics is synchronized.
+ * 
+ * @author agent
+ */
+final class NotificationTopicRegistry {
+
+    private static final char WILDCARD = '.';
+
+    private static final char SHAPE_CHARACTER = 'x';
+
+    private static final String PATTERN_CHARACTERS = "\\^$?*+()[]{}|";
+
+    private static final String OPTIONAL_QUANTIFIERS = "?*{";
+
+    private final Map<String, NotificationTopic> topicsByName = new ConcurrentHashMap<>();
+
+    /** Shape of the index prefix -> index prefix -> topics. */
+    private final Map<String, Map<String, Set<NotificationTopic>>> topicsByPrefixShape = new ConcurrentHashMap<>();
+
+    /**
+     * @param name the name of the topic, i.e. its notification id pattern
+     * @return the topic, or null if no topic of this name is registered
+     */
+    NotificationTopic get(String name) {
+        return topicsByName.get(name);
+    }
+
+    /**
+     * Registers a new topic unless one of the given name is registered already.
+     * 
+     * @param name the name of the topic, i.e. its notification id pattern
+     * @return the registered topic
+     */
+    synchronized NotificationTopic register(String name) {
+        NotificationTopic topic = topicsByName.get(name);
+        if (topic == null) {
+            topic = new NotificationTopic(name);
+            final String prefix = getIndexPrefix(name);
+            topicsByPrefixShape.computeIfAbsent(getShape(prefix), shape -> new ConcurrentHashMap<>())
+                .computeIfAbsent(prefix, p -> ConcurrentHashMap.newKeySet()).add(topic);
+            topicsByName.put(name, topic);
+        }
+        return topic;
+    }
+
+    /**
+     * @param name the name of the topic, i.e. its notification id pattern
+     * @return the removed topic, or null if no topic of this name was registered
+     */
+    synchronized NotificationTopic remove(String name) {
+        final NotificationTopic topic = topicsByName.remove(name);
+        if (topic != null) {
+            final String prefix = getIndexPrefix(name);
+            final String shape = getShape(prefix);
+            final Map<String, Set<NotificationTopic>> topicsByPrefix = topicsByPrefixShape.get(shape);
+            final Set<NotificationTopic> topics = topicsByPrefix.get(prefix);
+            topics.remove(topic);
+            if (topics.isEmpty()) {
+                topicsByPrefix.remove(prefix);
+                if (topicsByPrefix.isEmpty()) {
+                    topicsByPrefixShape.remove(shape);
+                }
+            }
+        }
+        return topic;
+    }
+
+    /**
+     * @param notificationId the id of a sent notification
+     * @return the topics whose pattern matches the given id
+     */
+    List<NotificationTopic> getMatchingTopics(String notificationId) {
+        final List<NotificationTopic> matchingTopics = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Set<NotificationTopic>>> entry : topicsByPrefixShape.entrySet()) {
+            final String shape = entry.getKey();
+            if (shape.length() > notificationId.length()) {
+                continue;
+            }
+            final char[] key = notificationId.substring(0, shape.length()).toCharArray();
+            for (int i = 0; i < key.length; i++) {
+                if (shape.charAt(i) == WILDCARD) {
+                    key[i] = WILDCARD;
+                }
+            }
+            final Set<NotificationTopic> candidates = entry.getValue().get(new String(key));
+            if (candidates == null) {
+                continue;
+            }
+            for (NotificationTopic candidate : candidates) {
+                if (candidate.getNotificationIdFilter().matcher(notificationId).matches()) {
+                    matchingTopics.add(candidate);
+                }
+            }
+        }
+        return matchingTopics;
+    }
+
+    /**
+     * Determines the prefix of a notification id pattern that every matching notification id starts with, with '.' matching any
+     * character. The prefix ends before the first other regular expression construct, and before a character that may occur zero times;
+     * anything beyond that is left to the full pattern.
+     * 
+     * @param notificationIdPattern the pattern
+     * @return the prefix, possibly containing '.' as a wildcard
+     */
+    static String getIndexPrefix(String notificationIdPattern) {
+        if (notificationIdPattern.indexOf('|') >= 0) {
+            // alternatives do not share a prefix in general
+            return "";
+        }
+        int end = 0;
+        while (end < notificationIdPattern.length() && PATTERN_CHARACTERS.indexOf(notificationIdPattern.charAt(end)) < 0) {
+            end++;
+        }
+        if (end < notificationIdPattern.length() && end > 0 && OPTIONAL_QUANTIFIERS.indexOf(notificationIdPattern.charAt(end)) >= 0) {
+            // the last character of the prefix is optional
+            end--;
+        }
+        return notificationIdPattern.substring(0, end);
+    }
+
+    /**
+     * @param notificationIdPattern the pattern
+     * @return the prefix that every matching notification id starts with literally
+     */
+    static String getLiteralPrefix(String notificationIdPattern) {
+        final String prefix = getIndexPrefix(notificationIdPattern);
+        final int wildcardIndex = prefix.indexOf(WILDCARD);
+        if (wildcardIndex >= 0) {
+            return prefix.substring(0, wildcardIndex);
+        }
+        return prefix;
+    }
+
+    private static String getShape(String prefix) {
+        final char[] shape = new char[prefix.length()];
+        for (int i = 0; i < shape.length; i++) {
+            if (prefix.charAt(i) == WILDCARD) {
+                shape[i] = WILDCARD;
+            } else {
+                shape[i] = SHAPE_CHARACTER;
+            }
+        }
+        return new String(shape);
+    }
+}
@@ -9,11 +9,14 @@
 package de.rcenvironment.core.notification.testutils;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import de.rcenvironment.core.communication.api.CommunicationService;
 import de.rcenvironment.core.communication.common.InstanceNodeSessionId;
+import de.rcenvironment.core.communication.common.NodeIdentifierTestUtils;
 import de.rcenvironment.core.communication.common.ResolvableNodeId;
 import de.rcenvironment.core.notification.DistributedNotificationService;
 import de.rcenvironment.core.notification.Notification;
@@ -27,18 +30,30 @@ import de.rcenvironment.core.utils.common.rpc.RemoteOperationException;
  * Custom mock implementations of {@link CommunicationService} should use these as superclasses whenever possible to avoid code duplication,
  * and to shield the mock classes from irrelevant API changes.
  * 
+ * Sent notifications are kept in memory and numbered per notification identifier, so that subclasses and tests can fetch them via
+ * both getNotifications() variants.
+ * 
  * @author Doreen Seider
  */
 public class MockDistributedNotificationService implements DistributedNotificationService {
 
+    private final InstanceNodeSessionId localNodeId = NodeIdentifierTestUtils.createTestInstanceNodeSessionId();
+
+    private final Map<String, List<Notification>> sentNotifications = new HashMap<>();
+
     @Override
     public void setBufferSize(String notificationIdentifier, int bufferSize) {}
 
     @Override
-    public void removePublisher(String notificationIdentifier) {}
+    public synchronized void removePublisher(String notificationIdentifier) {
+        sentNotifications.remove(notificationIdentifier);
+    }
 
     @Override
-    public <T extends Serializable> void send(String notificationId, T notificationBody) {}
+    public synchronized <T extends Serializable> void send(String notificationId, T notificationBody) {
+        List<Notification> notifications = sentNotifications.computeIfAbsent(notificationId, id -> new ArrayList<>());
+        notifications.add(new Notification(notificationId, notifications.size(), localNodeId, notificationBody));
+    }
 
     @Override
     public Map<String, Long> subscribe(String notificationId, NotificationSubscriber subscriber, ResolvableNodeId publisherPlatform) {
@@ -51,7 +66,26 @@ public class MockDistributedNotificationService implements DistributedNotificati
     @Override
     public Map<String, List<Notification>> getNotifications(String notificationId, ResolvableNodeId publishPlatform)
         throws RemoteOperationException {
-        return null;
+        return getNotifications(notificationId, 0, publishPlatform);
+    }
+
+    @Override
+    public synchronized Map<String, List<Notification>> getNotifications(String notificationId, long startNumber,
+        ResolvableNodeId publishPlatform) throws RemoteOperationException {
+        Map<String, List<Notification>> result = new HashMap<>();
+        for (Map.Entry<String, List<Notification>> entry : sentNotifications.entrySet()) {
+            if (!entry.getKey().matches(notificationId)) {
+                continue;
+            }
+            List<Notification> notifications = new ArrayList<>();
+            for (Notification notification : entry.getValue()) {
+                if (notification.getHeader().getNumber() >= startNumber) {
+                    notifications.add(notification);
+                }
+            }
+            result.put(entry.getKey(), notifications);
+        }
+        return result;
     }
 
     @Override
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.scripting.python;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Test for {@link PythonPackedArrays}.
+ * 
+ * @author agent
+ */
+public class PythonPackedArraysTest {
+
+    /**
+     * Tests that a packed vector is unpacked into a list of its values, including non-finite values.
+     */
+    @Test
+    public void testVectorRoundTrip() {
+        final Map<String, Object> packed = PythonPackedArrays.pack(new double[] { 1.5, -2, Double.NaN, Double.POSITIVE_INFINITY });
+        assertTrue(PythonPackedArrays.isPacked(packed));
+        assertEquals(Arrays.asList(4), packed.get(PythonPackedArrays.KEY_SHAPE));
+        assertEquals(Arrays.asList(1.5, -2.0, Double.NaN, Double.POSITIVE_INFINITY), PythonPackedArrays.unpack(packed));
+    }
+
+    /**
+     * Tests that a packed matrix is unpacked into a list of rows.
+     */
+    @Test
+    public void testMatrixRoundTrip() {
+        final Map<String, Object> packed = PythonPackedArrays.pack(new double[][] { { 1, 2, 3 }, { 4, 5, 6 } });
+        assertEquals(Arrays.asList(2, 3), packed.get(PythonPackedArrays.KEY_SHAPE));
+        final List<Object> unpacked = PythonPackedArrays.unpack(packed);
+        assertEquals(Arrays.asList(Arrays.asList(1.0, 2.0, 3.0), Arrays.asList(4.0, 5.0, 6.0)), unpacked);
+    }
+
+    /**
+     * Tests that the values are packed as little-endian 64-bit floats, as expected by the python side.
+     */
+    @Test
+    public void testLittleEndianEncoding() {
+        final Map<String, Object> packed = PythonPackedArrays.pack(new double[] { 1.0 });
+        final byte[] data = Base64.getDecoder().decode((String) packed.get(PythonPackedArrays.KEY_DATA));
+        // 1.0 is 0x3FF0000000000000
+        assertEquals(Double.BYTES, data.length);
+        assertEquals(0, data[0]);
+        assertEquals((byte) 0xF0, data[6]);
+        assertEquals((byte) 0x3F, data[7]);
+    }
+
+    /**
+     * Tests that other values are not considered as packed arrays, and that inconsistent packed arrays are rejected.
+     */
+    @Test
+    public void testInvalidPackedArrays() {
+        assertFalse(PythonPackedArrays.isPacked(Arrays.asList(1.0, 2.0)));
+        assertFalse(PythonPackedArrays.isPacked(new HashMap<String, Object>()));
+
+        final Map<String, Object> packed = PythonPackedArrays.pack(new double[] { 1.0, 2.0 });
+        packed.put(PythonPackedArrays.KEY_SHAPE, Arrays.asList(3));
+        try {
+            PythonPackedArrays.unpack(packed);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("shape"));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.scripting.python;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Packs vectors and matrices into a binary representation for the in-memory exchange with a python instance, and unpacks them again. A
+ * packed array is a map containing the shape of the array and its values as Base64-encoded little-endian 64-bit floats in row-major order,
+ * so that it can be embedded into the JSON messages exchanged with the python instance and is unpacked there by RCE_Channel.py. This avoids
+ * formatting and parsing every single value as a JSON number.
+ * 
+ * @author agent
+ */
+public final class PythonPackedArrays {
+
+    /**
+     * Key of the entry identifying a packed array; its value is the type of the packed values.
+     */
+    public static final String KEY_PACKED = "rcePacked";
+
+    /**
+     * Key of the entry holding the shape of a packed array, i.e. its length or its number of rows and columns.
+     */
+    public static final String KEY_SHAPE = "shape";
+
+    /**
+     * Key of the entry holding the Base64-encoded values of a packed array.
+     */
+    public static final String KEY_DATA = "data";
+
+    private static final String TYPE_FLOAT64 = "float64";
+
+    private PythonPackedArrays() {}
+
+    /**
+     * @param values the values of a vector
+     * @return the packed vector, which is unpacked into a list in python
+     */
+    public static Map<String, Object> pack(double[] values) {
+        return createPackedArray(Arrays.asList(values.length), values);
+    }
+
+    /**
+     * @param values the values of a matrix ([row][column]); all rows must have the same length
+     * @return the packed matrix, which is unpacked into a list of rows in python
+     */
+    public static Map<String, Object> pack(double[][] values) {
+        final int columnCount;
+        if (values.length > 0) {
+            columnCount = values[0].length;
+        } else {
+            columnCount = 0;
+        }
+        final double[] flatValues = new double[values.length * columnCount];
+        for (int i = 0; i < values.length; i++) {
+            System.arraycopy(values[i], 0, flatValues, i * columnCount, columnCount);
+        }
+        return createPackedArray(Arrays.asList(values.length, columnCount), flatValues);
+    }
+
+    /**
+     * @param value a value received from python
+     * @return true, if the given value is a packed array
+     */
+    public static boolean isPacked(Object value) {
+        return value instanceof Map && ((Map<?, ?>) value).containsKey(KEY_PACKED);
+    }
+
+    /**
+     * Unpacks a packed array into the representation python values are parsed into otherwise, i.e. a list of {@link Double}s for a vector
+     * and a list of rows for a matrix.
+     * 
+     * @param packedArray the packed array
+     * @return the unpacked array
+     * @throws IllegalArgumentException if the given value is not a valid packed array
+     */
+    public static List<Object> unpack(Object packedArray) {
+        if (!isPacked(packedArray)) {
+            throw new IllegalArgumentException("Not a packed array: " + packedArray);
+        }
+        final Map<?, ?> map = (Map<?, ?>) packedArray;
+        if (!TYPE_FLOAT64.equals(map.get(KEY_PACKED))) {
+            throw new IllegalArgumentException("Unsupported type of packed array: " + map.get(KEY_PACKED));
+        }
+        final List<?> shape = (List<?>) map.get(KEY_SHAPE);
+        final ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode((String) map.get(KEY_DATA))).order(ByteOrder.LITTLE_ENDIAN);
+        if (shape.size() == 1) {
+            return readValues(buffer, ((Number) shape.get(0)).intValue());
+        } else if (shape.size() == 2) {
+            final int rowCount = ((Number) shape.get(0)).intValue();
+            final int columnCount = ((Number) shape.get(1)).intValue();
+            final List<Object> rows = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                rows.add(readValues(buffer, columnCount));
+            }
+            return rows;
+        } else {
+            throw new IllegalArgumentException("Unsupported shape of packed array: " + shape);
+        }
+    }
+
+    private static Map<String, Object> createPackedArray(List<Integer> shape, double[] flatValues) {
+        final ByteBuffer buffer = ByteBuffer.allocate(flatValues.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asDoubleBuffer().put(flatValues);
+        final Map<String, Object> packedArray = new HashMap<>();
+        packedArray.put(KEY_PACKED, TYPE_FLOAT64);
+        packedArray.put(KEY_SHAPE, shape);
+        packedArray.put(KEY_DATA, Base64.getEncoder().encodeToString(buffer.array()));
+        return packedArray;
+    }
+
+    private static List<Object> readValues(ByteBuffer buffer, int count) {
+        if (buffer.remaining() < count * Double.BYTES) {
+            throw new IllegalArgumentException("Packed array contains less values than given by its shape");
+        }
+        final List<Object> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(buffer.getDouble());
+        }
+        return values;
+    }
+}
@@ -15,7 +15,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +44,7 @@ import de.rcenvironment.core.component.execution.api.ComponentContext;
 import de.rcenvironment.core.component.execution.api.ConsoleRow;
 import de.rcenvironment.core.component.execution.api.ConsoleRowUtils;
 import de.rcenvironment.core.component.model.endpoint.api.EndpointDefinition.InputExecutionContraint;
+import de.rcenvironment.core.datamodel.api.DataType;
 import de.rcenvironment.core.datamodel.types.api.BooleanTD;
 import de.rcenvironment.core.datamodel.types.api.DirectoryReferenceTD;
 import de.rcenvironment.core.datamodel.types.api.FileReferenceTD;
@@ -88,6 +91,26 @@ public class PythonScriptEngine implements ScriptEngine {
 
     private static final String SLASH = "/";
 
+    private static final String RUN_KEY_INPUTS = "inputs";
+
+    private static final String RUN_KEY_INPUTS_REQ_IF_CONNECTED = "inputsReqIfConnected";
+
+    private static final String RUN_KEY_STATE_VARIABLES = "stateVariables";
+
+    private static final String RUN_KEY_RUN_NUMBER = "runNumber";
+
+    private static final String RUN_KEY_OUTPUT_NAMES = "outputNames";
+
+    private static final String RUN_KEY_PACKED_OUTPUT_NAMES = "packedOutputNames";
+
+    private static final String RESULT_KEY_OUTPUTS = "outputs";
+
+    private static final String RESULT_KEY_CLOSED_OUTPUTS = "closedOutputs";
+
+    private static final String RESULT_KEY_STATE_VARIABLES = "stateVariables";
+
+    private static final String RESULT_KEY_WRITTEN_FILES = "writtenFiles";
+
     private static ComponentDataManagementService componentDatamanagementService;
 
     private File tempDir;
@@ -223,9 +246,39 @@ public class PythonScriptEngine implements ScriptEngine {
     }
 
     private void writeInputForPython() {
+        final Map<String, Object> run = collectInputForPython(false);
+        try {
+            mapper.writeValue(new File(tempDir.getAbsolutePath(), "pythonInput.rced"), run.get(RUN_KEY_INPUTS));
+            mapper.writeValue(new File(tempDir.getAbsolutePath(), "pythonInputReqIfConnected.rced"),
+                run.get(RUN_KEY_INPUTS_REQ_IF_CONNECTED));
+            mapper.writeValue(new File(tempDir.getAbsolutePath(), "pythonStateVariables.rces"),
+                run.get(RUN_KEY_STATE_VARIABLES));
+            mapper.writeValue(new File(tempDir.getAbsolutePath(), "pythonRunNumber.rcen"),
+                run.get(RUN_KEY_RUN_NUMBER));
+
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage());
+        }
+
+        try {
+            mapper.writeValue(new File(tempDir.getAbsolutePath() + File.separator + "outputs.rceo"), run.get(RUN_KEY_OUTPUT_NAMES));
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage());
+        }
+    }
+
+    /**
+     * Collects the values passed to python for a run, i.e. the inputs, the names of the inputs that are not connected, the state
+     * variables, the run number and the names of the outputs.
+     * 
+     * @param packArrays if true, vectors and matrices are packed via {@link PythonPackedArrays}, and the names of the outputs python shall
+     *        pack are added
+     * @return the values by their key in the run message
+     */
+    private Map<String, Object> collectInputForPython(boolean packArrays) {
         ComponentContext compContext = (ComponentContext) context
             .getAttribute(PythonComponentConstants.COMPONENT_CONTEXT);
-        Map<String, Object> inputsToWrite = extractInputsToWrite(compContext);
+        Map<String, Object> inputsToWrite = extractInputsToWrite(compContext, packArrays);
         List<String> inputsNotConnected = new LinkedList<>();
         for (String input : compContext.getInputsNotConnected()) {
             if (compContext.getInputMetaDataValue(input,
@@ -252,31 +305,29 @@ public class PythonScriptEngine implements ScriptEngine {
                 inputsNotConnected.add(input);
             }
         }
-        try {
-            mapper.writeValue(new File(tempDir.getAbsolutePath(), "pythonInput.rced"), inputsToWrite);
-            mapper.writeValue(new File(tempDir.getAbsolutePath(), "pythonInputReqIfConnected.rced"),
-                inputsNotConnected);
-            mapper.writeValue(new File(tempDir.getAbsolutePath(), "pythonStateVariables.rces"),
-                context.getAttribute(PythonComponentConstants.STATE_MAP));
-            mapper.writeValue(new File(tempDir.getAbsolutePath(), "pythonRunNumber.rcen"),
-                context.getAttribute(PythonComponentConstants.RUN_NUMBER));
-
-        } catch (IOException e) {
-            LOGGER.error(e.getMessage());
-        }
-
         List<String> outputNames = new LinkedList<>();
+        List<String> packedOutputNames = new LinkedList<>();
         for (String outputName : compContext.getOutputs()) {
             outputNames.add(outputName);
+            final DataType outputDataType = compContext.getOutputDataType(outputName);
+            if (outputDataType == DataType.Vector || outputDataType == DataType.Matrix) {
+                packedOutputNames.add(outputName);
+            }
         }
-        try {
-            mapper.writeValue(new File(tempDir.getAbsolutePath() + File.separator + "outputs.rceo"), outputNames);
-        } catch (IOException e) {
-            LOGGER.error(e.getMessage());
+
+        final Map<String, Object> run = new LinkedHashMap<>();
+        run.put(RUN_KEY_INPUTS, inputsToWrite);
+        run.put(RUN_KEY_INPUTS_REQ_IF_CONNECTED, inputsNotConnected);
+        run.put(RUN_KEY_STATE_VARIABLES, context.getAttribute(PythonComponentConstants.STATE_MAP));
+        run.put(RUN_KEY_RUN_NUMBER, context.getAttribute(PythonComponentConstants.RUN_NUMBER));
+        run.put(RUN_KEY_OUTPUT_NAMES, outputNames);
+        if (packArrays) {
+            run.put(RUN_KEY_PACKED_OUTPUT_NAMES, packedOutputNames);
         }
+        return run;
     }
 
-    private Map<String, Object> extractInputsToWrite(ComponentContext compContext) {
+    private Map<String, Object> extractInputsToWrite(ComponentContext compContext, boolean packArrays) {
         Map<String, Object> inputsToWrite = new HashMap<>();
         for (String inputName : compContext.getInputsWithDatum()) {
             switch (compContext.getInputDataType(inputName)) {
@@ -328,6 +379,10 @@ public class PythonScriptEngine implements ScriptEngine {
                 break;
             case Vector:
                 VectorTD vector = (VectorTD) compContext.readInput(inputName);
+                if (packArrays) {
+                    inputsToWrite.put(inputName, PythonPackedArrays.pack(vector.toDoubleArray()));
+                    break;
+                }
                 Object[] resultVector = new Object[vector.getRowDimension()];
                 for (int j = 0; j < vector.getRowDimension(); j++) {
                     resultVector[j] = vector.getFloatTDOfElement(j).getFloatValue();
@@ -336,6 +391,15 @@ public class PythonScriptEngine implements ScriptEngine {
                 break;
             case Matrix:
                 MatrixTD matrix = (MatrixTD) compContext.readInput(inputName);
+                if (packArrays) {
+                    // like below, a matrix with a single row is passed as a flat list
+                    if (matrix.getRowDimension() > 1) {
+                        inputsToWrite.put(inputName, PythonPackedArrays.pack(matrix.toDoubleArray()));
+                    } else {
+                        inputsToWrite.put(inputName, PythonPackedArrays.pack(matrix.toDoubleArray()[0]));
+                    }
+                    break;
+                }
                 if (matrix.getRowDimension() > 1) {
                     Object[][] result = new Object[matrix.getRowDimension()][matrix.getColumnDimension()];
                     for (int i = 0; i < result.length; i++) {
@@ -412,6 +476,43 @@ public class PythonScriptEngine implements ScriptEngine {
         }
     }
 
+    /**
+     * Reads the outputs, the closed outputs, the state variables and the files written by the input file factory from the result
+     * message of an in-memory script execution. Packed vectors and matrices are unpacked.
+     * 
+     * @param result the result message
+     */
+    @SuppressWarnings("unchecked")
+    private void readOutputFromMessage(Map<String, Object> result) {
+        output = new HashMap<>();
+        final Map<String, List<Object>> outputs = (Map<String, List<Object>>) result.get(RESULT_KEY_OUTPUTS);
+        if (outputs != null) {
+            for (Map.Entry<String, List<Object>> entry : outputs.entrySet()) {
+                final ArrayList<Object> values = new ArrayList<>(entry.getValue().size());
+                for (Object value : entry.getValue()) {
+                    if (PythonPackedArrays.isPacked(value)) {
+                        values.add(PythonPackedArrays.unpack(value));
+                    } else {
+                        values.add(value);
+                    }
+                }
+                output.put(entry.getKey(), values);
+            }
+        }
+        closeOutputChannelsList = new LinkedList<>();
+        if (result.get(RESULT_KEY_CLOSED_OUTPUTS) != null) {
+            closeOutputChannelsList.addAll((List<String>) result.get(RESULT_KEY_CLOSED_OUTPUTS));
+        }
+        stateOutput = new HashMap<>();
+        if (result.get(RESULT_KEY_STATE_VARIABLES) != null) {
+            stateOutput.putAll((Map<String, Object>) result.get(RESULT_KEY_STATE_VARIABLES));
+        }
+        writtenFileOutput = new LinkedList<>();
+        if (result.get(RESULT_KEY_WRITTEN_FILES) != null) {
+            writtenFileOutput.addAll((List<String>) result.get(RESULT_KEY_WRITTEN_FILES));
+        }
+    }
+
     public Map<String, Object> getStateOutput() {
         return stateOutput;
     }
@@ -609,4 +710,26 @@ public class PythonScriptEngine implements ScriptEngine {
         readOutputFromPython();
     }
 
+    /**
+     * Prepares a script execution that exchanges its inputs and outputs with the python instance in memory instead of via files. Only the
+     * files of file and directory inputs are still written to the given directory.
+     * 
+     * @param directory current working directory.
+     * @return the run message to send to the python instance along with the script
+     */
+    public synchronized Map<String, Object> agentPrepareInMemoryScriptExecution(File directory) {
+        tempDir = directory;
+        return collectInputForPython(true);
+    }
+
+    /**
+     * Counterpart of {@link #agentPrepareInMemoryScriptExecution(File)}: reads the outputs from the result message received from the
+     * python instance.
+     * 
+     * @param result the result message
+     */
+    public void agentReadOutputFromMessage(Map<String, Object> result) {
+        readOutputFromMessage(result);
+    }
+
 }
@@ -9,6 +9,9 @@ Created on 24.04.2013
 import simplejson as json
 import math
 import os
+import sys
+import base64
+import array
 from decimal import *
 from io import IOBase 
 
@@ -226,6 +229,84 @@ def init_module():
     RCE_CHANNEL_CLOSE = []
     RCE_STATE_VARIABLES = read_state_variables_internal()
     RCE_CURRENT_RUN_NUMBER = read_run_number_internal()
+
+def init_module_from_run_internal(run):
+    """
+    INTERNAL METHOD
+    Initializes the module from a run message received from RCE instead of reading the input files
+    """
+    global RCE_CHANNEL_INPUT, RCE_CHANNEL_REQ_IF_CONNECTED, RCE_CHANNEL_OUTPUT_NAMES, RCE_CHANNEL_OUTPUT, RCE_CHANNEL_CLOSE, RCE_STATE_VARIABLES, RCE_CURRENT_RUN_NUMBER, RCE_INPUT_FILES, RCE_PACKED_OUTPUT_NAMES
+    RCE_CHANNEL_INPUT = {}
+    for name, value in run.get("inputs", {}).items():
+        if __is_packed__(value):
+            value = __unpack_array__(value)
+        RCE_CHANNEL_INPUT[name] = value
+    RCE_CHANNEL_REQ_IF_CONNECTED = run.get("inputsReqIfConnected", [])
+    RCE_CHANNEL_OUTPUT_NAMES = run.get("outputNames", [])
+    RCE_CHANNEL_OUTPUT = {}
+    RCE_CHANNEL_CLOSE = []
+    RCE_STATE_VARIABLES = run.get("stateVariables", {})
+    RCE_CURRENT_RUN_NUMBER = run.get("runNumber", -1)
+    RCE_INPUT_FILES = []
+    RCE_PACKED_OUTPUT_NAMES = run.get("packedOutputNames", [])
+
+def get_run_result_message_internal(successful):
+    """
+    INTERNAL METHOD
+    Returns the message sent back to RCE instead of writing the output files. Values of vector and matrix outputs are packed.
+    """
+    outputs = {}
+    for name, values in RCE_CHANNEL_OUTPUT.items():
+        if name in RCE_PACKED_OUTPUT_NAMES:
+            outputs[name] = [__pack_array__(value) for value in values]
+        else:
+            outputs[name] = values
+    return json.dumps({"successful": successful, "outputs": outputs, "closedOutputs": RCE_CHANNEL_CLOSE,
+        "stateVariables": RCE_STATE_VARIABLES, "writtenFiles": RCE_INPUT_FILES})
+
+def __is_packed__(value):
+    return isinstance(value, dict) and "rcePacked" in value
+
+def __unpack_array__(value):
+    """
+    Unpacks a vector or matrix packed by RCE into a list or a list of rows
+    """
+    values = array.array('d')
+    values.frombytes(base64.b64decode(value["data"]))
+    if sys.byteorder != "little":
+        values.byteswap()
+    values = values.tolist()
+    shape = value["shape"]
+    if len(shape) == 1:
+        return values
+    return [values[row * shape[1]:(row + 1) * shape[1]] for row in range(shape[0])]
+
+def __pack_array__(value):
+    """
+    Packs a list of numbers or a list of equally long lists of numbers; other values are returned unchanged
+    """
+    if not isinstance(value, list) or len(value) == 0:
+        return value
+    if all(isinstance(row, list) for row in value):
+        column_count = len(value[0])
+        if column_count == 0 or any(len(row) != column_count for row in value):
+            return value
+        elements = [element for row in value for element in row]
+        shape = [len(value), column_count]
+    else:
+        elements = value
+        shape = [len(value)]
+    values = array.array('d')
+    for element in elements:
+        if element == "+Infinity":
+            values.append(float('inf'))
+        elif isinstance(element, (int, float)) and not isinstance(element, bool):
+            values.append(float(element))
+        else:
+            return value
+    if sys.byteorder != "little":
+        values.byteswap()
+    return {"rcePacked": "float64", "shape": shape, "data": base64.b64encode(values.tobytes()).decode('ascii')}
     
 def show_variables():
 	print("RCE_CHANNEL_INPUT:",RCE_CHANNEL_INPUT)
@@ -243,4 +324,5 @@ RCE_CHANNEL_OUTPUT = {}
 RCE_CHANNEL_CLOSE = []
 RCE_STATE_VARIABLES = read_state_variables_internal()
 RCE_CURRENT_RUN_NUMBER = read_run_number_internal()
-RCE_INPUT_FILES = []
\ No newline at end of file
+RCE_INPUT_FILES = []
+RCE_PACKED_OUTPUT_NAMES = []
\ No newline at end of file
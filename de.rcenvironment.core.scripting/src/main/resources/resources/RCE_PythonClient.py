@@ -8,20 +8,22 @@ class SocketReader:
     def __init__(self, socket):
         self._socket = socket
         self._nonreturned_messages = []
+        #Holds the beginning of a message whose terminating null byte has not been received yet.
+        self._data_buffer = bytearray()
 
     def getNextMessage(self):
         if not len(self._nonreturned_messages) == 0:
             return self._pop_nonreturned_message()
 
         while len(self._nonreturned_messages) == 0:
-            data = self._socket.recv(1024)
-            data_buffer = bytearray()
-            for byte in data:
-                if byte != 0:
-                    data_buffer.append(byte)
-                else:
-                    self._nonreturned_messages.append(bytes(data_buffer).decode('UTF-8'))
-                    data_buffer = bytearray()
+            data = self._socket.recv(65536)
+            if not data:
+                return None
+            self._data_buffer.extend(data)
+            messages = self._data_buffer.split(b'\0')
+            self._data_buffer = messages.pop()
+            for message in messages:
+                self._nonreturned_messages.append(bytes(message).decode('UTF-8'))
 
         return self._pop_nonreturned_message()
     
@@ -76,6 +78,8 @@ class Worker(object):
                     pass
                 if socketState == "socket closed":
                     return
+            elif order is not None and order.startswith("{"):
+                self.executeRunMessage(order)
             order = self.receiveMessage()
             if order == None:
                 return
@@ -163,6 +167,27 @@ class Worker(object):
             self.sendMessage("Error when executing the script. Waiting for next task.")
         return "socket is still open"
         
+    #Is called whenever a script shall be executed with its inputs and outputs exchanged in memory. The script, the inputs and the state
+    #variables are received in a single message, and the outputs and state variables are sent back in a single message.
+    def executeRunMessage(self, message):
+        executionError = False
+        try:
+            parsedJSON = json.loads(message)
+            RCE.init_module_from_run_internal(parsedJSON["run"])
+            CONTEXT = {"RCE":RCE}
+            codeObject = compile(parsedJSON["script"], 'script', 'exec')
+            exec(codeObject, CONTEXT)
+        except:
+            traceback.print_exc()
+            executionError = True
+
+        try:
+            result = RCE.get_run_result_message_internal(not executionError)
+        except:
+            traceback.print_exc()
+            result = json.dumps({"successful": False})
+        self.sendMessage(result)
+
     def stopInstance(self):
         self.sendMessage("Shutting down instance.")
         self.sock.close()
@@ -175,7 +200,7 @@ class Worker(object):
         array = bytearray(string.encode('UTF-8'))
         # We terminate each sent message with a null byte
         array.append(0)
-        self.sock.send(bytes(array))
+        self.sock.sendall(bytes(array))
 
 def start(port, token, number):
     #Create and initialize a worker object.
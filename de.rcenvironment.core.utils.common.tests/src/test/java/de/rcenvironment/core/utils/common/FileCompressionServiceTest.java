@@ -16,14 +16,20 @@ import static org.junit.Assume.assumeTrue;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.SystemUtils;
 import org.apache.commons.logging.LogFactory;
@@ -1131,6 +1137,58 @@ public class FileCompressionServiceTest {
 
     }
 
+    /**
+     * Tests expanding a .tar.gz archive that consists of several gzip members, as written by {@link ParallelGzipOutputStream}, from a
+     * stream that does not report any available bytes at the member boundaries, as remote streams do.
+     * 
+     * @throws IOException I/O issue
+     */
+    @Test
+    public void expandMultiMemberGzipFromInputStream() throws IOException {
+        assumeTrue(formatParameter == FileCompressionFormat.TAR_GZ);
+        final File inputDir = createTempDir();
+        final File outputDir = createTempDir();
+
+        createAndVerifyFile(inputDir, FILE_NAME_TEST);
+        createAndVerifyFile(inputDir, generateFilenameForTestFile2InSecondDir());
+
+        final byte[] archiveByteArray = FileCompressionService.compressDirectoryToByteArray(inputDir, formatParameter, false);
+        final byte[] tarByteArray = IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(archiveByteArray)));
+        // compress the two halves of the tar archive as separate gzip members
+        final ByteArrayOutputStream multiMemberArchive = new ByteArrayOutputStream();
+        final int half = tarByteArray.length / 2;
+        writeGzipMember(multiMemberArchive, Arrays.copyOfRange(tarByteArray, 0, half));
+        writeGzipMember(multiMemberArchive, Arrays.copyOfRange(tarByteArray, half, tarByteArray.length));
+
+        // deliver single bytes without reporting further available ones
+        final InputStream slowStream = new FilterInputStream(new ByteArrayInputStream(multiMemberArchive.toByteArray())) {
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1));
+            }
+
+            @Override
+            public int available() {
+                return 0;
+            }
+        };
+        assertTrue(MSG_EXPANDING_WAS_NOT_SUCCESSFUL,
+            FileCompressionService.expandCompressedDirectoryFromInputStream(slowStream, outputDir, formatParameter));
+
+        final String[] filenameArrayRoot = outputDir.list();
+        final String[] filenameArraySecond = new File(String.format(FORMAT_SECOND_DIR, outputDir.getAbsolutePath(), "", "",
+            File.separator)).list();
+        assertTrue(MSG_EXPECTED_FILE_WAS_MISSING, ArrayUtils.contains(filenameArrayRoot, FILE_NAME_TEST));
+        assertTrue(MSG_EXPECTED_FILE_WAS_MISSING, ArrayUtils.contains(filenameArraySecond, FILE_NAME_TEST2));
+    }
+
+    private void writeGzipMember(OutputStream out, byte[] content) throws IOException {
+        final GZIPOutputStream gzipOut = new GZIPOutputStream(out);
+        gzipOut.write(content);
+        gzipOut.finish();
+    }
+
     private File createTempDir() throws IOException {
         final File tempDir = tempFileService.createManagedTempDir();
         managedTempDirsToDispose.add(tempDir);
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.utils.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import de.rcenvironment.core.toolkitbridge.transitional.ConcurrencyUtils;
+
+/**
+ * Test cases for {@link ParallelGzipOutputStream}.
+ * 
+ * @author agent
+ */
+public class ParallelGzipOutputStreamTest {
+
+    /**
+     * Tests that data spanning several blocks, written in arbitrary chunks, is decompressed unchanged by a standard gzip decoder.
+     * 
+     * @throws IOException on unexpected errors
+     */
+    @Test
+    public void testMultipleBlocks() throws IOException {
+        final Random random = new Random(1);
+        final byte[] content = new byte[5 * ParallelGzipOutputStream.BLOCK_SIZE / 2];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + random.nextInt(4));
+        }
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, ConcurrencyUtils.getAsyncTaskService(), 2)) {
+            int offset = 0;
+            out.write(content[offset++]);
+            while (offset < content.length) {
+                final int chunk = Math.min(content.length - offset, random.nextInt(3 * ParallelGzipOutputStream.BLOCK_SIZE / 4));
+                out.write(content, offset, chunk);
+                offset += chunk;
+            }
+        }
+        assertArrayEquals(content, decompress(compressed.toByteArray()));
+    }
+
+    /**
+     * Tests that flushing in between and writing no data at all results in valid gzip data.
+     * 
+     * @throws IOException on unexpected errors
+     */
+    @Test
+    public void testFlushAndEmptyStream() throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ParallelGzipOutputStream out = new ParallelGzipOutputStream(compressed, ConcurrencyUtils.getAsyncTaskService())) {
+            out.write(new byte[] { 1, 2 });
+            out.flush();
+            out.write(3);
+        }
+        assertArrayEquals(new byte[] { 1, 2, 3 }, decompress(compressed.toByteArray()));
+
+        final ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        new ParallelGzipOutputStream(empty, ConcurrencyUtils.getAsyncTaskService()).close();
+        assertEquals(0, decompress(empty.toByteArray()).length);
+    }
+
+    private byte[] decompress(byte[] compressed) throws IOException {
+        final ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            final byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                decompressed.write(buffer, 0, n);
+            }
+        }
+        return decompressed.toByteArray();
+    }
+}
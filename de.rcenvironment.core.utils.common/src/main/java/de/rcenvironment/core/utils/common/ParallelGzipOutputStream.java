@@ -0,0 +1,197 @@
+/*
+ * Copyright 2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.utils.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import de.rcenvironment.toolkit.modules.concurrency.api.AsyncTaskService;
+
+/**
+ * An {@link OutputStream} writing gzip data compressed at the fastest level. The data is split into blocks that are compressed
+ * concurrently, each into a gzip member of its own. As the members are written in order, the result is a valid multi-member gzip stream
+ * that can be read by any gzip decoder supporting concatenated members.
+ * 
+ * As gzip compression is CPU-bound, this increases the throughput roughly by the number of available cores, at the cost of a slightly
+ * lower compression ratio caused by the fastest compression level and the block boundaries.
+ * 
+ * @author agent
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+
+    /** The size of the uncompressed blocks compressed concurrently. */
+    public static final int BLOCK_SIZE = 1024 * 1024;
+
+    private static final String ASYNC_TASK_CATEGORY = "Compress gzip block";
+
+    private final OutputStream out;
+
+    private final AsyncTaskService asyncTaskService;
+
+    private final int maxPendingBlocks;
+
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+
+    private byte[] block = new byte[BLOCK_SIZE];
+
+    private int blockLength;
+
+    private boolean blockSubmitted;
+
+    private boolean closed;
+
+    /**
+     * A {@link GZIPOutputStream} compressing at the fastest level.
+     * 
+     * @author agent
+     */
+    private static final class FastGZIPOutputStream extends GZIPOutputStream {
+
+        FastGZIPOutputStream(OutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+
+    /**
+     * Creates a stream compressing as many blocks concurrently as there are available processors.
+     * 
+     * @param out the stream to write the compressed data to
+     * @param asyncTaskService the {@link AsyncTaskService} to compress the blocks with
+     */
+    public ParallelGzipOutputStream(OutputStream out, AsyncTaskService asyncTaskService) {
+        this(out, asyncTaskService, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param out the stream to write the compressed data to
+     * @param asyncTaskService the {@link AsyncTaskService} to compress the blocks with
+     * @param parallelism the number of blocks to compress concurrently
+     */
+    public ParallelGzipOutputStream(OutputStream out, AsyncTaskService asyncTaskService, int parallelism) {
+        this.out = out;
+        this.asyncTaskService = asyncTaskService;
+        // keep twice as many blocks in flight as compressed concurrently, so that no thread idles while the oldest one is written
+        this.maxPendingBlocks = 2 * Math.max(1, parallelism);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (blockLength == BLOCK_SIZE) {
+            submitBlock();
+        }
+        block[blockLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (blockLength == BLOCK_SIZE) {
+                submitBlock();
+            }
+            final int chunk = Math.min(remaining, BLOCK_SIZE - blockLength);
+            System.arraycopy(b, offset, block, blockLength, chunk);
+            blockLength += chunk;
+            offset += chunk;
+            remaining -= chunk;
+        }
+    }
+
+    /**
+     * Compresses and writes all data written so far. Note that this ends the current gzip member, so frequent flushing degrades the
+     * compression ratio.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (blockLength > 0) {
+            submitBlock();
+        }
+        while (!pendingBlocks.isEmpty()) {
+            writeBlock(pendingBlocks.removeFirst());
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            if (!blockSubmitted) {
+                // write an empty member at least, as gzip decoders expect a gzip header
+                submitBlock();
+            }
+            flush();
+        } finally {
+            closed = true;
+            for (Future<byte[]> pendingBlock : pendingBlocks) {
+                pendingBlock.cancel(true);
+            }
+            pendingBlocks.clear();
+            out.close();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte[] data = block;
+        final int length = blockLength;
+        block = new byte[BLOCK_SIZE];
+        blockLength = 0;
+        blockSubmitted = true;
+        if (pendingBlocks.size() >= maxPendingBlocks) {
+            writeBlock(pendingBlocks.removeFirst());
+        }
+        pendingBlocks.addLast(asyncTaskService.submit(ASYNC_TASK_CATEGORY, () -> compress(data, length)));
+    }
+
+    private void writeBlock(Future<byte[]> pendingBlock) throws IOException {
+        try {
+            out.write(pendingBlock.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing data");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to compress data", e.getCause());
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private static byte[] compress(byte[] data, int length) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(length / 2);
+        try (GZIPOutputStream gzip = new FastGZIPOutputStream(buffer)) {
+            gzip.write(data, 0, length);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -18,10 +18,13 @@ package de.rcenvironment.core.utils.common.rpc;
  * Note that is it also possible for this exception to be thrown after the remote operation was performed without errors, but an error
  * occurred when transmitting the operation's result back across the network. Because of this, client code must take care to not make
  * unfounded assumptions about the state of the remote node after such an exception.
+ * <p>
+ * If the destination node refused the call without invoking any method, the more specific {@link RemoteRequestRefusedException} is
+ * thrown.
  * 
  * @author Robert Mischke
  */
-public final class RemoteOperationException extends Exception {
+public class RemoteOperationException extends Exception {
 
     private static final long serialVersionUID = -8379457474465190182L;
 
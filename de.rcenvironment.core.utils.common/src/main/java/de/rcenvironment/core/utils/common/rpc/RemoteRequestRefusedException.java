@@ -0,0 +1,25 @@
+/*
+ * Copyright 2006-2021 DLR, Germany
+ * 
+ * SPDX-License-Identifier: EPL-1.0
+ * 
+ * https://rcenvironment.de/
+ */
+
+package de.rcenvironment.core.utils.common.rpc;
+
+/**
+ * A {@link RemoteOperationException} signaling that the destination node refused a remote procedure call without invoking any method. The
+ * typical cause is a method that does not exist in the version the destination node is running, so callers may use this exception to fall
+ * back to operations supported by older versions.
+ * 
+ * @author agent
+ */
+public class RemoteRequestRefusedException extends RemoteOperationException {
+
+    private static final long serialVersionUID = 4720948103656911287L;
+
+    public RemoteRequestRefusedException(String message) {
+        super(message);
+    }
+}